@@ -39,6 +39,7 @@ import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
 import org.apache.commons.httpclient.HttpConnectionManager;
 import org.apache.commons.httpclient.URI;
 import org.apache.commons.httpclient.methods.DeleteMethod;
@@ -492,6 +493,7 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
         attachTimeBoundary(offlinePinotQuery, timeBoundaryInfo, true);
         handleExpressionOverride(offlinePinotQuery, _tableCache.getExpressionOverrideMap(offlineTableName));
         handleTimestampIndexOverride(offlinePinotQuery, offlineTableConfig);
+        handleExpressionIndexOverride(offlinePinotQuery, _tableCache.getMaterializedExpressions(offlineTableName));
         _queryOptimizer.optimize(offlinePinotQuery, offlineTableConfig, schema);
         offlineBrokerRequest = CalciteSqlCompiler.convertToBrokerRequest(offlinePinotQuery);
 
@@ -500,6 +502,7 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
         attachTimeBoundary(realtimePinotQuery, timeBoundaryInfo, false);
         handleExpressionOverride(realtimePinotQuery, _tableCache.getExpressionOverrideMap(realtimeTableName));
         handleTimestampIndexOverride(realtimePinotQuery, realtimeTableConfig);
+        handleExpressionIndexOverride(realtimePinotQuery, _tableCache.getMaterializedExpressions(realtimeTableName));
         _queryOptimizer.optimize(realtimePinotQuery, realtimeTableConfig, schema);
         realtimeBrokerRequest = CalciteSqlCompiler.convertToBrokerRequest(realtimePinotQuery);
 
@@ -511,6 +514,7 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
         setTableName(serverBrokerRequest, offlineTableName);
         handleExpressionOverride(serverPinotQuery, _tableCache.getExpressionOverrideMap(offlineTableName));
         handleTimestampIndexOverride(serverPinotQuery, offlineTableConfig);
+        handleExpressionIndexOverride(serverPinotQuery, _tableCache.getMaterializedExpressions(offlineTableName));
         _queryOptimizer.optimize(serverPinotQuery, offlineTableConfig, schema);
         offlineBrokerRequest = serverBrokerRequest;
 
@@ -521,6 +525,7 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
         setTableName(serverBrokerRequest, realtimeTableName);
         handleExpressionOverride(serverPinotQuery, _tableCache.getExpressionOverrideMap(realtimeTableName));
         handleTimestampIndexOverride(serverPinotQuery, realtimeTableConfig);
+        handleExpressionIndexOverride(serverPinotQuery, _tableCache.getMaterializedExpressions(realtimeTableName));
         _queryOptimizer.optimize(serverPinotQuery, realtimeTableConfig, schema);
         realtimeBrokerRequest = serverBrokerRequest;
 
@@ -566,6 +571,7 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
           Map<ServerInstance, List<String>> serverInstanceToSegmentsMap = routingTable.getServerInstanceToSegmentsMap();
           if (!serverInstanceToSegmentsMap.isEmpty()) {
             offlineRoutingTable = serverInstanceToSegmentsMap;
+            setSegmentSampleRate(offlineBrokerRequest, routingTable);
           } else {
             offlineBrokerRequest = null;
           }
@@ -582,6 +588,7 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
           Map<ServerInstance, List<String>> serverInstanceToSegmentsMap = routingTable.getServerInstanceToSegmentsMap();
           if (!serverInstanceToSegmentsMap.isEmpty()) {
             realtimeRoutingTable = serverInstanceToSegmentsMap;
+            setSegmentSampleRate(realtimeBrokerRequest, routingTable);
           } else {
             realtimeBrokerRequest = null;
           }
@@ -792,6 +799,47 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
         .forEach(operand -> setTimestampIndexExpressionOverrideHints(operand, timestampIndexColumns, pinotQuery));
   }
 
+  /**
+   * Sets the expression override hints for the expressions materialized by the EXPRESSION index. The hints are only
+   * applied on the segments that contain the materialized column, so segments created before the index was added are
+   * still processed with the original expression.
+   */
+  private static void handleExpressionIndexOverride(PinotQuery pinotQuery,
+      @Nullable Map<Expression, String> materializedExpressions) {
+    if (MapUtils.isEmpty(materializedExpressions)) {
+      return;
+    }
+    for (Expression expression : pinotQuery.getSelectList()) {
+      setExpressionIndexOverrideHints(expression, materializedExpressions, pinotQuery);
+    }
+    setExpressionIndexOverrideHints(pinotQuery.getFilterExpression(), materializedExpressions, pinotQuery);
+    setExpressionIndexOverrideHints(pinotQuery.getHavingExpression(), materializedExpressions, pinotQuery);
+    List<Expression> groupByList = pinotQuery.getGroupByList();
+    if (CollectionUtils.isNotEmpty(groupByList)) {
+      groupByList.forEach(
+          expression -> setExpressionIndexOverrideHints(expression, materializedExpressions, pinotQuery));
+    }
+    List<Expression> orderByList = pinotQuery.getOrderByList();
+    if (CollectionUtils.isNotEmpty(orderByList)) {
+      orderByList.forEach(
+          expression -> setExpressionIndexOverrideHints(expression, materializedExpressions, pinotQuery));
+    }
+  }
+
+  private static void setExpressionIndexOverrideHints(@Nullable Expression expression,
+      Map<Expression, String> materializedExpressions, PinotQuery pinotQuery) {
+    if (expression == null || expression.getFunctionCall() == null) {
+      return;
+    }
+    String materializedColumn = materializedExpressions.get(expression);
+    if (materializedColumn != null) {
+      pinotQuery.putToExpressionOverrideHints(expression, RequestUtils.getIdentifierExpression(materializedColumn));
+      return;
+    }
+    expression.getFunctionCall().getOperands()
+        .forEach(operand -> setExpressionIndexOverrideHints(operand, materializedExpressions, pinotQuery));
+  }
+
   /** Given a {@link PinotQuery}, check if the WHERE clause will always evaluate to false. */
   private boolean isFilterAlwaysFalse(PinotQuery pinotQuery) {
     return FALSE.equals(pinotQuery.getFilterExpression());
@@ -1635,6 +1683,18 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
     }
   }
 
+  /**
+   * Sets the fraction of the segments sampled by the broker into the query options for approximate queries, so that
+   * the servers only sample the remaining fraction within the segments.
+   */
+  private static void setSegmentSampleRate(BrokerRequest brokerRequest, RoutingTable routingTable) {
+    double segmentSampleRate = routingTable.getSegmentSampleRate();
+    if (segmentSampleRate < 1) {
+      brokerRequest.getPinotQuery().getQueryOptions()
+          .put(Broker.Request.QueryOptionKey.SEGMENT_SAMPLE_RATE, Double.toString(segmentSampleRate));
+    }
+  }
+
   /**
    * Processes the optimized broker requests for both OFFLINE and REALTIME table.
    * TODO: Directly take PinotQuery
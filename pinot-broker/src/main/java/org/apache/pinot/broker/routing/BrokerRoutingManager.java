@@ -51,6 +51,7 @@ import org.apache.pinot.broker.routing.segmentpreselector.SegmentPreSelector;
 import org.apache.pinot.broker.routing.segmentpreselector.SegmentPreSelectorFactory;
 import org.apache.pinot.broker.routing.segmentpruner.SegmentPruner;
 import org.apache.pinot.broker.routing.segmentpruner.SegmentPrunerFactory;
+import org.apache.pinot.broker.routing.segmentsampler.SegmentSampler;
 import org.apache.pinot.broker.routing.segmentselector.SegmentSelector;
 import org.apache.pinot.broker.routing.segmentselector.SegmentSelectorFactory;
 import org.apache.pinot.broker.routing.timeboundary.TimeBoundaryManager;
@@ -59,6 +60,7 @@ import org.apache.pinot.common.metrics.BrokerMeter;
 import org.apache.pinot.common.metrics.BrokerMetrics;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.utils.HashUtil;
+import org.apache.pinot.common.utils.config.QueryOptionsUtils;
 import org.apache.pinot.common.utils.config.TagNameUtils;
 import org.apache.pinot.common.utils.helix.HelixHelper;
 import org.apache.pinot.core.routing.RoutingManager;
@@ -641,7 +643,7 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
       }
     }
     return new RoutingTable(serverInstanceToSegmentsMap, selectionResult.getUnavailableSegments(),
-        selectionResult.getNumPrunedSegments());
+        selectionResult.getNumPrunedSegments(), selectionResult.getSegmentSampleRate());
   }
 
   @Override
@@ -803,10 +805,21 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
         }
       }
       int numPrunedSegments = numTotalSelectedSegments - selectedSegments.size();
+      double segmentSampleRate = 1;
+      if (!selectedSegments.isEmpty()) {
+        Map<String, String> queryOptions = brokerRequest.getPinotQuery().getQueryOptions();
+        Double sampleRate = queryOptions != null ? QueryOptionsUtils.getSampleRate(queryOptions) : null;
+        if (sampleRate != null) {
+          int numSegmentsBeforeSampling = selectedSegments.size();
+          selectedSegments = SegmentSampler.sample(selectedSegments, sampleRate);
+          segmentSampleRate = (double) selectedSegments.size() / numSegmentsBeforeSampling;
+        }
+      }
       if (!selectedSegments.isEmpty()) {
         InstanceSelector.SelectionResult selectionResult =
             _instanceSelector.select(brokerRequest, new ArrayList<>(selectedSegments), requestId);
         selectionResult.setNumPrunedSegments(numPrunedSegments);
+        selectionResult.setSegmentSampleRate(segmentSampleRate);
         return selectionResult;
       } else {
         return new InstanceSelector.SelectionResult(Collections.emptyMap(), Collections.emptyList(), numPrunedSegments);
@@ -73,6 +73,7 @@ public interface InstanceSelector {
     private final Map<String, String> _segmentToInstanceMap;
     private final List<String> _unavailableSegments;
     private int _numPrunedSegments;
+    private double _segmentSampleRate = 1;
 
     public SelectionResult(Map<String, String> segmentToInstanceMap, List<String> unavailableSegments) {
       this(segmentToInstanceMap, unavailableSegments, 0);
@@ -112,5 +113,19 @@ public interface InstanceSelector {
     public void setNumPrunedSegments(int numPrunedSegments) {
       _numPrunedSegments = numPrunedSegments;
     }
+
+    /**
+     * Returns the fraction of the segments (after pruning) sampled by the broker for approximate queries
+     */
+    public double getSegmentSampleRate() {
+      return _segmentSampleRate;
+    }
+
+    /**
+     * Sets the fraction of the segments (after pruning) sampled by the broker for approximate queries
+     */
+    public void setSegmentSampleRate(double segmentSampleRate) {
+      _segmentSampleRate = segmentSampleRate;
+    }
   }
 }
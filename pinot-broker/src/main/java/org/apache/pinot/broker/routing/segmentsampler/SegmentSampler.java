@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing.segmentsampler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.pinot.common.utils.HashUtil;
+
+
+/**
+ * The segment sampler samples the selected segments for the approximate queries (enabled with the {@code sampleRate}
+ * query option).
+ * <p>The segments are ordered by the hash of their names and the first ones are picked, so that the same segments are
+ * queried for the same sample rate, and the sampled segments are not correlated with the segment creation order (e.g.
+ * time). At least {@link #MIN_NUM_SAMPLED_SEGMENTS} segments are kept so that the estimate is not dominated by a few
+ * segments, and the servers sample the document ranges within the segments with the remaining fraction.
+ */
+public class SegmentSampler {
+  public static final int MIN_NUM_SAMPLED_SEGMENTS = 10;
+
+  private SegmentSampler() {
+  }
+
+  /**
+   * Returns the sampled segments, or the given segments if no segment can be sampled out.
+   */
+  public static Set<String> sample(Set<String> segments, double sampleRate) {
+    int numSegments = segments.size();
+    int numSampledSegments = Math.max((int) Math.ceil(numSegments * sampleRate), MIN_NUM_SAMPLED_SEGMENTS);
+    if (numSampledSegments >= numSegments) {
+      return segments;
+    }
+    String[] segmentArray = segments.toArray(new String[0]);
+    // Sort the segments by the hash of their names (high 32 bits), and break ties with the index (low 32 bits)
+    long[] keys = new long[numSegments];
+    for (int i = 0; i < numSegments; i++) {
+      keys[i] = ((long) HashUtil.murmur2(segmentArray[i].getBytes(StandardCharsets.UTF_8)) << 32) | i;
+    }
+    Arrays.sort(keys);
+    Set<String> sampledSegments = new HashSet<>(HashUtil.getHashMapCapacity(numSampledSegments));
+    for (int i = 0; i < numSampledSegments; i++) {
+      sampledSegments.add(segmentArray[(int) keys[i]]);
+    }
+    return sampledSegments;
+  }
+}
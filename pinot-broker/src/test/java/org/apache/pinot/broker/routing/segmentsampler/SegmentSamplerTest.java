@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing.segmentsampler;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class SegmentSamplerTest {
+
+  @Test
+  public void testSample() {
+    Set<String> segments = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      segments.add("testTable__0__" + i + "__20230101T0000Z");
+    }
+
+    // 10% of the segments should be sampled
+    Set<String> sampledSegments = SegmentSampler.sample(segments, 0.1);
+    assertEquals(sampledSegments.size(), 100);
+    assertTrue(segments.containsAll(sampledSegments));
+
+    // Sampling should be deterministic, and a lower sample rate should pick a subset of the segments
+    assertEquals(SegmentSampler.sample(segments, 0.1), sampledSegments);
+    assertTrue(sampledSegments.containsAll(SegmentSampler.sample(segments, 0.05)));
+
+    // At least MIN_NUM_SAMPLED_SEGMENTS segments should be kept
+    assertEquals(SegmentSampler.sample(segments, 0.001).size(), SegmentSampler.MIN_NUM_SAMPLED_SEGMENTS);
+
+    // No segment should be sampled out when there are not enough segments
+    Set<String> fewSegments = new HashSet<>();
+    for (int i = 0; i < SegmentSampler.MIN_NUM_SAMPLED_SEGMENTS; i++) {
+      fewSegments.add("segment_" + i);
+    }
+    assertSame(SegmentSampler.sample(fewSegments, 0.1), fewSegments);
+    assertSame(SegmentSampler.sample(segments, 1), segments);
+  }
+}
@@ -48,6 +48,7 @@ import org.apache.pinot.spi.data.DimensionFieldSpec;
 import org.apache.pinot.spi.data.FieldSpec;
 import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.utils.CommonConstants.Segment.BuiltInVirtualColumn;
+import org.apache.pinot.spi.utils.ExpressionIndexUtils;
 import org.apache.pinot.spi.utils.TimestampIndexUtils;
 import org.apache.pinot.spi.utils.builder.TableNameBuilder;
 import org.apache.pinot.sql.parsers.CalciteSqlParser;
@@ -184,6 +185,16 @@ public class TableCache implements PinotConfigProvider {
     return tableConfigInfo != null ? tableConfigInfo._timestampIndexColumns : null;
   }
 
+  /**
+   * Returns the map from the materialized expression to the materialized column of the EXPRESSION index for the given
+   * table, or {@code null} if table does not exist.
+   */
+  @Nullable
+  public Map<Expression, String> getMaterializedExpressions(String tableNameWithType) {
+    TableConfigInfo tableConfigInfo = _tableConfigInfoMap.get(tableNameWithType);
+    return tableConfigInfo != null ? tableConfigInfo._materializedExpressions : null;
+  }
+
   /**
    * Returns the table config for the given table, or {@code null} if it does not exist.
    */
@@ -497,6 +508,8 @@ public class TableCache implements PinotConfigProvider {
     final Map<Expression, Expression> _expressionOverrideMap;
     // All the timestamp with granularity column names
     final Set<String> _timestampIndexColumns;
+    // Map from the materialized expression to the materialized column of the EXPRESSION index
+    final Map<Expression, String> _materializedExpressions;
 
     private TableConfigInfo(TableConfig tableConfig) {
       _tableConfig = tableConfig;
@@ -526,6 +539,20 @@ public class TableCache implements PinotConfigProvider {
         _expressionOverrideMap = null;
       }
       _timestampIndexColumns = TimestampIndexUtils.extractColumnsWithGranularity(tableConfig);
+      Map<String, String> materializedExpressions = ExpressionIndexUtils.extractMaterializedExpressions(tableConfig);
+      if (!materializedExpressions.isEmpty()) {
+        _materializedExpressions = new HashMap<>();
+        for (Map.Entry<String, String> entry : materializedExpressions.entrySet()) {
+          try {
+            _materializedExpressions.put(CalciteSqlParser.compileToExpression(entry.getKey()), entry.getValue());
+          } catch (Exception e) {
+            LOGGER.warn("Caught exception while compiling materialized expression: {} for table: {}, skipping it",
+                entry.getKey(), tableConfig.getTableName());
+          }
+        }
+      } else {
+        _materializedExpressions = Collections.emptyMap();
+      }
     }
   }
 
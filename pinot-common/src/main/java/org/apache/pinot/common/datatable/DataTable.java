@@ -134,11 +134,18 @@ public interface DataTable {
     OPERATOR_EXECUTION_TIME_MS(30, "operatorExecutionTimeMs", MetadataValueType.LONG),
     OPERATOR_ID(31, "operatorId", MetadataValueType.STRING),
     OPERATOR_EXEC_START_TIME_MS(32, "operatorExecStartTimeMs", MetadataValueType.LONG),
-    OPERATOR_EXEC_END_TIME_MS(33, "operatorExecEndTimeMs", MetadataValueType.LONG);
+    OPERATOR_EXEC_END_TIME_MS(33, "operatorExecEndTimeMs", MetadataValueType.LONG),
+    NUM_REUSED_TRANSFORM_EVALUATIONS(34, "numReusedTransformEvaluations", MetadataValueType.LONG),
+    NUM_PREFETCHED_BYTES(35, "numPrefetchedBytes", MetadataValueType.LONG),
+    PREFETCH_TIME_MS(36, "prefetchTimeMs", MetadataValueType.LONG),
+    THREAD_MEM_ALLOCATED_BYTES(37, "threadMemAllocatedBytes", MetadataValueType.LONG),
+    NUM_REUSED_BUFFER_BYTES(38, "numReusedBufferBytes", MetadataValueType.LONG),
+    NUM_SAMPLED_DOCS(39, "numSampledDocs", MetadataValueType.LONG),
+    NUM_EXPECTED_SAMPLED_DOCS(40, "numExpectedSampledDocs", MetadataValueType.LONG);
 
     // We keep this constant to track the max id added so far for backward compatibility.
     // Increase it when adding new keys, but NEVER DECREASE IT!!!
-    private static final int MAX_ID = 33;
+    private static final int MAX_ID = 40;
 
     private static final MetadataKey[] ID_TO_ENUM_KEY_MAP = new MetadataKey[MAX_ID + 1];
     private static final Map<String, MetadataKey> NAME_TO_ENUM_KEY_MAP = new HashMap<>();
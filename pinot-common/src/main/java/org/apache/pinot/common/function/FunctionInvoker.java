@@ -19,18 +19,25 @@
 package org.apache.pinot.common.function;
 
 import com.google.common.base.Preconditions;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.utils.PinotDataType;
 
 
 /**
  * The {@code FunctionInvoker} is a wrapper on a java method which supports arguments type conversion and method
- * invocation via reflection.
+ * invocation via method handle.
  */
 public class FunctionInvoker {
+  private static final MethodType GENERIC_INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
   private final Method _method;
   // If true, the function should return null if any of its argument is null
   // Otherwise, the function should deal with null in its own implementation.
@@ -39,6 +46,10 @@ public class FunctionInvoker {
   private final Class<?>[] _parameterClasses;
   private final PinotDataType[] _parameterTypes;
   private final Object _instance;
+  // Method handle with the exact type of the method, bound to the instance for non-static method
+  private final MethodHandle _methodHandle;
+  // Method handle which takes the arguments as an Object[] and returns the boxed result
+  private final MethodHandle _genericInvoker;
 
   public FunctionInvoker(FunctionInfo functionInfo) {
     _method = functionInfo.getMethod();
@@ -63,6 +74,13 @@ public class FunctionInvoker {
         throw new IllegalStateException("Caught exception while constructing class: " + clazz, e);
       }
     }
+    try {
+      MethodHandle methodHandle = MethodHandles.lookup().unreflect(_method).asFixedArity();
+      _methodHandle = _instance != null ? methodHandle.bindTo(_instance) : methodHandle;
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Caught exception while accessing method: " + _method, e);
+    }
+    _genericInvoker = _methodHandle.asSpreader(Object[].class, numParameters).asType(GENERIC_INVOKER_TYPE);
   }
 
   /**
@@ -136,10 +154,52 @@ public class FunctionInvoker {
       }
     }
     try {
-      return _method.invoke(_instance, arguments);
-    } catch (Exception e) {
+      return (Object) _genericInvoker.invokeExact(arguments);
+    } catch (Throwable t) {
+      throw new IllegalStateException(
+          "Caught exception while invoking method: " + _method + " with arguments: " + Arrays.toString(arguments), t);
+    }
+  }
+
+  /**
+   * Returns an implementation of the given functional interface (e.g. {@link java.util.function.DoubleUnaryOperator})
+   * which directly invokes the underlying method without reflection or boxing, or {@code null} if the method signature
+   * does not exactly match the single abstract method of the functional interface.
+   * <p>Null-intolerant handling is not applied because the primitive parameters can never be {@code null}.
+   */
+  @Nullable
+  public <T> T getPrimitiveFunction(Class<T> functionalInterface) {
+    Method abstractMethod = null;
+    for (Method method : functionalInterface.getMethods()) {
+      if (Modifier.isAbstract(method.getModifiers())) {
+        if (abstractMethod != null) {
+          return null;
+        }
+        abstractMethod = method;
+      }
+    }
+    if (abstractMethod == null || !abstractMethod.getReturnType().isPrimitive()) {
+      return null;
+    }
+    MethodType methodType = MethodType.methodType(abstractMethod.getReturnType(), abstractMethod.getParameterTypes());
+    for (Class<?> parameterClass : methodType.parameterArray()) {
+      if (!parameterClass.isPrimitive()) {
+        return null;
+      }
+    }
+    // NOTE: Only static method can be directly bound to the functional interface
+    if (_instance != null || !methodType.equals(_methodHandle.type())) {
+      return null;
+    }
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      MethodHandle directMethodHandle = lookup.unreflect(_method);
+      return functionalInterface.cast(
+          LambdaMetafactory.metafactory(lookup, abstractMethod.getName(), MethodType.methodType(functionalInterface),
+              methodType, directMethodHandle, methodType).getTarget().invoke());
+    } catch (Throwable t) {
       throw new IllegalStateException(
-          "Caught exception while invoking method: " + _method + " with arguments: " + Arrays.toString(arguments), e);
+          "Caught exception while creating: " + functionalInterface.getSimpleName() + " for method: " + _method, t);
     }
   }
 }
@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.exception.QueryException;
 import org.apache.pinot.common.response.BrokerResponse;
 import org.apache.pinot.common.response.ProcessingException;
@@ -47,7 +48,7 @@ import org.apache.pinot.spi.utils.JsonUtils;
     "numGroupsLimitReached", "totalDocs", "timeUsedMs", "offlineThreadCpuTimeNs", "realtimeThreadCpuTimeNs",
     "offlineSystemActivitiesCpuTimeNs", "realtimeSystemActivitiesCpuTimeNs", "offlineResponseSerializationCpuTimeNs",
     "realtimeResponseSerializationCpuTimeNs", "offlineTotalCpuTimeNs", "realtimeTotalCpuTimeNs", "segmentStatistics",
-    "traceInfo"
+    "traceInfo", "sampleRate", "confidenceIntervals"
 })
 public class BrokerResponseNative implements BrokerResponse {
   public static final BrokerResponseNative EMPTY_RESULT = BrokerResponseNative.empty();
@@ -90,8 +91,16 @@ public class BrokerResponseNative implements BrokerResponse {
   private long _numSegmentsPrunedByValue = 0L;
   private long _explainPlanNumEmptyFilterSegments = 0L;
   private long _explainPlanNumMatchAllFilterSegments = 0L;
+  private long _numReusedTransformEvaluations = 0L;
+  private long _numPrefetchedBytes = 0L;
+  private long _prefetchTimeMs = 0L;
+  private long _threadMemAllocatedBytes = 0L;
+  private long _numReusedBufferBytes = 0L;
   private int _numRowsResultSet = 0;
   private ResultTable _resultTable;
+  // Sample rate and 95% confidence intervals of the scaled COUNT results for approximate queries
+  private Double _sampleRate;
+  private Map<String, double[]> _confidenceIntervals;
   private Map<String, String> _traceInfo = new HashMap<>();
   private List<QueryProcessingException> _processingExceptions = new ArrayList<>();
   private List<String> _segmentStatistics = new ArrayList<>();
@@ -524,6 +533,85 @@ public class BrokerResponseNative implements BrokerResponse {
     _segmentStatistics = segmentStatistics;
   }
 
+  @JsonProperty("numReusedTransformEvaluations")
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public long getNumReusedTransformEvaluations() {
+    return _numReusedTransformEvaluations;
+  }
+
+  @JsonProperty("numReusedTransformEvaluations")
+  public void setNumReusedTransformEvaluations(long numReusedTransformEvaluations) {
+    _numReusedTransformEvaluations = numReusedTransformEvaluations;
+  }
+
+  @JsonProperty("numPrefetchedBytes")
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public long getNumPrefetchedBytes() {
+    return _numPrefetchedBytes;
+  }
+
+  @JsonProperty("numPrefetchedBytes")
+  public void setNumPrefetchedBytes(long numPrefetchedBytes) {
+    _numPrefetchedBytes = numPrefetchedBytes;
+  }
+
+  @JsonProperty("prefetchTimeMs")
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public long getPrefetchTimeMs() {
+    return _prefetchTimeMs;
+  }
+
+  @JsonProperty("prefetchTimeMs")
+  public void setPrefetchTimeMs(long prefetchTimeMs) {
+    _prefetchTimeMs = prefetchTimeMs;
+  }
+
+  @JsonProperty("threadMemAllocatedBytes")
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public long getThreadMemAllocatedBytes() {
+    return _threadMemAllocatedBytes;
+  }
+
+  @JsonProperty("threadMemAllocatedBytes")
+  public void setThreadMemAllocatedBytes(long threadMemAllocatedBytes) {
+    _threadMemAllocatedBytes = threadMemAllocatedBytes;
+  }
+
+  @JsonProperty("numReusedBufferBytes")
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public long getNumReusedBufferBytes() {
+    return _numReusedBufferBytes;
+  }
+
+  @JsonProperty("numReusedBufferBytes")
+  public void setNumReusedBufferBytes(long numReusedBufferBytes) {
+    _numReusedBufferBytes = numReusedBufferBytes;
+  }
+
+  @JsonProperty("sampleRate")
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Nullable
+  public Double getSampleRate() {
+    return _sampleRate;
+  }
+
+  @JsonProperty("sampleRate")
+  public void setSampleRate(@Nullable Double sampleRate) {
+    _sampleRate = sampleRate;
+  }
+
+  @JsonProperty("confidenceIntervals")
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Nullable
+  public Map<String, double[]> getConfidenceIntervals() {
+    return _confidenceIntervals;
+  }
+
+  @JsonProperty("confidenceIntervals")
+  public void setConfidenceIntervals(@Nullable Map<String, double[]> confidenceIntervals) {
+    _confidenceIntervals = confidenceIntervals;
+  }
+
   @JsonProperty("traceInfo")
   public Map<String, String> getTraceInfo() {
     return _traceInfo;
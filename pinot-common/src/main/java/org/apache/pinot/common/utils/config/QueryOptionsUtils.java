@@ -127,6 +127,14 @@ public class QueryOptionsUtils {
     return "false".equalsIgnoreCase(queryOptions.get(QueryOptionKey.USE_SCAN_REORDER_OPTIMIZATION));
   }
 
+  public static boolean isSkipSharedTransform(Map<String, String> queryOptions) {
+    return "false".equalsIgnoreCase(queryOptions.get(QueryOptionKey.USE_SHARED_TRANSFORM));
+  }
+
+  public static boolean isSelectivityFilterReorder(Map<String, String> queryOptions) {
+    return Boolean.parseBoolean(queryOptions.get(QueryOptionKey.USE_SELECTIVITY_FILTER_REORDER));
+  }
+
   @Nullable
   public static Integer getNumReplicaGroupsToQuery(Map<String, String> queryOptions) {
     String numReplicaGroupsToQuery = queryOptions.get(QueryOptionKey.NUM_REPLICA_GROUPS_TO_QUERY);
@@ -192,6 +200,51 @@ public class QueryOptionsUtils {
     return groupByTrimThreshold != null ? Integer.parseInt(groupByTrimThreshold) : null;
   }
 
+  public static boolean isUsePackedGroupKeyMap(Map<String, String> queryOptions) {
+    return Boolean.parseBoolean(queryOptions.get(QueryOptionKey.USE_PACKED_GROUP_KEY_MAP));
+  }
+
+  public static boolean isUseSortedColumnGroupBy(Map<String, String> queryOptions) {
+    return Boolean.parseBoolean(queryOptions.get(QueryOptionKey.USE_SORTED_COLUMN_GROUP_BY));
+  }
+
+  public static boolean isUseSharedFilteredAggregation(Map<String, String> queryOptions) {
+    return Boolean.parseBoolean(queryOptions.get(QueryOptionKey.USE_SHARED_FILTERED_AGGREGATION));
+  }
+
+  @Nullable
+  public static Integer getNumGroupByCombinePartitions(Map<String, String> queryOptions) {
+    String numGroupByCombinePartitions = queryOptions.get(QueryOptionKey.NUM_GROUP_BY_COMBINE_PARTITIONS);
+    return numGroupByCombinePartitions != null ? Integer.parseInt(numGroupByCombinePartitions) : null;
+  }
+
+  @Nullable
+  public static Double getSampleRate(Map<String, String> queryOptions) {
+    String sampleRateString = queryOptions.get(QueryOptionKey.SAMPLE_RATE);
+    if (sampleRateString != null) {
+      double sampleRate = Double.parseDouble(sampleRateString);
+      Preconditions.checkState(sampleRate > 0 && sampleRate <= 1, "Sample rate must be in range (0, 1], got: %s",
+          sampleRate);
+      return sampleRate;
+    } else {
+      return null;
+    }
+  }
+
+  public static double getSegmentSampleRate(Map<String, String> queryOptions) {
+    String segmentSampleRateString = queryOptions.get(QueryOptionKey.SEGMENT_SAMPLE_RATE);
+    return segmentSampleRateString != null ? Double.parseDouble(segmentSampleRateString) : 1;
+  }
+
+  /**
+   * Returns the fraction of the documents to sample within the segments, which is the remaining fraction after the
+   * broker sampled the segments (1 means no sampling).
+   */
+  public static double getDocSampleRate(Map<String, String> queryOptions) {
+    Double sampleRate = getSampleRate(queryOptions);
+    return sampleRate != null ? Math.min(sampleRate / getSegmentSampleRate(queryOptions), 1) : 1;
+  }
+
   public static boolean shouldDropResults(Map<String, String> queryOptions) {
     return Boolean.parseBoolean(queryOptions.get(CommonConstants.Broker.Request.QueryOptionKey.DROP_RESULTS));
   }
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.function;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import org.apache.pinot.common.function.scalar.ArithmeticFunctions;
+import org.apache.pinot.common.function.scalar.StringFunctions;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+
+
+public class FunctionInvokerTest {
+
+  @Test
+  public void testInvoke()
+      throws Exception {
+    FunctionInvoker functionInvoker = new FunctionInvoker(
+        new FunctionInfo(ArithmeticFunctions.class.getMethod("plus", double.class, double.class),
+            ArithmeticFunctions.class, false));
+    assertEquals(functionInvoker.invoke(new Object[]{1.0, 2.0}), 3.0);
+    // Null intolerant function should return null when any argument is null
+    assertNull(functionInvoker.invoke(new Object[]{1.0, null}));
+    // Wrong argument type should be wrapped into IllegalStateException
+    assertThrows(IllegalStateException.class, () -> functionInvoker.invoke(new Object[]{1.0, "2"}));
+
+    FunctionInvoker stringFunctionInvoker = new FunctionInvoker(
+        new FunctionInfo(StringFunctions.class.getMethod("upper", String.class), StringFunctions.class, false));
+    assertEquals(stringFunctionInvoker.invoke(new Object[]{"abc"}), "ABC");
+  }
+
+  @Test
+  public void testGetPrimitiveFunction()
+      throws Exception {
+    FunctionInvoker functionInvoker = new FunctionInvoker(
+        new FunctionInfo(ArithmeticFunctions.class.getMethod("plus", double.class, double.class),
+            ArithmeticFunctions.class, false));
+    DoubleBinaryOperator doubleBinaryOperator = functionInvoker.getPrimitiveFunction(DoubleBinaryOperator.class);
+    assertNotNull(doubleBinaryOperator);
+    assertEquals(doubleBinaryOperator.applyAsDouble(1.0, 2.0), 3.0);
+
+    // Signature mismatch
+    assertNull(functionInvoker.getPrimitiveFunction(DoubleUnaryOperator.class));
+    assertNull(functionInvoker.getPrimitiveFunction(LongBinaryOperator.class));
+
+    // Non-primitive signature
+    FunctionInvoker stringFunctionInvoker = new FunctionInvoker(
+        new FunctionInfo(StringFunctions.class.getMethod("upper", String.class), StringFunctions.class, false));
+    assertNull(stringFunctionInvoker.getPrimitiveFunction(DoubleUnaryOperator.class));
+  }
+}
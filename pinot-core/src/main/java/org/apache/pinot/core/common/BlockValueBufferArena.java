@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.common;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+
+
+/**
+ * Thread-local arena of the block sized ({@link DocIdSetPlanNode#MAX_DOC_PER_CALL}) single-value buffers used by
+ * {@link DataBlockCache} and the transform functions to hold the values of a block.
+ * <p>Without the arena, every segment operator allocates its own buffers per column and per transform function, which
+ * produces a lot of young-gen garbage at high QPS. Within a scope opened by {@link #openScope()}, typically around the
+ * processing of one segment in a query worker thread, the buffers are leased from the arena of the current thread, and
+ * they are all returned to the arena when the scope is closed by {@link #closeScope()}. The next segment processed by
+ * the same thread then reuses them.
+ * <p>Outside of a scope (e.g. operators not driven by the combine operators), the buffers are allocated as usual. The
+ * leased buffers must not be accessed after the scope is closed, so the values must not escape the segment operator
+ * (results blocks always copy the values out).
+ */
+public final class BlockValueBufferArena {
+  private BlockValueBufferArena() {
+  }
+
+  public static final int BUFFER_SIZE = DocIdSetPlanNode.MAX_DOC_PER_CALL;
+  // Upper bound of the free buffers kept per value type per thread, to bound the retained memory
+  private static final int MAX_NUM_FREE_BUFFERS = 32;
+  // Estimated size of a reference in a String[]
+  private static final int REFERENCE_SIZE_BYTES = 4;
+
+  private static final ThreadLocal<Arena> THREAD_LOCAL_ARENA = ThreadLocal.withInitial(Arena::new);
+
+  /**
+   * Opens a scope on the current thread. Scopes can be nested, and the buffers are returned when the outermost scope
+   * is closed.
+   */
+  public static void openScope() {
+    THREAD_LOCAL_ARENA.get()._scopeDepth++;
+  }
+
+  /**
+   * Closes the scope opened by {@link #openScope()} on the current thread.
+   */
+  public static void closeScope() {
+    Arena arena = THREAD_LOCAL_ARENA.get();
+    if (--arena._scopeDepth == 0) {
+      arena.releaseAll();
+    }
+  }
+
+  /**
+   * Returns the total bytes of the buffers leased from the free buffers (instead of being allocated) on the current
+   * thread.
+   */
+  public static long getNumReusedBytes() {
+    return THREAD_LOCAL_ARENA.get()._numReusedBytes;
+  }
+
+  public static int[] leaseIntBuffer(int length) {
+    if (length > BUFFER_SIZE) {
+      return new int[length];
+    }
+    Arena arena = THREAD_LOCAL_ARENA.get();
+    return arena._scopeDepth > 0 ? arena.lease(arena._intBuffers) : new int[length];
+  }
+
+  public static long[] leaseLongBuffer(int length) {
+    if (length > BUFFER_SIZE) {
+      return new long[length];
+    }
+    Arena arena = THREAD_LOCAL_ARENA.get();
+    return arena._scopeDepth > 0 ? arena.lease(arena._longBuffers) : new long[length];
+  }
+
+  public static float[] leaseFloatBuffer(int length) {
+    if (length > BUFFER_SIZE) {
+      return new float[length];
+    }
+    Arena arena = THREAD_LOCAL_ARENA.get();
+    return arena._scopeDepth > 0 ? arena.lease(arena._floatBuffers) : new float[length];
+  }
+
+  public static double[] leaseDoubleBuffer(int length) {
+    if (length > BUFFER_SIZE) {
+      return new double[length];
+    }
+    Arena arena = THREAD_LOCAL_ARENA.get();
+    return arena._scopeDepth > 0 ? arena.lease(arena._doubleBuffers) : new double[length];
+  }
+
+  public static String[] leaseStringBuffer(int length) {
+    if (length > BUFFER_SIZE) {
+      return new String[length];
+    }
+    Arena arena = THREAD_LOCAL_ARENA.get();
+    return arena._scopeDepth > 0 ? arena.lease(arena._stringBuffers) : new String[length];
+  }
+
+  private static class Arena {
+    final BufferPool<int[]> _intBuffers = new BufferPool<>(() -> new int[BUFFER_SIZE], Integer.BYTES);
+    final BufferPool<long[]> _longBuffers = new BufferPool<>(() -> new long[BUFFER_SIZE], Long.BYTES);
+    final BufferPool<float[]> _floatBuffers = new BufferPool<>(() -> new float[BUFFER_SIZE], Float.BYTES);
+    final BufferPool<double[]> _doubleBuffers = new BufferPool<>(() -> new double[BUFFER_SIZE], Double.BYTES);
+    // Null out the references on release so that the free buffers do not keep the values alive
+    final BufferPool<String[]> _stringBuffers = new BufferPool<>(() -> new String[BUFFER_SIZE], REFERENCE_SIZE_BYTES,
+        buffer -> Arrays.fill(buffer, 0, BUFFER_SIZE, null));
+    int _scopeDepth;
+    long _numReusedBytes;
+
+    <T> T lease(BufferPool<T> bufferPool) {
+      T buffer = bufferPool._freeBuffers.pollLast();
+      if (buffer != null) {
+        _numReusedBytes += bufferPool._bufferSizeBytes;
+      } else {
+        buffer = bufferPool._bufferSupplier.get();
+      }
+      bufferPool._leasedBuffers.add(buffer);
+      return buffer;
+    }
+
+    void releaseAll() {
+      _intBuffers.releaseAll();
+      _longBuffers.releaseAll();
+      _floatBuffers.releaseAll();
+      _doubleBuffers.releaseAll();
+      _stringBuffers.releaseAll();
+    }
+  }
+
+  private static class BufferPool<T> {
+    final Supplier<T> _bufferSupplier;
+    final long _bufferSizeBytes;
+    final Consumer<T> _bufferClearer;
+    final ArrayDeque<T> _freeBuffers = new ArrayDeque<>();
+    final List<T> _leasedBuffers = new ArrayList<>();
+
+    BufferPool(Supplier<T> bufferSupplier, int valueSizeBytes) {
+      this(bufferSupplier, valueSizeBytes, null);
+    }
+
+    BufferPool(Supplier<T> bufferSupplier, int valueSizeBytes, @Nullable Consumer<T> bufferClearer) {
+      _bufferSupplier = bufferSupplier;
+      _bufferSizeBytes = (long) valueSizeBytes * BUFFER_SIZE;
+      _bufferClearer = bufferClearer;
+    }
+
+    void releaseAll() {
+      int numLeasedBuffers = _leasedBuffers.size();
+      for (int i = 0; i < numLeasedBuffers && _freeBuffers.size() < MAX_NUM_FREE_BUFFERS; i++) {
+        T buffer = _leasedBuffers.get(i);
+        if (_bufferClearer != null) {
+          _bufferClearer.accept(buffer);
+        }
+        _freeBuffers.addLast(buffer);
+      }
+      _leasedBuffers.clear();
+    }
+  }
+}
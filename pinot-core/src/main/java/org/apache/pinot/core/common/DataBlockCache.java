@@ -24,8 +24,14 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.apache.pinot.segment.spi.evaluator.TransformEvaluator;
+import org.apache.pinot.segment.spi.index.reader.NullValueVectorReader;
 import org.apache.pinot.spi.data.FieldSpec;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.RoaringBitmapWriter;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 
 
 /**
@@ -47,6 +53,9 @@ public class DataBlockCache {
   private final Map<FieldSpec.DataType, Map<String, Object>> _valuesMap = new HashMap<>();
   private final Map<String, int[]> _numValuesMap = new HashMap<>();
 
+  // Null bitmaps projected onto the current block, need to be cleared in initNewBlock()
+  private final Map<String, RoaringBitmap> _nullBitmapMap = new HashMap<>();
+
   private int[] _docIds;
   private int _length;
 
@@ -74,6 +83,7 @@ public class DataBlockCache {
       columns.clear();
     }
     _columnNumValuesLoaded.clear();
+    _nullBitmapMap.clear();
   }
 
   /**
@@ -94,6 +104,72 @@ public class DataBlockCache {
     return _docIds;
   }
 
+  /**
+   * Returns the null bitmap of the column projected onto the current block, where the i-th bit is set when the i-th
+   * document within the block is null, or {@code null} if there is no null value within the block. The projected
+   * bitmap is cached, so that it is shared by all the consumers of the column within the block.
+   *
+   * @param column Column name
+   * @param nullValueReader Null value vector reader of the column, or {@code null} if it does not exist
+   * @return Projected null bitmap
+   */
+  @Nullable
+  public RoaringBitmap getNullBitmap(String column, @Nullable NullValueVectorReader nullValueReader) {
+    if (_nullBitmapMap.containsKey(column)) {
+      return _nullBitmapMap.get(column);
+    }
+    RoaringBitmap nullBitmap = nullValueReader != null ? projectNullBitmap(nullValueReader.getNullBitmap()) : null;
+    _nullBitmapMap.put(column, nullBitmap);
+    return nullBitmap;
+  }
+
+  /**
+   * Projects the null bitmap onto the current block by walking the null document ids alongside the (sorted) document
+   * ids of the block, instead of looking up every document id within the null bitmap.
+   */
+  @Nullable
+  private RoaringBitmap projectNullBitmap(@Nullable ImmutableRoaringBitmap nullBitmap) {
+    if (nullBitmap == null || nullBitmap.isEmpty() || _length == 0) {
+      return null;
+    }
+    int[] docIds = _docIds;
+    int length = _length;
+    int firstDocId = docIds[0];
+    int lastDocId = docIds[length - 1];
+    PeekableIntIterator nullDocIdIterator = nullBitmap.getIntIterator();
+    nullDocIdIterator.advanceIfNeeded(firstDocId);
+    if (!nullDocIdIterator.hasNext() || nullDocIdIterator.peekNext() > lastDocId) {
+      return null;
+    }
+    RoaringBitmapWriter<RoaringBitmap> writer = RoaringBitmapWriter.writer().get();
+    if (lastDocId - firstDocId == length - 1) {
+      // Contiguous document ids, shift the null document ids within the range
+      while (nullDocIdIterator.hasNext()) {
+        int nullDocId = nullDocIdIterator.next();
+        if (nullDocId > lastDocId) {
+          break;
+        }
+        writer.add(nullDocId - firstDocId);
+      }
+    } else {
+      int index = 0;
+      while (nullDocIdIterator.hasNext() && index < length) {
+        int nullDocId = nullDocIdIterator.peekNext();
+        int docId = docIds[index];
+        if (docId == nullDocId) {
+          writer.add(index++);
+          nullDocIdIterator.next();
+        } else if (docId < nullDocId) {
+          index++;
+        } else {
+          nullDocIdIterator.advanceIfNeeded(docId);
+        }
+      }
+    }
+    RoaringBitmap projectedNullBitmap = writer.get();
+    return projectedNullBitmap.isEmpty() ? null : projectedNullBitmap;
+  }
+
   /**
    * SINGLE-VALUED COLUMN API
    */
@@ -108,7 +184,7 @@ public class DataBlockCache {
     int[] dictIds = (int[]) _dictIdsMap.get(column);
     if (_columnDictIdLoaded.add(column)) {
       if (dictIds == null) {
-        dictIds = new int[_length];
+        dictIds = BlockValueBufferArena.leaseIntBuffer(_length);
         _dictIdsMap.put(column, dictIds);
       }
       _dataFetcher.fetchDictIds(column, _docIds, _length, dictIds);
@@ -126,7 +202,7 @@ public class DataBlockCache {
     int[] intValues = getValues(FieldSpec.DataType.INT, column);
     if (markLoaded(FieldSpec.DataType.INT, column)) {
       if (intValues == null) {
-        intValues = new int[_length];
+        intValues = BlockValueBufferArena.leaseIntBuffer(_length);
         putValues(FieldSpec.DataType.INT, column, intValues);
       }
       _dataFetcher.fetchIntValues(column, _docIds, _length, intValues);
@@ -155,7 +231,7 @@ public class DataBlockCache {
     long[] longValues = getValues(FieldSpec.DataType.LONG, column);
     if (markLoaded(FieldSpec.DataType.LONG, column)) {
       if (longValues == null) {
-        longValues = new long[_length];
+        longValues = BlockValueBufferArena.leaseLongBuffer(_length);
         putValues(FieldSpec.DataType.LONG, column, longValues);
       }
       _dataFetcher.fetchLongValues(column, _docIds, _length, longValues);
@@ -184,7 +260,7 @@ public class DataBlockCache {
     float[] floatValues = getValues(FieldSpec.DataType.FLOAT, column);
     if (markLoaded(FieldSpec.DataType.FLOAT, column)) {
       if (floatValues == null) {
-        floatValues = new float[_length];
+        floatValues = BlockValueBufferArena.leaseFloatBuffer(_length);
         putValues(FieldSpec.DataType.FLOAT, column, floatValues);
       }
       _dataFetcher.fetchFloatValues(column, _docIds, _length, floatValues);
@@ -213,7 +289,7 @@ public class DataBlockCache {
     double[] doubleValues = getValues(FieldSpec.DataType.DOUBLE, column);
     if (markLoaded(FieldSpec.DataType.DOUBLE, column)) {
       if (doubleValues == null) {
-        doubleValues = new double[_length];
+        doubleValues = BlockValueBufferArena.leaseDoubleBuffer(_length);
         putValues(FieldSpec.DataType.DOUBLE, column, doubleValues);
       }
       _dataFetcher.fetchDoubleValues(column, _docIds, _length, doubleValues);
@@ -271,7 +347,7 @@ public class DataBlockCache {
     String[] stringValues = getValues(FieldSpec.DataType.STRING, column);
     if (markLoaded(FieldSpec.DataType.STRING, column)) {
       if (stringValues == null) {
-        stringValues = new String[_length];
+        stringValues = BlockValueBufferArena.leaseStringBuffer(_length);
         putValues(FieldSpec.DataType.STRING, column, stringValues);
       }
       _dataFetcher.fetchStringValues(column, _docIds, _length, stringValues);
@@ -1405,6 +1405,9 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
             .setStatsHistory(realtimeTableDataManager.getStatsHistory())
             .setAggregateMetrics(indexingConfig.isAggregateMetrics())
             .setIngestionAggregationConfigs(IngestionConfigUtils.getAggregationConfigs(tableConfig))
+            .setStarTreeIndexConfigs(indexingConfig.getStarTreeIndexConfigs())
+            .setStarTreeEnabled(indexingConfig.isEnableRealtimeStarTree())
+            .setStarTreeMaxRecords(indexingConfig.getRealtimeStarTreeMaxRecords())
             .setNullHandlingEnabled(_nullHandlingEnabled)
             .setConsumerDir(consumerDir).setUpsertMode(tableConfig.getUpsertMode())
             .setPartitionUpsertMetadataManager(partitionUpsertMetadataManager)
@@ -0,0 +1,255 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.table;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.core.query.request.context.QueryContext;
+
+
+/**
+ * {@link IndexedTable} implementation that merges records without any shared lock by radix partitioning the keys.
+ * <p>The merge happens in 2 phases:
+ * <ul>
+ *   <li>
+ *     Each worker thread upserts records into its own {@link Writer}, which pre-partitions the records by the key hash
+ *     into thread-local maps.
+ *   </li>
+ *   <li>
+ *     After all the writers are done, each partition is merged by a single owner thread via
+ *     {@link #mergePartition(int)}. Partitions never share keys, so they can be merged and trimmed independently.
+ *   </li>
+ * </ul>
+ * {@link #finishMergingPartitions()} must be called after all the partitions are merged and before
+ * {@link #finish(boolean, boolean)}.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class PartitionedIndexedTable extends IndexedTable {
+  private final int _numPartitions;
+  private final int _partitionShift;
+  private final int _partitionTrimThreshold;
+  private final ConcurrentLinkedQueue<Writer> _writers = new ConcurrentLinkedQueue<>();
+  private final Map<Key, Record>[] _mergedPartitions;
+  // Without ORDER BY, keys admitted into the table, shared by all the writers so that every admitted key collects the
+  // records from all the writers
+  private final ConcurrentHashMap<Key, Boolean> _admittedKeys = new ConcurrentHashMap<>();
+  private final AtomicInteger _numAdmittedKeys = new AtomicInteger();
+  private final AtomicInteger _numPartitionResizes = new AtomicInteger();
+  private final AtomicLong _partitionResizeTimeNs = new AtomicLong();
+
+  /**
+   * Constructor for the PartitionedIndexedTable.
+   *
+   * @param dataSchema    Data schema of the table
+   * @param queryContext  Query context
+   * @param resultSize    Number of records to keep in the final result after calling {@link #finish(boolean, boolean)}
+   * @param trimSize      Number of records to keep when trimming the table
+   * @param trimThreshold Trim the table when the number of records exceeds the threshold
+   * @param numPartitions Number of partitions, must be a power of 2
+   */
+  public PartitionedIndexedTable(DataSchema dataSchema, QueryContext queryContext, int resultSize, int trimSize,
+      int trimThreshold, int numPartitions) {
+    super(dataSchema, queryContext, resultSize, trimSize, trimThreshold, new HashMap<>());
+    Preconditions.checkArgument(numPartitions > 0 && Integer.bitCount(numPartitions) == 1,
+        "Number of partitions must be a positive power of 2, got: %s", numPartitions);
+    _numPartitions = numPartitions;
+    _partitionShift = Integer.SIZE - Integer.numberOfTrailingZeros(numPartitions);
+    // Each partition holds a share of the records, so trim a partition when it reaches its share of the trim
+    // threshold. Keep at least 2 times the trim size to avoid trimming too frequently.
+    _partitionTrimThreshold =
+        (int) Math.min(Integer.MAX_VALUE, Math.max((long) _trimThreshold / numPartitions, 2L * _trimSize));
+    _mergedPartitions = new Map[numPartitions];
+  }
+
+  public int getNumPartitions() {
+    return _numPartitions;
+  }
+
+  /**
+   * Returns a new writer to be used by a single thread to upsert records.
+   */
+  public Writer createWriter() {
+    Writer writer = new Writer();
+    _writers.add(writer);
+    return writer;
+  }
+
+  /**
+   * Merges the records of the given partition from all the writers. Each partition should be merged by exactly one
+   * thread, and only after all the writers are done.
+   */
+  public void mergePartition(int partitionId) {
+    List<Map<Key, Record>> partitions = new ArrayList<>(_writers.size());
+    Map<Key, Record> mergedPartition = null;
+    for (Writer writer : _writers) {
+      Map<Key, Record> partition = writer._partitions[partitionId];
+      if (partition.isEmpty()) {
+        continue;
+      }
+      // Merge into the largest partition to reduce the number of records to be re-inserted
+      if (mergedPartition == null || partition.size() > mergedPartition.size()) {
+        if (mergedPartition != null) {
+          partitions.add(mergedPartition);
+        }
+        mergedPartition = partition;
+      } else {
+        partitions.add(partition);
+      }
+    }
+    if (mergedPartition == null) {
+      mergedPartition = new HashMap<>();
+    } else {
+      for (Map<Key, Record> partition : partitions) {
+        for (Map.Entry<Key, Record> entry : partition.entrySet()) {
+          addOrUpdateRecord(mergedPartition, entry.getKey(), entry.getValue(), true);
+        }
+        if (_hasOrderBy && mergedPartition.size() >= _partitionTrimThreshold) {
+          resizePartition(mergedPartition);
+        }
+      }
+      // Keys never cross partitions, so keeping the top records within each partition keeps the top records overall
+      if (_hasOrderBy) {
+        resizePartition(mergedPartition);
+      }
+    }
+    _mergedPartitions[partitionId] = mergedPartition;
+  }
+
+  /**
+   * Collects the merged partitions into the lookup map. Should be called after all the partitions are merged.
+   */
+  public void finishMergingPartitions() {
+    for (Map<Key, Record> mergedPartition : _mergedPartitions) {
+      if (mergedPartition == null) {
+        continue;
+      }
+      // NOTE: Without ORDER BY, at most resultSize keys are admitted across all the partitions
+      _lookupMap.putAll(mergedPartition);
+    }
+  }
+
+  /**
+   * Thread-local upsert is done through {@link Writer#upsert(Key, Record)}.
+   */
+  @Override
+  public boolean upsert(Key key, Record record) {
+    throw new UnsupportedOperationException("Records should be upserted through the writers");
+  }
+
+  @Override
+  public int getNumResizes() {
+    return super.getNumResizes() + _numPartitionResizes.get();
+  }
+
+  @Override
+  public long getResizeTimeMs() {
+    return super.getResizeTimeMs() + TimeUnit.NANOSECONDS.toMillis(_partitionResizeTimeNs.get());
+  }
+
+  private int getPartitionId(Key key) {
+    // Use the high bits of the scrambled hash so that the partition does not correlate with the hash map buckets
+    return (int) (((key.hashCode() * 0x9E3779B9) & 0xFFFFFFFFL) >>> _partitionShift);
+  }
+
+  private void addOrUpdateRecord(Map<Key, Record> partition, Key key, Record newRecord, boolean addNewKey) {
+    Record existingRecord = partition.get(key);
+    if (existingRecord == null) {
+      if (addNewKey) {
+        partition.put(key, newRecord);
+      }
+    } else {
+      Object[] existingValues = existingRecord.getValues();
+      Object[] newValues = newRecord.getValues();
+      int aggNum = 0;
+      for (int i = _numKeyColumns; i < _numColumns; i++) {
+        existingValues[i] = _aggregationFunctions[aggNum++].merge(existingValues[i], newValues[i]);
+      }
+    }
+  }
+
+  /**
+   * Returns whether the given key is admitted into the table when there is no ORDER BY. The decision is made once per
+   * key and shared by all the writers: the first resultSize distinct keys are admitted, and all the other keys are
+   * rejected by every writer, so that the admitted keys are aggregated over all the records.
+   */
+  private boolean isKeyAdmitted(Key key) {
+    if (_admittedKeys.containsKey(key)) {
+      return true;
+    }
+    // NOTE: Rejected keys are not recorded (computeIfAbsent() does not record null value). Once the limit is reached,
+    //       no more key can be admitted, but the key still needs to be checked under computeIfAbsent() in case it is
+    //       being admitted by another writer at the same time.
+    return _admittedKeys.computeIfAbsent(key, k -> tryAdmitNewKey() ? Boolean.TRUE : null) != null;
+  }
+
+  private boolean tryAdmitNewKey() {
+    int numAdmittedKeys;
+    do {
+      numAdmittedKeys = _numAdmittedKeys.get();
+      if (numAdmittedKeys >= _resultSize) {
+        return false;
+      }
+    } while (!_numAdmittedKeys.compareAndSet(numAdmittedKeys, numAdmittedKeys + 1));
+    return true;
+  }
+
+  private void resizePartition(Map<Key, Record> partition) {
+    long startTimeNs = System.nanoTime();
+    _tableResizer.resizeRecordsMap(partition, _trimSize);
+    _numPartitionResizes.getAndIncrement();
+    _partitionResizeTimeNs.getAndAdd(System.nanoTime() - startTimeNs);
+  }
+
+  /**
+   * Thread-local writer which partitions the records by the key hash.
+   */
+  @NotThreadSafe
+  public class Writer {
+    private final Map<Key, Record>[] _partitions = new Map[_numPartitions];
+
+    private Writer() {
+      for (int i = 0; i < _numPartitions; i++) {
+        _partitions[i] = new HashMap<>();
+      }
+    }
+
+    public void upsert(Key key, Record record) {
+      Map<Key, Record> partition = _partitions[getPartitionId(key)];
+      if (_hasOrderBy) {
+        addOrUpdateRecord(partition, key, record, true);
+        if (partition.size() >= _partitionTrimThreshold) {
+          resizePartition(partition);
+        }
+      } else {
+        // Without ORDER BY, only accept the keys admitted into the table
+        addOrUpdateRecord(partition, key, record, partition.containsKey(key) || isKeyAdmitted(key));
+      }
+    }
+  }
+}
@@ -39,12 +39,21 @@ public class ExecutionStatistics {
   //       don't cover the pruned segments
   private final long _numTotalDocs;
 
+  // The number of transform function evaluations saved by reusing the results of the shared transform functions.
+  private final long _numReusedTransformEvaluations;
+
   public ExecutionStatistics(long numDocsScanned, long numEntriesScannedInFilter, long numEntriesScannedPostFilter,
       long numTotalDocs) {
+    this(numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter, numTotalDocs, 0);
+  }
+
+  public ExecutionStatistics(long numDocsScanned, long numEntriesScannedInFilter, long numEntriesScannedPostFilter,
+      long numTotalDocs, long numReusedTransformEvaluations) {
     _numDocsScanned = numDocsScanned;
     _numEntriesScannedInFilter = numEntriesScannedInFilter;
     _numEntriesScannedPostFilter = numEntriesScannedPostFilter;
     _numTotalDocs = numTotalDocs;
+    _numReusedTransformEvaluations = numReusedTransformEvaluations;
   }
 
   public long getNumDocsScanned() {
@@ -62,4 +71,8 @@ public class ExecutionStatistics {
   public long getNumTotalDocs() {
     return _numTotalDocs;
   }
+
+  public long getNumReusedTransformEvaluations() {
+    return _numReusedTransformEvaluations;
+  }
 }
@@ -20,6 +20,7 @@ package org.apache.pinot.core.operator;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang.StringUtils;
 import org.apache.pinot.common.datatable.DataTable.MetadataKey;
 import org.apache.pinot.core.common.Operator;
@@ -28,6 +29,7 @@ import org.apache.pinot.core.operator.blocks.results.BaseResultsBlock;
 import org.apache.pinot.core.operator.blocks.results.ExceptionResultsBlock;
 import org.apache.pinot.core.operator.combine.BaseCombineOperator;
 import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.utils.SamplingUtils;
 import org.apache.pinot.segment.spi.FetchContext;
 import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.spi.accounting.ThreadResourceUsageProvider;
@@ -106,9 +108,53 @@ public class InstanceResponseOperator extends BaseOperator<InstanceResponseBlock
       instanceResponseBlock.addMetadata(MetadataKey.SYSTEM_ACTIVITIES_CPU_TIME_NS.getName(),
           String.valueOf(systemActivitiesCpuTimeNs));
 
+      addPrefetchStats(instanceResponseBlock);
+      addSampleStats(instanceResponseBlock);
       return instanceResponseBlock;
     } else {
-      return new InstanceResponseBlock(getCombinedResults(), _queryContext);
+      InstanceResponseBlock instanceResponseBlock = new InstanceResponseBlock(getCombinedResults(), _queryContext);
+      addPrefetchStats(instanceResponseBlock);
+      addSampleStats(instanceResponseBlock);
+      return instanceResponseBlock;
+    }
+  }
+
+  /**
+   * Adds the bytes read ahead by the segment directories for the prefetched segments, and the time spent reading them
+   * (summed over the prefetch threads). Must be called after the fetch contexts are released.
+   */
+  private void addPrefetchStats(InstanceResponseBlock instanceResponseBlock) {
+    if (_fetchContextSize == 0) {
+      return;
+    }
+    long numPrefetchedBytes = 0;
+    long prefetchTimeNs = 0;
+    for (FetchContext fetchContext : _fetchContexts) {
+      numPrefetchedBytes += fetchContext.getNumPrefetchedBytes();
+      prefetchTimeNs += fetchContext.getPrefetchTimeNs();
+    }
+    if (numPrefetchedBytes > 0) {
+      instanceResponseBlock.addMetadata(MetadataKey.NUM_PREFETCHED_BYTES.getName(), String.valueOf(numPrefetchedBytes));
+      instanceResponseBlock.addMetadata(MetadataKey.PREFETCH_TIME_MS.getName(),
+          String.valueOf(TimeUnit.NANOSECONDS.toMillis(prefetchTimeNs)));
+    }
+  }
+
+  /**
+   * Adds the actual and expected number of documents sampled from the segments for the approximate queries, so that
+   * the broker can scale the results with the realized sample rate.
+   */
+  private void addSampleStats(InstanceResponseBlock instanceResponseBlock) {
+    double docSampleRate = _queryContext.getDocSampleRate();
+    if (docSampleRate < 1) {
+      long numTotalDocs = 0;
+      for (IndexSegment indexSegment : _indexSegments) {
+        numTotalDocs += indexSegment.getSegmentMetadata().getTotalDocs();
+      }
+      instanceResponseBlock.addMetadata(MetadataKey.NUM_SAMPLED_DOCS.getName(),
+          String.valueOf(SamplingUtils.getNumSampledDocs(_indexSegments, docSampleRate)));
+      instanceResponseBlock.addMetadata(MetadataKey.NUM_EXPECTED_SAMPLED_DOCS.getName(),
+          String.valueOf(Math.round(numTotalDocs * docSampleRate)));
     }
   }
 
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.blocks;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.core.common.BlockValSet;
+import org.apache.pinot.core.operator.docvalsets.RowSelectedBlockValSet;
+
+
+/**
+ * The {@code RowSelectedValueBlock} is a view of a subset of the rows of another {@link ValueBlock}, where the selected
+ * rows are identified by their (ascending) positions within the underlying block. It allows evaluating a predicate as
+ * a selection vector over an already projected block instead of re-projecting the matching documents.
+ * <p>The row ids array is not copied, and must not be modified while the block is in use.
+ */
+public class RowSelectedValueBlock implements ValueBlock {
+  private final ValueBlock _valueBlock;
+  private final int[] _rowIds;
+  private final int _numRows;
+  private final Map<ExpressionContext, BlockValSet> _blockValSetMap = new HashMap<>();
+
+  public RowSelectedValueBlock(ValueBlock valueBlock, int[] rowIds, int numRows) {
+    _valueBlock = valueBlock;
+    _rowIds = rowIds;
+    _numRows = numRows;
+  }
+
+  @Override
+  public int getNumDocs() {
+    return _numRows;
+  }
+
+  @Nullable
+  @Override
+  public int[] getDocIds() {
+    int[] docIds = _valueBlock.getDocIds();
+    if (docIds == null) {
+      return null;
+    }
+    int[] selectedDocIds = new int[_numRows];
+    for (int i = 0; i < _numRows; i++) {
+      selectedDocIds[i] = docIds[_rowIds[i]];
+    }
+    return selectedDocIds;
+  }
+
+  @Override
+  public BlockValSet getBlockValueSet(ExpressionContext expression) {
+    return _blockValSetMap.computeIfAbsent(expression,
+        k -> new RowSelectedBlockValSet(_valueBlock.getBlockValueSet(k), _rowIds, _numRows));
+  }
+
+  @Override
+  public BlockValSet getBlockValueSet(String column) {
+    return getBlockValueSet(ExpressionContext.forIdentifier(column));
+  }
+}
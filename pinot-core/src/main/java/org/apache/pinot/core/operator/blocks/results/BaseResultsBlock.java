@@ -48,6 +48,9 @@ public abstract class BaseResultsBlock implements Block {
   private int _numConsumingSegmentsMatched;
   private long _executionThreadCpuTimeNs;
   private int _numServerThreads;
+  private long _numReusedTransformEvaluations;
+  private long _executionThreadMemAllocatedBytes;
+  private long _numReusedBufferBytes;
 
   @Nullable
   public List<ProcessingException> getProcessingExceptions() {
@@ -74,6 +77,15 @@ public abstract class BaseResultsBlock implements Block {
     _numTotalDocs = numTotalDocs;
   }
 
+  @VisibleForTesting
+  public long getNumReusedTransformEvaluations() {
+    return _numReusedTransformEvaluations;
+  }
+
+  public void setNumReusedTransformEvaluations(long numReusedTransformEvaluations) {
+    _numReusedTransformEvaluations = numReusedTransformEvaluations;
+  }
+
   @VisibleForTesting
   public long getNumDocsScanned() {
     return _numDocsScanned;
@@ -145,6 +157,22 @@ public abstract class BaseResultsBlock implements Block {
     _executionThreadCpuTimeNs = executionThreadCpuTimeNs;
   }
 
+  public long getExecutionThreadMemAllocatedBytes() {
+    return _executionThreadMemAllocatedBytes;
+  }
+
+  public void setExecutionThreadMemAllocatedBytes(long executionThreadMemAllocatedBytes) {
+    _executionThreadMemAllocatedBytes = executionThreadMemAllocatedBytes;
+  }
+
+  public long getNumReusedBufferBytes() {
+    return _numReusedBufferBytes;
+  }
+
+  public void setNumReusedBufferBytes(long numReusedBufferBytes) {
+    _numReusedBufferBytes = numReusedBufferBytes;
+  }
+
   public int getNumServerThreads() {
     return _numServerThreads;
   }
@@ -192,6 +220,16 @@ public abstract class BaseResultsBlock implements Block {
     metadata.put(MetadataKey.NUM_CONSUMING_SEGMENTS_PROCESSED.getName(),
         Integer.toString(_numConsumingSegmentsProcessed));
     metadata.put(MetadataKey.NUM_CONSUMING_SEGMENTS_MATCHED.getName(), Integer.toString(_numConsumingSegmentsMatched));
+    if (_numReusedTransformEvaluations > 0) {
+      metadata.put(MetadataKey.NUM_REUSED_TRANSFORM_EVALUATIONS.getName(),
+          Long.toString(_numReusedTransformEvaluations));
+    }
+    if (_executionThreadMemAllocatedBytes > 0) {
+      metadata.put(MetadataKey.THREAD_MEM_ALLOCATED_BYTES.getName(), Long.toString(_executionThreadMemAllocatedBytes));
+    }
+    if (_numReusedBufferBytes > 0) {
+      metadata.put(MetadataKey.NUM_REUSED_BUFFER_BYTES.getName(), Long.toString(_numReusedBufferBytes));
+    }
     return metadata;
   }
 }
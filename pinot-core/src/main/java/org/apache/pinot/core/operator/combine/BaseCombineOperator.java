@@ -26,6 +26,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.pinot.common.exception.QueryException;
+import org.apache.pinot.core.common.BlockValueBufferArena;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.operator.BaseOperator;
 import org.apache.pinot.core.operator.blocks.results.BaseResultsBlock;
@@ -61,6 +62,8 @@ public abstract class BaseCombineOperator<T extends BaseResultsBlock> extends Ba
   // Use an AtomicInteger to track the next operator to execute
   protected final AtomicInteger _nextOperatorId = new AtomicInteger();
   protected final AtomicLong _totalWorkerThreadCpuTimeNs = new AtomicLong(0);
+  protected final AtomicLong _totalWorkerThreadMemAllocatedBytes = new AtomicLong(0);
+  protected final AtomicLong _totalReusedBufferBytes = new AtomicLong(0);
 
   protected BaseCombineOperator(List<Operator> operators, QueryContext queryContext, ExecutorService executorService) {
     _operators = operators;
@@ -93,6 +96,7 @@ public abstract class BaseCombineOperator<T extends BaseResultsBlock> extends Ba
         @Override
         public void runJob() {
           ThreadResourceUsageProvider threadResourceUsageProvider = new ThreadResourceUsageProvider();
+          long startReusedBufferBytes = BlockValueBufferArena.getNumReusedBytes();
 
           Tracing.ThreadAccountantOps.setupWorker(taskId, threadResourceUsageProvider, parentContext);
 
@@ -126,6 +130,8 @@ public abstract class BaseCombineOperator<T extends BaseResultsBlock> extends Ba
           }
 
           _totalWorkerThreadCpuTimeNs.getAndAdd(threadResourceUsageProvider.getThreadTimeNs());
+          _totalWorkerThreadMemAllocatedBytes.getAndAdd(threadResourceUsageProvider.getThreadAllocatedBytes());
+          _totalReusedBufferBytes.getAndAdd(BlockValueBufferArena.getNumReusedBytes() - startReusedBufferBytes);
         }
       });
     }
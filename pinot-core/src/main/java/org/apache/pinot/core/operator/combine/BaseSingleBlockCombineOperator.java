@@ -26,6 +26,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.pinot.common.exception.QueryException;
+import org.apache.pinot.core.common.BlockValueBufferArena;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.operator.AcquireReleaseColumnsSegmentOperator;
 import org.apache.pinot.core.operator.blocks.results.BaseResultsBlock;
@@ -86,6 +87,8 @@ public abstract class BaseSingleBlockCombineOperator<T extends BaseResultsBlock>
     int numServerThreads = Math.min(_numTasks, ResourceManager.DEFAULT_QUERY_WORKER_THREADS);
     CombineOperatorUtils.setExecutionStatistics(mergedBlock, _operators, _totalWorkerThreadCpuTimeNs.get(),
         numServerThreads);
+    mergedBlock.setExecutionThreadMemAllocatedBytes(_totalWorkerThreadMemAllocatedBytes.get());
+    mergedBlock.setNumReusedBufferBytes(_totalReusedBufferBytes.get());
     return mergedBlock;
   }
 
@@ -95,6 +98,7 @@ public abstract class BaseSingleBlockCombineOperator<T extends BaseResultsBlock>
     while ((operatorId = _nextOperatorId.getAndIncrement()) < _numOperators) {
       Operator operator = _operators.get(operatorId);
       T resultsBlock;
+      BlockValueBufferArena.openScope();
       try {
         if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
           ((AcquireReleaseColumnsSegmentOperator) operator).acquire();
@@ -104,6 +108,7 @@ public abstract class BaseSingleBlockCombineOperator<T extends BaseResultsBlock>
         if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
           ((AcquireReleaseColumnsSegmentOperator) operator).release();
         }
+        BlockValueBufferArena.closeScope();
       }
       _blockingQueue.offer(resultsBlock);
       // When query is satisfied, skip processing the remaining segments
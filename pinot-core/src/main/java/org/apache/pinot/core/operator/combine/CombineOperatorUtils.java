@@ -43,6 +43,7 @@ public class CombineOperatorUtils {
     long numEntriesScannedInFilter = 0;
     long numEntriesScannedPostFilter = 0;
     long numTotalDocs = 0;
+    long numReusedTransformEvaluations = 0;
     for (Operator operator : operators) {
       ExecutionStatistics executionStatistics = operator.getExecutionStatistics();
       if (executionStatistics.getNumDocsScanned() > 0) {
@@ -63,6 +64,7 @@ public class CombineOperatorUtils {
       numEntriesScannedInFilter += executionStatistics.getNumEntriesScannedInFilter();
       numEntriesScannedPostFilter += executionStatistics.getNumEntriesScannedPostFilter();
       numTotalDocs += executionStatistics.getNumTotalDocs();
+      numReusedTransformEvaluations += executionStatistics.getNumReusedTransformEvaluations();
     }
     resultsBlock.setNumSegmentsProcessed(numSegmentsProcessed);
     resultsBlock.setNumSegmentsMatched(numSegmentsMatched);
@@ -72,6 +74,7 @@ public class CombineOperatorUtils {
     resultsBlock.setNumEntriesScannedInFilter(numEntriesScannedInFilter);
     resultsBlock.setNumEntriesScannedPostFilter(numEntriesScannedPostFilter);
     resultsBlock.setNumTotalDocs(numTotalDocs);
+    resultsBlock.setNumReusedTransformEvaluations(numReusedTransformEvaluations);
     resultsBlock.setExecutionThreadCpuTimeNs(threadCpuTimeNs);
     resultsBlock.setNumServerThreads(numServerThreads);
   }
@@ -25,17 +25,23 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.exception.QueryException;
 import org.apache.pinot.common.response.ProcessingException;
 import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.core.common.BlockValueBufferArena;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.data.table.ConcurrentIndexedTable;
 import org.apache.pinot.core.data.table.IndexedTable;
 import org.apache.pinot.core.data.table.IntermediateRecord;
 import org.apache.pinot.core.data.table.Key;
+import org.apache.pinot.core.data.table.PartitionedIndexedTable;
 import org.apache.pinot.core.data.table.Record;
 import org.apache.pinot.core.data.table.UnboundedConcurrentIndexedTable;
 import org.apache.pinot.core.operator.AcquireReleaseColumnsSegmentOperator;
@@ -47,6 +53,10 @@ import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
 import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.util.GroupByUtils;
+import org.apache.pinot.core.util.trace.TraceRunnable;
+import org.apache.pinot.spi.accounting.ThreadExecutionContext;
+import org.apache.pinot.spi.accounting.ThreadResourceUsageProvider;
+import org.apache.pinot.spi.exception.EarlyTerminationException;
 import org.apache.pinot.spi.trace.Tracing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +79,7 @@ public class GroupByCombineOperator extends BaseSingleBlockCombineOperator<Group
   private final int _numAggregationFunctions;
   private final int _numGroupByExpressions;
   private final int _numColumns;
+  private final int _numPartitions;
   private final ConcurrentLinkedQueue<ProcessingException> _mergedProcessingExceptions = new ConcurrentLinkedQueue<>();
   // We use a CountDownLatch to track if all Futures are finished by the query timeout, and cancel the unfinished
   // _futures (try to interrupt the execution if it already started).
@@ -104,6 +115,9 @@ public class GroupByCombineOperator extends BaseSingleBlockCombineOperator<Group
     assert _queryContext.getGroupByExpressions() != null;
     _numGroupByExpressions = _queryContext.getGroupByExpressions().size();
     _numColumns = _numGroupByExpressions + _numAggregationFunctions;
+    // Round down to power of 2 so that the partition can be picked with the high bits of the key hash
+    int numPartitions = _queryContext.getNumGroupByCombinePartitions();
+    _numPartitions = numPartitions > 0 ? Integer.highestOneBit(numPartitions) : 0;
     _operatorLatch = new CountDownLatch(_numTasks);
   }
 
@@ -128,9 +142,12 @@ public class GroupByCombineOperator extends BaseSingleBlockCombineOperator<Group
    */
   @Override
   protected void processSegments() {
+    // Thread-local writer for the partitioned indexed table
+    PartitionedIndexedTable.Writer writer = null;
     int operatorId;
     while ((operatorId = _nextOperatorId.getAndIncrement()) < _numOperators) {
       Operator operator = _operators.get(operatorId);
+      BlockValueBufferArena.openScope();
       try {
         if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
           ((AcquireReleaseColumnsSegmentOperator) operator).acquire();
@@ -141,7 +158,12 @@ public class GroupByCombineOperator extends BaseSingleBlockCombineOperator<Group
             if (_indexedTable == null) {
               DataSchema dataSchema = resultsBlock.getDataSchema();
               // NOTE: Use trimSize as resultSize on server size.
-              if (_trimThreshold >= MAX_TRIM_THRESHOLD) {
+              if (_numPartitions > 0) {
+                // Each thread upserts into its own partitioned writer, and each partition is merged by a single
+                // thread after all the segments are processed, so there is no lock contention on the shared table.
+                _indexedTable = new PartitionedIndexedTable(dataSchema, _queryContext, _trimSize, _trimSize,
+                    _trimThreshold, _numPartitions);
+              } else if (_trimThreshold >= MAX_TRIM_THRESHOLD) {
                 // special case of trim threshold where it is set to max value.
                 // there won't be any trimming during upsert in this case.
                 // thus we can avoid the overhead of read-lock and write-lock
@@ -155,6 +177,10 @@ public class GroupByCombineOperator extends BaseSingleBlockCombineOperator<Group
           }
         }
 
+        if (writer == null && _indexedTable instanceof PartitionedIndexedTable) {
+          writer = ((PartitionedIndexedTable) _indexedTable).createWriter();
+        }
+
         // Merge processing exceptions.
         List<ProcessingException> processingExceptionsToMerge = resultsBlock.getProcessingExceptions();
         if (processingExceptionsToMerge != null) {
@@ -177,24 +203,29 @@ public class GroupByCombineOperator extends BaseSingleBlockCombineOperator<Group
           AggregationGroupByResult aggregationGroupByResult = resultsBlock.getAggregationGroupByResult();
           if (aggregationGroupByResult != null) {
             // Iterate over the group-by keys, for each key, update the group-by result in the indexedTable
-            Iterator<GroupKeyGenerator.GroupKey> dicGroupKeyIterator = aggregationGroupByResult.getGroupKeyIterator();
-            while (dicGroupKeyIterator.hasNext()) {
-              GroupKeyGenerator.GroupKey groupKey = dicGroupKeyIterator.next();
-              Object[] keys = groupKey._keys;
-              Object[] values = Arrays.copyOf(keys, _numColumns);
-              int groupId = groupKey._groupId;
-              for (int i = 0; i < _numAggregationFunctions; i++) {
-                values[_numGroupByExpressions + i] = aggregationGroupByResult.getResultForGroupId(i, groupId);
+            try {
+              Iterator<GroupKeyGenerator.GroupKey> dicGroupKeyIterator =
+                  aggregationGroupByResult.getGroupKeyIterator();
+              while (dicGroupKeyIterator.hasNext()) {
+                GroupKeyGenerator.GroupKey groupKey = dicGroupKeyIterator.next();
+                Object[] keys = groupKey._keys;
+                Object[] values = Arrays.copyOf(keys, _numColumns);
+                int groupId = groupKey._groupId;
+                for (int i = 0; i < _numAggregationFunctions; i++) {
+                  values[_numGroupByExpressions + i] = aggregationGroupByResult.getResultForGroupId(i, groupId);
+                }
+                upsert(writer, new Key(keys), new Record(values));
+                Tracing.ThreadAccountantOps.sampleAndCheckInterruptionPeriodically(mergedKeys);
+                mergedKeys++;
               }
-              _indexedTable.upsert(new Key(keys), new Record(values));
-              Tracing.ThreadAccountantOps.sampleAndCheckInterruptionPeriodically(mergedKeys);
-              mergedKeys++;
+            } finally {
+              aggregationGroupByResult.close();
             }
           }
         } else {
           for (IntermediateRecord intermediateResult : intermediateRecords) {
             //TODO: change upsert api so that it accepts intermediateRecord directly
-            _indexedTable.upsert(intermediateResult._key, intermediateResult._record);
+            upsert(writer, intermediateResult._key, intermediateResult._record);
             Tracing.ThreadAccountantOps.sampleAndCheckInterruptionPeriodically(mergedKeys);
             mergedKeys++;
           }
@@ -203,10 +234,19 @@ public class GroupByCombineOperator extends BaseSingleBlockCombineOperator<Group
         if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
           ((AcquireReleaseColumnsSegmentOperator) operator).release();
         }
+        BlockValueBufferArena.closeScope();
       }
     }
   }
 
+  private void upsert(@Nullable PartitionedIndexedTable.Writer writer, Key key, Record record) {
+    if (writer != null) {
+      writer.upsert(key, record);
+    } else {
+      _indexedTable.upsert(key, record);
+    }
+  }
+
   @Override
   public void onProcessSegmentsException(Throwable t) {
     _mergedProcessingExceptions.add(QueryException.getException(QueryException.QUERY_EXECUTION_ERROR, t));
@@ -245,6 +285,23 @@ public class GroupByCombineOperator extends BaseSingleBlockCombineOperator<Group
     }
 
     IndexedTable indexedTable = _indexedTable;
+    if (indexedTable instanceof PartitionedIndexedTable) {
+      try {
+        mergePartitions((PartitionedIndexedTable) indexedTable);
+      } catch (TimeoutException e) {
+        String errorMessage =
+            String.format("Timed out while merging group-by partitions, queryContext = %s", _queryContext);
+        LOGGER.error(errorMessage);
+        return new ExceptionResultsBlock(new TimeoutException(errorMessage));
+      } catch (ExecutionException e) {
+        LOGGER.error("Caught exception while merging group-by partitions (query: {})", _queryContext, e.getCause());
+        return new ExceptionResultsBlock(
+            QueryException.getException(QueryException.QUERY_EXECUTION_ERROR, e.getCause()));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new EarlyTerminationException("Interrupted while merging group-by partitions", e);
+      }
+    }
     if (!_queryContext.isServerReturnFinalResult()) {
       indexedTable.finish(false);
     } else {
@@ -262,4 +319,49 @@ public class GroupByCombineOperator extends BaseSingleBlockCombineOperator<Group
 
     return mergedBlock;
   }
+
+  /**
+   * Merges the partitions of the partitioned indexed table in parallel, where each partition is merged by a single
+   * thread. The main thread also merges partitions so that the merge can make progress even when the executor is busy.
+   */
+  private void mergePartitions(PartitionedIndexedTable partitionedIndexedTable)
+      throws TimeoutException, ExecutionException, InterruptedException {
+    int numPartitions = partitionedIndexedTable.getNumPartitions();
+    AtomicInteger nextPartitionId = new AtomicInteger();
+    Runnable mergeTask = () -> {
+      int partitionId;
+      while ((partitionId = nextPartitionId.getAndIncrement()) < numPartitions) {
+        partitionedIndexedTable.mergePartition(partitionId);
+      }
+    };
+    Future[] futures = new Future[Math.min(_numTasks, numPartitions) - 1];
+    ThreadExecutionContext parentContext = Tracing.getThreadAccountant().getThreadExecutionContext();
+    try {
+      for (int i = 0; i < futures.length; i++) {
+        int taskId = i;
+        futures[i] = _executorService.submit(new TraceRunnable() {
+          @Override
+          public void runJob() {
+            Tracing.ThreadAccountantOps.setupWorker(taskId, new ThreadResourceUsageProvider(), parentContext);
+            try {
+              mergeTask.run();
+            } finally {
+              Tracing.ThreadAccountantOps.clear();
+            }
+          }
+        });
+      }
+      mergeTask.run();
+      for (Future future : futures) {
+        future.get(_queryContext.getEndTimeMs() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+      }
+    } finally {
+      for (Future future : futures) {
+        if (future != null && !future.isDone()) {
+          future.cancel(true);
+        }
+      }
+    }
+    partitionedIndexedTable.finishMergingPartitions();
+  }
 }
@@ -32,6 +32,7 @@ import org.apache.pinot.common.exception.QueryException;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.request.context.OrderByExpressionContext;
 import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.core.common.BlockValueBufferArena;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.operator.AcquireReleaseColumnsSegmentOperator;
 import org.apache.pinot.core.operator.blocks.results.BaseResultsBlock;
@@ -39,6 +40,7 @@ import org.apache.pinot.core.operator.blocks.results.ExceptionResultsBlock;
 import org.apache.pinot.core.operator.blocks.results.SelectionResultsBlock;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.query.selection.SelectionOperatorUtils;
+import org.apache.pinot.core.query.selection.TopKBoundaryValue;
 import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,6 +55,9 @@ import org.slf4j.LoggerFactory;
  *   <li>2. Keep processing segments until we get enough documents to fulfill the LIMIT and OFFSET requirement</li>
  *   <li>3. Skip processing the segments that cannot add values to the final result</li>
  * </ul>
+ * <p>When the query context carries a {@link TopKBoundaryValue}, the boundary published by the segment operators while
+ * they are still running is also used to skip the segments, and the boundary tracked by this operator is published
+ * back so that the running segment operators can prune rows with it.
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class MinMaxValueBasedSelectionOrderByCombineOperator
@@ -72,12 +77,14 @@ public class MinMaxValueBasedSelectionOrderByCombineOperator
   private final int _numRowsToKeep;
   private final List<MinMaxValueContext> _minMaxValueContexts;
   private final AtomicReference<Comparable> _globalBoundaryValue = new AtomicReference<>();
+  private final TopKBoundaryValue _topKBoundaryValue;
 
   public MinMaxValueBasedSelectionOrderByCombineOperator(List<Operator> operators, QueryContext queryContext,
       ExecutorService executorService) {
     super(null, operators, queryContext, executorService);
     _endOperatorId = new AtomicInteger(_numOperators);
     _numRowsToKeep = queryContext.getLimit() + queryContext.getOffset();
+    _topKBoundaryValue = queryContext.getTopKBoundaryValue();
 
     List<OrderByExpressionContext> orderByExpressions = _queryContext.getOrderByExpressions();
     assert orderByExpressions != null;
@@ -170,6 +177,9 @@ public class MinMaxValueBasedSelectionOrderByCombineOperator
           }
         }
       }
+      if (_topKBoundaryValue != null) {
+        boundaryValue = _topKBoundaryValue.tighter(boundaryValue, _topKBoundaryValue.get());
+      }
 
       // Check if the segment can be skipped
       MinMaxValueContext minMaxValueContext = _minMaxValueContexts.get(operatorId);
@@ -202,6 +212,7 @@ public class MinMaxValueBasedSelectionOrderByCombineOperator
       // Process the segment
       Operator operator = minMaxValueContext._operator;
       SelectionResultsBlock resultsBlock;
+      BlockValueBufferArena.openScope();
       try {
         if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
           ((AcquireReleaseColumnsSegmentOperator) operator).acquire();
@@ -211,6 +222,7 @@ public class MinMaxValueBasedSelectionOrderByCombineOperator
         if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
           ((AcquireReleaseColumnsSegmentOperator) operator).release();
         }
+        BlockValueBufferArena.closeScope();
       }
       Collection<Object[]> rows = resultsBlock.getRows();
       if (rows != null && rows.size() >= _numRowsToKeep) {
@@ -226,6 +238,9 @@ public class MinMaxValueBasedSelectionOrderByCombineOperator
           assert rows instanceof List;
           segmentBoundaryValue = (Comparable) ((List<Object[]>) rows).get(rows.size() - 1)[0];
         }
+        if (_topKBoundaryValue != null) {
+          _topKBoundaryValue.update(segmentBoundaryValue);
+        }
 
         if (boundaryValue == null) {
           boundaryValue = segmentBoundaryValue;
@@ -294,7 +309,11 @@ public class MinMaxValueBasedSelectionOrderByCombineOperator
       // Update the boundary value if enough rows are collected
       List<Object[]> rows = mergedBlock.getRows();
       if (rows.size() == _numRowsToKeep) {
-        _globalBoundaryValue.set((Comparable) rows.get(_numRowsToKeep - 1)[0]);
+        Comparable globalBoundaryValue = (Comparable) rows.get(_numRowsToKeep - 1)[0];
+        _globalBoundaryValue.set(globalBoundaryValue);
+        if (_topKBoundaryValue != null) {
+          _topKBoundaryValue.update(globalBoundaryValue);
+        }
       }
     }
     return mergedBlock;
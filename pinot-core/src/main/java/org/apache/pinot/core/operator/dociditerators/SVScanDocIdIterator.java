@@ -22,8 +22,17 @@ import java.util.OptionalInt;
 import javax.annotation.Nullable;
 import org.apache.pinot.core.common.BlockDocIdIterator;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.traits.DoubleRange;
+import org.apache.pinot.core.operator.filter.predicate.traits.DoubleValue;
+import org.apache.pinot.core.operator.filter.predicate.traits.FloatRange;
+import org.apache.pinot.core.operator.filter.predicate.traits.FloatValue;
+import org.apache.pinot.core.operator.filter.predicate.traits.IntRange;
+import org.apache.pinot.core.operator.filter.predicate.traits.IntValue;
+import org.apache.pinot.core.operator.filter.predicate.traits.LongRange;
+import org.apache.pinot.core.operator.filter.predicate.traits.LongValue;
 import org.apache.pinot.segment.spi.Constants;
 import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.index.reader.ChunkZoneMap;
 import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
 import org.apache.pinot.segment.spi.index.reader.ForwardIndexReaderContext;
 import org.apache.pinot.segment.spi.index.reader.NullValueVectorReader;
@@ -50,6 +59,8 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
   private int _firstMismatch;
   private int _cursor;
   private final int _cardinality;
+  // Used to skip the chunks that cannot match the predicate based on the zone map of the forward index
+  private final ZoneMapFilter _zoneMapFilter;
 
   private int _nextDocId = 0;
   private long _numEntriesScanned = 0L;
@@ -67,6 +78,7 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
     }
     _valueMatcher = getValueMatcher(nullBitmap);
     _cardinality = dataSource.getDataSourceMetadata().getCardinality();
+    _zoneMapFilter = ZoneMapFilter.create(predicateEvaluator, _reader);
   }
 
   // for testing
@@ -83,6 +95,7 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
     }
     _valueMatcher = getValueMatcher(nullBitmap);
     _cardinality = -1;
+    _zoneMapFilter = ZoneMapFilter.create(predicateEvaluator, reader);
   }
 
   @Override
@@ -91,7 +104,7 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
       int limit;
       int batchSize = 0;
       do {
-        limit = Math.min(_numDocs - _nextDocId, _batch.length);
+        limit = getNextBatchLimit();
         if (limit > 0) {
           for (int i = 0; i < limit; i++) {
             _batch[i] = _nextDocId + i;
@@ -110,6 +123,27 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
     return _batch[_cursor++];
   }
 
+  /**
+   * Returns the number of documents to scan in the next batch starting from {@code _nextDocId}. When the zone map is
+   * available, skips the chunks that cannot match the predicate, and keeps the batch within a single chunk.
+   */
+  private int getNextBatchLimit() {
+    int maxLimit = _batch.length;
+    if (_zoneMapFilter != null) {
+      int numDocsPerChunk = _zoneMapFilter.getNumDocsPerChunk();
+      while (_nextDocId < _numDocs) {
+        int chunkId = _nextDocId / numDocsPerChunk;
+        int chunkEnd = (int) Math.min((long) (chunkId + 1) * numDocsPerChunk, _numDocs);
+        if (_zoneMapFilter.canMatch(chunkId)) {
+          maxLimit = Math.min(maxLimit, chunkEnd - _nextDocId);
+          break;
+        }
+        _nextDocId = chunkEnd;
+      }
+    }
+    return Math.min(_numDocs - _nextDocId, maxLimit);
+  }
+
   @Override
   public int advance(int targetDocId) {
     _nextDocId = targetDocId;
@@ -556,4 +590,102 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
       return _predicateEvaluator.applySV(_reader.getBytes(docId, _readerContext));
     }
   }
+
+  /**
+   * Checks the min/max value of each chunk in the zone map against the bounds of the raw value based EQ/RANGE
+   * predicate. Chunks with NaN min/max values are never skipped because NaN never compares outside the bounds.
+   */
+  private static final class ZoneMapFilter {
+    final ChunkZoneMap _zoneMap;
+    final boolean _isLong;
+    final long _lowerLong;
+    final long _upperLong;
+    final double _lowerDouble;
+    final double _upperDouble;
+
+    ZoneMapFilter(ChunkZoneMap zoneMap, long lowerBound, long upperBound) {
+      _zoneMap = zoneMap;
+      _isLong = true;
+      _lowerLong = lowerBound;
+      _upperLong = upperBound;
+      _lowerDouble = 0;
+      _upperDouble = 0;
+    }
+
+    ZoneMapFilter(ChunkZoneMap zoneMap, double lowerBound, double upperBound) {
+      _zoneMap = zoneMap;
+      _isLong = false;
+      _lowerLong = 0;
+      _upperLong = 0;
+      _lowerDouble = lowerBound;
+      _upperDouble = upperBound;
+    }
+
+    @Nullable
+    static ZoneMapFilter create(PredicateEvaluator predicateEvaluator, ForwardIndexReader reader) {
+      if (predicateEvaluator.isDictionaryBased() || reader.isDictionaryEncoded()) {
+        return null;
+      }
+      ChunkZoneMap zoneMap = reader.getChunkZoneMap();
+      if (zoneMap == null) {
+        return null;
+      }
+      switch (reader.getStoredType()) {
+        case INT:
+        case LONG:
+          if (predicateEvaluator instanceof IntRange) {
+            IntRange intRange = (IntRange) predicateEvaluator;
+            return new ZoneMapFilter(zoneMap, intRange.getInclusiveLowerBound(), intRange.getInclusiveUpperBound());
+          }
+          if (predicateEvaluator instanceof LongRange) {
+            LongRange longRange = (LongRange) predicateEvaluator;
+            return new ZoneMapFilter(zoneMap, longRange.getInclusiveLowerBound(), longRange.getInclusiveUpperBound());
+          }
+          if (predicateEvaluator instanceof IntValue) {
+            long value = ((IntValue) predicateEvaluator).getInt();
+            return new ZoneMapFilter(zoneMap, value, value);
+          }
+          if (predicateEvaluator instanceof LongValue) {
+            long value = ((LongValue) predicateEvaluator).getLong();
+            return new ZoneMapFilter(zoneMap, value, value);
+          }
+          return null;
+        case FLOAT:
+        case DOUBLE:
+          if (predicateEvaluator instanceof FloatRange) {
+            FloatRange floatRange = (FloatRange) predicateEvaluator;
+            return new ZoneMapFilter(zoneMap, (double) floatRange.getInclusiveLowerBound(),
+                floatRange.getInclusiveUpperBound());
+          }
+          if (predicateEvaluator instanceof DoubleRange) {
+            DoubleRange doubleRange = (DoubleRange) predicateEvaluator;
+            return new ZoneMapFilter(zoneMap, doubleRange.getInclusiveLowerBound(),
+                doubleRange.getInclusiveUpperBound());
+          }
+          if (predicateEvaluator instanceof FloatValue) {
+            double value = ((FloatValue) predicateEvaluator).getFloat();
+            return new ZoneMapFilter(zoneMap, value, value);
+          }
+          if (predicateEvaluator instanceof DoubleValue) {
+            double value = ((DoubleValue) predicateEvaluator).getDouble();
+            return new ZoneMapFilter(zoneMap, value, value);
+          }
+          return null;
+        default:
+          return null;
+      }
+    }
+
+    int getNumDocsPerChunk() {
+      return _zoneMap.getNumDocsPerChunk();
+    }
+
+    boolean canMatch(int chunkId) {
+      if (_isLong) {
+        return _zoneMap.getMaxLong(chunkId) >= _lowerLong && _zoneMap.getMinLong(chunkId) <= _upperLong;
+      } else {
+        return !(_zoneMap.getMaxDouble(chunkId) < _lowerDouble || _zoneMap.getMinDouble(chunkId) > _upperDouble);
+      }
+    }
+  }
 }
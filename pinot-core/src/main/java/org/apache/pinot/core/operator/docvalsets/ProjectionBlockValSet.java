@@ -25,13 +25,11 @@ import org.apache.pinot.core.common.DataBlockCache;
 import org.apache.pinot.core.operator.ProjectionOperator;
 import org.apache.pinot.segment.spi.datasource.DataSource;
 import org.apache.pinot.segment.spi.index.reader.Dictionary;
-import org.apache.pinot.segment.spi.index.reader.NullValueVectorReader;
 import org.apache.pinot.spi.data.FieldSpec.DataType;
 import org.apache.pinot.spi.trace.InvocationRecording;
 import org.apache.pinot.spi.trace.InvocationScope;
 import org.apache.pinot.spi.trace.Tracing;
 import org.roaringbitmap.RoaringBitmap;
-import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 
 
 /**
@@ -44,9 +42,6 @@ public class ProjectionBlockValSet implements BlockValSet {
   private final String _column;
   private final DataSource _dataSource;
 
-  private boolean _nullBitmapSet;
-  private RoaringBitmap _nullBitmap;
-
   /**
    * Constructor for the class.
    * The dataBlockCache is initialized in {@link ProjectionOperator} so that it can be reused across multiple calls to
@@ -61,25 +56,7 @@ public class ProjectionBlockValSet implements BlockValSet {
   @Nullable
   @Override
   public RoaringBitmap getNullBitmap() {
-    if (!_nullBitmapSet) {
-      NullValueVectorReader nullValueReader = _dataSource.getNullValueVector();
-      ImmutableRoaringBitmap nullBitmap = nullValueReader != null ? nullValueReader.getNullBitmap() : null;
-      if (nullBitmap != null && !nullBitmap.isEmpty()) {
-        // Project null bitmap.
-        RoaringBitmap projectedNullBitmap = new RoaringBitmap();
-        int[] docIds = _dataBlockCache.getDocIds();
-        for (int i = 0; i < _dataBlockCache.getNumDocs(); i++) {
-          if (nullBitmap.contains(docIds[i])) {
-            projectedNullBitmap.add(i);
-          }
-        }
-        _nullBitmap = projectedNullBitmap;
-      } else {
-        _nullBitmap = null;
-      }
-      _nullBitmapSet = true;
-    }
-    return _nullBitmap;
+    return _dataBlockCache.getNullBitmap(_column, _dataSource.getNullValueVector());
   }
 
   @Override
@@ -0,0 +1,318 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.docvalsets;
+
+import java.math.BigDecimal;
+import javax.annotation.Nullable;
+import org.apache.pinot.core.common.BlockValSet;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.RoaringBitmapWriter;
+
+
+/**
+ * The {@code RowSelectedBlockValSet} is a view of a subset of the rows of another {@link BlockValSet}, where the
+ * selected rows are identified by their (ascending) positions within the underlying value set. The values are gathered
+ * from the underlying value set on first access and cached. For dictionary-encoded values, only the dictionary ids are
+ * gathered, and the values of the selected rows are read from the dictionary.
+ */
+public class RowSelectedBlockValSet implements BlockValSet {
+  private final BlockValSet _blockValSet;
+  private final int[] _rowIds;
+  private final int _numRows;
+
+  private boolean _nullBitmapSet;
+  private RoaringBitmap _nullBitmap;
+  private int[] _dictIdsSV;
+  private int[] _intValuesSV;
+  private long[] _longValuesSV;
+  private float[] _floatValuesSV;
+  private double[] _doubleValuesSV;
+  private BigDecimal[] _bigDecimalValuesSV;
+  private String[] _stringValuesSV;
+  private byte[][] _bytesValuesSV;
+  private int[][] _dictIdsMV;
+  private int[][] _intValuesMV;
+  private long[][] _longValuesMV;
+  private float[][] _floatValuesMV;
+  private double[][] _doubleValuesMV;
+  private String[][] _stringValuesMV;
+  private byte[][][] _bytesValuesMV;
+  private int[] _numMVEntries;
+
+  public RowSelectedBlockValSet(BlockValSet blockValSet, int[] rowIds, int numRows) {
+    _blockValSet = blockValSet;
+    _rowIds = rowIds;
+    _numRows = numRows;
+  }
+
+  @Nullable
+  @Override
+  public RoaringBitmap getNullBitmap() {
+    if (!_nullBitmapSet) {
+      _nullBitmap = selectNullBitmap(_blockValSet.getNullBitmap());
+      _nullBitmapSet = true;
+    }
+    return _nullBitmap;
+  }
+
+  /**
+   * Projects the null bitmap of the underlying value set onto the selected rows by walking the null row ids alongside
+   * the (sorted) selected row ids, instead of looking up every selected row id within the null bitmap.
+   */
+  @Nullable
+  private RoaringBitmap selectNullBitmap(@Nullable RoaringBitmap nullBitmap) {
+    if (nullBitmap == null || nullBitmap.isEmpty() || _numRows == 0) {
+      return null;
+    }
+    PeekableIntIterator nullRowIdIterator = nullBitmap.getIntIterator();
+    nullRowIdIterator.advanceIfNeeded(_rowIds[0]);
+    RoaringBitmapWriter<RoaringBitmap> writer = RoaringBitmapWriter.writer().get();
+    int index = 0;
+    while (nullRowIdIterator.hasNext() && index < _numRows) {
+      int nullRowId = nullRowIdIterator.peekNext();
+      int rowId = _rowIds[index];
+      if (rowId == nullRowId) {
+        writer.add(index++);
+        nullRowIdIterator.next();
+      } else if (rowId < nullRowId) {
+        index++;
+      } else {
+        nullRowIdIterator.advanceIfNeeded(rowId);
+      }
+    }
+    RoaringBitmap selectedNullBitmap = writer.get();
+    return selectedNullBitmap.isEmpty() ? null : selectedNullBitmap;
+  }
+
+  @Override
+  public DataType getValueType() {
+    return _blockValSet.getValueType();
+  }
+
+  @Override
+  public boolean isSingleValue() {
+    return _blockValSet.isSingleValue();
+  }
+
+  @Nullable
+  @Override
+  public Dictionary getDictionary() {
+    return _blockValSet.getDictionary();
+  }
+
+  @Override
+  public int[] getDictionaryIdsSV() {
+    if (_dictIdsSV == null) {
+      _dictIdsSV = select(_blockValSet.getDictionaryIdsSV());
+    }
+    return _dictIdsSV;
+  }
+
+  @Override
+  public int[] getIntValuesSV() {
+    if (_intValuesSV == null) {
+      Dictionary dictionary = getDictionary();
+      if (dictionary != null) {
+        _intValuesSV = new int[_numRows];
+        dictionary.readIntValues(getDictionaryIdsSV(), _numRows, _intValuesSV);
+      } else {
+        _intValuesSV = select(_blockValSet.getIntValuesSV());
+      }
+    }
+    return _intValuesSV;
+  }
+
+  @Override
+  public long[] getLongValuesSV() {
+    if (_longValuesSV == null) {
+      Dictionary dictionary = getDictionary();
+      if (dictionary != null) {
+        _longValuesSV = new long[_numRows];
+        dictionary.readLongValues(getDictionaryIdsSV(), _numRows, _longValuesSV);
+      } else {
+        long[] values = _blockValSet.getLongValuesSV();
+        _longValuesSV = new long[_numRows];
+        for (int i = 0; i < _numRows; i++) {
+          _longValuesSV[i] = values[_rowIds[i]];
+        }
+      }
+    }
+    return _longValuesSV;
+  }
+
+  @Override
+  public float[] getFloatValuesSV() {
+    if (_floatValuesSV == null) {
+      Dictionary dictionary = getDictionary();
+      if (dictionary != null) {
+        _floatValuesSV = new float[_numRows];
+        dictionary.readFloatValues(getDictionaryIdsSV(), _numRows, _floatValuesSV);
+      } else {
+        float[] values = _blockValSet.getFloatValuesSV();
+        _floatValuesSV = new float[_numRows];
+        for (int i = 0; i < _numRows; i++) {
+          _floatValuesSV[i] = values[_rowIds[i]];
+        }
+      }
+    }
+    return _floatValuesSV;
+  }
+
+  @Override
+  public double[] getDoubleValuesSV() {
+    if (_doubleValuesSV == null) {
+      Dictionary dictionary = getDictionary();
+      if (dictionary != null) {
+        _doubleValuesSV = new double[_numRows];
+        dictionary.readDoubleValues(getDictionaryIdsSV(), _numRows, _doubleValuesSV);
+      } else {
+        double[] values = _blockValSet.getDoubleValuesSV();
+        _doubleValuesSV = new double[_numRows];
+        for (int i = 0; i < _numRows; i++) {
+          _doubleValuesSV[i] = values[_rowIds[i]];
+        }
+      }
+    }
+    return _doubleValuesSV;
+  }
+
+  @Override
+  public BigDecimal[] getBigDecimalValuesSV() {
+    if (_bigDecimalValuesSV == null) {
+      Dictionary dictionary = getDictionary();
+      if (dictionary != null) {
+        _bigDecimalValuesSV = new BigDecimal[_numRows];
+        dictionary.readBigDecimalValues(getDictionaryIdsSV(), _numRows, _bigDecimalValuesSV);
+      } else {
+        _bigDecimalValuesSV = select(_blockValSet.getBigDecimalValuesSV(), new BigDecimal[_numRows]);
+      }
+    }
+    return _bigDecimalValuesSV;
+  }
+
+  @Override
+  public String[] getStringValuesSV() {
+    if (_stringValuesSV == null) {
+      Dictionary dictionary = getDictionary();
+      if (dictionary != null) {
+        _stringValuesSV = new String[_numRows];
+        dictionary.readStringValues(getDictionaryIdsSV(), _numRows, _stringValuesSV);
+      } else {
+        _stringValuesSV = select(_blockValSet.getStringValuesSV(), new String[_numRows]);
+      }
+    }
+    return _stringValuesSV;
+  }
+
+  @Override
+  public byte[][] getBytesValuesSV() {
+    if (_bytesValuesSV == null) {
+      Dictionary dictionary = getDictionary();
+      if (dictionary != null) {
+        _bytesValuesSV = new byte[_numRows][];
+        dictionary.readBytesValues(getDictionaryIdsSV(), _numRows, _bytesValuesSV);
+      } else {
+        _bytesValuesSV = select(_blockValSet.getBytesValuesSV(), new byte[_numRows][]);
+      }
+    }
+    return _bytesValuesSV;
+  }
+
+  @Override
+  public int[][] getDictionaryIdsMV() {
+    if (_dictIdsMV == null) {
+      _dictIdsMV = select(_blockValSet.getDictionaryIdsMV(), new int[_numRows][]);
+    }
+    return _dictIdsMV;
+  }
+
+  @Override
+  public int[][] getIntValuesMV() {
+    if (_intValuesMV == null) {
+      _intValuesMV = select(_blockValSet.getIntValuesMV(), new int[_numRows][]);
+    }
+    return _intValuesMV;
+  }
+
+  @Override
+  public long[][] getLongValuesMV() {
+    if (_longValuesMV == null) {
+      _longValuesMV = select(_blockValSet.getLongValuesMV(), new long[_numRows][]);
+    }
+    return _longValuesMV;
+  }
+
+  @Override
+  public float[][] getFloatValuesMV() {
+    if (_floatValuesMV == null) {
+      _floatValuesMV = select(_blockValSet.getFloatValuesMV(), new float[_numRows][]);
+    }
+    return _floatValuesMV;
+  }
+
+  @Override
+  public double[][] getDoubleValuesMV() {
+    if (_doubleValuesMV == null) {
+      _doubleValuesMV = select(_blockValSet.getDoubleValuesMV(), new double[_numRows][]);
+    }
+    return _doubleValuesMV;
+  }
+
+  @Override
+  public String[][] getStringValuesMV() {
+    if (_stringValuesMV == null) {
+      _stringValuesMV = select(_blockValSet.getStringValuesMV(), new String[_numRows][]);
+    }
+    return _stringValuesMV;
+  }
+
+  @Override
+  public byte[][][] getBytesValuesMV() {
+    if (_bytesValuesMV == null) {
+      _bytesValuesMV = select(_blockValSet.getBytesValuesMV(), new byte[_numRows][][]);
+    }
+    return _bytesValuesMV;
+  }
+
+  @Override
+  public int[] getNumMVEntries() {
+    if (_numMVEntries == null) {
+      _numMVEntries = select(_blockValSet.getNumMVEntries());
+    }
+    return _numMVEntries;
+  }
+
+  private int[] select(int[] values) {
+    int[] selectedValues = new int[_numRows];
+    for (int i = 0; i < _numRows; i++) {
+      selectedValues[i] = values[_rowIds[i]];
+    }
+    return selectedValues;
+  }
+
+  private <T> T[] select(T[] values, T[] selectedValues) {
+    for (int i = 0; i < _numRows; i++) {
+      selectedValues[i] = values[_rowIds[i]];
+    }
+    return selectedValues;
+  }
+}
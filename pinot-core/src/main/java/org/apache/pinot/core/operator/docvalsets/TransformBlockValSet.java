@@ -72,8 +72,9 @@ public class TransformBlockValSet implements BlockValSet {
           if (columnNullBitmap != null) {
             if (nullBitmap == null) {
               nullBitmap = columnNullBitmap.clone();
+            } else {
+              nullBitmap.or(columnNullBitmap);
             }
-            nullBitmap.or(columnNullBitmap);
           }
         }
       }
@@ -77,6 +77,24 @@ public class AndFilterOperator extends BaseFilterOperator {
     return BufferFastAggregation.andCardinality(bitmaps);
   }
 
+  /**
+   * Estimates the selectivity assuming the child filters are independent of each other. Child filters with unknown
+   * selectivity are treated as matching all the documents.
+   */
+  @Override
+  public double getEstimatedSelectivity() {
+    double selectivity = 1.0;
+    boolean estimated = false;
+    for (BaseFilterOperator child : _filterOperators) {
+      double childSelectivity = child.getEstimatedSelectivity();
+      if (childSelectivity != UNKNOWN_SELECTIVITY) {
+        selectivity *= childSelectivity;
+        estimated = true;
+      }
+    }
+    return estimated ? selectivity : UNKNOWN_SELECTIVITY;
+  }
+
   @Override
   public List<Operator> getChildOperators() {
     return new ArrayList<>(_filterOperators);
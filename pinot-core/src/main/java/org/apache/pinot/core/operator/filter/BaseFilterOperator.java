@@ -26,6 +26,10 @@ import org.apache.pinot.core.operator.blocks.FilterBlock;
  * The {@link BaseFilterOperator} class is the base class for all filter operators.
  */
 public abstract class BaseFilterOperator extends BaseOperator<FilterBlock> {
+  /**
+   * Returned by {@link #getEstimatedSelectivity()} when the selectivity cannot be estimated.
+   */
+  public static final double UNKNOWN_SELECTIVITY = -1.0;
 
   /**
    * Returns {@code true} if the result is always empty, {@code false} otherwise.
@@ -55,6 +59,16 @@ public abstract class BaseFilterOperator extends BaseOperator<FilterBlock> {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Returns the estimated fraction of the documents matching the filter, within the range of [0, 1]. The estimation
+   * should be cheap (without scanning the documents), and is used to order the child filter operators of the
+   * {@link AndFilterOperator} so that the more selective ones are evaluated first.
+   * <p>Returns {@link #UNKNOWN_SELECTIVITY} if the selectivity cannot be estimated.
+   */
+  public double getEstimatedSelectivity() {
+    return UNKNOWN_SELECTIVITY;
+  }
+
   /**
    * @return true if the filter operator can produce a bitmap of docIds
    */
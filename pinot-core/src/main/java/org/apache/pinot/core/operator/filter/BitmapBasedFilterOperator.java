@@ -149,6 +149,30 @@ public class BitmapBasedFilterOperator extends BaseFilterOperator {
     return _exclusive ? _numDocs - count : count;
   }
 
+  @Override
+  public double getEstimatedSelectivity() {
+    if (_numDocs == 0) {
+      return UNKNOWN_SELECTIVITY;
+    }
+    long count;
+    if (_docIds == null) {
+      // NOTE: Sum up the cardinality of the bitmaps without merging them. This is exact for single-value columns, and
+      //       an upper bound for multi-value columns.
+      count = 0;
+      int[] dictIds = _exclusive
+          ? _predicateEvaluator.getNonMatchingDictIds()
+          : _predicateEvaluator.getMatchingDictIds();
+      for (int dictId : dictIds) {
+        count += _invertedIndexReader.getDocIds(dictId).getCardinality();
+      }
+      count = Math.min(count, _numDocs);
+    } else {
+      count = _docIds.getCardinality();
+    }
+    double fraction = (double) count / _numDocs;
+    return _exclusive ? 1.0 - fraction : fraction;
+  }
+
   @Override
   public boolean canProduceBitmaps() {
     return true;
@@ -20,7 +20,9 @@ package org.apache.pinot.core.operator.filter;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.pinot.common.request.context.predicate.Predicate;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
 import org.apache.pinot.core.query.request.context.QueryContext;
@@ -177,14 +179,31 @@ public class FilterOperatorUtils {
     /**
      * For AND filter operator, reorders its child filter operators based on the their cost and puts the ones with
      * inverted index first in order to reduce the number of documents to be processed.
+     * <p>When selectivity based reordering is enabled, child filter operators with the same cost are further ordered
+     * by their estimated selectivity so that the most selective ones are evaluated first, and the following scan based
+     * filters only need to scan the documents matched by the previous filters.
      * <p>Special filter operators such as {@link MatchAllFilterOperator} and {@link EmptyFilterOperator} should be
      * removed from the list before calling this method.
      */
     protected void reorderAndFilterChildOperators(QueryContext queryContext, List<BaseFilterOperator> filterOperators) {
+      boolean selectivityFilterReorder = queryContext.isSelectivityFilterReorder();
+      Map<BaseFilterOperator, Double> selectivityMap = selectivityFilterReorder ? new IdentityHashMap<>() : null;
       filterOperators.sort(new Comparator<BaseFilterOperator>() {
         @Override
         public int compare(BaseFilterOperator o1, BaseFilterOperator o2) {
-          return getPriority(o1) - getPriority(o2);
+          int result = getPriority(o1) - getPriority(o2);
+          if (result != 0 || !selectivityFilterReorder) {
+            return result;
+          }
+          return Double.compare(getSelectivity(o1), getSelectivity(o2));
+        }
+
+        double getSelectivity(BaseFilterOperator filterOperator) {
+          return selectivityMap.computeIfAbsent(filterOperator, k -> {
+            double selectivity = k.getEstimatedSelectivity();
+            // Put the filter operators with unknown selectivity in the end
+            return selectivity != BaseFilterOperator.UNKNOWN_SELECTIVITY ? selectivity : Double.MAX_VALUE;
+          });
         }
 
         int getPriority(BaseFilterOperator filterOperator) {
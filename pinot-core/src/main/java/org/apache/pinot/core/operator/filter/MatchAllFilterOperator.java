@@ -39,6 +39,11 @@ public class MatchAllFilterOperator extends BaseFilterOperator {
     return true;
   }
 
+  @Override
+  public double getEstimatedSelectivity() {
+    return 1.0;
+  }
+
   @Override
   protected FilterBlock getNextBlock() {
     return new FilterBlock(new MatchAllDocIdSet(_numDocs));
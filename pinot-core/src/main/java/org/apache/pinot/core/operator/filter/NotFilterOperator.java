@@ -64,6 +64,12 @@ public class NotFilterOperator extends BaseFilterOperator {
     return _numDocs - _filterOperator.getNumMatchingDocs();
   }
 
+  @Override
+  public double getEstimatedSelectivity() {
+    double childSelectivity = _filterOperator.getEstimatedSelectivity();
+    return childSelectivity != UNKNOWN_SELECTIVITY ? 1.0 - childSelectivity : UNKNOWN_SELECTIVITY;
+  }
+
   @Override
   public boolean canProduceBitmaps() {
     return _filterOperator.canProduceBitmaps();
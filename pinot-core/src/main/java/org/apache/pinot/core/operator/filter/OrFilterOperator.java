@@ -50,6 +50,23 @@ public class OrFilterOperator extends BaseFilterOperator {
     return new FilterBlock(new OrDocIdSet(blockDocIdSets, _numDocs));
   }
 
+  /**
+   * Estimates the selectivity assuming the child filters are independent of each other. The selectivity is unknown if
+   * any child filter has unknown selectivity.
+   */
+  @Override
+  public double getEstimatedSelectivity() {
+    double nonMatchingFraction = 1.0;
+    for (BaseFilterOperator child : _filterOperators) {
+      double childSelectivity = child.getEstimatedSelectivity();
+      if (childSelectivity == UNKNOWN_SELECTIVITY) {
+        return UNKNOWN_SELECTIVITY;
+      }
+      nonMatchingFraction *= 1.0 - childSelectivity;
+    }
+    return 1.0 - nonMatchingFraction;
+  }
+
   @Override
   public String toExplainString() {
     return EXPLAIN_NAME;
@@ -19,16 +19,29 @@
 package org.apache.pinot.core.operator.filter;
 
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.apache.pinot.common.request.context.predicate.Predicate;
 import org.apache.pinot.core.common.BlockDocIdIterator;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.operator.blocks.FilterBlock;
+import org.apache.pinot.core.operator.docidsets.EmptyDocIdSet;
 import org.apache.pinot.core.operator.docidsets.MVScanDocIdSet;
 import org.apache.pinot.core.operator.docidsets.SVScanDocIdSet;
+import org.apache.pinot.core.operator.docidsets.SortedDocIdSet;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.traits.DoubleRange;
+import org.apache.pinot.core.operator.filter.predicate.traits.FloatRange;
+import org.apache.pinot.core.operator.filter.predicate.traits.IntRange;
+import org.apache.pinot.core.operator.filter.predicate.traits.LongRange;
+import org.apache.pinot.segment.local.segment.index.readers.forward.RunLengthSVForwardIndexReader;
 import org.apache.pinot.segment.spi.datasource.DataSource;
 import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.index.reader.NullValueVectorReader;
+import org.apache.pinot.spi.utils.Pairs.IntPair;
 
 
 public class ScanBasedFilterOperator extends BaseFilterOperator {
@@ -61,6 +74,11 @@ public class ScanBasedFilterOperator extends BaseFilterOperator {
   protected FilterBlock getNextBlock() {
     DataSourceMetadata dataSourceMetadata = _dataSource.getDataSourceMetadata();
     if (dataSourceMetadata.isSingleValue()) {
+      ForwardIndexReader<?> forwardIndex = _dataSource.getForwardIndex();
+      if (forwardIndex instanceof RunLengthSVForwardIndexReader && _predicateEvaluator.isDictionaryBased()
+          && !hasNulls()) {
+        return getRunLengthFilterBlock((RunLengthSVForwardIndexReader) forwardIndex);
+      }
       return new FilterBlock(new SVScanDocIdSet(_predicateEvaluator, _dataSource, _numDocs, _nullHandlingEnabled,
           _batchSize));
     } else {
@@ -68,6 +86,107 @@ public class ScanBasedFilterOperator extends BaseFilterOperator {
     }
   }
 
+  private boolean hasNulls() {
+    if (!_nullHandlingEnabled) {
+      return false;
+    }
+    NullValueVectorReader nullValueVector = _dataSource.getNullValueVector();
+    return nullValueVector != null && !nullValueVector.getNullBitmap().isEmpty();
+  }
+
+  /**
+   * Evaluates the predicate once per run of the run-length encoded forward index instead of once per document, and
+   * returns the matching runs as sorted document id ranges.
+   */
+  private FilterBlock getRunLengthFilterBlock(RunLengthSVForwardIndexReader forwardIndex) {
+    List<IntPair> docIdRanges = new ArrayList<>();
+    IntPair lastRange = null;
+    int numRuns = forwardIndex.getNumRuns();
+    for (int i = 0; i < numRuns; i++) {
+      int startDocId = forwardIndex.getRunStartDocId(i);
+      if (startDocId >= _numDocs) {
+        break;
+      }
+      if (_predicateEvaluator.applySV(forwardIndex.getRunDictId(i))) {
+        int endDocId = Math.min(forwardIndex.getRunEndDocId(i), _numDocs) - 1;
+        if (lastRange != null && lastRange.getRight() == startDocId - 1) {
+          lastRange.setRight(endDocId);
+        } else {
+          lastRange = new IntPair(startDocId, endDocId);
+          docIdRanges.add(lastRange);
+        }
+      }
+    }
+    if (docIdRanges.isEmpty()) {
+      return new FilterBlock(EmptyDocIdSet.getInstance());
+    }
+    return new FilterBlock(new SortedDocIdSet(docIdRanges));
+  }
+
+  /**
+   * Estimates the selectivity from the column stats without scanning the documents:
+   * <ul>
+   *   <li>Number of matching values (dictionary ids or IN/NOT IN values) over the cardinality of the column</li>
+   *   <li>1 over the cardinality of the column for EQ predicate on raw column</li>
+   *   <li>Overlap of the range over the [min, max] value range of the column for RANGE predicate on raw column</li>
+   * </ul>
+   */
+  @Override
+  public double getEstimatedSelectivity() {
+    DataSourceMetadata dataSourceMetadata = _dataSource.getDataSourceMetadata();
+    int cardinality;
+    if (_predicateEvaluator.isDictionaryBased()) {
+      Dictionary dictionary = _dataSource.getDictionary();
+      cardinality = dictionary != null ? dictionary.length() : dataSourceMetadata.getCardinality();
+    } else {
+      cardinality = dataSourceMetadata.getCardinality();
+    }
+    if (cardinality > 0) {
+      int numMatchingItems = _predicateEvaluator.getNumMatchingItems();
+      if (numMatchingItems != Integer.MIN_VALUE) {
+        // Negative number indicates the number of non-matching items for exclusive predicate
+        numMatchingItems = numMatchingItems >= 0 ? numMatchingItems : numMatchingItems + cardinality;
+        return Math.max(0.0, Math.min(1.0, (double) numMatchingItems / cardinality));
+      }
+      if (_predicateEvaluator.getPredicateType() == Predicate.Type.EQ) {
+        return 1.0 / cardinality;
+      }
+    }
+    if (!_predicateEvaluator.isDictionaryBased() && _predicateEvaluator.getPredicateType() == Predicate.Type.RANGE) {
+      return estimateRangeSelectivity(dataSourceMetadata.getMinValue(), dataSourceMetadata.getMaxValue());
+    }
+    return UNKNOWN_SELECTIVITY;
+  }
+
+  private double estimateRangeSelectivity(Comparable minValue, Comparable maxValue) {
+    if (!(minValue instanceof Number) || !(maxValue instanceof Number)) {
+      return UNKNOWN_SELECTIVITY;
+    }
+    double lowerBound;
+    double upperBound;
+    if (_predicateEvaluator instanceof IntRange) {
+      lowerBound = ((IntRange) _predicateEvaluator).getInclusiveLowerBound();
+      upperBound = ((IntRange) _predicateEvaluator).getInclusiveUpperBound();
+    } else if (_predicateEvaluator instanceof LongRange) {
+      lowerBound = ((LongRange) _predicateEvaluator).getInclusiveLowerBound();
+      upperBound = ((LongRange) _predicateEvaluator).getInclusiveUpperBound();
+    } else if (_predicateEvaluator instanceof FloatRange) {
+      lowerBound = ((FloatRange) _predicateEvaluator).getInclusiveLowerBound();
+      upperBound = ((FloatRange) _predicateEvaluator).getInclusiveUpperBound();
+    } else if (_predicateEvaluator instanceof DoubleRange) {
+      lowerBound = ((DoubleRange) _predicateEvaluator).getInclusiveLowerBound();
+      upperBound = ((DoubleRange) _predicateEvaluator).getInclusiveUpperBound();
+    } else {
+      return UNKNOWN_SELECTIVITY;
+    }
+    double min = ((Number) minValue).doubleValue();
+    double max = ((Number) maxValue).doubleValue();
+    if (max <= min) {
+      return UNKNOWN_SELECTIVITY;
+    }
+    double overlap = Math.min(upperBound, max) - Math.max(lowerBound, min);
+    return overlap > 0 ? Math.min(1.0, overlap / (max - min)) : 0.0;
+  }
 
   @Override
   public List<Operator> getChildOperators() {
@@ -175,6 +175,12 @@ public class SortedIndexBasedFilterOperator extends BaseFilterOperator {
     return exclusive ? _numDocs - count : count;
   }
 
+  @Override
+  public double getEstimatedSelectivity() {
+    // Counting the matching docs only requires looking up the doc id ranges from the sorted index
+    return _numDocs > 0 ? (double) getNumMatchingDocs() / _numDocs : UNKNOWN_SELECTIVITY;
+  }
+
   @Override
   public boolean canProduceBitmaps() {
     return true;
@@ -18,8 +18,10 @@
  */
 package org.apache.pinot.core.operator.query;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.apache.pinot.core.operator.BaseOperator;
 import org.apache.pinot.core.operator.BaseProjectOperator;
 import org.apache.pinot.core.operator.ExecutionStatistics;
@@ -42,15 +44,28 @@ public class AggregationOperator extends BaseOperator<AggregationResultsBlock> {
   private final BaseProjectOperator<?> _projectOperator;
   private final long _numTotalDocs;
   private final boolean _useStarTree;
+  private final BaseProjectOperator<?> _uncoveredDocsProjectOperator;
 
   private int _numDocsScanned = 0;
+  private int _numUncoveredDocsScanned = 0;
 
   public AggregationOperator(AggregationFunction[] aggregationFunctions, BaseProjectOperator<?> projectOperator,
       long numTotalDocs, boolean useStarTree) {
+    this(aggregationFunctions, projectOperator, numTotalDocs, useStarTree, null);
+  }
+
+  /**
+   * Constructor with the project operator on the segment documents not covered by the star-tree, which are aggregated
+   * with the raw values into the same results as the star-tree documents.
+   */
+  public AggregationOperator(AggregationFunction[] aggregationFunctions, BaseProjectOperator<?> projectOperator,
+      long numTotalDocs, boolean useStarTree, @Nullable BaseProjectOperator<?> uncoveredDocsProjectOperator) {
+    assert useStarTree || uncoveredDocsProjectOperator == null;
     _aggregationFunctions = aggregationFunctions;
     _projectOperator = projectOperator;
     _numTotalDocs = numTotalDocs;
     _useStarTree = useStarTree;
+    _uncoveredDocsProjectOperator = uncoveredDocsProjectOperator;
   }
 
   @Override
@@ -67,6 +82,13 @@ public class AggregationOperator extends BaseOperator<AggregationResultsBlock> {
       _numDocsScanned += valueBlock.getNumDocs();
       aggregationExecutor.aggregate(valueBlock);
     }
+    if (_uncoveredDocsProjectOperator != null) {
+      StarTreeAggregationExecutor starTreeAggregationExecutor = (StarTreeAggregationExecutor) aggregationExecutor;
+      while ((valueBlock = _uncoveredDocsProjectOperator.nextBlock()) != null) {
+        _numUncoveredDocsScanned += valueBlock.getNumDocs();
+        starTreeAggregationExecutor.aggregateUncoveredDocs(valueBlock);
+      }
+    }
 
     // Build intermediate result block based on aggregation result from the executor
     return new AggregationResultsBlock(_aggregationFunctions, aggregationExecutor.getResult());
@@ -74,15 +96,25 @@ public class AggregationOperator extends BaseOperator<AggregationResultsBlock> {
 
   @Override
   public List<BaseProjectOperator<?>> getChildOperators() {
-    return Collections.singletonList(_projectOperator);
+    return _uncoveredDocsProjectOperator != null ? Arrays.asList(_projectOperator, _uncoveredDocsProjectOperator)
+        : Collections.singletonList(_projectOperator);
   }
 
   @Override
   public ExecutionStatistics getExecutionStatistics() {
-    long numEntriesScannedInFilter = _projectOperator.getExecutionStatistics().getNumEntriesScannedInFilter();
+    ExecutionStatistics projectExecutionStatistics = _projectOperator.getExecutionStatistics();
+    long numEntriesScannedInFilter = projectExecutionStatistics.getNumEntriesScannedInFilter();
     long numEntriesScannedPostFilter = (long) _numDocsScanned * _projectOperator.getNumColumnsProjected();
-    return new ExecutionStatistics(_numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
-        _numTotalDocs);
+    long numReusedTransformEvaluations = projectExecutionStatistics.getNumReusedTransformEvaluations();
+    if (_uncoveredDocsProjectOperator != null) {
+      ExecutionStatistics uncoveredDocsExecutionStatistics = _uncoveredDocsProjectOperator.getExecutionStatistics();
+      numEntriesScannedInFilter += uncoveredDocsExecutionStatistics.getNumEntriesScannedInFilter();
+      numEntriesScannedPostFilter +=
+          (long) _numUncoveredDocsScanned * _uncoveredDocsProjectOperator.getNumColumnsProjected();
+      numReusedTransformEvaluations += uncoveredDocsExecutionStatistics.getNumReusedTransformEvaluations();
+    }
+    return new ExecutionStatistics(_numDocsScanned + _numUncoveredDocsScanned, numEntriesScannedInFilter,
+        numEntriesScannedPostFilter, _numTotalDocs, numReusedTransformEvaluations);
   }
 
   @Override
@@ -78,11 +78,12 @@ public class DistinctOperator extends BaseOperator<DistinctResultsBlock> {
 
   @Override
   public ExecutionStatistics getExecutionStatistics() {
-    long numEntriesScannedInFilter = _projectOperator.getExecutionStatistics().getNumEntriesScannedInFilter();
+    ExecutionStatistics projectExecutionStatistics = _projectOperator.getExecutionStatistics();
+    long numEntriesScannedInFilter = projectExecutionStatistics.getNumEntriesScannedInFilter();
     long numEntriesScannedPostFilter = (long) _numDocsScanned * _projectOperator.getNumColumnsProjected();
     int numTotalDocs = _indexSegment.getSegmentMetadata().getTotalDocs();
     return new ExecutionStatistics(_numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
-        numTotalDocs);
+        numTotalDocs, projectExecutionStatistics.getNumReusedTransformEvaluations());
   }
 
   @Override
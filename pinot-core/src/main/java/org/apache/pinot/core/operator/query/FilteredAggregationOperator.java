@@ -18,20 +18,28 @@
  */
 package org.apache.pinot.core.operator.query;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.operator.BaseOperator;
 import org.apache.pinot.core.operator.BaseProjectOperator;
 import org.apache.pinot.core.operator.ExecutionStatistics;
+import org.apache.pinot.core.operator.blocks.RowSelectedValueBlock;
 import org.apache.pinot.core.operator.blocks.ValueBlock;
 import org.apache.pinot.core.operator.blocks.results.AggregationResultsBlock;
+import org.apache.pinot.core.operator.filter.BaseFilterOperator;
 import org.apache.pinot.core.query.aggregation.AggregationExecutor;
 import org.apache.pinot.core.query.aggregation.DefaultAggregationExecutor;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.startree.executor.StarTreeAggregationExecutor;
+import org.roaringbitmap.PeekableIntIterator;
 
 
 /**
@@ -39,6 +47,15 @@ import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
  *
  * For a query with either all aggregations being filtered or a mix of filtered and non filtered aggregations,
  * FilteredAggregationOperator will come into execution.
+ *
+ * By default, each distinct aggregation filter runs its own filter and projection pipeline. Optionally, the operator
+ * can run a single shared pipeline on the main filter: each block is projected once with the union of the required
+ * expressions, and the aggregation filters that can be answered with bitmaps are applied as selection vectors over the
+ * projected block. Aggregations with filters that cannot produce bitmaps still run on their own pipelines.
+ *
+ * Aggregation filters (combined with the main filter) that can be solved with star-tree run their own pipelines on the
+ * star-tree documents, where the pre-aggregated values are merged with the {@link StarTreeAggregationExecutor}. For a
+ * consuming segment, the documents not covered by the star-tree snapshot are scanned into the same executor.
  */
 @SuppressWarnings("rawtypes")
 public class FilteredAggregationOperator extends BaseOperator<AggregationResultsBlock> {
@@ -46,6 +63,10 @@ public class FilteredAggregationOperator extends BaseOperator<AggregationResults
 
   private final AggregationFunction[] _aggregationFunctions;
   private final List<Pair<AggregationFunction[], BaseProjectOperator<?>>> _projectOperators;
+  private final List<Triple<AggregationFunction[], BaseProjectOperator<?>, BaseProjectOperator<?>>>
+      _starTreeProjectOperators;
+  private final BaseProjectOperator<?> _sharedProjectOperator;
+  private final List<Pair<AggregationFunction[], BaseFilterOperator>> _sharedFilterOperators;
   private final long _numTotalDocs;
 
   private long _numDocsScanned;
@@ -54,8 +75,42 @@ public class FilteredAggregationOperator extends BaseOperator<AggregationResults
 
   public FilteredAggregationOperator(AggregationFunction[] aggregationFunctions,
       List<Pair<AggregationFunction[], BaseProjectOperator<?>>> projectOperators, long numTotalDocs) {
+    this(aggregationFunctions, projectOperators, Collections.emptyList(), null, Collections.emptyList(), numTotalDocs);
+  }
+
+  /**
+   * Constructor with a shared pipeline.
+   *
+   * @param sharedProjectOperator Project operator on the main filter for the shared pipeline, or {@code null} if there
+   *                              is no shared pipeline
+   * @param sharedFilterOperators Aggregation functions evaluated on the shared pipeline, paired with the aggregation
+   *                              filter operators that can produce bitmaps ({@code null} for non-filtered aggregations)
+   */
+  public FilteredAggregationOperator(AggregationFunction[] aggregationFunctions,
+      List<Pair<AggregationFunction[], BaseProjectOperator<?>>> projectOperators,
+      @Nullable BaseProjectOperator<?> sharedProjectOperator,
+      List<Pair<AggregationFunction[], BaseFilterOperator>> sharedFilterOperators, long numTotalDocs) {
+    this(aggregationFunctions, projectOperators, Collections.emptyList(), sharedProjectOperator, sharedFilterOperators,
+        numTotalDocs);
+  }
+
+  /**
+   * Constructor with star-tree pipelines and a shared pipeline.
+   *
+   * @param starTreeProjectOperators Aggregation functions with the star-tree based project operators solving them, and
+   *                                 the project operators on the documents not covered by the star-tree (or
+   *                                 {@code null} if the star-tree covers all the documents)
+   */
+  public FilteredAggregationOperator(AggregationFunction[] aggregationFunctions,
+      List<Pair<AggregationFunction[], BaseProjectOperator<?>>> projectOperators,
+      List<Triple<AggregationFunction[], BaseProjectOperator<?>, BaseProjectOperator<?>>> starTreeProjectOperators,
+      @Nullable BaseProjectOperator<?> sharedProjectOperator,
+      List<Pair<AggregationFunction[], BaseFilterOperator>> sharedFilterOperators, long numTotalDocs) {
     _aggregationFunctions = aggregationFunctions;
     _projectOperators = projectOperators;
+    _starTreeProjectOperators = starTreeProjectOperators;
+    _sharedProjectOperator = sharedProjectOperator;
+    _sharedFilterOperators = sharedFilterOperators;
     _numTotalDocs = numTotalDocs;
   }
 
@@ -69,30 +124,149 @@ public class FilteredAggregationOperator extends BaseOperator<AggregationResults
     }
 
     for (Pair<AggregationFunction[], BaseProjectOperator<?>> pair : _projectOperators) {
-      AggregationFunction[] aggregationFunctions = pair.getLeft();
-      AggregationExecutor aggregationExecutor = new DefaultAggregationExecutor(aggregationFunctions);
-      BaseProjectOperator<?> projectOperator = pair.getRight();
-      ValueBlock valueBlock;
-      int numDocsScanned = 0;
-      while ((valueBlock = projectOperator.nextBlock()) != null) {
-        aggregationExecutor.aggregate(valueBlock);
-        numDocsScanned += valueBlock.getNumDocs();
+      AggregationExecutor aggregationExecutor = new DefaultAggregationExecutor(pair.getLeft());
+      processPipeline(pair.getRight(), aggregationExecutor::aggregate);
+      setResult(aggregationExecutor, pair.getLeft(), result, resultIndexMap);
+    }
+    for (Triple<AggregationFunction[], BaseProjectOperator<?>, BaseProjectOperator<?>> triple
+        : _starTreeProjectOperators) {
+      StarTreeAggregationExecutor aggregationExecutor = new StarTreeAggregationExecutor(triple.getLeft());
+      processPipeline(triple.getMiddle(), aggregationExecutor::aggregate);
+      if (triple.getRight() != null) {
+        processPipeline(triple.getRight(), aggregationExecutor::aggregateUncoveredDocs);
       }
-      List<Object> filteredResult = aggregationExecutor.getResult();
+      setResult(aggregationExecutor, triple.getLeft(), result, resultIndexMap);
+    }
 
-      for (int i = 0; i < aggregationFunctions.length; i++) {
-        result[resultIndexMap.get(aggregationFunctions[i])] = filteredResult.get(i);
-      }
-      _numDocsScanned += numDocsScanned;
-      _numEntriesScannedInFilter += projectOperator.getExecutionStatistics().getNumEntriesScannedInFilter();
-      _numEntriesScannedPostFilter += (long) numDocsScanned * projectOperator.getNumColumnsProjected();
+    if (_sharedProjectOperator != null) {
+      processSharedPipeline(result, resultIndexMap);
     }
     return new AggregationResultsBlock(_aggregationFunctions, Arrays.asList(result));
   }
 
+  /**
+   * Drains the given project operator into the block consumer (aggregation executor).
+   */
+  private void processPipeline(BaseProjectOperator<?> projectOperator, Consumer<ValueBlock> blockConsumer) {
+    ValueBlock valueBlock;
+    int numDocsScanned = 0;
+    while ((valueBlock = projectOperator.nextBlock()) != null) {
+      blockConsumer.accept(valueBlock);
+      numDocsScanned += valueBlock.getNumDocs();
+    }
+    _numDocsScanned += numDocsScanned;
+    _numEntriesScannedInFilter += projectOperator.getExecutionStatistics().getNumEntriesScannedInFilter();
+    _numEntriesScannedPostFilter += (long) numDocsScanned * projectOperator.getNumColumnsProjected();
+  }
+
+  /**
+   * Puts the results of the aggregation functions from the aggregation executor into the result array.
+   */
+  private static void setResult(AggregationExecutor aggregationExecutor, AggregationFunction[] aggregationFunctions,
+      Object[] result, IdentityHashMap<AggregationFunction, Integer> resultIndexMap) {
+    List<Object> filteredResult = aggregationExecutor.getResult();
+    for (int i = 0; i < aggregationFunctions.length; i++) {
+      result[resultIndexMap.get(aggregationFunctions[i])] = filteredResult.get(i);
+    }
+  }
+
+  /**
+   * Scans the main filter once, and applies the aggregation filter bitmaps on each projected block.
+   */
+  private void processSharedPipeline(Object[] result, IdentityHashMap<AggregationFunction, Integer> resultIndexMap) {
+    assert _sharedProjectOperator != null;
+    int numPipelines = _sharedFilterOperators.size();
+    AggregationExecutor[] aggregationExecutors = new AggregationExecutor[numPipelines];
+    // Iterators over the aggregation filter bitmaps, advanced alongside the (sorted) document ids of the blocks
+    PeekableIntIterator[] filterDocIdIterators = new PeekableIntIterator[numPipelines];
+    for (int i = 0; i < numPipelines; i++) {
+      Pair<AggregationFunction[], BaseFilterOperator> pair = _sharedFilterOperators.get(i);
+      aggregationExecutors[i] = new DefaultAggregationExecutor(pair.getLeft());
+      BaseFilterOperator filterOperator = pair.getRight();
+      if (filterOperator != null) {
+        filterDocIdIterators[i] = filterOperator.getBitmaps().reduce().getIntIterator();
+      }
+    }
+
+    int[] rowIds = new int[0];
+    ValueBlock valueBlock;
+    int numDocsScanned = 0;
+    while ((valueBlock = _sharedProjectOperator.nextBlock()) != null) {
+      int numDocs = valueBlock.getNumDocs();
+      int[] docIds = valueBlock.getDocIds();
+      if (rowIds.length < numDocs) {
+        rowIds = new int[numDocs];
+      }
+      for (int i = 0; i < numPipelines; i++) {
+        PeekableIntIterator filterDocIdIterator = filterDocIdIterators[i];
+        if (filterDocIdIterator == null) {
+          aggregationExecutors[i].aggregate(valueBlock);
+          continue;
+        }
+        assert docIds != null;
+        int numRows = selectRows(filterDocIdIterator, docIds, numDocs, rowIds);
+        if (numRows == numDocs) {
+          aggregationExecutors[i].aggregate(valueBlock);
+        } else if (numRows > 0) {
+          aggregationExecutors[i].aggregate(new RowSelectedValueBlock(valueBlock, rowIds, numRows));
+        }
+      }
+      numDocsScanned += numDocs;
+    }
+
+    for (int i = 0; i < numPipelines; i++) {
+      AggregationFunction[] aggregationFunctions = _sharedFilterOperators.get(i).getLeft();
+      List<Object> sharedResult = aggregationExecutors[i].getResult();
+      for (int j = 0; j < aggregationFunctions.length; j++) {
+        result[resultIndexMap.get(aggregationFunctions[j])] = sharedResult.get(j);
+      }
+    }
+    _numDocsScanned += numDocsScanned;
+    _numEntriesScannedInFilter += _sharedProjectOperator.getExecutionStatistics().getNumEntriesScannedInFilter();
+    _numEntriesScannedPostFilter += (long) numDocsScanned * _sharedProjectOperator.getNumColumnsProjected();
+  }
+
+  /**
+   * Fills the positions of the documents matching the filter into the row ids, and returns the number of matching
+   * documents. The filter document ids are walked alongside the document ids of the block (both sorted), and the
+   * iterator is left at the first filter document id after the block for the next block.
+   */
+  private static int selectRows(PeekableIntIterator filterDocIdIterator, int[] docIds, int numDocs, int[] rowIds) {
+    int numRows = 0;
+    int index = 0;
+    while (filterDocIdIterator.hasNext() && index < numDocs) {
+      int filterDocId = filterDocIdIterator.peekNext();
+      int docId = docIds[index];
+      if (docId == filterDocId) {
+        rowIds[numRows++] = index++;
+        filterDocIdIterator.next();
+      } else if (docId < filterDocId) {
+        index++;
+      } else {
+        filterDocIdIterator.advanceIfNeeded(docId);
+      }
+    }
+    return numRows;
+  }
+
   @Override
   public List<Operator> getChildOperators() {
-    return _projectOperators.stream().map(Pair::getRight).collect(Collectors.toList());
+    List<Operator> childOperators =
+        new ArrayList<>(_projectOperators.size() + 2 * _starTreeProjectOperators.size() + 1);
+    for (Pair<AggregationFunction[], BaseProjectOperator<?>> pair : _projectOperators) {
+      childOperators.add(pair.getRight());
+    }
+    for (Triple<AggregationFunction[], BaseProjectOperator<?>, BaseProjectOperator<?>> triple
+        : _starTreeProjectOperators) {
+      childOperators.add(triple.getMiddle());
+      if (triple.getRight() != null) {
+        childOperators.add(triple.getRight());
+      }
+    }
+    if (_sharedProjectOperator != null) {
+      childOperators.add(_sharedProjectOperator);
+    }
+    return childOperators;
   }
 
   @Override
@@ -18,9 +18,11 @@
  */
 package org.apache.pinot.core.operator.query;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.core.common.Operator;
@@ -54,11 +56,25 @@ public class GroupByOperator extends BaseOperator<GroupByResultsBlock> {
   private final boolean _useStarTree;
   private final DataSchema _dataSchema;
   private final QueryContext _queryContext;
+  private final BaseProjectOperator<?> _uncoveredDocsProjectOperator;
 
   private int _numDocsScanned = 0;
+  private int _numUncoveredDocsScanned = 0;
 
   public GroupByOperator(AggregationFunction[] aggregationFunctions, ExpressionContext[] groupByExpressions,
       BaseProjectOperator<?> projectOperator, long numTotalDocs, QueryContext queryContext, boolean useStarTree) {
+    this(aggregationFunctions, groupByExpressions, projectOperator, numTotalDocs, queryContext, useStarTree, null);
+  }
+
+  /**
+   * Constructor with the project operator on the segment documents not covered by the star-tree, which are aggregated
+   * with the raw values into the same groups as the star-tree documents.
+   */
+  public GroupByOperator(AggregationFunction[] aggregationFunctions, ExpressionContext[] groupByExpressions,
+      BaseProjectOperator<?> projectOperator, long numTotalDocs, QueryContext queryContext, boolean useStarTree,
+      @Nullable BaseProjectOperator<?> uncoveredDocsProjectOperator) {
+    assert useStarTree || uncoveredDocsProjectOperator == null;
+    _uncoveredDocsProjectOperator = uncoveredDocsProjectOperator;
     _aggregationFunctions = aggregationFunctions;
     _groupByExpressions = groupByExpressions;
     _projectOperator = projectOperator;
@@ -106,6 +122,13 @@ public class GroupByOperator extends BaseOperator<GroupByResultsBlock> {
       _numDocsScanned += valueBlock.getNumDocs();
       groupByExecutor.process(valueBlock);
     }
+    if (_uncoveredDocsProjectOperator != null) {
+      StarTreeGroupByExecutor starTreeGroupByExecutor = (StarTreeGroupByExecutor) groupByExecutor;
+      while ((valueBlock = _uncoveredDocsProjectOperator.nextBlock()) != null) {
+        _numUncoveredDocsScanned += valueBlock.getNumDocs();
+        starTreeGroupByExecutor.processUncoveredDocs(valueBlock);
+      }
+    }
 
     // Check if the groups limit is reached
     boolean numGroupsLimitReached = groupByExecutor.getNumGroups() >= _queryContext.getNumGroupsLimit();
@@ -123,6 +146,8 @@ public class GroupByOperator extends BaseOperator<GroupByResultsBlock> {
       if (groupByExecutor.getNumGroups() > trimSize) {
         TableResizer tableResizer = new TableResizer(_dataSchema, _queryContext);
         Collection<IntermediateRecord> intermediateRecords = groupByExecutor.trimGroupByResult(trimSize, tableResizer);
+        // The intermediate records hold the group keys, so the group key generator can be released
+        groupByExecutor.getGroupKeyGenerator().close();
         GroupByResultsBlock resultsBlock = new GroupByResultsBlock(_dataSchema, intermediateRecords);
         resultsBlock.setNumGroupsLimitReached(numGroupsLimitReached);
         return resultsBlock;
@@ -136,15 +161,25 @@ public class GroupByOperator extends BaseOperator<GroupByResultsBlock> {
 
   @Override
   public List<Operator> getChildOperators() {
-    return Collections.singletonList(_projectOperator);
+    return _uncoveredDocsProjectOperator != null ? Arrays.asList(_projectOperator, _uncoveredDocsProjectOperator)
+        : Collections.singletonList(_projectOperator);
   }
 
   @Override
   public ExecutionStatistics getExecutionStatistics() {
-    long numEntriesScannedInFilter = _projectOperator.getExecutionStatistics().getNumEntriesScannedInFilter();
+    ExecutionStatistics projectExecutionStatistics = _projectOperator.getExecutionStatistics();
+    long numEntriesScannedInFilter = projectExecutionStatistics.getNumEntriesScannedInFilter();
     long numEntriesScannedPostFilter = (long) _numDocsScanned * _projectOperator.getNumColumnsProjected();
-    return new ExecutionStatistics(_numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
-        _numTotalDocs);
+    long numReusedTransformEvaluations = projectExecutionStatistics.getNumReusedTransformEvaluations();
+    if (_uncoveredDocsProjectOperator != null) {
+      ExecutionStatistics uncoveredDocsExecutionStatistics = _uncoveredDocsProjectOperator.getExecutionStatistics();
+      numEntriesScannedInFilter += uncoveredDocsExecutionStatistics.getNumEntriesScannedInFilter();
+      numEntriesScannedPostFilter +=
+          (long) _numUncoveredDocsScanned * _uncoveredDocsProjectOperator.getNumColumnsProjected();
+      numReusedTransformEvaluations += uncoveredDocsExecutionStatistics.getNumReusedTransformEvaluations();
+    }
+    return new ExecutionStatistics(_numDocsScanned + _numUncoveredDocsScanned, numEntriesScannedInFilter,
+        numEntriesScannedPostFilter, _numTotalDocs, numReusedTransformEvaluations);
   }
 
   @Override
@@ -123,12 +123,13 @@ public abstract class LinearSelectionOrderByOperator extends BaseOperator<Select
 
   @Override
   public ExecutionStatistics getExecutionStatistics() {
-    long numEntriesScannedInFilter = _projectOperator.getExecutionStatistics().getNumEntriesScannedInFilter();
+    ExecutionStatistics projectExecutionStatistics = _projectOperator.getExecutionStatistics();
+    long numEntriesScannedInFilter = projectExecutionStatistics.getNumEntriesScannedInFilter();
     int numDocsScanned = getNumDocsScanned();
     long numEntriesScannedPostFilter = (long) numDocsScanned * _projectOperator.getNumColumnsProjected();
     int numTotalDocs = _indexSegment.getSegmentMetadata().getTotalDocs();
     return new ExecutionStatistics(numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
-        numTotalDocs);
+        numTotalDocs, projectExecutionStatistics.getNumReusedTransformEvaluations());
   }
 
   protected IntFunction<Object[]> fetchBlock(ValueBlock valueBlock, BlockValSet[] blockValSets) {
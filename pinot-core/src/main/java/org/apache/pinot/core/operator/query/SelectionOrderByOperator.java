@@ -45,6 +45,7 @@ import org.apache.pinot.core.operator.blocks.results.SelectionResultsBlock;
 import org.apache.pinot.core.operator.transform.TransformOperator;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.query.selection.SelectionOperatorUtils;
+import org.apache.pinot.core.query.selection.TopKBoundaryValue;
 import org.apache.pinot.core.query.utils.OrderByComparatorFactory;
 import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.datasource.DataSource;
@@ -68,7 +69,12 @@ import org.roaringbitmap.RoaringBitmap;
  *     FROM table ORDER BY col).
  *   </li>
  * </ul>
+ * <p>When the query context carries a {@link TopKBoundaryValue}, the operator publishes its boundary (the first
+ * order-by value of its last row) once it has collected enough rows, and uses the boundary shared across the segments
+ * as a dynamic range predicate on the first order-by expression: rows beyond the boundary are not materialized, and
+ * blocks without any row within the boundary are skipped without fetching the other expressions.
  */
+@SuppressWarnings({"rawtypes", "unchecked"})
 public class SelectionOrderByOperator extends BaseOperator<SelectionResultsBlock> {
   private static final String EXPLAIN_NAME = "SELECT_ORDERBY";
 
@@ -83,7 +89,10 @@ public class SelectionOrderByOperator extends BaseOperator<SelectionResultsBlock
   private final int _numRowsToKeep;
   private final Comparator<Object[]> _comparator;
   private final PriorityQueue<Object[]> _rows;
+  private final TopKBoundaryValue _topKBoundaryValue;
 
+  // Reusable buffer for the ids of the rows to be processed within the current block
+  private int[] _rowIds = new int[0];
   private int _numDocsScanned = 0;
   private long _numEntriesScannedPostFilter = 0;
 
@@ -109,6 +118,7 @@ public class SelectionOrderByOperator extends BaseOperator<SelectionResultsBlock
         OrderByComparatorFactory.getComparator(_orderByExpressions, _orderByColumnContexts, _nullHandlingEnabled);
     _rows = new PriorityQueue<>(Math.min(_numRowsToKeep, SelectionOperatorUtils.MAX_ROW_HOLDER_INITIAL_CAPACITY),
         _comparator.reversed());
+    _topKBoundaryValue = queryContext.getTopKBoundaryValue();
   }
 
   @Override
@@ -143,12 +153,17 @@ public class SelectionOrderByOperator extends BaseOperator<SelectionResultsBlock
     int numColumnsProjected = _projectOperator.getNumColumnsProjected();
     ValueBlock valueBlock;
     while ((valueBlock = _projectOperator.nextBlock()) != null) {
+      int numDocsFetched = valueBlock.getNumDocs();
+      _numDocsScanned += numDocsFetched;
+      int numRowsToProcess = selectRowsWithinBoundary(valueBlock, numDocsFetched);
+      if (numRowsToProcess == 0) {
+        continue;
+      }
       for (int i = 0; i < numExpressions; i++) {
         ExpressionContext expression = _expressions.get(i);
         blockValSets[i] = valueBlock.getBlockValueSet(expression);
       }
       RowBasedBlockValueFetcher blockValueFetcher = new RowBasedBlockValueFetcher(blockValSets);
-      int numDocsFetched = valueBlock.getNumDocs();
       if (_nullHandlingEnabled) {
         RoaringBitmap[] nullBitmaps = new RoaringBitmap[numExpressions];
         for (int i = 0; i < numExpressions; i++) {
@@ -165,11 +180,11 @@ public class SelectionOrderByOperator extends BaseOperator<SelectionResultsBlock
           SelectionOperatorUtils.addToPriorityQueue(row, _rows, _numRowsToKeep);
         }
       } else {
-        for (int i = 0; i < numDocsFetched; i++) {
-          SelectionOperatorUtils.addToPriorityQueue(blockValueFetcher.getRow(i), _rows, _numRowsToKeep);
+        for (int i = 0; i < numRowsToProcess; i++) {
+          SelectionOperatorUtils.addToPriorityQueue(blockValueFetcher.getRow(_rowIds[i]), _rows, _numRowsToKeep);
         }
       }
-      _numDocsScanned += numDocsFetched;
+      publishBoundary();
     }
     _numEntriesScannedPostFilter = (long) _numDocsScanned * numColumnsProjected;
 
@@ -198,12 +213,17 @@ public class SelectionOrderByOperator extends BaseOperator<SelectionResultsBlock
     int numColumnsProjected = _projectOperator.getNumColumnsProjected();
     ValueBlock valueBlock;
     while ((valueBlock = _projectOperator.nextBlock()) != null) {
+      int numDocsFetched = valueBlock.getNumDocs();
+      _numDocsScanned += numDocsFetched;
+      int numRowsToProcess = selectRowsWithinBoundary(valueBlock, numDocsFetched);
+      if (numRowsToProcess == 0) {
+        continue;
+      }
       for (int i = 0; i < numOrderByExpressions; i++) {
         ExpressionContext expression = _orderByExpressions.get(i).getExpression();
         blockValSets[i] = valueBlock.getBlockValueSet(expression);
       }
       RowBasedBlockValueFetcher blockValueFetcher = new RowBasedBlockValueFetcher(blockValSets);
-      int numDocsFetched = valueBlock.getNumDocs();
       int[] docIds = valueBlock.getDocIds();
       if (_nullHandlingEnabled) {
         RoaringBitmap[] nullBitmaps = new RoaringBitmap[numOrderByExpressions];
@@ -222,18 +242,19 @@ public class SelectionOrderByOperator extends BaseOperator<SelectionResultsBlock
           SelectionOperatorUtils.addToPriorityQueue(row, _rows, _numRowsToKeep);
         }
       } else {
-        for (int i = 0; i < numDocsFetched; i++) {
+        for (int i = 0; i < numRowsToProcess; i++) {
           // NOTE: We pre-allocate the complete row so that we can fill up the non-order-by output expression values
           // later
           //       without creating extra rows or re-constructing the priority queue. We can change the values in-place
           //       because the comparator only compare the values for the order-by expressions.
+          int rowId = _rowIds[i];
           Object[] row = new Object[numExpressions];
-          blockValueFetcher.getRow(i, row, 0);
-          row[numOrderByExpressions] = docIds[i];
+          blockValueFetcher.getRow(rowId, row, 0);
+          row[numOrderByExpressions] = docIds[rowId];
           SelectionOperatorUtils.addToPriorityQueue(row, _rows, _numRowsToKeep);
         }
       }
-      _numDocsScanned += numDocsFetched;
+      publishBoundary();
     }
     _numEntriesScannedPostFilter = (long) _numDocsScanned * numColumnsProjected;
 
@@ -305,6 +326,97 @@ public class SelectionOrderByOperator extends BaseOperator<SelectionResultsBlock
     return new SelectionResultsBlock(dataSchema, getSortedRows(), _comparator);
   }
 
+  /**
+   * Fills the ids of the rows within the top-K boundary into the row id buffer, and returns the number of rows to be
+   * processed. All the rows are selected when the boundary is not available.
+   */
+  private int selectRowsWithinBoundary(ValueBlock valueBlock, int numDocs) {
+    if (_rowIds.length < numDocs) {
+      _rowIds = new int[numDocs];
+    }
+    Comparable boundaryValue = _topKBoundaryValue != null ? _topKBoundaryValue.get() : null;
+    if (boundaryValue == null) {
+      for (int i = 0; i < numDocs; i++) {
+        _rowIds[i] = i;
+      }
+      return numDocs;
+    }
+    BlockValSet blockValSet = valueBlock.getBlockValueSet(_orderByExpressions.get(0).getExpression());
+    boolean asc = _topKBoundaryValue.isAsc();
+    int numRows = 0;
+    // Compare the primitive values directly for the common numeric types
+    switch (blockValSet.getValueType().getStoredType()) {
+      case INT:
+        if (boundaryValue instanceof Integer) {
+          int intBoundary = (Integer) boundaryValue;
+          int[] intValues = blockValSet.getIntValuesSV();
+          for (int i = 0; i < numDocs; i++) {
+            if (asc ? intValues[i] <= intBoundary : intValues[i] >= intBoundary) {
+              _rowIds[numRows++] = i;
+            }
+          }
+          return numRows;
+        }
+        break;
+      case LONG:
+        if (boundaryValue instanceof Long) {
+          long longBoundary = (Long) boundaryValue;
+          long[] longValues = blockValSet.getLongValuesSV();
+          for (int i = 0; i < numDocs; i++) {
+            if (asc ? longValues[i] <= longBoundary : longValues[i] >= longBoundary) {
+              _rowIds[numRows++] = i;
+            }
+          }
+          return numRows;
+        }
+        break;
+      case FLOAT:
+        if (boundaryValue instanceof Float) {
+          float[] floatValues = blockValSet.getFloatValuesSV();
+          for (int i = 0; i < numDocs; i++) {
+            int result = Float.compare(floatValues[i], (Float) boundaryValue);
+            if (asc ? result <= 0 : result >= 0) {
+              _rowIds[numRows++] = i;
+            }
+          }
+          return numRows;
+        }
+        break;
+      case DOUBLE:
+        if (boundaryValue instanceof Double) {
+          double[] doubleValues = blockValSet.getDoubleValuesSV();
+          for (int i = 0; i < numDocs; i++) {
+            int result = Double.compare(doubleValues[i], (Double) boundaryValue);
+            if (asc ? result <= 0 : result >= 0) {
+              _rowIds[numRows++] = i;
+            }
+          }
+          return numRows;
+        }
+        break;
+      default:
+        break;
+    }
+    RowBasedBlockValueFetcher valueFetcher = new RowBasedBlockValueFetcher(new BlockValSet[]{blockValSet});
+    Object[] buffer = new Object[1];
+    for (int i = 0; i < numDocs; i++) {
+      valueFetcher.getRow(i, buffer, 0);
+      if (!_topKBoundaryValue.isBeyond((Comparable) buffer[0], boundaryValue)) {
+        _rowIds[numRows++] = i;
+      }
+    }
+    return numRows;
+  }
+
+  /**
+   * Publishes the boundary of this segment to the query once enough rows are collected.
+   */
+  private void publishBoundary() {
+    if (_topKBoundaryValue != null && _rows.size() >= _numRowsToKeep) {
+      _topKBoundaryValue.update((Comparable) _rows.peek()[0]);
+    }
+  }
+
   private List<Object[]> getSortedRows() {
     int numRows = _rows.size();
     Object[][] sortedRows = new Object[numRows][];
@@ -326,9 +438,10 @@ public class SelectionOrderByOperator extends BaseOperator<SelectionResultsBlock
 
   @Override
   public ExecutionStatistics getExecutionStatistics() {
-    long numEntriesScannedInFilter = _projectOperator.getExecutionStatistics().getNumEntriesScannedInFilter();
+    ExecutionStatistics projectExecutionStatistics = _projectOperator.getExecutionStatistics();
+    long numEntriesScannedInFilter = projectExecutionStatistics.getNumEntriesScannedInFilter();
     int numTotalDocs = _indexSegment.getSegmentMetadata().getTotalDocs();
     return new ExecutionStatistics(_numDocsScanned, numEntriesScannedInFilter, _numEntriesScannedPostFilter,
-        numTotalDocs);
+        numTotalDocs, projectExecutionStatistics.getNumReusedTransformEvaluations());
   }
 }
@@ -25,6 +25,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import org.apache.pinot.common.exception.QueryException;
+import org.apache.pinot.core.common.BlockValueBufferArena;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.operator.AcquireReleaseColumnsSegmentOperator;
 import org.apache.pinot.core.operator.blocks.results.BaseResultsBlock;
@@ -108,6 +109,8 @@ public abstract class BaseStreamingCombineOperator<T extends BaseResultsBlock>
     int numServerThreads = Math.min(_numTasks, ResourceManager.DEFAULT_QUERY_WORKER_THREADS);
     CombineOperatorUtils.setExecutionStatistics(finalBlock, _operators, _totalWorkerThreadCpuTimeNs.get(),
         numServerThreads);
+    finalBlock.setExecutionThreadMemAllocatedBytes(_totalWorkerThreadMemAllocatedBytes.get());
+    finalBlock.setNumReusedBufferBytes(_totalReusedBufferBytes.get());
     return finalBlock;
   }
 
@@ -117,6 +120,7 @@ public abstract class BaseStreamingCombineOperator<T extends BaseResultsBlock>
     Object tracker = createQuerySatisfiedTracker();
     while ((operatorId = _nextOperatorId.getAndIncrement()) < _numOperators) {
       Operator<T> operator = _operators.get(operatorId);
+      BlockValueBufferArena.openScope();
       try {
         if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
           ((AcquireReleaseColumnsSegmentOperator) operator).acquire();
@@ -144,6 +148,7 @@ public abstract class BaseStreamingCombineOperator<T extends BaseResultsBlock>
         if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
           ((AcquireReleaseColumnsSegmentOperator) operator).release();
         }
+        BlockValueBufferArena.closeScope();
       }
       // offer the LAST_RESULTS_BLOCK indicate finish of the current operator.
       _blockingQueue.offer(LAST_RESULTS_BLOCK);
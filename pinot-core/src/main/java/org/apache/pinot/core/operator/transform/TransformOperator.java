@@ -21,8 +21,10 @@ package org.apache.pinot.core.operator.transform;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pinot.common.request.context.ExpressionContext;
@@ -32,6 +34,7 @@ import org.apache.pinot.core.operator.ColumnContext;
 import org.apache.pinot.core.operator.ExecutionStatistics;
 import org.apache.pinot.core.operator.blocks.TransformBlock;
 import org.apache.pinot.core.operator.blocks.ValueBlock;
+import org.apache.pinot.core.operator.transform.function.SharedTransformFunction;
 import org.apache.pinot.core.operator.transform.function.TransformFunction;
 import org.apache.pinot.core.operator.transform.function.TransformFunctionFactory;
 import org.apache.pinot.core.query.request.context.QueryContext;
@@ -46,18 +49,54 @@ public class TransformOperator extends BaseProjectOperator<TransformBlock> {
 
   private final BaseProjectOperator<?> _projectOperator;
   private final Map<ExpressionContext, TransformFunction> _transformFunctionMap;
+  private final Map<ExpressionContext, TransformFunction> _sharedTransformFunctionMap;
 
   public TransformOperator(QueryContext queryContext, BaseProjectOperator<?> projectOperator,
       Collection<ExpressionContext> expressions) {
     _projectOperator = projectOperator;
     _transformFunctionMap = new HashMap<>(HashUtil.getHashMapCapacity(expressions.size()));
+    // Function expressions appearing multiple times (either as the expression or as part of the expression) share the
+    // same transform function, which is evaluated only once per block
+    _sharedTransformFunctionMap = new HashMap<>();
+    if (!queryContext.isSkipSharedTransform()) {
+      for (ExpressionContext sharedExpression : getSharedFunctionExpressions(expressions)) {
+        _sharedTransformFunctionMap.put(sharedExpression, null);
+      }
+    }
     for (ExpressionContext expression : expressions) {
       TransformFunction transformFunction =
-          TransformFunctionFactory.get(expression, projectOperator.getSourceColumnContextMap(), queryContext);
+          TransformFunctionFactory.get(expression, projectOperator.getSourceColumnContextMap(), queryContext,
+              _sharedTransformFunctionMap);
       _transformFunctionMap.put(expression, transformFunction);
     }
   }
 
+  /**
+   * Returns the function expressions that appear more than once within the given expressions.
+   */
+  private static Set<ExpressionContext> getSharedFunctionExpressions(Collection<ExpressionContext> expressions) {
+    Map<ExpressionContext, Integer> countMap = new HashMap<>();
+    for (ExpressionContext expression : expressions) {
+      countFunctionExpressions(expression, countMap);
+    }
+    Set<ExpressionContext> sharedExpressions = new HashSet<>();
+    for (Map.Entry<ExpressionContext, Integer> entry : countMap.entrySet()) {
+      if (entry.getValue() > 1) {
+        sharedExpressions.add(entry.getKey());
+      }
+    }
+    return sharedExpressions;
+  }
+
+  private static void countFunctionExpressions(ExpressionContext expression, Map<ExpressionContext, Integer> countMap) {
+    if (expression.getType() == ExpressionContext.Type.FUNCTION) {
+      countMap.merge(expression, 1, Integer::sum);
+      for (ExpressionContext argument : expression.getFunction().getArguments()) {
+        countFunctionExpressions(argument, countMap);
+      }
+    }
+  }
+
   @Override
   public Map<String, ColumnContext> getSourceColumnContextMap() {
     return _projectOperator.getSourceColumnContextMap();
@@ -96,6 +135,16 @@ public class TransformOperator extends BaseProjectOperator<TransformBlock> {
 
   @Override
   public ExecutionStatistics getExecutionStatistics() {
-    return _projectOperator.getExecutionStatistics();
+    ExecutionStatistics executionStatistics = _projectOperator.getExecutionStatistics();
+    if (_sharedTransformFunctionMap.isEmpty()) {
+      return executionStatistics;
+    }
+    long numReusedTransformEvaluations = executionStatistics.getNumReusedTransformEvaluations();
+    for (TransformFunction sharedTransformFunction : _sharedTransformFunctionMap.values()) {
+      numReusedTransformEvaluations += ((SharedTransformFunction) sharedTransformFunction).getNumReusedEvaluations();
+    }
+    return new ExecutionStatistics(executionStatistics.getNumDocsScanned(),
+        executionStatistics.getNumEntriesScannedInFilter(), executionStatistics.getNumEntriesScannedPostFilter(),
+        executionStatistics.getNumTotalDocs(), numReusedTransformEvaluations);
   }
 }
@@ -26,6 +26,7 @@ import javax.annotation.Nullable;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.core.common.BlockValueBufferArena;
 import org.apache.pinot.core.operator.ColumnContext;
 import org.apache.pinot.core.operator.blocks.ValueBlock;
 import org.apache.pinot.core.operator.transform.TransformResultMetadata;
@@ -132,7 +133,7 @@ public abstract class BaseTransformFunction implements TransformFunction {
 
   protected void initIntValuesSV(int length) {
     if (_intValuesSV == null || _intValuesSV.length < length) {
-      _intValuesSV = new int[length];
+      _intValuesSV = BlockValueBufferArena.leaseIntBuffer(length);
     }
   }
 
@@ -240,7 +241,7 @@ public abstract class BaseTransformFunction implements TransformFunction {
 
   protected void initLongValuesSV(int length) {
     if (_longValuesSV == null || _longValuesSV.length < length) {
-      _longValuesSV = new long[length];
+      _longValuesSV = BlockValueBufferArena.leaseLongBuffer(length);
     }
   }
 
@@ -340,7 +341,7 @@ public abstract class BaseTransformFunction implements TransformFunction {
 
   protected void initFloatValuesSV(int length) {
     if (_floatValuesSV == null || _floatValuesSV.length < length) {
-      _floatValuesSV = new float[length];
+      _floatValuesSV = BlockValueBufferArena.leaseFloatBuffer(length);
     }
   }
 
@@ -440,7 +441,7 @@ public abstract class BaseTransformFunction implements TransformFunction {
 
   protected void initDoubleValuesSV(int length) {
     if (_doubleValuesSV == null || _doubleValuesSV.length < length) {
-      _doubleValuesSV = new double[length];
+      _doubleValuesSV = BlockValueBufferArena.leaseDoubleBuffer(length);
     }
   }
 
@@ -649,7 +650,7 @@ public abstract class BaseTransformFunction implements TransformFunction {
 
   protected void initStringValuesSV(int length) {
     if (_stringValuesSV == null || _stringValuesSV.length < length) {
-      _stringValuesSV = new String[length];
+      _stringValuesSV = BlockValueBufferArena.leaseStringBuffer(length);
     }
   }
 
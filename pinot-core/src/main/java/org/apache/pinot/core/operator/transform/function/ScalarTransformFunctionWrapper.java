@@ -23,7 +23,12 @@ import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.List;
 import java.util.Map;
-import org.apache.commons.lang3.ArrayUtils;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.pinot.common.function.FunctionInfo;
@@ -53,6 +58,15 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
   private TransformFunction[] _nonLiteralFunctions;
   private Object[][] _nonLiteralValues;
 
+  // Primitive fast paths for the common signatures, which invoke the function without reflection or boxing. They are
+  // only set when all the arguments are non-literal.
+  private IntUnaryOperator _intUnaryFunction;
+  private IntBinaryOperator _intBinaryFunction;
+  private LongUnaryOperator _longUnaryFunction;
+  private LongBinaryOperator _longBinaryFunction;
+  private DoubleUnaryOperator _doubleUnaryFunction;
+  private DoubleBinaryOperator _doubleBinaryFunction;
+
   public ScalarTransformFunctionWrapper(FunctionInfo functionInfo) {
     _name = functionInfo.getMethod().getName();
     _functionInvoker = new FunctionInvoker(functionInfo);
@@ -143,6 +157,18 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
       }
     }
     _nonLiteralValues = new Object[_numNonLiteralArguments][];
+
+    if (_numNonLiteralArguments == numArguments) {
+      if (numArguments == 1) {
+        _intUnaryFunction = _functionInvoker.getPrimitiveFunction(IntUnaryOperator.class);
+        _longUnaryFunction = _functionInvoker.getPrimitiveFunction(LongUnaryOperator.class);
+        _doubleUnaryFunction = _functionInvoker.getPrimitiveFunction(DoubleUnaryOperator.class);
+      } else if (numArguments == 2) {
+        _intBinaryFunction = _functionInvoker.getPrimitiveFunction(IntBinaryOperator.class);
+        _longBinaryFunction = _functionInvoker.getPrimitiveFunction(LongBinaryOperator.class);
+        _doubleBinaryFunction = _functionInvoker.getPrimitiveFunction(DoubleBinaryOperator.class);
+      }
+    }
   }
 
   @Override
@@ -157,6 +183,21 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
     }
     int length = valueBlock.getNumDocs();
     initIntValuesSV(length);
+    if (_intUnaryFunction != null) {
+      int[] values = _nonLiteralFunctions[0].transformToIntValuesSV(valueBlock);
+      for (int i = 0; i < length; i++) {
+        _intValuesSV[i] = _intUnaryFunction.applyAsInt(values[i]);
+      }
+      return _intValuesSV;
+    }
+    if (_intBinaryFunction != null) {
+      int[] leftValues = _nonLiteralFunctions[0].transformToIntValuesSV(valueBlock);
+      int[] rightValues = _nonLiteralFunctions[1].transformToIntValuesSV(valueBlock);
+      for (int i = 0; i < length; i++) {
+        _intValuesSV[i] = _intBinaryFunction.applyAsInt(leftValues[i], rightValues[i]);
+      }
+      return _intValuesSV;
+    }
     getNonLiteralValues(valueBlock);
     for (int i = 0; i < length; i++) {
       for (int j = 0; j < _numNonLiteralArguments; j++) {
@@ -197,6 +238,21 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
     }
     int length = valueBlock.getNumDocs();
     initLongValuesSV(length);
+    if (_longUnaryFunction != null) {
+      long[] values = _nonLiteralFunctions[0].transformToLongValuesSV(valueBlock);
+      for (int i = 0; i < length; i++) {
+        _longValuesSV[i] = _longUnaryFunction.applyAsLong(values[i]);
+      }
+      return _longValuesSV;
+    }
+    if (_longBinaryFunction != null) {
+      long[] leftValues = _nonLiteralFunctions[0].transformToLongValuesSV(valueBlock);
+      long[] rightValues = _nonLiteralFunctions[1].transformToLongValuesSV(valueBlock);
+      for (int i = 0; i < length; i++) {
+        _longValuesSV[i] = _longBinaryFunction.applyAsLong(leftValues[i], rightValues[i]);
+      }
+      return _longValuesSV;
+    }
     getNonLiteralValues(valueBlock);
     for (int i = 0; i < length; i++) {
       for (int j = 0; j < _numNonLiteralArguments; j++) {
@@ -277,6 +333,21 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
     }
     int length = valueBlock.getNumDocs();
     initDoubleValuesSV(length);
+    if (_doubleUnaryFunction != null) {
+      double[] values = _nonLiteralFunctions[0].transformToDoubleValuesSV(valueBlock);
+      for (int i = 0; i < length; i++) {
+        _doubleValuesSV[i] = _doubleUnaryFunction.applyAsDouble(values[i]);
+      }
+      return _doubleValuesSV;
+    }
+    if (_doubleBinaryFunction != null) {
+      double[] leftValues = _nonLiteralFunctions[0].transformToDoubleValuesSV(valueBlock);
+      double[] rightValues = _nonLiteralFunctions[1].transformToDoubleValuesSV(valueBlock);
+      for (int i = 0; i < length; i++) {
+        _doubleValuesSV[i] = _doubleBinaryFunction.applyAsDouble(leftValues[i], rightValues[i]);
+      }
+      return _doubleValuesSV;
+    }
     getNonLiteralValues(valueBlock);
     for (int i = 0; i < length; i++) {
       for (int j = 0; j < _numNonLiteralArguments; j++) {
@@ -657,30 +728,32 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
    */
   private void getNonLiteralValues(ValueBlock valueBlock) {
     PinotDataType[] parameterTypes = _functionInvoker.getParameterTypes();
+    // NOTE: The value buffers can be longer than the block (e.g. leased from the BlockValueBufferArena), so only the
+    //       first numDocs values are converted.
+    int numDocs = valueBlock.getNumDocs();
     for (int i = 0; i < _numNonLiteralArguments; i++) {
       PinotDataType parameterType = parameterTypes[_nonLiteralIndices[i]];
       TransformFunction transformFunction = _nonLiteralFunctions[i];
       switch (parameterType) {
         case INTEGER:
-          _nonLiteralValues[i] = ArrayUtils.toObject(transformFunction.transformToIntValuesSV(valueBlock));
+          _nonLiteralValues[i] = toObject(transformFunction.transformToIntValuesSV(valueBlock), numDocs);
           break;
         case LONG:
-          _nonLiteralValues[i] = ArrayUtils.toObject(transformFunction.transformToLongValuesSV(valueBlock));
+          _nonLiteralValues[i] = toObject(transformFunction.transformToLongValuesSV(valueBlock), numDocs);
           break;
         case FLOAT:
-          _nonLiteralValues[i] = ArrayUtils.toObject(transformFunction.transformToFloatValuesSV(valueBlock));
+          _nonLiteralValues[i] = toObject(transformFunction.transformToFloatValuesSV(valueBlock), numDocs);
           break;
         case DOUBLE:
-          _nonLiteralValues[i] = ArrayUtils.toObject(transformFunction.transformToDoubleValuesSV(valueBlock));
+          _nonLiteralValues[i] = toObject(transformFunction.transformToDoubleValuesSV(valueBlock), numDocs);
           break;
         case BIG_DECIMAL:
           _nonLiteralValues[i] = transformFunction.transformToBigDecimalValuesSV(valueBlock);
           break;
         case BOOLEAN: {
           int[] intValues = transformFunction.transformToIntValuesSV(valueBlock);
-          int numValues = intValues.length;
-          Boolean[] booleanValues = new Boolean[numValues];
-          for (int j = 0; j < numValues; j++) {
+          Boolean[] booleanValues = new Boolean[numDocs];
+          for (int j = 0; j < numDocs; j++) {
             booleanValues[j] = intValues[j] == 1;
           }
           _nonLiteralValues[i] = booleanValues;
@@ -688,9 +761,8 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
         }
         case TIMESTAMP: {
           long[] longValues = transformFunction.transformToLongValuesSV(valueBlock);
-          int numValues = longValues.length;
-          Timestamp[] timestampValues = new Timestamp[numValues];
-          for (int j = 0; j < numValues; j++) {
+          Timestamp[] timestampValues = new Timestamp[numDocs];
+          for (int j = 0; j < numDocs; j++) {
             timestampValues[j] = new Timestamp(longValues[j]);
           }
           _nonLiteralValues[i] = timestampValues;
@@ -728,6 +800,7 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
    */
   private void getNonLiteralValuesWithNull(ValueBlock valueBlock) {
     PinotDataType[] parameterTypes = _functionInvoker.getParameterTypes();
+    int numDocs = valueBlock.getNumDocs();
     for (int i = 0; i < _numNonLiteralArguments; i++) {
       PinotDataType parameterType = parameterTypes[_nonLiteralIndices[i]];
       TransformFunction transformFunction = _nonLiteralFunctions[i];
@@ -735,22 +808,22 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
       switch (parameterType) {
         case INTEGER:
           Pair<int[], RoaringBitmap> intResult = transformFunction.transformToIntValuesSVWithNull(valueBlock);
-          _nonLiteralValues[i] = ArrayUtils.toObject(intResult.getLeft());
+          _nonLiteralValues[i] = toObject(intResult.getLeft(), numDocs);
           bitmap = intResult.getRight();
           break;
         case LONG:
           Pair<long[], RoaringBitmap> longResult = transformFunction.transformToLongValuesSVWithNull(valueBlock);
-          _nonLiteralValues[i] = ArrayUtils.toObject(longResult.getLeft());
+          _nonLiteralValues[i] = toObject(longResult.getLeft(), numDocs);
           bitmap = longResult.getRight();
           break;
         case FLOAT:
           Pair<float[], RoaringBitmap> floatResult = transformFunction.transformToFloatValuesSVWithNull(valueBlock);
-          _nonLiteralValues[i] = ArrayUtils.toObject(floatResult.getLeft());
+          _nonLiteralValues[i] = toObject(floatResult.getLeft(), numDocs);
           bitmap = floatResult.getRight();
           break;
         case DOUBLE:
           Pair<double[], RoaringBitmap> doubleResult = transformFunction.transformToDoubleValuesSVWithNull(valueBlock);
-          _nonLiteralValues[i] = ArrayUtils.toObject(doubleResult.getLeft());
+          _nonLiteralValues[i] = toObject(doubleResult.getLeft(), numDocs);
           bitmap = doubleResult.getRight();
           break;
         case BIG_DECIMAL:
@@ -761,9 +834,8 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
           break;
         case BOOLEAN: {
           Pair<int[], RoaringBitmap> boolResult = transformFunction.transformToIntValuesSVWithNull(valueBlock);
-          int numValues = boolResult.getLeft().length;
-          Boolean[] booleanValues = new Boolean[numValues];
-          for (int j = 0; j < numValues; j++) {
+          Boolean[] booleanValues = new Boolean[numDocs];
+          for (int j = 0; j < numDocs; j++) {
             booleanValues[j] = boolResult.getLeft()[j] == 1;
           }
           _nonLiteralValues[i] = booleanValues;
@@ -772,9 +844,8 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
         }
         case TIMESTAMP: {
           Pair<long[], RoaringBitmap> timeResult = transformFunction.transformToLongValuesSVWithNull(valueBlock);
-          int numValues = timeResult.getLeft().length;
-          Timestamp[] timestampValues = new Timestamp[numValues];
-          for (int j = 0; j < numValues; j++) {
+          Timestamp[] timestampValues = new Timestamp[numDocs];
+          for (int j = 0; j < numDocs; j++) {
             timestampValues[j] = new Timestamp(timeResult.getLeft()[j]);
           }
           _nonLiteralValues[i] = timestampValues;
@@ -829,4 +900,36 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
       }
     }
   }
+
+  private static Integer[] toObject(int[] values, int numValues) {
+    Integer[] boxedValues = new Integer[numValues];
+    for (int i = 0; i < numValues; i++) {
+      boxedValues[i] = values[i];
+    }
+    return boxedValues;
+  }
+
+  private static Long[] toObject(long[] values, int numValues) {
+    Long[] boxedValues = new Long[numValues];
+    for (int i = 0; i < numValues; i++) {
+      boxedValues[i] = values[i];
+    }
+    return boxedValues;
+  }
+
+  private static Float[] toObject(float[] values, int numValues) {
+    Float[] boxedValues = new Float[numValues];
+    for (int i = 0; i < numValues; i++) {
+      boxedValues[i] = values[i];
+    }
+    return boxedValues;
+  }
+
+  private static Double[] toObject(double[] values, int numValues) {
+    Double[] boxedValues = new Double[numValues];
+    for (int i = 0; i < numValues; i++) {
+      boxedValues[i] = values[i];
+    }
+    return boxedValues;
+  }
 }
@@ -93,6 +93,9 @@ public abstract class SelectTupleElementTransformFunction extends BaseTransformF
     if (bitmap == null || bitmap.isEmpty()) {
       return bitmap;
     }
+    // NOTE: Clone the null bitmap because the null bitmap of the argument can be shared with other consumers within the
+    //       block.
+    bitmap = bitmap.clone();
     for (int i = 1; i < _arguments.size(); i++) {
       RoaringBitmap curBitmap = _arguments.get(i).getNullBitmap(valueBlock);
       if (curBitmap == null || curBitmap.isEmpty()) {
@@ -0,0 +1,272 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.pinot.core.operator.ColumnContext;
+import org.apache.pinot.core.operator.blocks.ValueBlock;
+import org.apache.pinot.core.operator.transform.TransformResultMetadata;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.roaringbitmap.RoaringBitmap;
+
+
+/**
+ * The {@code SharedTransformFunction} wraps a transform function which is shared by multiple expressions (e.g. the
+ * same sub-expression appears in both the select and the group-by clause), and caches the transform results for the
+ * last value block, so that the shared transform function is evaluated only once per value block.
+ * <p>Only the results of the non-null APIs are cached, the APIs with null bit vector are directly delegated to the
+ * wrapped transform function.
+ * <p>The value block is matched by identity, which is safe because a new value block is created for each batch of
+ * documents.
+ */
+public class SharedTransformFunction implements TransformFunction {
+  private static final int DICT_IDS_SV = 0;
+  private static final int DICT_IDS_MV = 1;
+  private static final int INT_VALUES_SV = 2;
+  private static final int LONG_VALUES_SV = 3;
+  private static final int FLOAT_VALUES_SV = 4;
+  private static final int DOUBLE_VALUES_SV = 5;
+  private static final int BIG_DECIMAL_VALUES_SV = 6;
+  private static final int STRING_VALUES_SV = 7;
+  private static final int BYTES_VALUES_SV = 8;
+  private static final int INT_VALUES_MV = 9;
+  private static final int LONG_VALUES_MV = 10;
+  private static final int FLOAT_VALUES_MV = 11;
+  private static final int DOUBLE_VALUES_MV = 12;
+  private static final int STRING_VALUES_MV = 13;
+  private static final int BYTES_VALUES_MV = 14;
+  private static final int NUM_RESULT_TYPES = 15;
+
+  private final TransformFunction _transformFunction;
+  private final ValueBlock[] _cachedValueBlocks = new ValueBlock[NUM_RESULT_TYPES];
+  private final Object[] _cachedResults = new Object[NUM_RESULT_TYPES];
+  private long _numReusedEvaluations;
+
+  public SharedTransformFunction(TransformFunction transformFunction) {
+    _transformFunction = transformFunction;
+  }
+
+  /**
+   * Returns the wrapped transform function.
+   */
+  public TransformFunction getTransformFunction() {
+    return _transformFunction;
+  }
+
+  /**
+   * Returns the number of times the cached transform results are reused instead of evaluating the transform function.
+   */
+  public long getNumReusedEvaluations() {
+    return _numReusedEvaluations;
+  }
+
+  private Object getOrTransform(int resultType, ValueBlock valueBlock, Function<ValueBlock, Object> transformer) {
+    if (_cachedValueBlocks[resultType] == valueBlock) {
+      _numReusedEvaluations++;
+      return _cachedResults[resultType];
+    }
+    Object result = transformer.apply(valueBlock);
+    _cachedValueBlocks[resultType] = valueBlock;
+    _cachedResults[resultType] = result;
+    return result;
+  }
+
+  @Override
+  public String getName() {
+    return _transformFunction.getName();
+  }
+
+  @Override
+  public void init(List<TransformFunction> arguments, Map<String, ColumnContext> columnContextMap) {
+    _transformFunction.init(arguments, columnContextMap);
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return _transformFunction.getResultMetadata();
+  }
+
+  @Nullable
+  @Override
+  public Dictionary getDictionary() {
+    return _transformFunction.getDictionary();
+  }
+
+  @Override
+  public int[] transformToDictIdsSV(ValueBlock valueBlock) {
+    return (int[]) getOrTransform(DICT_IDS_SV, valueBlock, _transformFunction::transformToDictIdsSV);
+  }
+
+  @Override
+  public Pair<int[], RoaringBitmap> transformToDictIdsSVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToDictIdsSVWithNull(valueBlock);
+  }
+
+  @Override
+  public int[][] transformToDictIdsMV(ValueBlock valueBlock) {
+    return (int[][]) getOrTransform(DICT_IDS_MV, valueBlock, _transformFunction::transformToDictIdsMV);
+  }
+
+  @Override
+  public Pair<int[][], RoaringBitmap> transformToDictIdsMVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToDictIdsMVWithNull(valueBlock);
+  }
+
+  @Override
+  public int[] transformToIntValuesSV(ValueBlock valueBlock) {
+    return (int[]) getOrTransform(INT_VALUES_SV, valueBlock, _transformFunction::transformToIntValuesSV);
+  }
+
+  @Override
+  public Pair<int[], RoaringBitmap> transformToIntValuesSVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToIntValuesSVWithNull(valueBlock);
+  }
+
+  @Override
+  public long[] transformToLongValuesSV(ValueBlock valueBlock) {
+    return (long[]) getOrTransform(LONG_VALUES_SV, valueBlock, _transformFunction::transformToLongValuesSV);
+  }
+
+  @Override
+  public Pair<long[], RoaringBitmap> transformToLongValuesSVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToLongValuesSVWithNull(valueBlock);
+  }
+
+  @Override
+  public float[] transformToFloatValuesSV(ValueBlock valueBlock) {
+    return (float[]) getOrTransform(FLOAT_VALUES_SV, valueBlock, _transformFunction::transformToFloatValuesSV);
+  }
+
+  @Override
+  public Pair<float[], RoaringBitmap> transformToFloatValuesSVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToFloatValuesSVWithNull(valueBlock);
+  }
+
+  @Override
+  public double[] transformToDoubleValuesSV(ValueBlock valueBlock) {
+    return (double[]) getOrTransform(DOUBLE_VALUES_SV, valueBlock, _transformFunction::transformToDoubleValuesSV);
+  }
+
+  @Override
+  public Pair<double[], RoaringBitmap> transformToDoubleValuesSVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToDoubleValuesSVWithNull(valueBlock);
+  }
+
+  @Override
+  public BigDecimal[] transformToBigDecimalValuesSV(ValueBlock valueBlock) {
+    return (BigDecimal[]) getOrTransform(BIG_DECIMAL_VALUES_SV, valueBlock,
+        _transformFunction::transformToBigDecimalValuesSV);
+  }
+
+  @Override
+  public Pair<BigDecimal[], RoaringBitmap> transformToBigDecimalValuesSVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToBigDecimalValuesSVWithNull(valueBlock);
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(ValueBlock valueBlock) {
+    return (String[]) getOrTransform(STRING_VALUES_SV, valueBlock, _transformFunction::transformToStringValuesSV);
+  }
+
+  @Override
+  public Pair<String[], RoaringBitmap> transformToStringValuesSVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToStringValuesSVWithNull(valueBlock);
+  }
+
+  @Override
+  public byte[][] transformToBytesValuesSV(ValueBlock valueBlock) {
+    return (byte[][]) getOrTransform(BYTES_VALUES_SV, valueBlock, _transformFunction::transformToBytesValuesSV);
+  }
+
+  @Override
+  public Pair<byte[][], RoaringBitmap> transformToBytesValuesSVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToBytesValuesSVWithNull(valueBlock);
+  }
+
+  @Override
+  public int[][] transformToIntValuesMV(ValueBlock valueBlock) {
+    return (int[][]) getOrTransform(INT_VALUES_MV, valueBlock, _transformFunction::transformToIntValuesMV);
+  }
+
+  @Override
+  public Pair<int[][], RoaringBitmap> transformToIntValuesMVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToIntValuesMVWithNull(valueBlock);
+  }
+
+  @Override
+  public long[][] transformToLongValuesMV(ValueBlock valueBlock) {
+    return (long[][]) getOrTransform(LONG_VALUES_MV, valueBlock, _transformFunction::transformToLongValuesMV);
+  }
+
+  @Override
+  public Pair<long[][], RoaringBitmap> transformToLongValuesMVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToLongValuesMVWithNull(valueBlock);
+  }
+
+  @Override
+  public float[][] transformToFloatValuesMV(ValueBlock valueBlock) {
+    return (float[][]) getOrTransform(FLOAT_VALUES_MV, valueBlock, _transformFunction::transformToFloatValuesMV);
+  }
+
+  @Override
+  public Pair<float[][], RoaringBitmap> transformToFloatValuesMVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToFloatValuesMVWithNull(valueBlock);
+  }
+
+  @Override
+  public double[][] transformToDoubleValuesMV(ValueBlock valueBlock) {
+    return (double[][]) getOrTransform(DOUBLE_VALUES_MV, valueBlock, _transformFunction::transformToDoubleValuesMV);
+  }
+
+  @Override
+  public Pair<double[][], RoaringBitmap> transformToDoubleValuesMVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToDoubleValuesMVWithNull(valueBlock);
+  }
+
+  @Override
+  public String[][] transformToStringValuesMV(ValueBlock valueBlock) {
+    return (String[][]) getOrTransform(STRING_VALUES_MV, valueBlock, _transformFunction::transformToStringValuesMV);
+  }
+
+  @Override
+  public Pair<String[][], RoaringBitmap> transformToStringValuesMVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToStringValuesMVWithNull(valueBlock);
+  }
+
+  @Override
+  public byte[][][] transformToBytesValuesMV(ValueBlock valueBlock) {
+    return (byte[][][]) getOrTransform(BYTES_VALUES_MV, valueBlock, _transformFunction::transformToBytesValuesMV);
+  }
+
+  @Override
+  public Pair<byte[][][], RoaringBitmap> transformToBytesValuesMVWithNull(ValueBlock valueBlock) {
+    return _transformFunction.transformToBytesValuesMVWithNull(valueBlock);
+  }
+
+  @Nullable
+  @Override
+  public RoaringBitmap getNullBitmap(ValueBlock valueBlock) {
+    return _transformFunction.getNullBitmap(valueBlock);
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.pinot.core.operator.transform.function;
 
 import com.google.common.annotations.VisibleForTesting;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
@@ -259,6 +260,38 @@ public class TransformFunctionFactory {
    */
   public static TransformFunction get(ExpressionContext expression, Map<String, ColumnContext> columnContextMap,
       @Nullable QueryContext queryContext) {
+    return get(expression, columnContextMap, queryContext, Collections.emptyMap());
+  }
+
+  /**
+   * Returns an instance of transform function for the given expression, where the function expressions contained in
+   * the key set of the given shared transform function map share the same {@link SharedTransformFunction} instance.
+   * The shared transform function is created on the first access and put into the map (with {@code null} value before
+   * being created).
+   *
+   * @param expression                 Transform expression
+   * @param columnContextMap           Map from column name to context
+   * @param queryContext               Query context if available
+   * @param sharedTransformFunctionMap Map from shared function expression to the shared transform function
+   * @return Transform function
+   */
+  public static TransformFunction get(ExpressionContext expression, Map<String, ColumnContext> columnContextMap,
+      @Nullable QueryContext queryContext, Map<ExpressionContext, TransformFunction> sharedTransformFunctionMap) {
+    if (sharedTransformFunctionMap.containsKey(expression)) {
+      TransformFunction sharedTransformFunction = sharedTransformFunctionMap.get(expression);
+      if (sharedTransformFunction == null) {
+        sharedTransformFunction = new SharedTransformFunction(
+            getTransformFunction(expression, columnContextMap, queryContext, sharedTransformFunctionMap));
+        sharedTransformFunctionMap.put(expression, sharedTransformFunction);
+      }
+      return sharedTransformFunction;
+    }
+    return getTransformFunction(expression, columnContextMap, queryContext, sharedTransformFunctionMap);
+  }
+
+  private static TransformFunction getTransformFunction(ExpressionContext expression,
+      Map<String, ColumnContext> columnContextMap, @Nullable QueryContext queryContext,
+      Map<ExpressionContext, TransformFunction> sharedTransformFunctionMap) {
     switch (expression.getType()) {
       case FUNCTION:
         FunctionContext function = expression.getFunction();
@@ -291,7 +324,7 @@ public class TransformFunctionFactory {
 
         List<TransformFunction> transformFunctionArguments = new ArrayList<>(numArguments);
         for (ExpressionContext argument : arguments) {
-          transformFunctionArguments.add(TransformFunctionFactory.get(argument, columnContextMap, queryContext));
+          transformFunctionArguments.add(get(argument, columnContextMap, queryContext, sharedTransformFunctionMap));
         }
         try {
           transformFunction.init(transformFunctionArguments, columnContextMap);
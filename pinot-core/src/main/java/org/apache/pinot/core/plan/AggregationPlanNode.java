@@ -18,16 +18,25 @@
  */
 package org.apache.pinot.core.plan;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.FilterContext;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.operator.BaseProjectOperator;
 import org.apache.pinot.core.operator.blocks.results.AggregationResultsBlock;
 import org.apache.pinot.core.operator.filter.BaseFilterOperator;
+import org.apache.pinot.core.operator.filter.CombinedFilterOperator;
 import org.apache.pinot.core.operator.query.AggregationOperator;
 import org.apache.pinot.core.operator.query.FastFilteredCountOperator;
 import org.apache.pinot.core.operator.query.FilteredAggregationOperator;
@@ -35,14 +44,10 @@ import org.apache.pinot.core.operator.query.NonScanBasedAggregationOperator;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
 import org.apache.pinot.core.query.request.context.QueryContext;
-import org.apache.pinot.core.startree.CompositePredicateEvaluator;
 import org.apache.pinot.core.startree.StarTreeUtils;
-import org.apache.pinot.core.startree.plan.StarTreeProjectPlanNode;
 import org.apache.pinot.segment.spi.AggregationFunctionType;
 import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.datasource.DataSource;
-import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
-import org.apache.pinot.segment.spi.index.startree.StarTreeV2;
 
 import static org.apache.pinot.segment.spi.AggregationFunctionType.*;
 
@@ -80,12 +85,154 @@ public class AggregationPlanNode implements PlanNode {
    * Build the operator to be used for filtered aggregations
    */
   private FilteredAggregationOperator buildFilteredAggOperator() {
+    if (_queryContext.isUseSharedFilteredAggregation()) {
+      return buildSharedFilteredAggOperator();
+    }
+    // NOTE: Check the query options before getting the star-trees because it can be expensive for consuming segments
+    if (!_queryContext.isSkipStarTree() && !_queryContext.isNullHandlingEnabled()
+        && _indexSegment.getStarTrees() != null) {
+      FilteredAggregationOperator starTreeFilteredAggOperator = buildStarTreeFilteredAggOperator();
+      if (starTreeFilteredAggOperator != null) {
+        return starTreeFilteredAggOperator;
+      }
+    }
     List<Pair<AggregationFunction[], BaseProjectOperator<?>>> projectOperators =
         AggregationFunctionUtils.buildFilteredAggregateProjectOperators(_indexSegment, _queryContext);
     return new FilteredAggregationOperator(_queryContext.getAggregationFunctions(), projectOperators,
         _indexSegment.getSegmentMetadata().getTotalDocs());
   }
 
+  /**
+   * Build the operator for filtered aggregations that solves each aggregation filter (combined with the main filter)
+   * with star-tree when possible, and falls back to the regular pipeline for the other ones. Returns {@code null} if
+   * none of the aggregation filters can be solved with star-tree.
+   */
+  @Nullable
+  private FilteredAggregationOperator buildStarTreeFilteredAggOperator() {
+    AggregationFunction[] aggregationFunctions = _queryContext.getAggregationFunctions();
+    assert aggregationFunctions != null && _queryContext.getFilteredAggregationFunctions() != null;
+    FilterContext mainFilter = _queryContext.getFilter();
+
+    // NOTE: Filter can be null when there is no main filter and the aggregation is not filtered
+    Map<FilterContext, List<AggregationFunction>> functionsByFilter = new HashMap<>();
+    for (Pair<AggregationFunction, FilterContext> functionFilterPair
+        : _queryContext.getFilteredAggregationFunctions()) {
+      FilterContext subFilter = functionFilterPair.getRight();
+      FilterContext filter;
+      if (subFilter == null) {
+        filter = mainFilter;
+      } else if (mainFilter == null) {
+        filter = subFilter;
+      } else {
+        filter = new FilterContext(FilterContext.Type.AND, Arrays.asList(mainFilter, subFilter), null);
+      }
+      functionsByFilter.computeIfAbsent(filter, k -> new ArrayList<>()).add(functionFilterPair.getLeft());
+    }
+
+    List<Pair<AggregationFunction[], BaseProjectOperator<?>>> projectOperators = new ArrayList<>();
+    List<Triple<AggregationFunction[], BaseProjectOperator<?>, BaseProjectOperator<?>>> starTreeProjectOperators =
+        new ArrayList<>();
+    for (Map.Entry<FilterContext, List<AggregationFunction>> entry : functionsByFilter.entrySet()) {
+      FilterContext filter = entry.getKey();
+      AggregationFunction[] functions = entry.getValue().toArray(new AggregationFunction[0]);
+      FilterPlanNode filterPlanNode = new FilterPlanNode(_indexSegment, _queryContext, filter);
+      BaseFilterOperator filterOperator = filterPlanNode.run();
+      Pair<BaseProjectOperator<?>, BaseProjectOperator<?>> starTreeProjectOperatorPair =
+          StarTreeUtils.createStarTreeBasedProjectOperators(_indexSegment, _queryContext, functions, filter,
+              filterPlanNode.getPredicateEvaluators(), null, filterOperator);
+      if (starTreeProjectOperatorPair != null) {
+        starTreeProjectOperators.add(
+            Triple.of(functions, starTreeProjectOperatorPair.getLeft(), starTreeProjectOperatorPair.getRight()));
+      } else {
+        Set<ExpressionContext> expressionsToTransform =
+            AggregationFunctionUtils.collectExpressionsToTransform(functions, null);
+        BaseProjectOperator<?> projectOperator =
+            new ProjectPlanNode(_indexSegment, _queryContext, expressionsToTransform, DocIdSetPlanNode.MAX_DOC_PER_CALL,
+                filterOperator).run();
+        projectOperators.add(Pair.of(functions, projectOperator));
+      }
+    }
+    if (starTreeProjectOperators.isEmpty()) {
+      return null;
+    }
+    return new FilteredAggregationOperator(aggregationFunctions, projectOperators, starTreeProjectOperators, null,
+        Collections.emptyList(), _indexSegment.getSegmentMetadata().getTotalDocs());
+  }
+
+  /**
+   * Build the operator for filtered aggregations that evaluates the main filter and projects the blocks only once. The
+   * aggregation filters that can produce bitmaps (index based) are applied on the projected blocks, and the other ones
+   * fall back to their own filter and projection pipelines.
+   */
+  private FilteredAggregationOperator buildSharedFilteredAggOperator() {
+    AggregationFunction[] aggregationFunctions = _queryContext.getAggregationFunctions();
+    assert aggregationFunctions != null && _queryContext.getFilteredAggregationFunctions() != null;
+    BaseFilterOperator mainFilterOperator = new FilterPlanNode(_indexSegment, _queryContext).run();
+
+    List<Pair<AggregationFunction[], BaseProjectOperator<?>>> projectOperators = new ArrayList<>();
+    List<Pair<AggregationFunction[], BaseFilterOperator>> sharedFilterOperators = new ArrayList<>();
+    Set<ExpressionContext> sharedExpressions = new HashSet<>();
+    if (mainFilterOperator.isResultEmpty()) {
+      // No need to process sub-filters when main filter has empty result
+      sharedFilterOperators.add(Pair.of(aggregationFunctions, null));
+      sharedExpressions.addAll(AggregationFunctionUtils.collectExpressionsToTransform(aggregationFunctions, null));
+    } else {
+      Map<FilterContext, Pair<BaseFilterOperator, List<AggregationFunction>>> subFilterOperators = new HashMap<>();
+      List<AggregationFunction> nonFilteredFunctions = new ArrayList<>();
+      for (Pair<AggregationFunction, FilterContext> functionFilterPair
+          : _queryContext.getFilteredAggregationFunctions()) {
+        AggregationFunction aggregationFunction = functionFilterPair.getLeft();
+        FilterContext filter = functionFilterPair.getRight();
+        if (filter != null) {
+          subFilterOperators.computeIfAbsent(filter,
+                  k -> Pair.of(new FilterPlanNode(_indexSegment, _queryContext, k).run(), new ArrayList<>()))
+              .getRight().add(aggregationFunction);
+        } else {
+          nonFilteredFunctions.add(aggregationFunction);
+        }
+      }
+      for (Pair<BaseFilterOperator, List<AggregationFunction>> pair : subFilterOperators.values()) {
+        BaseFilterOperator subFilterOperator = pair.getLeft();
+        if (subFilterOperator.isResultMatchingAll()) {
+          nonFilteredFunctions.addAll(pair.getRight());
+          continue;
+        }
+        AggregationFunction[] functions = pair.getRight().toArray(new AggregationFunction[0]);
+        Set<ExpressionContext> expressions = AggregationFunctionUtils.collectExpressionsToTransform(functions, null);
+        if (!subFilterOperator.isResultEmpty() && subFilterOperator.canProduceBitmaps()) {
+          sharedFilterOperators.add(Pair.of(functions, subFilterOperator));
+          sharedExpressions.addAll(expressions);
+        } else {
+          BaseFilterOperator filterOperator;
+          if (subFilterOperator.isResultEmpty() || mainFilterOperator.isResultMatchingAll()) {
+            filterOperator = subFilterOperator;
+          } else {
+            filterOperator =
+                new CombinedFilterOperator(mainFilterOperator, subFilterOperator, _queryContext.getQueryOptions());
+          }
+          BaseProjectOperator<?> projectOperator =
+              new ProjectPlanNode(_indexSegment, _queryContext, expressions, DocIdSetPlanNode.MAX_DOC_PER_CALL,
+                  filterOperator).run();
+          projectOperators.add(Pair.of(functions, projectOperator));
+        }
+      }
+      if (!nonFilteredFunctions.isEmpty()) {
+        AggregationFunction[] functions = nonFilteredFunctions.toArray(new AggregationFunction[0]);
+        sharedFilterOperators.add(Pair.of(functions, null));
+        sharedExpressions.addAll(AggregationFunctionUtils.collectExpressionsToTransform(functions, null));
+      }
+    }
+
+    BaseProjectOperator<?> sharedProjectOperator = null;
+    if (!sharedFilterOperators.isEmpty()) {
+      sharedProjectOperator =
+          new ProjectPlanNode(_indexSegment, _queryContext, sharedExpressions, DocIdSetPlanNode.MAX_DOC_PER_CALL,
+              mainFilterOperator).run();
+    }
+    return new FilteredAggregationOperator(aggregationFunctions, projectOperators, sharedProjectOperator,
+        sharedFilterOperators, _indexSegment.getSegmentMetadata().getTotalDocs());
+  }
+
   /**
    * Processing workhorse for non filtered aggregates. Note that this code path is invoked only
    * if the query has no filtered aggregates at all. If a query has mixed aggregates, filtered
@@ -100,11 +247,14 @@ public class AggregationPlanNode implements PlanNode {
     FilterPlanNode filterPlanNode = new FilterPlanNode(_indexSegment, _queryContext);
     BaseFilterOperator filterOperator = filterPlanNode.run();
 
-    if (canOptimizeFilteredCount(filterOperator, aggregationFunctions) && !_queryContext.isNullHandlingEnabled()) {
+    // NOTE: Approximate queries must scan the sampled documents, so the non-scan based operators cannot be used
+    boolean sampled = _queryContext.getDocSampleRate() < 1;
+    if (canOptimizeFilteredCount(filterOperator, aggregationFunctions) && !_queryContext.isNullHandlingEnabled()
+        && !sampled) {
       return new FastFilteredCountOperator(aggregationFunctions, filterOperator, _indexSegment.getSegmentMetadata());
     }
 
-    if (filterOperator.isResultMatchingAll() && !_queryContext.isNullHandlingEnabled()) {
+    if (filterOperator.isResultMatchingAll() && !_queryContext.isNullHandlingEnabled() && !sampled) {
       if (isFitForNonScanBasedPlan(aggregationFunctions, _indexSegment)) {
         DataSource[] dataSources = new DataSource[aggregationFunctions.length];
         for (int i = 0; i < aggregationFunctions.length; i++) {
@@ -119,25 +269,13 @@ public class AggregationPlanNode implements PlanNode {
     }
 
     // Use star-tree to solve the query if possible
-    List<StarTreeV2> starTrees = _indexSegment.getStarTrees();
-    if (starTrees != null && !_queryContext.isSkipStarTree() && !_queryContext.isNullHandlingEnabled()) {
-      AggregationFunctionColumnPair[] aggregationFunctionColumnPairs =
-          StarTreeUtils.extractAggregationFunctionPairs(aggregationFunctions);
-      if (aggregationFunctionColumnPairs != null) {
-        Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap =
-            StarTreeUtils.extractPredicateEvaluatorsMap(_indexSegment, _queryContext.getFilter(),
-                filterPlanNode.getPredicateEvaluators());
-        if (predicateEvaluatorsMap != null) {
-          for (StarTreeV2 starTreeV2 : starTrees) {
-            if (StarTreeUtils.isFitForStarTree(starTreeV2.getMetadata(), aggregationFunctionColumnPairs, null,
-                predicateEvaluatorsMap.keySet())) {
-              BaseProjectOperator<?> projectOperator =
-                  new StarTreeProjectPlanNode(_queryContext, starTreeV2, aggregationFunctionColumnPairs, null,
-                      predicateEvaluatorsMap).run();
-              return new AggregationOperator(aggregationFunctions, projectOperator, numTotalDocs, true);
-            }
-          }
-        }
+    if (!_queryContext.isNullHandlingEnabled()) {
+      Pair<BaseProjectOperator<?>, BaseProjectOperator<?>> starTreeProjectOperators =
+          StarTreeUtils.createStarTreeBasedProjectOperators(_indexSegment, _queryContext, aggregationFunctions,
+              _queryContext.getFilter(), filterPlanNode.getPredicateEvaluators(), null, filterOperator);
+      if (starTreeProjectOperators != null) {
+        return new AggregationOperator(aggregationFunctions, starTreeProjectOperators.getLeft(), numTotalDocs, true,
+            starTreeProjectOperators.getRight());
       }
     }
 
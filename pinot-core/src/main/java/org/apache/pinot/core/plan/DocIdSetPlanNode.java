@@ -18,11 +18,16 @@
  */
 package org.apache.pinot.core.plan;
 
+import java.util.Arrays;
 import javax.annotation.Nullable;
 import org.apache.pinot.core.operator.DocIdSetOperator;
 import org.apache.pinot.core.operator.filter.BaseFilterOperator;
+import org.apache.pinot.core.operator.filter.BitmapBasedFilterOperator;
+import org.apache.pinot.core.operator.filter.FilterOperatorUtils;
 import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.utils.SamplingUtils;
 import org.apache.pinot.segment.spi.IndexSegment;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 
 
 public class DocIdSetPlanNode implements PlanNode {
@@ -45,8 +50,16 @@ public class DocIdSetPlanNode implements PlanNode {
 
   @Override
   public DocIdSetOperator run() {
-    return new DocIdSetOperator(
-        _filterOperator != null ? _filterOperator : new FilterPlanNode(_indexSegment, _queryContext).run(),
-        _maxDocPerCall);
+    BaseFilterOperator filterOperator =
+        _filterOperator != null ? _filterOperator : new FilterPlanNode(_indexSegment, _queryContext).run();
+    double docSampleRate = _queryContext.getDocSampleRate();
+    if (docSampleRate < 1 && !filterOperator.isResultEmpty()) {
+      // Approximate query, only scan the sampled document ranges
+      int numDocs = _indexSegment.getSegmentMetadata().getTotalDocs();
+      ImmutableRoaringBitmap sampledDocIds = SamplingUtils.getSampledDocIds(_indexSegment, docSampleRate);
+      filterOperator = FilterOperatorUtils.getAndFilterOperator(_queryContext,
+          Arrays.asList(filterOperator, new BitmapBasedFilterOperator(sampledDocIds, false, numDocs)), numDocs);
+    }
+    return new DocIdSetOperator(filterOperator, _maxDocPerCall);
   }
 }
@@ -19,7 +19,6 @@
 package org.apache.pinot.core.plan;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.pinot.common.request.context.ExpressionContext;
@@ -32,12 +31,8 @@ import org.apache.pinot.core.operator.query.GroupByOperator;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
 import org.apache.pinot.core.query.request.context.QueryContext;
-import org.apache.pinot.core.startree.CompositePredicateEvaluator;
 import org.apache.pinot.core.startree.StarTreeUtils;
-import org.apache.pinot.core.startree.plan.StarTreeProjectPlanNode;
 import org.apache.pinot.segment.spi.IndexSegment;
-import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
-import org.apache.pinot.segment.spi.index.startree.StarTreeV2;
 
 
 /**
@@ -77,27 +72,12 @@ public class GroupByPlanNode implements PlanNode {
     BaseFilterOperator filterOperator = filterPlanNode.run();
 
     // Use star-tree to solve the query if possible
-    List<StarTreeV2> starTrees = _indexSegment.getStarTrees();
-    if (starTrees != null && !_queryContext.isSkipStarTree()) {
-      AggregationFunctionColumnPair[] aggregationFunctionColumnPairs =
-          StarTreeUtils.extractAggregationFunctionPairs(aggregationFunctions);
-      if (aggregationFunctionColumnPairs != null) {
-        Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap =
-            StarTreeUtils.extractPredicateEvaluatorsMap(_indexSegment, _queryContext.getFilter(),
-                filterPlanNode.getPredicateEvaluators());
-        if (predicateEvaluatorsMap != null) {
-          for (StarTreeV2 starTreeV2 : starTrees) {
-            if (StarTreeUtils.isFitForStarTree(starTreeV2.getMetadata(), aggregationFunctionColumnPairs,
-                groupByExpressions, predicateEvaluatorsMap.keySet())) {
-              BaseProjectOperator<?> projectOperator =
-                  new StarTreeProjectPlanNode(_queryContext, starTreeV2, aggregationFunctionColumnPairs,
-                      groupByExpressions, predicateEvaluatorsMap).run();
-              return new GroupByOperator(aggregationFunctions, groupByExpressions, projectOperator, numTotalDocs,
-                  _queryContext, true);
-            }
-          }
-        }
-      }
+    Pair<BaseProjectOperator<?>, BaseProjectOperator<?>> starTreeProjectOperators =
+        StarTreeUtils.createStarTreeBasedProjectOperators(_indexSegment, _queryContext, aggregationFunctions,
+            _queryContext.getFilter(), filterPlanNode.getPredicateEvaluators(), groupByExpressions, filterOperator);
+    if (starTreeProjectOperators != null) {
+      return new GroupByOperator(aggregationFunctions, groupByExpressions, starTreeProjectOperators.getLeft(),
+          numTotalDocs, _queryContext, true, starTreeProjectOperators.getRight());
     }
 
     Set<ExpressionContext> expressionsToTransform =
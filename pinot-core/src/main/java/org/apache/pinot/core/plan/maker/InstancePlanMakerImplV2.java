@@ -51,6 +51,7 @@ import org.apache.pinot.core.query.prefetch.FetchPlanner;
 import org.apache.pinot.core.query.prefetch.FetchPlannerRegistry;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.query.request.context.utils.QueryContextUtils;
+import org.apache.pinot.core.query.selection.TopKBoundaryValue;
 import org.apache.pinot.core.util.GroupByUtils;
 import org.apache.pinot.segment.spi.FetchContext;
 import org.apache.pinot.segment.spi.IndexSegment;
@@ -170,12 +171,23 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     // Set skipUpsert
     queryContext.setSkipUpsert(QueryOptionsUtils.isSkipUpsert(queryOptions));
 
+    // Set docSampleRate
+    // NOTE: The broker might have already sampled the segments, and only the remaining fraction is sampled within the
+    //       segments. Star-tree is skipped because the pre-aggregated records cannot be sampled.
+    queryContext.setDocSampleRate(QueryOptionsUtils.getDocSampleRate(queryOptions));
+
     // Set skipStarTree
-    queryContext.setSkipStarTree(QueryOptionsUtils.isSkipStarTree(queryOptions));
+    queryContext.setSkipStarTree(QueryOptionsUtils.isSkipStarTree(queryOptions) || queryContext.getDocSampleRate() < 1);
 
     // Set skipScanFilterReorder
     queryContext.setSkipScanFilterReorder(QueryOptionsUtils.isSkipScanFilterReorder(queryOptions));
 
+    // Set skipSharedTransform
+    queryContext.setSkipSharedTransform(QueryOptionsUtils.isSkipSharedTransform(queryOptions));
+
+    // Set selectivityFilterReorder
+    queryContext.setSelectivityFilterReorder(QueryOptionsUtils.isSelectivityFilterReorder(queryOptions));
+
     // Set maxExecutionThreads
     int maxExecutionThreads;
     Integer maxExecutionThreadsFromQuery = QueryOptionsUtils.getMaxExecutionThreads(queryOptions);
@@ -226,6 +238,28 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
       } else {
         queryContext.setGroupTrimThreshold(_groupByTrimThreshold);
       }
+      // Set numGroupByCombinePartitions
+      Integer numGroupByCombinePartitions = QueryOptionsUtils.getNumGroupByCombinePartitions(queryOptions);
+      if (numGroupByCombinePartitions != null) {
+        queryContext.setNumGroupByCombinePartitions(numGroupByCombinePartitions);
+      }
+      // Set usePackedGroupKeyMap
+      queryContext.setUsePackedGroupKeyMap(QueryOptionsUtils.isUsePackedGroupKeyMap(queryOptions));
+      // Set useSortedColumnGroupBy
+      queryContext.setUseSortedColumnGroupBy(QueryOptionsUtils.isUseSortedColumnGroupBy(queryOptions));
+    }
+
+    // Set useSharedFilteredAggregation
+    if (queryContext.hasFilteredAggregations()) {
+      queryContext.setUseSharedFilteredAggregation(QueryOptionsUtils.isUseSharedFilteredAggregation(queryOptions));
+    }
+
+    // Set the shared top-K boundary for selection order-by queries
+    // NOTE: Null values are not comparable, so the boundary is only tracked when null handling is disabled.
+    List<OrderByExpressionContext> orderByExpressions = queryContext.getOrderByExpressions();
+    if (QueryContextUtils.isSelectionQuery(queryContext) && orderByExpressions != null && queryContext.getLimit() > 0
+        && !queryContext.isNullHandlingEnabled()) {
+      queryContext.setTopKBoundaryValue(new TopKBoundaryValue(orderByExpressions.get(0).isAsc()));
     }
   }
 
@@ -33,17 +33,15 @@ import org.apache.pinot.spi.data.FieldSpec.DataType;
 import org.roaringbitmap.RoaringBitmap;
 
 
-public class AvgAggregationFunction extends BaseSingleInputAggregationFunction<AvgPair, Double> {
+public class AvgAggregationFunction extends NullableSingleInputAggregationFunction<AvgPair, Double> {
   private static final double DEFAULT_FINAL_RESULT = Double.NEGATIVE_INFINITY;
-  private final boolean _nullHandlingEnabled;
 
   public AvgAggregationFunction(ExpressionContext expression) {
     this(expression, false);
   }
 
   public AvgAggregationFunction(ExpressionContext expression, boolean nullHandlingEnabled) {
-    super(expression);
-    _nullHandlingEnabled = nullHandlingEnabled;
+    super(expression, nullHandlingEnabled);
   }
 
   @Override
@@ -98,35 +96,31 @@ public class AvgAggregationFunction extends BaseSingleInputAggregationFunction<A
       BlockValSet blockValSet, RoaringBitmap nullBitmap) {
     if (blockValSet.getValueType() != DataType.BYTES) {
       double[] doubleValues = blockValSet.getDoubleValuesSV();
-      if (nullBitmap.getCardinality() < length) {
+      AvgPair avgPair = new AvgPair(0.0, 0L);
+      forEachNotNull(length, nullBitmap.getIntIterator(), (from, to) -> {
         double sum = 0.0;
-        long count = 0L;
-        // TODO: need to update the for-loop terminating condition to: i < length & i < doubleValues.length?
-        for (int i = 0; i < length; i++) {
-          if (!nullBitmap.contains(i)) {
-            sum += doubleValues[i];
-            count++;
-          }
+        for (int i = from; i < to; i++) {
+          sum += doubleValues[i];
         }
-        setAggregationResult(aggregationResultHolder, sum, count);
+        avgPair.apply(sum, to - from);
+      });
+      // Note: when all input values are null, avg is null. As a result, we don't call setAggregationResult.
+      if (avgPair.getCount() > 0) {
+        setAggregationResult(aggregationResultHolder, avgPair.getSum(), avgPair.getCount());
       }
-      // Note: when all input values re null (nullBitmap.getCardinality() == values.length), avg is null. As a result,
-      // we don't call setAggregationResult.
     } else {
       // Serialized AvgPair
       byte[][] bytesValues = blockValSet.getBytesValuesSV();
-      if (nullBitmap.getCardinality() < length) {
-        double sum = 0.0;
-        long count = 0L;
-        // TODO: need to update the for-loop terminating condition to: i < length & i < bytesValues.length?
-        for (int i = 0; i < length; i++) {
-          if (!nullBitmap.contains(i)) {
-            AvgPair value = ObjectSerDeUtils.AVG_PAIR_SER_DE.deserialize(bytesValues[i]);
-            sum += value.getSum();
-            count += value.getCount();
-          }
+      AvgPair avgPair = new AvgPair(0.0, 0L);
+      boolean[] hasNonNullValue = new boolean[1];
+      forEachNotNull(length, nullBitmap.getIntIterator(), (from, to) -> {
+        for (int i = from; i < to; i++) {
+          avgPair.apply(ObjectSerDeUtils.AVG_PAIR_SER_DE.deserialize(bytesValues[i]));
         }
-        setAggregationResult(aggregationResultHolder, sum, count);
+        hasNonNullValue[0] = true;
+      });
+      if (hasNonNullValue[0]) {
+        setAggregationResult(aggregationResultHolder, avgPair.getSum(), avgPair.getCount());
       }
     }
   }
@@ -171,28 +165,20 @@ public class AvgAggregationFunction extends BaseSingleInputAggregationFunction<A
       GroupByResultHolder groupByResultHolder, BlockValSet blockValSet, RoaringBitmap nullBitmap) {
     if (blockValSet.getValueType() != DataType.BYTES) {
       double[] doubleValues = blockValSet.getDoubleValuesSV();
-      // TODO: need to update the for-loop terminating condition to: i < length & i < valueArray.length?
-      if (nullBitmap.getCardinality() < length) {
-        for (int i = 0; i < length; i++) {
-          if (!nullBitmap.contains(i)) {
-            int groupKey = groupKeyArray[i];
-            setGroupByResult(groupKey, groupByResultHolder, doubleValues[i], 1L);
-          }
+      forEachNotNull(length, nullBitmap.getIntIterator(), (from, to) -> {
+        for (int i = from; i < to; i++) {
+          setGroupByResult(groupKeyArray[i], groupByResultHolder, doubleValues[i], 1L);
         }
-      }
+      });
     } else {
       // Serialized AvgPair
       byte[][] bytesValues = blockValSet.getBytesValuesSV();
-      // TODO: need to update the for-loop terminating condition to: i < length & i < valueArray.length?
-      if (nullBitmap.getCardinality() < length) {
-        for (int i = 0; i < length; i++) {
-          if (!nullBitmap.contains(i)) {
-            int groupKey = groupKeyArray[i];
-            AvgPair avgPair = ObjectSerDeUtils.AVG_PAIR_SER_DE.deserialize(bytesValues[i]);
-            setGroupByResult(groupKey, groupByResultHolder, avgPair.getSum(), avgPair.getCount());
-          }
+      forEachNotNull(length, nullBitmap.getIntIterator(), (from, to) -> {
+        for (int i = from; i < to; i++) {
+          AvgPair avgPair = ObjectSerDeUtils.AVG_PAIR_SER_DE.deserialize(bytesValues[i]);
+          setGroupByResult(groupKeyArray[i], groupByResultHolder, avgPair.getSum(), avgPair.getCount());
         }
-      }
+      });
     }
   }
 
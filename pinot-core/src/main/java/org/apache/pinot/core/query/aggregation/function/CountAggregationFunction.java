@@ -128,15 +128,12 @@ public class CountAggregationFunction extends BaseSingleInputAggregationFunction
       BlockValSet blockValSet = blockValSetMap.values().iterator().next();
       RoaringBitmap nullBitmap = blockValSet.getNullBitmap();
       if (nullBitmap != null && !nullBitmap.isEmpty()) {
-        if (nullBitmap.getCardinality() == length) {
-          return;
-        }
-        for (int i = 0; i < length; i++) {
-          if (!nullBitmap.contains(i)) {
+        NullableSingleInputAggregationFunction.forEachNotNull(length, nullBitmap.getIntIterator(), (from, to) -> {
+          for (int i = from; i < to; i++) {
             int groupKey = groupKeyArray[i];
             groupByResultHolder.setValueForKey(groupKey, groupByResultHolder.getDoubleResult(groupKey) + 1);
           }
-        }
+        });
       } else {
         for (int i = 0; i < length; i++) {
           int groupKey = groupKeyArray[i];
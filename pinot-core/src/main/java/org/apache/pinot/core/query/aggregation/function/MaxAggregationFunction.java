@@ -30,20 +30,17 @@ import org.apache.pinot.core.query.aggregation.groupby.DoubleGroupByResultHolder
 import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.ObjectGroupByResultHolder;
 import org.apache.pinot.segment.spi.AggregationFunctionType;
-import org.roaringbitmap.RoaringBitmap;
 
 
-public class MaxAggregationFunction extends BaseSingleInputAggregationFunction<Double, Double> {
+public class MaxAggregationFunction extends NullableSingleInputAggregationFunction<Double, Double> {
   private static final double DEFAULT_INITIAL_VALUE = Double.NEGATIVE_INFINITY;
-  private final boolean _nullHandlingEnabled;
 
   public MaxAggregationFunction(ExpressionContext expression) {
     this(expression, false);
   }
 
   public MaxAggregationFunction(ExpressionContext expression, boolean nullHandlingEnabled) {
-    super(expression);
-    _nullHandlingEnabled = nullHandlingEnabled;
+    super(expression, nullHandlingEnabled);
   }
 
   @Override
@@ -72,12 +69,7 @@ public class MaxAggregationFunction extends BaseSingleInputAggregationFunction<D
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
     BlockValSet blockValSet = blockValSetMap.get(_expression);
     if (_nullHandlingEnabled) {
-      // TODO: avoid the null bitmap check when it is null or empty for better performance.
-      RoaringBitmap nullBitmap = blockValSet.getNullBitmap();
-      if (nullBitmap == null) {
-        nullBitmap = new RoaringBitmap();
-      }
-      aggregateNullHandlingEnabled(length, aggregationResultHolder, blockValSet, nullBitmap);
+      aggregateNullHandlingEnabled(length, aggregationResultHolder, blockValSet);
       return;
     }
 
@@ -134,73 +126,77 @@ public class MaxAggregationFunction extends BaseSingleInputAggregationFunction<D
   }
 
   private void aggregateNullHandlingEnabled(int length, AggregationResultHolder aggregationResultHolder,
-      BlockValSet blockValSet, RoaringBitmap nullBitmap) {
+      BlockValSet blockValSet) {
     switch (blockValSet.getValueType().getStoredType()) {
       case INT: {
-        if (nullBitmap.getCardinality() < length) {
-          int[] values = blockValSet.getIntValuesSV();
-          int max = Integer.MIN_VALUE;
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              max = Math.max(values[i], max);
-            }
+        int[] values = blockValSet.getIntValuesSV();
+        Integer max = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          int innerMax = values[from];
+          for (int i = from + 1; i < to; i++) {
+            innerMax = Math.max(values[i], innerMax);
           }
+          return acum == null ? innerMax : Math.max(acum, innerMax);
+        });
+        // Note: when all input values are null, max is null. As a result, we don't update the value of
+        // aggregationResultHolder.
+        if (max != null) {
           updateAggregationResultHolder(aggregationResultHolder, max);
         }
-        // Note: when all input values re null (nullBitmap.getCardinality() == values.length), max is null. As a result,
-        // we don't update the value of aggregationResultHolder.
         break;
       }
       case LONG: {
-        if (nullBitmap.getCardinality() < length) {
-          long[] values = blockValSet.getLongValuesSV();
-          long max = Long.MIN_VALUE;
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              max = Math.max(values[i], max);
-            }
+        long[] values = blockValSet.getLongValuesSV();
+        Long max = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          long innerMax = values[from];
+          for (int i = from + 1; i < to; i++) {
+            innerMax = Math.max(values[i], innerMax);
           }
+          return acum == null ? innerMax : Math.max(acum, innerMax);
+        });
+        if (max != null) {
           updateAggregationResultHolder(aggregationResultHolder, max);
         }
         break;
       }
       case FLOAT: {
-        if (nullBitmap.getCardinality() < length) {
-          float[] values = blockValSet.getFloatValuesSV();
-          float max = Float.NEGATIVE_INFINITY;
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              max = Math.max(values[i], max);
-            }
+        float[] values = blockValSet.getFloatValuesSV();
+        Float max = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          float innerMax = values[from];
+          for (int i = from + 1; i < to; i++) {
+            innerMax = Math.max(values[i], innerMax);
           }
+          return acum == null ? innerMax : Math.max(acum, innerMax);
+        });
+        if (max != null) {
           updateAggregationResultHolder(aggregationResultHolder, max);
         }
         break;
       }
       case DOUBLE: {
-        if (nullBitmap.getCardinality() < length) {
-          double[] values = blockValSet.getDoubleValuesSV();
-          double max = Double.NEGATIVE_INFINITY;
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              max = Math.max(values[i], max);
-            }
+        double[] values = blockValSet.getDoubleValuesSV();
+        Double max = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          double innerMax = values[from];
+          for (int i = from + 1; i < to; i++) {
+            innerMax = Math.max(values[i], innerMax);
           }
+          return acum == null ? innerMax : Math.max(acum, innerMax);
+        });
+        if (max != null) {
           updateAggregationResultHolder(aggregationResultHolder, max);
         }
         break;
       }
       case BIG_DECIMAL: {
-        if (nullBitmap.getCardinality() < length) {
-          BigDecimal[] values = blockValSet.getBigDecimalValuesSV();
-          BigDecimal max = null;
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              max = max == null ? values[i] : values[i].max(max);
-            }
+        BigDecimal[] values = blockValSet.getBigDecimalValuesSV();
+        BigDecimal max = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          BigDecimal innerMax = acum == null ? values[from] : acum;
+          for (int i = from; i < to; i++) {
+            innerMax = values[i].max(innerMax);
           }
+          return innerMax;
+        });
+        if (max != null) {
           // TODO: even though the source data has BIG_DECIMAL type, we still only support double precision.
-          assert max != null;
           updateAggregationResultHolder(aggregationResultHolder, max.doubleValue());
         }
         break;
@@ -220,21 +216,17 @@ public class MaxAggregationFunction extends BaseSingleInputAggregationFunction<D
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
     BlockValSet blockValSet = blockValSetMap.get(_expression);
     if (_nullHandlingEnabled) {
-      RoaringBitmap nullBitmap = blockValSet.getNullBitmap();
-      if (nullBitmap == null) {
-        nullBitmap = new RoaringBitmap();
-      }
-      if (nullBitmap.getCardinality() < length) {
-        double[] valueArray = blockValSet.getDoubleValuesSV();
-        for (int i = 0; i < length; i++) {
+      double[] valueArray = blockValSet.getDoubleValuesSV();
+      forEachNotNull(length, blockValSet, (from, to) -> {
+        for (int i = from; i < to; i++) {
           double value = valueArray[i];
           int groupKey = groupKeyArray[i];
           Double result = groupByResultHolder.getResult(groupKey);
-          if (!nullBitmap.contains(i) && (result == null || value > result)) {
+          if (result == null || value > result) {
             groupByResultHolder.setValueForKey(groupKey, value);
           }
         }
-      }
+      });
       return;
     }
 
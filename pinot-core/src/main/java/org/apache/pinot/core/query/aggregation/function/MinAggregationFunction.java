@@ -30,20 +30,17 @@ import org.apache.pinot.core.query.aggregation.groupby.DoubleGroupByResultHolder
 import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.ObjectGroupByResultHolder;
 import org.apache.pinot.segment.spi.AggregationFunctionType;
-import org.roaringbitmap.RoaringBitmap;
 
 
-public class MinAggregationFunction extends BaseSingleInputAggregationFunction<Double, Double> {
+public class MinAggregationFunction extends NullableSingleInputAggregationFunction<Double, Double> {
   private static final double DEFAULT_VALUE = Double.POSITIVE_INFINITY;
-  private final boolean _nullHandlingEnabled;
 
   public MinAggregationFunction(ExpressionContext expression) {
     this(expression, false);
   }
 
   public MinAggregationFunction(ExpressionContext expression, boolean nullHandlingEnabled) {
-    super(expression);
-    _nullHandlingEnabled = nullHandlingEnabled;
+    super(expression, nullHandlingEnabled);
   }
 
   @Override
@@ -72,11 +69,7 @@ public class MinAggregationFunction extends BaseSingleInputAggregationFunction<D
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
     BlockValSet blockValSet = blockValSetMap.get(_expression);
     if (_nullHandlingEnabled) {
-      RoaringBitmap nullBitmap = blockValSet.getNullBitmap();
-      if (nullBitmap == null) {
-        nullBitmap = new RoaringBitmap();
-      }
-      aggregateNullHandlingEnabled(length, aggregationResultHolder, blockValSet, nullBitmap);
+      aggregateNullHandlingEnabled(length, aggregationResultHolder, blockValSet);
       return;
     }
 
@@ -133,72 +126,76 @@ public class MinAggregationFunction extends BaseSingleInputAggregationFunction<D
   }
 
   private void aggregateNullHandlingEnabled(int length, AggregationResultHolder aggregationResultHolder,
-      BlockValSet blockValSet, RoaringBitmap nullBitmap) {
+      BlockValSet blockValSet) {
     switch (blockValSet.getValueType().getStoredType()) {
       case INT: {
-        if (nullBitmap.getCardinality() < length) {
-          int[] values = blockValSet.getIntValuesSV();
-          int min = Integer.MAX_VALUE;
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              min = Math.min(values[i], min);
-            }
+        int[] values = blockValSet.getIntValuesSV();
+        Integer min = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          int innerMin = values[from];
+          for (int i = from + 1; i < to; i++) {
+            innerMin = Math.min(values[i], innerMin);
           }
+          return acum == null ? innerMin : Math.min(acum, innerMin);
+        });
+        // Note: when all input values are null, min is null. As a result, we don't update the value of
+        // aggregationResultHolder.
+        if (min != null) {
           updateAggregationResultHolder(aggregationResultHolder, min);
         }
-        // Note: when all input values re null (nullBitmap.getCardinality() == values.length), min is null. As a result,
-        // we don't update the value of aggregationResultHolder.
         break;
       }
       case LONG: {
-        if (nullBitmap.getCardinality() < length) {
-          long[] values = blockValSet.getLongValuesSV();
-          long min = Long.MAX_VALUE;
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              min = Math.min(values[i], min);
-            }
+        long[] values = blockValSet.getLongValuesSV();
+        Long min = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          long innerMin = values[from];
+          for (int i = from + 1; i < to; i++) {
+            innerMin = Math.min(values[i], innerMin);
           }
+          return acum == null ? innerMin : Math.min(acum, innerMin);
+        });
+        if (min != null) {
           updateAggregationResultHolder(aggregationResultHolder, min);
         }
         break;
       }
       case FLOAT: {
-        if (nullBitmap.getCardinality() < length) {
-          float[] values = blockValSet.getFloatValuesSV();
-          float min = Float.POSITIVE_INFINITY;
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              min = Math.min(values[i], min);
-            }
+        float[] values = blockValSet.getFloatValuesSV();
+        Float min = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          float innerMin = values[from];
+          for (int i = from + 1; i < to; i++) {
+            innerMin = Math.min(values[i], innerMin);
           }
+          return acum == null ? innerMin : Math.min(acum, innerMin);
+        });
+        if (min != null) {
           updateAggregationResultHolder(aggregationResultHolder, min);
         }
         break;
       }
       case DOUBLE: {
-        if (nullBitmap.getCardinality() < length) {
-          double[] values = blockValSet.getDoubleValuesSV();
-          double min = Double.POSITIVE_INFINITY;
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              min = Math.min(values[i], min);
-            }
+        double[] values = blockValSet.getDoubleValuesSV();
+        Double min = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          double innerMin = values[from];
+          for (int i = from + 1; i < to; i++) {
+            innerMin = Math.min(values[i], innerMin);
           }
+          return acum == null ? innerMin : Math.min(acum, innerMin);
+        });
+        if (min != null) {
           updateAggregationResultHolder(aggregationResultHolder, min);
         }
         break;
       }
       case BIG_DECIMAL: {
-        if (nullBitmap.getCardinality() < length) {
-          BigDecimal[] values = blockValSet.getBigDecimalValuesSV();
-          BigDecimal min = null;
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              min = min == null ? values[i] : values[i].min(min);
-            }
+        BigDecimal[] values = blockValSet.getBigDecimalValuesSV();
+        BigDecimal min = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          BigDecimal innerMin = acum == null ? values[from] : acum;
+          for (int i = from; i < to; i++) {
+            innerMin = values[i].min(innerMin);
           }
-          assert min != null;
+          return innerMin;
+        });
+        if (min != null) {
           // TODO: even though the source data has BIG_DECIMAL type, we still only support double precision.
           updateAggregationResultHolder(aggregationResultHolder, min.doubleValue());
         }
@@ -219,21 +216,17 @@ public class MinAggregationFunction extends BaseSingleInputAggregationFunction<D
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
     BlockValSet blockValSet = blockValSetMap.get(_expression);
     if (_nullHandlingEnabled) {
-      RoaringBitmap nullBitmap = blockValSet.getNullBitmap();
-      if (nullBitmap == null) {
-        nullBitmap = new RoaringBitmap();
-      }
-      if (nullBitmap.getCardinality() < length) {
-        double[] valueArray = blockValSet.getDoubleValuesSV();
-        for (int i = 0; i < length; i++) {
+      double[] valueArray = blockValSet.getDoubleValuesSV();
+      forEachNotNull(length, blockValSet, (from, to) -> {
+        for (int i = from; i < to; i++) {
           double value = valueArray[i];
           int groupKey = groupKeyArray[i];
           Double result = groupByResultHolder.getResult(groupKey);
-          if (!nullBitmap.contains(i) && (result == null || value < result)) {
+          if (result == null || value < result) {
             groupByResultHolder.setValueForKey(groupKey, value);
           }
         }
-      }
+      });
       return;
     }
 
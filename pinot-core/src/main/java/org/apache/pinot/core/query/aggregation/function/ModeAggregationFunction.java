@@ -23,9 +23,6 @@ import it.unimi.dsi.fastutil.doubles.Double2LongMap;
 import it.unimi.dsi.fastutil.doubles.Double2LongOpenHashMap;
 import it.unimi.dsi.fastutil.floats.Float2LongMap;
 import it.unimi.dsi.fastutil.floats.Float2LongOpenHashMap;
-import it.unimi.dsi.fastutil.ints.Int2IntMap;
-import it.unimi.dsi.fastutil.ints.Int2IntMaps;
-import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2LongMap;
 import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2LongMap;
@@ -41,6 +38,7 @@ import org.apache.pinot.core.query.aggregation.AggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.ObjectAggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.ObjectGroupByResultHolder;
+import org.apache.pinot.core.query.aggregation.utils.DictIdHistogram;
 import org.apache.pinot.segment.spi.AggregationFunctionType;
 import org.apache.pinot.segment.spi.index.reader.Dictionary;
 import org.apache.pinot.spi.data.FieldSpec.DataType;
@@ -154,68 +152,54 @@ public class ModeAggregationFunction extends BaseSingleInputAggregationFunction<
   }
 
   /**
-   * Returns the dictionary id count map from the result holder or creates a new one if it does not exist.
+   * Returns the dictionary id histogram from the result holder or creates a new one if it does not exist.
    */
-  protected static Int2IntOpenHashMap getDictIdCountMap(AggregationResultHolder aggregationResultHolder,
+  protected static DictIdHistogram getDictIdHistogram(AggregationResultHolder aggregationResultHolder,
       Dictionary dictionary) {
-    ModeAggregationFunction.DictIdsWrapper dictIdsWrapper = aggregationResultHolder.getResult();
-    if (dictIdsWrapper == null) {
-      dictIdsWrapper = new ModeAggregationFunction.DictIdsWrapper(dictionary);
-      aggregationResultHolder.setValue(dictIdsWrapper);
+    DictIdHistogram dictIdHistogram = aggregationResultHolder.getResult();
+    if (dictIdHistogram == null) {
+      dictIdHistogram = new DictIdHistogram(dictionary, true);
+      aggregationResultHolder.setValue(dictIdHistogram);
     }
-    return dictIdsWrapper._dictIdCountMap;
+    return dictIdHistogram;
   }
 
   /**
-   * Returns the dictionary id count map for the given group key or creates a new one if it does not exist.
+   * Returns the dictionary id histogram for the given group key or creates a new one if it does not exist.
    */
-  protected static Int2IntOpenHashMap getDictIdCountMap(GroupByResultHolder groupByResultHolder, int groupKey,
+  protected static DictIdHistogram getDictIdHistogram(GroupByResultHolder groupByResultHolder, int groupKey,
       Dictionary dictionary) {
-    ModeAggregationFunction.DictIdsWrapper dictIdsWrapper = groupByResultHolder.getResult(groupKey);
-    if (dictIdsWrapper == null) {
-      dictIdsWrapper = new ModeAggregationFunction.DictIdsWrapper(dictionary);
-      groupByResultHolder.setValueForKey(groupKey, dictIdsWrapper);
+    DictIdHistogram dictIdHistogram = groupByResultHolder.getResult(groupKey);
+    if (dictIdHistogram == null) {
+      dictIdHistogram = new DictIdHistogram(dictionary, false);
+      groupByResultHolder.setValueForKey(groupKey, dictIdHistogram);
     }
-    return dictIdsWrapper._dictIdCountMap;
+    return dictIdHistogram;
   }
 
   /**
    * Helper method to read dictionary and convert dictionary ids to values for dictionary-encoded expression.
    */
-  private static Map<? extends Number, Long> convertToValueMap(DictIdsWrapper dictIdsWrapper) {
-    Dictionary dictionary = dictIdsWrapper._dictionary;
-    Int2IntOpenHashMap dictIdCountMap = dictIdsWrapper._dictIdCountMap;
-    int numValues = dictIdCountMap.size();
-    ObjectIterator<Int2IntMap.Entry> iterator = Int2IntMaps.fastIterator(dictIdCountMap);
+  private static Map<? extends Number, Long> convertToValueMap(DictIdHistogram dictIdHistogram) {
+    Dictionary dictionary = dictIdHistogram.getDictionary();
+    int numValues = dictIdHistogram.getNumDictIds();
     DataType storedType = dictionary.getValueType();
     switch (storedType) {
       case INT:
         Int2LongOpenHashMap intValueMap = new Int2LongOpenHashMap(numValues);
-        while (iterator.hasNext()) {
-          Int2IntMap.Entry next = iterator.next();
-          intValueMap.put(dictionary.getIntValue(next.getIntKey()), next.getIntValue());
-        }
+        dictIdHistogram.forEach((dictId, count) -> intValueMap.put(dictionary.getIntValue(dictId), count));
         return intValueMap;
       case LONG:
         Long2LongOpenHashMap longValueMap = new Long2LongOpenHashMap(numValues);
-        while (iterator.hasNext()) {
-          Int2IntMap.Entry next = iterator.next();
-          longValueMap.put(dictionary.getLongValue(next.getIntKey()), next.getIntValue());
-        }
+        dictIdHistogram.forEach((dictId, count) -> longValueMap.put(dictionary.getLongValue(dictId), count));
         return longValueMap;
       case FLOAT:
         Float2LongOpenHashMap floatValueMap = new Float2LongOpenHashMap(numValues);
-        while (iterator.hasNext()) {
-          Int2IntMap.Entry next = iterator.next();
-          floatValueMap.put(dictionary.getFloatValue(next.getIntKey()), next.getIntValue());
-        }
+        dictIdHistogram.forEach((dictId, count) -> floatValueMap.put(dictionary.getFloatValue(dictId), count));
         return floatValueMap;
       case DOUBLE:
         Double2LongOpenHashMap doubleValueMap = new Double2LongOpenHashMap(numValues);
-        while (iterator.hasNext()) {
-          Int2IntMap.Entry next = iterator.next();
-          doubleValueMap.put(dictionary.getDoubleValue(next.getIntKey()), next.getIntValue());
-        }
+        dictIdHistogram.forEach((dictId, count) -> doubleValueMap.put(dictionary.getDoubleValue(dictId), count));
         return doubleValueMap;
       default:
         throw new IllegalStateException("Illegal data type for MODE aggregation function: " + storedType);
@@ -231,9 +215,9 @@ public class ModeAggregationFunction extends BaseSingleInputAggregationFunction<
       return new Int2LongOpenHashMap();
     }
 
-    if (result instanceof DictIdsWrapper) {
+    if (result instanceof DictIdHistogram) {
       // For dictionary-encoded expression, convert dictionary ids to values
-      return convertToValueMap((DictIdsWrapper) result);
+      return convertToValueMap((DictIdHistogram) result);
     }
     assert result instanceof Map;
     // For non-dictionary-encoded expression, directly return the value set
@@ -260,14 +244,10 @@ public class ModeAggregationFunction extends BaseSingleInputAggregationFunction<
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
     BlockValSet blockValSet = blockValSetMap.get(_expression);
 
-    // For dictionary-encoded expression, store dictionary ids into the dictId map
+    // For dictionary-encoded expression, store dictionary ids into the histogram
     Dictionary dictionary = blockValSet.getDictionary();
     if (dictionary != null) {
-      int[] dictIds = blockValSet.getDictionaryIdsSV();
-      Int2IntOpenHashMap dictIdValueMap = getDictIdCountMap(aggregationResultHolder, dictionary);
-      for (int i = 0; i < length; i++) {
-        dictIdValueMap.merge(dictIds[i], 1, Integer::sum);
-      }
+      getDictIdHistogram(aggregationResultHolder, dictionary).add(blockValSet.getDictionaryIdsSV(), length);
       return;
     }
 
@@ -313,12 +293,12 @@ public class ModeAggregationFunction extends BaseSingleInputAggregationFunction<
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
     BlockValSet blockValSet = blockValSetMap.get(_expression);
 
-    // For dictionary-encoded expression, store dictionary ids into the dictId map
+    // For dictionary-encoded expression, store dictionary ids into the histogram
     Dictionary dictionary = blockValSet.getDictionary();
     if (dictionary != null) {
       int[] dictIds = blockValSet.getDictionaryIdsSV();
       for (int i = 0; i < length; i++) {
-        getDictIdCountMap(groupByResultHolder, groupKeyArray[i], dictionary).merge(dictIds[i], 1, Integer::sum);
+        getDictIdHistogram(groupByResultHolder, groupKeyArray[i], dictionary).add(dictIds[i]);
       }
       return;
     }
@@ -360,13 +340,13 @@ public class ModeAggregationFunction extends BaseSingleInputAggregationFunction<
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
     BlockValSet blockValSet = blockValSetMap.get(_expression);
 
-    // For dictionary-encoded expression, store dictionary ids into the dictId map
+    // For dictionary-encoded expression, store dictionary ids into the histogram
     Dictionary dictionary = blockValSet.getDictionary();
     if (dictionary != null) {
       int[] dictIds = blockValSet.getDictionaryIdsSV();
       for (int i = 0; i < length; i++) {
         for (int groupKey : groupKeysArray[i]) {
-          getDictIdCountMap(groupByResultHolder, groupKey, dictionary).merge(dictIds[i], 1, Integer::sum);
+          getDictIdHistogram(groupByResultHolder, groupKey, dictionary).add(dictIds[i]);
         }
       }
       return;
@@ -672,15 +652,4 @@ public class ModeAggregationFunction extends BaseSingleInputAggregationFunction<
   private enum MultiModeReducerType {
     MIN, MAX, AVG
   }
-
-  private static final class DictIdsWrapper {
-
-    final Dictionary _dictionary;
-    final Int2IntOpenHashMap _dictIdCountMap;
-
-    private DictIdsWrapper(Dictionary dictionary) {
-      _dictionary = dictionary;
-      _dictIdCountMap = new Int2IntOpenHashMap();
-    }
-  }
 }
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.function;
+
+import javax.annotation.Nullable;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.core.common.BlockValSet;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+
+/**
+ * Base implementation of {@link AggregationFunction} with single input expression that supports null handling.
+ * <p>Instead of checking the null bitmap for every value, the null bitmap of the block is used as a mask that splits
+ * the block into ranges of non-null values, and the aggregation is applied on each range with a tight loop over the
+ * dense value array. When null handling is disabled or the block contains no null, the whole block is a single range,
+ * so the cost of enabling null handling is proportional to the number of null runs within the block.
+ */
+public abstract class NullableSingleInputAggregationFunction<I, F extends Comparable>
+    extends BaseSingleInputAggregationFunction<I, F> {
+  protected final boolean _nullHandlingEnabled;
+
+  public NullableSingleInputAggregationFunction(ExpressionContext expression, boolean nullHandlingEnabled) {
+    super(expression);
+    _nullHandlingEnabled = nullHandlingEnabled;
+  }
+
+  /**
+   * Consumer of a range of non-null values within the block.
+   */
+  @FunctionalInterface
+  public interface BatchConsumer {
+    void consume(int fromInclusive, int toExclusive);
+  }
+
+  /**
+   * Reducer that folds a range of non-null values within the block into the accumulator.
+   */
+  @FunctionalInterface
+  public interface Reducer<A> {
+    A apply(@Nullable A acum, int fromInclusive, int toExclusive);
+  }
+
+  /**
+   * Invokes the consumer on each (non-empty) range of non-null values within the first {@code length} values of the
+   * block. When null handling is disabled, invokes the consumer on the whole block.
+   */
+  public void forEachNotNull(int length, BlockValSet blockValSet, BatchConsumer consumer) {
+    RoaringBitmap nullBitmap = _nullHandlingEnabled ? blockValSet.getNullBitmap() : null;
+    if (nullBitmap == null || nullBitmap.isEmpty()) {
+      if (length > 0) {
+        consumer.consume(0, length);
+      }
+      return;
+    }
+    forEachNotNull(length, nullBitmap.getIntIterator(), consumer);
+  }
+
+  /**
+   * Invokes the consumer on each (non-empty) range of values not included in the given (sorted) null index iterator
+   * within the first {@code length} values of the block.
+   */
+  public static void forEachNotNull(int length, IntIterator nullIndexIterator, BatchConsumer consumer) {
+    int fromInclusive = 0;
+    while (fromInclusive < length) {
+      int toExclusive = nullIndexIterator.hasNext() ? Math.min(nullIndexIterator.next(), length) : length;
+      if (toExclusive > fromInclusive) {
+        consumer.consume(fromInclusive, toExclusive);
+      }
+      fromInclusive = toExclusive + 1;
+    }
+  }
+
+  /**
+   * Folds the ranges of non-null values within the first {@code length} values of the block into the accumulator,
+   * starting from the given initial accumulator. Returns the initial accumulator when there is no non-null value.
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <A> A foldNotNull(int length, BlockValSet blockValSet, @Nullable A initialAcum, Reducer<A> reducer) {
+    Object[] acum = new Object[]{initialAcum};
+    forEachNotNull(length, blockValSet, (from, to) -> acum[0] = reducer.apply((A) acum[0], from, to));
+    return (A) acum[0];
+  }
+}
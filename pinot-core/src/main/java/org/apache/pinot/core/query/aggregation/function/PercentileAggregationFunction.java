@@ -18,9 +18,15 @@
  */
 package org.apache.pinot.core.query.aggregation.function;
 
+import it.unimi.dsi.fastutil.doubles.Double2LongMap;
+import it.unimi.dsi.fastutil.doubles.Double2LongMaps;
+import it.unimi.dsi.fastutil.doubles.Double2LongOpenHashMap;
 import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleIterator;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import java.util.Arrays;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
 import org.apache.pinot.core.common.BlockValSet;
@@ -28,10 +34,19 @@ import org.apache.pinot.core.query.aggregation.AggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.ObjectAggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.ObjectGroupByResultHolder;
+import org.apache.pinot.core.query.aggregation.utils.DictIdHistogram;
 import org.apache.pinot.segment.spi.AggregationFunctionType;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
 
 
-public class PercentileAggregationFunction extends BaseSingleInputAggregationFunction<DoubleArrayList, Double> {
+/**
+ * Exact percentile aggregation function.
+ * <p>For dictionary-encoded single-valued expressions, the segment level result is a {@link DictIdHistogram} instead
+ * of the raw values, and the intermediate result is a value to count map ({@link Double2LongOpenHashMap}) instead of a
+ * value list ({@link DoubleArrayList}), which is much more compact for low and medium cardinality expressions. The
+ * merge and the final result extraction handle both forms of the intermediate result.
+ */
+public class PercentileAggregationFunction extends BaseSingleInputAggregationFunction<Object, Double> {
   private static final double DEFAULT_FINAL_RESULT = Double.NEGATIVE_INFINITY;
 
   //version 0 functions specified in the of form PERCENTILE<2-digits>(column)
@@ -76,8 +91,17 @@ public class PercentileAggregationFunction extends BaseSingleInputAggregationFun
   @Override
   public void aggregate(int length, AggregationResultHolder aggregationResultHolder,
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
+    BlockValSet blockValSet = blockValSetMap.get(_expression);
+
+    // For dictionary-encoded expression, store dictionary ids into the histogram
+    Dictionary dictionary = blockValSet.getDictionary();
+    if (dictionary != null) {
+      getDictIdHistogram(aggregationResultHolder, dictionary).add(blockValSet.getDictionaryIdsSV(), length);
+      return;
+    }
+
     DoubleArrayList valueList = getValueList(aggregationResultHolder);
-    double[] valueArray = blockValSetMap.get(_expression).getDoubleValuesSV();
+    double[] valueArray = blockValSet.getDoubleValuesSV();
     for (int i = 0; i < length; i++) {
       valueList.add(valueArray[i]);
     }
@@ -86,7 +110,19 @@ public class PercentileAggregationFunction extends BaseSingleInputAggregationFun
   @Override
   public void aggregateGroupBySV(int length, int[] groupKeyArray, GroupByResultHolder groupByResultHolder,
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
-    double[] valueArray = blockValSetMap.get(_expression).getDoubleValuesSV();
+    BlockValSet blockValSet = blockValSetMap.get(_expression);
+
+    // For dictionary-encoded expression, store dictionary ids into the histogram
+    Dictionary dictionary = blockValSet.getDictionary();
+    if (dictionary != null) {
+      int[] dictIds = blockValSet.getDictionaryIdsSV();
+      for (int i = 0; i < length; i++) {
+        getDictIdHistogram(groupByResultHolder, groupKeyArray[i], dictionary).add(dictIds[i]);
+      }
+      return;
+    }
+
+    double[] valueArray = blockValSet.getDoubleValuesSV();
     for (int i = 0; i < length; i++) {
       DoubleArrayList valueList = getValueList(groupByResultHolder, groupKeyArray[i]);
       valueList.add(valueArray[i]);
@@ -96,7 +132,22 @@ public class PercentileAggregationFunction extends BaseSingleInputAggregationFun
   @Override
   public void aggregateGroupByMV(int length, int[][] groupKeysArray, GroupByResultHolder groupByResultHolder,
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
-    double[] valueArray = blockValSetMap.get(_expression).getDoubleValuesSV();
+    BlockValSet blockValSet = blockValSetMap.get(_expression);
+
+    // For dictionary-encoded expression, store dictionary ids into the histogram
+    Dictionary dictionary = blockValSet.getDictionary();
+    if (dictionary != null) {
+      int[] dictIds = blockValSet.getDictionaryIdsSV();
+      for (int i = 0; i < length; i++) {
+        int dictId = dictIds[i];
+        for (int groupKey : groupKeysArray[i]) {
+          getDictIdHistogram(groupByResultHolder, groupKey, dictionary).add(dictId);
+        }
+      }
+      return;
+    }
+
+    double[] valueArray = blockValSet.getDoubleValuesSV();
     for (int i = 0; i < length; i++) {
       double value = valueArray[i];
       for (int groupKey : groupKeysArray[i]) {
@@ -107,29 +158,45 @@ public class PercentileAggregationFunction extends BaseSingleInputAggregationFun
   }
 
   @Override
-  public DoubleArrayList extractAggregationResult(AggregationResultHolder aggregationResultHolder) {
-    DoubleArrayList doubleArrayList = aggregationResultHolder.getResult();
-    if (doubleArrayList == null) {
-      return new DoubleArrayList();
-    } else {
-      return doubleArrayList;
-    }
+  public Object extractAggregationResult(AggregationResultHolder aggregationResultHolder) {
+    return extractIntermediateResult(aggregationResultHolder.getResult());
   }
 
   @Override
-  public DoubleArrayList extractGroupByResult(GroupByResultHolder groupByResultHolder, int groupKey) {
-    DoubleArrayList doubleArrayList = groupByResultHolder.getResult(groupKey);
-    if (doubleArrayList == null) {
-      return new DoubleArrayList();
-    } else {
-      return doubleArrayList;
-    }
+  public Object extractGroupByResult(GroupByResultHolder groupByResultHolder, int groupKey) {
+    return extractIntermediateResult(groupByResultHolder.getResult(groupKey));
   }
 
   @Override
-  public DoubleArrayList merge(DoubleArrayList intermediateResult1, DoubleArrayList intermediateResult2) {
-    intermediateResult1.addAll(intermediateResult2);
-    return intermediateResult1;
+  public Object merge(Object intermediateResult1, Object intermediateResult2) {
+    if (intermediateResult1 instanceof DoubleArrayList) {
+      DoubleArrayList valueList1 = (DoubleArrayList) intermediateResult1;
+      if (intermediateResult2 instanceof DoubleArrayList) {
+        valueList1.addAll((DoubleArrayList) intermediateResult2);
+        return valueList1;
+      }
+      // Merge the value list into the value count map, which is more compact
+      Double2LongOpenHashMap valueCountMap2 = (Double2LongOpenHashMap) intermediateResult2;
+      addValues(valueCountMap2, valueList1);
+      return valueCountMap2;
+    }
+    Double2LongOpenHashMap valueCountMap1 = (Double2LongOpenHashMap) intermediateResult1;
+    if (intermediateResult2 instanceof DoubleArrayList) {
+      addValues(valueCountMap1, (DoubleArrayList) intermediateResult2);
+      return valueCountMap1;
+    }
+    Double2LongOpenHashMap valueCountMap2 = (Double2LongOpenHashMap) intermediateResult2;
+    if (valueCountMap1.size() < valueCountMap2.size()) {
+      Double2LongOpenHashMap temp = valueCountMap1;
+      valueCountMap1 = valueCountMap2;
+      valueCountMap2 = temp;
+    }
+    ObjectIterator<Double2LongMap.Entry> iterator = Double2LongMaps.fastIterator(valueCountMap2);
+    while (iterator.hasNext()) {
+      Double2LongMap.Entry entry = iterator.next();
+      valueCountMap1.addTo(entry.getDoubleKey(), entry.getLongValue());
+    }
+    return valueCountMap1;
   }
 
   @Override
@@ -143,19 +210,91 @@ public class PercentileAggregationFunction extends BaseSingleInputAggregationFun
   }
 
   @Override
-  public Double extractFinalResult(DoubleArrayList intermediateResult) {
-    int size = intermediateResult.size();
-    if (size == 0) {
-      return DEFAULT_FINAL_RESULT;
-    } else {
-      double[] values = intermediateResult.elements();
-      Arrays.sort(values, 0, size);
-      if (_percentile == 100) {
-        return values[size - 1];
+  public Double extractFinalResult(Object intermediateResult) {
+    if (intermediateResult instanceof DoubleArrayList) {
+      DoubleArrayList valueList = (DoubleArrayList) intermediateResult;
+      int size = valueList.size();
+      if (size == 0) {
+        return DEFAULT_FINAL_RESULT;
       } else {
-        return values[(int) ((long) size * _percentile / 100)];
+        double[] values = valueList.elements();
+        Arrays.sort(values, 0, size);
+        if (_percentile == 100) {
+          return values[size - 1];
+        } else {
+          return values[(int) ((long) size * _percentile / 100)];
+        }
       }
     }
+
+    Double2LongOpenHashMap valueCountMap = (Double2LongOpenHashMap) intermediateResult;
+    int numValues = valueCountMap.size();
+    if (numValues == 0) {
+      return DEFAULT_FINAL_RESULT;
+    }
+    double[] values = valueCountMap.keySet().toDoubleArray();
+    Arrays.sort(values);
+    long size = 0;
+    for (long count : valueCountMap.values()) {
+      size += count;
+    }
+    // Same index as the value list based computation above
+    long index = _percentile == 100 ? size - 1 : (long) (size * _percentile / 100);
+    long numValuesBefore = 0;
+    for (double value : values) {
+      numValuesBefore += valueCountMap.get(value);
+      if (numValuesBefore > index) {
+        return value;
+      }
+    }
+    return values[numValues - 1];
+  }
+
+  /**
+   * Helper method to extract the intermediate result from the segment level result, where dictionary ids are resolved
+   * into values.
+   */
+  private static Object extractIntermediateResult(@Nullable Object result) {
+    if (result == null) {
+      return new DoubleArrayList();
+    }
+    if (result instanceof DictIdHistogram) {
+      return ((DictIdHistogram) result).toDoubleValueCountMap();
+    }
+    return result;
+  }
+
+  private static void addValues(Double2LongOpenHashMap valueCountMap, DoubleArrayList valueList) {
+    DoubleIterator iterator = valueList.iterator();
+    while (iterator.hasNext()) {
+      valueCountMap.addTo(iterator.nextDouble(), 1);
+    }
+  }
+
+  /**
+   * Returns the dictionary id histogram from the result holder or creates a new one if it does not exist.
+   */
+  protected static DictIdHistogram getDictIdHistogram(AggregationResultHolder aggregationResultHolder,
+      Dictionary dictionary) {
+    DictIdHistogram dictIdHistogram = aggregationResultHolder.getResult();
+    if (dictIdHistogram == null) {
+      dictIdHistogram = new DictIdHistogram(dictionary, true);
+      aggregationResultHolder.setValue(dictIdHistogram);
+    }
+    return dictIdHistogram;
+  }
+
+  /**
+   * Returns the dictionary id histogram for the given group key or creates a new one if it does not exist.
+   */
+  protected static DictIdHistogram getDictIdHistogram(GroupByResultHolder groupByResultHolder, int groupKey,
+      Dictionary dictionary) {
+    DictIdHistogram dictIdHistogram = groupByResultHolder.getResult(groupKey);
+    if (dictIdHistogram == null) {
+      dictIdHistogram = new DictIdHistogram(dictionary, false);
+      groupByResultHolder.setValueForKey(groupKey, dictIdHistogram);
+    }
+    return dictIdHistogram;
   }
 
   /**
@@ -30,20 +30,17 @@ import org.apache.pinot.core.query.aggregation.groupby.DoubleGroupByResultHolder
 import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.ObjectGroupByResultHolder;
 import org.apache.pinot.segment.spi.AggregationFunctionType;
-import org.roaringbitmap.RoaringBitmap;
 
 
-public class SumAggregationFunction extends BaseSingleInputAggregationFunction<Double, Double> {
+public class SumAggregationFunction extends NullableSingleInputAggregationFunction<Double, Double> {
   private static final double DEFAULT_VALUE = 0.0;
-  private final boolean _nullHandlingEnabled;
 
   public SumAggregationFunction(ExpressionContext expression) {
     this(expression, false);
   }
 
   public SumAggregationFunction(ExpressionContext expression, boolean nullHandlingEnabled) {
-    super(expression);
-    _nullHandlingEnabled = nullHandlingEnabled;
+    super(expression, nullHandlingEnabled);
   }
 
   @Override
@@ -72,11 +69,7 @@ public class SumAggregationFunction extends BaseSingleInputAggregationFunction<D
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
     BlockValSet blockValSet = blockValSetMap.get(_expression);
     if (_nullHandlingEnabled) {
-      RoaringBitmap nullBitmap = blockValSet.getNullBitmap();
-      if (nullBitmap == null) {
-        nullBitmap = new RoaringBitmap();
-      }
-      aggregateNullHandlingEnabled(length, aggregationResultHolder, blockValSet, nullBitmap);
+      aggregateNullHandlingEnabled(length, aggregationResultHolder, blockValSet);
       return;
     }
 
@@ -127,74 +120,73 @@ public class SumAggregationFunction extends BaseSingleInputAggregationFunction<D
   }
 
   private void aggregateNullHandlingEnabled(int length, AggregationResultHolder aggregationResultHolder,
-      BlockValSet blockValSet, RoaringBitmap nullBitmap) {
-    double sum = 0;
+      BlockValSet blockValSet) {
+    Double sum;
     switch (blockValSet.getValueType().getStoredType()) {
       case INT: {
-        if (nullBitmap.getCardinality() < length) {
-          int[] values = blockValSet.getIntValuesSV();
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              sum += values[i];
-            }
+        int[] values = blockValSet.getIntValuesSV();
+        sum = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          double innerSum = 0;
+          for (int i = from; i < to; i++) {
+            innerSum += values[i];
           }
-          setAggregationResultHolder(aggregationResultHolder, sum);
-        }
+          return acum == null ? innerSum : acum + innerSum;
+        });
         break;
       }
       case LONG: {
-        if (nullBitmap.getCardinality() < length) {
-          long[] values = blockValSet.getLongValuesSV();
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              sum += values[i];
-            }
+        long[] values = blockValSet.getLongValuesSV();
+        sum = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          double innerSum = 0;
+          for (int i = from; i < to; i++) {
+            innerSum += values[i];
           }
-          setAggregationResultHolder(aggregationResultHolder, sum);
-        }
+          return acum == null ? innerSum : acum + innerSum;
+        });
         break;
       }
       case FLOAT: {
-        if (nullBitmap.getCardinality() < length) {
-          float[] values = blockValSet.getFloatValuesSV();
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              sum += values[i];
-            }
+        float[] values = blockValSet.getFloatValuesSV();
+        sum = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          double innerSum = 0;
+          for (int i = from; i < to; i++) {
+            innerSum += values[i];
           }
-          setAggregationResultHolder(aggregationResultHolder, sum);
-        }
+          return acum == null ? innerSum : acum + innerSum;
+        });
         break;
       }
       case DOUBLE: {
-        if (nullBitmap.getCardinality() < length) {
-          double[] values = blockValSet.getDoubleValuesSV();
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              sum += values[i];
-            }
+        double[] values = blockValSet.getDoubleValuesSV();
+        sum = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          double innerSum = 0;
+          for (int i = from; i < to; i++) {
+            innerSum += values[i];
           }
-          setAggregationResultHolder(aggregationResultHolder, sum);
-        }
+          return acum == null ? innerSum : acum + innerSum;
+        });
         break;
       }
       case BIG_DECIMAL: {
-        if (nullBitmap.getCardinality() < length) {
-          BigDecimal[] values = blockValSet.getBigDecimalValuesSV();
-          BigDecimal decimalSum = BigDecimal.valueOf(sum);
-          for (int i = 0; i < length & i < values.length; i++) {
-            if (!nullBitmap.contains(i)) {
-              decimalSum = decimalSum.add(values[i]);
-            }
+        BigDecimal[] values = blockValSet.getBigDecimalValuesSV();
+        BigDecimal decimalSum = foldNotNull(length, blockValSet, null, (acum, from, to) -> {
+          BigDecimal innerSum = acum == null ? BigDecimal.ZERO : acum;
+          for (int i = from; i < to; i++) {
+            innerSum = innerSum.add(values[i]);
           }
-          // TODO: even though the source data has BIG_DECIMAL type, we still only support double precision.
-          setAggregationResultHolder(aggregationResultHolder, decimalSum.doubleValue());
-        }
+          return innerSum;
+        });
+        // TODO: even though the source data has BIG_DECIMAL type, we still only support double precision.
+        sum = decimalSum != null ? decimalSum.doubleValue() : null;
         break;
       }
       default:
         throw new IllegalStateException("Cannot compute sum for non-numeric type: " + blockValSet.getValueType());
     }
+    // When all input values are null, the sum is null
+    if (sum != null) {
+      setAggregationResultHolder(aggregationResultHolder, sum);
+    }
   }
 
   private void setAggregationResultHolder(AggregationResultHolder aggregationResultHolder, double sum) {
@@ -207,27 +199,21 @@ public class SumAggregationFunction extends BaseSingleInputAggregationFunction<D
       Map<ExpressionContext, BlockValSet> blockValSetMap) {
     BlockValSet blockValSet = blockValSetMap.get(_expression);
     if (_nullHandlingEnabled) {
-      RoaringBitmap nullBitmap = blockValSet.getNullBitmap();
-      if (nullBitmap == null) {
-        nullBitmap = new RoaringBitmap();
-      }
-      if (nullBitmap.getCardinality() < length) {
-        double[] valueArray = blockValSet.getDoubleValuesSV();
-        for (int i = 0; i < length; i++) {
-          if (!nullBitmap.contains(i)) {
-            int groupKey = groupKeyArray[i];
-            Double result = groupByResultHolder.getResult(groupKey);
-            groupByResultHolder.setValueForKey(groupKey, result == null ? valueArray[i] : result + valueArray[i]);
-            // In presto:
-            // SELECT sum (cast(id AS DOUBLE)) as sum,  min(id) as min, max(id) as max, key FROM (VALUES (null, 1),
-            // (null, 2)) AS t(id, key)  GROUP BY key ORDER BY max DESC;
-            // sum  | min  | max  | key
-            //------+------+------+-----
-            // NULL | NULL | NULL |   2
-            // NULL | NULL | NULL |   1
-          }
+      double[] valueArray = blockValSet.getDoubleValuesSV();
+      forEachNotNull(length, blockValSet, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          int groupKey = groupKeyArray[i];
+          Double result = groupByResultHolder.getResult(groupKey);
+          groupByResultHolder.setValueForKey(groupKey, result == null ? valueArray[i] : result + valueArray[i]);
+          // In presto:
+          // SELECT sum (cast(id AS DOUBLE)) as sum,  min(id) as min, max(id) as max, key FROM (VALUES (null, 1),
+          // (null, 2)) AS t(id, key)  GROUP BY key ORDER BY max DESC;
+          // sum  | min  | max  | key
+          //------+------+------+-----
+          // NULL | NULL | NULL |   2
+          // NULL | NULL | NULL |   1
         }
-      }
+      });
       return;
     }
 
@@ -50,4 +50,11 @@ public class AggregationGroupByResult {
   public Object getResultForGroupId(int index, int groupId) {
     return _aggregationFunctions[index].extractGroupByResult(_resultHolders[index], groupId);
   }
+
+  /**
+   * Releases the resources held by the group key generator. Should be called after the result is consumed.
+   */
+  public void close() {
+    _groupKeyGenerator.close();
+  }
 }
@@ -99,11 +99,16 @@ public class DefaultGroupByExecutor implements GroupByExecutor {
                   _nullHandlingEnabled);
         } else {
           _groupKeyGenerator =
-              new NoDictionaryMultiColumnGroupKeyGenerator(projectOperator, groupByExpressions, numGroupsLimit);
+              new NoDictionaryMultiColumnGroupKeyGenerator(projectOperator, groupByExpressions, numGroupsLimit,
+                  queryContext.isUsePackedGroupKeyMap());
         }
+      } else if (queryContext.isUseSortedColumnGroupBy() && !hasMVGroupByExpression
+          && SortedColumnGroupKeyGenerator.isApplicable(projectOperator, groupByExpressions)) {
+        // Leading group-by column is sorted, derive the group ids from the runs of the sorted column
+        _groupKeyGenerator = new SortedColumnGroupKeyGenerator(projectOperator, groupByExpressions, numGroupsLimit);
       } else {
         _groupKeyGenerator = new DictionaryBasedGroupKeyGenerator(projectOperator, groupByExpressions, numGroupsLimit,
-            maxInitialResultHolderCapacity);
+            maxInitialResultHolderCapacity, queryContext.isUsePackedGroupKeyMap());
       }
     }
 
@@ -32,6 +32,7 @@ import org.apache.pinot.core.common.BlockValSet;
 import org.apache.pinot.core.operator.BaseProjectOperator;
 import org.apache.pinot.core.operator.ColumnContext;
 import org.apache.pinot.core.operator.blocks.ValueBlock;
+import org.apache.pinot.core.query.aggregation.groupby.utils.PackedIntKeyGroupIdMap;
 import org.apache.pinot.segment.spi.index.reader.Dictionary;
 
 
@@ -55,6 +56,8 @@ import org.apache.pinot.segment.spi.index.reader.Dictionary;
  *   <li>
  *     If the maximum number of possible group keys cannot fit into long, use int arrays as the raw keys to store the
  *     dictionary ids of all the group-by columns and map them onto contiguous group ids. (ARRAY_MAP_BASED)
+ *     When the packed group key map is enabled, pack the dictionary ids into a {@link PackedIntKeyGroupIdMap}
+ *     instead to avoid allocating an object per group. (PACKED_KEY_MAP_BASED)
  *   </li>
  * </ul>
  * <p>All the logic is maintained internally, and to the outside world, the group ids are always int type, and are
@@ -100,6 +103,12 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
 
   public DictionaryBasedGroupKeyGenerator(BaseProjectOperator<?> projectOperator,
       ExpressionContext[] groupByExpressions, int numGroupsLimit, int arrayBasedThreshold) {
+    this(projectOperator, groupByExpressions, numGroupsLimit, arrayBasedThreshold, false);
+  }
+
+  public DictionaryBasedGroupKeyGenerator(BaseProjectOperator<?> projectOperator,
+      ExpressionContext[] groupByExpressions, int numGroupsLimit, int arrayBasedThreshold,
+      boolean usePackedGroupKeyMap) {
     assert numGroupsLimit >= arrayBasedThreshold;
 
     _groupByExpressions = groupByExpressions;
@@ -136,7 +145,12 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
       _isSingleValueColumn[i] = columnContext.isSingleValue();
     }
     // TODO: Clear the holder after processing the query instead of before
-    if (longOverflow) {
+    if (longOverflow && usePackedGroupKeyMap) {
+      // PackedKeyMapBasedHolder
+      _globalGroupIdUpperBound = numGroupsLimit;
+      // NOTE: The map is owned by this generator, and is released when the generator is closed
+      _rawKeyHolder = new PackedKeyMapBasedHolder(new PackedIntKeyGroupIdMap(_numGroupByExpressions));
+    } else if (longOverflow) {
       // ArrayMapBasedHolder
       _globalGroupIdUpperBound = numGroupsLimit;
       Object2IntOpenHashMap<IntArray> groupIdMap = THREAD_LOCAL_INT_ARRAY_MAP.get();
@@ -215,6 +229,11 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
     return _rawKeyHolder.getNumKeys();
   }
 
+  @Override
+  public void close() {
+    _rawKeyHolder.close();
+  }
+
   private interface RawKeyHolder {
 
     /**
@@ -249,6 +268,12 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
      * Returns current number of unique keys
      */
     int getNumKeys();
+
+    /**
+     * Releases the resources held by the holder.
+     */
+    default void close() {
+    }
   }
 
   private class ArrayBasedHolder implements RawKeyHolder {
@@ -853,6 +878,82 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
     }
   }
 
+  private class PackedKeyMapBasedHolder implements RawKeyHolder {
+    private final PackedIntKeyGroupIdMap _groupIdMap;
+    // Reusable buffer for the packed key
+    private final int[] _dictIds = new int[_numGroupByExpressions];
+
+    public PackedKeyMapBasedHolder(PackedIntKeyGroupIdMap groupIdMap) {
+      _groupIdMap = groupIdMap;
+    }
+
+    @Override
+    public void processSingleValue(int numDocs, int[] outGroupIds) {
+      for (int i = 0; i < numDocs; i++) {
+        for (int j = 0; j < _numGroupByExpressions; j++) {
+          _dictIds[j] = _singleValueDictIds[j][i];
+        }
+        outGroupIds[i] = _groupIdMap.getGroupId(_dictIds, _globalGroupIdUpperBound);
+      }
+    }
+
+    @Override
+    public void processMultiValue(int numDocs, int[][] outGroupIds) {
+      for (int i = 0; i < numDocs; i++) {
+        IntArray[] rawKeys = getIntArrayRawKeys(i);
+        int length = rawKeys.length;
+        int[] groupIds = new int[length];
+        for (int j = 0; j < length; j++) {
+          groupIds[j] = _groupIdMap.getGroupId(rawKeys[j]._elements, _globalGroupIdUpperBound);
+        }
+        outGroupIds[i] = groupIds;
+      }
+    }
+
+    @Override
+    public int getGroupIdUpperBound() {
+      return _groupIdMap.size();
+    }
+
+    @Override
+    public Iterator<GroupKey> getGroupKeys() {
+      return new Iterator<GroupKey>() {
+        private final int _numGroups = _groupIdMap.size();
+        private final int[] _keyBuffer = new int[_numGroupByExpressions];
+        private final GroupKey _groupKey = new GroupKey();
+        private int _groupId;
+
+        @Override
+        public boolean hasNext() {
+          return _groupId < _numGroups;
+        }
+
+        @Override
+        public GroupKey next() {
+          _groupIdMap.getKey(_groupId, _keyBuffer);
+          _groupKey._groupId = _groupId++;
+          _groupKey._keys = getKeys(_keyBuffer);
+          return _groupKey;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public int getNumKeys() {
+      return _groupIdMap.size();
+    }
+
+    @Override
+    public void close() {
+      _groupIdMap.close();
+    }
+  }
+
   /**
    * Helper method to calculate raw keys that can fit into integer for the given index.
    *
@@ -934,9 +1035,16 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
    * Helper method to get the keys from the raw key.
    */
   private Object[] getKeys(IntArray rawKey) {
+    return getKeys(rawKey._elements);
+  }
+
+  /**
+   * Helper method to get the keys from the dictionary ids.
+   */
+  private Object[] getKeys(int[] dictIds) {
     Object[] groupKeys = new Object[_numGroupByExpressions];
     for (int i = 0; i < _numGroupByExpressions; i++) {
-      groupKeys[i] = getRawValue(i, rawKey._elements[i]);
+      groupKeys[i] = getRawValue(i, dictIds[i]);
     }
     return groupKeys;
   }
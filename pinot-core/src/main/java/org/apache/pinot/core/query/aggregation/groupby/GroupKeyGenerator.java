@@ -75,6 +75,13 @@ public interface GroupKeyGenerator {
    */
   int getNumKeys();
 
+  /**
+   * Releases the resources (e.g. off-heap memory) held by the group key generator. Should be called after the group
+   * keys are no longer accessed.
+   */
+  default void close() {
+  }
+
   /**
    * This class encapsulates the integer group id and the group keys.
    */
@@ -24,11 +24,13 @@ import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import java.util.Arrays;
 import java.util.Iterator;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.core.common.BlockValSet;
 import org.apache.pinot.core.operator.BaseProjectOperator;
 import org.apache.pinot.core.operator.ColumnContext;
 import org.apache.pinot.core.operator.blocks.ValueBlock;
+import org.apache.pinot.core.query.aggregation.groupby.utils.PackedIntKeyGroupIdMap;
 import org.apache.pinot.core.query.aggregation.groupby.utils.ValueToIdMap;
 import org.apache.pinot.core.query.aggregation.groupby.utils.ValueToIdMapFactory;
 import org.apache.pinot.segment.spi.index.reader.Dictionary;
@@ -52,7 +54,11 @@ public class NoDictionaryMultiColumnGroupKeyGenerator implements GroupKeyGenerat
   private final DataType[] _storedTypes;
   private final Dictionary[] _dictionaries;
   private final ValueToIdMap[] _onTheFlyDictionaries;
+  // Exactly one of the group key maps is used
+  @Nullable
   private final Object2IntOpenHashMap<FixedIntArray> _groupKeyMap;
+  @Nullable
+  private final PackedIntKeyGroupIdMap _packedKeyMap;
   private final boolean[] _isSingleValueExpressions;
   private final int _globalGroupIdUpperBound;
 
@@ -60,6 +66,11 @@ public class NoDictionaryMultiColumnGroupKeyGenerator implements GroupKeyGenerat
 
   public NoDictionaryMultiColumnGroupKeyGenerator(BaseProjectOperator<?> projectOperator,
       ExpressionContext[] groupByExpressions, int numGroupsLimit) {
+    this(projectOperator, groupByExpressions, numGroupsLimit, false);
+  }
+
+  public NoDictionaryMultiColumnGroupKeyGenerator(BaseProjectOperator<?> projectOperator,
+      ExpressionContext[] groupByExpressions, int numGroupsLimit, boolean usePackedGroupKeyMap) {
     _groupByExpressions = groupByExpressions;
     _numGroupByExpressions = groupByExpressions.length;
     _storedTypes = new DataType[_numGroupByExpressions];
@@ -80,8 +91,15 @@ public class NoDictionaryMultiColumnGroupKeyGenerator implements GroupKeyGenerat
       _isSingleValueExpressions[i] = columnContext.isSingleValue();
     }
 
-    _groupKeyMap = new Object2IntOpenHashMap<>();
-    _groupKeyMap.defaultReturnValue(INVALID_ID);
+    if (usePackedGroupKeyMap) {
+      // Pack the (on-the-fly) dictionary ids of all the group-by columns into the packed key map
+      _groupKeyMap = null;
+      _packedKeyMap = new PackedIntKeyGroupIdMap(_numGroupByExpressions);
+    } else {
+      _groupKeyMap = new Object2IntOpenHashMap<>();
+      _groupKeyMap.defaultReturnValue(INVALID_ID);
+      _packedKeyMap = null;
+    }
     _globalGroupIdUpperBound = numGroupsLimit;
   }
 
@@ -285,12 +303,12 @@ public class NoDictionaryMultiColumnGroupKeyGenerator implements GroupKeyGenerat
 
   @Override
   public int getCurrentGroupKeyUpperBound() {
-    return _groupKeyMap.size();
+    return getNumKeys();
   }
 
   @Override
   public Iterator<GroupKey> getGroupKeys() {
-    return new GroupKeyIterator();
+    return _packedKeyMap != null ? new PackedKeyGroupKeyIterator(_packedKeyMap) : new GroupKeyIterator();
   }
 
   /**
@@ -300,6 +318,9 @@ public class NoDictionaryMultiColumnGroupKeyGenerator implements GroupKeyGenerat
    * @return Group id
    */
   private int getGroupIdForFlyweightKey(FixedIntArray flyweight) {
+    if (_packedKeyMap != null) {
+      return _packedKeyMap.getGroupId(flyweight.elements(), _globalGroupIdUpperBound);
+    }
     int groupId = _groupKeyMap.getInt(flyweight);
     if (groupId == INVALID_ID) {
       if (_numGroups < _globalGroupIdUpperBound) {
@@ -317,6 +338,9 @@ public class NoDictionaryMultiColumnGroupKeyGenerator implements GroupKeyGenerat
    * @return Group id
    */
   private int getGroupIdForKey(FixedIntArray keyList) {
+    if (_packedKeyMap != null) {
+      return _packedKeyMap.getGroupId(keyList.elements(), _globalGroupIdUpperBound);
+    }
     int groupId = _groupKeyMap.getInt(keyList);
     if (groupId == INVALID_ID) {
       if (_numGroups < _globalGroupIdUpperBound) {
@@ -354,7 +378,14 @@ public class NoDictionaryMultiColumnGroupKeyGenerator implements GroupKeyGenerat
 
   @Override
   public int getNumKeys() {
-    return _groupKeyMap.size();
+    return _packedKeyMap != null ? _packedKeyMap.size() : _groupKeyMap.size();
+  }
+
+  @Override
+  public void close() {
+    if (_packedKeyMap != null) {
+      _packedKeyMap.close();
+    }
   }
 
   /**
@@ -378,7 +409,43 @@ public class NoDictionaryMultiColumnGroupKeyGenerator implements GroupKeyGenerat
     public GroupKey next() {
       Object2IntMap.Entry<FixedIntArray> entry = _iterator.next();
       _groupKey._groupId = entry.getIntValue();
-      _groupKey._keys = buildKeysFromIds(entry.getKey());
+      _groupKey._keys = buildKeysFromIds(entry.getKey().elements());
+      return _groupKey;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * Iterator for {@link GroupKey} backed by the {@link PackedIntKeyGroupIdMap}, where group ids are contiguous.
+   */
+  private class PackedKeyGroupKeyIterator implements Iterator<GroupKey> {
+    private final PackedIntKeyGroupIdMap _groupIdMap;
+    private final int _numGroups;
+    private final int[] _dictIds;
+    private final GroupKey _groupKey;
+    private int _groupId;
+
+    public PackedKeyGroupKeyIterator(PackedIntKeyGroupIdMap groupIdMap) {
+      _groupIdMap = groupIdMap;
+      _numGroups = groupIdMap.size();
+      _dictIds = new int[_numGroupByExpressions];
+      _groupKey = new GroupKey();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return _groupId < _numGroups;
+    }
+
+    @Override
+    public GroupKey next() {
+      _groupIdMap.getKey(_groupId, _dictIds);
+      _groupKey._groupId = _groupId++;
+      _groupKey._keys = buildKeysFromIds(_dictIds);
       return _groupKey;
     }
 
@@ -388,9 +455,8 @@ public class NoDictionaryMultiColumnGroupKeyGenerator implements GroupKeyGenerat
     }
   }
 
-  private Object[] buildKeysFromIds(FixedIntArray keyList) {
+  private Object[] buildKeysFromIds(int[] dictIds) {
     Object[] keys = new Object[_numGroupByExpressions];
-    int[] dictIds = keyList.elements();
     for (int i = 0; i < _numGroupByExpressions; i++) {
       if (_dictionaries[i] != null) {
         keys[i] = _dictionaries[i].getInternal(dictIds[i]);
@@ -0,0 +1,227 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.groupby;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.Iterator;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.core.operator.BaseProjectOperator;
+import org.apache.pinot.core.operator.ColumnContext;
+import org.apache.pinot.core.operator.blocks.ValueBlock;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.spi.utils.FixedIntArray;
+
+
+/**
+ * Class for generating group keys when the leading group-by column is the sorted column of the segment.
+ * <p>Documents are always processed in ascending doc id order, so the values of the sorted column arrive in contiguous
+ * runs, and a group can never re-appear after the run of its sorted column value ends. Instead of hashing every row,
+ * the group id is derived from the run:
+ * <ul>
+ *   <li>
+ *     With only the sorted group-by column, a new group id is assigned when the dictionary id changes, and no hash
+ *     table is used.
+ *   </li>
+ *   <li>
+ *     With more group-by columns, the group ids of the current run are looked up from a map keyed by the dictionary
+ *     ids of the other group-by columns, which is cleared when the run ends. Only the groups of the current run are
+ *     kept in the map.
+ *   </li>
+ * </ul>
+ * <p>All the group-by columns must be single-valued and dictionary encoded.
+ */
+public class SortedColumnGroupKeyGenerator implements GroupKeyGenerator {
+  // Trim the map for the current run if it grows larger than this size to keep clear() cheap for the following runs
+  private static final int MAX_RUN_MAP_SIZE_TO_KEEP = 1 << 10;
+
+  private final ExpressionContext[] _groupByExpressions;
+  private final int _numGroupByExpressions;
+  private final Dictionary[] _dictionaries;
+  private final int[][] _dictIds;
+  private final int _globalGroupIdUpperBound;
+
+  // Dictionary ids of all the groups, where the dictionary ids of group i are stored in
+  // [i * numGroupByExpressions, (i + 1) * numGroupByExpressions)
+  private final IntArrayList _groupDictIds = new IntArrayList();
+  // Map from the dictionary ids of the non-sorted group-by columns to the group id within the current run
+  private final Object2IntOpenHashMap<FixedIntArray> _runGroupIdMap;
+
+  private int _currentSortedDictId = Dictionary.NULL_VALUE_INDEX;
+  private int _currentGroupId = INVALID_ID;
+  private int _numGroups;
+
+  public SortedColumnGroupKeyGenerator(BaseProjectOperator<?> projectOperator, ExpressionContext[] groupByExpressions,
+      int numGroupsLimit) {
+    _groupByExpressions = groupByExpressions;
+    _numGroupByExpressions = groupByExpressions.length;
+    _dictionaries = new Dictionary[_numGroupByExpressions];
+    _dictIds = new int[_numGroupByExpressions][];
+    long cardinalityProduct = 1L;
+    for (int i = 0; i < _numGroupByExpressions; i++) {
+      Dictionary dictionary = projectOperator.getResultColumnContext(groupByExpressions[i]).getDictionary();
+      assert dictionary != null;
+      _dictionaries[i] = dictionary;
+      cardinalityProduct = Math.min(cardinalityProduct * dictionary.length(), Integer.MAX_VALUE);
+    }
+    _globalGroupIdUpperBound = (int) Math.min(cardinalityProduct, numGroupsLimit);
+    if (_numGroupByExpressions > 1) {
+      _runGroupIdMap = new Object2IntOpenHashMap<>();
+      _runGroupIdMap.defaultReturnValue(INVALID_ID);
+    } else {
+      _runGroupIdMap = null;
+    }
+  }
+
+  /**
+   * Returns whether the group-by can be processed with {@link SortedColumnGroupKeyGenerator}, i.e. the first group-by
+   * expression is the sorted column of the segment, and all the group-by expressions are single-valued and dictionary
+   * encoded.
+   */
+  public static boolean isApplicable(BaseProjectOperator<?> projectOperator, ExpressionContext[] groupByExpressions) {
+    ExpressionContext sortedExpression = groupByExpressions[0];
+    if (sortedExpression.getType() != ExpressionContext.Type.IDENTIFIER) {
+      return false;
+    }
+    // NOTE: Star-tree and mutable data sources are never sorted
+    ColumnContext sourceColumnContext =
+        projectOperator.getSourceColumnContextMap().get(sortedExpression.getIdentifier());
+    if (sourceColumnContext == null) {
+      return false;
+    }
+    DataSource dataSource = sourceColumnContext.getDataSource();
+    if (dataSource == null || !dataSource.getDataSourceMetadata().isSorted()) {
+      return false;
+    }
+    for (ExpressionContext groupByExpression : groupByExpressions) {
+      ColumnContext columnContext = projectOperator.getResultColumnContext(groupByExpression);
+      if (!columnContext.isSingleValue() || columnContext.getDictionary() == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int getGlobalGroupKeyUpperBound() {
+    return _globalGroupIdUpperBound;
+  }
+
+  @Override
+  public void generateKeysForBlock(ValueBlock valueBlock, int[] groupKeys) {
+    for (int i = 0; i < _numGroupByExpressions; i++) {
+      _dictIds[i] = valueBlock.getBlockValueSet(_groupByExpressions[i]).getDictionaryIdsSV();
+    }
+    int numDocs = valueBlock.getNumDocs();
+    int[] sortedDictIds = _dictIds[0];
+    if (_runGroupIdMap == null) {
+      for (int i = 0; i < numDocs; i++) {
+        int sortedDictId = sortedDictIds[i];
+        if (sortedDictId != _currentSortedDictId) {
+          _currentSortedDictId = sortedDictId;
+          _currentGroupId = _numGroups < _globalGroupIdUpperBound ? addGroup(sortedDictId) : INVALID_ID;
+        }
+        groupKeys[i] = _currentGroupId;
+      }
+    } else {
+      int[] keyValues = new int[_numGroupByExpressions - 1];
+      // NOTE: The backing array of the flyweight key is mutated, and the key is cloned when adding a new group
+      FixedIntArray flyweightKey = new FixedIntArray(keyValues);
+      for (int i = 0; i < numDocs; i++) {
+        int sortedDictId = sortedDictIds[i];
+        if (sortedDictId != _currentSortedDictId) {
+          _currentSortedDictId = sortedDictId;
+          int runMapSize = _runGroupIdMap.size();
+          _runGroupIdMap.clear();
+          if (runMapSize > MAX_RUN_MAP_SIZE_TO_KEEP) {
+            _runGroupIdMap.trim();
+          }
+        }
+        for (int j = 1; j < _numGroupByExpressions; j++) {
+          keyValues[j - 1] = _dictIds[j][i];
+        }
+        int groupId = _runGroupIdMap.getInt(flyweightKey);
+        if (groupId == INVALID_ID && _numGroups < _globalGroupIdUpperBound) {
+          groupId = addGroup(sortedDictId, keyValues);
+          _runGroupIdMap.put(flyweightKey.clone(), groupId);
+        }
+        groupKeys[i] = groupId;
+      }
+    }
+  }
+
+  private int addGroup(int sortedDictId) {
+    _groupDictIds.add(sortedDictId);
+    return _numGroups++;
+  }
+
+  private int addGroup(int sortedDictId, int[] keyValues) {
+    _groupDictIds.add(sortedDictId);
+    for (int keyValue : keyValues) {
+      _groupDictIds.add(keyValue);
+    }
+    return _numGroups++;
+  }
+
+  @Override
+  public void generateKeysForBlock(ValueBlock valueBlock, int[][] groupKeys) {
+    throw new UnsupportedOperationException("Multi-value group-by column is not supported");
+  }
+
+  @Override
+  public int getCurrentGroupKeyUpperBound() {
+    return _numGroups;
+  }
+
+  @Override
+  public Iterator<GroupKey> getGroupKeys() {
+    return new Iterator<GroupKey>() {
+      private final GroupKey _groupKey = new GroupKey();
+      private int _groupId;
+
+      @Override
+      public boolean hasNext() {
+        return _groupId < _numGroups;
+      }
+
+      @Override
+      public GroupKey next() {
+        Object[] keys = new Object[_numGroupByExpressions];
+        int offset = _groupId * _numGroupByExpressions;
+        for (int i = 0; i < _numGroupByExpressions; i++) {
+          keys[i] = _dictionaries[i].getInternal(_groupDictIds.getInt(offset + i));
+        }
+        _groupKey._groupId = _groupId++;
+        _groupKey._keys = keys;
+        return _groupKey;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Override
+  public int getNumKeys() {
+    return _numGroups;
+  }
+}
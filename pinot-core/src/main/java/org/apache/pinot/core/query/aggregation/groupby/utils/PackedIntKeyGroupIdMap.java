@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.groupby.utils;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
+
+
+/**
+ * Open-addressing map from fixed-width packed int keys (e.g. dictionary ids of the group-by columns) to contiguous
+ * group ids.
+ * <p>Different from a map of {@code int[]} wrappers, no object is allocated per group:
+ * <ul>
+ *   <li>
+ *     Keys are packed back to back into fixed size {@code int[]} chunks indexed by the group id. New chunks are
+ *     appended when the existing ones are full, so the key storage grows incrementally without copying.
+ *   </li>
+ *   <li>
+ *     The hash table stores (hash, groupId + 1) int pairs in a single {@code int[]}. The probe compares the stored hash
+ *     before comparing the packed key, and resizing only moves the int pairs without reading the keys.
+ *   </li>
+ * </ul>
+ * <p>The memory is on heap so that it is reclaimed with the map even when the query is terminated early (e.g. timed
+ * out or cancelled). Since the number of arrays only grows with the number of chunks, the map adds little GC
+ * overhead regardless of the number of groups.
+ */
+public class PackedIntKeyGroupIdMap implements Closeable {
+  private static final int INVALID_ID = GroupKeyGenerator.INVALID_ID;
+  private static final float LOAD_FACTOR = 0.75f;
+  private static final int INITIAL_CAPACITY = 1 << 9;
+  private static final int CHUNK_SHIFT = 12;
+  private static final int NUM_KEYS_PER_CHUNK = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = NUM_KEYS_PER_CHUNK - 1;
+
+  private final List<int[]> _keyChunks = new ArrayList<>();
+  private final int _keyWidth;
+  private final int _keyChunkSize;
+  private int[] _hashTable;
+  private int _capacity;
+  private int _mask;
+  private int _maxSize;
+  private int _size;
+
+  public PackedIntKeyGroupIdMap(int keyWidth) {
+    _keyWidth = keyWidth;
+    _keyChunkSize = NUM_KEYS_PER_CHUNK * keyWidth;
+    initHashTable(INITIAL_CAPACITY);
+  }
+
+  public int getKeyWidth() {
+    return _keyWidth;
+  }
+
+  /**
+   * Returns the number of groups in the map, where the group ids are in range [0, size).
+   */
+  public int size() {
+    return _size;
+  }
+
+  /**
+   * Returns the group id for the given key, or creates a new group id if the key does not exist and the number of
+   * groups is smaller than the upper bound. Returns {@link GroupKeyGenerator#INVALID_ID} if the key does not exist and
+   * the map is full.
+   */
+  public int getGroupId(int[] key, int groupIdUpperBound) {
+    int hash = hash(key);
+    int slot = hash & _mask;
+    while (true) {
+      int index = slot << 1;
+      int storedGroupId = _hashTable[index + 1];
+      if (storedGroupId == 0) {
+        break;
+      }
+      if (_hashTable[index] == hash && keyEquals(storedGroupId - 1, key)) {
+        return storedGroupId - 1;
+      }
+      slot = (slot + 1) & _mask;
+    }
+    if (_size >= groupIdUpperBound) {
+      return INVALID_ID;
+    }
+    int groupId = _size++;
+    putKey(groupId, key);
+    int index = slot << 1;
+    _hashTable[index] = hash;
+    _hashTable[index + 1] = groupId + 1;
+    if (_size > _maxSize) {
+      initHashTable(_capacity << 1);
+    }
+    return groupId;
+  }
+
+  /**
+   * Reads the key of the given group id into the given buffer.
+   */
+  public void getKey(int groupId, int[] key) {
+    System.arraycopy(_keyChunks.get(groupId >>> CHUNK_SHIFT), getKeyOffset(groupId), key, 0, _keyWidth);
+  }
+
+  /**
+   * Releases the references to the key chunks and the hash table so that they can be garbage collected before the map
+   * itself. The map should not be accessed after it is closed.
+   */
+  @Override
+  public void close() {
+    _keyChunks.clear();
+    _hashTable = null;
+  }
+
+  private static int hash(int[] key) {
+    int hash = 1;
+    for (int value : key) {
+      hash = 31 * hash + value;
+    }
+    return HashCommon.mix(hash);
+  }
+
+  private int getKeyOffset(int groupId) {
+    return (groupId & CHUNK_MASK) * _keyWidth;
+  }
+
+  private boolean keyEquals(int groupId, int[] key) {
+    int[] chunk = _keyChunks.get(groupId >>> CHUNK_SHIFT);
+    int offset = getKeyOffset(groupId);
+    for (int i = 0; i < _keyWidth; i++) {
+      if (chunk[offset + i] != key[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void putKey(int groupId, int[] key) {
+    int chunkId = groupId >>> CHUNK_SHIFT;
+    if (chunkId == _keyChunks.size()) {
+      _keyChunks.add(new int[_keyChunkSize]);
+    }
+    System.arraycopy(key, 0, _keyChunks.get(chunkId), getKeyOffset(groupId), _keyWidth);
+  }
+
+  /**
+   * Allocates a new hash table with the given capacity, and moves the existing entries (if any) into it.
+   */
+  private void initHashTable(int capacity) {
+    int[] oldHashTable = _hashTable;
+    int oldCapacity = _capacity;
+    _hashTable = new int[capacity << 1];
+    _capacity = capacity;
+    _mask = capacity - 1;
+    _maxSize = (int) (capacity * LOAD_FACTOR);
+    if (oldHashTable != null && _size > 0) {
+      for (int oldSlot = 0; oldSlot < oldCapacity; oldSlot++) {
+        int oldIndex = oldSlot << 1;
+        int groupId = oldHashTable[oldIndex + 1];
+        if (groupId != 0) {
+          int hash = oldHashTable[oldIndex];
+          int slot = hash & _mask;
+          while (_hashTable[(slot << 1) + 1] != 0) {
+            slot = (slot + 1) & _mask;
+          }
+          int index = slot << 1;
+          _hashTable[index] = hash;
+          _hashTable[index + 1] = groupId;
+        }
+      }
+    }
+  }
+}
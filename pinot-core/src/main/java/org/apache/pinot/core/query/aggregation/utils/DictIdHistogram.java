@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.utils;
+
+import it.unimi.dsi.fastutil.doubles.Double2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+
+
+/**
+ * Histogram of the dictionary ids of a dictionary-encoded expression within a segment, which can be used to compute
+ * exact value distribution based aggregations (e.g. percentile, mode) without collecting the raw values.
+ * <p>The histogram is backed by an {@code int[]} indexed by dictionary id (dense) when requested and the dictionary is
+ * small enough, or by a dictionary id to count map (sparse) otherwise. The dense histogram is preferred for the
+ * aggregation without group-by, where there is only one histogram per segment; the sparse histogram is preferred for
+ * group-by, where each group only sees a small part of the dictionary.
+ * <p>Dictionary ids are only meaningful within a segment, so the histogram must be resolved to values (e.g. via
+ * {@link #toDoubleValueCountMap()}) before being merged with the results from other segments.
+ */
+public class DictIdHistogram {
+  // Max dictionary size to use the dense histogram (4 bytes per entry)
+  public static final int MAX_DENSE_HISTOGRAM_SIZE = 100_000;
+
+  private final Dictionary _dictionary;
+  private final int[] _denseCounts;
+  private final Int2IntOpenHashMap _sparseCounts;
+
+  public DictIdHistogram(Dictionary dictionary, boolean preferDense) {
+    _dictionary = dictionary;
+    if (preferDense && dictionary.length() <= MAX_DENSE_HISTOGRAM_SIZE) {
+      _denseCounts = new int[dictionary.length()];
+      _sparseCounts = null;
+    } else {
+      _denseCounts = null;
+      _sparseCounts = new Int2IntOpenHashMap();
+    }
+  }
+
+  public Dictionary getDictionary() {
+    return _dictionary;
+  }
+
+  public void add(int dictId) {
+    if (_denseCounts != null) {
+      _denseCounts[dictId]++;
+    } else {
+      _sparseCounts.addTo(dictId, 1);
+    }
+  }
+
+  public void add(int[] dictIds, int length) {
+    if (_denseCounts != null) {
+      int[] denseCounts = _denseCounts;
+      for (int i = 0; i < length; i++) {
+        denseCounts[dictIds[i]]++;
+      }
+    } else {
+      Int2IntOpenHashMap sparseCounts = _sparseCounts;
+      for (int i = 0; i < length; i++) {
+        sparseCounts.addTo(dictIds[i], 1);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of distinct dictionary ids within the histogram.
+   */
+  public int getNumDictIds() {
+    if (_denseCounts != null) {
+      int numDictIds = 0;
+      for (int count : _denseCounts) {
+        if (count != 0) {
+          numDictIds++;
+        }
+      }
+      return numDictIds;
+    } else {
+      return _sparseCounts.size();
+    }
+  }
+
+  /**
+   * Iterates over the non-zero entries of the histogram. For the dense histogram, the entries are iterated in the
+   * order of the dictionary ids.
+   */
+  public void forEach(DictIdCountConsumer consumer) {
+    if (_denseCounts != null) {
+      int[] denseCounts = _denseCounts;
+      int numEntries = denseCounts.length;
+      for (int dictId = 0; dictId < numEntries; dictId++) {
+        int count = denseCounts[dictId];
+        if (count != 0) {
+          consumer.accept(dictId, count);
+        }
+      }
+    } else {
+      ObjectIterator<Int2IntMap.Entry> iterator = Int2IntMaps.fastIterator(_sparseCounts);
+      while (iterator.hasNext()) {
+        Int2IntMap.Entry entry = iterator.next();
+        consumer.accept(entry.getIntKey(), entry.getIntValue());
+      }
+    }
+  }
+
+  /**
+   * Resolves the dictionary ids into double values, and returns a map from value to count.
+   */
+  public Double2LongOpenHashMap toDoubleValueCountMap() {
+    Double2LongOpenHashMap valueCountMap = new Double2LongOpenHashMap(getNumDictIds());
+    forEach((dictId, count) -> valueCountMap.addTo(_dictionary.getDoubleValue(dictId), count));
+    return valueCountMap;
+  }
+
+  @FunctionalInterface
+  public interface DictIdCountConsumer {
+    void accept(int dictId, int count);
+  }
+}
@@ -57,12 +57,14 @@ import org.apache.pinot.core.plan.Plan;
 import org.apache.pinot.core.plan.maker.PlanMaker;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.config.QueryExecutorConfig;
+import org.apache.pinot.core.query.prefetch.FetchPlannerRegistry;
 import org.apache.pinot.core.query.pruner.SegmentPrunerService;
 import org.apache.pinot.core.query.pruner.SegmentPrunerStatistics;
 import org.apache.pinot.core.query.request.ServerQueryRequest;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.query.request.context.TimerContext;
 import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.apache.pinot.core.query.utils.SamplingUtils;
 import org.apache.pinot.core.query.utils.idset.IdSet;
 import org.apache.pinot.core.util.trace.TraceContext;
 import org.apache.pinot.segment.local.data.manager.SegmentDataManager;
@@ -86,6 +88,8 @@ import org.slf4j.LoggerFactory;
 @ThreadSafe
 public class ServerQueryExecutorV1Impl implements QueryExecutor {
   public static final String ENABLE_PREFETCH = "enable.prefetch";
+  // Custom fetch planner, e.g. org.apache.pinot.core.query.prefetch.IndexAwareFetchPlanner
+  public static final String FETCH_PLANNER_CLASS = "fetch.planner.class";
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ServerQueryExecutorV1Impl.class);
   private static final String IN_PARTITIONED_SUBQUERY = "inPartitionedSubquery";
@@ -103,6 +107,18 @@ public class ServerQueryExecutorV1Impl implements QueryExecutor {
       throws ConfigurationException {
     _instanceDataManager = instanceDataManager;
     _serverMetrics = serverMetrics;
+    // Fetch planner needs to be registered before it is accessed by the segment pruners and the plan maker
+    String fetchPlannerClass = config.getProperty(FETCH_PLANNER_CLASS);
+    if (fetchPlannerClass != null) {
+      LOGGER.info("Trying to register FetchPlanner with class: {}", fetchPlannerClass);
+      try {
+        if (!FetchPlannerRegistry.registerPlanner(PluginManager.get().createInstance(fetchPlannerClass))) {
+          LOGGER.warn("FetchPlanner is already registered, skip registering: {}", fetchPlannerClass);
+        }
+      } catch (Exception e) {
+        throw new RuntimeException("Caught exception while creating FetchPlanner with class: " + fetchPlannerClass, e);
+      }
+    }
     QueryExecutorConfig queryExecutorConfig = new QueryExecutorConfig(config);
     LOGGER.info("Trying to build SegmentPrunerService");
     _segmentPrunerService = new SegmentPrunerService(queryExecutorConfig.getPrunerConfig());
@@ -350,6 +366,9 @@ public class ServerQueryExecutorV1Impl implements QueryExecutor {
     for (IndexSegment indexSegment : indexSegments) {
       numTotalDocs += indexSegment.getSegmentMetadata().getTotalDocs();
     }
+    // For approximate queries, also compute the sampled docs before pruning the segments to match the total docs
+    double docSampleRate = QueryOptionsUtils.getDocSampleRate(queryContext.getQueryOptions());
+    long numSampledDocs = docSampleRate < 1 ? SamplingUtils.getNumSampledDocs(indexSegments, docSampleRate) : 0;
 
     TimerContext.Timer segmentPruneTimer = timerContext.startNewPhaseTimer(ServerQueryPhase.SEGMENT_PRUNING);
     int numTotalSegments = indexSegments.size();
@@ -382,6 +401,11 @@ public class ServerQueryExecutorV1Impl implements QueryExecutor {
 
     // Update the total docs in the metadata based on the un-pruned segments
     instanceResponse.addMetadata(MetadataKey.TOTAL_DOCS.getName(), Long.toString(numTotalDocs));
+    if (docSampleRate < 1) {
+      instanceResponse.addMetadata(MetadataKey.NUM_SAMPLED_DOCS.getName(), Long.toString(numSampledDocs));
+      instanceResponse.addMetadata(MetadataKey.NUM_EXPECTED_SAMPLED_DOCS.getName(),
+          Long.toString(Math.round(numTotalDocs * docSampleRate)));
+    }
 
     // Set the number of pruned segments. This count does not include the segments which returned empty filters
     int prunedSegments = numTotalSegments - numSelectedSegments;
@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.prefetch;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.FilterContext;
+import org.apache.pinot.common.request.context.OrderByExpressionContext;
+import org.apache.pinot.common.request.context.predicate.Predicate;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.segment.spi.FetchContext;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.index.IndexType;
+import org.apache.pinot.segment.spi.index.StandardIndexes;
+
+
+/**
+ * Fetch planner that plans exactly the index buffers the query is going to read, instead of every index of the
+ * accessed columns:
+ * <ul>
+ *   <li>For columns only used in filter predicates, the index the predicate is solved with (e.g. inverted index for EQ,
+ *   range index for RANGE, text index for TEXT_MATCH), falling back to dictionary and forward index for scans</li>
+ *   <li>For columns projected by the query (selected, grouped, ordered or aggregated), dictionary and forward
+ *   index</li>
+ *   <li>Null value vectors when null handling is enabled</li>
+ * </ul>
+ * Within each column the smaller indexes are listed first, so that a prefetching segment directory makes them resident
+ * before the forward index. Pruning still fetches the bloom filters first (see {@link DefaultFetchPlanner}).
+ * <p>It can be enabled with <code>pinot.server.query.executor.fetch.planner.class</code>, and is meant for segment
+ * directories that can serve the indexes not listed in the fetch context (e.g. local mmap segments), because the index
+ * chosen by the planner is only an estimate of the one picked by the filter planning.
+ */
+public class IndexAwareFetchPlanner extends DefaultFetchPlanner {
+
+  @Override
+  public FetchContext planFetchForProcessing(IndexSegment indexSegment, QueryContext queryContext) {
+    Map<String, Set<IndexType<?, ?, ?>>> columnToIndexes = new LinkedHashMap<>();
+
+    // Indexes used to solve the filters
+    FilterContext filter = queryContext.getFilter();
+    if (filter != null) {
+      addFilterIndexes(indexSegment, filter, columnToIndexes);
+    }
+    List<Pair<AggregationFunction, FilterContext>> filteredAggregationFunctions =
+        queryContext.getFilteredAggregationFunctions();
+    if (filteredAggregationFunctions != null) {
+      for (Pair<AggregationFunction, FilterContext> pair : filteredAggregationFunctions) {
+        if (pair.getRight() != null) {
+          addFilterIndexes(indexSegment, pair.getRight(), columnToIndexes);
+        }
+      }
+    }
+
+    // Indexes used to project the values
+    Set<String> projectedColumns = new HashSet<>();
+    List<ExpressionContext> selectExpressions = queryContext.getSelectExpressions();
+    if (selectExpressions.size() == 1 && "*".equals(selectExpressions.get(0).getIdentifier())) {
+      projectedColumns.addAll(indexSegment.getPhysicalColumnNames());
+    } else {
+      for (ExpressionContext expression : selectExpressions) {
+        expression.getColumns(projectedColumns);
+      }
+    }
+    List<ExpressionContext> groupByExpressions = queryContext.getGroupByExpressions();
+    if (groupByExpressions != null) {
+      for (ExpressionContext expression : groupByExpressions) {
+        expression.getColumns(projectedColumns);
+      }
+    }
+    List<OrderByExpressionContext> orderByExpressions = queryContext.getOrderByExpressions();
+    if (orderByExpressions != null) {
+      for (OrderByExpressionContext orderByExpression : orderByExpressions) {
+        orderByExpression.getColumns(projectedColumns);
+      }
+    }
+    for (String column : projectedColumns) {
+      addScanIndexes(indexSegment, column, columnToIndexes);
+    }
+
+    if (queryContext.isNullHandlingEnabled()) {
+      for (Set<IndexType<?, ?, ?>> indexes : columnToIndexes.values()) {
+        indexes.add(StandardIndexes.nullValueVector());
+      }
+    }
+
+    Map<String, List<IndexType<?, ?, ?>>> columnToIndexList = new LinkedHashMap<>();
+    for (Map.Entry<String, Set<IndexType<?, ?, ?>>> entry : columnToIndexes.entrySet()) {
+      columnToIndexList.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+    }
+    return new FetchContext(UUID.randomUUID(), indexSegment.getSegmentName(), columnToIndexList);
+  }
+
+  private static void addFilterIndexes(IndexSegment indexSegment, FilterContext filter,
+      Map<String, Set<IndexType<?, ?, ?>>> columnToIndexes) {
+    if (filter.getType() != FilterContext.Type.PREDICATE) {
+      // AND, OR, NOT
+      for (FilterContext child : filter.getChildren()) {
+        addFilterIndexes(indexSegment, child, columnToIndexes);
+      }
+      return;
+    }
+    Predicate predicate = filter.getPredicate();
+    ExpressionContext lhs = predicate.getLhs();
+    if (lhs.getType() != ExpressionContext.Type.IDENTIFIER) {
+      // Expression filter is solved by scanning the argument columns
+      Set<String> columns = new HashSet<>();
+      lhs.getColumns(columns);
+      for (String column : columns) {
+        addScanIndexes(indexSegment, column, columnToIndexes);
+      }
+      return;
+    }
+    String column = lhs.getIdentifier();
+    if (!indexSegment.getColumnNames().contains(column)) {
+      return;
+    }
+    DataSource dataSource = indexSegment.getDataSource(column);
+    switch (predicate.getType()) {
+      case EQ:
+      case NOT_EQ:
+      case IN:
+      case NOT_IN:
+        if (dataSource.getInvertedIndex() != null && !dataSource.getDataSourceMetadata().isSorted()) {
+          addIndexes(column, columnToIndexes, StandardIndexes.dictionary(), StandardIndexes.inverted());
+          return;
+        }
+        break;
+      case RANGE:
+        if (dataSource.getRangeIndex() != null) {
+          addIndexes(column, columnToIndexes, StandardIndexes.dictionary(), StandardIndexes.range());
+          return;
+        }
+        break;
+      case REGEXP_LIKE:
+        if (dataSource.getFSTIndex() != null && dataSource.getInvertedIndex() != null) {
+          addIndexes(column, columnToIndexes, StandardIndexes.fst(), StandardIndexes.inverted());
+          return;
+        }
+        break;
+      case TEXT_CONTAINS:
+      case TEXT_MATCH:
+        addIndexes(column, columnToIndexes, StandardIndexes.text());
+        return;
+      case JSON_MATCH:
+        addIndexes(column, columnToIndexes, StandardIndexes.json());
+        return;
+      case IS_NULL:
+      case IS_NOT_NULL:
+        addIndexes(column, columnToIndexes, StandardIndexes.nullValueVector());
+        return;
+      default:
+        break;
+    }
+    addScanIndexes(indexSegment, column, columnToIndexes);
+  }
+
+  /**
+   * Adds dictionary (if exists) and forward index, which are read to scan or project the values of the column.
+   */
+  private static void addScanIndexes(IndexSegment indexSegment, String column,
+      Map<String, Set<IndexType<?, ?, ?>>> columnToIndexes) {
+    if (!indexSegment.getColumnNames().contains(column)) {
+      return;
+    }
+    if (indexSegment.getDataSource(column).getDictionary() != null) {
+      addIndexes(column, columnToIndexes, StandardIndexes.dictionary(), StandardIndexes.forward());
+    } else {
+      addIndexes(column, columnToIndexes, StandardIndexes.forward());
+    }
+  }
+
+  private static void addIndexes(String column, Map<String, Set<IndexType<?, ?, ?>>> columnToIndexes,
+      IndexType<?, ?, ?>... indexTypes) {
+    Set<IndexType<?, ?, ?>> indexes = columnToIndexes.computeIfAbsent(column, k -> new LinkedHashSet<>());
+    for (IndexType<?, ?, ?> indexType : indexTypes) {
+      indexes.add(indexType);
+    }
+  }
+}
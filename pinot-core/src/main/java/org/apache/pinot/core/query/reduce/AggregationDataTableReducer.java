@@ -21,6 +21,7 @@ package org.apache.pinot.core.query.reduce;
 import com.google.common.base.Preconditions;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.tuple.Pair;
@@ -34,6 +35,7 @@ import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
 import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.utils.SamplingUtils;
 import org.apache.pinot.core.query.utils.rewriter.ResultRewriteUtils;
 import org.apache.pinot.core.query.utils.rewriter.RewriterResult;
 import org.apache.pinot.core.transport.ServerRoutingInstance;
@@ -111,6 +113,7 @@ public class AggregationDataTableReducer implements DataTableReducer {
       Comparable result = aggregationFunction.extractFinalResult(intermediateResults[i]);
       finalResults[i] = result == null ? null : aggregationFunction.getFinalResultColumnType().convert(result);
     }
+    scaleSampledResults(finalResults, brokerResponseNative);
     brokerResponseNative.setResultTable(reduceToResultTable(finalResults));
   }
 
@@ -133,9 +136,40 @@ public class AggregationDataTableReducer implements DataTableReducer {
         finalResults[i] = AggregationFunctionUtils.getConvertedFinalResult(dataTable, columnDataType, 0, i);
       }
     }
+    scaleSampledResults(finalResults, brokerResponseNative);
     brokerResponseNative.setResultTable(reduceToResultTable(finalResults));
   }
 
+  /**
+   * Scales the final results of the aggregations proportional to the number of records for the approximate query
+   * (in-place), and sets the confidence intervals of the COUNT results into the broker response.
+   */
+  private void scaleSampledResults(Object[] finalResults, BrokerResponseNative brokerResponseNative) {
+    Double sampleRate = brokerResponseNative.getSampleRate();
+    if (sampleRate == null || sampleRate == 1) {
+      return;
+    }
+    AggregationFunction[] aggregationFunctions = _queryContext.getAggregationFunctions();
+    assert aggregationFunctions != null;
+    Map<String, double[]> confidenceIntervals = new HashMap<>();
+    for (int i = 0; i < aggregationFunctions.length; i++) {
+      AggregationFunction aggregationFunction = aggregationFunctions[i];
+      Object finalResult = finalResults[i];
+      if (finalResult == null || !SamplingUtils.isScaledBySampleRate(aggregationFunction)) {
+        continue;
+      }
+      if (finalResult instanceof Long) {
+        // COUNT
+        confidenceIntervals.put(aggregationFunction.getResultColumnName(),
+            SamplingUtils.getCountConfidenceInterval((Long) finalResult, sampleRate));
+      }
+      finalResults[i] = SamplingUtils.scaleFinalResult(finalResult, sampleRate);
+    }
+    if (!confidenceIntervals.isEmpty()) {
+      brokerResponseNative.setConfidenceIntervals(confidenceIntervals);
+    }
+  }
+
   /**
    * Sets aggregation results into ResultsTable
    */
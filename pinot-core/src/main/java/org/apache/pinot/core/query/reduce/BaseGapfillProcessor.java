@@ -19,10 +19,17 @@
 package org.apache.pinot.core.query.reduce;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+import org.apache.commons.lang.StringUtils;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.request.context.FunctionContext;
 import org.apache.pinot.common.response.broker.BrokerResponseNative;
@@ -34,14 +41,22 @@ import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionFactory;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.util.GapfillUtils;
+import org.apache.pinot.core.util.trace.TraceRunnable;
+import org.apache.pinot.spi.accounting.ThreadExecutionContext;
+import org.apache.pinot.spi.accounting.ThreadResourceUsageProvider;
 import org.apache.pinot.spi.data.DateTimeFormatSpec;
 import org.apache.pinot.spi.data.DateTimeGranularitySpec;
+import org.apache.pinot.spi.exception.EarlyTerminationException;
+import org.apache.pinot.spi.trace.Tracing;
 
 
 /**
  * Helper class to reduce and set gap fill results into the BrokerResponseNative
  */
 abstract class BaseGapfillProcessor {
+  // Minimum number of items (rows or entities) handled by each task when processing on the broker reduce executor
+  protected static final int MIN_NUM_ITEMS_PER_TASK = 10_000;
+
   protected final QueryContext _queryContext;
 
   protected final int _limitForAggregatedResult;
@@ -65,6 +80,7 @@ abstract class BaseGapfillProcessor {
   protected int _limitForGapfilledResult;
   protected boolean[] _isGroupBySelections;
   protected ExpressionContext _gapFillSelection;
+  protected DataTableReducerContext _reducerContext;
 
   BaseGapfillProcessor(QueryContext queryContext, GapfillUtils.GapfillType gapfillType) {
     _queryContext = queryContext;
@@ -107,6 +123,103 @@ abstract class BaseGapfillProcessor {
     _timeSeries = timeseriesOn.getFunction().getArguments();
   }
 
+  /**
+   * Sets the context of the broker reduce phase. When set, large inputs are processed in parallel on the broker reduce
+   * executor (bounded by the deadline of the whole reduce phase); otherwise everything is processed in the calling
+   * thread.
+   */
+  void setReducerContext(@Nullable DataTableReducerContext reducerContext) {
+    _reducerContext = reducerContext;
+  }
+
+  /**
+   * Returns the number of tasks to process the given number of items with, where each task handles at least
+   * {@link #MIN_NUM_ITEMS_PER_TASK} items.
+   */
+  protected int getNumTasks(int numItems) {
+    if (_reducerContext == null) {
+      return 1;
+    }
+    return Math.max(Math.min(_reducerContext.getMaxReduceThreadsPerQuery(), numItems / MIN_NUM_ITEMS_PER_TASK), 1);
+  }
+
+  /**
+   * Splits the items {@code [0, numItems)} into consecutive ranges, processes each range with the given processor and
+   * returns the results in the order of the ranges. The ranges are processed in parallel on the broker reduce executor
+   * when there are enough items, or in the calling thread otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  protected <T> List<T> processInParallel(int numItems, RangeProcessor<T> rangeProcessor) {
+    int numTasks = getNumTasks(numItems);
+    if (numTasks == 1) {
+      return Collections.singletonList(rangeProcessor.process(0, numItems));
+    }
+
+    long reduceDeadlineMs = _reducerContext.getReduceDeadlineMs();
+    if (System.currentTimeMillis() >= reduceDeadlineMs) {
+      throw new EarlyTerminationException("Timed out in broker gapfill phase");
+    }
+    int numItemsPerTask = (numItems + numTasks - 1) / numTasks;
+    Object[] results = new Object[numTasks];
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    Future[] futures = new Future[numTasks];
+    CountDownLatch countDownLatch = new CountDownLatch(numTasks);
+    ThreadExecutionContext parentContext = Tracing.getThreadAccountant().getThreadExecutionContext();
+    for (int i = 0; i < numTasks; i++) {
+      int taskId = i;
+      int fromIndex = i * numItemsPerTask;
+      int toIndex = Math.min(fromIndex + numItemsPerTask, numItems);
+      futures[i] = _reducerContext.getExecutorService().submit(new TraceRunnable() {
+        @Override
+        public void runJob() {
+          Tracing.ThreadAccountantOps.setupWorker(taskId, new ThreadResourceUsageProvider(), parentContext);
+          try {
+            results[taskId] = rangeProcessor.process(fromIndex, toIndex);
+          } catch (Throwable t) {
+            error.compareAndSet(null, t);
+          } finally {
+            countDownLatch.countDown();
+            Tracing.ThreadAccountantOps.clear();
+          }
+        }
+      });
+    }
+
+    try {
+      long remainingTimeMs = reduceDeadlineMs - System.currentTimeMillis();
+      if (!countDownLatch.await(remainingTimeMs, TimeUnit.MILLISECONDS)) {
+        throw new EarlyTerminationException("Timed out in broker gapfill phase");
+      }
+    } catch (InterruptedException e) {
+      Exception killedErrorMsg = Tracing.getThreadAccountant().getErrorStatus();
+      throw new EarlyTerminationException("Interrupted in broker gapfill phase"
+          + (killedErrorMsg == null ? StringUtils.EMPTY : " " + killedErrorMsg), e);
+    } finally {
+      for (Future future : futures) {
+        if (!future.isDone()) {
+          future.cancel(true);
+        }
+      }
+    }
+    Throwable t = error.get();
+    if (t != null) {
+      throw new RuntimeException("Caught exception in broker gapfill phase", t);
+    }
+    return (List<T>) Arrays.asList(results);
+  }
+
+  /**
+   * Processes the items within a range of item indexes.
+   */
+  @FunctionalInterface
+  protected interface RangeProcessor<T> {
+
+    /**
+     * Processes the items from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive).
+     */
+    T process(int fromIndex, int toIndex);
+  }
+
   protected int findGapfillBucketIndex(long time) {
     return (int) ((time - _startMs) / _gapfillTimeBucketSize);
   }
@@ -29,6 +29,7 @@ import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.response.broker.BrokerResponseNative;
 import org.apache.pinot.common.response.broker.QueryProcessingException;
 import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.config.QueryOptionsUtils;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
 import org.apache.pinot.core.transport.ServerRoutingInstance;
@@ -51,6 +52,8 @@ public class BrokerReduceService extends BaseReduceService {
 
   public BrokerResponseNative reduceOnDataTable(BrokerRequest brokerRequest, BrokerRequest serverBrokerRequest,
       Map<ServerRoutingInstance, DataTable> dataTableMap, long reduceTimeOutMs, @Nullable BrokerMetrics brokerMetrics) {
+    // Deadline of the whole reduce phase, including the data table reduce and the gapfill
+    long reduceDeadlineMs = System.currentTimeMillis() + reduceTimeOutMs;
     if (dataTableMap.isEmpty()) {
       // Empty response.
       return BrokerResponseNative.empty();
@@ -105,11 +108,18 @@ public class BrokerReduceService extends BaseReduceService {
     }
 
     QueryContext serverQueryContext = QueryContextConverterUtils.getQueryContext(serverBrokerRequest.getPinotQuery());
+    Double sampleRate = QueryOptionsUtils.getSampleRate(serverQueryContext.getQueryOptions());
+    if (sampleRate != null) {
+      // NOTE: The reducers scale the results with the realized sample rate set into the broker response
+      brokerResponseNative.setSampleRate(aggregator.getRealizedSampleRate(sampleRate));
+    }
     DataTableReducer dataTableReducer = ResultReducerFactory.getResultReducer(serverQueryContext);
+    DataTableReducerContext reducerContext =
+        new DataTableReducerContext(_reduceExecutorService, _maxReduceThreadsPerQuery, reduceTimeOutMs,
+            _groupByTrimThreshold, reduceDeadlineMs);
     try {
       dataTableReducer.reduceAndSetResults(rawTableName, cachedDataSchema, dataTableMap, brokerResponseNative,
-          new DataTableReducerContext(_reduceExecutorService, _maxReduceThreadsPerQuery, reduceTimeOutMs,
-              _groupByTrimThreshold), brokerMetrics);
+          reducerContext, brokerMetrics);
     } catch (EarlyTerminationException e) {
       brokerResponseNative.addToExceptions(
           new QueryProcessingException(QueryException.QUERY_CANCELLATION_ERROR_CODE, e.toString()));
@@ -121,8 +131,13 @@ public class BrokerReduceService extends BaseReduceService {
       queryContext = QueryContextConverterUtils.getQueryContext(brokerRequest.getPinotQuery());
       GapfillUtils.GapfillType gapfillType = GapfillUtils.getGapfillType(queryContext);
       BaseGapfillProcessor gapfillProcessor =
-          GapfillProcessorFactory.getGapfillProcessor(queryContext, gapfillType);
-      gapfillProcessor.process(brokerResponseNative);
+          GapfillProcessorFactory.getGapfillProcessor(queryContext, gapfillType, reducerContext);
+      try {
+        gapfillProcessor.process(brokerResponseNative);
+      } catch (EarlyTerminationException e) {
+        brokerResponseNative.addToExceptions(
+            new QueryProcessingException(QueryException.QUERY_CANCELLATION_ERROR_CODE, e.toString()));
+      }
     }
 
     if (!serverQueryContext.isExplain()) {
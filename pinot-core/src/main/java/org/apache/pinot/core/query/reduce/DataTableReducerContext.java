@@ -31,6 +31,7 @@ public class DataTableReducerContext {
   private final long _reduceTimeOutMs;
   // used for SQL GROUP BY
   private final int _groupByTrimThreshold;
+  private final long _reduceDeadlineMs;
 
   /**
    * Constructor for the class.
@@ -42,10 +43,26 @@ public class DataTableReducerContext {
    */
   public DataTableReducerContext(ExecutorService executorService, int maxReduceThreadsPerQuery, long reduceTimeOutMs,
       int groupByTrimThreshold) {
+    this(executorService, maxReduceThreadsPerQuery, reduceTimeOutMs, groupByTrimThreshold,
+        System.currentTimeMillis() + reduceTimeOutMs);
+  }
+
+  /**
+   * Constructor for the class.
+   *
+   * @param executorService Executor service to use for DataTableReducer
+   * @param maxReduceThreadsPerQuery Max number of threads to use for reduce phase
+   * @param reduceTimeOutMs Reduce Phase timeOut in ms
+   * @param groupByTrimThreshold trim threshold for SQL group by
+   * @param reduceDeadlineMs Deadline of the whole reduce phase in ms, computed when the reduce phase starts
+   */
+  public DataTableReducerContext(ExecutorService executorService, int maxReduceThreadsPerQuery, long reduceTimeOutMs,
+      int groupByTrimThreshold, long reduceDeadlineMs) {
     _executorService = executorService;
     _maxReduceThreadsPerQuery = maxReduceThreadsPerQuery;
     _reduceTimeOutMs = reduceTimeOutMs;
     _groupByTrimThreshold = groupByTrimThreshold;
+    _reduceDeadlineMs = reduceDeadlineMs;
   }
 
   public ExecutorService getExecutorService() {
@@ -63,4 +80,11 @@ public class DataTableReducerContext {
   public int getGroupByTrimThreshold() {
     return _groupByTrimThreshold;
   }
+
+  /**
+   * Returns the deadline (epoch ms) of the whole reduce phase, shared by all the steps of the reduce phase.
+   */
+  public long getReduceDeadlineMs() {
+    return _reduceDeadlineMs;
+  }
 }
@@ -59,6 +59,8 @@ public class ExecutionStatsAggregator {
   private long _numConsumingSegmentsMatched = 0L;
   private long _minConsumingFreshnessTimeMs = Long.MAX_VALUE;
   private long _numTotalDocs = 0L;
+  private long _numSampledDocs = 0L;
+  private long _numExpectedSampledDocs = 0L;
   private long _offlineThreadCpuTimeNs = 0L;
   private long _realtimeThreadCpuTimeNs = 0L;
   private long _offlineSystemActivitiesCpuTimeNs = 0L;
@@ -73,6 +75,11 @@ public class ExecutionStatsAggregator {
   private long _numSegmentsPrunedByValue = 0L;
   private long _explainPlanNumEmptyFilterSegments = 0L;
   private long _explainPlanNumMatchAllFilterSegments = 0L;
+  private long _numReusedTransformEvaluations = 0L;
+  private long _numPrefetchedBytes = 0L;
+  private long _prefetchTimeMs = 0L;
+  private long _threadMemAllocatedBytes = 0L;
+  private long _numReusedBufferBytes = 0L;
   private boolean _numGroupsLimitReached = false;
   private int _numBlocks = 0;
   private int _numRows = 0;
@@ -230,6 +237,13 @@ public class ExecutionStatsAggregator {
         l -> _numSegmentsPrunedByLimit += l);
     withNotNullLongMetadata(metadata, DataTable.MetadataKey.NUM_SEGMENTS_PRUNED_BY_VALUE,
         l -> _numSegmentsPrunedByValue += l);
+    withNotNullLongMetadata(metadata, DataTable.MetadataKey.NUM_REUSED_TRANSFORM_EVALUATIONS,
+        l -> _numReusedTransformEvaluations += l);
+    withNotNullLongMetadata(metadata, DataTable.MetadataKey.NUM_PREFETCHED_BYTES, l -> _numPrefetchedBytes += l);
+    withNotNullLongMetadata(metadata, DataTable.MetadataKey.PREFETCH_TIME_MS, l -> _prefetchTimeMs += l);
+    withNotNullLongMetadata(metadata, DataTable.MetadataKey.THREAD_MEM_ALLOCATED_BYTES,
+        l -> _threadMemAllocatedBytes += l);
+    withNotNullLongMetadata(metadata, DataTable.MetadataKey.NUM_REUSED_BUFFER_BYTES, l -> _numReusedBufferBytes += l);
 
     String explainPlanNumEmptyFilterSegments =
         metadata.get(DataTable.MetadataKey.EXPLAIN_PLAN_NUM_EMPTY_FILTER_SEGMENTS.getName());
@@ -247,6 +261,14 @@ public class ExecutionStatsAggregator {
     if (numTotalDocsString != null) {
       _numTotalDocs += Long.parseLong(numTotalDocsString);
     }
+    String numSampledDocsString = metadata.get(DataTable.MetadataKey.NUM_SAMPLED_DOCS.getName());
+    if (numSampledDocsString != null) {
+      _numSampledDocs += Long.parseLong(numSampledDocsString);
+    }
+    String numExpectedSampledDocsString = metadata.get(DataTable.MetadataKey.NUM_EXPECTED_SAMPLED_DOCS.getName());
+    if (numExpectedSampledDocsString != null) {
+      _numExpectedSampledDocs += Long.parseLong(numExpectedSampledDocsString);
+    }
     _numGroupsLimitReached |=
         Boolean.parseBoolean(metadata.get(DataTable.MetadataKey.NUM_GROUPS_LIMIT_REACHED.getName()));
 
@@ -282,6 +304,18 @@ public class ExecutionStatsAggregator {
     }
   }
 
+  /**
+   * Returns the sample rate realized by the servers for an approximate query with the given requested sample rate. The
+   * servers sample the documents in ranges, so the number of sampled documents can deviate from the expected value.
+   * Falls back to the requested sample rate when no document is sampled.
+   */
+  public double getRealizedSampleRate(double sampleRate) {
+    if (_numSampledDocs == 0 || _numExpectedSampledDocs == 0) {
+      return sampleRate;
+    }
+    return Math.min(sampleRate * _numSampledDocs / _numExpectedSampledDocs, 1);
+  }
+
   public void setStats(BrokerResponseNative brokerResponseNative) {
     setStats(null, brokerResponseNative, null);
   }
@@ -320,6 +354,11 @@ public class ExecutionStatsAggregator {
     brokerResponseNative.setNumSegmentsPrunedByValue(_numSegmentsPrunedByValue);
     brokerResponseNative.setExplainPlanNumEmptyFilterSegments(_explainPlanNumEmptyFilterSegments);
     brokerResponseNative.setExplainPlanNumMatchAllFilterSegments(_explainPlanNumMatchAllFilterSegments);
+    brokerResponseNative.setNumReusedTransformEvaluations(_numReusedTransformEvaluations);
+    brokerResponseNative.setNumPrefetchedBytes(_numPrefetchedBytes);
+    brokerResponseNative.setPrefetchTimeMs(_prefetchTimeMs);
+    brokerResponseNative.setThreadMemAllocatedBytes(_threadMemAllocatedBytes);
+    brokerResponseNative.setNumReusedBufferBytes(_numReusedBufferBytes);
     if (_numConsumingSegmentsQueried > 0) {
       brokerResponseNative.setNumConsumingSegmentsQueried(_numConsumingSegmentsQueried);
     }
@@ -20,12 +20,11 @@ package org.apache.pinot.core.query.reduce;
 
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.request.context.FunctionContext;
 import org.apache.pinot.common.response.broker.BrokerResponseNative;
@@ -48,7 +47,11 @@ import org.apache.pinot.core.util.GapfillUtils;
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class GapfillProcessor extends BaseGapfillProcessor {
 
-  private final Set<Key> _groupByKeys;
+  // Entities are identified by the order they are first seen in, so that the entities present in a time bucket can be
+  // tracked with a reusable bitmap instead of copying the set of all the entities for each time bucket.
+  private final Map<Key, Integer> _groupByKeyIds;
+  private final List<Key> _groupByKeys;
+  private final BitSet _groupByKeyIdsInBucket;
   private final Map<String, ExpressionContext> _fillExpressions;
   private int[] _sourceColumnIndexForResultSchema = null;
 
@@ -57,7 +60,9 @@ public class GapfillProcessor extends BaseGapfillProcessor {
 
     _fillExpressions = GapfillUtils.getFillExpressions(_gapFillSelection);
 
-    _groupByKeys = new HashSet<>();
+    _groupByKeyIds = new HashMap<>();
+    _groupByKeys = new ArrayList<>();
+    _groupByKeyIdsInBucket = new BitSet();
   }
 
   /**
@@ -170,8 +175,7 @@ public class GapfillProcessor extends BaseGapfillProcessor {
   private void gapfill(long bucketTime, List<Object[]> bucketedResult, List<Object[]> rawRowsForBucket,
       DataSchema dataSchema, GapfillFilterHandler postGapfillFilterHandler) {
     ColumnDataType[] resultColumnDataTypes = dataSchema.getColumnDataTypes();
-    int numResultColumns = resultColumnDataTypes.length;
-    Set<Key> keys = new HashSet<>(_groupByKeys);
+    _groupByKeyIdsInBucket.clear();
 
     if (rawRowsForBucket != null) {
       for (Object[] resultRow : rawRowsForBucket) {
@@ -193,43 +197,80 @@ public class GapfillProcessor extends BaseGapfillProcessor {
             }
           }
           Key key = constructGroupKeys(resultRow);
-          keys.remove(key);
+          Integer keyId = _groupByKeyIds.get(key);
+          if (keyId != null) {
+            _groupByKeyIdsInBucket.set(keyId);
+          }
           _previousByGroupKey.put(key, resultRow);
         }
       }
     }
 
-    for (Key key : keys) {
-      Object[] gapfillRow = new Object[numResultColumns];
-      int keyIndex = 0;
-      if (resultColumnDataTypes[_timeBucketColumnIndex] == ColumnDataType.LONG) {
-        gapfillRow[0] = Long.valueOf(_dateTimeFormatter.fromMillisToFormat(bucketTime));
-      } else {
-        gapfillRow[0] = _dateTimeFormatter.fromMillisToFormat(bucketTime);
-      }
-      for (int i = 1; i < _isGroupBySelections.length; i++) {
-        if (_isGroupBySelections[i]) {
-          gapfillRow[i] = key.getValues()[keyIndex++];
-        } else {
-          gapfillRow[i] = getFillValue(i, dataSchema.getColumnName(i), key, resultColumnDataTypes[i]);
+    Object timeCol;
+    if (resultColumnDataTypes[_timeBucketColumnIndex] == ColumnDataType.LONG) {
+      timeCol = Long.valueOf(_dateTimeFormatter.fromMillisToFormat(bucketTime));
+    } else {
+      timeCol = _dateTimeFormatter.fromMillisToFormat(bucketTime);
+    }
+    int numKeys = _groupByKeys.size();
+    int numMissingKeys = numKeys - _groupByKeyIdsInBucket.cardinality();
+    if (numMissingKeys > 0) {
+      if (bucketedResult.size() + (long) numMissingKeys <= _limitForGapfilledResult && getNumTasks(numKeys) > 1) {
+        // All the gapfilled rows fit into the limit, so they can be generated in parallel with key ranges
+        List<List<Object[]>> gapfillRowsPerTask = processInParallel(numKeys, (fromKeyId, toKeyId) -> {
+          List<Object[]> gapfillRows = new ArrayList<>();
+          for (int keyId = _groupByKeyIdsInBucket.nextClearBit(fromKeyId); keyId < toKeyId;
+              keyId = _groupByKeyIdsInBucket.nextClearBit(keyId + 1)) {
+            Object[] gapfillRow = createGapfillRow(timeCol, _groupByKeys.get(keyId), dataSchema);
+            if (postGapfillFilterHandler == null || postGapfillFilterHandler.isMatch(gapfillRow)) {
+              gapfillRows.add(gapfillRow);
+            }
+          }
+          return gapfillRows;
+        });
+        for (List<Object[]> gapfillRows : gapfillRowsPerTask) {
+          bucketedResult.addAll(gapfillRows);
         }
-      }
-
-      if (postGapfillFilterHandler == null || postGapfillFilterHandler.isMatch(gapfillRow)) {
-        if (bucketedResult.size() >= _limitForGapfilledResult) {
-          break;
-        } else {
-          bucketedResult.add(gapfillRow);
+      } else {
+        for (int keyId = _groupByKeyIdsInBucket.nextClearBit(0); keyId < numKeys;
+            keyId = _groupByKeyIdsInBucket.nextClearBit(keyId + 1)) {
+          Object[] gapfillRow = createGapfillRow(timeCol, _groupByKeys.get(keyId), dataSchema);
+          if (postGapfillFilterHandler == null || postGapfillFilterHandler.isMatch(gapfillRow)) {
+            if (bucketedResult.size() >= _limitForGapfilledResult) {
+              break;
+            } else {
+              bucketedResult.add(gapfillRow);
+            }
+          }
         }
       }
     }
-    if (_limitForGapfilledResult > _groupByKeys.size()) {
-      _limitForGapfilledResult -= _groupByKeys.size();
+    if (_limitForGapfilledResult > numKeys) {
+      _limitForGapfilledResult -= numKeys;
     } else {
       _limitForGapfilledResult = 0;
     }
   }
 
+  /**
+   * Creates the gapfilled row of the given entity for the time bucket. Only reads the shared state, so it can be
+   * invoked concurrently for different entities.
+   */
+  private Object[] createGapfillRow(Object timeCol, Key key, DataSchema dataSchema) {
+    ColumnDataType[] resultColumnDataTypes = dataSchema.getColumnDataTypes();
+    Object[] gapfillRow = new Object[resultColumnDataTypes.length];
+    gapfillRow[0] = timeCol;
+    int keyIndex = 0;
+    for (int i = 1; i < _isGroupBySelections.length; i++) {
+      if (_isGroupBySelections[i]) {
+        gapfillRow[i] = key.getValues()[keyIndex++];
+      } else {
+        gapfillRow[i] = getFillValue(i, dataSchema.getColumnName(i), key, resultColumnDataTypes[i]);
+      }
+    }
+    return gapfillRow;
+  }
+
   private List<Object[]> aggregateGapfilledData(Object timeCol, List<Object[]> bucketedRows, DataSchema dataSchema) {
     List<ExpressionContext> groupbyExpressions = _queryContext.getGroupByExpressions();
     Preconditions.checkArgument(groupbyExpressions != null, "No GroupBy Clause.");
@@ -333,35 +374,58 @@ public class GapfillProcessor extends BaseGapfillProcessor {
   private List<Object[]>[] putRawRowsIntoTimeBucket(List<Object[]> rows) {
     List<Object[]>[] bucketedItems = new List[_numOfTimeBuckets];
 
-    for (Object[] row : rows) {
-      long timeBucket = _dateTimeFormatter.fromFormatToMillis(String.valueOf(row[_timeBucketColumnIndex]));
-      int index = findGapfillBucketIndex(timeBucket);
-      if (index >= _numOfTimeBuckets) {
-        // the data will not be used for gapfill, skip it
-        continue;
-      }
-      Key key = constructGroupKeys(row);
-      _groupByKeys.add(key);
-      if (index < 0) {
-        // the data can potentially be used for previous value
-        _previousByGroupKey.compute(key, (k, previousRow) -> {
-          if (previousRow == null) {
-            return row;
-          } else {
-            long previousTimeBucket =
-                _dateTimeFormatter.fromFormatToMillis(String.valueOf(previousRow[_timeBucketColumnIndex]));
-            if (timeBucket > previousTimeBucket) {
+    // Parse the time and construct the entity of the rows in parallel, then put them into the time buckets in order.
+    // Rows are handled chunk by chunk (one batch of tasks per chunk), so that the parsed values only take memory
+    // proportional to the chunk size instead of the number of rows.
+    int numRows = rows.size();
+    int chunkSize = Math.min(numRows, getNumTasks(Integer.MAX_VALUE) * MIN_NUM_ITEMS_PER_TASK);
+    long[] timeBuckets = new long[chunkSize];
+    Key[] keys = new Key[chunkSize];
+    for (int chunkStartRowId = 0; chunkStartRowId < numRows; chunkStartRowId += chunkSize) {
+      int startRowId = chunkStartRowId;
+      int numRowsInChunk = Math.min(chunkSize, numRows - startRowId);
+      processInParallel(numRowsInChunk, (fromIndex, toIndex) -> {
+        for (int i = fromIndex; i < toIndex; i++) {
+          Object[] row = rows.get(startRowId + i);
+          timeBuckets[i] = _dateTimeFormatter.fromFormatToMillis(String.valueOf(row[_timeBucketColumnIndex]));
+          keys[i] = constructGroupKeys(row);
+        }
+        return null;
+      });
+
+      for (int i = 0; i < numRowsInChunk; i++) {
+        Object[] row = rows.get(startRowId + i);
+        long timeBucket = timeBuckets[i];
+        int index = findGapfillBucketIndex(timeBucket);
+        if (index >= _numOfTimeBuckets) {
+          // the data will not be used for gapfill, skip it
+          continue;
+        }
+        Key key = keys[i];
+        if (_groupByKeyIds.putIfAbsent(key, _groupByKeys.size()) == null) {
+          _groupByKeys.add(key);
+        }
+        if (index < 0) {
+          // the data can potentially be used for previous value
+          _previousByGroupKey.compute(key, (k, previousRow) -> {
+            if (previousRow == null) {
               return row;
             } else {
-              return previousRow;
+              long previousTimeBucket =
+                  _dateTimeFormatter.fromFormatToMillis(String.valueOf(previousRow[_timeBucketColumnIndex]));
+              if (timeBucket > previousTimeBucket) {
+                return row;
+              } else {
+                return previousRow;
+              }
             }
+          });
+        } else {
+          if (bucketedItems[index] == null) {
+            bucketedItems[index] = new ArrayList<>();
           }
-        });
-      } else {
-        if (bucketedItems[index] == null) {
-          bucketedItems[index] = new ArrayList<>();
+          bucketedItems[index].add(row);
         }
-        bucketedItems[index].add(row);
       }
     }
     return bucketedItems;
@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.core.query.reduce;
 
+import javax.annotation.Nullable;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.util.GapfillUtils;
@@ -36,6 +37,22 @@ public final class GapfillProcessorFactory {
    */
   public static BaseGapfillProcessor getGapfillProcessor(
       QueryContext queryContext, GapfillUtils.GapfillType gapfillType) {
+    return getGapfillProcessor(queryContext, gapfillType, null);
+  }
+
+  /**
+   * Constructs the right result reducer based on the given query context, which processes large inputs in parallel on
+   * the executor of the given broker reduce context.
+   */
+  public static BaseGapfillProcessor getGapfillProcessor(QueryContext queryContext,
+      GapfillUtils.GapfillType gapfillType, @Nullable DataTableReducerContext reducerContext) {
+    BaseGapfillProcessor gapfillProcessor = createGapfillProcessor(queryContext, gapfillType);
+    gapfillProcessor.setReducerContext(reducerContext);
+    return gapfillProcessor;
+  }
+
+  private static BaseGapfillProcessor createGapfillProcessor(QueryContext queryContext,
+      GapfillUtils.GapfillType gapfillType) {
     if (gapfillType == GapfillUtils.GapfillType.AGGREGATE_GAP_FILL_AGGREGATE) {
       if (queryContext.getSelectExpressions().size() == 2
           && queryContext.getSelectExpressions().get(0).getType() == ExpressionContext.Type.IDENTIFIER
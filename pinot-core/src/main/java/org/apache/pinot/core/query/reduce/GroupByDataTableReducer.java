@@ -54,6 +54,7 @@ import org.apache.pinot.core.operator.combine.GroupByCombineOperator;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
 import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.utils.SamplingUtils;
 import org.apache.pinot.core.query.utils.rewriter.ResultRewriteUtils;
 import org.apache.pinot.core.query.utils.rewriter.RewriterResult;
 import org.apache.pinot.core.transport.ServerRoutingInstance;
@@ -80,6 +81,8 @@ public class GroupByDataTableReducer implements DataTableReducer {
   private final List<ExpressionContext> _groupByExpressions;
   private final int _numGroupByExpressions;
   private final int _numColumns;
+  // Realized sample rate of the approximate query (1 means no sampling), set from the broker response
+  private double _sampleRate = 1;
 
   GroupByDataTableReducer(QueryContext queryContext) {
     _queryContext = queryContext;
@@ -100,6 +103,10 @@ public class GroupByDataTableReducer implements DataTableReducer {
       Map<ServerRoutingInstance, DataTable> dataTableMap, BrokerResponseNative brokerResponse,
       DataTableReducerContext reducerContext, BrokerMetrics brokerMetrics) {
     assert dataSchema != null;
+    Double sampleRate = brokerResponse.getSampleRate();
+    if (sampleRate != null) {
+      _sampleRate = sampleRate;
+    }
 
     if (dataTableMap.isEmpty()) {
       PostAggregationHandler postAggregationHandler =
@@ -225,6 +232,23 @@ public class GroupByDataTableReducer implements DataTableReducer {
       int valueIndex = i + _numGroupByExpressions;
       row[valueIndex] = _aggregationFunctions[i].extractFinalResult(row[valueIndex]);
     }
+    scaleSampledResults(row);
+  }
+
+  /**
+   * Helper method to scale the final results of the aggregations proportional to the number of records for the
+   * approximate query (in-place).
+   */
+  private void scaleSampledResults(Object[] row) {
+    if (_sampleRate == 1) {
+      return;
+    }
+    for (int i = 0; i < _numAggregationFunctions; i++) {
+      int valueIndex = i + _numGroupByExpressions;
+      if (row[valueIndex] != null && SamplingUtils.isScaledBySampleRate(_aggregationFunctions[i])) {
+        row[valueIndex] = SamplingUtils.scaleFinalResult(row[valueIndex], _sampleRate);
+      }
+    }
   }
 
   /**
@@ -485,6 +509,7 @@ public class GroupByDataTableReducer implements DataTableReducer {
         row[i] = AggregationFunctionUtils.getConvertedFinalResult(dataTable, columnDataTypes[i], rowId, i);
       }
     }
+    scaleSampledResults(row);
     return row;
   }
 
@@ -39,6 +39,7 @@ import org.apache.pinot.common.utils.config.QueryOptionsUtils;
 import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionFactory;
+import org.apache.pinot.core.query.selection.TopKBoundaryValue;
 import org.apache.pinot.core.util.MemoizedClassAssociation;
 
 
@@ -105,6 +106,10 @@ public class QueryContext {
   private boolean _skipStarTree;
   // Whether to skip reordering scan filters for the query
   private boolean _skipScanFilterReorder;
+  // Whether to skip sharing the evaluation of the common transform sub-expressions for the query
+  private boolean _skipSharedTransform;
+  // Whether to reorder the child filters of AND filter based on their estimated selectivity
+  private boolean _selectivityFilterReorder;
   // Maximum number of threads used to execute the query
   private int _maxExecutionThreads = InstancePlanMakerImplV2.DEFAULT_MAX_EXECUTION_THREADS;
   // The following properties apply to group-by queries
@@ -118,6 +123,18 @@ public class QueryContext {
   private int _minServerGroupTrimSize = InstancePlanMakerImplV2.DEFAULT_MIN_SERVER_GROUP_TRIM_SIZE;
   // Trim threshold to use for server combine for SQL GROUP BY
   private int _groupTrimThreshold = InstancePlanMakerImplV2.DEFAULT_GROUPBY_TRIM_THRESHOLD;
+  // Number of hash partitions for server combine for GROUP BY (0 means merging into a single concurrent table)
+  private int _numGroupByCombinePartitions;
+  // Whether to store multi-column group keys in the packed key map
+  private boolean _usePackedGroupKeyMap;
+  // Whether to derive the group ids from the runs of the sorted column when it is the leading group-by column
+  private boolean _useSortedColumnGroupBy;
+  // Whether to share the main filter evaluation and projection across the filtered aggregations
+  private boolean _useSharedFilteredAggregation;
+  // Fraction of the documents sampled within each segment for approximate queries (1 means no sampling)
+  private double _docSampleRate = 1;
+  // Boundary value of the first order-by expression shared across segments for selection order-by queries
+  private TopKBoundaryValue _topKBoundaryValue;
   // Whether null handling is enabled
   private boolean _nullHandlingEnabled;
   // Whether server returns the final result
@@ -329,6 +346,22 @@ public class QueryContext {
     _skipScanFilterReorder = skipScanFilterReorder;
   }
 
+  public boolean isSkipSharedTransform() {
+    return _skipSharedTransform;
+  }
+
+  public void setSkipSharedTransform(boolean skipSharedTransform) {
+    _skipSharedTransform = skipSharedTransform;
+  }
+
+  public boolean isSelectivityFilterReorder() {
+    return _selectivityFilterReorder;
+  }
+
+  public void setSelectivityFilterReorder(boolean selectivityFilterReorder) {
+    _selectivityFilterReorder = selectivityFilterReorder;
+  }
+
   public int getMaxExecutionThreads() {
     return _maxExecutionThreads;
   }
@@ -377,6 +410,55 @@ public class QueryContext {
     _groupTrimThreshold = groupTrimThreshold;
   }
 
+  public int getNumGroupByCombinePartitions() {
+    return _numGroupByCombinePartitions;
+  }
+
+  public void setNumGroupByCombinePartitions(int numGroupByCombinePartitions) {
+    _numGroupByCombinePartitions = numGroupByCombinePartitions;
+  }
+
+  public boolean isUsePackedGroupKeyMap() {
+    return _usePackedGroupKeyMap;
+  }
+
+  public void setUsePackedGroupKeyMap(boolean usePackedGroupKeyMap) {
+    _usePackedGroupKeyMap = usePackedGroupKeyMap;
+  }
+
+  public boolean isUseSortedColumnGroupBy() {
+    return _useSortedColumnGroupBy;
+  }
+
+  public void setUseSortedColumnGroupBy(boolean useSortedColumnGroupBy) {
+    _useSortedColumnGroupBy = useSortedColumnGroupBy;
+  }
+
+  public boolean isUseSharedFilteredAggregation() {
+    return _useSharedFilteredAggregation;
+  }
+
+  public void setUseSharedFilteredAggregation(boolean useSharedFilteredAggregation) {
+    _useSharedFilteredAggregation = useSharedFilteredAggregation;
+  }
+
+  public double getDocSampleRate() {
+    return _docSampleRate;
+  }
+
+  public void setDocSampleRate(double docSampleRate) {
+    _docSampleRate = docSampleRate;
+  }
+
+  @Nullable
+  public TopKBoundaryValue getTopKBoundaryValue() {
+    return _topKBoundaryValue;
+  }
+
+  public void setTopKBoundaryValue(@Nullable TopKBoundaryValue topKBoundaryValue) {
+    _topKBoundaryValue = topKBoundaryValue;
+  }
+
   public boolean isNullHandlingEnabled() {
     return _nullHandlingEnabled;
   }
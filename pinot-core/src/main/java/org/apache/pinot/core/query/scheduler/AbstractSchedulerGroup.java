@@ -22,6 +22,7 @@ import com.google.common.base.Preconditions;
 import java.util.Iterator;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -39,6 +40,8 @@ public abstract class AbstractSchedulerGroup implements SchedulerGroup {
   protected final AtomicInteger _threadsInUse = new AtomicInteger(0);
   // Total reserved threads for currently running queries for this group
   protected final AtomicInteger _reservedThreads = new AtomicInteger(0);
+  // Total estimated cost of currently running queries for this group
+  protected final AtomicLong _runningCostNs = new AtomicLong(0);
 
   public AbstractSchedulerGroup(String name) {
     Preconditions.checkNotNull(name);
@@ -132,4 +135,19 @@ public abstract class AbstractSchedulerGroup implements SchedulerGroup {
     decrementThreads();
     _numRunning.decrementAndGet();
   }
+
+  @Override
+  public void addRunningCost(long costNs) {
+    _runningCostNs.addAndGet(costNs);
+  }
+
+  @Override
+  public void releaseRunningCost(long costNs) {
+    _runningCostNs.addAndGet(-costNs);
+  }
+
+  @Override
+  public long getRunningCost() {
+    return _runningCostNs.get();
+  }
 }
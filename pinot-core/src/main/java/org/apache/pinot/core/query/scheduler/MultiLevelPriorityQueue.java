@@ -51,11 +51,14 @@ public class MultiLevelPriorityQueue implements SchedulerPriorityQueue {
   public static final String QUERY_DEADLINE_SECONDS_KEY = "query_deadline_seconds";
   public static final String MAX_PENDING_PER_GROUP_KEY = "max_pending_per_group";
   public static final String QUEUE_WAKEUP_MICROS = "queue_wakeup_micros";
+  // Max total estimated cost of the running queries per group (non-positive value means no limit)
+  public static final String MAX_RUNNING_COST_MS_PER_GROUP_KEY = "max_running_cost_ms_per_group";
 
   private static final int DEFAULT_WAKEUP_MICROS = 1000;
 
   private static int _wakeUpTimeMicros = DEFAULT_WAKEUP_MICROS;
   private final int _maxPendingPerGroup;
+  private final long _maxRunningCostNsPerGroup;
 
   private final Map<String, SchedulerGroup> _schedulerGroups = new HashMap<>();
   private final Lock _queueLock = new ReentrantLock();
@@ -78,6 +81,8 @@ public class MultiLevelPriorityQueue implements SchedulerPriorityQueue {
     _queryDeadlineMillis = config.getProperty(QUERY_DEADLINE_SECONDS_KEY, 30) * 1000;
     _wakeUpTimeMicros = config.getProperty(QUEUE_WAKEUP_MICROS, DEFAULT_WAKEUP_MICROS);
     _maxPendingPerGroup = config.getProperty(MAX_PENDING_PER_GROUP_KEY, 10);
+    _maxRunningCostNsPerGroup =
+        TimeUnit.MILLISECONDS.toNanos(config.getProperty(MAX_RUNNING_COST_MS_PER_GROUP_KEY, -1L));
     _config = config;
     _resourceManager = resourceManager;
     _groupFactory = groupFactory;
@@ -154,7 +159,7 @@ public class MultiLevelPriorityQueue implements SchedulerPriorityQueue {
         sb.append(group.toString());
       }
       group.trimExpired(deadlineEpochMillis);
-      if (group.isEmpty() || !_resourceManager.canSchedule(group)) {
+      if (group.isEmpty() || !_resourceManager.canSchedule(group) || !hasCostCapacity(group)) {
         continue;
       }
 
@@ -216,6 +221,17 @@ public class MultiLevelPriorityQueue implements SchedulerPriorityQueue {
     }
   }
 
+  /**
+   * Returns {@code true} if the first pending query of the group fits into the running cost limit of the group. A query
+   * is always admitted when the group has no running query so that an expensive query cannot be starved.
+   */
+  private boolean hasCostCapacity(SchedulerGroup group) {
+    if (_maxRunningCostNsPerGroup <= 0 || group.numRunning() == 0) {
+      return true;
+    }
+    return group.getRunningCost() + group.peekFirst().getEstimatedCostNs() <= _maxRunningCostNsPerGroup;
+  }
+
   private SchedulerGroup getOrCreateGroupContext(String groupName) {
     SchedulerGroup groupContext = _schedulerGroups.get(groupName);
     if (groupContext == null) {
@@ -25,8 +25,10 @@ import com.google.common.util.concurrent.ListenableFutureTask;
 import com.google.common.util.concurrent.MoreExecutors;
 import java.util.List;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAccumulator;
 import org.apache.pinot.common.exception.QueryException;
+import org.apache.pinot.common.metrics.ServerMeter;
 import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.common.metrics.ServerQueryPhase;
 import org.apache.pinot.core.query.executor.QueryExecutor;
@@ -40,15 +42,22 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Schedules queries from a {@link SchedulerGroup} with highest number of tokens on priority
+ *
+ * The cost of each query is estimated with the {@link QueryCostEstimator} on submission. Queries whose own history
+ * shows an estimated cost above {@link #MAX_QUERY_COST_MS_KEY} are rejected, and the estimated cost of the running
+ * queries is tracked per scheduler group so that the queue can hold back the expensive queries of a busy group.
  */
 public abstract class PriorityScheduler extends QueryScheduler {
   private static final Logger LOGGER = LoggerFactory.getLogger(PriorityScheduler.class);
+  // Queries with estimated cost larger than this value are rejected (non-positive value means no limit)
+  public static final String MAX_QUERY_COST_MS_KEY = "max_query_cost_ms";
 
   protected final SchedulerPriorityQueue _queryQueue;
 
   @VisibleForTesting
   protected final Semaphore _runningQueriesSemaphore;
   private final int _numRunners;
+  private final long _maxQueryCostNs;
   @VisibleForTesting
   Thread _scheduler;
 
@@ -59,6 +68,7 @@ public abstract class PriorityScheduler extends QueryScheduler {
     _queryQueue = queue;
     _numRunners = resourceManager.getNumQueryRunnerThreads();
     _runningQueriesSemaphore = new Semaphore(_numRunners);
+    _maxQueryCostNs = TimeUnit.MILLISECONDS.toNanos(config.getProperty(MAX_QUERY_COST_MS_KEY, -1L));
   }
 
   @Override
@@ -68,6 +78,18 @@ public abstract class PriorityScheduler extends QueryScheduler {
     }
     queryRequest.getTimerContext().startNewPhaseTimer(ServerQueryPhase.SCHEDULER_WAIT);
     final SchedulerQueryContext schedQueryContext = new SchedulerQueryContext(queryRequest);
+    QueryCostEstimator.Estimate estimate = _queryCostEstimator.estimate(queryRequest);
+    long estimatedCostNs = estimate.getCostNs();
+    // NOTE: Only reject on the history of the query itself, not on the history of the table or the default cost
+    if (_maxQueryCostNs > 0 && estimate.isFromQueryHistory() && estimatedCostNs > _maxQueryCostNs) {
+      LOGGER.warn("Rejecting requestId {} for table {} with estimated cost {}ms over limit {}ms",
+          queryRequest.getRequestId(), queryRequest.getTableNameWithType(),
+          TimeUnit.NANOSECONDS.toMillis(estimatedCostNs), TimeUnit.NANOSECONDS.toMillis(_maxQueryCostNs));
+      _serverMetrics.addMeteredTableValue(queryRequest.getTableNameWithType(),
+          ServerMeter.QUERIES_REJECTED_BY_ESTIMATED_COST, 1);
+      return immediateErrorResponse(queryRequest, QueryException.SERVER_OUT_OF_CAPACITY_ERROR);
+    }
+    schedQueryContext.setEstimatedCostNs(estimatedCostNs);
     try {
       _queryQueue.put(schedQueryContext);
     } catch (OutOfCapacityException e) {
@@ -108,6 +130,7 @@ public abstract class PriorityScheduler extends QueryScheduler {
               public void run() {
                 executor.releaseWorkers();
                 request.getSchedulerGroup().endQuery();
+                request.getSchedulerGroup().releaseRunningCost(request.getEstimatedCostNs());
                 _runningQueriesSemaphore.release();
                 checkStopResourceManager();
                 if (!_isRunning && _runningQueriesSemaphore.availablePermits() == _numRunners) {
@@ -117,6 +140,7 @@ public abstract class PriorityScheduler extends QueryScheduler {
             }, MoreExecutors.directExecutor());
             request.setResultFuture(queryFutureTask);
             request.getSchedulerGroup().startQuery();
+            request.getSchedulerGroup().addRunningCost(request.getEstimatedCostNs());
             queryRequest.getTimerContext().getPhaseTimer(ServerQueryPhase.SCHEDULER_WAIT).stopAndRecord();
             _resourceManager.getQueryRunners().submit(queryFutureTask);
           } catch (Throwable t) {
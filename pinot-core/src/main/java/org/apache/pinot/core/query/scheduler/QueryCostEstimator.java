@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.FilterContext;
+import org.apache.pinot.common.request.context.OrderByExpressionContext;
+import org.apache.pinot.core.query.request.ServerQueryRequest;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.spi.env.PinotConfiguration;
+
+
+/**
+ * Estimates the cost of a query before it gets scheduled, so that the scheduler can make admission decisions based on
+ * how expensive the query is expected to be instead of only on the number of queries.
+ *
+ * <p>The cost is the execution time in nanoseconds: the thread CPU time when thread CPU time measurement is enabled,
+ * or the query processing time otherwise. The cost of the failed queries (e.g. timed out or cancelled) is recorded as
+ * well, capped at the query timeout. The estimator keeps an exponentially weighted moving average of the cost per
+ * queried segment for each query fingerprint (the shape of the query without the literal values in the filter) and
+ * for each table. The cost of a query is predicted as the cost per segment of its fingerprint (falling back to the one
+ * of its table, then to the configured default) multiplied by the number of segments to query. The filter selectivity
+ * is captured by the history of the fingerprint because the segments are not acquired before scheduling.
+ *
+ * <p>The recorded cost decays over time (halved every {@link #COST_HISTORY_HALF_LIFE_MS_KEY} without new samples), so
+ * that a fingerprint rejected for being too expensive is eventually admitted again to refresh its history instead of
+ * being rejected forever.
+ */
+public class QueryCostEstimator {
+  public static final String DEFAULT_SEGMENT_COST_MICROS_KEY = "default_segment_cost_micros";
+  public static final String COST_HISTORY_MAX_ENTRIES_KEY = "cost_history_max_entries";
+  public static final String COST_HISTORY_WEIGHT_KEY = "cost_history_weight";
+  public static final String COST_HISTORY_HALF_LIFE_MS_KEY = "cost_history_half_life_ms";
+
+  private static final long DEFAULT_SEGMENT_COST_MICROS = 1000;
+  private static final int DEFAULT_COST_HISTORY_MAX_ENTRIES = 10_000;
+  // Weight of the latest sample in the moving average
+  private static final double DEFAULT_COST_HISTORY_WEIGHT = 0.2;
+  private static final long DEFAULT_COST_HISTORY_HALF_LIFE_MS = TimeUnit.MINUTES.toMillis(10);
+
+  private final long _defaultSegmentCostNs;
+  private final double _historyWeight;
+  private final long _historyHalfLifeMs;
+  private final LongSupplier _clock;
+  private final Cache<String, CostHistory> _fingerprintHistories;
+  private final ConcurrentHashMap<String, CostHistory> _tableHistories = new ConcurrentHashMap<>();
+
+  public QueryCostEstimator(PinotConfiguration config) {
+    this(config, System::currentTimeMillis);
+  }
+
+  @VisibleForTesting
+  QueryCostEstimator(PinotConfiguration config, LongSupplier clock) {
+    _defaultSegmentCostNs = TimeUnit.MICROSECONDS.toNanos(
+        config.getProperty(DEFAULT_SEGMENT_COST_MICROS_KEY, DEFAULT_SEGMENT_COST_MICROS));
+    _historyWeight = config.getProperty(COST_HISTORY_WEIGHT_KEY, DEFAULT_COST_HISTORY_WEIGHT);
+    _historyHalfLifeMs = config.getProperty(COST_HISTORY_HALF_LIFE_MS_KEY, DEFAULT_COST_HISTORY_HALF_LIFE_MS);
+    _clock = clock;
+    _fingerprintHistories = CacheBuilder.newBuilder()
+        .maximumSize(config.getProperty(COST_HISTORY_MAX_ENTRIES_KEY, DEFAULT_COST_HISTORY_MAX_ENTRIES)).build();
+  }
+
+  /**
+   * Returns the estimated cost of the given query.
+   */
+  public Estimate estimate(ServerQueryRequest queryRequest) {
+    int numSegments = Math.max(queryRequest.getSegmentsToQuery().size(), 1);
+    long currentTimeMs = _clock.getAsLong();
+    double segmentCostNs =
+        getSegmentCostNs(_fingerprintHistories.getIfPresent(getFingerprint(queryRequest)), currentTimeMs);
+    if (!Double.isNaN(segmentCostNs)) {
+      return new Estimate((long) (segmentCostNs * numSegments), true);
+    }
+    segmentCostNs = getSegmentCostNs(_tableHistories.get(queryRequest.getTableNameWithType()), currentTimeMs);
+    if (Double.isNaN(segmentCostNs)) {
+      segmentCostNs = _defaultSegmentCostNs;
+    }
+    return new Estimate((long) (segmentCostNs * numSegments), false);
+  }
+
+  private double getSegmentCostNs(@Nullable CostHistory history, long currentTimeMs) {
+    return history != null ? history.getSegmentCostNs(currentTimeMs, _historyHalfLifeMs) : Double.NaN;
+  }
+
+  /**
+   * Records the actual cost (in nanoseconds) of the given query after it is executed.
+   */
+  public void record(ServerQueryRequest queryRequest, long costNs) {
+    if (costNs <= 0) {
+      return;
+    }
+    double segmentCostNs = (double) costNs / Math.max(queryRequest.getSegmentsToQuery().size(), 1);
+    long currentTimeMs = _clock.getAsLong();
+    try {
+      _fingerprintHistories.get(getFingerprint(queryRequest), CostHistory::new)
+          .update(segmentCostNs, _historyWeight, currentTimeMs, _historyHalfLifeMs);
+    } catch (ExecutionException e) {
+      // Should not happen because creating the history does not throw
+      throw new IllegalStateException(e);
+    }
+    _tableHistories.computeIfAbsent(queryRequest.getTableNameWithType(), k -> new CostHistory())
+        .update(segmentCostNs, _historyWeight, currentTimeMs, _historyHalfLifeMs);
+  }
+
+  /**
+   * Returns the fingerprint of the query, which identifies the shape of the query (table, selected expressions,
+   * filtered columns, group-by and order-by expressions) regardless of the literal values in the filter.
+   */
+  @VisibleForTesting
+  static String getFingerprint(ServerQueryRequest queryRequest) {
+    QueryContext queryContext = queryRequest.getQueryContext();
+    StringBuilder stringBuilder = new StringBuilder(queryRequest.getTableNameWithType()).append('|');
+    for (ExpressionContext expression : queryContext.getSelectExpressions()) {
+      stringBuilder.append(expression).append(',');
+    }
+    stringBuilder.append('|');
+    FilterContext filter = queryContext.getFilter();
+    if (filter != null) {
+      Set<String> filterColumns = new TreeSet<>();
+      filter.getColumns(filterColumns);
+      stringBuilder.append(filterColumns);
+    }
+    stringBuilder.append('|');
+    List<ExpressionContext> groupByExpressions = queryContext.getGroupByExpressions();
+    if (groupByExpressions != null) {
+      stringBuilder.append(groupByExpressions);
+    }
+    stringBuilder.append('|');
+    List<OrderByExpressionContext> orderByExpressions = queryContext.getOrderByExpressions();
+    if (orderByExpressions != null) {
+      stringBuilder.append(orderByExpressions);
+    }
+    return stringBuilder.toString();
+  }
+
+  /**
+   * The estimated cost of a query.
+   */
+  public static class Estimate {
+    private final long _costNs;
+    private final boolean _fromQueryHistory;
+
+    public Estimate(long costNs, boolean fromQueryHistory) {
+      _costNs = costNs;
+      _fromQueryHistory = fromQueryHistory;
+    }
+
+    /**
+     * Returns the estimated cost in nanoseconds.
+     */
+    public long getCostNs() {
+      return _costNs;
+    }
+
+    /**
+     * Returns {@code true} if the estimate comes from the history of the query fingerprint, {@code false} if it falls
+     * back to the history of the table or the default cost.
+     */
+    public boolean isFromQueryHistory() {
+      return _fromQueryHistory;
+    }
+  }
+
+  private static class CostHistory {
+    private double _segmentCostNs = Double.NaN;
+    private long _lastUpdateTimeMs;
+
+    synchronized void update(double segmentCostNs, double weight, long currentTimeMs, long halfLifeMs) {
+      double decayedSegmentCostNs = getSegmentCostNs(currentTimeMs, halfLifeMs);
+      if (Double.isNaN(decayedSegmentCostNs)) {
+        _segmentCostNs = segmentCostNs;
+      } else {
+        _segmentCostNs = decayedSegmentCostNs + weight * (segmentCostNs - decayedSegmentCostNs);
+      }
+      _lastUpdateTimeMs = currentTimeMs;
+    }
+
+    synchronized double getSegmentCostNs(long currentTimeMs, long halfLifeMs) {
+      long elapsedTimeMs = currentTimeMs - _lastUpdateTimeMs;
+      if (Double.isNaN(_segmentCostNs) || halfLifeMs <= 0 || elapsedTimeMs <= 0) {
+        return _segmentCostNs;
+      }
+      return _segmentCostNs * Math.pow(0.5, (double) elapsedTimeMs / halfLifeMs);
+    }
+  }
+}
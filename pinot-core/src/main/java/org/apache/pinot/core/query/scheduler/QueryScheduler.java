@@ -67,6 +67,7 @@ public abstract class QueryScheduler {
   protected final QueryExecutor _queryExecutor;
   protected final ResourceManager _resourceManager;
   protected final LongAccumulator _latestQueryTime;
+  protected final QueryCostEstimator _queryCostEstimator;
   private final RateLimiter _queryLogRateLimiter;
   private final RateLimiter _numDroppedLogRateLimiter;
   private final AtomicInteger _numDroppedLogCounter;
@@ -90,6 +91,7 @@ public abstract class QueryScheduler {
     _resourceManager = resourceManager;
     _queryExecutor = queryExecutor;
     _latestQueryTime = latestQueryTime;
+    _queryCostEstimator = new QueryCostEstimator(config);
     _queryLogRateLimiter = RateLimiter.create(config.getProperty(QUERY_LOG_MAX_RATE_KEY, DEFAULT_QUERY_LOG_MAX_RATE));
     _numDroppedLogRateLimiter = RateLimiter.create(1.0d);
     _numDroppedLogCounter = new AtomicInteger(0);
@@ -149,6 +151,7 @@ public abstract class QueryScheduler {
     Tracing.ThreadAccountantOps.setupRunner(queryRequest.getQueryId());
 
     _latestQueryTime.accumulate(System.currentTimeMillis());
+    long executionStartTimeNs = System.nanoTime();
     InstanceResponseBlock instanceResponse;
     try {
       instanceResponse = _queryExecutor.execute(queryRequest, executorService);
@@ -160,6 +163,7 @@ public abstract class QueryScheduler {
       instanceResponse = new InstanceResponseBlock();
       instanceResponse.addException(QueryException.getException(QueryException.INTERNAL_ERROR, e));
     }
+    long executionTimeNs = System.nanoTime() - executionStartTimeNs;
 
     try {
       long requestId = queryRequest.getRequestId();
@@ -245,6 +249,8 @@ public abstract class QueryScheduler {
       int numSegmentsQueried = queryRequest.getSegmentsToQuery().size();
       long schedulerWaitMs = timerContext.getPhaseDurationMs(ServerQueryPhase.SCHEDULER_WAIT);
 
+      recordQueryCost(queryRequest, instanceResponse, totalCpuTimeNs, executionTimeNs);
+
       // Please keep the format as name=value comma-separated with no spaces
       // Please add new entries at the end
       if (_queryLogRateLimiter.tryAcquire() || forceLog(schedulerWaitMs, numDocsScanned, numSegmentsPrunedInvalid)) {
@@ -299,6 +305,34 @@ public abstract class QueryScheduler {
     }
   }
 
+  /**
+   * Feeds the actual cost of the query back to the cost estimator on every outcome, so that the queries timing out or
+   * being cancelled are not estimated as cheap and keep being admitted.
+   * <p>The cost is the CPU time when it is measured, and the execution time otherwise. For the failed queries, the
+   * larger one is used because the CPU time is not fully reported when the execution is aborted. The cost is capped at
+   * the query timeout. Queries timing out in the scheduler queue are skipped because they are not executed.
+   */
+  private void recordQueryCost(ServerQueryRequest queryRequest, InstanceResponseBlock instanceResponse,
+      long totalCpuTimeNs, long executionTimeNs) {
+    Map<Integer, String> exceptions = instanceResponse.getExceptions();
+    if (exceptions.containsKey(QueryException.QUERY_SCHEDULING_TIMEOUT_ERROR_CODE)) {
+      return;
+    }
+    long costNs;
+    if (exceptions.isEmpty()) {
+      costNs = totalCpuTimeNs > 0 ? totalCpuTimeNs : executionTimeNs;
+    } else {
+      costNs = Math.max(totalCpuTimeNs, executionTimeNs);
+    }
+    // End time is set by the query executor based on the query timeout
+    long queryEndTimeMs = queryRequest.getQueryContext().getEndTimeMs();
+    if (queryEndTimeMs > 0) {
+      long queryTimeoutMs = queryEndTimeMs - queryRequest.getTimerContext().getQueryArrivalTimeMs();
+      costNs = Math.min(costNs, TimeUnit.MILLISECONDS.toNanos(Math.max(queryTimeoutMs, 0)));
+    }
+    _queryCostEstimator.record(queryRequest, costNs);
+  }
+
   /**
    * Helper function to decide whether to force the log
    *
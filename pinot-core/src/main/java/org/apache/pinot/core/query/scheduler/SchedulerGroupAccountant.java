@@ -72,4 +72,22 @@ public interface SchedulerGroupAccountant extends Comparable<SchedulerGroupAccou
    * Mark end of query execution.
    */
   void endQuery();
+
+  /**
+   * Add the estimated cost (in nanoseconds) of a query starting execution for this group
+   * @param costNs estimated cost of the query
+   */
+  void addRunningCost(long costNs);
+
+  /**
+   * Release the estimated cost (in nanoseconds) of a query finishing execution for this group
+   * @param costNs estimated cost of the query
+   */
+  void releaseRunningCost(long costNs);
+
+  /**
+   * Total estimated cost (in nanoseconds) of the queries currently running for this group
+   * @return
+   */
+  long getRunningCost();
 }
@@ -33,6 +33,7 @@ public class SchedulerQueryContext {
   private final ServerQueryRequest _queryRequest;
   private final SettableFuture<byte[]> _resultFuture;
   private SchedulerGroup _schedulerGroup;
+  private long _estimatedCostNs;
 
   public SchedulerQueryContext(ServerQueryRequest queryRequest) {
     Preconditions.checkNotNull(queryRequest);
@@ -61,6 +62,17 @@ public class SchedulerQueryContext {
     return _schedulerGroup;
   }
 
+  /**
+   * Returns the estimated cost (in nanoseconds) of the query from {@link QueryCostEstimator}
+   */
+  public long getEstimatedCostNs() {
+    return _estimatedCostNs;
+  }
+
+  public void setEstimatedCostNs(long estimatedCostNs) {
+    _estimatedCostNs = estimatedCostNs;
+  }
+
   /**
    * Convenience method to get query arrival time
    * @return
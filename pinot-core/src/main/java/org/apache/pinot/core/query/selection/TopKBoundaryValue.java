@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.selection;
+
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+
+/**
+ * Query-scoped boundary value of the first order-by expression for selection order-by queries.
+ * <p>Once an operator has collected LIMIT + OFFSET rows, the value of the first order-by expression of its last row is
+ * a valid boundary for the whole query: any row whose value is strictly worse than the boundary (larger for ascending
+ * order, smaller for descending order) can never make it into the final result. The boundary is published by the
+ * segment level operators and the combine operator while the query is running, and is used as a dynamic range
+ * predicate to skip the rows, blocks and segments that cannot contribute to the result.
+ * <p>The boundary only gets tightened, so it is safe to read it at any time from any thread.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+@ThreadSafe
+public class TopKBoundaryValue {
+  private final boolean _asc;
+  private final AtomicReference<Comparable> _boundaryValue = new AtomicReference<>();
+
+  public TopKBoundaryValue(boolean asc) {
+    _asc = asc;
+  }
+
+  public boolean isAsc() {
+    return _asc;
+  }
+
+  /**
+   * Returns the current boundary value, or {@code null} if no operator has collected enough rows yet.
+   */
+  @Nullable
+  public Comparable get() {
+    return _boundaryValue.get();
+  }
+
+  /**
+   * Tightens the boundary with the given value. The boundary is not changed if the given value is not better than the
+   * current boundary.
+   */
+  public void update(Comparable value) {
+    Comparable currentValue;
+    do {
+      currentValue = _boundaryValue.get();
+      if (currentValue != null && !isBetter(value, currentValue)) {
+        return;
+      }
+    } while (!_boundaryValue.compareAndSet(currentValue, value));
+  }
+
+  /**
+   * Returns the tighter one of the given values, where {@code null} stands for no boundary.
+   */
+  @Nullable
+  public Comparable tighter(@Nullable Comparable value1, @Nullable Comparable value2) {
+    if (value1 == null) {
+      return value2;
+    }
+    if (value2 == null) {
+      return value1;
+    }
+    return isBetter(value2, value1) ? value2 : value1;
+  }
+
+  /**
+   * Returns {@code true} if the given value is strictly worse than the given boundary value, i.e. the row with the
+   * value cannot make it into the final result.
+   */
+  public boolean isBeyond(Comparable value, Comparable boundaryValue) {
+    int result = value.compareTo(boundaryValue);
+    return _asc ? result > 0 : result < 0;
+  }
+
+  private boolean isBetter(Comparable value1, Comparable value2) {
+    int result = value1.compareTo(value2);
+    return _asc ? result < 0 : result > 0;
+  }
+}
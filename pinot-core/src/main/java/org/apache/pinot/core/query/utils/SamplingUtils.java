@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.utils;
+
+import java.util.List;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Utils for the approximate queries that sample the records (enabled with the {@code sampleRate} query option).
+ * <p>The broker samples the segments, and the servers sample the document ranges within the segments with the
+ * remaining fraction. The results of the aggregations that are proportional to the number of records (COUNT and SUM)
+ * are scaled by the inverse of the sample rate on the broker.
+ */
+public class SamplingUtils {
+  // Number of consecutive documents sampled together within a segment
+  public static final int DOC_RANGE_SIZE = 1024;
+
+  // Z-score for the 95% confidence interval
+  private static final double Z_SCORE_95 = 1.96;
+
+  private SamplingUtils() {
+  }
+
+  /**
+   * Returns the sampled document ids for a segment with the given number of documents. The documents are sampled in
+   * ranges of {@link #DOC_RANGE_SIZE} with systematic sampling: one range is picked out of every 1 / sampleRate ranges
+   * starting from an offset derived from the seed, so that the number of sampled ranges deviates by at most 1 from the
+   * expected value.
+   */
+  public static ImmutableRoaringBitmap getSampledDocIds(int numDocs, double sampleRate, int seed) {
+    MutableRoaringBitmap sampledDocIds = new MutableRoaringBitmap();
+    int numRanges = (numDocs + DOC_RANGE_SIZE - 1) / DOC_RANGE_SIZE;
+    double offset = getOffset(seed);
+    for (int i = 0; i < numRanges; i++) {
+      if (isRangeSampled(i, offset, sampleRate)) {
+        int startDocId = i * DOC_RANGE_SIZE;
+        sampledDocIds.add((long) startDocId, Math.min(startDocId + DOC_RANGE_SIZE, numDocs));
+      }
+    }
+    return sampledDocIds;
+  }
+
+  /**
+   * Returns the sampled document ids for the given segment. See {@link #getSampledDocIds(int, double, int)}.
+   */
+  public static ImmutableRoaringBitmap getSampledDocIds(IndexSegment indexSegment, double sampleRate) {
+    return getSampledDocIds(indexSegment.getSegmentMetadata().getTotalDocs(), sampleRate,
+        indexSegment.getSegmentName().hashCode());
+  }
+
+  /**
+   * Returns the number of documents sampled from the given segments, which can deviate from the expected value because
+   * the documents are sampled in ranges.
+   */
+  public static long getNumSampledDocs(List<IndexSegment> indexSegments, double sampleRate) {
+    long numSampledDocs = 0;
+    for (IndexSegment indexSegment : indexSegments) {
+      int numDocs = indexSegment.getSegmentMetadata().getTotalDocs();
+      int numRanges = (numDocs + DOC_RANGE_SIZE - 1) / DOC_RANGE_SIZE;
+      double offset = getOffset(indexSegment.getSegmentName().hashCode());
+      for (int i = 0; i < numRanges; i++) {
+        if (isRangeSampled(i, offset, sampleRate)) {
+          numSampledDocs += Math.min(DOC_RANGE_SIZE, numDocs - i * DOC_RANGE_SIZE);
+        }
+      }
+    }
+    return numSampledDocs;
+  }
+
+  private static double getOffset(int seed) {
+    return (seed & Integer.MAX_VALUE) / (Integer.MAX_VALUE + 1.0);
+  }
+
+  private static boolean isRangeSampled(int rangeIndex, double offset, double sampleRate) {
+    return Math.floor(offset + (rangeIndex + 1) * sampleRate) > Math.floor(offset + rangeIndex * sampleRate);
+  }
+
+  /**
+   * Returns whether the final result of the given aggregation function should be scaled by the inverse of the sample
+   * rate.
+   */
+  public static boolean isScaledBySampleRate(AggregationFunction aggregationFunction) {
+    switch (aggregationFunction.getType()) {
+      case COUNT:
+      case COUNTMV:
+      case SUM:
+      case SUMMV:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Scales the final result of an aggregation function by the inverse of the sample rate.
+   */
+  public static Object scaleFinalResult(Object finalResult, double sampleRate) {
+    if (finalResult instanceof Long) {
+      return Math.round((Long) finalResult / sampleRate);
+    }
+    if (finalResult instanceof Double) {
+      return (Double) finalResult / sampleRate;
+    }
+    return finalResult;
+  }
+
+  /**
+   * Returns the lower and upper bounds of the 95% confidence interval of the scaled COUNT, estimated from the sampled
+   * count assuming that each record is sampled independently.
+   * <p>NOTE: Segments and document ranges are sampled as clusters of records, which adds variance when the records
+   *          are clustered (e.g. by time), so the interval should be read as a lower bound of the actual uncertainty.
+   */
+  public static double[] getCountConfidenceInterval(long sampledCount, double sampleRate) {
+    double estimate = sampledCount / sampleRate;
+    double halfWidth = Z_SCORE_95 * Math.sqrt(sampledCount * (1 - sampleRate)) / sampleRate;
+    return new double[]{Math.max(estimate - halfWidth, 0), estimate + halfWidth};
+  }
+}
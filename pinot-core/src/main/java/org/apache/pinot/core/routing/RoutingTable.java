@@ -27,12 +27,19 @@ public class RoutingTable {
   private final Map<ServerInstance, List<String>> _serverInstanceToSegmentsMap;
   private final List<String> _unavailableSegments;
   private final int _numPrunedSegments;
+  private final double _segmentSampleRate;
 
   public RoutingTable(Map<ServerInstance, List<String>> serverInstanceToSegmentsMap, List<String> unavailableSegments,
       int numPrunedSegments) {
+    this(serverInstanceToSegmentsMap, unavailableSegments, numPrunedSegments, 1);
+  }
+
+  public RoutingTable(Map<ServerInstance, List<String>> serverInstanceToSegmentsMap, List<String> unavailableSegments,
+      int numPrunedSegments, double segmentSampleRate) {
     _serverInstanceToSegmentsMap = serverInstanceToSegmentsMap;
     _unavailableSegments = unavailableSegments;
     _numPrunedSegments = numPrunedSegments;
+    _segmentSampleRate = segmentSampleRate;
   }
 
   public Map<ServerInstance, List<String>> getServerInstanceToSegmentsMap() {
@@ -46,4 +53,11 @@ public class RoutingTable {
   public int getNumPrunedSegments() {
     return _numPrunedSegments;
   }
+
+  /**
+   * Returns the fraction of the segments sampled by the broker for approximate queries (1 means no sampling).
+   */
+  public double getSegmentSampleRate() {
+    return _segmentSampleRate;
+  }
 }
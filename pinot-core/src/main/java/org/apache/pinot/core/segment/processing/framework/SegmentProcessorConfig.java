@@ -29,6 +29,7 @@ import org.apache.pinot.core.segment.processing.timehandler.TimeHandlerConfig;
 import org.apache.pinot.segment.spi.AggregationFunctionType;
 import org.apache.pinot.spi.config.table.TableConfig;
 import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.utils.ExpressionIndexUtils;
 import org.apache.pinot.spi.utils.TimestampIndexUtils;
 
 
@@ -52,6 +53,7 @@ public class SegmentProcessorConfig {
       Map<String, AggregationFunctionType> aggregationTypes, SegmentConfig segmentConfig,
       Consumer<Object> progressObserver) {
     TimestampIndexUtils.applyTimestampIndex(tableConfig, schema);
+    ExpressionIndexUtils.applyExpressionIndex(tableConfig, schema);
     _tableConfig = tableConfig;
     _schema = schema;
     _timeHandlerConfig = timeHandlerConfig;
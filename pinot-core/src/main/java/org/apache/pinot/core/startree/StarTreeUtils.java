@@ -20,9 +20,11 @@ package org.apache.pinot.core.startree;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -32,18 +34,32 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.request.context.FilterContext;
 import org.apache.pinot.common.request.context.predicate.Predicate;
+import org.apache.pinot.core.operator.BaseProjectOperator;
+import org.apache.pinot.core.operator.filter.BaseFilterOperator;
+import org.apache.pinot.core.operator.filter.BitmapBasedFilterOperator;
+import org.apache.pinot.core.operator.filter.FilterOperatorUtils;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+import org.apache.pinot.core.plan.ProjectPlanNode;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.startree.plan.StarTreeProjectPlanNode;
 import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.datasource.DataSource;
 import org.apache.pinot.segment.spi.index.reader.Dictionary;
 import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2;
 import org.apache.pinot.segment.spi.index.startree.StarTreeV2Metadata;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
 
 @SuppressWarnings("rawtypes")
 public class StarTreeUtils {
+  // Max number of predicate evaluators maps expanded from OR clauses across multiple dimensions, each of them requires
+  // a separate star-tree traversal
+  public static final int MAX_NUM_PREDICATE_EVALUATORS_MAPS = 64;
+
   private StarTreeUtils() {
   }
 
@@ -71,24 +87,31 @@ public class StarTreeUtils {
   }
 
   /**
-   * Extracts a map from the column to a list of {@link PredicateEvaluator}s for it. Returns {@code null} if the filter
-   * cannot be solved by the star-tree.
+   * Extracts a list of maps from the column to a list of {@link PredicateEvaluator}s for it. Returns {@code null} if
+   * the filter cannot be solved by the star-tree.
    *
    * A predicate can be simple (d1 > 10) or composite (d1 > 10 AND d2 < 50) or multi levelled
    * (d1 > 50 AND (d2 > 10 OR d2 < 35)).
-   * This method represents a list of CompositePredicates per dimension. For each dimension, all CompositePredicates in
-   * the list are implicitly ANDed together. Any OR predicates are nested within a CompositePredicate.
+   * Each map represents a list of CompositePredicates per dimension. For each dimension, all CompositePredicates in
+   * the list are implicitly ANDed together. Any OR predicates on a single dimension are nested within a
+   * CompositePredicate.
+   *
+   * OR predicates across multiple dimensions (d1 > 10 OR d2 < 50) are expanded into multiple maps, one per dimension
+   * of the OR clause, which are implicitly ORed together. The filter is rejected if the expansion exceeds
+   * {@link #MAX_NUM_PREDICATE_EVALUATORS_MAPS} maps.
    *
    * A map from predicates to their evaluators is passed in to accelerate the computation.
    */
   @Nullable
-  public static Map<String, List<CompositePredicateEvaluator>> extractPredicateEvaluatorsMap(IndexSegment indexSegment,
-      @Nullable FilterContext filter, List<Pair<Predicate, PredicateEvaluator>> predicateEvaluatorMapping) {
+  public static List<Map<String, List<CompositePredicateEvaluator>>> extractPredicateEvaluatorsMaps(
+      IndexSegment indexSegment, @Nullable FilterContext filter,
+      List<Pair<Predicate, PredicateEvaluator>> predicateEvaluatorMapping) {
     if (filter == null) {
-      return Collections.emptyMap();
+      return Collections.singletonList(Collections.emptyMap());
     }
 
     Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap = new HashMap<>();
+    List<Map<String, List<PredicateEvaluator>>> multiDimensionOrClauses = new ArrayList<>();
     Queue<FilterContext> queue = new ArrayDeque<>();
     queue.add(filter);
     FilterContext filterNode;
@@ -98,17 +121,20 @@ public class StarTreeUtils {
           queue.addAll(filterNode.getChildren());
           break;
         case OR:
-          Pair<String, List<PredicateEvaluator>> pair =
-              isOrClauseValidForStarTree(indexSegment, filterNode, predicateEvaluatorMapping);
-          if (pair == null) {
+          Map<String, List<PredicateEvaluator>> orClause =
+              extractOrClausePredicateEvaluators(indexSegment, filterNode, predicateEvaluatorMapping);
+          if (orClause == null) {
             return null;
           }
-          List<PredicateEvaluator> predicateEvaluators = pair.getRight();
-          // NOTE: Empty list means always true
-          if (!predicateEvaluators.isEmpty()) {
-            predicateEvaluatorsMap.computeIfAbsent(pair.getLeft(), k -> new ArrayList<>())
-                .add(new CompositePredicateEvaluator(predicateEvaluators));
+          int numOrClauseColumns = orClause.size();
+          if (numOrClauseColumns == 1) {
+            Map.Entry<String, List<PredicateEvaluator>> entry = orClause.entrySet().iterator().next();
+            predicateEvaluatorsMap.computeIfAbsent(entry.getKey(), k -> new ArrayList<>())
+                .add(new CompositePredicateEvaluator(entry.getValue()));
+          } else if (numOrClauseColumns > 1) {
+            multiDimensionOrClauses.add(orClause);
           }
+          // NOTE: Empty map means always true
           break;
         case NOT:
           // TODO: Support NOT in star-tree
@@ -130,7 +156,50 @@ public class StarTreeUtils {
           throw new IllegalStateException();
       }
     }
-    return predicateEvaluatorsMap;
+    if (multiDimensionOrClauses.isEmpty()) {
+      return Collections.singletonList(predicateEvaluatorsMap);
+    }
+
+    // Expand the OR clauses across multiple dimensions: (A) AND (d1 OR d2) AND (d3 OR d4) is expanded into
+    // (A AND d1 AND d3) OR (A AND d1 AND d4) OR (A AND d2 AND d3) OR (A AND d2 AND d4)
+    List<Map<String, List<CompositePredicateEvaluator>>> predicateEvaluatorsMaps =
+        Collections.singletonList(predicateEvaluatorsMap);
+    for (Map<String, List<PredicateEvaluator>> orClause : multiDimensionOrClauses) {
+      int numMaps = predicateEvaluatorsMaps.size() * orClause.size();
+      if (numMaps > MAX_NUM_PREDICATE_EVALUATORS_MAPS) {
+        return null;
+      }
+      List<Map<String, List<CompositePredicateEvaluator>>> expandedPredicateEvaluatorsMaps = new ArrayList<>(numMaps);
+      for (Map<String, List<CompositePredicateEvaluator>> map : predicateEvaluatorsMaps) {
+        for (Map.Entry<String, List<PredicateEvaluator>> entry : orClause.entrySet()) {
+          // NOTE: Copy the lists because they are sorted in place when traversing the star-tree
+          Map<String, List<CompositePredicateEvaluator>> expandedMap = new HashMap<>();
+          for (Map.Entry<String, List<CompositePredicateEvaluator>> mapEntry : map.entrySet()) {
+            expandedMap.put(mapEntry.getKey(), new ArrayList<>(mapEntry.getValue()));
+          }
+          expandedMap.computeIfAbsent(entry.getKey(), k -> new ArrayList<>())
+              .add(new CompositePredicateEvaluator(entry.getValue()));
+          expandedPredicateEvaluatorsMaps.add(expandedMap);
+        }
+      }
+      predicateEvaluatorsMaps = expandedPredicateEvaluatorsMaps;
+    }
+    return predicateEvaluatorsMaps;
+  }
+
+  /**
+   * Returns the union of the predicate columns of the given predicate evaluators maps.
+   */
+  public static Set<String> getPredicateColumns(
+      List<Map<String, List<CompositePredicateEvaluator>>> predicateEvaluatorsMaps) {
+    if (predicateEvaluatorsMaps.size() == 1) {
+      return predicateEvaluatorsMaps.get(0).keySet();
+    }
+    Set<String> predicateColumns = new HashSet<>();
+    for (Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap : predicateEvaluatorsMaps) {
+      predicateColumns.addAll(predicateEvaluatorsMap.keySet());
+    }
+    return predicateColumns;
   }
 
   /**
@@ -169,14 +238,85 @@ public class StarTreeUtils {
   }
 
   /**
-   * Evaluates whether the given OR clause is valid for StarTree processing.
-   * StarTree supports OR predicates on a single dimension only (d1 < 10 OR d1 > 50).
+   * Returns the project operators that solve the given aggregations (and group-by expressions) under the given filter
+   * with one of the star-trees of the segment, or {@code null} if none of the star-trees can solve it.
+   * <p>The left operator projects the star-tree documents. The right operator projects the segment documents not
+   * covered by the star-tree (ingested into a consuming segment after the star-tree is constructed), which should be
+   * aggregated with the raw values, or is {@code null} if the star-tree covers all the documents.
+   * <p>The predicate evaluators and the filter operator should come from the
+   * {@link org.apache.pinot.core.plan.FilterPlanNode} built on the same filter.
+   */
+  @Nullable
+  public static Pair<BaseProjectOperator<?>, BaseProjectOperator<?>> createStarTreeBasedProjectOperators(
+      IndexSegment indexSegment, QueryContext queryContext, AggregationFunction[] aggregationFunctions,
+      @Nullable FilterContext filter, List<Pair<Predicate, PredicateEvaluator>> predicateEvaluatorMapping,
+      @Nullable ExpressionContext[] groupByExpressions, BaseFilterOperator filterOperator) {
+    if (queryContext.isSkipStarTree()) {
+      return null;
+    }
+    List<StarTreeV2> starTrees = indexSegment.getStarTrees();
+    if (starTrees == null) {
+      return null;
+    }
+    AggregationFunctionColumnPair[] aggregationFunctionColumnPairs =
+        extractAggregationFunctionPairs(aggregationFunctions);
+    if (aggregationFunctionColumnPairs == null) {
+      return null;
+    }
+    List<Map<String, List<CompositePredicateEvaluator>>> predicateEvaluatorsMaps =
+        extractPredicateEvaluatorsMaps(indexSegment, filter, predicateEvaluatorMapping);
+    if (predicateEvaluatorsMaps == null) {
+      return null;
+    }
+    Set<String> predicateColumns = getPredicateColumns(predicateEvaluatorsMaps);
+    for (StarTreeV2 starTreeV2 : starTrees) {
+      if (isFitForStarTree(starTreeV2.getMetadata(), aggregationFunctionColumnPairs, groupByExpressions,
+          predicateColumns)) {
+        BaseProjectOperator<?> starTreeProjectOperator =
+            new StarTreeProjectPlanNode(queryContext, starTreeV2, aggregationFunctionColumnPairs, groupByExpressions,
+                predicateEvaluatorsMaps).run();
+        return Pair.of(starTreeProjectOperator,
+            createUncoveredDocsProjectOperator(indexSegment, queryContext, starTreeV2, aggregationFunctions,
+                groupByExpressions, filterOperator));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns a {@link BaseProjectOperator} that projects the segment documents matching the filter but not covered by
+   * the given star-tree, or {@code null} if the star-tree covers all the documents.
+   */
+  @Nullable
+  private static BaseProjectOperator<?> createUncoveredDocsProjectOperator(IndexSegment indexSegment,
+      QueryContext queryContext, StarTreeV2 starTreeV2, AggregationFunction[] aggregationFunctions,
+      @Nullable ExpressionContext[] groupByExpressions, BaseFilterOperator filterOperator) {
+    int numSegmentDocsCovered = starTreeV2.getNumSegmentDocsCovered();
+    int numDocs = indexSegment.getSegmentMetadata().getTotalDocs();
+    if (numSegmentDocsCovered < 0 || numSegmentDocsCovered >= numDocs || filterOperator.isResultEmpty()) {
+      return null;
+    }
+    MutableRoaringBitmap uncoveredDocIds = new MutableRoaringBitmap();
+    uncoveredDocIds.add((long) numSegmentDocsCovered, numDocs);
+    BaseFilterOperator uncoveredDocsFilterOperator = FilterOperatorUtils.getAndFilterOperator(queryContext,
+        Arrays.asList(filterOperator, new BitmapBasedFilterOperator(uncoveredDocIds, false, numDocs)), numDocs);
+    Set<ExpressionContext> expressionsToTransform = AggregationFunctionUtils.collectExpressionsToTransform(
+        aggregationFunctions, groupByExpressions != null ? Arrays.asList(groupByExpressions) : null);
+    return new ProjectPlanNode(indexSegment, queryContext, expressionsToTransform, DocIdSetPlanNode.MAX_DOC_PER_CALL,
+        uncoveredDocsFilterOperator).run();
+  }
+
+  /**
+   * Extracts the predicate evaluators for the given OR clause, grouped by the column they are applied to. Predicates on
+   * the same column are ORed within a single {@link CompositePredicateEvaluator}; predicates on different columns are
+   * ORed by expanding the filter into multiple predicate evaluators maps.
    *
-   * @return The pair of single identifier and predicate evaluators applied to it if true; {@code null} if the OR clause
-   *         cannot be solved with star-tree; empty predicate evaluator list if the OR clause always evaluates to true.
+   * @return The map from column to predicate evaluators applied to it; {@code null} if the OR clause cannot be solved
+   *         with star-tree (including when it always evaluates to false); empty map if the OR clause always evaluates
+   *         to true.
    */
   @Nullable
-  private static Pair<String, List<PredicateEvaluator>> isOrClauseValidForStarTree(IndexSegment indexSegment,
+  private static Map<String, List<PredicateEvaluator>> extractOrClausePredicateEvaluators(IndexSegment indexSegment,
       FilterContext filter, List<Pair<Predicate, PredicateEvaluator>> predicateEvaluatorMapping) {
     assert filter.getType() == FilterContext.Type.OR;
 
@@ -185,8 +325,7 @@ public class StarTreeUtils {
       return null;
     }
 
-    String identifier = null;
-    List<PredicateEvaluator> predicateEvaluators = new ArrayList<>();
+    Map<String, List<PredicateEvaluator>> predicateEvaluatorsMap = new LinkedHashMap<>();
     for (Predicate predicate : predicates) {
       PredicateEvaluator predicateEvaluator = getPredicateEvaluator(indexSegment, predicate, predicateEvaluatorMapping);
       if (predicateEvaluator == null) {
@@ -194,23 +333,16 @@ public class StarTreeUtils {
         return null;
       }
       if (predicateEvaluator.isAlwaysTrue()) {
-        // Use empty predicate evaluators to represent always true
-        return Pair.of(null, Collections.emptyList());
+        // Use empty map to represent always true
+        return Collections.emptyMap();
       }
       if (!predicateEvaluator.isAlwaysFalse()) {
-        String predicateIdentifier = predicate.getLhs().getIdentifier();
-        if (identifier == null) {
-          identifier = predicateIdentifier;
-        } else {
-          if (!identifier.equals(predicateIdentifier)) {
-            // The predicates are applied to multiple columns
-            return null;
-          }
-        }
-        predicateEvaluators.add(predicateEvaluator);
+        predicateEvaluatorsMap.computeIfAbsent(predicate.getLhs().getIdentifier(), k -> new ArrayList<>())
+            .add(predicateEvaluator);
       }
     }
-    return Pair.of(identifier, predicateEvaluators);
+    // All the predicates are always false, let the regular filter solve it
+    return !predicateEvaluatorsMap.isEmpty() ? predicateEvaluatorsMap : null;
   }
 
   /**
@@ -230,7 +362,6 @@ public class StarTreeUtils {
           if (!extractOrClausePredicates(child, predicates)) {
             return false;
           }
-          predicates.add(child.getPredicate());
           break;
         case PREDICATE:
           predicates.add(child.getPredicate());
@@ -56,4 +56,13 @@ public class StarTreeAggregationExecutor extends DefaultAggregationExecutor {
           AggregationFunctionUtils.getBlockValSetMap(_aggregationFunctionColumnPairs[i], valueBlock));
     }
   }
+
+  /**
+   * Aggregates a block of the segment documents not covered by the star-tree (see
+   * {@link org.apache.pinot.segment.spi.index.startree.StarTreeV2#getNumSegmentDocsCovered()}) with the raw values,
+   * into the same results as the star-tree documents.
+   */
+  public void aggregateUncoveredDocs(ValueBlock valueBlock) {
+    super.aggregate(valueBlock);
+  }
 }
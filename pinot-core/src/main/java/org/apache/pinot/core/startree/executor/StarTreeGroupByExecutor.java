@@ -43,6 +43,9 @@ import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair
 public class StarTreeGroupByExecutor extends DefaultGroupByExecutor {
   private final AggregationFunctionColumnPair[] _aggregationFunctionColumnPairs;
 
+  // Whether the block being processed contains the segment documents not covered by the star-tree
+  private boolean _processingUncoveredDocs;
+
   public StarTreeGroupByExecutor(QueryContext queryContext, ExpressionContext[] groupByExpressions,
       BaseProjectOperator<?> projectOperator) {
     super(queryContext, groupByExpressions, projectOperator);
@@ -57,8 +60,27 @@ public class StarTreeGroupByExecutor extends DefaultGroupByExecutor {
     }
   }
 
+  /**
+   * Processes a block of the segment documents not covered by the star-tree (see
+   * {@link org.apache.pinot.segment.spi.index.startree.StarTreeV2#getNumSegmentDocsCovered()}) with the raw values,
+   * into the same groups as the star-tree documents. The group keys are shared because the star-tree dimensions use
+   * the dictionaries of the segment.
+   */
+  public void processUncoveredDocs(ValueBlock valueBlock) {
+    _processingUncoveredDocs = true;
+    try {
+      process(valueBlock);
+    } finally {
+      _processingUncoveredDocs = false;
+    }
+  }
+
   @Override
   protected void aggregate(ValueBlock valueBlock, int length, int functionIndex) {
+    if (_processingUncoveredDocs) {
+      super.aggregate(valueBlock, length, functionIndex);
+      return;
+    }
     AggregationFunction aggregationFunction = _aggregationFunctions[functionIndex];
     GroupByResultHolder groupByResultHolder = _groupByResultHolders[functionIndex];
     Map<ExpressionContext, BlockValSet> blockValSetMap =
@@ -57,7 +57,8 @@ import org.roaringbitmap.buffer.MutableRoaringBitmap;
  * <ul>
  *   <li>
  *     Traverse the filter tree and generate a map from column to a list of {@link CompositePredicateEvaluator}s applied
- *     to it
+ *     to it. OR clause across multiple dimensions generates multiple maps, which are solved separately with the
+ *     following steps and then conjoined with OR
  *   </li>
  *   <li>
  *     Traverse the star tree index, try to match as many predicates as possible, add the matching documents into a
@@ -107,17 +108,18 @@ public class StarTreeFilterOperator extends BaseFilterOperator {
 
   private final QueryContext _queryContext;
   private final StarTreeV2 _starTreeV2;
-  private final Map<String, List<CompositePredicateEvaluator>> _predicateEvaluatorsMap;
+  private final List<Map<String, List<CompositePredicateEvaluator>>> _predicateEvaluatorsMaps;
   private final Set<String> _groupByColumns;
   private final boolean _scanStarTreeNodes;
 
   boolean _resultEmpty = false;
 
   public StarTreeFilterOperator(QueryContext queryContext, StarTreeV2 starTreeV2,
-      Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap, @Nullable Set<String> groupByColumns) {
+      List<Map<String, List<CompositePredicateEvaluator>>> predicateEvaluatorsMaps,
+      @Nullable Set<String> groupByColumns) {
     _queryContext = queryContext;
     _starTreeV2 = starTreeV2;
-    _predicateEvaluatorsMap = predicateEvaluatorsMap;
+    _predicateEvaluatorsMaps = predicateEvaluatorsMaps;
     _groupByColumns = groupByColumns != null ? groupByColumns : Collections.emptySet();
     _scanStarTreeNodes = QueryOptionsUtils.isScanStarTreeNodes(_queryContext.getQueryOptions());
   }
@@ -146,14 +148,45 @@ public class StarTreeFilterOperator extends BaseFilterOperator {
   }
 
   /**
-   * Helper method to get a filter operator that match the matchingDictIdsMap.
+   * Helper method to get a filter operator that match the predicate evaluators maps (ORed together).
+   * <p>When there are multiple predicate evaluators maps (OR clause across multiple dimensions), star-node is never
+   * used for any predicate column so that the traversal for every map stops at the same level of the star-tree, and
+   * each record is represented by exactly one document in the union of the matching documents.
+   */
+  private BaseFilterOperator getFilterOperator() {
+    int numPredicateEvaluatorsMaps = _predicateEvaluatorsMaps.size();
+    if (numPredicateEvaluatorsMaps == 1) {
+      return getFilterOperator(_predicateEvaluatorsMaps.get(0), _groupByColumns);
+    }
+
+    Set<String> nonStarColumns = new HashSet<>(_groupByColumns);
+    for (Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap : _predicateEvaluatorsMaps) {
+      nonStarColumns.addAll(predicateEvaluatorsMap.keySet());
+    }
+    List<BaseFilterOperator> childFilterOperators = new ArrayList<>(numPredicateEvaluatorsMaps);
+    for (Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap : _predicateEvaluatorsMaps) {
+      BaseFilterOperator childFilterOperator = getFilterOperator(predicateEvaluatorsMap, nonStarColumns);
+      if (!childFilterOperator.isResultEmpty()) {
+        childFilterOperators.add(childFilterOperator);
+      }
+    }
+    if (childFilterOperators.isEmpty()) {
+      return EmptyFilterOperator.getInstance();
+    }
+    return FilterOperatorUtils.getOrFilterOperator(_queryContext, childFilterOperators,
+        _starTreeV2.getMetadata().getNumDocs());
+  }
+
+  /**
+   * Helper method to get a filter operator that match the predicate evaluators map.
    * <ul>
    *   <li>First go over the star tree and try to match as many columns as possible</li>
    *   <li>For the remaining columns, use other indexes to match them</li>
    * </ul>
    */
-  private BaseFilterOperator getFilterOperator() {
-    StarTreeResult starTreeResult = traverseStarTree();
+  private BaseFilterOperator getFilterOperator(Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap,
+      Set<String> groupByColumns) {
+    StarTreeResult starTreeResult = traverseStarTree(predicateEvaluatorsMap, groupByColumns);
 
     // If star tree result is null, the result for the filter operator will be empty, early terminate
     if (starTreeResult == null) {
@@ -170,7 +203,7 @@ public class StarTreeFilterOperator extends BaseFilterOperator {
     // Add remaining predicates
     for (String remainingPredicateColumn : starTreeResult._remainingPredicateColumns) {
       List<CompositePredicateEvaluator> compositePredicateEvaluators =
-          _predicateEvaluatorsMap.get(remainingPredicateColumn);
+          predicateEvaluatorsMap.get(remainingPredicateColumn);
       DataSource dataSource = _starTreeV2.getDataSource(remainingPredicateColumn);
       for (CompositePredicateEvaluator compositePredicateEvaluator : compositePredicateEvaluators) {
         List<PredicateEvaluator> predicateEvaluators = compositePredicateEvaluator.getPredicateEvaluators();
@@ -201,7 +234,8 @@ public class StarTreeFilterOperator extends BaseFilterOperator {
    * filter operator is empty).
    */
   @Nullable
-  private StarTreeResult traverseStarTree() {
+  private StarTreeResult traverseStarTree(Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap,
+      Set<String> groupByColumns) {
     MutableRoaringBitmap matchingDocIds = new MutableRoaringBitmap();
     Set<String> globalRemainingPredicateColumns = null;
 
@@ -218,8 +252,8 @@ public class StarTreeFilterOperator extends BaseFilterOperator {
     Queue<StarTreeNode> queue = new ArrayDeque<>();
     queue.add(starTreeRootNode);
     int currentDimensionId = -1;
-    Set<String> remainingPredicateColumns = new HashSet<>(_predicateEvaluatorsMap.keySet());
-    Set<String> remainingGroupByColumns = new HashSet<>(_groupByColumns);
+    Set<String> remainingPredicateColumns = new HashSet<>(predicateEvaluatorsMap.keySet());
+    Set<String> remainingGroupByColumns = new HashSet<>(groupByColumns);
     if (foundLeafNode) {
       globalRemainingPredicateColumns = new HashSet<>(remainingPredicateColumns);
     }
@@ -269,7 +303,7 @@ public class StarTreeFilterOperator extends BaseFilterOperator {
 
         // Calculate the matching dictionary ids for the child dimension
         if (matchingDictIds == null) {
-          matchingDictIds = getMatchingDictIds(_predicateEvaluatorsMap.get(childDimension));
+          matchingDictIds = getMatchingDictIds(predicateEvaluatorsMap.get(childDimension));
 
           // If no matching dictionary id found, directly return null
           if (matchingDictIds.isEmpty()) {
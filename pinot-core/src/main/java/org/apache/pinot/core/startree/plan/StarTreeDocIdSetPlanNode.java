@@ -34,9 +34,10 @@ public class StarTreeDocIdSetPlanNode implements PlanNode {
   private final StarTreeFilterPlanNode _starTreeFilterPlanNode;
 
   public StarTreeDocIdSetPlanNode(QueryContext queryContext, StarTreeV2 starTreeV2,
-      Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap, @Nullable Set<String> groupByColumns) {
+      List<Map<String, List<CompositePredicateEvaluator>>> predicateEvaluatorsMaps,
+      @Nullable Set<String> groupByColumns) {
     _starTreeFilterPlanNode =
-        new StarTreeFilterPlanNode(queryContext, starTreeV2, predicateEvaluatorsMap, groupByColumns);
+        new StarTreeFilterPlanNode(queryContext, starTreeV2, predicateEvaluatorsMaps, groupByColumns);
   }
 
   @Override
@@ -32,19 +32,20 @@ import org.apache.pinot.segment.spi.index.startree.StarTreeV2;
 public class StarTreeFilterPlanNode implements PlanNode {
   private final QueryContext _queryContext;
   private final StarTreeV2 _starTreeV2;
-  private final Map<String, List<CompositePredicateEvaluator>> _predicateEvaluatorsMap;
+  private final List<Map<String, List<CompositePredicateEvaluator>>> _predicateEvaluatorsMaps;
   private final Set<String> _groupByColumns;
 
   public StarTreeFilterPlanNode(QueryContext queryContext, StarTreeV2 starTreeV2,
-      Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap, @Nullable Set<String> groupByColumns) {
+      List<Map<String, List<CompositePredicateEvaluator>>> predicateEvaluatorsMaps,
+      @Nullable Set<String> groupByColumns) {
     _queryContext = queryContext;
     _starTreeV2 = starTreeV2;
-    _predicateEvaluatorsMap = predicateEvaluatorsMap;
+    _predicateEvaluatorsMaps = predicateEvaluatorsMaps;
     _groupByColumns = groupByColumns;
   }
 
   @Override
   public StarTreeFilterOperator run() {
-    return new StarTreeFilterOperator(_queryContext, _starTreeV2, _predicateEvaluatorsMap, _groupByColumns);
+    return new StarTreeFilterOperator(_queryContext, _starTreeV2, _predicateEvaluatorsMaps, _groupByColumns);
   }
 }
@@ -44,16 +44,16 @@ public class StarTreeProjectPlanNode implements PlanNode {
   private final StarTreeV2 _starTreeV2;
   private final AggregationFunctionColumnPair[] _aggregationFunctionColumnPairs;
   private final ExpressionContext[] _groupByExpressions;
-  private final Map<String, List<CompositePredicateEvaluator>> _predicateEvaluatorsMap;
+  private final List<Map<String, List<CompositePredicateEvaluator>>> _predicateEvaluatorsMaps;
 
   public StarTreeProjectPlanNode(QueryContext queryContext, StarTreeV2 starTreeV2,
       AggregationFunctionColumnPair[] aggregationFunctionColumnPairs, @Nullable ExpressionContext[] groupByExpressions,
-      Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap) {
+      List<Map<String, List<CompositePredicateEvaluator>>> predicateEvaluatorsMaps) {
     _queryContext = queryContext;
     _starTreeV2 = starTreeV2;
     _aggregationFunctionColumnPairs = aggregationFunctionColumnPairs;
     _groupByExpressions = groupByExpressions;
-    _predicateEvaluatorsMap = predicateEvaluatorsMap;
+    _predicateEvaluatorsMaps = predicateEvaluatorsMaps;
   }
 
   @Override
@@ -77,7 +77,7 @@ public class StarTreeProjectPlanNode implements PlanNode {
       groupByColumns = null;
     }
     DocIdSetOperator docIdSetOperator =
-        new StarTreeDocIdSetPlanNode(_queryContext, _starTreeV2, _predicateEvaluatorsMap, groupByColumns).run();
+        new StarTreeDocIdSetPlanNode(_queryContext, _starTreeV2, _predicateEvaluatorsMaps, groupByColumns).run();
     Map<String, DataSource> dataSourceMap = new HashMap<>(HashUtil.getHashMapCapacity(projectionColumns.size()));
     projectionColumns.forEach(column -> dataSourceMap.put(column, _starTreeV2.getDataSource(column)));
     ProjectionOperator projectionOperator = new ProjectionOperator(dataSourceMap, docIdSetOperator);
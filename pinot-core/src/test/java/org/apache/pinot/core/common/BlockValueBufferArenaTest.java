@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.common;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+
+public class BlockValueBufferArenaTest {
+
+  @Test
+  public void testLeaseOutsideScope() {
+    int[] buffer1 = BlockValueBufferArena.leaseIntBuffer(100);
+    int[] buffer2 = BlockValueBufferArena.leaseIntBuffer(100);
+    assertEquals(buffer1.length, 100);
+    assertNotSame(buffer1, buffer2);
+  }
+
+  @Test
+  public void testReuseAcrossScopes() {
+    long startReusedBytes = BlockValueBufferArena.getNumReusedBytes();
+    BlockValueBufferArena.openScope();
+    long[] buffer1;
+    long[] buffer2;
+    try {
+      buffer1 = BlockValueBufferArena.leaseLongBuffer(100);
+      buffer2 = BlockValueBufferArena.leaseLongBuffer(BlockValueBufferArena.BUFFER_SIZE);
+      assertEquals(buffer1.length, BlockValueBufferArena.BUFFER_SIZE);
+      assertNotSame(buffer1, buffer2);
+    } finally {
+      BlockValueBufferArena.closeScope();
+    }
+
+    BlockValueBufferArena.openScope();
+    try {
+      // Nested scope should not return the buffers
+      BlockValueBufferArena.openScope();
+      long[] buffer3;
+      long[] buffer4;
+      try {
+        buffer3 = BlockValueBufferArena.leaseLongBuffer(10);
+        buffer4 = BlockValueBufferArena.leaseLongBuffer(10);
+      } finally {
+        BlockValueBufferArena.closeScope();
+      }
+      assertSame(buffer3, buffer2);
+      assertSame(buffer4, buffer1);
+      long[] buffer5 = BlockValueBufferArena.leaseLongBuffer(10);
+      assertNotSame(buffer5, buffer1);
+      assertNotSame(buffer5, buffer2);
+
+      // Buffers larger than the block size are not leased from the arena
+      assertEquals(BlockValueBufferArena.leaseLongBuffer(BlockValueBufferArena.BUFFER_SIZE + 1).length,
+          BlockValueBufferArena.BUFFER_SIZE + 1);
+    } finally {
+      BlockValueBufferArena.closeScope();
+    }
+    assertEquals(BlockValueBufferArena.getNumReusedBytes() - startReusedBytes,
+        2L * Long.BYTES * BlockValueBufferArena.BUFFER_SIZE);
+  }
+
+  @Test
+  public void testStringBufferClearedOnRelease() {
+    String[] buffer;
+    BlockValueBufferArena.openScope();
+    try {
+      buffer = BlockValueBufferArena.leaseStringBuffer(10);
+      buffer[0] = "foo";
+      buffer[9] = "bar";
+    } finally {
+      BlockValueBufferArena.closeScope();
+    }
+    // Released buffers should not keep the values reachable
+    assertNull(buffer[0]);
+    assertNull(buffer[9]);
+  }
+}
@@ -116,6 +116,112 @@ public class IndexedTableTest {
     }
   }
 
+  @Test
+  public void testPartitionedIndexedTable() {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContext(
+        "SELECT SUM(m1), MAX(m2) FROM testTable GROUP BY d1, d2, d3 ORDER BY SUM(m1)");
+    DataSchema dataSchema = new DataSchema(new String[]{"d1", "d2", "d3", "sum(m1)", "max(m2)"}, new ColumnDataType[]{
+        ColumnDataType.STRING, ColumnDataType.INT, ColumnDataType.DOUBLE, ColumnDataType.DOUBLE, ColumnDataType.DOUBLE
+    });
+    PartitionedIndexedTable indexedTable =
+        new PartitionedIndexedTable(dataSchema, queryContext, 5, TRIM_SIZE, TRIM_THRESHOLD, 4);
+
+    // a is upserted by both writers (20), c (10000) and f (20000) should be trimmed out
+    PartitionedIndexedTable.Writer writer1 = indexedTable.createWriter();
+    writer1.upsert(getKey(new Object[]{"a", 1, 10d}), getRecord(new Object[]{"a", 1, 10d, 10d, 100d}));
+    writer1.upsert(getKey(new Object[]{"b", 2, 20d}), getRecord(new Object[]{"b", 2, 20d, 10d, 200d}));
+    writer1.upsert(getKey(new Object[]{"c", 3, 30d}), getRecord(new Object[]{"c", 3, 30d, 10000d, 300d}));
+    PartitionedIndexedTable.Writer writer2 = indexedTable.createWriter();
+    writer2.upsert(getKey(new Object[]{"a", 1, 10d}), getRecord(new Object[]{"a", 1, 10d, 10d, 150d}));
+    writer2.upsert(getKey(new Object[]{"d", 4, 40d}), getRecord(new Object[]{"d", 4, 40d, 10d, 400d}));
+    writer2.upsert(getKey(new Object[]{"e", 5, 50d}), getRecord(new Object[]{"e", 5, 50d, 10d, 500d}));
+    writer2.upsert(getKey(new Object[]{"f", 6, 60d}), getRecord(new Object[]{"f", 6, 60d, 20000d, 600d}));
+    writer2.upsert(getKey(new Object[]{"g", 7, 70d}), getRecord(new Object[]{"g", 7, 70d, 10d, 700d}));
+
+    for (int i = 0; i < indexedTable.getNumPartitions(); i++) {
+      indexedTable.mergePartition(i);
+    }
+    indexedTable.finishMergingPartitions();
+    indexedTable.finish(false);
+    Assert.assertEquals(indexedTable.size(), 5);
+    checkEvicted(indexedTable, "c", "f");
+    Iterator<Record> iterator = indexedTable.iterator();
+    while (iterator.hasNext()) {
+      Object[] values = iterator.next().getValues();
+      if (values[0].equals("a")) {
+        Assert.assertEquals(values[3], 20d);
+        Assert.assertEquals(values[4], 150d);
+      }
+    }
+  }
+
+  @Test
+  public void testPartitionedIndexedTableWithoutOrderBy()
+      throws InterruptedException, TimeoutException, ExecutionException {
+    QueryContext queryContext =
+        QueryContextConverterUtils.getQueryContext("SELECT SUM(m1), MAX(m2) FROM testTable GROUP BY d1, d2, d3");
+    DataSchema dataSchema = new DataSchema(new String[]{"d1", "d2", "d3", "sum(m1)", "max(m2)"}, new ColumnDataType[]{
+        ColumnDataType.STRING, ColumnDataType.INT, ColumnDataType.DOUBLE, ColumnDataType.DOUBLE, ColumnDataType.DOUBLE
+    });
+    int numThreads = 4;
+    int numKeys = 100;
+    int numRepeats = 10;
+    int resultSize = 10;
+    PartitionedIndexedTable indexedTable =
+        new PartitionedIndexedTable(dataSchema, queryContext, resultSize, resultSize, TRIM_THRESHOLD, 4);
+    // Reference table aggregating all the keys in a single thread
+    SimpleIndexedTable expectedTable =
+        new SimpleIndexedTable(dataSchema, queryContext, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    // Each thread upserts all the keys in a different order
+    List<Callable<Void>> tasks = new ArrayList<>(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      int threadId = i;
+      tasks.add(() -> {
+        PartitionedIndexedTable.Writer writer = indexedTable.createWriter();
+        for (int j = 0; j < numRepeats; j++) {
+          for (int k = 0; k < numKeys; k++) {
+            int keyId = (k + threadId * 31 + j) % numKeys;
+            Object[] keys = new Object[]{"k" + keyId, keyId, (double) keyId};
+            writer.upsert(getKey(keys), getRecord(new Object[]{keys[0], keys[1], keys[2], 1d, (double) threadId}));
+          }
+        }
+        return null;
+      });
+      for (int j = 0; j < numRepeats; j++) {
+        for (int k = 0; k < numKeys; k++) {
+          int keyId = (k + threadId * 31 + j) % numKeys;
+          Object[] keys = new Object[]{"k" + keyId, keyId, (double) keyId};
+          expectedTable.upsert(getKey(keys), getRecord(new Object[]{keys[0], keys[1], keys[2], 1d, (double) i}));
+        }
+      }
+    }
+    ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+    try {
+      for (Future future : executorService.invokeAll(tasks)) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      executorService.shutdown();
+    }
+
+    for (int i = 0; i < indexedTable.getNumPartitions(); i++) {
+      indexedTable.mergePartition(i);
+    }
+    indexedTable.finishMergingPartitions();
+    indexedTable.finish(false);
+    Assert.assertEquals(indexedTable.size(), resultSize);
+    // Every kept key should have the same aggregates as the single-threaded result
+    Iterator<Record> iterator = indexedTable.iterator();
+    while (iterator.hasNext()) {
+      Record record = iterator.next();
+      Object[] values = record.getValues();
+      Record expectedRecord = expectedTable._lookupMap.get(new Key(Arrays.copyOf(values, 3)));
+      Assert.assertNotNull(expectedRecord);
+      Assert.assertEquals(values, expectedRecord.getValues());
+    }
+  }
+
   @Test(dataProvider = "initDataProvider")
   public void testNonConcurrentIndexedTable(String orderBy, List<String> survivors) {
     QueryContext queryContext = QueryContextConverterUtils.getQueryContext(
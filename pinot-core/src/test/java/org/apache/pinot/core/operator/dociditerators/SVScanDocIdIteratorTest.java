@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.dociditerators;
+
+import java.io.File;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.predicate.EqPredicate;
+import org.apache.pinot.common.request.context.predicate.RangePredicate;
+import org.apache.pinot.core.operator.filter.predicate.EqualsPredicateEvaluatorFactory;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory;
+import org.apache.pinot.segment.local.io.writer.impl.FixedByteChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.local.segment.index.readers.forward.FixedByteChunkSVForwardIndexReader;
+import org.apache.pinot.segment.spi.Constants;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.index.reader.ChunkZoneMap;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+
+public class SVScanDocIdIteratorTest {
+  private static final File INDEX_FILE =
+      new File(FileUtils.getTempDirectory(), SVScanDocIdIteratorTest.class.getSimpleName());
+  private static final int NUM_DOCS = 10_000;
+  private static final int NUM_DOCS_PER_CHUNK = 1000;
+
+  private PinotDataBuffer _dataBuffer;
+  private FixedByteChunkSVForwardIndexReader _reader;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_FILE);
+    // Time clustered values: value of each doc equals to the doc id
+    try (FixedByteChunkSVForwardIndexWriter writer = new FixedByteChunkSVForwardIndexWriter(INDEX_FILE,
+        ChunkCompressionType.LZ4, NUM_DOCS, NUM_DOCS_PER_CHUNK, Long.BYTES, 3)) {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        writer.putLong(i);
+      }
+    }
+    _dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(INDEX_FILE);
+    _reader = new FixedByteChunkSVForwardIndexReader(_dataBuffer, DataType.LONG);
+  }
+
+  @Test
+  public void testZoneMap() {
+    ChunkZoneMap zoneMap = _reader.getChunkZoneMap();
+    assertNotNull(zoneMap);
+    assertEquals(zoneMap.getNumChunks(), NUM_DOCS / NUM_DOCS_PER_CHUNK);
+    assertEquals(zoneMap.getNumDocsPerChunk(), NUM_DOCS_PER_CHUNK);
+    for (int i = 0; i < zoneMap.getNumChunks(); i++) {
+      assertEquals(zoneMap.getMinLong(i), i * NUM_DOCS_PER_CHUNK);
+      assertEquals(zoneMap.getMaxLong(i), (i + 1) * NUM_DOCS_PER_CHUNK - 1);
+    }
+  }
+
+  @Test
+  public void testSkipChunksWithRangePredicate() {
+    RangePredicate rangePredicate =
+        new RangePredicate(ExpressionContext.forIdentifier("column"), false, "2500", true, "4200");
+    PredicateEvaluator predicateEvaluator =
+        RangePredicateEvaluatorFactory.newRawValueBasedEvaluator(rangePredicate, DataType.LONG);
+    SVScanDocIdIterator iterator = new SVScanDocIdIterator(predicateEvaluator, _reader, NUM_DOCS, null);
+    int expectedDocId = 2501;
+    int docId;
+    while ((docId = iterator.next()) != Constants.EOF) {
+      assertEquals(docId, expectedDocId++);
+    }
+    assertEquals(expectedDocId, 4201);
+    // Only chunks 2, 3 and 4 should be scanned
+    assertEquals(iterator.getNumEntriesScanned(), 3 * NUM_DOCS_PER_CHUNK);
+  }
+
+  @Test
+  public void testSkipChunksWithEqPredicate() {
+    EqPredicate eqPredicate = new EqPredicate(ExpressionContext.forIdentifier("column"), "7777");
+    PredicateEvaluator predicateEvaluator =
+        EqualsPredicateEvaluatorFactory.newRawValueBasedEvaluator(eqPredicate, DataType.LONG);
+    SVScanDocIdIterator iterator = new SVScanDocIdIterator(predicateEvaluator, _reader, NUM_DOCS, null);
+    assertEquals(iterator.next(), 7777);
+    assertEquals(iterator.next(), Constants.EOF);
+    assertEquals(iterator.getNumEntriesScanned(), NUM_DOCS_PER_CHUNK);
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    _reader.close();
+    _dataBuffer.close();
+    FileUtils.deleteQuietly(INDEX_FILE);
+  }
+}
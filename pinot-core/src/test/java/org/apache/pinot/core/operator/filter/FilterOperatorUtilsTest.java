@@ -20,10 +20,13 @@ package org.apache.pinot.core.operator.filter;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.testng.annotations.Test;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
 
@@ -101,4 +104,40 @@ public class FilterOperatorUtilsTest {
         Arrays.asList(MATCH_ALL_FILTER_OPERATOR, REGULAR_FILTER_OPERATOR), NUM_DOCS);
     assertTrue(filterOperator instanceof MatchAllFilterOperator);
   }
+
+  @Test
+  public void testSelectivityBasedAndFilterReorder() {
+    QueryContext queryContext = mock(QueryContext.class);
+    when(queryContext.isSkipScanFilterReorder()).thenReturn(true);
+    when(queryContext.isSelectivityFilterReorder()).thenReturn(true);
+
+    BaseFilterOperator bitmapFilterOperator = mockFilterOperator(BitmapBasedFilterOperator.class, 0.5);
+    BaseFilterOperator unknownScanFilterOperator =
+        mockFilterOperator(ScanBasedFilterOperator.class, BaseFilterOperator.UNKNOWN_SELECTIVITY);
+    BaseFilterOperator lowSelectivityScanFilterOperator = mockFilterOperator(ScanBasedFilterOperator.class, 0.9);
+    BaseFilterOperator highSelectivityScanFilterOperator = mockFilterOperator(ScanBasedFilterOperator.class, 0.01);
+    BaseFilterOperator filterOperator = FilterOperatorUtils.getAndFilterOperator(queryContext,
+        Arrays.asList(unknownScanFilterOperator, lowSelectivityScanFilterOperator, bitmapFilterOperator,
+            highSelectivityScanFilterOperator), NUM_DOCS);
+    assertTrue(filterOperator instanceof AndFilterOperator);
+    List<?> childOperators = filterOperator.getChildOperators();
+    assertEquals(childOperators, Arrays.asList(bitmapFilterOperator, highSelectivityScanFilterOperator,
+        lowSelectivityScanFilterOperator, unknownScanFilterOperator));
+    assertEquals(filterOperator.getEstimatedSelectivity(), 0.5 * 0.9 * 0.01, 1e-9);
+
+    // Without selectivity based reordering, the order of the scan based filter operators should be preserved
+    when(queryContext.isSelectivityFilterReorder()).thenReturn(false);
+    filterOperator = FilterOperatorUtils.getAndFilterOperator(queryContext,
+        Arrays.asList(unknownScanFilterOperator, lowSelectivityScanFilterOperator, bitmapFilterOperator,
+            highSelectivityScanFilterOperator), NUM_DOCS);
+    assertEquals(filterOperator.getChildOperators(), Arrays.asList(bitmapFilterOperator, unknownScanFilterOperator,
+        lowSelectivityScanFilterOperator, highSelectivityScanFilterOperator));
+  }
+
+  private static BaseFilterOperator mockFilterOperator(Class<? extends BaseFilterOperator> filterOperatorClass,
+      double selectivity) {
+    BaseFilterOperator filterOperator = mock(filterOperatorClass);
+    when(filterOperator.getEstimatedSelectivity()).thenReturn(selectivity);
+    return filterOperator;
+  }
 }
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.RequestContextUtils;
+import org.apache.pinot.core.operator.ColumnContext;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class SharedTransformFunctionTest extends BaseTransformFunctionTest {
+
+  @Test
+  public void testSharedSubExpression() {
+    ExpressionContext sharedExpression =
+        RequestContextUtils.getExpression(String.format("add(%s,%s)", INT_SV_COLUMN, LONG_SV_COLUMN));
+    ExpressionContext expression = RequestContextUtils.getExpression(
+        String.format("mult(add(%s,%s),add(%s,%s))", INT_SV_COLUMN, LONG_SV_COLUMN, INT_SV_COLUMN, LONG_SV_COLUMN));
+    Map<String, ColumnContext> columnContextMap = new HashMap<>();
+    _dataSourceMap.forEach((k, v) -> columnContextMap.put(k, ColumnContext.fromDataSource(v)));
+    Map<ExpressionContext, TransformFunction> sharedTransformFunctionMap = new HashMap<>();
+    sharedTransformFunctionMap.put(sharedExpression, null);
+
+    TransformFunction transformFunction =
+        TransformFunctionFactory.get(expression, columnContextMap, null, sharedTransformFunctionMap);
+    assertTrue(transformFunction instanceof MultiplicationTransformFunction);
+    TransformFunction sharedTransformFunction = sharedTransformFunctionMap.get(sharedExpression);
+    assertTrue(sharedTransformFunction instanceof SharedTransformFunction);
+    assertTrue(((SharedTransformFunction) sharedTransformFunction).getTransformFunction()
+        instanceof AdditionTransformFunction);
+
+    double[] expectedValues = new double[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      double sum = (double) _intSVValues[i] + (double) _longSVValues[i];
+      expectedValues[i] = sum * sum;
+    }
+    double[] doubleValues = transformFunction.transformToDoubleValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      assertEquals(doubleValues[i], expectedValues[i]);
+    }
+    // The second argument should reuse the result computed for the first argument
+    assertEquals(((SharedTransformFunction) sharedTransformFunction).getNumReusedEvaluations(), 1L);
+
+    // Evaluating the shared function on the same block again should return the cached array
+    double[] first = sharedTransformFunction.transformToDoubleValuesSV(_projectionBlock);
+    double[] second = sharedTransformFunction.transformToDoubleValuesSV(_projectionBlock);
+    assertSame(first, second);
+  }
+}
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.core.common.BlockValSet;
+import org.apache.pinot.core.query.aggregation.AggregationResultHolder;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.roaringbitmap.RoaringBitmap;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+
+public class NullableSingleInputAggregationFunctionTest {
+  private static final ExpressionContext EXPRESSION = ExpressionContext.forIdentifier("col");
+
+  @Test
+  public void testForEachNotNull() {
+    assertEquals(getNotNullRanges(10, null), List.of(List.of(0, 10)));
+    assertEquals(getNotNullRanges(10, new RoaringBitmap()), List.of(List.of(0, 10)));
+    assertEquals(getNotNullRanges(10, RoaringBitmap.bitmapOf(0, 1, 5, 9)), List.of(List.of(2, 5), List.of(6, 9)));
+    assertEquals(getNotNullRanges(10, RoaringBitmap.bitmapOf(3, 4)), List.of(List.of(0, 3), List.of(5, 10)));
+    // Null indexes beyond the length should be ignored
+    assertEquals(getNotNullRanges(5, RoaringBitmap.bitmapOf(2, 7)), List.of(List.of(0, 2), List.of(3, 5)));
+    RoaringBitmap allNull = new RoaringBitmap();
+    allNull.add(0L, 10L);
+    assertEquals(getNotNullRanges(10, allNull), Collections.emptyList());
+  }
+
+  @Test
+  public void testAggregateWithNullMask() {
+    double[] values = {1, 2, 3, 4, 5, 6};
+    RoaringBitmap nullBitmap = RoaringBitmap.bitmapOf(0, 2, 3);
+    Map<ExpressionContext, BlockValSet> blockValSetMap = getBlockValSetMap(values, nullBitmap);
+
+    SumAggregationFunction sum = new SumAggregationFunction(EXPRESSION, true);
+    AggregationResultHolder sumResultHolder = sum.createAggregationResultHolder();
+    sum.aggregate(values.length, sumResultHolder, blockValSetMap);
+    assertEquals(sum.extractAggregationResult(sumResultHolder), 13.0);
+
+    MinAggregationFunction min = new MinAggregationFunction(EXPRESSION, true);
+    AggregationResultHolder minResultHolder = min.createAggregationResultHolder();
+    min.aggregate(values.length, minResultHolder, blockValSetMap);
+    assertEquals(min.extractAggregationResult(minResultHolder), 2.0);
+
+    MaxAggregationFunction max = new MaxAggregationFunction(EXPRESSION, true);
+    AggregationResultHolder maxResultHolder = max.createAggregationResultHolder();
+    max.aggregate(values.length, maxResultHolder, blockValSetMap);
+    assertEquals(max.extractAggregationResult(maxResultHolder), 6.0);
+
+    AvgAggregationFunction avg = new AvgAggregationFunction(EXPRESSION, true);
+    AggregationResultHolder avgResultHolder = avg.createAggregationResultHolder();
+    avg.aggregate(values.length, avgResultHolder, blockValSetMap);
+    assertEquals(avg.extractFinalResult(avg.extractAggregationResult(avgResultHolder)), 13.0 / 3);
+
+    // All values are null
+    RoaringBitmap allNull = new RoaringBitmap();
+    allNull.add(0L, values.length);
+    AggregationResultHolder allNullResultHolder = sum.createAggregationResultHolder();
+    sum.aggregate(values.length, allNullResultHolder, getBlockValSetMap(values, allNull));
+    assertNull(sum.extractAggregationResult(allNullResultHolder));
+  }
+
+  private static List<List<Integer>> getNotNullRanges(int length, RoaringBitmap nullBitmap) {
+    SumAggregationFunction function = new SumAggregationFunction(EXPRESSION, true);
+    List<List<Integer>> ranges = new ArrayList<>();
+    function.forEachNotNull(length, getBlockValSetMap(new double[length], nullBitmap).get(EXPRESSION),
+        (from, to) -> ranges.add(List.of(from, to)));
+    return ranges;
+  }
+
+  private static Map<ExpressionContext, BlockValSet> getBlockValSetMap(double[] values, RoaringBitmap nullBitmap) {
+    BlockValSet blockValSet = mock(BlockValSet.class);
+    when(blockValSet.getValueType()).thenReturn(DataType.DOUBLE);
+    when(blockValSet.isSingleValue()).thenReturn(true);
+    when(blockValSet.getDoubleValuesSV()).thenReturn(values);
+    when(blockValSet.getNullBitmap()).thenReturn(nullBitmap);
+    return Collections.singletonMap(EXPRESSION, blockValSet);
+  }
+}
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.function;
+
+import it.unimi.dsi.fastutil.doubles.Double2LongOpenHashMap;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.core.common.BlockValSet;
+import org.apache.pinot.core.query.aggregation.AggregationResultHolder;
+import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class PercentileAggregationFunctionTest {
+  private static final ExpressionContext EXPRESSION = ExpressionContext.forIdentifier("col");
+  private static final int NUM_DOCS = 1000;
+  private static final int CARDINALITY = 50;
+
+  @Test
+  public void testDictionaryEncodedAggregation() {
+    Random random = new Random();
+    int[] dictIds = new int[NUM_DOCS];
+    double[] values = new double[NUM_DOCS];
+    for (int i = 0; i < NUM_DOCS; i++) {
+      dictIds[i] = random.nextInt(CARDINALITY);
+      values[i] = dictIds[i] * 10;
+    }
+    Dictionary dictionary = mockDictionary();
+
+    for (double percentile : new double[]{0, 10, 50, 90, 99.9, 100}) {
+      PercentileAggregationFunction function = new PercentileAggregationFunction(EXPRESSION, percentile);
+
+      // Dictionary-encoded
+      AggregationResultHolder resultHolder = function.createAggregationResultHolder();
+      function.aggregate(NUM_DOCS, resultHolder, getBlockValSetMap(dictionary, dictIds, values));
+      Object dictResult = function.extractAggregationResult(resultHolder);
+      assertTrue(dictResult instanceof Double2LongOpenHashMap);
+
+      // Raw values
+      AggregationResultHolder rawResultHolder = function.createAggregationResultHolder();
+      function.aggregate(NUM_DOCS, rawResultHolder, getBlockValSetMap(null, dictIds, values));
+      Object rawResult = function.extractAggregationResult(rawResultHolder);
+      assertTrue(rawResult instanceof DoubleArrayList);
+
+      double expected = function.extractFinalResult(new DoubleArrayList(values));
+      assertEquals(function.extractFinalResult(copy(dictResult)), expected);
+      assertEquals(function.extractFinalResult(copy(rawResult)), expected);
+
+      // Merge all combinations of the intermediate result forms
+      DoubleArrayList doubledValues = new DoubleArrayList(values);
+      doubledValues.addAll(new DoubleArrayList(values));
+      double expectedMerged = function.extractFinalResult(doubledValues);
+      assertEquals(function.extractFinalResult(function.merge(copy(dictResult), copy(dictResult))), expectedMerged);
+      assertEquals(function.extractFinalResult(function.merge(copy(dictResult), copy(rawResult))), expectedMerged);
+      assertEquals(function.extractFinalResult(function.merge(copy(rawResult), copy(dictResult))), expectedMerged);
+      assertEquals(function.extractFinalResult(function.merge(copy(rawResult), copy(rawResult))), expectedMerged);
+    }
+  }
+
+  @Test
+  public void testDictionaryEncodedGroupBy() {
+    int[] dictIds = new int[NUM_DOCS];
+    double[] values = new double[NUM_DOCS];
+    int[] groupKeys = new int[NUM_DOCS];
+    DoubleArrayList[] expectedValues = {new DoubleArrayList(), new DoubleArrayList()};
+    for (int i = 0; i < NUM_DOCS; i++) {
+      dictIds[i] = (i * 7) % CARDINALITY;
+      values[i] = dictIds[i] * 10;
+      groupKeys[i] = i % 2;
+      expectedValues[i % 2].add(values[i]);
+    }
+
+    PercentileAggregationFunction function = new PercentileAggregationFunction(EXPRESSION, 50.0);
+    GroupByResultHolder resultHolder = function.createGroupByResultHolder(2, 2);
+    function.aggregateGroupBySV(NUM_DOCS, groupKeys, resultHolder,
+        getBlockValSetMap(mockDictionary(), dictIds, values));
+    for (int groupKey = 0; groupKey < 2; groupKey++) {
+      Object result = function.extractGroupByResult(resultHolder, groupKey);
+      assertTrue(result instanceof Double2LongOpenHashMap);
+      assertEquals(function.extractFinalResult(result), function.extractFinalResult(expectedValues[groupKey]));
+    }
+  }
+
+  @Test
+  public void testEmptyResult() {
+    PercentileAggregationFunction function = new PercentileAggregationFunction(EXPRESSION, 50.0);
+    assertEquals(function.extractFinalResult(new DoubleArrayList()), Double.NEGATIVE_INFINITY);
+    assertEquals(function.extractFinalResult(new Double2LongOpenHashMap()), Double.NEGATIVE_INFINITY);
+  }
+
+  private static Dictionary mockDictionary() {
+    Dictionary dictionary = mock(Dictionary.class);
+    when(dictionary.length()).thenReturn(CARDINALITY);
+    when(dictionary.getDoubleValue(anyInt())).thenAnswer(invocation -> invocation.<Integer>getArgument(0) * 10.0);
+    return dictionary;
+  }
+
+  private static Map<ExpressionContext, BlockValSet> getBlockValSetMap(Dictionary dictionary, int[] dictIds,
+      double[] values) {
+    BlockValSet blockValSet = mock(BlockValSet.class);
+    when(blockValSet.getDictionary()).thenReturn(dictionary);
+    when(blockValSet.getDictionaryIdsSV()).thenReturn(dictIds);
+    when(blockValSet.getDoubleValuesSV()).thenReturn(values);
+    return Collections.singletonMap(EXPRESSION, blockValSet);
+  }
+
+  private static Object copy(Object intermediateResult) {
+    if (intermediateResult instanceof DoubleArrayList) {
+      return new DoubleArrayList((DoubleArrayList) intermediateResult);
+    } else {
+      return new Double2LongOpenHashMap((Double2LongOpenHashMap) intermediateResult);
+    }
+  }
+}
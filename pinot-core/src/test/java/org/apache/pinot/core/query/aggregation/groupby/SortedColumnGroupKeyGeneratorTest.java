@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.groupby;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.core.operator.BaseProjectOperator;
+import org.apache.pinot.core.operator.blocks.ValueBlock;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+import org.apache.pinot.core.plan.ProjectPlanNode;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.segment.local.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.ReadMode;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class SortedColumnGroupKeyGeneratorTest {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "SortedColumnGroupKeyGeneratorTest");
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final String SEGMENT_NAME = "testSegment";
+  private static final String SORTED_COLUMN = "sortedColumn";
+  private static final String OTHER_COLUMN = "otherColumn";
+  private static final String METRIC_COLUMN = "metricColumn";
+  // More than 1 block so that the runs of the sorted column span across blocks
+  private static final int NUM_ROWS = 3 * DocIdSetPlanNode.MAX_DOC_PER_CALL + 123;
+  private static final int NUM_ROWS_PER_SORTED_VALUE = 97;
+  private static final int OTHER_COLUMN_CARDINALITY = 7;
+
+  private final Map<List<Object>, List<Long>> _expectedSingleColumnResults = new HashMap<>();
+  private final Map<List<Object>, List<Long>> _expectedMultiColumnResults = new HashMap<>();
+  private IndexSegment _indexSegment;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    Random random = new Random();
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      int sortedValue = i / NUM_ROWS_PER_SORTED_VALUE;
+      int otherValue = random.nextInt(OTHER_COLUMN_CARDINALITY);
+      int metricValue = random.nextInt(100);
+      GenericRow row = new GenericRow();
+      row.putValue(SORTED_COLUMN, sortedValue);
+      row.putValue(OTHER_COLUMN, otherValue);
+      row.putValue(METRIC_COLUMN, metricValue);
+      rows.add(row);
+      addToExpectedResults(_expectedSingleColumnResults, Arrays.<Object>asList(sortedValue), metricValue);
+      addToExpectedResults(_expectedMultiColumnResults, Arrays.<Object>asList(sortedValue, otherValue), metricValue);
+    }
+
+    Schema schema = new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME)
+        .addSingleValueDimension(SORTED_COLUMN, DataType.INT).addSingleValueDimension(OTHER_COLUMN, DataType.INT)
+        .addMetric(METRIC_COLUMN, DataType.INT).build();
+    TableConfig tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME).build();
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(tableConfig, schema);
+    config.setOutDir(INDEX_DIR.getPath());
+    config.setSegmentName(SEGMENT_NAME);
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows));
+    driver.build();
+    _indexSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), ReadMode.mmap);
+    assertTrue(_indexSegment.getDataSource(SORTED_COLUMN).getDataSourceMetadata().isSorted());
+    assertFalse(_indexSegment.getDataSource(OTHER_COLUMN).getDataSourceMetadata().isSorted());
+  }
+
+  private static void addToExpectedResults(Map<List<Object>, List<Long>> expectedResults, List<Object> key,
+      int metricValue) {
+    expectedResults.merge(key, Arrays.asList(1L, (long) metricValue),
+        (oldValue, newValue) -> Arrays.asList(oldValue.get(0) + 1, oldValue.get(1) + metricValue));
+  }
+
+  @Test
+  public void testSingleColumn() {
+    String query = "SELECT COUNT(*), SUM(metricColumn) FROM testTable GROUP BY sortedColumn";
+    // Sorted column group key generator is only used when enabled with the query option
+    DefaultGroupByExecutor groupByExecutor = runGroupBy(query, false);
+    assertTrue(groupByExecutor.getGroupKeyGenerator() instanceof DictionaryBasedGroupKeyGenerator);
+    assertEquals(getResults(groupByExecutor), _expectedSingleColumnResults);
+
+    groupByExecutor = runGroupBy(query, true);
+    assertTrue(groupByExecutor.getGroupKeyGenerator() instanceof SortedColumnGroupKeyGenerator);
+    assertEquals(getResults(groupByExecutor), _expectedSingleColumnResults);
+  }
+
+  @Test
+  public void testMultiColumns() {
+    String query = "SELECT COUNT(*), SUM(metricColumn) FROM testTable GROUP BY sortedColumn, otherColumn";
+    DefaultGroupByExecutor groupByExecutor = runGroupBy(query, false);
+    assertTrue(groupByExecutor.getGroupKeyGenerator() instanceof DictionaryBasedGroupKeyGenerator);
+    assertEquals(getResults(groupByExecutor), _expectedMultiColumnResults);
+
+    groupByExecutor = runGroupBy(query, true);
+    assertTrue(groupByExecutor.getGroupKeyGenerator() instanceof SortedColumnGroupKeyGenerator);
+    assertEquals(getResults(groupByExecutor), _expectedMultiColumnResults);
+  }
+
+  @Test
+  public void testNotApplicable() {
+    // The sorted column must be the leading group-by column
+    String query = "SELECT COUNT(*), SUM(metricColumn) FROM testTable GROUP BY otherColumn, sortedColumn";
+    DefaultGroupByExecutor groupByExecutor = runGroupBy(query, true);
+    assertTrue(groupByExecutor.getGroupKeyGenerator() instanceof DictionaryBasedGroupKeyGenerator);
+  }
+
+  @Test
+  public void testNumGroupsLimit() {
+    String query = "SELECT COUNT(*), SUM(metricColumn) FROM testTable GROUP BY sortedColumn, otherColumn";
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContext(query);
+    queryContext.setUseSortedColumnGroupBy(true);
+    queryContext.setNumGroupsLimit(10);
+    DefaultGroupByExecutor groupByExecutor = runGroupBy(queryContext);
+    assertTrue(groupByExecutor.getGroupKeyGenerator() instanceof SortedColumnGroupKeyGenerator);
+    Map<List<Object>, List<Long>> results = getResults(groupByExecutor);
+    assertEquals(results.size(), 10);
+    // The kept groups should still have the complete aggregation results
+    for (Map.Entry<List<Object>, List<Long>> entry : results.entrySet()) {
+      assertEquals(entry.getValue(), _expectedMultiColumnResults.get(entry.getKey()));
+    }
+  }
+
+  private DefaultGroupByExecutor runGroupBy(String query, boolean useSortedColumnGroupBy) {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContext(query);
+    queryContext.setUseSortedColumnGroupBy(useSortedColumnGroupBy);
+    return runGroupBy(queryContext);
+  }
+
+  private DefaultGroupByExecutor runGroupBy(QueryContext queryContext) {
+    List<ExpressionContext> groupByExpressions = queryContext.getGroupByExpressions();
+    assert groupByExpressions != null;
+    List<ExpressionContext> expressions = new ArrayList<>(groupByExpressions);
+    expressions.add(ExpressionContext.forIdentifier(METRIC_COLUMN));
+    BaseProjectOperator<?> projectOperator =
+        new ProjectPlanNode(_indexSegment, queryContext, expressions, DocIdSetPlanNode.MAX_DOC_PER_CALL).run();
+    DefaultGroupByExecutor groupByExecutor = new DefaultGroupByExecutor(queryContext,
+        groupByExpressions.toArray(new ExpressionContext[0]), projectOperator);
+    ValueBlock valueBlock;
+    while ((valueBlock = projectOperator.nextBlock()) != null) {
+      groupByExecutor.process(valueBlock);
+    }
+    return groupByExecutor;
+  }
+
+  private static Map<List<Object>, List<Long>> getResults(DefaultGroupByExecutor groupByExecutor) {
+    AggregationGroupByResult groupByResult = groupByExecutor.getResult();
+    Map<List<Object>, List<Long>> results = new HashMap<>();
+    Iterator<GroupKeyGenerator.GroupKey> groupKeyIterator = groupByResult.getGroupKeyIterator();
+    while (groupKeyIterator.hasNext()) {
+      GroupKeyGenerator.GroupKey groupKey = groupKeyIterator.next();
+      long count = (Long) groupByResult.getResultForGroupId(0, groupKey._groupId);
+      long sum = ((Double) groupByResult.getResultForGroupId(1, groupKey._groupId)).longValue();
+      results.put(Arrays.asList(groupKey._keys.clone()), Arrays.asList(count, sum));
+    }
+    groupByResult.close();
+    return results;
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _indexSegment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
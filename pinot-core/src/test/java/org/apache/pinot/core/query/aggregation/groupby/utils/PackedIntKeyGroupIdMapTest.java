@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.groupby.utils;
+
+import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+
+public class PackedIntKeyGroupIdMapTest {
+
+  @Test
+  public void testGetGroupId() {
+    // Enough groups to trigger multiple hash table resizes and key chunk allocations
+    int numGroups = 100_000;
+    PackedIntKeyGroupIdMap groupIdMap = new PackedIntKeyGroupIdMap(3);
+    for (int i = 0; i < numGroups; i++) {
+      assertEquals(groupIdMap.getGroupId(new int[]{i, i % 7, -i}, Integer.MAX_VALUE), i);
+    }
+    assertEquals(groupIdMap.size(), numGroups);
+
+    // Existing keys should map to the same group ids
+    int[] key = new int[3];
+    for (int i = 0; i < numGroups; i++) {
+      assertEquals(groupIdMap.getGroupId(new int[]{i, i % 7, -i}, Integer.MAX_VALUE), i);
+      groupIdMap.getKey(i, key);
+      assertEquals(key, new int[]{i, i % 7, -i});
+    }
+    assertEquals(groupIdMap.size(), numGroups);
+
+    // New key should not be added when the map is full
+    assertEquals(groupIdMap.getGroupId(new int[]{-1, -1, -1}, numGroups), GroupKeyGenerator.INVALID_ID);
+    assertEquals(groupIdMap.size(), numGroups);
+    groupIdMap.close();
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.prefetch;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.apache.pinot.segment.spi.FetchContext;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
+import org.apache.pinot.segment.spi.index.IndexType;
+import org.apache.pinot.segment.spi.index.StandardIndexes;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
+import org.apache.pinot.segment.spi.index.reader.RangeIndexReader;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+
+public class IndexAwareFetchPlannerTest {
+  @Test
+  public void testPlanFetchForProcessing() {
+    IndexAwareFetchPlanner planner = new IndexAwareFetchPlanner();
+    IndexSegment indexSegment = mock(IndexSegment.class);
+    when(indexSegment.getSegmentName()).thenReturn("s0");
+    when(indexSegment.getColumnNames()).thenReturn(ImmutableSet.of("c0", "c1", "c2", "c3", "c4"));
+    // c0 has inverted index, c1 has range index, c2 has no index, c3 is dictionary-encoded, c4 is raw
+    DataSource ds0 = mockDataSource(indexSegment, "c0", true);
+    when(ds0.getInvertedIndex()).thenReturn(mock(InvertedIndexReader.class));
+    DataSource ds1 = mockDataSource(indexSegment, "c1", true);
+    when(ds1.getRangeIndex()).thenReturn(mock(RangeIndexReader.class));
+    mockDataSource(indexSegment, "c2", true);
+    mockDataSource(indexSegment, "c3", true);
+    mockDataSource(indexSegment, "c4", false);
+
+    String query =
+        "SELECT c3, SUM(c4) FROM testTable WHERE c0 = 0 OR (c1 < 10 AND c2 IN (1, 2)) OR c5 = 'x' GROUP BY c3";
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContext(query);
+    FetchContext fetchContext = planner.planFetchForProcessing(indexSegment, queryContext);
+    assertEquals(fetchContext.getSegmentName(), "s0");
+    Map<String, List<IndexType<?, ?, ?>>> columns = fetchContext.getColumnToIndexList();
+    // c5 does not exist in the segment
+    assertEquals(columns.size(), 5);
+    assertEquals(columns.get("c0"), Arrays.asList(StandardIndexes.dictionary(), StandardIndexes.inverted()));
+    assertEquals(columns.get("c1"), Arrays.asList(StandardIndexes.dictionary(), StandardIndexes.range()));
+    assertEquals(columns.get("c2"), Arrays.asList(StandardIndexes.dictionary(), StandardIndexes.forward()));
+    assertEquals(columns.get("c3"), Arrays.asList(StandardIndexes.dictionary(), StandardIndexes.forward()));
+    assertEquals(columns.get("c4"), Collections.singletonList(StandardIndexes.forward()));
+  }
+
+  private static DataSource mockDataSource(IndexSegment indexSegment, String column, boolean hasDictionary) {
+    DataSource dataSource = mock(DataSource.class);
+    DataSourceMetadata dataSourceMetadata = mock(DataSourceMetadata.class);
+    when(dataSource.getDataSourceMetadata()).thenReturn(dataSourceMetadata);
+    if (hasDictionary) {
+      when(dataSource.getDictionary()).thenReturn(mock(Dictionary.class));
+    }
+    when(indexSegment.getDataSource(column)).thenReturn(dataSource);
+    return dataSource;
+  }
+}
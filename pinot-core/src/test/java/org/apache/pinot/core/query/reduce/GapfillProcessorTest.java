@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.reduce;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.response.broker.ResultTable;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.apache.pinot.core.util.GapfillUtils;
+import org.apache.pinot.spi.exception.EarlyTerminationException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+
+public class GapfillProcessorTest {
+  private static final String QUERY = "SELECT GapFill(DATETIMECONVERT(eventTime, '1:MILLISECONDS:EPOCH', "
+      + "    '1:MILLISECONDS:SIMPLE_DATE_FORMAT:yyyy-MM-dd HH:mm:ss.SSS', '1:HOURS'), "
+      + "    '1:MILLISECONDS:SIMPLE_DATE_FORMAT:yyyy-MM-dd HH:mm:ss.SSS', "
+      + "    '2021-11-07 4:00:00.000',  '2021-11-07 12:00:00.000', '1:HOURS',"
+      + "     FILL(isOccupied, 'FILL_PREVIOUS_VALUE'), TIMESERIESON(levelId, lotId)) AS time_col,"
+      + "     levelId, lotId, isOccupied "
+      + "FROM parkingData "
+      + "LIMIT 1000000 ";
+  private static final int NUM_THREADS = 4;
+  private static final int NUM_ENTITIES = 25_000;
+  private static final int NUM_TIME_BUCKETS = 8;
+
+  private ExecutorService _executorService;
+
+  @BeforeClass
+  public void setUp() {
+    _executorService = Executors.newFixedThreadPool(NUM_THREADS);
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _executorService.shutdownNow();
+  }
+
+  @Test
+  public void testProcessInParallel() {
+    // Without the reducer context, all the items are processed within one range
+    BaseGapfillProcessor gapfillProcessor = getGapfillProcessor(null);
+    assertRanges(gapfillProcessor.processInParallel(100_000, (fromIndex, toIndex) -> new int[]{fromIndex, toIndex}),
+        100_000, 1);
+
+    // Not enough items for multiple tasks
+    gapfillProcessor = getGapfillProcessor(getReducerContext());
+    assertRanges(gapfillProcessor.processInParallel(15_000, (fromIndex, toIndex) -> new int[]{fromIndex, toIndex}),
+        15_000, 1);
+    assertRanges(gapfillProcessor.processInParallel(25_000, (fromIndex, toIndex) -> new int[]{fromIndex, toIndex}),
+        25_000, 2);
+
+    // Number of tasks is capped by the max reduce threads per query
+    assertRanges(gapfillProcessor.processInParallel(100_001, (fromIndex, toIndex) -> new int[]{fromIndex, toIndex}),
+        100_001, NUM_THREADS);
+  }
+
+  private static void assertRanges(List<int[]> ranges, int numItems, int expectedNumRanges) {
+    assertEquals(ranges.size(), expectedNumRanges);
+    int expectedFromIndex = 0;
+    for (int[] range : ranges) {
+      assertEquals(range[0], expectedFromIndex);
+      expectedFromIndex = range[1];
+    }
+    assertEquals(expectedFromIndex, numItems);
+  }
+
+  @Test
+  public void testParallelGapfillMatchesSequentialGapfill() {
+    assertMatchesSequentialGapfill(getReducerContext());
+    // With 2 threads, the rows are parsed in multiple chunks of 20_000 rows
+    assertMatchesSequentialGapfill(new DataTableReducerContext(_executorService, 2, 10_000L, 1_000_000));
+  }
+
+  @Test(expectedExceptions = EarlyTerminationException.class)
+  public void testReduceDeadlineExceeded() {
+    // Deadline of the whole reduce phase is already reached when the gapfill phase starts
+    DataTableReducerContext reducerContext =
+        new DataTableReducerContext(_executorService, NUM_THREADS, 10_000L, 1_000_000, System.currentTimeMillis() - 1);
+    getGapfillProcessor(reducerContext).process(getBrokerResponse());
+  }
+
+  private void assertMatchesSequentialGapfill(DataTableReducerContext reducerContext) {
+    BrokerResponseNative sequentialResponse = getBrokerResponse();
+    getGapfillProcessor(null).process(sequentialResponse);
+    BrokerResponseNative parallelResponse = getBrokerResponse();
+    getGapfillProcessor(reducerContext).process(parallelResponse);
+
+    List<Object[]> sequentialRows = sequentialResponse.getResultTable().getRows();
+    List<Object[]> parallelRows = parallelResponse.getResultTable().getRows();
+    assertEquals(sequentialRows.size(), NUM_TIME_BUCKETS * NUM_ENTITIES);
+    assertEquals(parallelRows.size(), sequentialRows.size());
+    int[] numOccupiedPerTimeBucket = new int[NUM_TIME_BUCKETS];
+    for (int i = 0; i < sequentialRows.size(); i++) {
+      Object[] row = parallelRows.get(i);
+      assertEquals(row, sequentialRows.get(i));
+      numOccupiedPerTimeBucket[i / NUM_ENTITIES] += (int) row[3];
+    }
+    // All the entities are occupied in the first time bucket, then the even entities become unoccupied in the second
+    // time bucket and the odd entities keep the previous value afterwards
+    assertEquals(numOccupiedPerTimeBucket[0], NUM_ENTITIES);
+    for (int i = 1; i < NUM_TIME_BUCKETS; i++) {
+      assertEquals(numOccupiedPerTimeBucket[i], NUM_ENTITIES / 2);
+    }
+  }
+
+  private DataTableReducerContext getReducerContext() {
+    return new DataTableReducerContext(_executorService, NUM_THREADS, 10_000L, 1_000_000);
+  }
+
+  private static BaseGapfillProcessor getGapfillProcessor(DataTableReducerContext reducerContext) {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContext(QUERY);
+    return GapfillProcessorFactory.getGapfillProcessor(queryContext, GapfillUtils.getGapfillType(queryContext),
+        reducerContext);
+  }
+
+  private static BrokerResponseNative getBrokerResponse() {
+    DataSchema dataSchema = new DataSchema(new String[]{"time_col", "levelId", "lotId", "isOccupied"},
+        new ColumnDataType[]{ColumnDataType.STRING, ColumnDataType.STRING, ColumnDataType.STRING, ColumnDataType.INT});
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < NUM_ENTITIES; i++) {
+      rows.add(new Object[]{"2021-11-07 04:00:00.000", "Level_" + i % 10, "LotId_" + i, 1});
+    }
+    for (int i = 0; i < NUM_ENTITIES; i += 2) {
+      rows.add(new Object[]{"2021-11-07 05:00:00.000", "Level_" + i % 10, "LotId_" + i, 0});
+    }
+    BrokerResponseNative brokerResponse = new BrokerResponseNative();
+    brokerResponse.setResultTable(new ResultTable(dataSchema, rows));
+    return brokerResponse;
+  }
+}
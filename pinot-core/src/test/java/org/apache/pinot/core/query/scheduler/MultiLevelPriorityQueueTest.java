@@ -185,6 +185,43 @@ public class MultiLevelPriorityQueueTest {
     assertEquals(reader._readQueries.size(), 1);
   }
 
+  @Test
+  public void testTakeWithCostLimit()
+      throws OutOfCapacityException, BrokenBarrierException, InterruptedException {
+    // Test that take() will not return query if it does not fit into the running cost limit of its group
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(MultiLevelPriorityQueue.MAX_RUNNING_COST_MS_PER_GROUP_KEY, 10);
+    PinotConfiguration configuration = new PinotConfiguration(properties);
+    MultiLevelPriorityQueue queue = createQueue(configuration, new UnboundedResourceManager(configuration));
+
+    SchedulerQueryContext groupOneQuery = createQueryRequest(GROUP_ONE, METRICS);
+    groupOneQuery.setEstimatedCostNs(TimeUnit.MILLISECONDS.toNanos(5));
+    queue.put(groupOneQuery);
+    SchedulerQueryContext groupTwoQuery = createQueryRequest(GROUP_TWO, METRICS);
+    groupTwoQuery.setEstimatedCostNs(TimeUnit.MILLISECONDS.toNanos(5));
+    queue.put(groupTwoQuery);
+
+    // group one has higher priority but its running queries are too expensive
+    TestSchedulerGroup testGroupOne = GROUP_FACTORY._groupMap.get(GROUP_ONE);
+    testGroupOne.startQuery();
+    testGroupOne.addRunningCost(TimeUnit.MILLISECONDS.toNanos(8));
+    QueueReader reader = new QueueReader(queue);
+    reader.startAndWaitForRead();
+    assertEquals(reader._readQueries.size(), 1);
+    assertEquals(reader._readQueries.poll().getSchedulerGroup().name(), GROUP_TWO);
+
+    reader = new QueueReader(queue);
+    reader.startAndWaitForQueueWakeup();
+    assertEquals(reader._readQueries.size(), 0);
+
+    // running query finished
+    testGroupOne.endQuery();
+    testGroupOne.releaseRunningCost(TimeUnit.MILLISECONDS.toNanos(8));
+    sleepForQueueWakeup(queue);
+    assertEquals(reader._readQueries.size(), 1);
+    assertEquals(reader._readQueries.poll().getSchedulerGroup().name(), GROUP_ONE);
+  }
+
   private void sleepForQueueWakeup(MultiLevelPriorityQueue queue)
       throws InterruptedException {
     // sleep is okay since we sleep for short time
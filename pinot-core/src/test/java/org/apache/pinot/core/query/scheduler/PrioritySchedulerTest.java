@@ -70,6 +70,8 @@ public class PrioritySchedulerTest {
   private static CyclicBarrier _startupBarrier;
   private static CyclicBarrier _validationBarrier;
   private static CountDownLatch _numQueries = new CountDownLatch(1);
+  // When positive, queries run for longer than this timeout and fail with timeout error
+  private static long _queryTimeoutMs = 0;
 
   @AfterMethod
   public void afterMethod() {
@@ -77,6 +79,7 @@ public class PrioritySchedulerTest {
     _startupBarrier = null;
     _validationBarrier = null;
     _numQueries = new CountDownLatch(1);
+    _queryTimeoutMs = 0;
   }
 
   // Tests that there is no "hang" on stop
@@ -219,6 +222,41 @@ public class PrioritySchedulerTest {
     scheduler.stop();
   }
 
+  @Test
+  public void testRejectQueriesTimingOut()
+      throws Exception {
+    _queryTimeoutMs = 100;
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PriorityScheduler.MAX_QUERY_COST_MS_KEY, 50);
+    TestPriorityScheduler scheduler = TestPriorityScheduler.create(new PinotConfiguration(properties));
+    scheduler.start();
+
+    // Cost of the timed out query should be recorded so that the same query is rejected afterwards
+    DataTable dataTable = DataTableFactory.getDataTable(scheduler.submit(createServerQueryRequest("1", METRICS)).get());
+    assertTrue(dataTable.getExceptions().containsKey(QueryException.EXECUTION_TIMEOUT_ERROR_CODE));
+    dataTable = DataTableFactory.getDataTable(scheduler.submit(createServerQueryRequest("1", METRICS)).get());
+    assertTrue(dataTable.getExceptions().containsKey(QueryException.SERVER_OUT_OF_CAPACITY_ERROR.getErrorCode()));
+    scheduler.stop();
+  }
+
+  @Test
+  public void testTimedOutQueryCostCappedAtTimeout()
+      throws Exception {
+    _queryTimeoutMs = 100;
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PriorityScheduler.MAX_QUERY_COST_MS_KEY, 150);
+    TestPriorityScheduler scheduler = TestPriorityScheduler.create(new PinotConfiguration(properties));
+    scheduler.start();
+
+    // Queries run for twice the timeout, but the recorded cost should not exceed the timeout
+    for (int i = 0; i < 3; i++) {
+      DataTable dataTable =
+          DataTableFactory.getDataTable(scheduler.submit(createServerQueryRequest("1", METRICS)).get());
+      assertTrue(dataTable.getExceptions().containsKey(QueryException.EXECUTION_TIMEOUT_ERROR_CODE));
+    }
+    scheduler.stop();
+  }
+
   @Test
   public void testSubmitBeforeRunning()
       throws ExecutionException, InterruptedException, IOException {
@@ -308,6 +346,13 @@ public class PrioritySchedulerTest {
       }
       InstanceResponseBlock instanceResponse = new InstanceResponseBlock();
       instanceResponse.addMetadata(MetadataKey.TABLE.getName(), queryRequest.getTableNameWithType());
+      if (_queryTimeoutMs > 0) {
+        queryRequest.getQueryContext()
+            .setEndTimeMs(queryRequest.getTimerContext().getQueryArrivalTimeMs() + _queryTimeoutMs);
+        Uninterruptibles.sleepUninterruptibly(2 * _queryTimeoutMs, TimeUnit.MILLISECONDS);
+        instanceResponse.addException(
+            QueryException.getException(QueryException.EXECUTION_TIMEOUT_ERROR, "Timed out while executing the query"));
+      }
       if (_useBarrier) {
         try {
           _validationBarrier.await();
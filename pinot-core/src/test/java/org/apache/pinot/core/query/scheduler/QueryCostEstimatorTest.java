@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.request.InstanceRequest;
+import org.apache.pinot.core.query.request.ServerQueryRequest;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.metrics.PinotMetricUtils;
+import org.apache.pinot.sql.parsers.CalciteSqlCompiler;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class QueryCostEstimatorTest {
+  private static final ServerMetrics METRICS = new ServerMetrics(PinotMetricUtils.getPinotMetricsRegistry());
+
+  @Test
+  public void testFingerprint() {
+    assertEquals(QueryCostEstimator.getFingerprint(createRequest("SELECT COUNT(*) FROM myTable WHERE a = 1", 1)),
+        QueryCostEstimator.getFingerprint(createRequest("SELECT COUNT(*) FROM myTable WHERE a = 2", 1)));
+    assertNotEquals(QueryCostEstimator.getFingerprint(createRequest("SELECT COUNT(*) FROM myTable WHERE a = 1", 1)),
+        QueryCostEstimator.getFingerprint(createRequest("SELECT COUNT(*) FROM myTable WHERE b = 1", 1)));
+    assertNotEquals(QueryCostEstimator.getFingerprint(createRequest("SELECT COUNT(*) FROM myTable", 1)),
+        QueryCostEstimator.getFingerprint(createRequest("SELECT COUNT(*) FROM myTable GROUP BY a", 1)));
+  }
+
+  @Test
+  public void testEstimate() {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(QueryCostEstimator.DEFAULT_SEGMENT_COST_MICROS_KEY, 100);
+    properties.put(QueryCostEstimator.COST_HISTORY_WEIGHT_KEY, 0.5);
+    QueryCostEstimator estimator = new QueryCostEstimator(new PinotConfiguration(properties), () -> 0L);
+
+    // Default cost per segment without history
+    ServerQueryRequest request = createRequest("SELECT COUNT(*) FROM myTable WHERE a = 1", 4);
+    QueryCostEstimator.Estimate estimate = estimator.estimate(request);
+    assertEquals(estimate.getCostNs(), TimeUnit.MICROSECONDS.toNanos(400));
+    assertFalse(estimate.isFromQueryHistory());
+
+    // Cost per segment from the history of the fingerprint
+    estimator.record(request, TimeUnit.MILLISECONDS.toNanos(4));
+    estimate = estimator.estimate(createRequest("SELECT COUNT(*) FROM myTable WHERE a = 5", 2));
+    assertEquals(estimate.getCostNs(), TimeUnit.MILLISECONDS.toNanos(2));
+    assertTrue(estimate.isFromQueryHistory());
+    estimator.record(request, TimeUnit.MILLISECONDS.toNanos(12));
+    assertEquals(estimator.estimate(request).getCostNs(), TimeUnit.MILLISECONDS.toNanos(8));
+
+    // Fall back to the history of the table
+    ServerQueryRequest otherRequest = createRequest("SELECT SUM(b) FROM myTable GROUP BY c", 1);
+    estimate = estimator.estimate(otherRequest);
+    assertEquals(estimate.getCostNs(), TimeUnit.MILLISECONDS.toNanos(2));
+    assertFalse(estimate.isFromQueryHistory());
+
+    // Non-positive cost is ignored
+    estimator.record(otherRequest, -1);
+    assertEquals(estimator.estimate(otherRequest).getCostNs(), TimeUnit.MILLISECONDS.toNanos(2));
+  }
+
+  @Test
+  public void testEstimateRecovers() {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(QueryCostEstimator.COST_HISTORY_WEIGHT_KEY, 0.5);
+    properties.put(QueryCostEstimator.COST_HISTORY_HALF_LIFE_MS_KEY, 1000L);
+    AtomicLong clock = new AtomicLong();
+    QueryCostEstimator estimator = new QueryCostEstimator(new PinotConfiguration(properties), clock::get);
+    long maxQueryCostNs = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // An expensive run pushes the estimate over the limit
+    ServerQueryRequest request = createRequest("SELECT COUNT(*) FROM myTable WHERE a = 1", 1);
+    estimator.record(request, TimeUnit.MILLISECONDS.toNanos(40));
+    assertEquals(estimator.estimate(request).getCostNs(), TimeUnit.MILLISECONDS.toNanos(40));
+
+    // Without new samples (the query is rejected), the estimate halves every half-life and drops below the limit
+    clock.set(1000L);
+    assertEquals(estimator.estimate(request).getCostNs(), TimeUnit.MILLISECONDS.toNanos(20));
+    clock.set(3000L);
+    assertTrue(estimator.estimate(request).getCostNs() <= maxQueryCostNs);
+
+    // The admitted query refreshes the history with its actual cost
+    estimator.record(request, TimeUnit.MILLISECONDS.toNanos(2));
+    assertEquals(estimator.estimate(request).getCostNs(), TimeUnit.MICROSECONDS.toNanos(3500));
+  }
+
+  private static ServerQueryRequest createRequest(String query, int numSegments) {
+    InstanceRequest request = new InstanceRequest();
+    request.setBrokerId("broker");
+    request.setEnableTrace(false);
+    request.setRequestId(1);
+    String[] segments = new String[numSegments];
+    for (int i = 0; i < numSegments; i++) {
+      segments[i] = "segment" + i;
+    }
+    request.setSearchSegments(Arrays.asList(segments));
+    request.setQuery(CalciteSqlCompiler.compileToBrokerRequest(query));
+    return new ServerQueryRequest(request, METRICS, System.currentTimeMillis());
+  }
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.selection;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class TopKBoundaryValueTest {
+
+  @Test
+  public void testAscending() {
+    TopKBoundaryValue boundaryValue = new TopKBoundaryValue(true);
+    assertNull(boundaryValue.get());
+
+    boundaryValue.update(10);
+    assertEquals(boundaryValue.get(), 10);
+    // Boundary is only tightened
+    boundaryValue.update(20);
+    assertEquals(boundaryValue.get(), 10);
+    boundaryValue.update(5);
+    assertEquals(boundaryValue.get(), 5);
+
+    assertTrue(boundaryValue.isBeyond(6, 5));
+    assertFalse(boundaryValue.isBeyond(5, 5));
+    assertFalse(boundaryValue.isBeyond(4, 5));
+
+    assertEquals(boundaryValue.tighter(null, 3), 3);
+    assertEquals(boundaryValue.tighter(3, null), 3);
+    assertEquals(boundaryValue.tighter(3, 4), 3);
+    assertNull(boundaryValue.tighter(null, null));
+  }
+
+  @Test
+  public void testDescending() {
+    TopKBoundaryValue boundaryValue = new TopKBoundaryValue(false);
+    assertNull(boundaryValue.get());
+
+    boundaryValue.update("b");
+    assertEquals(boundaryValue.get(), "b");
+    boundaryValue.update("a");
+    assertEquals(boundaryValue.get(), "b");
+    boundaryValue.update("c");
+    assertEquals(boundaryValue.get(), "c");
+
+    assertTrue(boundaryValue.isBeyond("b", "c"));
+    assertFalse(boundaryValue.isBeyond("c", "c"));
+    assertFalse(boundaryValue.isBeyond("d", "c"));
+
+    assertEquals(boundaryValue.tighter("a", "b"), "b");
+  }
+}
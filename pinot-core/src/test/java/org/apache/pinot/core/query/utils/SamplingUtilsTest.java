@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.utils;
+
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class SamplingUtilsTest {
+
+  @Test
+  public void testGetSampledDocIds() {
+    int numDocs = 100 * SamplingUtils.DOC_RANGE_SIZE + 10;
+    int numRanges = 101;
+    for (double sampleRate : new double[]{0.01, 0.1, 0.25, 0.5, 0.99}) {
+      for (int seed : new int[]{0, 1, -1, 12345, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+        ImmutableRoaringBitmap sampledDocIds = SamplingUtils.getSampledDocIds(numDocs, sampleRate, seed);
+        assertTrue(sampledDocIds.isEmpty() || sampledDocIds.last() < numDocs);
+
+        // Systematic sampling picks whole ranges, and the number of ranges deviates by at most 1 from the expected
+        int numSampledRanges = 0;
+        for (int i = 0; i < numRanges; i++) {
+          int startDocId = i * SamplingUtils.DOC_RANGE_SIZE;
+          if (sampledDocIds.contains(startDocId)) {
+            numSampledRanges++;
+            int endDocId = Math.min(startDocId + SamplingUtils.DOC_RANGE_SIZE, numDocs);
+            assertEquals(sampledDocIds.rangeCardinality(startDocId, endDocId), endDocId - startDocId);
+          }
+        }
+        assertTrue(Math.abs(numSampledRanges - numRanges * sampleRate) <= 1);
+      }
+    }
+
+    // Sample rate 1 should pick all the documents
+    assertEquals(SamplingUtils.getSampledDocIds(numDocs, 1, 123).getCardinality(), numDocs);
+  }
+
+  @Test
+  public void testScaleFinalResult() {
+    assertEquals(SamplingUtils.scaleFinalResult(25L, 0.1), 250L);
+    assertEquals((double) SamplingUtils.scaleFinalResult(2.5, 0.1), 25.0, 1e-9);
+    assertEquals(SamplingUtils.scaleFinalResult("abc", 0.1), "abc");
+  }
+
+  @Test
+  public void testGetCountConfidenceInterval() {
+    double[] confidenceInterval = SamplingUtils.getCountConfidenceInterval(10000, 0.1);
+    double halfWidth = 1.96 * Math.sqrt(10000 * 0.9) / 0.1;
+    assertEquals(confidenceInterval[0], 100000 - halfWidth, 1e-6);
+    assertEquals(confidenceInterval[1], 100000 + halfWidth, 1e-6);
+
+    // Lower bound should not be negative
+    assertEquals(SamplingUtils.getCountConfidenceInterval(1, 0.01)[0], 0.0);
+  }
+}
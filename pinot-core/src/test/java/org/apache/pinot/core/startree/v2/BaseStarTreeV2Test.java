@@ -96,17 +96,18 @@ abstract class BaseStarTreeV2Test<R, A> {
 
   // Supported filters
   private static final String QUERY_FILTER_AND = " WHERE d1 = 0 AND d2 < 10";
-  // StarTree supports OR predicates only on a single dimension
   private static final String QUERY_FILTER_OR = " WHERE d1 > 10 OR d1 < 50";
+  private static final String QUERY_FILTER_OR_MULTIPLE_DIMENSIONS = " WHERE d1 > 10 OR d2 < 50";
   private static final String QUERY_FILTER_COMPLEX_OR_MULTIPLE_DIMENSIONS = " WHERE d2 < 95 AND (d1 > 10 OR d1 < 50)";
   private static final String QUERY_FILTER_COMPLEX_AND_MULTIPLE_DIMENSIONS_THREE_PREDICATES =
       " WHERE d2 < 95 AND d2 > 25 AND (d1 > 10 OR d1 < 50)";
   private static final String QUERY_FILTER_COMPLEX_OR_MULTIPLE_DIMENSIONS_THREE_PREDICATES =
       " WHERE (d2 > 95 OR d2 < 25) AND (d1 > 10 OR d1 < 50)";
   private static final String QUERY_FILTER_COMPLEX_OR_SINGLE_DIMENSION = " WHERE d1 = 95 AND (d1 > 90 OR d1 < 100)";
+  private static final String QUERY_FILTER_COMPLEX_AND_ON_OR_MULTIPLE_DIMENSIONS =
+      " WHERE (d1 > 10 OR d2 < 50) AND (d1 < 80 OR d2 > 20)";
 
   // Unsupported filters
-  private static final String QUERY_FILTER_OR_MULTIPLE_DIMENSIONS = " WHERE d1 > 10 OR d2 < 50";
   private static final String QUERY_FILTER_OR_ON_AND = " WHERE (d1 > 10 AND d1 < 50) OR d1 < 50";
   private static final String QUERY_FILTER_OR_ON_NOT = " WHERE (NOT d1 > 10) OR d1 < 50";
 
@@ -183,7 +184,6 @@ abstract class BaseStarTreeV2Test<R, A> {
   @Test
   public void testUnsupportedFilters() {
     String query = String.format("SELECT %s FROM %s", _aggregation, TABLE_NAME);
-    testUnsupportedFilter(query + QUERY_FILTER_OR_MULTIPLE_DIMENSIONS);
     testUnsupportedFilter(query + QUERY_FILTER_OR_ON_AND);
     testUnsupportedFilter(query + QUERY_FILTER_OR_ON_NOT);
   }
@@ -201,9 +201,12 @@ abstract class BaseStarTreeV2Test<R, A> {
       testQuery(query + QUERY_FILTER_COMPLEX_AND_MULTIPLE_DIMENSIONS_THREE_PREDICATES);
       testQuery(query + QUERY_FILTER_COMPLEX_OR_MULTIPLE_DIMENSIONS_THREE_PREDICATES);
       testQuery(query + QUERY_FILTER_COMPLEX_OR_SINGLE_DIMENSION);
+      testQuery(query + QUERY_FILTER_OR_MULTIPLE_DIMENSIONS);
+      testQuery(query + QUERY_FILTER_COMPLEX_AND_ON_OR_MULTIPLE_DIMENSIONS);
     }
     // TODO: Test group-by on filtered query after supporting it
     testQuery(nonFilteredQuery + QUERY_GROUP_BY);
+    testQuery(nonFilteredQuery + QUERY_FILTER_OR_MULTIPLE_DIMENSIONS + QUERY_GROUP_BY);
   }
 
   @AfterClass
@@ -217,10 +220,10 @@ abstract class BaseStarTreeV2Test<R, A> {
     QueryContext queryContext = QueryContextConverterUtils.getQueryContext(query);
     FilterPlanNode filterPlanNode = new FilterPlanNode(_indexSegment, queryContext);
     filterPlanNode.run();
-    Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap =
-        StarTreeUtils.extractPredicateEvaluatorsMap(_indexSegment, queryContext.getFilter(),
+    List<Map<String, List<CompositePredicateEvaluator>>> predicateEvaluatorsMaps =
+        StarTreeUtils.extractPredicateEvaluatorsMaps(_indexSegment, queryContext.getFilter(),
             filterPlanNode.getPredicateEvaluators());
-    assertNull(predicateEvaluatorsMap);
+    assertNull(predicateEvaluatorsMaps);
   }
 
   private void testQuery(String query)
@@ -249,14 +252,14 @@ abstract class BaseStarTreeV2Test<R, A> {
     // Filter
     FilterPlanNode filterPlanNode = new FilterPlanNode(_indexSegment, queryContext);
     filterPlanNode.run();
-    Map<String, List<CompositePredicateEvaluator>> predicateEvaluatorsMap =
-        StarTreeUtils.extractPredicateEvaluatorsMap(_indexSegment, queryContext.getFilter(),
+    List<Map<String, List<CompositePredicateEvaluator>>> predicateEvaluatorsMaps =
+        StarTreeUtils.extractPredicateEvaluatorsMaps(_indexSegment, queryContext.getFilter(),
             filterPlanNode.getPredicateEvaluators());
-    assertNotNull(predicateEvaluatorsMap);
+    assertNotNull(predicateEvaluatorsMaps);
 
     // Extract values with star-tree
     StarTreeFilterPlanNode starTreeFilterPlanNode =
-        new StarTreeFilterPlanNode(queryContext, _starTreeV2, predicateEvaluatorsMap, groupByColumnSet);
+        new StarTreeFilterPlanNode(queryContext, _starTreeV2, predicateEvaluatorsMaps, groupByColumnSet);
     List<ForwardIndexReader> starTreeAggregationColumnReaders = new ArrayList<>(numAggregations);
     for (AggregationFunctionColumnPair aggregationFunctionColumnPair : aggregationFunctionColumnPairs) {
       starTreeAggregationColumnReaders.add(
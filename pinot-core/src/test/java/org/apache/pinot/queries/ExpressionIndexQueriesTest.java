@@ -0,0 +1,210 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.queries;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.request.PinotQuery;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.utils.request.RequestUtils;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.operator.blocks.results.AggregationResultsBlock;
+import org.apache.pinot.core.operator.query.AggregationOperator;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.segment.local.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.spi.config.table.ExpressionIndexConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.ExpressionIndexUtils;
+import org.apache.pinot.spi.utils.ReadMode;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.apache.pinot.sql.parsers.CalciteSqlParser;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Queries test for the EXPRESSION index, where the expression override hints set by the broker replace the indexed
+ * expression with the materialized column on the segments that contain it.
+ */
+@SuppressWarnings("rawtypes")
+public class ExpressionIndexQueriesTest extends BaseQueriesTest {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "ExpressionIndexQueriesTest");
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final String SEGMENT_NAME = "testSegment";
+  // Segment created before the EXPRESSION index is added
+  private static final String OLD_SEGMENT_NAME = "oldSegment";
+
+  private static final int NUM_RECORDS = 1000;
+  private static final int NAME_CARDINALITY = 10;
+  private static final String NAME_COLUMN = "name";
+  private static final String VALUE_COLUMN = "value";
+  private static final String EXPRESSION_INDEX_NAME = "lowerName";
+  private static final String EXPRESSION = "lower(name)";
+  private static final String MATERIALIZED_COLUMN = ExpressionIndexUtils.getMaterializedColumn(EXPRESSION_INDEX_NAME);
+
+  private IndexSegment _indexSegment;
+  private List<IndexSegment> _indexSegments;
+  private IndexSegment _oldIndexSegment;
+
+  @Override
+  protected String getFilter() {
+    return "";
+  }
+
+  @Override
+  protected IndexSegment getIndexSegment() {
+    return _indexSegment;
+  }
+
+  @Override
+  protected List<IndexSegment> getIndexSegments() {
+    return _indexSegments;
+  }
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    List<GenericRow> records = new ArrayList<>(NUM_RECORDS);
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      GenericRow record = new GenericRow();
+      String prefix = (i / NAME_CARDINALITY) % 2 == 0 ? "NAME_" : "name_";
+      record.putValue(NAME_COLUMN, prefix + i % NAME_CARDINALITY);
+      record.putValue(VALUE_COLUMN, i);
+      records.add(record);
+    }
+
+    TableConfig tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME).build();
+    tableConfig.getIndexingConfig().setExpressionIndexConfigs(Collections.singletonList(
+        new ExpressionIndexConfig(EXPRESSION_INDEX_NAME, EXPRESSION, DataType.STRING, true, false)));
+    _indexSegment = createSegment(tableConfig, SEGMENT_NAME, records);
+    assertTrue(_indexSegment.getColumnNames().contains(MATERIALIZED_COLUMN));
+    _indexSegments = Arrays.asList(_indexSegment, _indexSegment);
+
+    TableConfig oldTableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME).build();
+    _oldIndexSegment = createSegment(oldTableConfig, OLD_SEGMENT_NAME, records);
+    assertFalse(_oldIndexSegment.getColumnNames().contains(MATERIALIZED_COLUMN));
+  }
+
+  private static ImmutableSegment createSegment(TableConfig tableConfig, String segmentName, List<GenericRow> records)
+      throws Exception {
+    Schema schema = new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME)
+        .addSingleValueDimension(NAME_COLUMN, DataType.STRING).addMetric(VALUE_COLUMN, DataType.INT).build();
+    SegmentGeneratorConfig segmentGeneratorConfig = new SegmentGeneratorConfig(tableConfig, schema);
+    segmentGeneratorConfig.setOutDir(INDEX_DIR.getPath());
+    segmentGeneratorConfig.setSegmentName(segmentName);
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(segmentGeneratorConfig, new GenericRowRecordReader(records));
+    driver.build();
+    return ImmutableSegmentLoader.load(new File(INDEX_DIR, segmentName), ReadMode.mmap);
+  }
+
+  @Test
+  public void testFilter() {
+    String query = "SELECT SUM(value) FROM testTable WHERE lower(name) = 'name_3'";
+    // Sum of the values where value % 10 == 3
+    double expectedSum = 0;
+    for (int i = 3; i < NUM_RECORDS; i += NAME_CARDINALITY) {
+      expectedSum += i;
+    }
+
+    // Filter solved with the inverted index on the materialized column
+    AggregationOperator operator = getOperator(query, _indexSegment, true);
+    AggregationResultsBlock resultsBlock = operator.nextBlock();
+    assertEquals(resultsBlock.getResults().get(0), expectedSum);
+    assertEquals(operator.getExecutionStatistics().getNumEntriesScannedInFilter(), 0);
+
+    // Filter solved by evaluating the expression without the hint
+    operator = getOperator(query, _indexSegment, false);
+    resultsBlock = operator.nextBlock();
+    assertEquals(resultsBlock.getResults().get(0), expectedSum);
+    assertEquals(operator.getExecutionStatistics().getNumEntriesScannedInFilter(), NUM_RECORDS);
+
+    // Hint ignored on the segment without the materialized column
+    operator = getOperator(query, _oldIndexSegment, true);
+    resultsBlock = operator.nextBlock();
+    assertEquals(resultsBlock.getResults().get(0), expectedSum);
+    assertEquals(operator.getExecutionStatistics().getNumEntriesScannedInFilter(), NUM_RECORDS);
+  }
+
+  @Test
+  public void testGroupBy() {
+    String query = "SELECT lower(name), SUM(value) FROM testTable WHERE lower(name) IN ('name_3', 'name_5') "
+        + "GROUP BY lower(name) ORDER BY lower(name)";
+    BrokerResponseNative brokerResponse = getBrokerResponse(compileQuery(query, true), PLAN_MAKER);
+    BrokerResponseNative expectedBrokerResponse = getBrokerResponse(compileQuery(query, false), PLAN_MAKER);
+    assertTrue(brokerResponse.getProcessingExceptions().isEmpty());
+    List<Object[]> rows = brokerResponse.getResultTable().getRows();
+    List<Object[]> expectedRows = expectedBrokerResponse.getResultTable().getRows();
+    assertEquals(rows.size(), 2);
+    for (int i = 0; i < 2; i++) {
+      assertEquals(rows.get(i), expectedRows.get(i));
+    }
+    // 2 instances, each with 2 segments
+    assertEquals(brokerResponse.getNumEntriesScannedInFilter(), 0);
+    assertEquals(expectedBrokerResponse.getNumEntriesScannedInFilter(), 4 * NUM_RECORDS);
+  }
+
+  /**
+   * Compiles the query, and sets the expression override hint the same way as the broker does for the EXPRESSION
+   * index when {@code useExpressionIndex} is {@code true}.
+   */
+  private static PinotQuery compileQuery(String query, boolean useExpressionIndex) {
+    PinotQuery pinotQuery = CalciteSqlParser.compileToPinotQuery(query);
+    if (useExpressionIndex) {
+      pinotQuery.putToExpressionOverrideHints(CalciteSqlParser.compileToExpression(EXPRESSION),
+          RequestUtils.getIdentifierExpression(MATERIALIZED_COLUMN));
+    }
+    return pinotQuery;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T extends Operator> T getOperator(String query, IndexSegment indexSegment,
+      boolean useExpressionIndex) {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContext(compileQuery(query, useExpressionIndex));
+    return (T) PLAN_MAKER.makeSegmentPlanNode(indexSegment, queryContext).run();
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _indexSegment.destroy();
+    _oldIndexSegment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
@@ -211,6 +211,22 @@ public class FilteredAggregationsTest extends BaseQueriesTest {
     testQuery(filterQuery, nonFilterQuery);
   }
 
+  @Test
+  public void testSharedFilteredAggregation() {
+    String query = "SELECT SUM(INT_COL) FILTER(WHERE INT_COL > 9999) sum1, COUNT(*) FILTER(WHERE INT_COL < 3) count1, "
+        + "MAX(NO_INDEX_COL) FILTER(WHERE INT_COL BETWEEN 100 AND 20000) max1, "
+        + "MIN(INT_COL) FILTER(WHERE NO_INDEX_COL <= 1000) min1, AVG(NO_INDEX_COL) FILTER(WHERE INT_COL = -1) avg1, "
+        + "COUNT(*) count2 FROM MyTable WHERE INT_COL < 25000";
+    testQuery("SET useSharedFilteredAggregation=true; " + query, query);
+
+    query = "SELECT SUM(INT_COL) FILTER(WHERE INT_COL > 9999) sum1, SUM(INT_COL) FILTER(WHERE INT_COL > 2000) sum2, "
+        + "MIN(NO_INDEX_COL) FILTER(WHERE BOOLEAN_COL) min1 FROM MyTable";
+    testQuery("SET useSharedFilteredAggregation=true; " + query, query);
+
+    query = "SELECT SUM(INT_COL) FILTER(WHERE INT_COL > 9999) sum1, COUNT(*) count1 FROM MyTable WHERE INT_COL < 0";
+    testQuery("SET useSharedFilteredAggregation=true; " + query, query);
+  }
+
   @Test
   public void testFilterResultColumnNameGroupBy() {
     String filterQuery =
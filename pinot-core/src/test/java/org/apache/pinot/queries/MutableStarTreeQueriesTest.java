@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.queries;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.segment.local.indexsegment.mutable.MutableSegmentImpl;
+import org.apache.pinot.segment.local.io.writer.impl.DirectMemoryManager;
+import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentConfig;
+import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentStatsHistory;
+import org.apache.pinot.segment.spi.AggregationFunctionType;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
+import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.CommonConstants.Broker.Request.QueryOptionKey;
+import org.apache.pinot.util.TestUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Queries test for the star-tree maintained on a consuming segment, where the results with star-tree should match the
+ * results without star-tree.
+ */
+public class MutableStarTreeQueriesTest extends BaseQueriesTest {
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final String REALTIME_TABLE_NAME = RAW_TABLE_NAME + "_REALTIME";
+  private static final String SEGMENT_NAME = "testSegment";
+  private static final Random RANDOM = new Random();
+
+  private static final int NUM_RECORDS = 1000;
+  private static final String D1 = "d1";
+  private static final String D2 = "d2";
+  private static final String M = "m";
+  private static final String[] D1_VALUES = {"a", "b", "c"};
+  private static final int D2_CARDINALITY = 10;
+  private static final Schema SCHEMA =
+      new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME).addSingleValueDimension(D1, DataType.STRING)
+          .addSingleValueDimension(D2, DataType.INT).addMetric(M, DataType.LONG).build();
+  private static final StarTreeIndexConfig STAR_TREE_INDEX_CONFIG =
+      new StarTreeIndexConfig(Arrays.asList(D1, D2), null,
+          Arrays.asList(AggregationFunctionColumnPair.COUNT_STAR.toColumnName(),
+              AggregationFunctionColumnPair.toColumnName(AggregationFunctionType.SUM, M),
+              AggregationFunctionColumnPair.toColumnName(AggregationFunctionType.MAX, M)), 10);
+  private static final Map<String, String> SKIP_STAR_TREE_OPTIONS =
+      Collections.singletonMap(QueryOptionKey.USE_STAR_TREE, "false");
+
+  private MutableSegmentImpl _mutableSegment;
+
+  @Override
+  protected String getFilter() {
+    return "";
+  }
+
+  @Override
+  protected IndexSegment getIndexSegment() {
+    return _mutableSegment;
+  }
+
+  @Override
+  protected List<IndexSegment> getIndexSegments() {
+    return Collections.singletonList(_mutableSegment);
+  }
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    _mutableSegment = createMutableSegment(true);
+    indexRecords(NUM_RECORDS);
+    // The first star-tree is constructed asynchronously
+    TestUtils.waitForCondition(aVoid -> _mutableSegment.getStarTrees() != null, 10_000L,
+        "Failed to construct the star-tree");
+  }
+
+  private static MutableSegmentImpl createMutableSegment(boolean starTreeEnabled) {
+    RealtimeSegmentStatsHistory statsHistory = mock(RealtimeSegmentStatsHistory.class);
+    when(statsHistory.getEstimatedCardinality(anyString())).thenReturn(200);
+    when(statsHistory.getEstimatedAvgColSize(anyString())).thenReturn(32);
+    RealtimeSegmentConfig realtimeSegmentConfig = new RealtimeSegmentConfig.Builder()
+        .setTableNameWithType(REALTIME_TABLE_NAME).setSegmentName(SEGMENT_NAME).setSchema(SCHEMA)
+        .setCapacity(100000).setAvgNumMultiValues(2).setSegmentZKMetadata(new SegmentZKMetadata(SEGMENT_NAME))
+        .setMemoryManager(new DirectMemoryManager(SEGMENT_NAME)).setStatsHistory(statsHistory)
+        .setAggregateMetrics(false).setIngestionAggregationConfigs(Collections.emptyList())
+        .setStarTreeIndexConfigs(Collections.singletonList(STAR_TREE_INDEX_CONFIG)).setStarTreeEnabled(starTreeEnabled)
+        .build();
+    return new MutableSegmentImpl(realtimeSegmentConfig, null);
+  }
+
+  private void indexRecords(int numRecords)
+      throws Exception {
+    for (int i = 0; i < numRecords; i++) {
+      GenericRow record = new GenericRow();
+      record.putValue(D1, D1_VALUES[RANDOM.nextInt(D1_VALUES.length)]);
+      record.putValue(D2, RANDOM.nextInt(D2_CARDINALITY));
+      record.putValue(M, (long) RANDOM.nextInt(1000));
+      _mutableSegment.index(record, null);
+    }
+  }
+
+  @Test
+  public void testQueries()
+      throws Exception {
+    String[] queries = new String[]{
+        "SELECT COUNT(*), SUM(m), MAX(m) FROM testTable",
+        "SELECT COUNT(*), SUM(m), MAX(m) FROM testTable WHERE d1 = 'a'",
+        "SELECT COUNT(*), SUM(m) FROM testTable WHERE d1 IN ('a', 'c') AND d2 > 3",
+        "SELECT d2, COUNT(*), SUM(m), MAX(m) FROM testTable GROUP BY d2 ORDER BY d2",
+        "SELECT d1, d2, SUM(m) FROM testTable WHERE d2 <= 5 GROUP BY d1, d2 ORDER BY d1, d2 LIMIT 100"
+    };
+    for (String query : queries) {
+      testQuery(query);
+    }
+
+    // Records ingested after the star-tree is constructed should be scanned, where the rebuild is rate limited
+    indexRecords(NUM_RECORDS);
+    assertEquals(_mutableSegment.getStarTrees().get(0).getNumSegmentDocsCovered(), NUM_RECORDS);
+    for (String query : queries) {
+      testQuery(query);
+    }
+  }
+
+  @Test
+  public void testStarTreeDisabledByDefault() {
+    MutableSegmentImpl mutableSegment = createMutableSegment(false);
+    try {
+      assertNull(mutableSegment.getStarTrees());
+    } finally {
+      mutableSegment.destroy();
+    }
+  }
+
+  private void testQuery(String query) {
+    BrokerResponseNative starTreeResponse = getBrokerResponse(query);
+    BrokerResponseNative nonStarTreeResponse = getBrokerResponse(query, SKIP_STAR_TREE_OPTIONS);
+    assertTrue(starTreeResponse.getExceptions().isEmpty());
+    assertTrue(nonStarTreeResponse.getExceptions().isEmpty());
+
+    // Star-tree scans the pre-aggregated documents instead of all the ingested records
+    assertTrue(starTreeResponse.getNumDocsScanned() < nonStarTreeResponse.getNumDocsScanned(), query);
+
+    List<Object[]> starTreeRows = starTreeResponse.getResultTable().getRows();
+    List<Object[]> nonStarTreeRows = nonStarTreeResponse.getResultTable().getRows();
+    assertEquals(starTreeRows.size(), nonStarTreeRows.size(), query);
+    for (int i = 0; i < starTreeRows.size(); i++) {
+      assertEquals(starTreeRows.get(i), nonStarTreeRows.get(i), query);
+    }
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _mutableSegment.destroy();
+  }
+}
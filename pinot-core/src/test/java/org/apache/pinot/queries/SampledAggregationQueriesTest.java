@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.queries;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.core.query.utils.SamplingUtils;
+import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.segment.local.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.CommonConstants.Broker.Request.QueryOptionKey;
+import org.apache.pinot.spi.utils.ReadMode;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+
+/**
+ * Queries test for the approximate queries with the {@code sampleRate} query option, which compares the sampled and
+ * scaled results with the full results.
+ */
+public class SampledAggregationQueriesTest extends BaseQueriesTest {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "SampledAggregationQueriesTest");
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final String SEGMENT_NAME = "testSegment";
+
+  // Not a multiple of the doc range size so that the last range is partial
+  private static final int NUM_RECORDS = 100_000;
+  private static final int NUM_GROUPS = 4;
+  private static final String GROUP_COLUMN = "groupColumn";
+  private static final String VALUE_COLUMN = "valueColumn";
+  private static final double SAMPLE_RATE = 0.3;
+  // Each segment is queried twice, and BaseQueriesTest duplicates the server response
+  private static final int NUM_SEGMENTS_QUERIED = 4;
+
+  private static final Schema SCHEMA = new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME)
+      .addSingleValueDimension(GROUP_COLUMN, DataType.INT)
+      .addMetric(VALUE_COLUMN, DataType.INT)
+      .build();
+  private static final TableConfig TABLE_CONFIG =
+      new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME).build();
+
+  private IndexSegment _indexSegment;
+  private List<IndexSegment> _indexSegments;
+
+  @Override
+  protected String getFilter() {
+    return "";
+  }
+
+  @Override
+  protected IndexSegment getIndexSegment() {
+    return _indexSegment;
+  }
+
+  @Override
+  protected List<IndexSegment> getIndexSegments() {
+    return _indexSegments;
+  }
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    List<GenericRow> records = new ArrayList<>(NUM_RECORDS);
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      GenericRow record = new GenericRow();
+      record.putValue(GROUP_COLUMN, i % NUM_GROUPS);
+      record.putValue(VALUE_COLUMN, i % 100);
+      records.add(record);
+    }
+
+    SegmentGeneratorConfig segmentGeneratorConfig = new SegmentGeneratorConfig(TABLE_CONFIG, SCHEMA);
+    segmentGeneratorConfig.setTableName(RAW_TABLE_NAME);
+    segmentGeneratorConfig.setSegmentName(SEGMENT_NAME);
+    segmentGeneratorConfig.setOutDir(INDEX_DIR.getPath());
+
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(segmentGeneratorConfig, new GenericRowRecordReader(records));
+    driver.build();
+
+    ImmutableSegment immutableSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), ReadMode.mmap);
+    _indexSegment = immutableSegment;
+    _indexSegments = Arrays.asList(immutableSegment, immutableSegment);
+  }
+
+  @Test
+  public void testAggregation() {
+    String query = "SELECT COUNT(*), SUM(" + VALUE_COLUMN + ") FROM " + RAW_TABLE_NAME;
+    BrokerResponseNative fullResponse = getBrokerResponse(query);
+    assertNull(fullResponse.getSampleRate());
+    Object[] fullRow = fullResponse.getResultTable().getRows().get(0);
+    assertEquals(fullRow[0], (long) NUM_SEGMENTS_QUERIED * NUM_RECORDS);
+
+    BrokerResponseNative sampledResponse = getBrokerResponse(query, getSampleRateQueryOptions());
+    assertNotNull(sampledResponse.getSampleRate());
+    assertEquals(sampledResponse.getSampleRate(), getExpectedRealizedSampleRate(), 1e-9);
+    Object[] sampledRow = sampledResponse.getResultTable().getRows().get(0);
+    // Without filter, scaling the count with the realized sample rate gives back the full count
+    assertEquals(sampledRow[0], fullRow[0]);
+    assertApproximatelyEquals((double) sampledRow[1], (double) fullRow[1]);
+    assertNotNull(sampledResponse.getConfidenceIntervals());
+  }
+
+  @Test
+  public void testGroupBy() {
+    String query = "SELECT " + GROUP_COLUMN + ", COUNT(*), SUM(" + VALUE_COLUMN + ") FROM " + RAW_TABLE_NAME
+        + " GROUP BY " + GROUP_COLUMN + " ORDER BY " + GROUP_COLUMN;
+    List<Object[]> fullRows = getBrokerResponse(query).getResultTable().getRows();
+    assertEquals(fullRows.size(), NUM_GROUPS);
+
+    BrokerResponseNative sampledResponse = getBrokerResponse(query, getSampleRateQueryOptions());
+    assertNotNull(sampledResponse.getSampleRate());
+    assertEquals(sampledResponse.getSampleRate(), getExpectedRealizedSampleRate(), 1e-9);
+    List<Object[]> sampledRows = sampledResponse.getResultTable().getRows();
+    assertEquals(sampledRows.size(), NUM_GROUPS);
+    for (int i = 0; i < NUM_GROUPS; i++) {
+      Object[] fullRow = fullRows.get(i);
+      Object[] sampledRow = sampledRows.get(i);
+      assertEquals(sampledRow[0], fullRow[0]);
+      // Groups are interleaved, so each sampled doc range contains the same number of records for each group
+      assertEquals(sampledRow[1], fullRow[1]);
+      assertApproximatelyEquals((double) sampledRow[2], (double) fullRow[2]);
+    }
+  }
+
+  private static Map<String, String> getSampleRateQueryOptions() {
+    return Collections.singletonMap(QueryOptionKey.SAMPLE_RATE, Double.toString(SAMPLE_RATE));
+  }
+
+  /**
+   * The documents are sampled in ranges, so the realized sample rate deviates from the requested one.
+   */
+  private double getExpectedRealizedSampleRate() {
+    long numSampledDocs = SamplingUtils.getNumSampledDocs(_indexSegments, SAMPLE_RATE);
+    long numExpectedSampledDocs = Math.round(_indexSegments.size() * NUM_RECORDS * SAMPLE_RATE);
+    return SAMPLE_RATE * numSampledDocs / numExpectedSampledDocs;
+  }
+
+  private static void assertApproximatelyEquals(double sampledValue, double fullValue) {
+    assertEquals(sampledValue, fullValue, fullValue * 0.05);
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _indexSegment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.queries;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.response.broker.ResultTable;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.operator.query.FilteredAggregationOperator;
+import org.apache.pinot.core.startree.operator.StarTreeFilterOperator;
+import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.segment.local.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.spi.AggregationFunctionType;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
+import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.CommonConstants.Broker.Request.QueryOptionKey;
+import org.apache.pinot.spi.utils.ReadMode;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Queries test for filtered aggregations solved with star-tree, where the aggregation filters that fit the star-tree
+ * are solved with star-tree and the other ones fall back to the regular pipelines. The results should match the
+ * results without star-tree.
+ */
+@SuppressWarnings("rawtypes")
+public class StarTreeFilteredAggregationsQueriesTest extends BaseQueriesTest {
+  private static final File INDEX_DIR =
+      new File(FileUtils.getTempDirectory(), "StarTreeFilteredAggregationsQueriesTest");
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final String SEGMENT_NAME = "testSegment";
+  private static final Random RANDOM = new Random();
+
+  private static final int NUM_RECORDS = 10000;
+  private static final String D1 = "d1";
+  private static final String D2 = "d2";
+  // Not a star-tree dimension
+  private static final String D3 = "d3";
+  private static final String M = "m";
+  private static final String[] D1_VALUES = {"a", "b", "c"};
+  private static final int D2_CARDINALITY = 10;
+  private static final int D3_CARDINALITY = 10;
+  private static final Schema SCHEMA =
+      new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME).addSingleValueDimension(D1, DataType.STRING)
+          .addSingleValueDimension(D2, DataType.INT).addSingleValueDimension(D3, DataType.INT)
+          .addMetric(M, DataType.LONG).build();
+  private static final TableConfig TABLE_CONFIG = new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME)
+      .setStarTreeIndexConfigs(Collections.singletonList(new StarTreeIndexConfig(Arrays.asList(D1, D2), null,
+          Arrays.asList(AggregationFunctionColumnPair.COUNT_STAR.toColumnName(),
+              AggregationFunctionColumnPair.toColumnName(AggregationFunctionType.SUM, M),
+              AggregationFunctionColumnPair.toColumnName(AggregationFunctionType.MAX, M)), 10))).build();
+  private static final Map<String, String> SKIP_STAR_TREE_OPTIONS =
+      Collections.singletonMap(QueryOptionKey.USE_STAR_TREE, "false");
+
+  private IndexSegment _indexSegment;
+  private List<IndexSegment> _indexSegments;
+
+  @Override
+  protected String getFilter() {
+    return "";
+  }
+
+  @Override
+  protected IndexSegment getIndexSegment() {
+    return _indexSegment;
+  }
+
+  @Override
+  protected List<IndexSegment> getIndexSegments() {
+    return _indexSegments;
+  }
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    List<GenericRow> records = new ArrayList<>(NUM_RECORDS);
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      GenericRow record = new GenericRow();
+      record.putValue(D1, D1_VALUES[RANDOM.nextInt(D1_VALUES.length)]);
+      record.putValue(D2, RANDOM.nextInt(D2_CARDINALITY));
+      record.putValue(D3, RANDOM.nextInt(D3_CARDINALITY));
+      record.putValue(M, (long) RANDOM.nextInt(1000));
+      records.add(record);
+    }
+    SegmentGeneratorConfig segmentGeneratorConfig = new SegmentGeneratorConfig(TABLE_CONFIG, SCHEMA);
+    segmentGeneratorConfig.setOutDir(INDEX_DIR.getPath());
+    segmentGeneratorConfig.setSegmentName(SEGMENT_NAME);
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(segmentGeneratorConfig, new GenericRowRecordReader(records));
+    driver.build();
+
+    ImmutableSegment immutableSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), ReadMode.mmap);
+    _indexSegment = immutableSegment;
+    _indexSegments = Arrays.asList(immutableSegment, immutableSegment);
+  }
+
+  @Test
+  public void testAllFiltersFitStarTree() {
+    String query = "SELECT COUNT(*) FILTER(WHERE d1 = 'a'), SUM(m) FILTER(WHERE d2 > 3), "
+        + "MAX(m) FILTER(WHERE d1 = 'b' OR d2 = 5), SUM(m) FROM testTable WHERE d2 < 8";
+    testQuery(query, 4, 4);
+  }
+
+  @Test
+  public void testMixedFilters() {
+    // The aggregation filters on d3 cannot be solved with star-tree
+    String query = "SELECT COUNT(*) FILTER(WHERE d1 = 'a'), SUM(m) FILTER(WHERE d3 > 3), "
+        + "MAX(m) FILTER(WHERE d2 = 5 AND d3 < 7), SUM(m) FROM testTable WHERE d1 IN ('a', 'c')";
+    testQuery(query, 4, 2);
+
+    query = "SELECT COUNT(*) FILTER(WHERE d1 = 'a' OR d3 = 1), SUM(m) FILTER(WHERE d2 <= 2) FROM testTable";
+    testQuery(query, 2, 1);
+  }
+
+  @Test
+  public void testNoFilterFitsStarTree() {
+    // Main filter on d3 prevents all the aggregations from being solved with star-tree
+    String query =
+        "SELECT COUNT(*) FILTER(WHERE d1 = 'a'), SUM(m) FILTER(WHERE d2 > 3) FROM testTable WHERE d3 <> 4";
+    testQuery(query, 2, 0);
+  }
+
+  /**
+   * Checks the number of pipelines (one per distinct aggregation filter) and the number of them solved with star-tree,
+   * and compares the results with the ones without star-tree.
+   */
+  private void testQuery(String query, int expectedNumPipelines, int expectedNumStarTreePipelines) {
+    Operator operator = getOperator(query);
+    assertTrue(operator instanceof FilteredAggregationOperator);
+    List<? extends Operator> pipelines = operator.getChildOperators();
+    assertEquals(pipelines.size(), expectedNumPipelines);
+    int numStarTreePipelines = 0;
+    for (Operator pipeline : pipelines) {
+      if (hasStarTreeFilterOperator(pipeline)) {
+        numStarTreePipelines++;
+      }
+    }
+    assertEquals(numStarTreePipelines, expectedNumStarTreePipelines);
+
+    BrokerResponseNative starTreeResponse = getBrokerResponse(query);
+    BrokerResponseNative nonStarTreeResponse = getBrokerResponse(query, SKIP_STAR_TREE_OPTIONS);
+    assertTrue(starTreeResponse.getExceptions().isEmpty());
+    assertTrue(nonStarTreeResponse.getExceptions().isEmpty());
+    ResultTable starTreeResultTable = starTreeResponse.getResultTable();
+    ResultTable nonStarTreeResultTable = nonStarTreeResponse.getResultTable();
+    assertEquals(starTreeResultTable.getDataSchema(), nonStarTreeResultTable.getDataSchema());
+    List<Object[]> starTreeRows = starTreeResultTable.getRows();
+    List<Object[]> nonStarTreeRows = nonStarTreeResultTable.getRows();
+    assertEquals(starTreeRows.size(), 1);
+    assertEquals(starTreeRows.get(0), nonStarTreeRows.get(0));
+  }
+
+  private static boolean hasStarTreeFilterOperator(Operator operator) {
+    if (operator instanceof StarTreeFilterOperator) {
+      return true;
+    }
+    List<? extends Operator> childOperators = operator.getChildOperators();
+    if (childOperators != null) {
+      for (Operator childOperator : childOperators) {
+        if (childOperator != null && hasStarTreeFilterOperator(childOperator)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _indexSegment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
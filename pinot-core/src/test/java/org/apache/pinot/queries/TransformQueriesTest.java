@@ -23,9 +23,11 @@ import com.google.common.collect.ImmutableList;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
 import org.apache.pinot.core.operator.query.AggregationOperator;
 import org.apache.pinot.core.operator.query.GroupByOperator;
 import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
@@ -46,6 +48,7 @@ import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.data.TimeGranularitySpec;
 import org.apache.pinot.spi.data.readers.GenericRow;
 import org.apache.pinot.spi.data.readers.RecordReader;
+import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.spi.utils.ReadMode;
 import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
 import org.joda.time.DateTime;
@@ -57,6 +60,7 @@ import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 
 
 public class TransformQueriesTest extends BaseQueriesTest {
@@ -262,6 +266,22 @@ public class TransformQueriesTest extends BaseQueriesTest {
     runAndVerifyInterSegmentQuery(query, 1.0);
   }
 
+  @Test
+  public void testSharedTransformSubExpression() {
+    String query = "SELECT SUM(ADD(INT_COL1, INT_COL2)), SUM(MULT(ADD(INT_COL1, INT_COL2), 2)) FROM testTable";
+    BrokerResponseNative brokerResponse = getBrokerResponse(query);
+    Object[] row = brokerResponse.getResultTable().getRows().get(0);
+    assertEquals(row[0], 3000.0 * 4 * NUM_ROWS);
+    assertEquals(row[1], 6000.0 * 4 * NUM_ROWS);
+    assertTrue(brokerResponse.getNumReusedTransformEvaluations() > 0);
+
+    // Disable the shared transform function with the query option
+    brokerResponse = getBrokerResponse(query,
+        Collections.singletonMap(CommonConstants.Broker.Request.QueryOptionKey.USE_SHARED_TRANSFORM, "false"));
+    assertEquals(brokerResponse.getResultTable().getRows().get(0), row);
+    assertEquals(brokerResponse.getNumReusedTransformEvaluations(), 0L);
+  }
+
   /**
    * This test checks the groovy transform when generic raw data could have some values that can be used to
    * ingest values into pinot column with a different name.
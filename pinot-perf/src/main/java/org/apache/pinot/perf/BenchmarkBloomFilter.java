@@ -33,11 +33,17 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import org.apache.pinot.segment.local.segment.index.readers.bloom.BaseGuavaBloomFilterReader;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapSplitBlockBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.BloomFilterReaderFactory;
 import org.apache.pinot.segment.local.segment.index.readers.bloom.GuavaBloomFilterReaderUtils;
 import org.apache.pinot.segment.local.segment.index.readers.bloom.OffHeapGuavaBloomFilterReader;
 import org.apache.pinot.segment.local.segment.index.readers.bloom.OnHeapGuavaBloomFilterReader;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.index.creator.BloomFilterCreator;
+import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
 import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.config.table.BloomFilterConfig;
+import org.apache.pinot.spi.data.FieldSpec;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -54,6 +60,8 @@ import org.openjdk.jmh.profile.JavaFlightRecorderProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 @BenchmarkMode(Mode.AverageTime)
@@ -63,10 +71,14 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 @Measurement(iterations = 5, time = 1)
 @State(Scope.Benchmark)
 public class BenchmarkBloomFilter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BenchmarkBloomFilter.class);
 
   @Param(value = {OFF_HEAP})
   private String _reader;
 
+  @Param(value = {"GUAVA", "SPLIT_BLOCK"})
+  private BloomFilterConfig.Format _format;
+
   @Param(value = {"10000"})
   private int _cardinality;
   @Param(value = {"100", "1000"})
@@ -79,16 +91,54 @@ public class BenchmarkBloomFilter {
     new Runner(opt.build()).run();
   }
 
-  private BaseGuavaBloomFilterReader _actualReader;
+  private BloomFilterReader _actualReader;
   private Supplier<String> _valueSupplier;
   private String _value;
   private long _valueLong1;
   private long _valueLong2;
+  private Supplier<String> _absentValueSupplier;
+  private String _absentValue;
+  private long _sizeInBytes;
 
   public static final String ON_HEAP = "onHeap";
   public static final String OFF_HEAP = "offHeap";
 
-  private BaseGuavaBloomFilterReader loadReader(BloomFilter<CharSequence> bloomFilter)
+  private BloomFilterReader loadReader(List<String> words, double fpp)
+      throws IOException {
+    if (_format == BloomFilterConfig.Format.GUAVA) {
+      BloomFilter<CharSequence> bloomFilter = BloomFilter.create(
+          Funnels.stringFunnel(StandardCharsets.UTF_8), _cardinality, fpp);
+      words.forEach(bloomFilter::put);
+      return loadReader(bloomFilter);
+    }
+
+    File indexDir = Files.createTempDirectory("test").toFile();
+    indexDir.deleteOnExit();
+    String columnName = "column";
+    // Do not cap the size so that both formats are sized from the same fpp
+    BloomFilterConfig bloomFilterConfig = new BloomFilterConfig(false, fpp, 0, false, _format);
+    try (BloomFilterCreator creator = new OnHeapSplitBlockBloomFilterCreator(indexDir, columnName, _cardinality,
+        bloomFilterConfig, FieldSpec.DataType.STRING)) {
+      for (String word : words) {
+        creator.add(word);
+      }
+      creator.seal();
+    }
+    File file = new File(indexDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    file.deleteOnExit();
+    _sizeInBytes = file.length();
+    PinotDataBuffer pinotDataBuffer = PinotDataBuffer.loadBigEndianFile(file);
+    switch (_reader) {
+      case ON_HEAP:
+        return BloomFilterReaderFactory.getBloomFilterReader(pinotDataBuffer, true);
+      case OFF_HEAP:
+        return BloomFilterReaderFactory.getBloomFilterReader(pinotDataBuffer, false);
+      default:
+        throw new IllegalArgumentException("Value " + _reader + " not recognized");
+    }
+  }
+
+  private BloomFilterReader loadReader(BloomFilter<CharSequence> bloomFilter)
       throws IOException {
 
     File file = Files.createTempFile("test", ".bloom").toFile();
@@ -96,6 +146,7 @@ public class BenchmarkBloomFilter {
     try (FileOutputStream fos = new FileOutputStream(file)) {
       bloomFilter.writeTo(fos);
     }
+    _sizeInBytes = file.length();
 
     PinotDataBuffer pinotDataBuffer = PinotDataBuffer.loadBigEndianFile(file);
 
@@ -117,14 +168,24 @@ public class BenchmarkBloomFilter {
     List<String> words =
         IntStream.generate(r::nextInt).limit(_cardinality).mapToObj(Integer::toString).collect(Collectors.toList());
 
+    // The max size only derives the target fpp, and both formats are built from the same fpp
     double fpp = Math.max(0.01d, GuavaBloomFilterReaderUtils.computeFPP(_maxSizeInBytes, _cardinality));
-    BloomFilter<CharSequence> bloomFilter = BloomFilter.create(
-        Funnels.stringFunnel(StandardCharsets.UTF_8), _cardinality, fpp);
-    words.forEach(bloomFilter::put);
-
-    _actualReader = loadReader(bloomFilter);
+    _actualReader = loadReader(words, fpp);
 
     _valueSupplier = () -> words.get(r.nextInt(_cardinality));
+    // Words are integers, so values with a prefix are never in the bloom filter
+    _absentValueSupplier = () -> "absent" + r.nextInt();
+
+    // Report the false positive rate, which cannot be captured by the timing benchmarks
+    int numLookups = 100_000;
+    int numFalsePositives = 0;
+    for (int i = 0; i < numLookups; i++) {
+      if (_actualReader.mightContain(_absentValueSupplier.get())) {
+        numFalsePositives++;
+      }
+    }
+    LOGGER.info("Format: {}, cardinality: {}, fpp: {}, size in bytes: {}, false positive rate: {}", _format,
+        _cardinality, fpp, _sizeInBytes, (double) numFalsePositives / numLookups);
   }
 
   @Setup(Level.Iteration)
@@ -134,6 +195,7 @@ public class BenchmarkBloomFilter {
     byte[] hash = GuavaBloomFilterReaderUtils.hash(_value);
     _valueLong1 = Longs.fromBytes(hash[7], hash[6], hash[5], hash[4], hash[3], hash[2], hash[1], hash[0]);
     _valueLong2 = Longs.fromBytes(hash[15], hash[14], hash[13], hash[12], hash[11], hash[10], hash[9], hash[8]);
+    _absentValue = _absentValueSupplier.get();
   }
 
   @Benchmark
@@ -151,4 +213,9 @@ public class BenchmarkBloomFilter {
 
     return result;
   }
+
+  @Benchmark
+  public boolean mightContainAbsentString() {
+    return _actualReader.mightContain(_absentValue);
+  }
 }
@@ -19,6 +19,7 @@
 package org.apache.pinot.perf;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
@@ -30,10 +31,13 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.core.data.table.ConcurrentIndexedTable;
 import org.apache.pinot.core.data.table.IndexedTable;
+import org.apache.pinot.core.data.table.Key;
+import org.apache.pinot.core.data.table.PartitionedIndexedTable;
 import org.apache.pinot.core.data.table.Record;
 import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
 import org.apache.pinot.core.query.request.context.QueryContext;
@@ -61,6 +65,7 @@ public class BenchmarkCombineGroupBy {
   private static final int NUM_RECORDS_PER_SEGMENT = 100_000;
   private static final int CARDINALITY_D1 = 500;
   private static final int CARDINALITY_D2 = 500;
+  private static final int NUM_PARTITIONS = 16;
   private static final Random RANDOM = new Random();
 
   private QueryContext _queryContext;
@@ -145,6 +150,56 @@ public class BenchmarkCombineGroupBy {
     concurrentIndexedTable.finish(false);
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void partitionedIndexedTableForCombineGroupBy()
+      throws InterruptedException, ExecutionException, TimeoutException {
+    int trimSize = GroupByUtils.getTableCapacity(_queryContext.getLimit());
+
+    // make 1 partitioned table, where each thread upserts into its own writer without any lock
+    PartitionedIndexedTable partitionedIndexedTable =
+        new PartitionedIndexedTable(_dataSchema, _queryContext, trimSize, trimSize,
+            InstancePlanMakerImplV2.DEFAULT_GROUPBY_TRIM_THRESHOLD, NUM_PARTITIONS);
+
+    List<Callable<Void>> innerSegmentCallables = new ArrayList<>(NUM_SEGMENTS);
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      Callable<Void> callable = () -> {
+        PartitionedIndexedTable.Writer writer = partitionedIndexedTable.createWriter();
+        for (int r = 0; r < NUM_RECORDS_PER_SEGMENT; r++) {
+          Record record = getRecord();
+          writer.upsert(new Key(Arrays.copyOf(record.getValues(), 2)), record);
+        }
+        return null;
+      };
+      innerSegmentCallables.add(callable);
+    }
+    List<Future<Void>> futures = _executorService.invokeAll(innerSegmentCallables);
+    for (Future<Void> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+
+    // each partition is merged by a single thread
+    AtomicInteger nextPartitionId = new AtomicInteger();
+    List<Callable<Void>> mergeCallables = new ArrayList<>(NUM_SEGMENTS);
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      mergeCallables.add(() -> {
+        int partitionId;
+        while ((partitionId = nextPartitionId.getAndIncrement()) < NUM_PARTITIONS) {
+          partitionedIndexedTable.mergePartition(partitionId);
+        }
+        return null;
+      });
+    }
+    futures = _executorService.invokeAll(mergeCallables);
+    for (Future<Void> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+
+    partitionedIndexedTable.finishMergingPartitions();
+    partitionedIndexedTable.finish(false);
+  }
+
   public static void main(String[] args)
       throws Exception {
     ChainedOptionsBuilder opt =
@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.io.writer.impl.FixedByteChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.local.segment.index.readers.forward.ChunkReaderContext;
+import org.apache.pinot.segment.local.segment.index.readers.forward.FixedByteChunkSVForwardIndexReader;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Compares the general-purpose chunk compressions with the type-aware numeric encodings (FOR, DELTA, DELTADELTA, XOR)
+ * on the raw forward index for typical numeric data: timestamps, counters and slowly changing double metrics. The
+ * size of the forward index for each combination is printed during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class BenchmarkNumericChunkEncoding {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkNumericChunkEncoding");
+  private static final int NUM_DOCS_PER_CHUNK = 1000;
+  private static final int BLOCK_SIZE = 10_000;
+
+  @Param({"LZ4", "ZSTANDARD", "FOR", "DELTA", "DELTADELTA", "XOR"})
+  String _compressionType;
+
+  @Param({"TIMESTAMP", "COUNTER", "METRIC"})
+  String _dataDistribution;
+
+  @Param("1000000")
+  int _numDocs;
+
+  private FixedByteChunkSVForwardIndexReader _reader;
+  private int[] _docIds;
+  private long[] _longValues;
+  private double[] _doubleValues;
+
+  @Setup(Level.Trial)
+  public void setUp()
+      throws IOException {
+    FileUtils.forceMkdir(INDEX_DIR);
+    File indexFile = new File(INDEX_DIR, UUID.randomUUID().toString());
+    DataType dataType = _dataDistribution.equals("METRIC") ? DataType.DOUBLE : DataType.LONG;
+    try (FixedByteChunkSVForwardIndexWriter writer = new FixedByteChunkSVForwardIndexWriter(indexFile,
+        ChunkCompressionType.valueOf(_compressionType), _numDocs, NUM_DOCS_PER_CHUNK, Long.BYTES, 3)) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      long timestamp = System.currentTimeMillis();
+      long counter = 0;
+      double metric = 100.0;
+      for (int i = 0; i < _numDocs; i++) {
+        switch (_dataDistribution) {
+          case "TIMESTAMP":
+            timestamp += 1000 + random.nextInt(5);
+            writer.putLong(timestamp);
+            break;
+          case "COUNTER":
+            counter += random.nextInt(100);
+            writer.putLong(counter);
+            break;
+          case "METRIC":
+            if (random.nextInt(4) == 0) {
+              metric += random.nextInt(-10, 10) / 4.0;
+            }
+            writer.putDouble(metric);
+            break;
+          default:
+            throw new IllegalStateException("Unsupported data distribution: " + _dataDistribution);
+        }
+      }
+    }
+    System.out.printf("%n%s with %s: %d bytes%n", _dataDistribution, _compressionType, indexFile.length());
+    _reader = new FixedByteChunkSVForwardIndexReader(PinotDataBuffer.loadBigEndianFile(indexFile), dataType);
+    _docIds = new int[BLOCK_SIZE];
+    _longValues = new long[BLOCK_SIZE];
+    _doubleValues = new double[BLOCK_SIZE];
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+      throws IOException {
+    _reader.close();
+    FileUtils.deleteDirectory(INDEX_DIR);
+  }
+
+  @Benchmark
+  public void readLongsBatch(Blackhole bh)
+      throws IOException {
+    try (ChunkReaderContext context = _reader.createContext()) {
+      for (int start = 0; start + BLOCK_SIZE <= _numDocs; start += BLOCK_SIZE) {
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+          _docIds[i] = start + i;
+        }
+        _reader.readValuesSV(_docIds, BLOCK_SIZE, _longValues, context);
+        bh.consume(_longValues);
+      }
+    }
+  }
+
+  @Benchmark
+  public void readDoublesBatch(Blackhole bh)
+      throws IOException {
+    try (ChunkReaderContext context = _reader.createContext()) {
+      for (int start = 0; start + BLOCK_SIZE <= _numDocs; start += BLOCK_SIZE) {
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+          _docIds[i] = start + i;
+        }
+        _reader.readValuesSV(_docIds, BLOCK_SIZE, _doubleValues, context);
+        bh.consume(_doubleValues);
+      }
+    }
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkNumericChunkEncoding.class.getSimpleName()).build()).run();
+  }
+}
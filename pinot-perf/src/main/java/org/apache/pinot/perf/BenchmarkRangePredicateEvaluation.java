@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.predicate.RangePredicate;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmarks the batch evaluation of the raw value based RANGE predicate evaluators (as used by the scan based doc id
+ * iterators) on values with different selectivity, compared with the branchy evaluation loop.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class BenchmarkRangePredicateEvaluation {
+  private static final int NUM_VALUES = 10_000;
+  private static final int MAX_VALUE = 1_000_000;
+
+  // Percentage of the values matching the predicate
+  @Param({"1", "10", "50", "90"})
+  private int _selectivity;
+
+  private int[] _intValues;
+  private long[] _longValues;
+  private double[] _doubleValues;
+  private int[] _docIds;
+  private int[] _docIdBuffer;
+  private int _upperBound;
+  private PredicateEvaluator _intPredicateEvaluator;
+  private PredicateEvaluator _longPredicateEvaluator;
+  private PredicateEvaluator _doublePredicateEvaluator;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    _intValues = new int[NUM_VALUES];
+    _longValues = new long[NUM_VALUES];
+    _doubleValues = new double[NUM_VALUES];
+    _docIds = new int[NUM_VALUES];
+    _docIdBuffer = new int[NUM_VALUES];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      int value = random.nextInt(MAX_VALUE);
+      _intValues[i] = value;
+      _longValues[i] = value;
+      _doubleValues[i] = value;
+      _docIds[i] = i;
+    }
+    _upperBound = (int) ((long) MAX_VALUE * _selectivity / 100) - 1;
+    RangePredicate rangePredicate =
+        new RangePredicate(ExpressionContext.forIdentifier("col"), true, "0", true, Integer.toString(_upperBound));
+    _intPredicateEvaluator = RangePredicateEvaluatorFactory.newRawValueBasedEvaluator(rangePredicate, DataType.INT);
+    _longPredicateEvaluator = RangePredicateEvaluatorFactory.newRawValueBasedEvaluator(rangePredicate, DataType.LONG);
+    _doublePredicateEvaluator =
+        RangePredicateEvaluatorFactory.newRawValueBasedEvaluator(rangePredicate, DataType.DOUBLE);
+  }
+
+  @Benchmark
+  public int intRange() {
+    System.arraycopy(_docIds, 0, _docIdBuffer, 0, NUM_VALUES);
+    return _intPredicateEvaluator.applySV(NUM_VALUES, _docIdBuffer, _intValues);
+  }
+
+  @Benchmark
+  public int intRangeBranchy() {
+    System.arraycopy(_docIds, 0, _docIdBuffer, 0, NUM_VALUES);
+    int upperBound = _upperBound;
+    int matches = 0;
+    for (int i = 0; i < NUM_VALUES; i++) {
+      int value = _intValues[i];
+      if (value >= 0 && value <= upperBound) {
+        _docIdBuffer[matches++] = _docIdBuffer[i];
+      }
+    }
+    return matches;
+  }
+
+  @Benchmark
+  public int longRange() {
+    System.arraycopy(_docIds, 0, _docIdBuffer, 0, NUM_VALUES);
+    return _longPredicateEvaluator.applySV(NUM_VALUES, _docIdBuffer, _longValues);
+  }
+
+  @Benchmark
+  public int doubleRange() {
+    System.arraycopy(_docIds, 0, _docIdBuffer, 0, NUM_VALUES);
+    return _doublePredicateEvaluator.applySV(NUM_VALUES, _docIdBuffer, _doubleValues);
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkRangePredicateEvaluation.class.getSimpleName()).build()).run();
+  }
+}
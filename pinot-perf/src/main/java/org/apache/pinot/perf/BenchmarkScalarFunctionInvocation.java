@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleBinaryOperator;
+import org.apache.pinot.common.function.FunctionInfo;
+import org.apache.pinot.common.function.FunctionInvoker;
+import org.apache.pinot.common.function.scalar.ArithmeticFunctions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmarks the different ways to invoke a scalar function on a block of values (as done in the
+ * ScalarTransformFunctionWrapper): via reflection, via the boxed {@link FunctionInvoker#invoke(Object[])}, and via the
+ * primitive function returned by {@link FunctionInvoker#getPrimitiveFunction(Class)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class BenchmarkScalarFunctionInvocation {
+  private static final int NUM_VALUES = 10_000;
+
+  private double[] _leftValues;
+  private double[] _rightValues;
+  private double[] _results;
+  private Method _method;
+  private FunctionInvoker _functionInvoker;
+  private DoubleBinaryOperator _primitiveFunction;
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    Random random = new Random(42);
+    _leftValues = new double[NUM_VALUES];
+    _rightValues = new double[NUM_VALUES];
+    _results = new double[NUM_VALUES];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      _leftValues[i] = random.nextDouble();
+      _rightValues[i] = random.nextDouble();
+    }
+    _method = ArithmeticFunctions.class.getMethod("plus", double.class, double.class);
+    _functionInvoker = new FunctionInvoker(new FunctionInfo(_method, ArithmeticFunctions.class, false));
+    _primitiveFunction = _functionInvoker.getPrimitiveFunction(DoubleBinaryOperator.class);
+  }
+
+  @Benchmark
+  public double[] reflection()
+      throws Exception {
+    Object[] arguments = new Object[2];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      arguments[0] = _leftValues[i];
+      arguments[1] = _rightValues[i];
+      _results[i] = (double) _method.invoke(null, arguments);
+    }
+    return _results;
+  }
+
+  @Benchmark
+  public double[] functionInvoker() {
+    Object[] arguments = new Object[2];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      arguments[0] = _leftValues[i];
+      arguments[1] = _rightValues[i];
+      _results[i] = (double) _functionInvoker.invoke(arguments);
+    }
+    return _results;
+  }
+
+  @Benchmark
+  public double[] primitiveFunction() {
+    for (int i = 0; i < NUM_VALUES; i++) {
+      _results[i] = _primitiveFunction.applyAsDouble(_leftValues[i], _rightValues[i]);
+    }
+    return _results;
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkScalarFunctionInvocation.class.getSimpleName()).build()).run();
+  }
+}
@@ -18,13 +18,23 @@
  */
 package org.apache.pinot.perf;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.io.writer.impl.DirectMemoryManager;
 import org.apache.pinot.segment.local.realtime.impl.dictionary.StringOffHeapMutableDictionary;
 import org.apache.pinot.segment.local.realtime.impl.dictionary.StringOnHeapMutableDictionary;
+import org.apache.pinot.segment.local.segment.creator.impl.SegmentDictionaryCreator;
+import org.apache.pinot.segment.local.segment.index.readers.StringDictionary;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
 import org.apache.pinot.segment.spi.memory.PinotDataBufferMemoryManager;
+import org.apache.pinot.spi.data.DimensionFieldSpec;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -54,6 +64,13 @@ public class BenchmarkStringDictionary {
   private static final int NUM_RECORDS = 1_000_000;
   private static final int CARDINALITY = 200_000;
   private static final Random RANDOM = new Random();
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkStringDictionary");
+  private static final FieldSpec STRING_FIELD = new DimensionFieldSpec("string", DataType.STRING, true);
+  // URL-like prefixes shared by the immutable dictionary values, which is where front coding pays off
+  private static final String[] URL_PREFIXES = {
+      "https://www.example.com/", "https://www.example.com/products/", "https://shop.example.com/cart?item=",
+      "https://blog.example.org/posts/"
+  };
 
   @Param({"8", "16", "32", "64", "128", "256", "512", "1024"})
   private int _maxValueLength;
@@ -62,9 +79,16 @@ public class BenchmarkStringDictionary {
   private String[] _values;
   private StringOffHeapMutableDictionary _offHeapDictionary;
   private StringOnHeapMutableDictionary _onHeapDictionary;
+  private String[] _sortedUrlValues;
+  private String[] _urlValues;
+  private int[] _dictIds;
+  private StringDictionary _fixedLengthDictionary;
+  private StringDictionary _varLengthDictionary;
+  private StringDictionary _frontCodedDictionary;
 
   @Setup
-  public void setUp() {
+  public void setUp()
+      throws IOException {
     _memoryManager = new DirectMemoryManager("");
     _offHeapDictionary =
         new StringOffHeapMutableDictionary(CARDINALITY, CARDINALITY / 10, _memoryManager, null, _maxValueLength / 2);
@@ -80,6 +104,39 @@ public class BenchmarkStringDictionary {
     for (int i = 0; i < NUM_RECORDS; i++) {
       _values[i] = uniqueValues[RANDOM.nextInt(CARDINALITY)];
     }
+
+    String[] urlValues = new String[CARDINALITY];
+    for (int i = 0; i < CARDINALITY; i++) {
+      urlValues[i] = URL_PREFIXES[RANDOM.nextInt(URL_PREFIXES.length)] + generateRandomString(
+          RANDOM.nextInt(_maxValueLength + 1));
+    }
+    _sortedUrlValues = Arrays.stream(urlValues).distinct().sorted().toArray(String[]::new);
+    _urlValues = new String[NUM_RECORDS];
+    _dictIds = new int[NUM_RECORDS];
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      int dictId = RANDOM.nextInt(_sortedUrlValues.length);
+      _urlValues[i] = _sortedUrlValues[dictId];
+      _dictIds[i] = dictId;
+    }
+    FileUtils.deleteQuietly(INDEX_DIR);
+    _fixedLengthDictionary = createImmutableDictionary(new File(INDEX_DIR, "fixedLength"), false, false);
+    _varLengthDictionary = createImmutableDictionary(new File(INDEX_DIR, "varLength"), true, false);
+    _frontCodedDictionary = createImmutableDictionary(new File(INDEX_DIR, "frontCoded"), false, true);
+  }
+
+  private StringDictionary createImmutableDictionary(File indexDir, boolean useVarLengthDictionary,
+      boolean useFrontCodedDictionary)
+      throws IOException {
+    FileUtils.forceMkdir(indexDir);
+    int numBytesPerValue;
+    try (SegmentDictionaryCreator dictionaryCreator = new SegmentDictionaryCreator(STRING_FIELD, indexDir,
+        useVarLengthDictionary, useFrontCodedDictionary)) {
+      dictionaryCreator.build(_sortedUrlValues);
+      numBytesPerValue = dictionaryCreator.getNumBytesPerEntry();
+    }
+    File dictionaryFile = new File(indexDir, STRING_FIELD.getName() + V1Constants.Dict.FILE_EXTENSION);
+    return new StringDictionary(PinotDataBuffer.mapReadOnlyBigEndianFile(dictionaryFile), _sortedUrlValues.length,
+        numBytesPerValue);
   }
 
   @TearDown
@@ -88,6 +145,10 @@ public class BenchmarkStringDictionary {
     _onHeapDictionary.close();
     _offHeapDictionary.close();
     _memoryManager.close();
+    _fixedLengthDictionary.close();
+    _varLengthDictionary.close();
+    _frontCodedDictionary.close();
+    FileUtils.deleteQuietly(INDEX_DIR);
   }
 
   // Generates a ascii displayable string of the given length
@@ -142,6 +203,86 @@ public class BenchmarkStringDictionary {
     }
   }
 
+  @Benchmark
+  public int fixedLengthStringDictionaryIndexOf() {
+    return immutableDictionaryIndexOf(_fixedLengthDictionary);
+  }
+
+  @Benchmark
+  public int varLengthStringDictionaryIndexOf() {
+    return immutableDictionaryIndexOf(_varLengthDictionary);
+  }
+
+  @Benchmark
+  public int frontCodedStringDictionaryIndexOf() {
+    return immutableDictionaryIndexOf(_frontCodedDictionary);
+  }
+
+  private int immutableDictionaryIndexOf(StringDictionary dictionary) {
+    int sum = 0;
+    for (String stringValue : _urlValues) {
+      sum += dictionary.indexOf(stringValue);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int fixedLengthStringDictionaryGet() {
+    return immutableDictionaryGet(_fixedLengthDictionary);
+  }
+
+  @Benchmark
+  public int varLengthStringDictionaryGet() {
+    return immutableDictionaryGet(_varLengthDictionary);
+  }
+
+  @Benchmark
+  public int frontCodedStringDictionaryGet() {
+    return immutableDictionaryGet(_frontCodedDictionary);
+  }
+
+  private int immutableDictionaryGet(StringDictionary dictionary) {
+    int sum = 0;
+    for (int dictId : _dictIds) {
+      sum += dictionary.getStringValue(dictId).length();
+    }
+    return sum;
+  }
+
+  /**
+   * Tracks the size of each immutable dictionary format through the {@link BytesCounter}.
+   */
+  @Benchmark
+  public void fixedLengthStringDictionaryWrite(BytesCounter counter)
+      throws IOException {
+    writeImmutableDictionary(new File(INDEX_DIR, "fixedLengthWrite"), false, false, counter);
+  }
+
+  @Benchmark
+  public void varLengthStringDictionaryWrite(BytesCounter counter)
+      throws IOException {
+    writeImmutableDictionary(new File(INDEX_DIR, "varLengthWrite"), true, false, counter);
+  }
+
+  @Benchmark
+  public void frontCodedStringDictionaryWrite(BytesCounter counter)
+      throws IOException {
+    writeImmutableDictionary(new File(INDEX_DIR, "frontCodedWrite"), false, true, counter);
+  }
+
+  private void writeImmutableDictionary(File indexDir, boolean useVarLengthDictionary,
+      boolean useFrontCodedDictionary, BytesCounter counter)
+      throws IOException {
+    FileUtils.forceMkdir(indexDir);
+    try (SegmentDictionaryCreator dictionaryCreator = new SegmentDictionaryCreator(STRING_FIELD, indexDir,
+        useVarLengthDictionary, useFrontCodedDictionary)) {
+      dictionaryCreator.build(_sortedUrlValues);
+    }
+    File dictionaryFile = new File(indexDir, STRING_FIELD.getName() + V1Constants.Dict.FILE_EXTENSION);
+    counter._bytes += dictionaryFile.length();
+    FileUtils.deleteQuietly(indexDir);
+  }
+
   public static void main(String[] args)
       throws Exception {
     ChainedOptionsBuilder opt = new OptionsBuilder().include(BenchmarkStringDictionary.class.getSimpleName());
@@ -54,6 +54,7 @@ import org.apache.pinot.segment.local.realtime.impl.dictionary.BaseOffHeapMutabl
 import org.apache.pinot.segment.local.realtime.impl.invertedindex.RealtimeLuceneIndexRefreshState;
 import org.apache.pinot.segment.local.realtime.impl.invertedindex.RealtimeLuceneTextIndex;
 import org.apache.pinot.segment.local.realtime.impl.nullvalue.MutableNullValueVector;
+import org.apache.pinot.segment.local.realtime.impl.startree.MutableStarTreeIndex;
 import org.apache.pinot.segment.local.segment.index.datasource.ImmutableDataSource;
 import org.apache.pinot.segment.local.segment.index.datasource.MutableDataSource;
 import org.apache.pinot.segment.local.segment.index.dictionary.DictionaryIndexType;
@@ -62,6 +63,7 @@ import org.apache.pinot.segment.local.segment.readers.PinotSegmentRecordReader;
 import org.apache.pinot.segment.local.segment.virtualcolumn.VirtualColumnContext;
 import org.apache.pinot.segment.local.segment.virtualcolumn.VirtualColumnProvider;
 import org.apache.pinot.segment.local.segment.virtualcolumn.VirtualColumnProviderFactory;
+import org.apache.pinot.segment.local.startree.v2.builder.StarTreeV2BuilderConfig;
 import org.apache.pinot.segment.local.upsert.ComparisonColumns;
 import org.apache.pinot.segment.local.upsert.PartitionUpsertMetadataManager;
 import org.apache.pinot.segment.local.upsert.RecordInfo;
@@ -92,6 +94,7 @@ import org.apache.pinot.segment.spi.partition.PartitionFunction;
 import org.apache.pinot.spi.config.table.ColumnPartitionConfig;
 import org.apache.pinot.spi.config.table.IndexConfig;
 import org.apache.pinot.spi.config.table.SegmentPartitionConfig;
+import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
 import org.apache.pinot.spi.config.table.UpsertConfig;
 import org.apache.pinot.spi.config.table.ingestion.AggregationConfig;
 import org.apache.pinot.spi.data.DimensionFieldSpec;
@@ -173,6 +176,9 @@ public class MutableSegmentImpl implements MutableSegment {
   //        the valid doc ids won't be updated.
   private final ThreadSafeMutableRoaringBitmap _validDocIds;
 
+  // Star-trees maintained on the ingested records, null if no star-tree is configured or it cannot be maintained
+  private final List<MutableStarTreeIndex> _starTreeIndexes;
+
   public MutableSegmentImpl(RealtimeSegmentConfig config, @Nullable ServerMetrics serverMetrics) {
     _serverMetrics = serverMetrics;
     _realtimeTableName = config.getTableNameWithType();
@@ -373,6 +379,8 @@ public class MutableSegmentImpl implements MutableSegment {
       _validDocIds = null;
       _upsertComparisonColumns = null;
     }
+
+    _starTreeIndexes = createStarTreeIndexesIfPossible(config);
   }
 
   private <C extends IndexConfig> void addMutableIndex(Map<IndexType, MutableIndex> mutableIndexes,
@@ -494,6 +502,11 @@ public class MutableSegmentImpl implements MutableSegment {
         addNewRow(numDocsIndexed, row);
         // Update number of documents indexed at last to make the latest row queryable
         canTakeMore = numDocsIndexed++ < _capacity;
+        // Index the star-trees after the row becomes queryable so that the star-trees never cover a row that is not
+        // queryable yet
+        if (_starTreeIndexes != null) {
+          indexStarTrees(row);
+        }
       } else {
         assert isAggregateMetricsEnabled();
         aggregateMetrics(row, docId);
@@ -712,6 +725,37 @@ public class MutableSegmentImpl implements MutableSegment {
     }
   }
 
+  private void indexStarTrees(GenericRow row) {
+    for (MutableStarTreeIndex starTreeIndex : _starTreeIndexes) {
+      if (starTreeIndex.isDisabled()) {
+        continue;
+      }
+      String[] dimensions = starTreeIndex.getDimensionsSplitOrder();
+      int numDimensions = dimensions.length;
+      int[] dictIds = new int[numDimensions];
+      for (int i = 0; i < numDimensions; i++) {
+        dictIds[i] = _indexContainerMap.get(dimensions[i])._dictId;
+      }
+      String[] metricColumns = starTreeIndex.getMetricColumns();
+      int numMetrics = metricColumns.length;
+      Object[] rawMetricValues = new Object[numMetrics];
+      for (int i = 0; i < numMetrics; i++) {
+        // Column is null for COUNT aggregation function
+        if (metricColumns[i] != null) {
+          rawMetricValues[i] = row.getValue(metricColumns[i]);
+        }
+      }
+      try {
+        starTreeIndex.index(dictIds, rawMetricValues);
+      } catch (Exception e) {
+        _logger.error("Caught exception while indexing record into star-tree", e);
+        recordIndexingError("STAR_TREE");
+        // The star-tree documents no longer match the segment documents
+        starTreeIndex.disable("failed to index a record");
+      }
+    }
+  }
+
   private void recordIndexingError(IndexType<?, ?, ?> indexType, Exception exception) {
     _logger.error("failed to index value with {}", indexType, exception);
     if (_serverMetrics != null) {
@@ -854,7 +898,19 @@ public class MutableSegmentImpl implements MutableSegment {
 
   @Override
   public List<StarTreeV2> getStarTrees() {
-    return null;
+    if (_starTreeIndexes == null) {
+      return null;
+    }
+    // NOTE: The latest constructed star-trees are returned without being rebuilt, and they might not cover the latest
+    //       ingested documents (see StarTreeV2.getNumSegmentDocsCovered())
+    List<StarTreeV2> starTrees = new ArrayList<>(_starTreeIndexes.size());
+    for (MutableStarTreeIndex starTreeIndex : _starTreeIndexes) {
+      StarTreeV2 starTree = starTreeIndex.getStarTree();
+      if (starTree != null) {
+        starTrees.add(starTree);
+      }
+    }
+    return !starTrees.isEmpty() ? starTrees : null;
   }
 
   @Nullable
@@ -1119,6 +1175,53 @@ public class MutableSegmentImpl implements MutableSegment {
     return _recordIdMap != null;
   }
 
+  /**
+   * Helper function that creates the star-trees to be maintained on the ingested records.
+   *
+   * Star-tree is only maintained when explicitly enabled for the consuming segments, and each star-tree is disabled
+   * once its number of pre-aggregated records exceeds the configured limit.
+   * Star-tree cannot be maintained when upsert is enabled (records can be invalidated after being aggregated) or when
+   * metrics aggregation is enabled (records are already aggregated, and the COUNT would be different).
+   *
+   * @param config Segment config.
+   *
+   * @return List of star-tree indexes, null if no star-tree can be maintained.
+   */
+  @Nullable
+  private List<MutableStarTreeIndex> createStarTreeIndexesIfPossible(RealtimeSegmentConfig config) {
+    List<StarTreeIndexConfig> starTreeIndexConfigs = config.getStarTreeIndexConfigs();
+    if (!config.isStarTreeEnabled() || CollectionUtils.isEmpty(starTreeIndexConfigs)) {
+      return null;
+    }
+    if (isUpsertEnabled() || isAggregateMetricsEnabled()) {
+      _logger.warn("Star-tree cannot be maintained when upsert or metrics aggregation is enabled");
+      return null;
+    }
+
+    Map<String, FieldSpec> fieldSpecMap = new HashMap<>();
+    Map<String, MutableDictionary> dictionaryMap = new HashMap<>();
+    for (Map.Entry<String, IndexContainer> entry : _indexContainerMap.entrySet()) {
+      IndexContainer indexContainer = entry.getValue();
+      fieldSpecMap.put(entry.getKey(), indexContainer._fieldSpec);
+      if (indexContainer._dictionary != null) {
+        dictionaryMap.put(entry.getKey(), indexContainer._dictionary);
+      }
+    }
+    List<MutableStarTreeIndex> starTreeIndexes = new ArrayList<>(starTreeIndexConfigs.size());
+    for (StarTreeIndexConfig starTreeIndexConfig : starTreeIndexConfigs) {
+      try {
+        starTreeIndexes.add(
+            new MutableStarTreeIndex(StarTreeV2BuilderConfig.fromIndexConfig(starTreeIndexConfig), fieldSpecMap,
+                dictionaryMap, config.getStarTreeMaxRecords()));
+      } catch (Exception e) {
+        _logger.warn("Caught exception while creating star-tree with config: {}, skipping it", starTreeIndexConfig,
+            e);
+      }
+    }
+    _logger.info("Maintaining {} star-trees", starTreeIndexes.size());
+    return !starTreeIndexes.isEmpty() ? starTreeIndexes : null;
+  }
+
   // NOTE: Okay for single-writer
   @SuppressWarnings("NonAtomicOperationOnVolatileField")
   private static class ValuesInfo {
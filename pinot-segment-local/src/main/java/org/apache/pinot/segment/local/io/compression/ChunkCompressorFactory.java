@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.segment.local.io.compression;
 
+import com.google.common.base.Preconditions;
 import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.segment.spi.compression.ChunkCompressor;
 import org.apache.pinot.segment.spi.compression.ChunkDecompressor;
@@ -69,11 +70,32 @@ public class ChunkCompressorFactory {
       case LZ4_LENGTH_PREFIXED:
         return LZ4WithLengthCompressor.INSTANCE;
 
+      case FOR:
+      case DELTA:
+      case DELTADELTA:
+      case XOR:
+        throw new IllegalArgumentException(
+            "Compression type: " + compressionType + " requires the value size, use getNumericCompressor() instead");
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
   }
 
+  /**
+   * Returns the chunk compressor for the specified type-aware numeric encoding.
+   *
+   * @param compressionType Type of numeric encoding.
+   * @param valueSize Size of each value, 4 for INT/FLOAT and 8 for LONG/DOUBLE.
+   * @return Compressor for the specified type.
+   */
+  public static ChunkCompressor getNumericCompressor(ChunkCompressionType compressionType, int valueSize) {
+    Preconditions.checkArgument(compressionType.isNumericEncoding(), "Illegal numeric encoding: %s", compressionType);
+    Preconditions.checkArgument(valueSize == Integer.BYTES || valueSize == Long.BYTES, "Illegal value size: %s",
+        valueSize);
+    return new NumericChunkCompressor(compressionType, valueSize);
+  }
+
   /**
    * Returns the chunk decompressor for the specified name.
    *
@@ -97,6 +119,12 @@ public class ChunkCompressorFactory {
       case LZ4_LENGTH_PREFIXED:
         return LZ4WithLengthDecompressor.INSTANCE;
 
+      case FOR:
+      case DELTA:
+      case DELTADELTA:
+      case XOR:
+        return new NumericChunkDecompressor(compressionType);
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
@@ -0,0 +1,369 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.io.compression;
+
+import com.google.common.base.Preconditions;
+import java.nio.ByteBuffer;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+
+
+/**
+ * Type-aware encodings for chunks of fixed width numeric values (INT, LONG, FLOAT, DOUBLE).
+ * <p>The values are encoded based on their bits, where 4-byte values are widened to long. The encoded chunk has the
+ * following layout:
+ * <ul>
+ *   <li>Byte: Size of each value (4 or 8)</li>
+ *   <li>Integer: Number of values</li>
+ *   <li>Encoding specific data:
+ *     <ul>
+ *       <li>FOR: min value (long), bit width (byte), bit-packed value - min for all values</li>
+ *       <li>DELTA: first value (long), followed by FOR of the zig-zag encoded deltas</li>
+ *       <li>DELTADELTA: first value (long), first delta (long), followed by FOR of the zig-zag encoded
+ *       delta-of-deltas</li>
+ *       <li>XOR: Gorilla-style bit stream of the XOR between each value and its previous value</li>
+ *     </ul>
+ *   </li>
+ * </ul>
+ * FOR, DELTA and DELTADELTA sign-extend 4-byte values so that small negative values stay small, while XOR
+ * zero-extends them so that the high bits do not add noise. Either way, 4-byte values can be restored by casting the
+ * decoded long to int.
+ */
+public final class NumericChunkCodec {
+  private static final int HEADER_SIZE = Byte.BYTES + Integer.BYTES;
+  // Min value (long) and bit width (byte) of the frame-of-reference section
+  private static final int FOR_HEADER_SIZE = Long.BYTES + Byte.BYTES;
+  // Worst case number of bits for each XOR encoded value: control bits (2), leading zeros (6), length (6), value (64)
+  private static final int MAX_XOR_BITS_PER_VALUE = 78;
+
+  private NumericChunkCodec() {
+  }
+
+  /**
+   * Returns the max size of the encoded chunk for the given uncompressed chunk size.
+   */
+  public static int maxEncodedSize(int uncompressedSize, int valueSize) {
+    int numValues = uncompressedSize / valueSize;
+    // 2 longs for the first value and delta, FOR header, and 1 long for the padding of the bit stream
+    return HEADER_SIZE + 2 * Long.BYTES + FOR_HEADER_SIZE + (int) (((long) numValues * MAX_XOR_BITS_PER_VALUE + 7) / 8)
+        + Long.BYTES;
+  }
+
+  /**
+   * Encodes all the remaining values in the input buffer into the output buffer, and returns the encoded size.
+   */
+  public static int encode(ChunkCompressionType compressionType, ByteBuffer input, int valueSize, ByteBuffer output) {
+    Preconditions.checkArgument(valueSize == Integer.BYTES || valueSize == Long.BYTES, "Unsupported value size: %s",
+        valueSize);
+    int numValues = input.remaining() / valueSize;
+    long[] values = new long[numValues];
+    boolean zeroExtend = compressionType == ChunkCompressionType.XOR;
+    for (int i = 0; i < numValues; i++) {
+      if (valueSize == Integer.BYTES) {
+        int value = input.getInt();
+        values[i] = zeroExtend ? value & 0xFFFFFFFFL : value;
+      } else {
+        values[i] = input.getLong();
+      }
+    }
+
+    int startPosition = output.position();
+    output.put((byte) valueSize);
+    output.putInt(numValues);
+    if (numValues > 0) {
+      switch (compressionType) {
+        case FOR:
+          encodeFrameOfReference(values, 0, numValues, false, output);
+          break;
+        case DELTA:
+          output.putLong(values[0]);
+          encodeFrameOfReference(zigZagDeltas(values, 1), 0, numValues - 1, true, output);
+          break;
+        case DELTADELTA:
+          output.putLong(values[0]);
+          if (numValues > 1) {
+            long[] deltas = deltas(values);
+            output.putLong(deltas[1]);
+            encodeFrameOfReference(zigZagDeltas(deltas, 2), 0, numValues - 2, true, output);
+          }
+          break;
+        case XOR:
+          encodeXor(values, numValues, valueSize * Byte.SIZE, output);
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported numeric encoding: " + compressionType);
+      }
+    }
+    return output.position() - startPosition;
+  }
+
+  /**
+   * Returns the size of each value (4 or 8) of the encoded chunk.
+   */
+  public static int getValueSize(ByteBuffer encoded) {
+    return encoded.get(encoded.position());
+  }
+
+  /**
+   * Returns the number of values of the encoded chunk.
+   */
+  public static int getNumValues(ByteBuffer encoded) {
+    return encoded.getInt(encoded.position() + Byte.BYTES);
+  }
+
+  /**
+   * Decodes the encoded chunk into the given array, and returns the number of values decoded. Each decoded value holds
+   * the bits of the original value, where 4-byte values can be restored by casting to int. The position of the encoded
+   * buffer is not changed.
+   */
+  public static int decode(ChunkCompressionType compressionType, ByteBuffer encoded, long[] values) {
+    ByteBuffer input = encoded.duplicate();
+    int valueSize = input.get();
+    int numValues = input.getInt();
+    if (numValues == 0) {
+      return 0;
+    }
+    switch (compressionType) {
+      case FOR:
+        decodeFrameOfReference(input, values, 0, numValues);
+        break;
+      case DELTA: {
+        values[0] = input.getLong();
+        decodeFrameOfReference(input, values, 1, numValues);
+        for (int i = 1; i < numValues; i++) {
+          values[i] = values[i - 1] + zigZagDecode(values[i]);
+        }
+        break;
+      }
+      case DELTADELTA: {
+        values[0] = input.getLong();
+        if (numValues > 1) {
+          long delta = input.getLong();
+          values[1] = values[0] + delta;
+          decodeFrameOfReference(input, values, 2, numValues);
+          for (int i = 2; i < numValues; i++) {
+            delta += zigZagDecode(values[i]);
+            values[i] = values[i - 1] + delta;
+          }
+        }
+        break;
+      }
+      case XOR:
+        decodeXor(input, values, numValues, valueSize * Byte.SIZE);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported numeric encoding: " + compressionType);
+    }
+    return numValues;
+  }
+
+  private static long[] deltas(long[] values) {
+    long[] deltas = new long[values.length];
+    for (int i = 1; i < values.length; i++) {
+      deltas[i] = values[i] - values[i - 1];
+    }
+    return deltas;
+  }
+
+  /**
+   * Returns the zig-zag encoded deltas between the consecutive values starting from the given index.
+   */
+  private static long[] zigZagDeltas(long[] values, int startIndex) {
+    int numDeltas = values.length - startIndex;
+    long[] deltas = new long[numDeltas];
+    for (int i = 0; i < numDeltas; i++) {
+      long delta = values[startIndex + i] - values[startIndex + i - 1];
+      deltas[i] = (delta << 1) ^ (delta >> 63);
+    }
+    return deltas;
+  }
+
+  private static long zigZagDecode(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Encodes the values from {@code from} (inclusive) to {@code to} (exclusive) as the differences from the min value,
+   * bit-packed with the bit width of the max difference.
+   */
+  private static void encodeFrameOfReference(long[] values, int from, int to, boolean unsigned, ByteBuffer output) {
+    if (from == to) {
+      return;
+    }
+    long min = values[from];
+    for (int i = from + 1; i < to; i++) {
+      long value = values[i];
+      if (unsigned ? Long.compareUnsigned(value, min) < 0 : value < min) {
+        min = value;
+      }
+    }
+    long bits = 0;
+    for (int i = from; i < to; i++) {
+      bits |= values[i] - min;
+    }
+    int bitWidth = Long.SIZE - Long.numberOfLeadingZeros(bits);
+    output.putLong(min);
+    output.put((byte) bitWidth);
+    if (bitWidth > 0) {
+      BitWriter bitWriter = new BitWriter(output);
+      for (int i = from; i < to; i++) {
+        bitWriter.write(values[i] - min, bitWidth);
+      }
+      bitWriter.flush();
+    }
+  }
+
+  /**
+   * Decodes the frame-of-reference encoded values into the array from {@code from} (inclusive) to {@code to}
+   * (exclusive).
+   */
+  private static void decodeFrameOfReference(ByteBuffer input, long[] values, int from, int to) {
+    if (from == to) {
+      return;
+    }
+    long min = input.getLong();
+    int bitWidth = input.get();
+    if (bitWidth == 0) {
+      for (int i = from; i < to; i++) {
+        values[i] = min;
+      }
+    } else {
+      BitReader bitReader = new BitReader(input);
+      for (int i = from; i < to; i++) {
+        values[i] = min + bitReader.read(bitWidth);
+      }
+    }
+  }
+
+  private static void encodeXor(long[] values, int numValues, int valueBits, ByteBuffer output) {
+    BitWriter bitWriter = new BitWriter(output);
+    long previousValue = values[0];
+    bitWriter.write(previousValue, valueBits);
+    // Window of the meaningful bits of the previous XOR, where -1 indicates no window yet
+    int previousLeadingZeros = -1;
+    int previousTrailingZeros = 0;
+    for (int i = 1; i < numValues; i++) {
+      long xor = values[i] ^ previousValue;
+      previousValue = values[i];
+      if (xor == 0) {
+        bitWriter.write(0, 1);
+        continue;
+      }
+      int leadingZeros = Long.numberOfLeadingZeros(xor);
+      int trailingZeros = Long.numberOfTrailingZeros(xor);
+      if (previousLeadingZeros >= 0 && leadingZeros >= previousLeadingZeros
+          && trailingZeros >= previousTrailingZeros) {
+        // Meaningful bits fall within the previous window
+        bitWriter.write(0b10, 2);
+        bitWriter.write(xor >>> previousTrailingZeros, Long.SIZE - previousLeadingZeros - previousTrailingZeros);
+      } else {
+        int numMeaningfulBits = Long.SIZE - leadingZeros - trailingZeros;
+        bitWriter.write(0b11, 2);
+        bitWriter.write(leadingZeros, 6);
+        bitWriter.write(numMeaningfulBits - 1, 6);
+        bitWriter.write(xor >>> trailingZeros, numMeaningfulBits);
+        previousLeadingZeros = leadingZeros;
+        previousTrailingZeros = trailingZeros;
+      }
+    }
+    bitWriter.flush();
+  }
+
+  private static void decodeXor(ByteBuffer input, long[] values, int numValues, int valueBits) {
+    BitReader bitReader = new BitReader(input);
+    long previousValue = bitReader.read(valueBits);
+    values[0] = previousValue;
+    int previousLeadingZeros = 0;
+    int previousTrailingZeros = 0;
+    for (int i = 1; i < numValues; i++) {
+      if (bitReader.read(1) != 0) {
+        if (bitReader.read(1) != 0) {
+          previousLeadingZeros = (int) bitReader.read(6);
+          previousTrailingZeros = Long.SIZE - previousLeadingZeros - ((int) bitReader.read(6) + 1);
+        }
+        long meaningfulBits = bitReader.read(Long.SIZE - previousLeadingZeros - previousTrailingZeros);
+        previousValue ^= meaningfulBits << previousTrailingZeros;
+      }
+      values[i] = previousValue;
+    }
+  }
+
+  private static long mask(int numBits) {
+    return numBits == Long.SIZE ? -1L : (1L << numBits) - 1;
+  }
+
+  /**
+   * Writes values with arbitrary bit width (up to 64) into the buffer, most significant bit first.
+   */
+  private static final class BitWriter {
+    private final ByteBuffer _output;
+    private long _bits;
+    private int _numBits;
+
+    BitWriter(ByteBuffer output) {
+      _output = output;
+    }
+
+    void write(long value, int numBits) {
+      if (numBits > Integer.SIZE) {
+        write(value >>> Integer.SIZE, numBits - Integer.SIZE);
+        numBits = Integer.SIZE;
+      }
+      // At most 7 pending bits, so the pending bits plus 32 new bits always fit into the long
+      _bits = (_bits << numBits) | (value & mask(numBits));
+      _numBits += numBits;
+      while (_numBits >= Byte.SIZE) {
+        _numBits -= Byte.SIZE;
+        _output.put((byte) (_bits >>> _numBits));
+      }
+    }
+
+    void flush() {
+      if (_numBits > 0) {
+        _output.put((byte) (_bits << (Byte.SIZE - _numBits)));
+        _numBits = 0;
+      }
+    }
+  }
+
+  /**
+   * Reads values with arbitrary bit width (up to 64) written by the {@link BitWriter}.
+   */
+  private static final class BitReader {
+    private final ByteBuffer _input;
+    private long _bits;
+    private int _numBits;
+
+    BitReader(ByteBuffer input) {
+      _input = input;
+    }
+
+    long read(int numBits) {
+      if (numBits > Integer.SIZE) {
+        long high = read(numBits - Integer.SIZE);
+        return (high << Integer.SIZE) | read(Integer.SIZE);
+      }
+      while (_numBits < numBits) {
+        _bits = (_bits << Byte.SIZE) | (_input.get() & 0xFF);
+        _numBits += Byte.SIZE;
+      }
+      _numBits -= numBits;
+      return (_bits >>> _numBits) & mask(numBits);
+    }
+  }
+}
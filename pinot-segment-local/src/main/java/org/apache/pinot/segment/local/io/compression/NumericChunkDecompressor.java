@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.io.compression;
+
+import java.nio.ByteBuffer;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.compression.ChunkDecompressor;
+
+
+/**
+ * Implementation of {@link ChunkDecompressor} for the type-aware numeric encodings of {@link NumericChunkCodec}. The
+ * values are decompressed as big-endian 4-byte or 8-byte values based on the value size stored in the chunk.
+ */
+class NumericChunkDecompressor implements ChunkDecompressor {
+  private final ChunkCompressionType _compressionType;
+
+  NumericChunkDecompressor(ChunkCompressionType compressionType) {
+    _compressionType = compressionType;
+  }
+
+  @Override
+  public int decompress(ByteBuffer compressedInput, ByteBuffer decompressedOutput) {
+    int valueSize = NumericChunkCodec.getValueSize(compressedInput);
+    long[] values = new long[NumericChunkCodec.getNumValues(compressedInput)];
+    int numValues = NumericChunkCodec.decode(_compressionType, compressedInput, values);
+    if (valueSize == Integer.BYTES) {
+      for (int i = 0; i < numValues; i++) {
+        decompressedOutput.putInt((int) values[i]);
+      }
+    } else {
+      for (int i = 0; i < numValues; i++) {
+        decompressedOutput.putLong(values[i]);
+      }
+    }
+    decompressedOutput.flip();
+    return decompressedOutput.limit();
+  }
+
+  @Override
+  public int decompressedLength(ByteBuffer compressedInput) {
+    return NumericChunkCodec.getNumValues(compressedInput) * NumericChunkCodec.getValueSize(compressedInput);
+  }
+}
@@ -0,0 +1,242 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.io.util;
+
+import java.util.Arrays;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * The value reader for front coded var-length values (STRING and BYTES). See {@link FrontCodedValueWriter} for the file
+ * layout.
+ * <p>Reading a value decodes the values from the start of its block. Lookups first binary search the block leading
+ * values in place within the buffer, then scan the values within a single block, so no value is materialized on heap
+ * except for the ones within the candidate block.
+ */
+public class FrontCodedValueReader implements ValueReader {
+  private final PinotDataBuffer _dataBuffer;
+  private final int _numValues;
+  private final int _blockSize;
+  private final int _maxValueLength;
+  private final int _numBlocks;
+  private final int _dataSectionStartOffset;
+
+  public FrontCodedValueReader(PinotDataBuffer dataBuffer) {
+    _dataBuffer = dataBuffer;
+    _numValues = dataBuffer.getInt(FrontCodedValueWriter.NUM_VALUES_OFFSET);
+    _blockSize = dataBuffer.getInt(FrontCodedValueWriter.BLOCK_SIZE_OFFSET);
+    _maxValueLength = dataBuffer.getInt(FrontCodedValueWriter.MAX_VALUE_LENGTH_OFFSET);
+    _numBlocks = (_numValues + _blockSize - 1) / _blockSize;
+    _dataSectionStartOffset = dataBuffer.getInt(FrontCodedValueWriter.DATA_SECTION_OFFSET_POSITION);
+  }
+
+  public static boolean isFrontCodedValueBuffer(PinotDataBuffer buffer) {
+    // If the buffer is smaller than header size, it's not a front coded dictionary.
+    if (buffer.size() < FrontCodedValueWriter.HEADER_LENGTH) {
+      return false;
+    }
+    byte[] magicBytes = FrontCodedValueWriter.MAGIC_BYTES;
+    int length = magicBytes.length;
+    for (int i = 0; i < length; i++) {
+      if (buffer.getByte(i) != magicBytes[i]) {
+        return false;
+      }
+    }
+    return buffer.getInt(FrontCodedValueWriter.VERSION_OFFSET) == FrontCodedValueWriter.VERSION;
+  }
+
+  public int getNumValues() {
+    return _numValues;
+  }
+
+  public int getMaxValueLength() {
+    return _maxValueLength;
+  }
+
+  @Override
+  public int getInt(int index) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public long getLong(int index) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public float getFloat(int index) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public double getDouble(int index) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public byte[] getUnpaddedBytes(int index, int numBytesPerValue, byte[] buffer) {
+    return getBytes(index, numBytesPerValue);
+  }
+
+  @Override
+  public String getUnpaddedString(int index, int numBytesPerValue, byte[] buffer) {
+    if (buffer.length < _maxValueLength) {
+      buffer = new byte[_maxValueLength];
+    }
+    int length = decode(index, buffer);
+    return new String(buffer, 0, length, UTF_8);
+  }
+
+  @Override
+  public String getPaddedString(int index, int numBytesPerValue, byte[] buffer) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public byte[] getBytes(int index, int numBytesPerValue) {
+    byte[] buffer = new byte[_maxValueLength];
+    int length = decode(index, buffer);
+    return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+  }
+
+  @Override
+  public int compareUtf8Bytes(int index, int numBytesPerValue, byte[] bytes) {
+    byte[] buffer = new byte[_maxValueLength];
+    int length = decode(index, buffer);
+    return ValueReaderComparisons.compareUtf8Bytes(buffer, length, bytes);
+  }
+
+  @Override
+  public int compareBytes(int index, int numBytesPerValue, byte[] bytes) {
+    byte[] buffer = new byte[_maxValueLength];
+    int length = decode(index, buffer);
+    return ValueReaderComparisons.compareBytes(buffer, length, bytes);
+  }
+
+  /**
+   * Returns the index of the given value if it exists, or {@code -(insertionPoint + 1)} otherwise, same as
+   * {@link Arrays#binarySearch(Object[], Object)}.
+   *
+   * @param bytes Value to look up
+   * @param utf8 Whether to compare the values as UTF-8 encoded strings or as unsigned bytes
+   */
+  public int binarySearch(byte[] bytes, boolean utf8) {
+    // Find the last block with leading value less than or equal to the given value
+    int low = 0;
+    int high = _numBlocks - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long offset = getBlockOffset(mid);
+      int length = readVarInt(offset);
+      offset += varIntSize(length);
+      int compareResult = utf8 ? ValueReaderComparisons.compareUtf8Bytes(_dataBuffer, offset, length, false, bytes)
+          : ValueReaderComparisons.compareBytes(_dataBuffer, offset, length, bytes);
+      if (compareResult < 0) {
+        low = mid + 1;
+      } else if (compareResult > 0) {
+        high = mid - 1;
+      } else {
+        return mid * _blockSize;
+      }
+    }
+    if (high < 0) {
+      return -1;
+    }
+
+    // Scan the following values within the block
+    int blockId = high;
+    int index = blockId * _blockSize;
+    int endIndex = Math.min(index + _blockSize, _numValues);
+    byte[] buffer = new byte[_maxValueLength];
+    long offset = getBlockOffset(blockId);
+    int length = readVarInt(offset);
+    offset += varIntSize(length);
+    _dataBuffer.copyTo(offset, buffer, 0, length);
+    offset += length;
+    while (++index < endIndex) {
+      int prefixLength = readVarInt(offset);
+      offset += varIntSize(prefixLength);
+      int suffixLength = readVarInt(offset);
+      offset += varIntSize(suffixLength);
+      _dataBuffer.copyTo(offset, buffer, prefixLength, suffixLength);
+      offset += suffixLength;
+      length = prefixLength + suffixLength;
+      int compareResult = utf8 ? ValueReaderComparisons.compareUtf8Bytes(buffer, length, bytes)
+          : ValueReaderComparisons.compareBytes(buffer, length, bytes);
+      if (compareResult == 0) {
+        return index;
+      }
+      if (compareResult > 0) {
+        return -(index + 1);
+      }
+    }
+    return -(endIndex + 1);
+  }
+
+  /**
+   * Decodes the value at the given index into the buffer, and returns the length of the value.
+   * NOTE: The passed in buffer should have capacity of at least the max value length.
+   */
+  private int decode(int index, byte[] buffer) {
+    int blockId = index / _blockSize;
+    long offset = getBlockOffset(blockId);
+    int length = readVarInt(offset);
+    offset += varIntSize(length);
+    _dataBuffer.copyTo(offset, buffer, 0, length);
+    offset += length;
+    for (int i = blockId * _blockSize; i < index; i++) {
+      int prefixLength = readVarInt(offset);
+      offset += varIntSize(prefixLength);
+      int suffixLength = readVarInt(offset);
+      offset += varIntSize(suffixLength);
+      _dataBuffer.copyTo(offset, buffer, prefixLength, suffixLength);
+      offset += suffixLength;
+      length = prefixLength + suffixLength;
+    }
+    return length;
+  }
+
+  private long getBlockOffset(int blockId) {
+    return _dataBuffer.getInt(_dataSectionStartOffset + (long) blockId * Integer.BYTES);
+  }
+
+  private int readVarInt(long offset) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = _dataBuffer.getByte(offset++);
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+
+  private static int varIntSize(int value) {
+    return value < (1 << 7) ? 1 : value < (1 << 14) ? 2 : value < (1 << 21) ? 3 : value < (1 << 28) ? 4 : 5;
+  }
+
+  @Override
+  public void close() {
+    // NOTE: DO NOT close the PinotDataBuffer here because it is tracked by the caller and might be reused later. The
+    // caller is responsible of closing the PinotDataBuffer.
+  }
+}
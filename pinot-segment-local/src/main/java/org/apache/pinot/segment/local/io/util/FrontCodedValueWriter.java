@@ -0,0 +1,173 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.io.util;
+
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import org.apache.pinot.segment.spi.memory.CleanerUtil;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * The value writer for sorted var-length values (STRING and BYTES) with blocked front coding. Values are grouped into
+ * blocks of a fixed number of values. The first value of each block is stored as is so that it can be compared in
+ * place during binary search, and each following value only stores the suffix after the prefix shared with the
+ * previous value. This is much more compact than {@link VarLengthValueWriter} for values with long common prefixes
+ * such as URLs or user agents.
+ *
+ * The layout of the file is as follows:
+ * <p>
+ * Header Section:
+ * <ul>
+ *   <li>Magic bytes: ".fc;", chosen to avoid conflicts with the fixed size and var-length value buffers</li>
+ *   <li>Version number</li>
+ *   <li>Number of values</li>
+ *   <li>Number of values per block</li>
+ *   <li>Maximum length of the values, which is the size of the buffer required to decode any value</li>
+ *   <li>The offset where the data section starts</li>
+ * </ul>
+ * <p>
+ * Data section:
+ * <ul>
+ *   <li>Block offsets array: Integer offsets of the start position of each block</li>
+ *   <li>
+ *     Blocks: The first value is stored as (var-int length, bytes), and each following value is stored as (var-int
+ *     shared prefix length, var-int suffix length, suffix bytes)
+ *   </li>
+ * </ul>
+ *
+ * @see FrontCodedValueReader
+ */
+public class FrontCodedValueWriter implements Closeable {
+  public static final int DEFAULT_BLOCK_SIZE = 16;
+
+  /**
+   * Magic bytes used to identify the dictionary files written in front coded format.
+   */
+  static final byte[] MAGIC_BYTES = ".fc;".getBytes(UTF_8);
+
+  /**
+   * Increment this version if there are any structural changes in the store format and
+   * deal with backward compatibility correctly based on old versions.
+   */
+  static final int VERSION = 1;
+
+  // Offsets of different fields in the header. Having as constants for readability.
+  static final int VERSION_OFFSET = MAGIC_BYTES.length;
+  static final int NUM_VALUES_OFFSET = VERSION_OFFSET + Integer.BYTES;
+  static final int BLOCK_SIZE_OFFSET = NUM_VALUES_OFFSET + Integer.BYTES;
+  static final int MAX_VALUE_LENGTH_OFFSET = BLOCK_SIZE_OFFSET + Integer.BYTES;
+  static final int DATA_SECTION_OFFSET_POSITION = MAX_VALUE_LENGTH_OFFSET + Integer.BYTES;
+  static final int HEADER_LENGTH = DATA_SECTION_OFFSET_POSITION + Integer.BYTES;
+
+  private final FileChannel _fileChannel;
+  private final ByteBuffer _offsetBuffer;
+  private final ByteBuffer _valueBuffer;
+  private final int _blockSize;
+
+  private byte[] _previousValue = new byte[0];
+  private int _previousLength;
+  private int _maxValueLength;
+  private int _numValuesAdded;
+
+  public FrontCodedValueWriter(File outputFile, int numValues)
+      throws IOException {
+    this(outputFile, numValues, DEFAULT_BLOCK_SIZE);
+  }
+
+  public FrontCodedValueWriter(File outputFile, int numValues, int blockSize)
+      throws IOException {
+    Preconditions.checkArgument(blockSize > 0, "Block size must be positive, got: %s", blockSize);
+    _blockSize = blockSize;
+    _fileChannel = new RandomAccessFile(outputFile, "rw").getChannel();
+    _offsetBuffer = _fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, Integer.MAX_VALUE);
+
+    // Write the header, the max value length is filled when closing the writer
+    _offsetBuffer.put(MAGIC_BYTES);
+    _offsetBuffer.putInt(VERSION);
+    _offsetBuffer.putInt(numValues);
+    _offsetBuffer.putInt(blockSize);
+    _offsetBuffer.putInt(0);
+    _offsetBuffer.putInt(HEADER_LENGTH);
+
+    int numBlocks = (numValues + blockSize - 1) / blockSize;
+    _valueBuffer = _offsetBuffer.duplicate();
+    _valueBuffer.position(HEADER_LENGTH + numBlocks * Integer.BYTES);
+  }
+
+  /**
+   * Adds the next value. Values must be added in sorted order for the shared prefixes to be effective.
+   */
+  public void add(byte[] value)
+      throws IOException {
+    add(value, value.length);
+  }
+
+  public void add(byte[] value, int length)
+      throws IOException {
+    if (_numValuesAdded % _blockSize == 0) {
+      _offsetBuffer.putInt(_valueBuffer.position());
+      putVarInt(length);
+      _valueBuffer.put(value, 0, length);
+    } else {
+      int prefixLength = 0;
+      int maxPrefixLength = Math.min(length, _previousLength);
+      while (prefixLength < maxPrefixLength && value[prefixLength] == _previousValue[prefixLength]) {
+        prefixLength++;
+      }
+      putVarInt(prefixLength);
+      putVarInt(length - prefixLength);
+      _valueBuffer.put(value, prefixLength, length - prefixLength);
+    }
+    if (_previousValue.length < length) {
+      _previousValue = new byte[Math.max(length, 2 * _previousValue.length)];
+    }
+    System.arraycopy(value, 0, _previousValue, 0, length);
+    _previousLength = length;
+    _maxValueLength = Math.max(_maxValueLength, length);
+    _numValuesAdded++;
+  }
+
+  private void putVarInt(int value) {
+    while ((value & ~0x7F) != 0) {
+      _valueBuffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    _valueBuffer.put((byte) value);
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    _offsetBuffer.putInt(MAX_VALUE_LENGTH_OFFSET, _maxValueLength);
+    int fileLength = _valueBuffer.position();
+    _fileChannel.truncate(fileLength);
+    _fileChannel.close();
+    if (CleanerUtil.UNMAP_SUPPORTED) {
+      CleanerUtil.BufferCleaner cleaner = CleanerUtil.getCleaner();
+      cleaner.freeBuffer(_offsetBuffer);
+    }
+  }
+}
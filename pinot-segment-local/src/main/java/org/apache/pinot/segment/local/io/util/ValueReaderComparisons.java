@@ -22,6 +22,8 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 
 public class ValueReaderComparisons {
   private ValueReaderComparisons() {
@@ -83,6 +85,33 @@ public class ValueReaderComparisons {
     return compareUtf8(dataBuffer, startOffset, buffer, mismatchPosition);
   }
 
+  static int compareBytes(byte[] ourBytes, int length, byte[] bytes) {
+    int limit = Math.min(length, bytes.length);
+    for (int i = 0; i < limit; i++) {
+      if (ourBytes[i] != bytes[i]) {
+        return (ourBytes[i] & 0xFF) - (bytes[i] & 0xFF);
+      }
+    }
+    return length - bytes.length;
+  }
+
+  static int compareUtf8Bytes(byte[] ourBytes, int length, byte[] bytes) {
+    int limit = Math.min(length, bytes.length);
+    for (int i = 0; i < limit; i++) {
+      byte ours = ourBytes[i];
+      byte theirs = bytes[i];
+      if (ours != theirs) {
+        // ASCII bytes always start a code point, and the content before the mismatch is identical
+        if (ours >= 0 && theirs >= 0) {
+          return ours - theirs;
+        }
+        // need to do utf8 decoding before comparison to respect collation rules
+        return new String(ourBytes, 0, length, UTF_8).compareTo(new String(bytes, UTF_8));
+      }
+    }
+    return length - bytes.length;
+  }
+
   private static int compareUtf8(PinotDataBuffer ourBuffer, long ourStartOffset, ByteBuffer theirBuffer,
       int mismatchPosition) {
     char ours1 = '\ufffd';
@@ -40,6 +40,12 @@ public abstract class BaseChunkSVForwardIndexWriter implements Closeable {
   // TODO: Remove this before release 0.5.0
   public static final int DEFAULT_VERSION = ForwardIndexConfig.DEFAULT_RAW_WRITER_VERSION;
   public static final int CURRENT_VERSION = 3;
+  // Size of the fixed part of the file header (version 2 onwards)
+  public static final int FIXED_HEADER_SIZE = 7 * Integer.BYTES;
+  // Zone map (min/max value of each chunk) is stored between the fixed header and the chunk offsets, starting with the
+  // magic marker. Older readers skip it because they locate the chunk offsets with the data header start offset.
+  public static final int ZONE_MAP_MAGIC_MARKER = 0x5A4F4E45;
+  public static final int ZONE_MAP_ENTRY_SIZE = 2 * Long.BYTES;
 
   private static final Logger LOGGER = LoggerFactory.getLogger(BaseChunkSVForwardIndexWriter.class);
   private static final int FILE_HEADER_ENTRY_CHUNK_OFFSET_SIZE_V1V2 = Integer.BYTES;
@@ -55,6 +61,9 @@ public abstract class BaseChunkSVForwardIndexWriter implements Closeable {
   protected long _dataOffset;
 
   private final int _headerEntryChunkOffsetSize;
+  // Offset of the first zone map entry in the header, or -1 if zone map is not written
+  private int _zoneMapOffset = -1;
+  private int _numZoneMapEntries;
 
   /**
    * Constructor for the class.
@@ -72,13 +81,42 @@ public abstract class BaseChunkSVForwardIndexWriter implements Closeable {
   protected BaseChunkSVForwardIndexWriter(File file, ChunkCompressionType compressionType, int totalDocs,
       int numDocsPerChunk, long chunkSize, int sizeOfEntry, int version, boolean fixed)
       throws IOException {
+    this(file, compressionType, totalDocs, numDocsPerChunk, chunkSize, sizeOfEntry, version, fixed, false);
+  }
+
+  /**
+   * Constructor for the class.
+   *
+   * @param file Data file to write into
+   * @param compressionType Type of compression
+   * @param totalDocs Total docs to write
+   * @param numDocsPerChunk Number of docs per data chunk
+   * @param chunkSize Size of chunk
+   * @param sizeOfEntry Size of entry (in bytes), max size for variable byte implementation.
+   * @param version version of File
+   * @param fixed if the data type is fixed width (required for version validation)
+   * @param writeZoneMap whether to reserve the zone map in the header (version 2 onwards), where the min/max value of
+   *                     each chunk should be recorded via {@link #putZoneMapEntry(long, long)} before writing the chunk
+   * @throws IOException if the file isn't found or can't be mapped
+   */
+  protected BaseChunkSVForwardIndexWriter(File file, ChunkCompressionType compressionType, int totalDocs,
+      int numDocsPerChunk, long chunkSize, int sizeOfEntry, int version, boolean fixed, boolean writeZoneMap)
+      throws IOException {
     Preconditions.checkArgument(version == DEFAULT_VERSION || version == CURRENT_VERSION
         || (fixed && version == 4));
     Preconditions.checkArgument(chunkSize <= Integer.MAX_VALUE, "chunk size limited to 2GB");
     _chunkSize = (int) chunkSize;
-    _chunkCompressor = ChunkCompressorFactory.getCompressor(compressionType);
+    if (compressionType.isNumericEncoding()) {
+      // Numeric encodings need the compression type stored in the header (version 2 onwards) to be read back
+      Preconditions.checkArgument(fixed && version > 1 && (sizeOfEntry == Integer.BYTES || sizeOfEntry == Long.BYTES),
+          "Compression type: %s only applies to fixed width numeric values with version 2 onwards", compressionType);
+      _chunkCompressor = ChunkCompressorFactory.getNumericCompressor(compressionType, sizeOfEntry);
+    } else {
+      _chunkCompressor = ChunkCompressorFactory.getCompressor(compressionType);
+    }
     _headerEntryChunkOffsetSize = getHeaderEntryChunkOffsetSize(version);
-    _dataOffset = writeHeader(compressionType, totalDocs, numDocsPerChunk, sizeOfEntry, version);
+    Preconditions.checkArgument(!writeZoneMap || version > 1, "Zone map is only supported from version 2 onwards");
+    _dataOffset = writeHeader(compressionType, totalDocs, numDocsPerChunk, sizeOfEntry, version, writeZoneMap);
     _chunkBuffer = ByteBuffer.allocateDirect(_chunkSize);
     int maxCompressedChunkSize = _chunkCompressor.maxCompressedSize(_chunkSize); // may exceed original chunk size
     _compressedBuffer = ByteBuffer.allocateDirect(maxCompressedChunkSize);
@@ -121,12 +159,14 @@ public abstract class BaseChunkSVForwardIndexWriter implements Closeable {
    * @param numDocsPerChunk Number of documents per chunk
    * @param sizeOfEntry Size of each entry
    * @param version Version of file
+   * @param writeZoneMap Whether to reserve the zone map
    * @return Size of header
    */
   private int writeHeader(ChunkCompressionType compressionType, int totalDocs, int numDocsPerChunk, int sizeOfEntry,
-      int version) {
+      int version, boolean writeZoneMap) {
     int numChunks = (totalDocs + numDocsPerChunk - 1) / numDocsPerChunk;
-    int headerSize = (7 * Integer.BYTES) + (numChunks * _headerEntryChunkOffsetSize);
+    int zoneMapSize = writeZoneMap ? Integer.BYTES + numChunks * ZONE_MAP_ENTRY_SIZE : 0;
+    int headerSize = FIXED_HEADER_SIZE + zoneMapSize + (numChunks * _headerEntryChunkOffsetSize);
 
     _header = ByteBuffer.allocateDirect(headerSize);
 
@@ -153,13 +193,33 @@ public abstract class BaseChunkSVForwardIndexWriter implements Closeable {
       offset += Integer.BYTES;
 
       // Start of chunk offsets.
-      int dataHeaderStart = offset + Integer.BYTES;
+      int dataHeaderStart = offset + Integer.BYTES + zoneMapSize;
       _header.putInt(dataHeaderStart);
+      offset += Integer.BYTES;
+
+      if (writeZoneMap) {
+        // Zone map entries are filled in when the chunks are written
+        _header.putInt(ZONE_MAP_MAGIC_MARKER);
+        _zoneMapOffset = offset + Integer.BYTES;
+        _header.position(dataHeaderStart);
+      }
     }
 
     return headerSize;
   }
 
+  /**
+   * Records the min/max value of the next chunk to be written into the zone map. Values are stored as long for INT/LONG
+   * values, and as the raw long bits of the double for FLOAT/DOUBLE values.
+   */
+  protected void putZoneMapEntry(long min, long max) {
+    Preconditions.checkState(_zoneMapOffset >= 0, "Zone map is not enabled");
+    int entryOffset = _zoneMapOffset + _numZoneMapEntries * ZONE_MAP_ENTRY_SIZE;
+    _header.putLong(entryOffset, min);
+    _header.putLong(entryOffset + Long.BYTES, max);
+    _numZoneMapEntries++;
+  }
+
   /**
    * Helper method to compress and write the current chunk.
    * <ul>
@@ -41,6 +41,9 @@ import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
  *   <li> Integer: Total number of docs (version 2 onwards). </li>
  *   <li> Integer: Compression type enum value (version 2 onwards). </li>
  *   <li> Integer: Start offset of data header (version 2 onwards). </li>
+ *   <li> Integer: Zone map magic marker (version 2 onwards). </li>
+ *   <li> Long pair array: Min/max value of each chunk (version 2 onwards), stored as long for INT/LONG values and as
+ *   the raw long bits of the double for FLOAT/DOUBLE values. </li>
  *   <li> Integer array: Integer offsets for all chunks in the data (upto version 2),
  *   Long array: Long offsets for all chunks in the data (version 3 onwards) </li>
  * </ul>
@@ -54,7 +57,14 @@ import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
  */
 @NotThreadSafe
 public class FixedByteChunkSVForwardIndexWriter extends BaseChunkSVForwardIndexWriter {
+  private final boolean _writeZoneMap;
   private int _chunkDataOffset;
+  // Min/max value of the current chunk
+  private long _minLong = Long.MAX_VALUE;
+  private long _maxLong = Long.MIN_VALUE;
+  private double _minDouble = Double.POSITIVE_INFINITY;
+  private double _maxDouble = Double.NEGATIVE_INFINITY;
+  private boolean _hasFloatingPointValues;
 
   /**
    * Constructor for the class.
@@ -73,29 +83,41 @@ public class FixedByteChunkSVForwardIndexWriter extends BaseChunkSVForwardIndexW
       throws IOException {
     super(file, compressionType, totalDocs, normalizeDocsPerChunk(writerVersion, numDocsPerChunk),
         (sizeOfEntry * normalizeDocsPerChunk(writerVersion, numDocsPerChunk)), sizeOfEntry,
-        writerVersion, true);
+        writerVersion, true, writerVersion > 1);
+    _writeZoneMap = writerVersion > 1;
     _chunkDataOffset = 0;
   }
 
   public void putInt(int value) {
+    _minLong = Math.min(_minLong, value);
+    _maxLong = Math.max(_maxLong, value);
     _chunkBuffer.putInt(value);
     _chunkDataOffset += Integer.BYTES;
     flushChunkIfNeeded();
   }
 
   public void putLong(long value) {
+    _minLong = Math.min(_minLong, value);
+    _maxLong = Math.max(_maxLong, value);
     _chunkBuffer.putLong(value);
     _chunkDataOffset += Long.BYTES;
     flushChunkIfNeeded();
   }
 
   public void putFloat(float value) {
+    // NOTE: Math.min()/max() propagate NaN, which makes the zone map match any predicate
+    _minDouble = Math.min(_minDouble, value);
+    _maxDouble = Math.max(_maxDouble, value);
+    _hasFloatingPointValues = true;
     _chunkBuffer.putFloat(value);
     _chunkDataOffset += Float.BYTES;
     flushChunkIfNeeded();
   }
 
   public void putDouble(double value) {
+    _minDouble = Math.min(_minDouble, value);
+    _maxDouble = Math.max(_maxDouble, value);
+    _hasFloatingPointValues = true;
     _chunkBuffer.putDouble(value);
     _chunkDataOffset += Double.BYTES;
     flushChunkIfNeeded();
@@ -103,8 +125,20 @@ public class FixedByteChunkSVForwardIndexWriter extends BaseChunkSVForwardIndexW
 
   @Override
   protected void writeChunk() {
+    if (_writeZoneMap) {
+      if (_hasFloatingPointValues) {
+        putZoneMapEntry(Double.doubleToRawLongBits(_minDouble), Double.doubleToRawLongBits(_maxDouble));
+      } else {
+        putZoneMapEntry(_minLong, _maxLong);
+      }
+    }
     super.writeChunk();
     _chunkDataOffset = 0;
+    _minLong = Long.MAX_VALUE;
+    _maxLong = Long.MIN_VALUE;
+    _minDouble = Double.POSITIVE_INFINITY;
+    _maxDouble = Double.NEGATIVE_INFINITY;
+    _hasFloatingPointValues = false;
   }
 
   private void flushChunkIfNeeded() {
@@ -35,6 +35,8 @@ import org.apache.pinot.segment.spi.memory.PinotDataBufferMemoryManager;
 import org.apache.pinot.segment.spi.partition.PartitionFunction;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.config.table.IndexConfig;
+import org.apache.pinot.spi.config.table.IndexingConfig;
+import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
 import org.apache.pinot.spi.config.table.TableConfig;
 import org.apache.pinot.spi.config.table.UpsertConfig;
 import org.apache.pinot.spi.config.table.ingestion.AggregationConfig;
@@ -66,6 +68,9 @@ public class RealtimeSegmentConfig {
   private final String _consumerDir;
   private final List<FieldConfig> _fieldConfigList;
   private final List<AggregationConfig> _ingestionAggregationConfigs;
+  private final List<StarTreeIndexConfig> _starTreeIndexConfigs;
+  private final boolean _starTreeEnabled;
+  private final int _starTreeMaxRecords;
 
   // TODO: Clean up this constructor. Most of these things can be extracted from tableConfig.
   private RealtimeSegmentConfig(String tableNameWithType, String segmentName, String streamName, Schema schema,
@@ -76,7 +81,8 @@ public class RealtimeSegmentConfig {
       String consumerDir, UpsertConfig.Mode upsertMode, List<String> upsertComparisonColumns,
       PartitionUpsertMetadataManager partitionUpsertMetadataManager,
       PartitionDedupMetadataManager partitionDedupMetadataManager, List<FieldConfig> fieldConfigList,
-      List<AggregationConfig> ingestionAggregationConfigs) {
+      List<AggregationConfig> ingestionAggregationConfigs, List<StarTreeIndexConfig> starTreeIndexConfigs,
+      boolean starTreeEnabled, int starTreeMaxRecords) {
     _tableNameWithType = tableNameWithType;
     _segmentName = segmentName;
     _streamName = streamName;
@@ -101,6 +107,9 @@ public class RealtimeSegmentConfig {
     _partitionDedupMetadataManager = partitionDedupMetadataManager;
     _fieldConfigList = fieldConfigList;
     _ingestionAggregationConfigs = ingestionAggregationConfigs;
+    _starTreeIndexConfigs = starTreeIndexConfigs;
+    _starTreeEnabled = starTreeEnabled;
+    _starTreeMaxRecords = starTreeMaxRecords;
   }
 
   public String getTableNameWithType() {
@@ -204,6 +213,18 @@ public class RealtimeSegmentConfig {
     return _ingestionAggregationConfigs;
   }
 
+  public List<StarTreeIndexConfig> getStarTreeIndexConfigs() {
+    return _starTreeIndexConfigs;
+  }
+
+  public boolean isStarTreeEnabled() {
+    return _starTreeEnabled;
+  }
+
+  public int getStarTreeMaxRecords() {
+    return _starTreeMaxRecords;
+  }
+
   public static class Builder {
     private String _tableNameWithType;
     private String _segmentName;
@@ -229,6 +250,9 @@ public class RealtimeSegmentConfig {
     private PartitionDedupMetadataManager _partitionDedupMetadataManager;
     private List<FieldConfig> _fieldConfigList;
     private List<AggregationConfig> _ingestionAggregationConfigs;
+    private List<StarTreeIndexConfig> _starTreeIndexConfigs;
+    private boolean _starTreeEnabled;
+    private int _starTreeMaxRecords = IndexingConfig.DEFAULT_REALTIME_STAR_TREE_MAX_RECORDS;
 
     public Builder() {
       _indexConfigByCol = new HashMap<>();
@@ -380,6 +404,21 @@ public class RealtimeSegmentConfig {
       return this;
     }
 
+    public Builder setStarTreeIndexConfigs(List<StarTreeIndexConfig> starTreeIndexConfigs) {
+      _starTreeIndexConfigs = starTreeIndexConfigs;
+      return this;
+    }
+
+    public Builder setStarTreeEnabled(boolean starTreeEnabled) {
+      _starTreeEnabled = starTreeEnabled;
+      return this;
+    }
+
+    public Builder setStarTreeMaxRecords(int starTreeMaxRecords) {
+      _starTreeMaxRecords = starTreeMaxRecords;
+      return this;
+    }
+
     public RealtimeSegmentConfig build() {
       Map<String, FieldIndexConfigs> indexConfigByCol = Maps.newHashMapWithExpectedSize(_indexConfigByCol.size());
       for (Map.Entry<String, FieldIndexConfigs.Builder> entry : _indexConfigByCol.entrySet()) {
@@ -390,7 +429,8 @@ public class RealtimeSegmentConfig {
           _capacity, _avgNumMultiValues, Collections.unmodifiableMap(indexConfigByCol), _segmentZKMetadata, _offHeap,
           _memoryManager, _statsHistory, _partitionColumn, _partitionFunction, _partitionId, _aggregateMetrics,
           _nullHandlingEnabled, _consumerDir, _upsertMode, _upsertComparisonColumns, _partitionUpsertMetadataManager,
-          _partitionDedupMetadataManager, _fieldConfigList, _ingestionAggregationConfigs);
+          _partitionDedupMetadataManager, _fieldConfigList, _ingestionAggregationConfigs, _starTreeIndexConfigs,
+          _starTreeEnabled, _starTreeMaxRecords);
     }
   }
 }
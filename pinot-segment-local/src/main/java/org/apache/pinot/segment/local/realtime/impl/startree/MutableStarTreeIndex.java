@@ -0,0 +1,810 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.realtime.impl.startree;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.pinot.segment.local.aggregator.ValueAggregator;
+import org.apache.pinot.segment.local.aggregator.ValueAggregatorFactory;
+import org.apache.pinot.segment.local.startree.OnHeapStarTree;
+import org.apache.pinot.segment.local.startree.StarTreeBuilderUtils.TreeNode;
+import org.apache.pinot.segment.local.startree.v2.builder.StarTreeV2BuilderConfig;
+import org.apache.pinot.segment.local.startree.v2.store.StarTreeDataSource;
+import org.apache.pinot.segment.spi.AggregationFunctionType;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReaderContext;
+import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
+import org.apache.pinot.segment.spi.index.startree.StarTree;
+import org.apache.pinot.segment.spi.index.startree.StarTreeNode;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2Constants;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2Constants.MetadataKey;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2Metadata;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.MetricFieldSpec;
+import org.apache.pinot.spi.utils.FixedIntArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The {@code MutableStarTreeIndex} class maintains a star-tree for a mutable segment.
+ * <p>Each ingested record is merged into the pre-aggregated record with the same dimension dictionary ids (in the
+ * split order), so the ingestion cost is constant per record and the memory is bounded by the number of unique
+ * dimension combinations. The number of pre-aggregated records is capped by a budget, and the star-tree is disabled
+ * (with all its memory released) once the budget is exceeded.
+ * <p>The star-tree (star-nodes and aggregated documents included) is constructed on heap from a snapshot of the
+ * pre-aggregated records, and covers the segment documents ingested before the snapshot. Queries are always served
+ * with the latest constructed star-tree, and are expected to scan the documents ingested after it (see
+ * {@link StarTreeV2#getNumSegmentDocsCovered()}). The star-tree is never constructed on the query threads: when a
+ * stale star-tree is used by a query, a rebuild is scheduled on a shared pool of daemon threads. At most one rebuild
+ * runs at a time for each star-tree, and a rebuild is only scheduled when enough records are ingested or enough time
+ * has passed since the previous one.
+ * <p>To keep the ingestion unblocked, the star-tree is never constructed while holding the lock shared with the
+ * consuming thread. The lock is only held to take a snapshot of the pre-aggregated records, where only the records
+ * updated since the previous snapshot are copied.
+ * <p>The dimensions are encoded with the dictionary ids of the mutable dictionaries, so the predicate evaluators
+ * created for the mutable segment can be applied to the star-tree directly.
+ * <p>{@link #index(int[], Object[])} is called by the single consuming thread, and {@link #getStarTree()} can be
+ * called concurrently by the query threads.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class MutableStarTreeIndex {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MutableStarTreeIndex.class);
+
+  // Rate limit of the rebuilds, where a stale star-tree is rebuilt when either limit is reached
+  public static final int DEFAULT_MIN_NEW_RECORDS_TO_REBUILD = 10_000;
+  public static final long DEFAULT_MIN_REBUILD_INTERVAL_MS = 5_000L;
+
+  private static final int NUM_BUILD_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+  private static final AtomicInteger THREAD_ID = new AtomicInteger();
+  private static final ExecutorService BUILD_EXECUTOR = Executors.newFixedThreadPool(NUM_BUILD_THREADS, r -> {
+    Thread thread = new Thread(r, "mutable-star-tree-builder-" + THREAD_ID.getAndIncrement());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private static final Comparator<Record> DIMENSIONS_COMPARATOR = (o1, o2) -> {
+    int numDimensions = o1._dimensions.length;
+    for (int i = 0; i < numDimensions; i++) {
+      if (o1._dimensions[i] != o2._dimensions[i]) {
+        return Integer.compare(o1._dimensions[i], o2._dimensions[i]);
+      }
+    }
+    return 0;
+  };
+
+  private final StarTreeV2BuilderConfig _builderConfig;
+  private final int _numDimensions;
+  private final String[] _dimensionsSplitOrder;
+  private final FieldSpec[] _dimensionFieldSpecs;
+  private final Dictionary[] _dimensionDictionaries;
+  private final Set<Integer> _skipStarNodeCreationForDimensions;
+  private final int _numMetrics;
+  // Name of the function-column pairs
+  private final String[] _metrics;
+  // Column in the function-column pairs, null for COUNT aggregation function
+  private final String[] _metricColumns;
+  private final ValueAggregator[] _valueAggregators;
+  private final int _maxLeafRecords;
+  private final int _maxNumRecords;
+  private final int _minNewRecordsToRebuild;
+  private final long _minRebuildIntervalMs;
+  private final Executor _buildExecutor;
+
+  // Guarded by this
+  // Map from dimension dictionary ids to the index of the pre-aggregated record
+  private final Map<FixedIntArray, Integer> _recordIdMap = new HashMap<>();
+  // Pre-aggregated records updated by the consuming thread
+  private final List<Record> _records = new ArrayList<>();
+  // Indexes of the pre-aggregated records updated since the last snapshot
+  private final IntArrayList _updatedRecordIds = new IntArrayList();
+  // Copy of the pre-aggregated records as of the last snapshot, where the records are never modified after being added
+  // so that the star-trees can be constructed from them without holding the lock
+  private final List<Record> _snapshotRecords = new ArrayList<>();
+  private volatile long _numRecordsIndexed;
+  private volatile boolean _disabled;
+
+  private final AtomicBoolean _building = new AtomicBoolean();
+  private volatile long _lastBuildTimeMs;
+  private volatile StarTreeSnapshot _starTreeSnapshot;
+
+  /**
+   * Constructor for the mutable star-tree index.
+   *
+   * @param builderConfig Builder config of the star-tree
+   * @param fieldSpecMap Map from column to field spec of the mutable segment
+   * @param dictionaryMap Map from column to dictionary of the mutable segment
+   * @param maxNumRecords Max number of pre-aggregated records before the star-tree is disabled
+   */
+  public MutableStarTreeIndex(StarTreeV2BuilderConfig builderConfig, Map<String, FieldSpec> fieldSpecMap,
+      Map<String, ? extends Dictionary> dictionaryMap, int maxNumRecords) {
+    this(builderConfig, fieldSpecMap, dictionaryMap, maxNumRecords, DEFAULT_MIN_NEW_RECORDS_TO_REBUILD,
+        DEFAULT_MIN_REBUILD_INTERVAL_MS, BUILD_EXECUTOR);
+  }
+
+  @VisibleForTesting
+  MutableStarTreeIndex(StarTreeV2BuilderConfig builderConfig, Map<String, FieldSpec> fieldSpecMap,
+      Map<String, ? extends Dictionary> dictionaryMap, int maxNumRecords, int minNewRecordsToRebuild,
+      long minRebuildIntervalMs, Executor buildExecutor) {
+    _builderConfig = builderConfig;
+
+    List<String> dimensionsSplitOrder = builderConfig.getDimensionsSplitOrder();
+    _numDimensions = dimensionsSplitOrder.size();
+    _dimensionsSplitOrder = new String[_numDimensions];
+    _dimensionFieldSpecs = new FieldSpec[_numDimensions];
+    _dimensionDictionaries = new Dictionary[_numDimensions];
+    _skipStarNodeCreationForDimensions = new HashSet<>();
+    Set<String> skipStarNodeCreationForDimensions = builderConfig.getSkipStarNodeCreationForDimensions();
+    for (int i = 0; i < _numDimensions; i++) {
+      String dimension = dimensionsSplitOrder.get(i);
+      FieldSpec fieldSpec = fieldSpecMap.get(dimension);
+      Preconditions.checkState(fieldSpec != null && fieldSpec.isSingleValueField(),
+          "Dimension: %s must be a single-value column", dimension);
+      Dictionary dictionary = dictionaryMap.get(dimension);
+      Preconditions.checkState(dictionary != null, "Dimension: %s does not have dictionary", dimension);
+      _dimensionsSplitOrder[i] = dimension;
+      _dimensionFieldSpecs[i] = fieldSpec;
+      _dimensionDictionaries[i] = dictionary;
+      if (skipStarNodeCreationForDimensions.contains(dimension)) {
+        _skipStarNodeCreationForDimensions.add(i);
+      }
+    }
+
+    Set<AggregationFunctionColumnPair> functionColumnPairs = builderConfig.getFunctionColumnPairs();
+    _numMetrics = functionColumnPairs.size();
+    _metrics = new String[_numMetrics];
+    _metricColumns = new String[_numMetrics];
+    _valueAggregators = new ValueAggregator[_numMetrics];
+    int index = 0;
+    for (AggregationFunctionColumnPair functionColumnPair : functionColumnPairs) {
+      _metrics[index] = functionColumnPair.toColumnName();
+      _valueAggregators[index] = ValueAggregatorFactory.getValueAggregator(functionColumnPair.getFunctionType());
+      // Ignore the column for COUNT aggregation function
+      if (_valueAggregators[index].getAggregationType() != AggregationFunctionType.COUNT) {
+        String column = functionColumnPair.getColumn();
+        FieldSpec fieldSpec = fieldSpecMap.get(column);
+        Preconditions.checkState(fieldSpec != null && fieldSpec.isSingleValueField(),
+            "Metric column: %s must be a single-value column", column);
+        _metricColumns[index] = column;
+      }
+      index++;
+    }
+
+    _maxLeafRecords = builderConfig.getMaxLeafRecords();
+    _maxNumRecords = maxNumRecords;
+    _minNewRecordsToRebuild = minNewRecordsToRebuild;
+    _minRebuildIntervalMs = minRebuildIntervalMs;
+    _buildExecutor = buildExecutor;
+  }
+
+  /**
+   * Returns the dimensions in the split order, whose dictionary ids should be passed to {@link #index(int[], Object[])}
+   * in the same order.
+   */
+  public String[] getDimensionsSplitOrder() {
+    return _dimensionsSplitOrder;
+  }
+
+  /**
+   * Returns the columns of the function-column pairs, whose raw values should be passed to
+   * {@link #index(int[], Object[])} in the same order. The column is {@code null} for COUNT aggregation function.
+   */
+  public String[] getMetricColumns() {
+    return _metricColumns;
+  }
+
+  /**
+   * Returns {@code true} if the star-tree is disabled (no longer maintained), {@code false} otherwise.
+   */
+  public boolean isDisabled() {
+    return _disabled;
+  }
+
+  /**
+   * Indexes a record into the star-tree. The star-tree is disabled when the number of pre-aggregated records exceeds
+   * the budget.
+   *
+   * @param dimensions Dictionary ids of the dimensions in the split order
+   * @param rawMetricValues Raw values of the columns in the function-column pairs
+   */
+  // NOTE: Okay for single-writer
+  @SuppressWarnings("NonAtomicOperationOnVolatileField")
+  public void index(int[] dimensions, Object[] rawMetricValues) {
+    if (_disabled) {
+      return;
+    }
+    synchronized (this) {
+      Integer recordId = _recordIdMap.get(new FixedIntArray(dimensions));
+      if (recordId == null) {
+        if (_records.size() == _maxNumRecords) {
+          disable(String.format("number of pre-aggregated records exceeds the limit: %d", _maxNumRecords));
+          return;
+        }
+        Object[] metrics = new Object[_numMetrics];
+        for (int i = 0; i < _numMetrics; i++) {
+          metrics[i] = _valueAggregators[i].getInitialAggregatedValue(rawMetricValues[i]);
+        }
+        int[] dimensionsCopy = Arrays.copyOf(dimensions, _numDimensions);
+        recordId = _records.size();
+        _recordIdMap.put(new FixedIntArray(dimensionsCopy), recordId);
+        _records.add(new Record(dimensionsCopy, metrics));
+        _updatedRecordIds.add((int) recordId);
+      } else {
+        Record record = _records.get(recordId);
+        Object[] metrics = record._metrics;
+        for (int i = 0; i < _numMetrics; i++) {
+          metrics[i] = _valueAggregators[i].applyRawValue(metrics[i], rawMetricValues[i]);
+        }
+        if (!record._updated) {
+          record._updated = true;
+          _updatedRecordIds.add((int) recordId);
+        }
+      }
+      _numRecordsIndexed++;
+    }
+  }
+
+  /**
+   * Disables the star-tree and releases all its memory. The star-tree must be disabled when a record cannot be indexed,
+   * because the star-tree documents would no longer match the segment documents.
+   */
+  public synchronized void disable(String reason) {
+    if (_disabled) {
+      return;
+    }
+    LOGGER.warn("Disabling star-tree with dimensions: {} because {}", Arrays.toString(_dimensionsSplitOrder), reason);
+    _disabled = true;
+    _starTreeSnapshot = null;
+    _recordIdMap.clear();
+    _records.clear();
+    _updatedRecordIds.clear();
+    _snapshotRecords.clear();
+  }
+
+  /**
+   * Returns the latest constructed star-tree, or {@code null} if no star-tree is constructed yet or the star-tree is
+   * disabled. The star-tree only covers the segment documents ingested before it is constructed. This method never
+   * constructs the star-tree on the caller thread, but schedules the first construction when there is no star-tree
+   * yet. The following rebuilds are scheduled when a stale star-tree is used by a query (see
+   * {@link StarTreeSnapshot#getStarTree()}), so that only the star-trees matching the queries are rebuilt.
+   */
+  @Nullable
+  public StarTreeV2 getStarTree() {
+    if (_disabled) {
+      return null;
+    }
+    StarTreeSnapshot starTreeSnapshot = _starTreeSnapshot;
+    if (starTreeSnapshot == null) {
+      scheduleBuildIfNeeded();
+      // Read again in case the star-tree is constructed by the caller thread (e.g. with a direct executor)
+      return _starTreeSnapshot;
+    }
+    return starTreeSnapshot;
+  }
+
+  /**
+   * Schedules a rebuild of the star-tree if it is stale and the rate limit is reached, and there is no rebuild running.
+   */
+  private void scheduleBuildIfNeeded() {
+    if (_disabled) {
+      return;
+    }
+    StarTreeSnapshot starTreeSnapshot = _starTreeSnapshot;
+    long numDocsCovered = starTreeSnapshot != null ? starTreeSnapshot._numSegmentDocsCovered : 0;
+    long numNewRecords = _numRecordsIndexed - numDocsCovered;
+    if (numNewRecords == 0 || (numNewRecords < _minNewRecordsToRebuild
+        && System.currentTimeMillis() - _lastBuildTimeMs < _minRebuildIntervalMs)) {
+      return;
+    }
+    if (!_building.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      _buildExecutor.execute(this::build);
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn("Failed to schedule star-tree build", e);
+      _building.set(false);
+    }
+  }
+
+  private void build() {
+    try {
+      _lastBuildTimeMs = System.currentTimeMillis();
+      List<Record> records;
+      long numRecordsIndexed;
+      synchronized (this) {
+        if (_disabled) {
+          return;
+        }
+        numRecordsIndexed = _numRecordsIndexed;
+        // Only copy the records updated since the last snapshot
+        int numUpdatedRecords = _updatedRecordIds.size();
+        for (int i = 0; i < numUpdatedRecords; i++) {
+          int recordId = _updatedRecordIds.getInt(i);
+          Record record = _records.get(recordId);
+          record._updated = false;
+          Record snapshotRecord = cloneRecord(record);
+          if (recordId < _snapshotRecords.size()) {
+            _snapshotRecords.set(recordId, snapshotRecord);
+          } else {
+            _snapshotRecords.add(snapshotRecord);
+          }
+        }
+        _updatedRecordIds.clear();
+        records = new ArrayList<>(_snapshotRecords);
+      }
+      // Construct the star-tree without holding the lock
+      StarTreeSnapshot starTreeSnapshot = new TreeBuilder(records).build((int) numRecordsIndexed);
+      synchronized (this) {
+        if (!_disabled) {
+          _starTreeSnapshot = starTreeSnapshot;
+        }
+      }
+    } catch (Exception e) {
+      LOGGER.error("Caught exception while constructing star-tree with dimensions: {}",
+          Arrays.toString(_dimensionsSplitOrder), e);
+    } finally {
+      _building.set(false);
+    }
+  }
+
+  private Record cloneRecord(Record record) {
+    Object[] metrics = new Object[_numMetrics];
+    for (int i = 0; i < _numMetrics; i++) {
+      metrics[i] = _valueAggregators[i].cloneAggregatedValue(record._metrics[i]);
+    }
+    return new Record(Arrays.copyOf(record._dimensions, _numDimensions), metrics);
+  }
+
+  /**
+   * The {@code StarTreeSnapshot} class represents a star-tree constructed from a snapshot of the pre-aggregated
+   * records, along with the number of segment documents covered by it.
+   */
+  private class StarTreeSnapshot implements StarTreeV2 {
+    final StarTree _starTree;
+    final StarTreeV2Metadata _metadata;
+    final Map<String, DataSource> _dataSourceMap;
+    final int _numSegmentDocsCovered;
+
+    StarTreeSnapshot(StarTree starTree, StarTreeV2Metadata metadata, Map<String, DataSource> dataSourceMap,
+        int numSegmentDocsCovered) {
+      _starTree = starTree;
+      _metadata = metadata;
+      _dataSourceMap = dataSourceMap;
+      _numSegmentDocsCovered = numSegmentDocsCovered;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The star-tree is only accessed when it is used to solve a query, so a rebuild is scheduled here if the
+     * star-tree is stale.
+     */
+    @Override
+    public StarTree getStarTree() {
+      scheduleBuildIfNeeded();
+      return _starTree;
+    }
+
+    @Override
+    public StarTreeV2Metadata getMetadata() {
+      return _metadata;
+    }
+
+    @Override
+    public DataSource getDataSource(String columnName) {
+      return _dataSourceMap.get(columnName);
+    }
+
+    @Override
+    public int getNumSegmentDocsCovered() {
+      return _numSegmentDocsCovered;
+    }
+
+    @Override
+    public void close() {
+      // Everything is on heap, nothing to close
+    }
+  }
+
+  /**
+   * The {@code Record} class represents a pre-aggregated record with dimension dictionary ids and aggregated metric
+   * values.
+   */
+  private static class Record {
+    final int[] _dimensions;
+    final Object[] _metrics;
+    // Whether the record is updated since the last snapshot, only used for the records updated by the consuming thread
+    boolean _updated;
+
+    Record(int[] dimensions, Object[] metrics) {
+      _dimensions = dimensions;
+      _metrics = metrics;
+    }
+  }
+
+  /**
+   * Constructs the star-tree from the pre-aggregated records, following the same algorithm as the star-tree builders
+   * for immutable segments.
+   */
+  private class TreeBuilder {
+    final List<Record> _records;
+
+    TreeBuilder(List<Record> records) {
+      records.sort(DIMENSIONS_COMPARATOR);
+      _records = records;
+    }
+
+    StarTreeSnapshot build(int numSegmentDocsCovered) {
+      TreeNode rootNode = new TreeNode();
+      constructStarTree(rootNode, 0, _records.size());
+      createAggregatedDocs(rootNode);
+
+      int numDocs = _records.size();
+      Map<String, DataSource> dataSourceMap = new HashMap<>();
+      for (int i = 0; i < _numDimensions; i++) {
+        int[] dictIds = new int[numDocs];
+        for (int docId = 0; docId < numDocs; docId++) {
+          dictIds[docId] = _records.get(docId)._dimensions[i];
+        }
+        dataSourceMap.put(_dimensionsSplitOrder[i],
+            new StarTreeDataSource(_dimensionFieldSpecs[i], numDocs, new DictIdForwardIndex(dictIds),
+                _dimensionDictionaries[i]));
+      }
+      for (int i = 0; i < _numMetrics; i++) {
+        ValueAggregator valueAggregator = _valueAggregators[i];
+        DataType valueType = valueAggregator.getAggregatedValueType();
+        Object values;
+        switch (valueType) {
+          case INT: {
+            int[] intValues = new int[numDocs];
+            for (int docId = 0; docId < numDocs; docId++) {
+              intValues[docId] = (int) _records.get(docId)._metrics[i];
+            }
+            values = intValues;
+            break;
+          }
+          case LONG: {
+            long[] longValues = new long[numDocs];
+            for (int docId = 0; docId < numDocs; docId++) {
+              longValues[docId] = (long) _records.get(docId)._metrics[i];
+            }
+            values = longValues;
+            break;
+          }
+          case FLOAT: {
+            float[] floatValues = new float[numDocs];
+            for (int docId = 0; docId < numDocs; docId++) {
+              floatValues[docId] = (float) _records.get(docId)._metrics[i];
+            }
+            values = floatValues;
+            break;
+          }
+          case DOUBLE: {
+            double[] doubleValues = new double[numDocs];
+            for (int docId = 0; docId < numDocs; docId++) {
+              doubleValues[docId] = (double) _records.get(docId)._metrics[i];
+            }
+            values = doubleValues;
+            break;
+          }
+          case BYTES: {
+            byte[][] bytesValues = new byte[numDocs][];
+            for (int docId = 0; docId < numDocs; docId++) {
+              bytesValues[docId] = valueAggregator.serializeAggregatedValue(_records.get(docId)._metrics[i]);
+            }
+            values = bytesValues;
+            break;
+          }
+          default:
+            throw new IllegalStateException("Unsupported aggregated value type: " + valueType);
+        }
+        dataSourceMap.put(_metrics[i],
+            new StarTreeDataSource(new MetricFieldSpec(_metrics[i], valueType), numDocs,
+                new MetricForwardIndex(valueType, values), null));
+      }
+
+      Configuration metadataProperties = new PropertiesConfiguration();
+      metadataProperties.setProperty(MetadataKey.TOTAL_DOCS, numDocs);
+      metadataProperties.setProperty(MetadataKey.DIMENSIONS_SPLIT_ORDER, _dimensionsSplitOrder);
+      metadataProperties.setProperty(MetadataKey.FUNCTION_COLUMN_PAIRS, _metrics);
+      metadataProperties.setProperty(MetadataKey.MAX_LEAF_RECORDS, _maxLeafRecords);
+      metadataProperties.setProperty(MetadataKey.SKIP_STAR_NODE_CREATION_FOR_DIMENSIONS,
+          _builderConfig.getSkipStarNodeCreationForDimensions());
+      StarTreeV2Metadata metadata = new StarTreeV2Metadata(metadataProperties);
+      StarTree starTree = new OnHeapStarTree(rootNode, Arrays.asList(_dimensionsSplitOrder));
+
+      return new StarTreeSnapshot(starTree, metadata, dataSourceMap, numSegmentDocsCovered);
+    }
+
+    void constructStarTree(TreeNode node, int startDocId, int endDocId) {
+      int childDimensionId = node._dimensionId + 1;
+      if (childDimensionId == _numDimensions) {
+        return;
+      }
+
+      // Construct all non-star children nodes
+      node._childDimensionId = childDimensionId;
+      Map<Integer, TreeNode> children = constructNonStarNodes(startDocId, endDocId, childDimensionId);
+      node._children = children;
+
+      // Construct star-node if required
+      if (!_skipStarNodeCreationForDimensions.contains(childDimensionId) && children.size() > 1) {
+        children.put(StarTreeNode.ALL, constructStarNode(startDocId, endDocId, childDimensionId));
+      }
+
+      // Further split on child nodes if required
+      for (TreeNode child : children.values()) {
+        if (child._endDocId - child._startDocId > _maxLeafRecords) {
+          constructStarTree(child, child._startDocId, child._endDocId);
+        }
+      }
+    }
+
+    Map<Integer, TreeNode> constructNonStarNodes(int startDocId, int endDocId, int dimensionId) {
+      Map<Integer, TreeNode> nodes = new HashMap<>();
+      int nodeStartDocId = startDocId;
+      int nodeDimensionValue = _records.get(startDocId)._dimensions[dimensionId];
+      for (int i = startDocId + 1; i < endDocId; i++) {
+        int dimensionValue = _records.get(i)._dimensions[dimensionId];
+        if (dimensionValue != nodeDimensionValue) {
+          nodes.put(nodeDimensionValue, newNode(dimensionId, nodeDimensionValue, nodeStartDocId, i));
+          nodeStartDocId = i;
+          nodeDimensionValue = dimensionValue;
+        }
+      }
+      nodes.put(nodeDimensionValue, newNode(dimensionId, nodeDimensionValue, nodeStartDocId, endDocId));
+      return nodes;
+    }
+
+    TreeNode newNode(int dimensionId, int dimensionValue, int startDocId, int endDocId) {
+      TreeNode node = new TreeNode();
+      node._dimensionId = dimensionId;
+      node._dimensionValue = dimensionValue;
+      node._startDocId = startDocId;
+      node._endDocId = endDocId;
+      return node;
+    }
+
+    TreeNode constructStarNode(int startDocId, int endDocId, int dimensionId) {
+      // Aggregate the records on the remaining dimensions after replacing the value of the star dimension
+      List<Record> records = new ArrayList<>(_records.subList(startDocId, endDocId));
+      records.sort((o1, o2) -> {
+        for (int i = dimensionId + 1; i < _numDimensions; i++) {
+          if (o1._dimensions[i] != o2._dimensions[i]) {
+            return Integer.compare(o1._dimensions[i], o2._dimensions[i]);
+          }
+        }
+        return 0;
+      });
+      int starNodeStartDocId = _records.size();
+      Record aggregatedRecord = null;
+      for (Record record : records) {
+        if (aggregatedRecord != null && hasSameDimensions(aggregatedRecord, record, dimensionId + 1)) {
+          mergeRecord(aggregatedRecord, record);
+        } else {
+          if (aggregatedRecord != null) {
+            _records.add(aggregatedRecord);
+          }
+          aggregatedRecord = cloneRecord(record);
+          aggregatedRecord._dimensions[dimensionId] = StarTreeV2Constants.STAR_IN_FORWARD_INDEX;
+        }
+      }
+      _records.add(aggregatedRecord);
+      return newNode(dimensionId, StarTreeNode.ALL, starNodeStartDocId, _records.size());
+    }
+
+    Record createAggregatedDocs(TreeNode node) {
+      Record aggregatedRecord = null;
+      if (node._children == null) {
+        // For leaf node
+
+        if (node._startDocId == node._endDocId - 1) {
+          // If it has only one document, use it as the aggregated document
+          aggregatedRecord = _records.get(node._startDocId);
+          node._aggregatedDocId = node._startDocId;
+        } else {
+          // If it has multiple documents, aggregate all of them
+          for (int i = node._startDocId; i < node._endDocId; i++) {
+            Record record = _records.get(i);
+            if (aggregatedRecord == null) {
+              aggregatedRecord = cloneRecord(record);
+            } else {
+              mergeRecord(aggregatedRecord, record);
+            }
+          }
+          assert aggregatedRecord != null;
+          for (int i = node._dimensionId + 1; i < _numDimensions; i++) {
+            aggregatedRecord._dimensions[i] = StarTreeV2Constants.STAR_IN_FORWARD_INDEX;
+          }
+          node._aggregatedDocId = _records.size();
+          _records.add(aggregatedRecord);
+        }
+      } else {
+        // For non-leaf node
+
+        TreeNode starNode = node._children.get(StarTreeNode.ALL);
+        if (starNode != null) {
+          // If it has star child, use the star child aggregated document directly
+          for (TreeNode child : node._children.values()) {
+            if (child == starNode) {
+              aggregatedRecord = createAggregatedDocs(child);
+              node._aggregatedDocId = child._aggregatedDocId;
+            } else {
+              createAggregatedDocs(child);
+            }
+          }
+        } else {
+          // If no star child exists, aggregate all aggregated documents from non-star children
+          for (TreeNode child : node._children.values()) {
+            Record childAggregatedRecord = createAggregatedDocs(child);
+            if (aggregatedRecord == null) {
+              aggregatedRecord = cloneRecord(childAggregatedRecord);
+            } else {
+              mergeRecord(aggregatedRecord, childAggregatedRecord);
+            }
+          }
+          assert aggregatedRecord != null;
+          for (int i = node._dimensionId + 1; i < _numDimensions; i++) {
+            aggregatedRecord._dimensions[i] = StarTreeV2Constants.STAR_IN_FORWARD_INDEX;
+          }
+          node._aggregatedDocId = _records.size();
+          _records.add(aggregatedRecord);
+        }
+      }
+      return aggregatedRecord;
+    }
+
+    boolean hasSameDimensions(Record record1, Record record2, int fromDimensionId) {
+      for (int i = fromDimensionId; i < _numDimensions; i++) {
+        if (record1._dimensions[i] != record2._dimensions[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    void mergeRecord(Record aggregatedRecord, Record record) {
+      for (int i = 0; i < _numMetrics; i++) {
+        aggregatedRecord._metrics[i] =
+            _valueAggregators[i].applyAggregatedValue(aggregatedRecord._metrics[i], record._metrics[i]);
+      }
+    }
+  }
+
+  /**
+   * Dictionary-encoded forward index for the star-tree dimensions.
+   */
+  private static class DictIdForwardIndex implements ForwardIndexReader<ForwardIndexReaderContext> {
+    final int[] _dictIds;
+
+    DictIdForwardIndex(int[] dictIds) {
+      _dictIds = dictIds;
+    }
+
+    @Override
+    public boolean isDictionaryEncoded() {
+      return true;
+    }
+
+    @Override
+    public boolean isSingleValue() {
+      return true;
+    }
+
+    @Override
+    public DataType getStoredType() {
+      return DataType.INT;
+    }
+
+    @Override
+    public int getDictId(int docId, ForwardIndexReaderContext context) {
+      return _dictIds[docId];
+    }
+
+    @Override
+    public void readDictIds(int[] docIds, int length, int[] dictIdBuffer, ForwardIndexReaderContext context) {
+      for (int i = 0; i < length; i++) {
+        dictIdBuffer[i] = _dictIds[docIds[i]];
+      }
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  /**
+   * Raw forward index for the star-tree metrics (function-column pairs).
+   */
+  private static class MetricForwardIndex implements ForwardIndexReader<ForwardIndexReaderContext> {
+    final DataType _storedType;
+    final Object _values;
+
+    MetricForwardIndex(DataType storedType, Object values) {
+      _storedType = storedType;
+      _values = values;
+    }
+
+    @Override
+    public boolean isDictionaryEncoded() {
+      return false;
+    }
+
+    @Override
+    public boolean isSingleValue() {
+      return true;
+    }
+
+    @Override
+    public DataType getStoredType() {
+      return _storedType;
+    }
+
+    @Override
+    public int getInt(int docId, ForwardIndexReaderContext context) {
+      return ((int[]) _values)[docId];
+    }
+
+    @Override
+    public long getLong(int docId, ForwardIndexReaderContext context) {
+      return ((long[]) _values)[docId];
+    }
+
+    @Override
+    public float getFloat(int docId, ForwardIndexReaderContext context) {
+      return ((float[]) _values)[docId];
+    }
+
+    @Override
+    public double getDouble(int docId, ForwardIndexReaderContext context) {
+      return ((double[]) _values)[docId];
+    }
+
+    @Override
+    public byte[] getBytes(int docId, ForwardIndexReaderContext context) {
+      return ((byte[][]) _values)[docId];
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -32,6 +32,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.io.util.FixedByteValueReaderWriter;
+import org.apache.pinot.segment.local.io.util.FrontCodedValueWriter;
 import org.apache.pinot.segment.local.io.util.VarLengthValueWriter;
 import org.apache.pinot.segment.local.segment.index.dictionary.DictionaryIndexType;
 import org.apache.pinot.segment.spi.index.IndexCreator;
@@ -62,6 +63,7 @@ public class SegmentDictionaryCreator implements IndexCreator {
   private final DataType _storedType;
   private final File _dictionaryFile;
   private final boolean _useVarLengthDictionary;
+  private final boolean _useFrontCodedDictionary;
 
   private Int2IntOpenHashMap _intValueToIndexMap;
   private Long2IntOpenHashMap _longValueToIndexMap;
@@ -71,10 +73,16 @@ public class SegmentDictionaryCreator implements IndexCreator {
   private int _numBytesPerEntry = 0;
 
   public SegmentDictionaryCreator(FieldSpec fieldSpec, File indexDir, boolean useVarLengthDictionary) {
+    this(fieldSpec, indexDir, useVarLengthDictionary, false);
+  }
+
+  public SegmentDictionaryCreator(FieldSpec fieldSpec, File indexDir, boolean useVarLengthDictionary,
+      boolean useFrontCodedDictionary) {
     _columnName = fieldSpec.getName();
     _storedType = fieldSpec.getDataType().getStoredType();
     _dictionaryFile = new File(indexDir, _columnName + DictionaryIndexType.getFileExtension());
     _useVarLengthDictionary = useVarLengthDictionary;
+    _useFrontCodedDictionary = useFrontCodedDictionary;
   }
   @Override
   public void add(@Nonnull Object value, int dictId)
@@ -255,7 +263,14 @@ public class SegmentDictionaryCreator implements IndexCreator {
    */
   private void writeBytesValueDictionary(byte[][] bytesValues)
       throws IOException {
-    if (_useVarLengthDictionary) {
+    if (_useFrontCodedDictionary) {
+      try (FrontCodedValueWriter writer = new FrontCodedValueWriter(_dictionaryFile, bytesValues.length)) {
+        for (byte[] value : bytesValues) {
+          writer.add(value);
+        }
+      }
+      LOGGER.info("Using front coded dictionary for column: {}, size: {}", _columnName, _dictionaryFile.length());
+    } else if (_useVarLengthDictionary) {
       try (VarLengthValueWriter writer = new VarLengthValueWriter(_dictionaryFile, bytesValues.length)) {
         for (byte[] value : bytesValues) {
           writer.add(value);
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.fwd;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.apache.pinot.segment.local.io.util.PinotDataBitSet;
+import org.apache.pinot.segment.local.io.writer.impl.FixedBitSVForwardIndexWriter;
+import org.apache.pinot.segment.local.segment.index.readers.forward.RunLengthSVForwardIndexReader;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.index.creator.ForwardIndexCreator;
+import org.apache.pinot.spi.data.FieldSpec;
+
+
+/**
+ * Forward index creator for dictionary-encoded unsorted single-value column with run-length encoding, which stores one
+ * (start doc id, dict id) pair per run of consecutive documents with the same dictionary id. It is much smaller than
+ * the bit-packed forward index for columns clustered by value (e.g. after sorting on another column during ingestion).
+ * When the run-length encoded index is not smaller than the bit-packed one (e.g. unclustered values), the bit-packed
+ * forward index is written instead, and the reader detects the format from the file content.
+ *
+ * The layout of the file (big-endian) is as follows:
+ * <ul>
+ *   <li>Integer: Magic marker</li>
+ *   <li>Integer: File format version</li>
+ *   <li>Integer: Number of docs</li>
+ *   <li>Integer: Number of runs</li>
+ *   <li>Integer array: Start doc id of each run</li>
+ *   <li>Integer array: Dictionary id of each run</li>
+ * </ul>
+ */
+public class SingleValueRunLengthForwardIndexCreator implements ForwardIndexCreator {
+  private final File _indexFile;
+  private final int _numDocs;
+  private final int _numBitsPerValue;
+  private final IntArrayList _runStartDocIds = new IntArrayList();
+  private final IntArrayList _runDictIds = new IntArrayList();
+  private int _nextDocId;
+  private int _lastDictId = -1;
+
+  public SingleValueRunLengthForwardIndexCreator(File outputDir, String column, int cardinality, int numDocs) {
+    _indexFile = new File(outputDir, column + V1Constants.Indexes.UNSORTED_SV_FORWARD_INDEX_FILE_EXTENSION);
+    _numDocs = numDocs;
+    _numBitsPerValue = PinotDataBitSet.getNumBitsPerValue(cardinality - 1);
+  }
+
+  @Override
+  public boolean isDictionaryEncoded() {
+    return true;
+  }
+
+  @Override
+  public boolean isSingleValue() {
+    return true;
+  }
+
+  @Override
+  public FieldSpec.DataType getValueType() {
+    return FieldSpec.DataType.INT;
+  }
+
+  @Override
+  public void putDictId(int dictId) {
+    if (dictId != _lastDictId) {
+      _runStartDocIds.add(_nextDocId);
+      _runDictIds.add(dictId);
+      _lastDictId = dictId;
+    }
+    _nextDocId++;
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    Preconditions.checkState(_nextDocId == _numDocs, "Expected %s docs, got %s", _numDocs, _nextDocId);
+    int numRuns = _runStartDocIds.size();
+    // Convert to long in order to avoid int overflow
+    long runLengthEncodedSize = RunLengthSVForwardIndexReader.HEADER_SIZE + 2L * numRuns * Integer.BYTES;
+    long bitPackedSize = ((long) _numDocs * _numBitsPerValue + Byte.SIZE - 1) / Byte.SIZE;
+    if (runLengthEncodedSize >= bitPackedSize) {
+      writeBitPacked(numRuns);
+    } else {
+      writeRunLengthEncoded(numRuns);
+    }
+  }
+
+  private void writeRunLengthEncoded(int numRuns)
+      throws IOException {
+    try (DataOutputStream outputStream = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(_indexFile)))) {
+      outputStream.writeInt(RunLengthSVForwardIndexReader.MAGIC_MARKER);
+      outputStream.writeInt(RunLengthSVForwardIndexReader.VERSION);
+      outputStream.writeInt(_numDocs);
+      outputStream.writeInt(numRuns);
+      for (int i = 0; i < numRuns; i++) {
+        outputStream.writeInt(_runStartDocIds.getInt(i));
+      }
+      for (int i = 0; i < numRuns; i++) {
+        outputStream.writeInt(_runDictIds.getInt(i));
+      }
+    }
+  }
+
+  private void writeBitPacked(int numRuns)
+      throws IOException {
+    try (FixedBitSVForwardIndexWriter writer = new FixedBitSVForwardIndexWriter(_indexFile, _numDocs,
+        _numBitsPerValue)) {
+      for (int i = 0; i < numRuns; i++) {
+        int dictId = _runDictIds.getInt(i);
+        int endDocId = i + 1 < numRuns ? _runStartDocIds.getInt(i + 1) : _numDocs;
+        for (int docId = _runStartDocIds.getInt(i); docId < endDocId; docId++) {
+          writer.putDictId(dictId);
+        }
+      }
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException("Failed to write bit-packed forward index file: " + _indexFile, e);
+    }
+  }
+}
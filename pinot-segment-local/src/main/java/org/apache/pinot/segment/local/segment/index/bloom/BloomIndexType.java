@@ -22,6 +22,7 @@ package org.apache.pinot.segment.local.segment.index.bloom;
 import java.util.Map;
 import javax.annotation.Nullable;
 import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapSplitBlockBloomFilterCreator;
 import org.apache.pinot.segment.local.segment.index.loader.ConfigurableFromIndexLoadingConfig;
 import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
 import org.apache.pinot.segment.local.segment.index.loader.bloomfilter.BloomFilterHandler;
@@ -100,6 +101,10 @@ public class BloomIndexType
       // TODO (saurabh) Check if we can do a better estimate
       cardinality = context.getTotalNumberOfEntries();
     }
+    if (indexConfig.getFormat() == BloomFilterConfig.Format.SPLIT_BLOCK) {
+      return new OnHeapSplitBlockBloomFilterCreator(context.getIndexDir(), context.getFieldSpec().getName(),
+          cardinality, indexConfig, context.getFieldSpec().getDataType());
+    }
     return new OnHeapGuavaBloomFilterCreator(context.getIndexDir(), context.getFieldSpec().getName(), cardinality,
         indexConfig, context.getFieldSpec().getDataType());
   }
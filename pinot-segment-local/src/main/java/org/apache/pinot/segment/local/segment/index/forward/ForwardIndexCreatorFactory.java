@@ -25,6 +25,7 @@ import org.apache.pinot.segment.local.segment.creator.impl.fwd.MultiValueFixedBy
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.MultiValueUnsortedForwardIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.MultiValueVarByteRawIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueFixedByteRawIndexCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueRunLengthForwardIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueSortedForwardIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueUnsortedForwardIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueVarByteRawIndexCreator;
@@ -68,6 +69,9 @@ public class ForwardIndexCreatorFactory {
         if (context.isSorted()) {
           return new SingleValueSortedForwardIndexCreator(context.getIndexDir(), colName,
               context.getCardinality());
+        } else if (indexConfig.isRunLengthEncoded()) {
+          return new SingleValueRunLengthForwardIndexCreator(context.getIndexDir(), colName,
+              context.getCardinality(), context.getTotalDocs());
         } else {
           return new SingleValueUnsortedForwardIndexCreator(context.getIndexDir(), colName,
               context.getCardinality(), context.getTotalDocs());
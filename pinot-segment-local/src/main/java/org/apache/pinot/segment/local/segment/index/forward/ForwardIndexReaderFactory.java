@@ -19,24 +19,31 @@
 
 package org.apache.pinot.segment.local.segment.index.forward;
 
+import java.io.IOException;
 import org.apache.pinot.segment.local.io.writer.impl.VarByteChunkSVForwardIndexWriterV4;
+import org.apache.pinot.segment.local.segment.index.readers.forward.BaseChunkForwardIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.forward.DecompressedChunkCache;
 import org.apache.pinot.segment.local.segment.index.readers.forward.FixedBitMVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.FixedBitSVForwardIndexReaderV2;
 import org.apache.pinot.segment.local.segment.index.readers.forward.FixedByteChunkMVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.FixedByteChunkSVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.FixedBytePower2ChunkSVForwardIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.forward.RunLengthSVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.VarByteChunkMVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.VarByteChunkSVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.VarByteChunkSVForwardIndexReaderV4;
 import org.apache.pinot.segment.local.segment.index.readers.sorted.SortedIndexReaderImpl;
 import org.apache.pinot.segment.spi.ColumnMetadata;
+import org.apache.pinot.segment.spi.index.FieldIndexConfigs;
 import org.apache.pinot.segment.spi.index.ForwardIndexConfig;
 import org.apache.pinot.segment.spi.index.IndexReaderConstraintException;
 import org.apache.pinot.segment.spi.index.IndexReaderFactory;
 import org.apache.pinot.segment.spi.index.IndexType;
 import org.apache.pinot.segment.spi.index.StandardIndexes;
+import org.apache.pinot.segment.spi.index.metadata.SegmentMetadataImpl;
 import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
 import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.store.SegmentDirectory;
 import org.apache.pinot.spi.data.FieldSpec;
 
 
@@ -49,6 +56,26 @@ class ForwardIndexReaderFactory extends IndexReaderFactory.Default<ForwardIndexC
     return StandardIndexes.forward();
   }
 
+  @Override
+  public ForwardIndexReader createIndexReader(SegmentDirectory.Reader segmentReader,
+      FieldIndexConfigs fieldIndexConfigs, ColumnMetadata metadata)
+      throws IOException, IndexReaderConstraintException {
+    ForwardIndexReader reader = super.createIndexReader(segmentReader, fieldIndexConfigs, metadata);
+    DecompressedChunkCache chunkCache = DecompressedChunkCache.getInstance();
+    if (reader != null && chunkCache != null) {
+      SegmentMetadataImpl segmentMetadata = segmentReader.toSegmentDirectory().getSegmentMetadata();
+      if (segmentMetadata != null) {
+        String tableName = segmentMetadata.getTableName();
+        if (reader instanceof BaseChunkForwardIndexReader) {
+          ((BaseChunkForwardIndexReader) reader).enableChunkCache(chunkCache, tableName);
+        } else if (reader instanceof VarByteChunkSVForwardIndexReaderV4) {
+          ((VarByteChunkSVForwardIndexReaderV4) reader).enableChunkCache(chunkCache, tableName);
+        }
+      }
+    }
+    return reader;
+  }
+
   @Override
   protected ForwardIndexReader createIndexReader(PinotDataBuffer dataBuffer, ColumnMetadata metadata,
       ForwardIndexConfig indexConfig)
@@ -61,6 +88,8 @@ class ForwardIndexReaderFactory extends IndexReaderFactory.Default<ForwardIndexC
       if (metadata.isSingleValue()) {
         if (metadata.isSorted()) {
           return new SortedIndexReaderImpl(dataBuffer, metadata.getCardinality());
+        } else if (RunLengthSVForwardIndexReader.isRunLengthEncoded(dataBuffer, metadata.getTotalDocs())) {
+          return new RunLengthSVForwardIndexReader(dataBuffer);
         } else {
           return new FixedBitSVForwardIndexReaderV2(dataBuffer, metadata.getTotalDocs(), metadata.getBitsPerElement());
         }
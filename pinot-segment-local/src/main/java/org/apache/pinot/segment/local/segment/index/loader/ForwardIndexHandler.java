@@ -854,7 +854,8 @@ public class ForwardIndexHandler extends BaseIndexHandler {
           || DictionaryIndexType.shouldUseVarLengthDictionary(reader.getStoredType(), statsCollector);
       SegmentDictionaryCreator dictionaryCreator =
           new SegmentDictionaryCreator(existingColMetadata.getFieldSpec(),
-              _segmentDirectory.getSegmentMetadata().getIndexDir(), useVarLength);
+              _segmentDirectory.getSegmentMetadata().getIndexDir(), useVarLength,
+              dictConf.getUseFrontCodedDictionary());
 
       dictionaryCreator.build(statsCollector.getUniqueValuesSet());
       return dictionaryCreator;
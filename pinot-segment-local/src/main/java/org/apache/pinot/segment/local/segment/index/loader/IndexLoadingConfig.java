@@ -59,6 +59,7 @@ import org.apache.pinot.spi.data.FieldSpec;
 import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.env.PinotConfiguration;
 import org.apache.pinot.spi.utils.CommonConstants;
+import org.apache.pinot.spi.utils.ExpressionIndexUtils;
 import org.apache.pinot.spi.utils.ReadMode;
 import org.apache.pinot.spi.utils.TimestampIndexUtils;
 import org.slf4j.Logger;
@@ -144,6 +145,7 @@ public class IndexLoadingConfig {
   private void extractFromTableConfigAndSchema(TableConfig tableConfig, @Nullable Schema schema) {
     if (schema != null) {
       TimestampIndexUtils.applyTimestampIndex(tableConfig, schema);
+      ExpressionIndexUtils.applyExpressionIndex(tableConfig, schema);
     }
     _tableConfig = tableConfig;
     _schema = schema;
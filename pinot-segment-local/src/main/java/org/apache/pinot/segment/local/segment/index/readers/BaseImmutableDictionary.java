@@ -25,6 +25,7 @@ import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import org.apache.pinot.segment.local.io.util.FixedByteValueReaderWriter;
+import org.apache.pinot.segment.local.io.util.FrontCodedValueReader;
 import org.apache.pinot.segment.local.io.util.ValueReader;
 import org.apache.pinot.segment.local.io.util.VarLengthValueReader;
 import org.apache.pinot.segment.spi.index.reader.Dictionary;
@@ -47,6 +48,10 @@ public abstract class BaseImmutableDictionary implements Dictionary {
       VarLengthValueReader valueReader = new VarLengthValueReader(dataBuffer);
       _valueReader = valueReader;
       _length = valueReader.getNumValues();
+    } else if (FrontCodedValueReader.isFrontCodedValueBuffer(dataBuffer)) {
+      FrontCodedValueReader valueReader = new FrontCodedValueReader(dataBuffer);
+      _valueReader = valueReader;
+      _length = valueReader.getNumValues();
     } else {
       Preconditions.checkState(dataBuffer.size() == (long) length * numBytesPerValue,
           "Buffer size mismatch: bufferSize = %s, numValues = %s, numByesPerValue = %s", dataBuffer.size(), length,
@@ -208,9 +213,12 @@ public abstract class BaseImmutableDictionary implements Dictionary {
   }
 
   protected int binarySearch(String value) {
+    byte[] utf8 = value.getBytes(UTF_8);
+    if (_valueReader instanceof FrontCodedValueReader) {
+      return ((FrontCodedValueReader) _valueReader).binarySearch(utf8, true);
+    }
     int low = 0;
     int high = _length - 1;
-    byte[] utf8 = value.getBytes(UTF_8);
     while (low <= high) {
       int mid = (low + high) >>> 1;
       int compareResult = _valueReader.compareUtf8Bytes(mid, _numBytesPerValue, utf8);
@@ -226,6 +234,9 @@ public abstract class BaseImmutableDictionary implements Dictionary {
   }
 
   protected int binarySearch(byte[] value) {
+    if (_valueReader instanceof FrontCodedValueReader) {
+      return ((FrontCodedValueReader) _valueReader).binarySearch(value, false);
+    }
     int low = 0;
     int high = _length - 1;
     while (low <= high) {
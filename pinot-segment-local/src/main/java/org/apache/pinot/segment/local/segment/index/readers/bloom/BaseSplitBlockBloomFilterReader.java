@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.bloom;
+
+import com.google.common.base.Preconditions;
+import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+
+
+/**
+ * Base implementation of the reader for split-block bloom filter. See {@link SplitBlockBloomFilterUtils} for details.
+ * <p>The value is hashed the same way as the guava bloom filter, so that the hash can be shared across bloom filters of
+ * different formats.
+ */
+public abstract class BaseSplitBlockBloomFilterReader implements BloomFilterReader {
+  // Format of the data buffer header (after the type value and version stripped by the BloomFilterReaderFactory):
+  //   - Number of blocks: 4 bytes
+  //   - Padding to SplitBlockBloomFilterUtils.HEADER_SIZE_IN_BYTES
+  private static final int NUM_BLOCKS_OFFSET = 0;
+  private static final int HEADER_SIZE = SplitBlockBloomFilterUtils.HEADER_SIZE_IN_BYTES - 2 * Integer.BYTES;
+
+  protected final int _numBlocks;
+  protected final PinotDataBuffer _valueBuffer;
+
+  public BaseSplitBlockBloomFilterReader(PinotDataBuffer dataBuffer) {
+    _numBlocks = dataBuffer.getInt(NUM_BLOCKS_OFFSET);
+    Preconditions.checkState(
+        _numBlocks > 0 && dataBuffer.size() == HEADER_SIZE + (long) _numBlocks
+            * SplitBlockBloomFilterUtils.BLOCK_SIZE_IN_BYTES,
+        "Invalid split-block bloom filter with %s blocks and buffer size: %s", _numBlocks, dataBuffer.size());
+    _valueBuffer = dataBuffer.view(HEADER_SIZE, dataBuffer.size());
+  }
+
+  @Override
+  public boolean mightContain(String value) {
+    GuavaBloomFilterReaderUtils.Hash128AsLongs hash = GuavaBloomFilterReaderUtils.hashAsLongs(value);
+    return mightContain(hash.getHash1(), hash.getHash2());
+  }
+
+  @Override
+  public void close() {
+    // NOTE: DO NOT close the PinotDataBuffer here because it is tracked by the caller and might be reused later. The
+    // caller is responsible of closing the PinotDataBuffer.
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.pinot.segment.local.segment.index.readers.bloom;
 
 import com.google.common.base.Preconditions;
 import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapSplitBlockBloomFilterCreator;
 import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
 import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
 
@@ -35,6 +36,13 @@ public class BloomFilterReaderFactory {
   public static BloomFilterReader getBloomFilterReader(PinotDataBuffer dataBuffer, boolean onHeap) {
     int typeValue = dataBuffer.getInt(TYPE_VALUE_OFFSET);
     int version = dataBuffer.getInt(VERSION_OFFSET);
+    if (typeValue == OnHeapSplitBlockBloomFilterCreator.TYPE_VALUE) {
+      Preconditions.checkState(version == OnHeapSplitBlockBloomFilterCreator.VERSION,
+          "Unsupported split-block bloom filter version: %s", version);
+      PinotDataBuffer bloomFilterDataBuffer = dataBuffer.view(HEADER_SIZE, dataBuffer.size());
+      return onHeap ? new OnHeapSplitBlockBloomFilterReader(bloomFilterDataBuffer)
+          : new OffHeapSplitBlockBloomFilterReader(bloomFilterDataBuffer);
+    }
     Preconditions.checkState(
         typeValue == OnHeapGuavaBloomFilterCreator.TYPE_VALUE && version == OnHeapGuavaBloomFilterCreator.VERSION,
         "Unsupported bloom filter type value: %s and version: %s", typeValue, version);
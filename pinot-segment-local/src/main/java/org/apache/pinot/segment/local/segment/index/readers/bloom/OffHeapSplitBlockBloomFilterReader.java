@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.bloom;
+
+import java.nio.ByteOrder;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+
+
+/**
+ * Off-heap reader for split-block bloom filter.
+ * <p>Each block is read as 4 longs, where each long holds 2 adjacent words of the block.
+ */
+public class OffHeapSplitBlockBloomFilterReader extends BaseSplitBlockBloomFilterReader {
+  private static final int NUM_LONGS_PER_BLOCK = SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK / 2;
+
+  // With big-endian byte order, the first word of the pair is in the high 32 bits of the long
+  private final int _highWordIndex;
+  private final int _lowWordIndex;
+
+  public OffHeapSplitBlockBloomFilterReader(PinotDataBuffer dataBuffer) {
+    super(dataBuffer);
+    boolean bigEndian = _valueBuffer.order() == ByteOrder.BIG_ENDIAN;
+    _highWordIndex = bigEndian ? 0 : 1;
+    _lowWordIndex = bigEndian ? 1 : 0;
+  }
+
+  @Override
+  public boolean mightContain(long hash1, long hash2) {
+    long blockOffset = (long) SplitBlockBloomFilterUtils.getBlockIndex(hash1, _numBlocks)
+        * SplitBlockBloomFilterUtils.BLOCK_SIZE_IN_BYTES;
+    // Check all the words without branching
+    long missingBits = 0;
+    for (int i = 0; i < NUM_LONGS_PER_BLOCK; i++) {
+      int wordIndex = i << 1;
+      long mask = ((long) SplitBlockBloomFilterUtils.getMask(hash1, wordIndex + _highWordIndex) << 32)
+          | (SplitBlockBloomFilterUtils.getMask(hash1, wordIndex + _lowWordIndex) & 0xFFFFFFFFL);
+      missingBits |= ~_valueBuffer.getLong(blockOffset + (long) i * Long.BYTES) & mask;
+    }
+    return missingBits == 0;
+  }
+}
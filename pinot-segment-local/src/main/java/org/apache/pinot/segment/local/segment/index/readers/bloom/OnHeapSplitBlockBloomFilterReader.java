@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.bloom;
+
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+
+
+/**
+ * On-heap reader for split-block bloom filter.
+ */
+public class OnHeapSplitBlockBloomFilterReader extends BaseSplitBlockBloomFilterReader {
+  private final int[] _data;
+
+  public OnHeapSplitBlockBloomFilterReader(PinotDataBuffer dataBuffer) {
+    super(dataBuffer);
+
+    int numInts = _numBlocks * SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK;
+    _data = new int[numInts];
+    for (int i = 0; i < numInts; i++) {
+      _data[i] = _valueBuffer.getInt((long) i * Integer.BYTES);
+    }
+  }
+
+  @Override
+  public boolean mightContain(long hash1, long hash2) {
+    int startIndex = SplitBlockBloomFilterUtils.getBlockIndex(hash1, _numBlocks)
+        * SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK;
+    // Check all the words without branching so that the loop can be vectorized
+    int missingBits = 0;
+    for (int i = 0; i < SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK; i++) {
+      int mask = SplitBlockBloomFilterUtils.getMask(hash1, i);
+      missingBits |= ~_data[startIndex + i] & mask;
+    }
+    return missingBits == 0;
+  }
+}
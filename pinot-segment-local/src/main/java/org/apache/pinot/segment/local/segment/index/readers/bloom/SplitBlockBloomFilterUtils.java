@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.bloom;
+
+/**
+ * Utils for the split-block bloom filter.
+ * <p>The bloom filter is split into 256-bit blocks of 8 32-bit words. Each value sets exactly one bit in each word of
+ * a single block, where the block is picked by the high 32 bits of the hash and the bits are picked by multiplying the
+ * low 32 bits of the hash with 8 odd salts. A lookup only reads one block (within a single cache line when aligned),
+ * and the 8 words can be checked without branches. The layout follows the split-block bloom filter used by Parquet
+ * and Impala.
+ */
+public class SplitBlockBloomFilterUtils {
+  private SplitBlockBloomFilterUtils() {
+  }
+
+  public static final int NUM_WORDS_PER_BLOCK = 8;
+  public static final int BLOCK_SIZE_IN_BYTES = NUM_WORDS_PER_BLOCK * Integer.BYTES;
+  // The file header (type value, version, number of blocks) is padded to a cache line so that the blocks are aligned
+  public static final int HEADER_SIZE_IN_BYTES = 64;
+
+  // DO NOT change the salts. They have to be aligned with the bloom filter creator.
+  private static final int[] SALTS = {
+      0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31
+  };
+
+  /**
+   * Returns the index of the block for the given hash.
+   */
+  public static int getBlockIndex(long hash, int numBlocks) {
+    return (int) (((hash >>> 32) * numBlocks) >>> 32);
+  }
+
+  /**
+   * Returns the bit mask within the given word of the block for the given hash.
+   */
+  public static int getMask(long hash, int wordIndex) {
+    return 1 << (((int) hash * SALTS[wordIndex]) >>> 27);
+  }
+
+  /**
+   * Calculates the number of blocks required for the given number of insertions and fpp (false positive probability),
+   * capped by the max size in bytes when it is positive.
+   */
+  public static int computeNumBlocks(int numInsertions, double fpp, int maxSizeInBytes) {
+    // With 8 bits set per value, fpp ~= (1 - e ^ (-8n/m)) ^ 8, so m = -8n / ln(1 - fpp ^ (1/8))
+    double numBits = -NUM_WORDS_PER_BLOCK * (double) Math.max(numInsertions, 1) / Math.log(
+        1 - Math.pow(fpp, 1.0 / NUM_WORDS_PER_BLOCK));
+    long numBytes = (long) Math.ceil(numBits / Byte.SIZE);
+    if (maxSizeInBytes > 0) {
+      numBytes = Math.min(numBytes, maxSizeInBytes);
+    }
+    return (int) Math.max(1, Math.min(numBytes / BLOCK_SIZE_IN_BYTES, Integer.MAX_VALUE / BLOCK_SIZE_IN_BYTES));
+  }
+}
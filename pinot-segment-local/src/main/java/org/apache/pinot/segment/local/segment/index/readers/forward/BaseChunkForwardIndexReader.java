@@ -25,10 +25,13 @@ import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.LongBuffer;
+import javax.annotation.Nullable;
 import org.apache.pinot.segment.local.io.compression.ChunkCompressorFactory;
+import org.apache.pinot.segment.local.io.compression.NumericChunkCodec;
 import org.apache.pinot.segment.local.io.writer.impl.BaseChunkSVForwardIndexWriter;
 import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.segment.spi.compression.ChunkDecompressor;
+import org.apache.pinot.segment.spi.index.reader.ChunkZoneMap;
 import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
 import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
 import org.apache.pinot.spi.data.FieldSpec.DataType;
@@ -48,12 +51,18 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
   protected final int _numDocsPerChunk;
   protected final int _lengthOfLongestEntry;
   protected final boolean _isCompressed;
+  // Whether the chunks are encoded with type-aware numeric encoding, which are decoded into the reader context as long
+  // values instead of being decompressed into the chunk buffer
+  protected final boolean _isNumericEncoded;
   protected final ChunkCompressionType _compressionType;
   protected final ChunkDecompressor _chunkDecompressor;
   protected final PinotDataBuffer _dataHeader;
   protected final int _headerEntryChunkOffsetSize;
   protected final PinotDataBuffer _rawData;
   protected final boolean _isSingleValue;
+  protected final ChunkZoneMap _zoneMap;
+  // Server-wide cache of the decompressed chunks, null if not enabled for the reader
+  private DecompressedChunkCache.Handle _chunkCacheHandle;
 
   public BaseChunkForwardIndexReader(PinotDataBuffer dataBuffer, DataType storedType, boolean isSingleValue) {
     _dataBuffer = dataBuffer;
@@ -103,6 +112,19 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
     _rawData = _dataBuffer.view(rawDataStart, _dataBuffer.size());
 
     _isSingleValue = isSingleValue;
+    _isNumericEncoded = _compressionType.isNumericEncoding();
+
+    // Zone map (if recorded) is stored between the fixed header and the chunk offsets
+    int zoneMapEnd = BaseChunkSVForwardIndexWriter.FIXED_HEADER_SIZE + Integer.BYTES
+        + _numChunks * BaseChunkSVForwardIndexWriter.ZONE_MAP_ENTRY_SIZE;
+    if (version > 1 && isSingleValue && dataHeaderStart == zoneMapEnd
+        && _dataBuffer.getInt(BaseChunkSVForwardIndexWriter.FIXED_HEADER_SIZE)
+        == BaseChunkSVForwardIndexWriter.ZONE_MAP_MAGIC_MARKER) {
+      _zoneMap = new ZoneMap(
+          _dataBuffer.view(BaseChunkSVForwardIndexWriter.FIXED_HEADER_SIZE + Integer.BYTES, zoneMapEnd));
+    } else {
+      _zoneMap = null;
+    }
   }
 
   /**
@@ -124,6 +146,41 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
   }
 
   protected ByteBuffer decompressChunk(int chunkId, ChunkReaderContext context) {
+    ByteBuffer decompressedBuffer = context.getChunkBuffer();
+    DecompressedChunkCache.Handle chunkCacheHandle = _chunkCacheHandle;
+    if (chunkCacheHandle != null && chunkCacheHandle.get(chunkId, decompressedBuffer)) {
+      context.setChunkId(chunkId);
+      return decompressedBuffer;
+    }
+    decompressedBuffer.clear();
+
+    try {
+      _chunkDecompressor.decompress(getCompressedChunk(chunkId), decompressedBuffer);
+    } catch (IOException e) {
+      LOGGER.error("Exception caught while decompressing data chunk", e);
+      throw new RuntimeException(e);
+    }
+    if (chunkCacheHandle != null) {
+      chunkCacheHandle.put(chunkId, decompressedBuffer);
+    }
+    context.setChunkId(chunkId);
+    return decompressedBuffer;
+  }
+
+  /**
+   * Enables the server-wide cache of the decompressed chunks for the reader. Only applies to compressed chunks that are
+   * decompressed into the chunk buffer, i.e. not for uncompressed chunks or chunks with type-aware numeric encoding.
+   */
+  public void enableChunkCache(DecompressedChunkCache chunkCache, String tableName) {
+    if (_isCompressed && !_isNumericEncoded && _chunkCacheHandle == null) {
+      _chunkCacheHandle = chunkCache.newHandle(tableName);
+    }
+  }
+
+  /**
+   * Helper method to return the compressed bytes of the given chunk.
+   */
+  protected ByteBuffer getCompressedChunk(int chunkId) {
     int chunkSize;
     long chunkPosition = getChunkPosition(chunkId);
 
@@ -134,18 +191,32 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
       long nextChunkOffset = getChunkPosition(chunkId + 1);
       chunkSize = (int) (nextChunkOffset - chunkPosition);
     }
+    return _dataBuffer.toDirectByteBuffer(chunkPosition, chunkSize);
+  }
 
-    ByteBuffer decompressedBuffer = context.getChunkBuffer();
-    decompressedBuffer.clear();
-
-    try {
-      _chunkDecompressor.decompress(_dataBuffer.toDirectByteBuffer(chunkPosition, chunkSize), decompressedBuffer);
-    } catch (IOException e) {
-      LOGGER.error("Exception caught while decompressing data chunk", e);
-      throw new RuntimeException(e);
+  /**
+   * Helper method to return the decoded values of the given chunk with type-aware numeric encoding, where each value
+   * holds the bits of the stored value (4-byte values can be restored by casting to int).
+   * <ul>
+   *   <li> If the chunk is already decoded in the reader context, returns the same. </li>
+   *   <li> Otherwise, decodes the chunk into the reader context. </li>
+   * </ul>
+   */
+  protected long[] getDecodedChunk(int chunkId, ChunkReaderContext context) {
+    long[] decodedValues = context.getDecodedValues(_numDocsPerChunk);
+    if (context.getDecodedChunkId() != chunkId) {
+      NumericChunkCodec.decode(_compressionType, getCompressedChunk(chunkId), decodedValues);
+      context.setDecodedChunkId(chunkId);
     }
-    context.setChunkId(chunkId);
-    return decompressedBuffer;
+    return decodedValues;
+  }
+
+  /**
+   * Helper method to return the bits of the value at the given document id for chunks with type-aware numeric encoding.
+   */
+  protected long getDecodedValue(int docId, ChunkReaderContext context) {
+    int chunkId = docId / _numDocsPerChunk;
+    return getDecodedChunk(chunkId, context)[docId - chunkId * _numDocsPerChunk];
   }
 
   /**
@@ -186,6 +257,12 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
     return _lengthOfLongestEntry;
   }
 
+  @Nullable
+  @Override
+  public ChunkZoneMap getChunkZoneMap() {
+    return _zoneMap;
+  }
+
   @Override
   public void readValuesSV(int[] docIds, int length, int[] values, ChunkReaderContext context) {
     if (_storedType.isFixedWidth() && !_isCompressed && isContiguousRange(docIds, length)) {
@@ -223,6 +300,8 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
         default:
           throw new IllegalArgumentException();
       }
+    } else if (_isNumericEncoded) {
+      readDecodedValuesSV(docIds, length, values, context);
     } else {
       ForwardIndexReader.super.readValuesSV(docIds, length, values, context);
     }
@@ -265,6 +344,8 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
         default:
           throw new IllegalArgumentException();
       }
+    } else if (_isNumericEncoded) {
+      readDecodedValuesSV(docIds, length, values, context);
     } else {
       ForwardIndexReader.super.readValuesSV(docIds, length, values, context);
     }
@@ -307,6 +388,8 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
         default:
           throw new IllegalArgumentException();
       }
+    } else if (_isNumericEncoded) {
+      readDecodedValuesSV(docIds, length, values, context);
     } else {
       ForwardIndexReader.super.readValuesSV(docIds, length, values, context);
     }
@@ -350,15 +433,213 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
         default:
           throw new IllegalArgumentException();
       }
+    } else if (_isNumericEncoded) {
+      readDecodedValuesSV(docIds, length, values, context);
     } else {
       ForwardIndexReader.super.readValuesSV(docIds, length, values, context);
     }
   }
 
+  /**
+   * Reads the values from the chunks with type-aware numeric encoding, where each chunk is decoded at most once for the
+   * consecutive document ids within it.
+   */
+  private void readDecodedValuesSV(int[] docIds, int length, int[] values, ChunkReaderContext context) {
+    int i = 0;
+    while (i < length) {
+      int chunkId = docIds[i] / _numDocsPerChunk;
+      long[] chunkValues = getDecodedChunk(chunkId, context);
+      int chunkStartDocId = chunkId * _numDocsPerChunk;
+      int end = getChunkEndIndex(docIds, i, length, chunkStartDocId);
+      switch (_storedType) {
+        case INT:
+          for (; i < end; i++) {
+            values[i] = (int) chunkValues[docIds[i] - chunkStartDocId];
+          }
+          break;
+        case LONG:
+          for (; i < end; i++) {
+            values[i] = (int) chunkValues[docIds[i] - chunkStartDocId];
+          }
+          break;
+        case FLOAT:
+          for (; i < end; i++) {
+            values[i] = (int) Float.intBitsToFloat((int) chunkValues[docIds[i] - chunkStartDocId]);
+          }
+          break;
+        case DOUBLE:
+          for (; i < end; i++) {
+            values[i] = (int) Double.longBitsToDouble(chunkValues[docIds[i] - chunkStartDocId]);
+          }
+          break;
+        default:
+          throw new IllegalArgumentException();
+      }
+    }
+  }
+
+  private void readDecodedValuesSV(int[] docIds, int length, long[] values, ChunkReaderContext context) {
+    int i = 0;
+    while (i < length) {
+      int chunkId = docIds[i] / _numDocsPerChunk;
+      long[] chunkValues = getDecodedChunk(chunkId, context);
+      int chunkStartDocId = chunkId * _numDocsPerChunk;
+      int end = getChunkEndIndex(docIds, i, length, chunkStartDocId);
+      switch (_storedType) {
+        case INT:
+          for (; i < end; i++) {
+            values[i] = (int) chunkValues[docIds[i] - chunkStartDocId];
+          }
+          break;
+        case LONG:
+          for (; i < end; i++) {
+            values[i] = chunkValues[docIds[i] - chunkStartDocId];
+          }
+          break;
+        case FLOAT:
+          for (; i < end; i++) {
+            values[i] = (long) Float.intBitsToFloat((int) chunkValues[docIds[i] - chunkStartDocId]);
+          }
+          break;
+        case DOUBLE:
+          for (; i < end; i++) {
+            values[i] = (long) Double.longBitsToDouble(chunkValues[docIds[i] - chunkStartDocId]);
+          }
+          break;
+        default:
+          throw new IllegalArgumentException();
+      }
+    }
+  }
+
+  private void readDecodedValuesSV(int[] docIds, int length, float[] values, ChunkReaderContext context) {
+    int i = 0;
+    while (i < length) {
+      int chunkId = docIds[i] / _numDocsPerChunk;
+      long[] chunkValues = getDecodedChunk(chunkId, context);
+      int chunkStartDocId = chunkId * _numDocsPerChunk;
+      int end = getChunkEndIndex(docIds, i, length, chunkStartDocId);
+      switch (_storedType) {
+        case INT:
+          for (; i < end; i++) {
+            values[i] = (int) chunkValues[docIds[i] - chunkStartDocId];
+          }
+          break;
+        case LONG:
+          for (; i < end; i++) {
+            values[i] = chunkValues[docIds[i] - chunkStartDocId];
+          }
+          break;
+        case FLOAT:
+          for (; i < end; i++) {
+            values[i] = Float.intBitsToFloat((int) chunkValues[docIds[i] - chunkStartDocId]);
+          }
+          break;
+        case DOUBLE:
+          for (; i < end; i++) {
+            values[i] = (float) Double.longBitsToDouble(chunkValues[docIds[i] - chunkStartDocId]);
+          }
+          break;
+        default:
+          throw new IllegalArgumentException();
+      }
+    }
+  }
+
+  private void readDecodedValuesSV(int[] docIds, int length, double[] values, ChunkReaderContext context) {
+    int i = 0;
+    while (i < length) {
+      int chunkId = docIds[i] / _numDocsPerChunk;
+      long[] chunkValues = getDecodedChunk(chunkId, context);
+      int chunkStartDocId = chunkId * _numDocsPerChunk;
+      int end = getChunkEndIndex(docIds, i, length, chunkStartDocId);
+      switch (_storedType) {
+        case INT:
+          for (; i < end; i++) {
+            values[i] = (int) chunkValues[docIds[i] - chunkStartDocId];
+          }
+          break;
+        case LONG:
+          for (; i < end; i++) {
+            values[i] = chunkValues[docIds[i] - chunkStartDocId];
+          }
+          break;
+        case FLOAT:
+          for (; i < end; i++) {
+            values[i] = Float.intBitsToFloat((int) chunkValues[docIds[i] - chunkStartDocId]);
+          }
+          break;
+        case DOUBLE:
+          for (; i < end; i++) {
+            values[i] = Double.longBitsToDouble(chunkValues[docIds[i] - chunkStartDocId]);
+          }
+          break;
+        default:
+          throw new IllegalArgumentException();
+      }
+    }
+  }
+
+  /**
+   * Returns the end index (exclusive) of the consecutive document ids starting from the given index within the chunk.
+   */
+  private int getChunkEndIndex(int[] docIds, int startIndex, int length, int chunkStartDocId) {
+    int chunkEndDocId = chunkStartDocId + _numDocsPerChunk;
+    int end = startIndex + 1;
+    while (end < length && docIds[end] >= chunkStartDocId && docIds[end] < chunkEndDocId) {
+      end++;
+    }
+    return end;
+  }
+
   @Override
   public void close() {
     // NOTE: DO NOT close the PinotDataBuffer here because it is tracked by the caller and might be reused later. The
     // caller is responsible of closing the PinotDataBuffer.
+    if (_chunkCacheHandle != null) {
+      _chunkCacheHandle.invalidate();
+    }
+  }
+
+  /**
+   * Zone map backed by the min/max value pairs recorded in the file header.
+   */
+  private class ZoneMap implements ChunkZoneMap {
+    final PinotDataBuffer _entries;
+
+    ZoneMap(PinotDataBuffer entries) {
+      _entries = entries;
+    }
+
+    @Override
+    public int getNumDocsPerChunk() {
+      return _numDocsPerChunk;
+    }
+
+    @Override
+    public int getNumChunks() {
+      return _numChunks;
+    }
+
+    @Override
+    public long getMinLong(int chunkId) {
+      return _entries.getLong((long) chunkId * BaseChunkSVForwardIndexWriter.ZONE_MAP_ENTRY_SIZE);
+    }
+
+    @Override
+    public long getMaxLong(int chunkId) {
+      return _entries.getLong((long) chunkId * BaseChunkSVForwardIndexWriter.ZONE_MAP_ENTRY_SIZE + Long.BYTES);
+    }
+
+    @Override
+    public double getMinDouble(int chunkId) {
+      return Double.longBitsToDouble(getMinLong(chunkId));
+    }
+
+    @Override
+    public double getMaxDouble(int chunkId) {
+      return Double.longBitsToDouble(getMaxLong(chunkId));
+    }
   }
 
   private boolean isContiguousRange(int[] docIds, int length) {
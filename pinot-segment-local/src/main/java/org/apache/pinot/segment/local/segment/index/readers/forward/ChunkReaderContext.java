@@ -33,11 +33,17 @@ import org.apache.pinot.segment.spi.memory.CleanerUtil;
  *     chunk decompression.
  *   </li>
  *   <li>Id for the chunk</li>
+ *   <li>
+ *     Decoded values of the chunk from the previous read for chunks with type-aware numeric encoding, which are
+ *     decoded into an array instead of the chunk buffer.
+ *   </li>
  * </ul>
  */
 public class ChunkReaderContext implements ForwardIndexReaderContext {
   private final ByteBuffer _chunkBuffer;
   private int _chunkId;
+  private long[] _decodedValues;
+  private int _decodedChunkId = -1;
 
   public ChunkReaderContext(int maxChunkSize) {
     _chunkBuffer = ByteBuffer.allocateDirect(maxChunkSize);
@@ -56,6 +62,24 @@ public class ChunkReaderContext implements ForwardIndexReaderContext {
     _chunkId = chunkId;
   }
 
+  /**
+   * Returns the array to decode the chunk values into, allocating it on the first call.
+   */
+  public long[] getDecodedValues(int maxNumValues) {
+    if (_decodedValues == null) {
+      _decodedValues = new long[maxNumValues];
+    }
+    return _decodedValues;
+  }
+
+  public int getDecodedChunkId() {
+    return _decodedChunkId;
+  }
+
+  public void setDecodedChunkId(int decodedChunkId) {
+    _decodedChunkId = decodedChunkId;
+  }
+
   @Override
   public void close()
       throws IOException {
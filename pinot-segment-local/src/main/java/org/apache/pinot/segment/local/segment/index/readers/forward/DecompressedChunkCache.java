@@ -0,0 +1,528 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.forward;
+
+import com.google.common.base.Preconditions;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.metrics.ServerGauge;
+import org.apache.pinot.common.metrics.ServerMeter;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.segment.spi.memory.CleanerUtil;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.metrics.PinotMeter;
+import org.apache.pinot.spi.utils.CommonConstants.Server;
+import org.apache.pinot.spi.utils.builder.TableNameBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Server-wide, size-bounded cache of the decompressed chunks of the raw forward indexes. Each query decompresses the
+ * chunks into its own reader context, so concurrent queries over the same hot segments would otherwise decompress the
+ * same chunks again and again.
+ * <ul>
+ *   <li>Chunks are keyed by the forward index reader (i.e. the column of a segment) and the chunk id (or offset)</li>
+ *   <li>Decompressed chunks are copied into direct (off-heap) buffers, and copied back into the reader context on
+ *   cache hit</li>
+ *   <li>Each table keeps its chunks in its own lock stripes, each in LRU order, so that concurrent queries only
+ *   contend when accessing the same stripe, and evicting the chunks of a table never touches the other tables</li>
+ *   <li>Least recently used chunks (within a stripe) of the table are evicted when the quota of the table is exceeded,
+ *   and of the largest table when the max size of the cache is exceeded</li>
+ *   <li>The direct buffers are reference counted, and returned to a free list once they are evicted and no longer
+ *   being copied, so that they can be reused for the chunks of the same size. The free list is bounded by
+ *   1/{@value #FREE_BUFFERS_MAX_SIZE_DIVISOR} of the max size of the cache</li>
+ *   <li>Size of each table is exposed as a table level gauge, and hits and misses as table level meters</li>
+ *   <li>The table is removed from the cache (including the gauge) once all its handles are invalidated</li>
+ * </ul>
+ * The cache is disabled unless the max size is configured with
+ * {@link Server#CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_MAX_SIZE_BYTES}.
+ */
+public class DecompressedChunkCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DecompressedChunkCache.class);
+  private static final AtomicLong READER_ID_GENERATOR = new AtomicLong();
+  private static final int DEFAULT_NUM_STRIPES = 16;
+  private static final int FREE_BUFFERS_MAX_SIZE_DIVISOR = 16;
+
+  private static volatile DecompressedChunkCache _instance;
+
+  private final long _maxSizeBytes;
+  private final long _defaultTableMaxSizeBytes;
+  // Returns the configured max size for the table name with or without type suffix, or null if not configured
+  private final Function<String, Long> _tableMaxSizeBytesGetter;
+  private final ServerMetrics _serverMetrics;
+  private final int _numStripes;
+  private final ConcurrentHashMap<String, TableCache> _tableCacheMap = new ConcurrentHashMap<>();
+  private final AtomicLong _sizeBytes = new AtomicLong();
+  // Free buffers for reuse, keyed by the capacity
+  private final ConcurrentHashMap<Integer, Queue<ByteBuffer>> _freeBuffersMap = new ConcurrentHashMap<>();
+  private final long _freeBuffersMaxSizeBytes;
+  private final AtomicLong _freeBuffersSizeBytes = new AtomicLong();
+
+  /**
+   * Initializes the server-wide cache from the server config. The cache is not created when max size is not positive.
+   */
+  public static void init(PinotConfiguration serverConf, @Nullable ServerMetrics serverMetrics) {
+    _instance = fromConfig(serverConf, serverMetrics);
+  }
+
+  /**
+   * Creates a cache from the server config, or returns {@code null} when max size is not positive.
+   * <p>The max size of a table can be configured for the table name with or without type suffix, where the table name
+   * without type suffix applies to both the OFFLINE and REALTIME table. Table names are looked up through the config
+   * so that they are matched the same way as the other (relaxed) config keys.
+   */
+  @Nullable
+  public static DecompressedChunkCache fromConfig(PinotConfiguration serverConf,
+      @Nullable ServerMetrics serverMetrics) {
+    long maxSizeBytes = serverConf.getProperty(Server.CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_MAX_SIZE_BYTES,
+        Server.DEFAULT_DECOMPRESSED_CHUNK_CACHE_MAX_SIZE_BYTES);
+    if (maxSizeBytes <= 0) {
+      return null;
+    }
+    long defaultTableMaxSizeBytes =
+        serverConf.getProperty(Server.CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_TABLE_MAX_SIZE_BYTES, maxSizeBytes);
+    PinotConfiguration tableConf = serverConf.subset(Server.CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_TABLE_MAX_SIZE_BYTES);
+    LOGGER.info("Initializing decompressed chunk cache with max size: {} bytes, default table max size: {} bytes, "
+        + "tables with max size configured: {}", maxSizeBytes, defaultTableMaxSizeBytes, tableConf.getKeys());
+    return new DecompressedChunkCache(maxSizeBytes, defaultTableMaxSizeBytes,
+        tableName -> tableConf.containsKey(tableName) ? tableConf.getProperty(tableName, defaultTableMaxSizeBytes)
+            : null, serverMetrics, DEFAULT_NUM_STRIPES);
+  }
+
+  /**
+   * Returns the server-wide cache, or {@code null} if it is not enabled.
+   */
+  @Nullable
+  public static DecompressedChunkCache getInstance() {
+    return _instance;
+  }
+
+  public DecompressedChunkCache(long maxSizeBytes, long defaultTableMaxSizeBytes,
+      Map<String, Long> tableMaxSizeBytesMap, @Nullable ServerMetrics serverMetrics) {
+    this(maxSizeBytes, defaultTableMaxSizeBytes, tableMaxSizeBytesMap, serverMetrics, DEFAULT_NUM_STRIPES);
+  }
+
+  /**
+   * The max size of a table can be configured in the given map for the table name with or without type suffix, where
+   * the table name without type suffix applies to both the OFFLINE and REALTIME table.
+   */
+  public DecompressedChunkCache(long maxSizeBytes, long defaultTableMaxSizeBytes,
+      Map<String, Long> tableMaxSizeBytesMap, @Nullable ServerMetrics serverMetrics, int numStripes) {
+    this(maxSizeBytes, defaultTableMaxSizeBytes, tableMaxSizeBytesMap::get, serverMetrics, numStripes);
+  }
+
+  private DecompressedChunkCache(long maxSizeBytes, long defaultTableMaxSizeBytes,
+      Function<String, Long> tableMaxSizeBytesGetter, @Nullable ServerMetrics serverMetrics, int numStripes) {
+    Preconditions.checkArgument(maxSizeBytes > 0, "Max size must be positive, got: %s", maxSizeBytes);
+    Preconditions.checkArgument(numStripes > 0, "Number of stripes must be positive, got: %s", numStripes);
+    _maxSizeBytes = maxSizeBytes;
+    _defaultTableMaxSizeBytes = defaultTableMaxSizeBytes;
+    _tableMaxSizeBytesGetter = tableMaxSizeBytesGetter;
+    _serverMetrics = serverMetrics;
+    _numStripes = numStripes;
+    _freeBuffersMaxSizeBytes = maxSizeBytes / FREE_BUFFERS_MAX_SIZE_DIVISOR;
+  }
+
+  /**
+   * Returns a new handle of the cache for a forward index reader of the given table (with type suffix). The cached
+   * chunks of the handle should be invalidated via {@link Handle#invalidate()} when the reader is closed.
+   */
+  public Handle newHandle(String tableNameWithType) {
+    TableCache tableCache = _tableCacheMap.compute(tableNameWithType, (k, v) -> {
+      if (v == null) {
+        v = new TableCache(k, getTableMaxSizeBytes(k));
+      }
+      v._numHandles++;
+      return v;
+    });
+    return new Handle(tableCache, READER_ID_GENERATOR.getAndIncrement());
+  }
+
+  public long getSizeBytes() {
+    return _sizeBytes.get();
+  }
+
+  /**
+   * Returns the max size of the given table (with type suffix), capped by the max size of the cache.
+   */
+  public long getTableMaxSizeBytes(String tableNameWithType) {
+    Long tableMaxSizeBytes = _tableMaxSizeBytesGetter.apply(tableNameWithType);
+    if (tableMaxSizeBytes == null) {
+      tableMaxSizeBytes = _tableMaxSizeBytesGetter.apply(TableNameBuilder.extractRawTableName(tableNameWithType));
+    }
+    return Math.min(tableMaxSizeBytes != null ? tableMaxSizeBytes : _defaultTableMaxSizeBytes, _maxSizeBytes);
+  }
+
+  public long getTableSizeBytes(String tableNameWithType) {
+    TableCache tableCache = _tableCacheMap.get(tableNameWithType);
+    return tableCache != null ? tableCache._sizeBytes.get() : 0;
+  }
+
+  /**
+   * Returns the ratio of the chunk lookups served from the cache for the given table, or 0 if there is no lookup.
+   */
+  public double getTableHitRatio(String tableNameWithType) {
+    TableCache tableCache = _tableCacheMap.get(tableNameWithType);
+    if (tableCache == null) {
+      return 0;
+    }
+    long numHits = tableCache._numHits.sum();
+    long numLookups = numHits + tableCache._numMisses.sum();
+    return numLookups > 0 ? (double) numHits / numLookups : 0;
+  }
+
+  /**
+   * Returns the total size of the evicted buffers kept for reuse.
+   */
+  public long getFreeBuffersSizeBytes() {
+    return _freeBuffersSizeBytes.get();
+  }
+
+  /**
+   * Removes the table from the cache when the last handle of the table is invalidated.
+   */
+  private void releaseTableCache(TableCache tableCache) {
+    _tableCacheMap.computeIfPresent(tableCache._tableNameWithType, (k, v) -> {
+      if (v != tableCache || --v._numHandles > 0) {
+        return v;
+      }
+      v.removeMetrics();
+      return null;
+    });
+  }
+
+  private int getStripeId(ChunkKey chunkKey) {
+    int hash = chunkKey.hashCode();
+    return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % _numStripes;
+  }
+
+  /**
+   * Returns a buffer of the given size, reusing a free buffer if available.
+   */
+  private ByteBuffer allocateBuffer(int size) {
+    Queue<ByteBuffer> freeBuffers = _freeBuffersMap.get(size);
+    ByteBuffer buffer = freeBuffers != null ? freeBuffers.poll() : null;
+    if (buffer != null) {
+      _freeBuffersSizeBytes.addAndGet(-size);
+      buffer.clear();
+      return buffer;
+    }
+    return ByteBuffer.allocateDirect(size);
+  }
+
+  /**
+   * Returns the buffer no longer referenced by the cache to the free list, or frees it when the free list is full.
+   */
+  private void recycleBuffer(ByteBuffer buffer) {
+    int size = buffer.capacity();
+    if (_freeBuffersSizeBytes.addAndGet(size) <= _freeBuffersMaxSizeBytes) {
+      _freeBuffersMap.computeIfAbsent(size, k -> new ConcurrentLinkedQueue<>()).offer(buffer);
+    } else {
+      _freeBuffersSizeBytes.addAndGet(-size);
+      CleanerUtil.cleanQuietly(buffer);
+    }
+  }
+
+  /**
+   * Removes the given entry from the cache, where the entry is already removed from the map of the stripe.
+   * NOTE: Should be called while holding the lock of the stripe.
+   */
+  private void onRemoval(ChunkKey chunkKey, CachedChunk cachedChunk) {
+    int size = cachedChunk._buffer.capacity();
+    _sizeBytes.addAndGet(-size);
+    cachedChunk._handle._tableCache._sizeBytes.addAndGet(-size);
+    cachedChunk._handle._chunkKeys.remove(chunkKey);
+    cachedChunk.release();
+  }
+
+  /**
+   * Evicts the least recently used chunks of the table until it is within its quota, then the least recently used
+   * chunks of the largest table until the cache is within the max size. Never evicts the chunk just added.
+   */
+  private void evictIfNeeded(TableCache tableCache, int startStripeId, ChunkKey addedChunkKey) {
+    while (tableCache._sizeBytes.get() > tableCache._maxSizeBytes) {
+      if (!evictOne(tableCache, startStripeId, addedChunkKey)) {
+        break;
+      }
+    }
+    while (_sizeBytes.get() > _maxSizeBytes) {
+      TableCache largestTableCache = null;
+      long largestTableSizeBytes = 0;
+      for (TableCache candidate : _tableCacheMap.values()) {
+        long sizeBytes = candidate._sizeBytes.get();
+        if (sizeBytes > largestTableSizeBytes) {
+          largestTableCache = candidate;
+          largestTableSizeBytes = sizeBytes;
+        }
+      }
+      if (largestTableCache == null || !evictOne(largestTableCache, startStripeId, addedChunkKey)) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Evicts the least recently used chunk of the table, starting from the given stripe, and returns whether a chunk is
+   * evicted.
+   */
+  private boolean evictOne(TableCache tableCache, int startStripeId, ChunkKey addedChunkKey) {
+    for (int i = 0; i < _numStripes; i++) {
+      Stripe stripe = tableCache._stripes[(startStripeId + i) % _numStripes];
+      synchronized (stripe) {
+        Iterator<Map.Entry<ChunkKey, CachedChunk>> iterator = stripe._chunkMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+          Map.Entry<ChunkKey, CachedChunk> entry = iterator.next();
+          ChunkKey chunkKey = entry.getKey();
+          if (!chunkKey.equals(addedChunkKey)) {
+            iterator.remove();
+            onRemoval(chunkKey, entry.getValue());
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Handle of the cache for a forward index reader, i.e. the column of a segment.
+   */
+  public final class Handle {
+    final TableCache _tableCache;
+    final long _readerId;
+    // Keys of the cached chunks of the handle
+    final Set<ChunkKey> _chunkKeys = ConcurrentHashMap.newKeySet();
+    final AtomicBoolean _invalidated = new AtomicBoolean();
+
+    Handle(TableCache tableCache, long readerId) {
+      _tableCache = tableCache;
+      _readerId = readerId;
+    }
+
+    /**
+     * Copies the cached chunk into the given buffer (cleared first, then flipped for read), and returns whether the
+     * chunk is cached.
+     */
+    public boolean get(long chunkKey, ByteBuffer destination) {
+      ChunkKey key = new ChunkKey(_readerId, chunkKey);
+      Stripe stripe = _tableCache._stripes[getStripeId(key)];
+      CachedChunk cachedChunk;
+      synchronized (stripe) {
+        cachedChunk = stripe._chunkMap.get(key);
+        if (cachedChunk != null) {
+          // Keep the buffer alive while copying it outside the lock, in case the chunk is evicted concurrently
+          cachedChunk.retain();
+        }
+      }
+      if (cachedChunk == null) {
+        _tableCache.recordMiss();
+        return false;
+      }
+      _tableCache.recordHit();
+      try {
+        // NOTE: Cached buffer is never modified, so it can be safely copied without holding the lock
+        destination.clear();
+        destination.put(cachedChunk._buffer.duplicate());
+        destination.flip();
+      } finally {
+        cachedChunk.release();
+      }
+      return true;
+    }
+
+    /**
+     * Caches a copy of the remaining bytes of the given decompressed chunk. The position of the given buffer is not
+     * changed.
+     */
+    public void put(long chunkKey, ByteBuffer decompressedChunk) {
+      int size = decompressedChunk.remaining();
+      if (_invalidated.get() || size == 0 || size > _tableCache._maxSizeBytes) {
+        return;
+      }
+      ByteBuffer buffer = allocateBuffer(size);
+      buffer.put(decompressedChunk.duplicate());
+      buffer.flip();
+      ChunkKey key = new ChunkKey(_readerId, chunkKey);
+      int stripeId = getStripeId(key);
+      Stripe stripe = _tableCache._stripes[stripeId];
+      synchronized (stripe) {
+        CachedChunk previous = stripe._chunkMap.put(key, new CachedChunk(this, buffer));
+        if (previous != null) {
+          onRemoval(key, previous);
+        }
+        _sizeBytes.addAndGet(size);
+        _tableCache._sizeBytes.addAndGet(size);
+        _chunkKeys.add(key);
+      }
+      if (_invalidated.get()) {
+        // Invalidated concurrently, and the chunk might be missed by the invalidation
+        remove(key);
+        return;
+      }
+      evictIfNeeded(_tableCache, stripeId, key);
+    }
+
+    /**
+     * Removes all the cached chunks of the handle, and removes the table from the cache if this is the last handle of
+     * the table. The handle should not be used after it is invalidated.
+     */
+    public void invalidate() {
+      if (!_invalidated.compareAndSet(false, true)) {
+        return;
+      }
+      for (ChunkKey chunkKey : _chunkKeys.toArray(new ChunkKey[0])) {
+        remove(chunkKey);
+      }
+      releaseTableCache(_tableCache);
+    }
+
+    private void remove(ChunkKey chunkKey) {
+      Stripe stripe = _tableCache._stripes[getStripeId(chunkKey)];
+      synchronized (stripe) {
+        CachedChunk cachedChunk = stripe._chunkMap.remove(chunkKey);
+        if (cachedChunk != null) {
+          onRemoval(chunkKey, cachedChunk);
+        }
+      }
+    }
+  }
+
+  private static final class Stripe {
+    // Access ordered map for LRU eviction, guarded by the stripe
+    final LinkedHashMap<ChunkKey, CachedChunk> _chunkMap = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  private final class TableCache {
+    final String _tableNameWithType;
+    final long _maxSizeBytes;
+    final Stripe[] _stripes;
+    final AtomicLong _sizeBytes = new AtomicLong();
+    final LongAdder _numHits = new LongAdder();
+    final LongAdder _numMisses = new LongAdder();
+    final PinotMeter _hitsMeter;
+    final PinotMeter _missesMeter;
+    // Guarded by the compute methods of the table cache map
+    int _numHandles;
+
+    TableCache(String tableNameWithType, long maxSizeBytes) {
+      _tableNameWithType = tableNameWithType;
+      _maxSizeBytes = maxSizeBytes;
+      _stripes = new Stripe[_numStripes];
+      for (int i = 0; i < _numStripes; i++) {
+        _stripes[i] = new Stripe();
+      }
+      if (_serverMetrics != null) {
+        _serverMetrics.setOrUpdateTableGauge(tableNameWithType, ServerGauge.DECOMPRESSED_CHUNK_CACHE_SIZE_BYTES,
+            _sizeBytes::get);
+        _hitsMeter =
+            _serverMetrics.getMeteredTableValue(tableNameWithType, ServerMeter.DECOMPRESSED_CHUNK_CACHE_HITS);
+        _missesMeter =
+            _serverMetrics.getMeteredTableValue(tableNameWithType, ServerMeter.DECOMPRESSED_CHUNK_CACHE_MISSES);
+      } else {
+        _hitsMeter = null;
+        _missesMeter = null;
+      }
+    }
+
+    void recordHit() {
+      _numHits.increment();
+      if (_hitsMeter != null) {
+        _hitsMeter.mark();
+      }
+    }
+
+    void recordMiss() {
+      _numMisses.increment();
+      if (_missesMeter != null) {
+        _missesMeter.mark();
+      }
+    }
+
+    void removeMetrics() {
+      if (_serverMetrics != null) {
+        _serverMetrics.removeTableGauge(_tableNameWithType, ServerGauge.DECOMPRESSED_CHUNK_CACHE_SIZE_BYTES);
+      }
+    }
+  }
+
+  private final class CachedChunk {
+    final Handle _handle;
+    final ByteBuffer _buffer;
+    // One reference held by the cache, plus one for each ongoing copy
+    final AtomicInteger _refCount = new AtomicInteger(1);
+
+    CachedChunk(Handle handle, ByteBuffer buffer) {
+      _handle = handle;
+      _buffer = buffer;
+    }
+
+    /**
+     * NOTE: Should be called while holding the lock of the stripe, where the chunk is still cached.
+     */
+    void retain() {
+      _refCount.incrementAndGet();
+    }
+
+    void release() {
+      if (_refCount.decrementAndGet() == 0) {
+        recycleBuffer(_buffer);
+      }
+    }
+  }
+
+  private static final class ChunkKey {
+    final long _readerId;
+    final long _chunkKey;
+
+    ChunkKey(long readerId, long chunkKey) {
+      _readerId = readerId;
+      _chunkKey = chunkKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ChunkKey)) {
+        return false;
+      }
+      ChunkKey that = (ChunkKey) o;
+      return _readerId == that._readerId && _chunkKey == that._chunkKey;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Long.hashCode(_readerId) + Long.hashCode(_chunkKey);
+    }
+  }
+}
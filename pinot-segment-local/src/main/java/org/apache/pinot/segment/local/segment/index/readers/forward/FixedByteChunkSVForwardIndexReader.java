@@ -50,6 +50,9 @@ public final class FixedByteChunkSVForwardIndexReader extends BaseChunkForwardIn
 
   @Override
   public int getInt(int docId, ChunkReaderContext context) {
+    if (_isNumericEncoded) {
+      return (int) getDecodedValue(docId, context);
+    }
     if (_isCompressed) {
       int chunkRowId = docId % _numDocsPerChunk;
       ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
@@ -61,6 +64,9 @@ public final class FixedByteChunkSVForwardIndexReader extends BaseChunkForwardIn
 
   @Override
   public long getLong(int docId, ChunkReaderContext context) {
+    if (_isNumericEncoded) {
+      return getDecodedValue(docId, context);
+    }
     if (_isCompressed) {
       int chunkRowId = docId % _numDocsPerChunk;
       ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
@@ -72,6 +78,9 @@ public final class FixedByteChunkSVForwardIndexReader extends BaseChunkForwardIn
 
   @Override
   public float getFloat(int docId, ChunkReaderContext context) {
+    if (_isNumericEncoded) {
+      return Float.intBitsToFloat((int) getDecodedValue(docId, context));
+    }
     if (_isCompressed) {
       int chunkRowId = docId % _numDocsPerChunk;
       ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
@@ -83,6 +92,9 @@ public final class FixedByteChunkSVForwardIndexReader extends BaseChunkForwardIn
 
   @Override
   public double getDouble(int docId, ChunkReaderContext context) {
+    if (_isNumericEncoded) {
+      return Double.longBitsToDouble(getDecodedValue(docId, context));
+    }
     if (_isCompressed) {
       int chunkRowId = docId % _numDocsPerChunk;
       ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
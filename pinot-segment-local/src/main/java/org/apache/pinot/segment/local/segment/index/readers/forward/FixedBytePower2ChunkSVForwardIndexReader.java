@@ -52,6 +52,9 @@ public final class FixedBytePower2ChunkSVForwardIndexReader extends BaseChunkFor
 
   @Override
   public int getInt(int docId, ChunkReaderContext context) {
+    if (_isNumericEncoded) {
+      return (int) getDecodedValue(docId, context);
+    }
     if (_isCompressed) {
       int chunkRowId = docId & (_numDocsPerChunk - 1);
       ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
@@ -63,6 +66,9 @@ public final class FixedBytePower2ChunkSVForwardIndexReader extends BaseChunkFor
 
   @Override
   public long getLong(int docId, ChunkReaderContext context) {
+    if (_isNumericEncoded) {
+      return getDecodedValue(docId, context);
+    }
     if (_isCompressed) {
       int chunkRowId = docId & (_numDocsPerChunk - 1);
       ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
@@ -74,6 +80,9 @@ public final class FixedBytePower2ChunkSVForwardIndexReader extends BaseChunkFor
 
   @Override
   public float getFloat(int docId, ChunkReaderContext context) {
+    if (_isNumericEncoded) {
+      return Float.intBitsToFloat((int) getDecodedValue(docId, context));
+    }
     if (_isCompressed) {
       int chunkRowId = docId & (_numDocsPerChunk - 1);
       ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
@@ -85,6 +94,9 @@ public final class FixedBytePower2ChunkSVForwardIndexReader extends BaseChunkFor
 
   @Override
   public double getDouble(int docId, ChunkReaderContext context) {
+    if (_isNumericEncoded) {
+      return Double.longBitsToDouble(getDecodedValue(docId, context));
+    }
     if (_isCompressed) {
       int chunkRowId = docId & (_numDocsPerChunk - 1);
       ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
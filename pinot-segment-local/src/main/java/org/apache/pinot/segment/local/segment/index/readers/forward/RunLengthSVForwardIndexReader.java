@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.forward;
+
+import com.google.common.base.Preconditions;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueRunLengthForwardIndexCreator;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReaderContext;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+
+
+/**
+ * Forward index reader for dictionary-encoded single-value column with run-length encoding. See
+ * {@link SingleValueRunLengthForwardIndexCreator} for the file layout.
+ * <p>Besides the per document access, the runs can be accessed directly so that the filter and aggregation can process
+ * a whole run at a time.
+ */
+public final class RunLengthSVForwardIndexReader implements ForwardIndexReader<RunLengthSVForwardIndexReader.Context> {
+  public static final int MAGIC_MARKER = 0x524C4546; // "RLEF"
+  public static final int VERSION = 1;
+  public static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+  private final int _numDocs;
+  private final int _numRuns;
+  private final PinotDataBuffer _runStartDocIds;
+  private final PinotDataBuffer _runDictIds;
+
+  public RunLengthSVForwardIndexReader(PinotDataBuffer dataBuffer) {
+    Preconditions.checkState(dataBuffer.getInt(0) == MAGIC_MARKER, "Invalid magic marker for run-length forward index");
+    int version = dataBuffer.getInt(Integer.BYTES);
+    Preconditions.checkState(version == VERSION, "Unsupported run-length forward index version: %s", version);
+    _numDocs = dataBuffer.getInt(2 * Integer.BYTES);
+    _numRuns = dataBuffer.getInt(3 * Integer.BYTES);
+    long runDictIdsOffset = HEADER_SIZE + (long) _numRuns * Integer.BYTES;
+    _runStartDocIds = dataBuffer.view(HEADER_SIZE, runDictIdsOffset);
+    _runDictIds = dataBuffer.view(runDictIdsOffset, runDictIdsOffset + (long) _numRuns * Integer.BYTES);
+  }
+
+  /**
+   * Returns whether the given buffer contains a run-length encoded forward index for the given number of documents.
+   */
+  public static boolean isRunLengthEncoded(PinotDataBuffer dataBuffer, int numDocs) {
+    long size = dataBuffer.size();
+    if (size < HEADER_SIZE || dataBuffer.getInt(0) != MAGIC_MARKER || dataBuffer.getInt(2 * Integer.BYTES) != numDocs) {
+      return false;
+    }
+    long numRuns = dataBuffer.getInt(3 * Integer.BYTES);
+    return size == HEADER_SIZE + 2 * numRuns * Integer.BYTES;
+  }
+
+  public int getNumDocs() {
+    return _numDocs;
+  }
+
+  public int getNumRuns() {
+    return _numRuns;
+  }
+
+  public int getRunStartDocId(int runId) {
+    return _runStartDocIds.getInt(runId * Integer.BYTES);
+  }
+
+  /**
+   * Returns the end doc id (exclusive) of the given run.
+   */
+  public int getRunEndDocId(int runId) {
+    return runId < _numRuns - 1 ? getRunStartDocId(runId + 1) : _numDocs;
+  }
+
+  public int getRunDictId(int runId) {
+    return _runDictIds.getInt(runId * Integer.BYTES);
+  }
+
+  @Override
+  public boolean isDictionaryEncoded() {
+    return true;
+  }
+
+  @Override
+  public boolean isSingleValue() {
+    return true;
+  }
+
+  @Override
+  public DataType getStoredType() {
+    return DataType.INT;
+  }
+
+  @Override
+  public Context createContext() {
+    return new Context();
+  }
+
+  @Override
+  public int getDictId(int docId, Context context) {
+    if (docId < context._startDocId || docId >= context._endDocId) {
+      int runId = context._runId + 1;
+      if (docId >= context._endDocId && runId < _numRuns && docId < getRunEndDocId(runId)) {
+        // Next run, which is the common case for sequential access
+        context._startDocId = context._endDocId;
+      } else {
+        runId = findRun(docId);
+        context._startDocId = getRunStartDocId(runId);
+      }
+      context._runId = runId;
+      context._endDocId = getRunEndDocId(runId);
+      context._dictId = getRunDictId(runId);
+    }
+    return context._dictId;
+  }
+
+  @Override
+  public void readDictIds(int[] docIds, int length, int[] dictIdBuffer, Context context) {
+    int i = 0;
+    while (i < length) {
+      int dictId = getDictId(docIds[i], context);
+      int endDocId = context._endDocId;
+      // Fill the values within the same run without looking up the run
+      do {
+        dictIdBuffer[i++] = dictId;
+      } while (i < length && docIds[i] < endDocId && docIds[i] >= context._startDocId);
+    }
+  }
+
+  /**
+   * Returns the id of the run containing the given doc id.
+   */
+  private int findRun(int docId) {
+    int low = 0;
+    int high = _numRuns - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (getRunStartDocId(mid) <= docId) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high;
+  }
+
+  @Override
+  public void close() {
+    // NOTE: DO NOT close the PinotDataBuffer here because it is tracked by the caller and might be reused later. The
+    // caller is responsible of closing the PinotDataBuffer.
+  }
+
+  public static class Context implements ForwardIndexReaderContext {
+    private int _runId = -1;
+    private int _startDocId;
+    // Exclusive
+    private int _endDocId;
+    private int _dictId;
+
+    @Override
+    public void close() {
+    }
+  }
+}
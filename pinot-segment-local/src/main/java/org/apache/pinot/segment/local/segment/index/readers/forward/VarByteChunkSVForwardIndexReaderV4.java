@@ -52,6 +52,8 @@ public class VarByteChunkSVForwardIndexReaderV4
 
   private final PinotDataBuffer _metadata;
   private final PinotDataBuffer _chunks;
+  // Server-wide cache of the decompressed chunks, null if not enabled for the reader
+  private DecompressedChunkCache.Handle _chunkCacheHandle;
 
   public VarByteChunkSVForwardIndexReaderV4(PinotDataBuffer dataBuffer, FieldSpec.DataType storedType) {
     if (dataBuffer.getInt(0) < VarByteChunkSVForwardIndexWriterV4.VERSION) {
@@ -104,12 +106,25 @@ public class VarByteChunkSVForwardIndexReaderV4
     return _chunkCompressionType == ChunkCompressionType.PASS_THROUGH
         ? new UncompressedReaderContext(_chunks, _metadata)
         : new CompressedReaderContext(_metadata, _chunks, _chunkDecompressor, _chunkCompressionType,
-            _targetDecompressedChunkSize);
+            _targetDecompressedChunkSize, _chunkCacheHandle);
+  }
+
+  /**
+   * Enables the server-wide cache of the decompressed chunks for the reader. Only applies to compressed regular chunks,
+   * where chunks with a single huge value are always decompressed.
+   */
+  public void enableChunkCache(DecompressedChunkCache chunkCache, String tableName) {
+    if (_chunkCompressionType != ChunkCompressionType.PASS_THROUGH && _chunkCacheHandle == null) {
+      _chunkCacheHandle = chunkCache.newHandle(tableName);
+    }
   }
 
   @Override
   public void close()
       throws IOException {
+    if (_chunkCacheHandle != null) {
+      _chunkCacheHandle.invalidate();
+    }
   }
 
   public static abstract class ReaderContext implements ForwardIndexReaderContext {
@@ -230,22 +245,32 @@ public class VarByteChunkSVForwardIndexReaderV4
     private final ByteBuffer _decompressedBuffer;
     private final ChunkDecompressor _chunkDecompressor;
     private final ChunkCompressionType _chunkCompressionType;
+    private final DecompressedChunkCache.Handle _chunkCacheHandle;
 
     CompressedReaderContext(PinotDataBuffer metadata, PinotDataBuffer chunks, ChunkDecompressor chunkDecompressor,
-        ChunkCompressionType chunkCompressionType, int targetChunkSize) {
+        ChunkCompressionType chunkCompressionType, int targetChunkSize,
+        @Nullable DecompressedChunkCache.Handle chunkCacheHandle) {
       super(metadata, chunks);
       _chunkDecompressor = chunkDecompressor;
       _chunkCompressionType = chunkCompressionType;
+      _chunkCacheHandle = chunkCacheHandle;
       _decompressedBuffer = ByteBuffer.allocateDirect(targetChunkSize).order(ByteOrder.LITTLE_ENDIAN);
     }
 
     @Override
     protected byte[] processChunkAndReadFirstValue(int docId, long offset, long limit)
         throws IOException {
+      if (_regularChunk && _chunkCacheHandle != null && _chunkCacheHandle.get(offset, _decompressedBuffer)) {
+        _numDocsInCurrentChunk = _decompressedBuffer.getInt(0);
+        return readSmallUncompressedValue(docId);
+      }
       _decompressedBuffer.clear();
       ByteBuffer compressed = _chunks.toDirectByteBuffer(offset, (int) (limit - offset));
       if (_regularChunk) {
         _chunkDecompressor.decompress(compressed, _decompressedBuffer);
+        if (_chunkCacheHandle != null) {
+          _chunkCacheHandle.put(offset, _decompressedBuffer);
+        }
         _numDocsInCurrentChunk = _decompressedBuffer.getInt(0);
         return readSmallUncompressedValue(docId);
       }
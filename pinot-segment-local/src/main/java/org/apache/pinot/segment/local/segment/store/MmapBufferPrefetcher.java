@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.store;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.pinot.segment.spi.FetchContext;
+import org.apache.pinot.segment.spi.index.IndexService;
+import org.apache.pinot.segment.spi.index.IndexType;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.store.ColumnIndexDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Reads ahead the mmap-ed index buffers planned in a {@link FetchContext} on a shared pool of daemon threads, so that
+ * the page faults of a cold query are taken off the query threads instead of stalling them one page at a time.
+ * <p>The segments are prefetched right before the combine starts (after the query is planned), so the read-ahead of a
+ * segment overlaps with the processing of the segments scheduled before it, and not with the query planning.
+ * <p>The buffers are read in rounds: first the first planned index of every column, then the second one etc. Fetch
+ * planners list the smaller indexes (e.g. dictionary) before the forward index, so that they become resident first.
+ * <p>The read-ahead of a fetch is cancelled on release, and the release waits for the in-flight read to stop, so that
+ * the buffers are never accessed after the segment is released by the query.
+ */
+class MmapBufferPrefetcher {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MmapBufferPrefetcher.class);
+
+  private static final int NUM_PREFETCH_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+  private static final AtomicInteger THREAD_ID = new AtomicInteger();
+  private static final ExecutorService PREFETCH_EXECUTOR = Executors.newFixedThreadPool(NUM_PREFETCH_THREADS, r -> {
+    Thread thread = new Thread(r, "mmap-prefetch-" + THREAD_ID.getAndIncrement());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final Map<UUID, PrefetchTask> _prefetchTasks = new ConcurrentHashMap<>();
+
+  /**
+   * Starts reading ahead the buffers planned in the given fetch context. Prefetching the same fetch twice is a no-op.
+   */
+  void prefetch(ColumnIndexDirectory columnIndexDirectory, FetchContext fetchContext) {
+    PrefetchTask prefetchTask = new PrefetchTask(columnIndexDirectory, fetchContext);
+    if (_prefetchTasks.putIfAbsent(fetchContext.getFetchId(), prefetchTask) == null) {
+      PREFETCH_EXECUTOR.execute(prefetchTask);
+    }
+  }
+
+  /**
+   * Cancels the read-ahead of the given fetch context and waits for the in-flight read to stop. It is possible that
+   * this is called multiple times, or without a prior prefetch.
+   */
+  void release(FetchContext fetchContext) {
+    PrefetchTask prefetchTask = _prefetchTasks.remove(fetchContext.getFetchId());
+    if (prefetchTask != null) {
+      prefetchTask.cancelAndWait();
+    }
+  }
+
+  private static class PrefetchTask implements Runnable {
+    static final int PENDING = 0;
+    static final int RUNNING = 1;
+    static final int DONE = 2;
+
+    final ColumnIndexDirectory _columnIndexDirectory;
+    final FetchContext _fetchContext;
+    final AtomicInteger _state = new AtomicInteger(PENDING);
+    final CountDownLatch _doneLatch = new CountDownLatch(1);
+    volatile boolean _cancelled;
+
+    PrefetchTask(ColumnIndexDirectory columnIndexDirectory, FetchContext fetchContext) {
+      _columnIndexDirectory = columnIndexDirectory;
+      _fetchContext = fetchContext;
+    }
+
+    @Override
+    public void run() {
+      if (!_state.compareAndSet(PENDING, RUNNING)) {
+        return;
+      }
+      try {
+        long startTimeNs = System.nanoTime();
+        long numPrefetchedBytes = prefetchBuffers();
+        _fetchContext.addPrefetchStats(numPrefetchedBytes, System.nanoTime() - startTimeNs);
+      } catch (Exception e) {
+        // Prefetch is only a hint, the query reads the buffers again and surfaces the real error if there is one
+        LOGGER.debug("Caught exception while prefetching buffers for segment: {}", _fetchContext.getSegmentName(), e);
+      } finally {
+        _state.set(DONE);
+        _doneLatch.countDown();
+      }
+    }
+
+    long prefetchBuffers()
+        throws IOException {
+      Map<String, List<IndexType<?, ?, ?>>> columnToIndexList = _fetchContext.getColumnToIndexList();
+      List<String> columns = new ArrayList<>(columnToIndexList.size());
+      List<List<IndexType<?, ?, ?>>> indexLists = new ArrayList<>(columnToIndexList.size());
+      int numRounds = 0;
+      for (Map.Entry<String, List<IndexType<?, ?, ?>>> entry : columnToIndexList.entrySet()) {
+        String column = entry.getKey();
+        List<IndexType<?, ?, ?>> indexList = entry.getValue();
+        if (indexList == null) {
+          // Fetch all the indexes of the column
+          indexList = new ArrayList<>(IndexService.getInstance().getAllIndexes());
+        }
+        columns.add(column);
+        indexLists.add(indexList);
+        numRounds = Math.max(numRounds, indexList.size());
+      }
+      long numPrefetchedBytes = 0;
+      for (int round = 0; round < numRounds; round++) {
+        int numColumns = columns.size();
+        for (int i = 0; i < numColumns; i++) {
+          List<IndexType<?, ?, ?>> indexList = indexLists.get(i);
+          if (round >= indexList.size()) {
+            continue;
+          }
+          if (_cancelled) {
+            return numPrefetchedBytes;
+          }
+          String column = columns.get(i);
+          IndexType<?, ?, ?> indexType = indexList.get(round);
+          if (_columnIndexDirectory.hasIndexFor(column, indexType)) {
+            numPrefetchedBytes += touchPages(_columnIndexDirectory.getBuffer(column, indexType));
+          }
+        }
+      }
+      return numPrefetchedBytes;
+    }
+
+    /**
+     * Reads one byte per page to fault the pages in, and returns the number of bytes read ahead.
+     */
+    long touchPages(PinotDataBuffer buffer) {
+      long size = buffer.size();
+      for (long offset = 0; offset < size; offset += SegmentLocalFSDirectory.PAGE_SIZE_BYTES) {
+        if (_cancelled) {
+          return offset;
+        }
+        buffer.getByte(offset);
+      }
+      return size;
+    }
+
+    void cancelAndWait() {
+      _cancelled = true;
+      if (_state.compareAndSet(PENDING, DONE)) {
+        // Never started
+        return;
+      }
+      Uninterruptibles.awaitUninterruptibly(_doneLatch);
+    }
+  }
+}
@@ -31,6 +31,7 @@ import javax.annotation.Nullable;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.spi.FetchContext;
 import org.apache.pinot.segment.spi.creator.SegmentVersion;
 import org.apache.pinot.segment.spi.index.IndexType;
 import org.apache.pinot.segment.spi.index.metadata.SegmentMetadataImpl;
@@ -52,12 +53,14 @@ public class SegmentLocalFSDirectory extends SegmentDirectory {
   private static final Logger LOGGER = LoggerFactory.getLogger(SegmentLocalFSDirectory.class);
 
   // matches most systems
-  private static final int PAGE_SIZE_BYTES = 4096;
+  static final int PAGE_SIZE_BYTES = 4096;
   // Prefetch limit...arbitrary but related to common server memory and data size profiles
   private static final long MAX_MMAP_PREFETCH_PAGES = 100 * 1024 * 1024 * 1024L / PAGE_SIZE_BYTES;
   private static final double PREFETCH_SLOWDOWN_PCT = 0.67;
   private static final AtomicLong PREFETCHED_PAGES = new AtomicLong(0);
 
+  private final MmapBufferPrefetcher _bufferPrefetcher = new MmapBufferPrefetcher();
+
   private final File _indexDir;
   private final File _segmentDirectory;
   private final SegmentLock _segmentLock;
@@ -215,6 +218,26 @@ public class SegmentLocalFSDirectory extends SegmentDirectory {
     return _columnIndexDirectory.getColumnsWithIndex(type);
   }
 
+  /**
+   * Reads ahead the buffers planned in the given fetch context asynchronously, for mmap mode only. In heap mode the
+   * buffers are already in memory.
+   */
+  @Override
+  public void prefetch(FetchContext fetchContext) {
+    ColumnIndexDirectory columnIndexDirectory = _columnIndexDirectory;
+    if (_readMode == ReadMode.mmap && columnIndexDirectory != null && !fetchContext.isEmpty()) {
+      _bufferPrefetcher.prefetch(columnIndexDirectory, fetchContext);
+    }
+  }
+
+  /**
+   * Cancels the pending read-ahead for the given fetch context, and waits for the in-flight read to stop.
+   */
+  @Override
+  public void release(FetchContext fetchContext) {
+    _bufferPrefetcher.release(fetchContext);
+  }
+
   public Reader createReader()
       throws IOException {
 
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.startree;
+
+import com.google.common.base.MoreObjects;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.apache.pinot.segment.local.startree.StarTreeBuilderUtils.TreeNode;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.index.startree.StarTree;
+import org.apache.pinot.segment.spi.index.startree.StarTreeNode;
+
+
+/**
+ * The {@code OnHeapStarTree} class is a star-tree backed by the {@link TreeNode}s constructed on heap, without going
+ * through the serialized format of {@link OffHeapStarTree}.
+ */
+public class OnHeapStarTree implements StarTree {
+  private final OnHeapStarTreeNode _root;
+  private final List<String> _dimensionNames;
+
+  public OnHeapStarTree(TreeNode rootNode, List<String> dimensionNames) {
+    _root = new OnHeapStarTreeNode(rootNode);
+    _dimensionNames = dimensionNames;
+  }
+
+  @Override
+  public StarTreeNode getRoot() {
+    return _root;
+  }
+
+  @Override
+  public List<String> getDimensionNames() {
+    return _dimensionNames;
+  }
+
+  @Override
+  public void printTree(Map<String, Dictionary> dictionaryMap) {
+    printTreeHelper(dictionaryMap, _root, 0);
+  }
+
+  /**
+   * Helper method to print the tree.
+   */
+  private void printTreeHelper(Map<String, Dictionary> dictionaryMap, OnHeapStarTreeNode node, int level) {
+    StringBuilder stringBuilder = new StringBuilder();
+    for (int i = 0; i < level; i++) {
+      stringBuilder.append("  ");
+    }
+    String dimensionName = "ALL";
+    int dimensionId = node.getDimensionId();
+    if (dimensionId != StarTreeNode.ALL) {
+      dimensionName = _dimensionNames.get(dimensionId);
+    }
+    String dimensionValueString = "ALL";
+    int dimensionValue = node.getDimensionValue();
+    if (dimensionValue != StarTreeNode.ALL) {
+      dimensionValueString = dictionaryMap.get(dimensionName).get(dimensionValue).toString();
+    }
+
+    // For leaf node, child dimension id is -1
+    String childDimensionName = "null";
+    int childDimensionId = node.getChildDimensionId();
+    if (childDimensionId != -1) {
+      childDimensionName = _dimensionNames.get(childDimensionId);
+    }
+
+    String formattedOutput = MoreObjects.toStringHelper(node).add("level", level).add("dimensionName", dimensionName)
+        .add("dimensionValue", dimensionValueString).add("childDimensionName", childDimensionName)
+        .add("startDocId", node.getStartDocId()).add("endDocId", node.getEndDocId())
+        .add("aggregatedDocId", node.getAggregatedDocId()).add("numChildren", node.getNumChildren()).toString();
+    stringBuilder.append(formattedOutput);
+    System.out.println(stringBuilder.toString());
+
+    if (!node.isLeaf()) {
+      Iterator<OnHeapStarTreeNode> childrenIterator = node.getChildrenIterator();
+      while (childrenIterator.hasNext()) {
+        printTreeHelper(dictionaryMap, childrenIterator.next(), level + 1);
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.startree;
+
+import java.util.Collections;
+import java.util.Iterator;
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.startree.StarTreeBuilderUtils.TreeNode;
+import org.apache.pinot.segment.spi.index.startree.StarTreeNode;
+
+import static org.apache.pinot.segment.local.startree.StarTreeBuilderUtils.INVALID_ID;
+
+
+/**
+ * The {@code OnHeapStarTreeNode} class is a read-only view of a {@link TreeNode} constructed on heap, used by the
+ * star-trees that are not serialized (e.g. the ones maintained for mutable segments).
+ */
+public class OnHeapStarTreeNode implements StarTreeNode {
+  private final TreeNode _node;
+
+  public OnHeapStarTreeNode(TreeNode node) {
+    _node = node;
+  }
+
+  @Override
+  public int getDimensionId() {
+    return _node._dimensionId;
+  }
+
+  @Override
+  public int getDimensionValue() {
+    return _node._dimensionValue;
+  }
+
+  @Override
+  public int getChildDimensionId() {
+    return _node._children != null ? _node._childDimensionId : INVALID_ID;
+  }
+
+  @Override
+  public int getStartDocId() {
+    return _node._startDocId;
+  }
+
+  @Override
+  public int getEndDocId() {
+    return _node._endDocId;
+  }
+
+  @Override
+  public int getAggregatedDocId() {
+    return _node._aggregatedDocId;
+  }
+
+  @Override
+  public int getNumChildren() {
+    return _node._children != null ? _node._children.size() : 0;
+  }
+
+  @Override
+  public boolean isLeaf() {
+    return _node._children == null;
+  }
+
+  @Nullable
+  @Override
+  public StarTreeNode getChildForDimensionValue(int dimensionValue) {
+    if (_node._children == null) {
+      return null;
+    }
+    TreeNode child = _node._children.get(dimensionValue);
+    return child != null ? new OnHeapStarTreeNode(child) : null;
+  }
+
+  @Override
+  public Iterator<OnHeapStarTreeNode> getChildrenIterator() {
+    if (_node._children == null) {
+      return Collections.emptyIterator();
+    }
+    Iterator<TreeNode> iterator = _node._children.values().iterator();
+    return new Iterator<OnHeapStarTreeNode>() {
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public OnHeapStarTreeNode next() {
+        return new OnHeapStarTreeNode(iterator.next());
+      }
+    };
+  }
+}
@@ -37,6 +37,9 @@ import javax.annotation.Nullable;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.pinot.common.function.FunctionInfo;
+import org.apache.pinot.common.function.FunctionRegistry;
+import org.apache.pinot.common.function.FunctionUtils;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.request.context.FunctionContext;
 import org.apache.pinot.common.request.context.RequestContextUtils;
@@ -46,9 +49,11 @@ import org.apache.pinot.segment.local.function.FunctionEvaluator;
 import org.apache.pinot.segment.local.function.FunctionEvaluatorFactory;
 import org.apache.pinot.segment.local.segment.creator.impl.inv.BitSlicedRangeIndexCreator;
 import org.apache.pinot.segment.spi.AggregationFunctionType;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.segment.spi.index.IndexService;
 import org.apache.pinot.segment.spi.index.IndexType;
 import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
+import org.apache.pinot.spi.config.table.ExpressionIndexConfig;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.config.table.IndexingConfig;
 import org.apache.pinot.spi.config.table.QuotaConfig;
@@ -735,6 +740,58 @@ public final class TableConfigUtils {
     }
   }
 
+  /**
+   * Validates that the data type of the EXPRESSION index matches the result type of the expression, so that overriding
+   * the expression with the materialized column does not change the query results. The result type is resolved from the
+   * scalar function (or the column) at the root of the expression, and the check is skipped when it cannot be resolved.
+   */
+  private static void validateExpressionIndexDataType(ExpressionIndexConfig expressionIndexConfig, Schema schema) {
+    String name = expressionIndexConfig.getName();
+    String expression = expressionIndexConfig.getExpression();
+    ExpressionContext expressionContext;
+    try {
+      expressionContext = RequestContextUtils.getExpression(expression);
+    } catch (Exception e) {
+      // Not a SQL expression (e.g. Groovy), cannot resolve the result type
+      return;
+    }
+    DataType resultType;
+    switch (expressionContext.getType()) {
+      case IDENTIFIER: {
+        FieldSpec fieldSpec = schema.getFieldSpecFor(expressionContext.getIdentifier());
+        if (fieldSpec == null) {
+          return;
+        }
+        Preconditions.checkState(fieldSpec.isSingleValueField(),
+            "Expression: %s for EXPRESSION index: %s must be single-valued", expression, name);
+        resultType = fieldSpec.getDataType();
+        break;
+      }
+      case FUNCTION: {
+        FunctionContext function = expressionContext.getFunction();
+        FunctionInfo functionInfo =
+            FunctionRegistry.getFunctionInfo(function.getFunctionName(), function.getArguments().size());
+        if (functionInfo == null) {
+          return;
+        }
+        Class<?> returnType = functionInfo.getMethod().getReturnType();
+        Preconditions.checkState(!returnType.isArray() || returnType == byte[].class,
+            "Expression: %s for EXPRESSION index: %s must be single-valued", expression, name);
+        resultType = FunctionUtils.getDataType(returnType);
+        if (resultType == null) {
+          return;
+        }
+        break;
+      }
+      default:
+        return;
+    }
+    DataType dataType = expressionIndexConfig.getDataType();
+    Preconditions.checkState(dataType.getStoredType() == resultType.getStoredType(),
+        "Data type: %s for EXPRESSION index: %s does not match the result type: %s of expression: %s", dataType, name,
+        resultType, expression);
+  }
+
   /**
    * Validates the Indexing Config
    * Ensures that every referred column name exists in the corresponding schema.
@@ -843,6 +900,26 @@ public final class TableConfigUtils {
       }
     }
 
+    List<ExpressionIndexConfig> expressionIndexConfigs = indexingConfig.getExpressionIndexConfigs();
+    if (expressionIndexConfigs != null) {
+      Set<String> expressionIndexNames = new HashSet<>();
+      for (ExpressionIndexConfig expressionIndexConfig : expressionIndexConfigs) {
+        String name = expressionIndexConfig.getName();
+        Preconditions.checkState(expressionIndexNames.add(name), "Duplicate EXPRESSION index name: %s", name);
+        String expression = expressionIndexConfig.getExpression();
+        FunctionEvaluator expressionEvaluator;
+        try {
+          expressionEvaluator = FunctionEvaluatorFactory.getExpressionEvaluator(expression);
+        } catch (Exception e) {
+          throw new IllegalStateException("Invalid expression: " + expression + " for EXPRESSION index: " + name, e);
+        }
+        for (String columnName : expressionEvaluator.getArguments()) {
+          columnNameToConfigMap.put(columnName, "Expression Index Config");
+        }
+        validateExpressionIndexDataType(expressionIndexConfig, schema);
+      }
+    }
+
     for (Map.Entry<String, String> entry : columnNameToConfigMap.entries()) {
       String columnName = entry.getKey();
       String configName = entry.getValue();
@@ -927,6 +1004,15 @@ public final class TableConfigUtils {
             schema);
       }
 
+      FieldConfig.CompressionCodec compressionCodec = fieldConfig.getCompressionCodec();
+      if (compressionCodec != null && ChunkCompressionType.valueOf(compressionCodec.name()).isNumericEncoding()) {
+        DataType storedType = fieldConfigColSpec.getDataType().getStoredType();
+        Preconditions.checkState(fieldConfigColSpec.isSingleValueField() && (storedType == DataType.INT
+                || storedType == DataType.LONG || storedType == DataType.FLOAT || storedType == DataType.DOUBLE),
+            "Compression codec: %s is only supported for single value INT, LONG, FLOAT and DOUBLE columns, invalid for "
+                + "column: %s", compressionCodec, columnName);
+      }
+
       if (CollectionUtils.isNotEmpty(fieldConfig.getIndexTypes())) {
         for (FieldConfig.IndexType indexType : fieldConfig.getIndexTypes()) {
           switch (indexType) {
@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.io.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.compression.ChunkCompressor;
+import org.apache.pinot.segment.spi.compression.ChunkDecompressor;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class NumericChunkCodecTest {
+  private static final int NUM_VALUES = 1000;
+  private static final Random RANDOM = new Random();
+
+  @DataProvider
+  public Object[][] encodings() {
+    return new Object[][]{
+        {ChunkCompressionType.FOR}, {ChunkCompressionType.DELTA}, {ChunkCompressionType.DELTADELTA},
+        {ChunkCompressionType.XOR}
+    };
+  }
+
+  @Test(dataProvider = "encodings")
+  public void testLongRoundtrip(ChunkCompressionType compressionType)
+      throws IOException {
+    long[][] inputs = new long[][]{
+        timestamps(), randomLongs(), constantLongs(RANDOM.nextLong()), new long[]{Long.MIN_VALUE, Long.MAX_VALUE, 0L},
+        new long[]{RANDOM.nextLong()}, new long[0]
+    };
+    for (long[] input : inputs) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(input.length * Long.BYTES);
+      for (long value : input) {
+        buffer.putLong(value);
+      }
+      buffer.flip();
+      ByteBuffer decompressed = roundtrip(compressionType, Long.BYTES, buffer);
+      for (long value : input) {
+        assertEquals(decompressed.getLong(), value);
+      }
+    }
+  }
+
+  @Test(dataProvider = "encodings")
+  public void testIntRoundtrip(ChunkCompressionType compressionType)
+      throws IOException {
+    int[] input = new int[NUM_VALUES];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      // Mix of negative and positive values
+      input[i] = RANDOM.nextInt(2000) - 1000;
+    }
+    input[0] = Integer.MIN_VALUE;
+    input[1] = Integer.MAX_VALUE;
+    ByteBuffer buffer = ByteBuffer.allocateDirect(input.length * Integer.BYTES);
+    for (int value : input) {
+      buffer.putInt(value);
+    }
+    buffer.flip();
+    ByteBuffer decompressed = roundtrip(compressionType, Integer.BYTES, buffer);
+    for (int value : input) {
+      assertEquals(decompressed.getInt(), value);
+    }
+  }
+
+  @Test(dataProvider = "encodings")
+  public void testDoubleRoundtrip(ChunkCompressionType compressionType)
+      throws IOException {
+    double[] input = new double[NUM_VALUES];
+    double value = 100.0;
+    for (int i = 0; i < NUM_VALUES; i++) {
+      // Slowly changing metric with repeated values
+      if (RANDOM.nextBoolean()) {
+        value += RANDOM.nextInt(10) / 4.0;
+      }
+      input[i] = value;
+    }
+    input[0] = Double.NaN;
+    input[1] = Double.NEGATIVE_INFINITY;
+    input[2] = -0.0;
+    ByteBuffer buffer = ByteBuffer.allocateDirect(input.length * Double.BYTES);
+    for (double v : input) {
+      buffer.putDouble(v);
+    }
+    buffer.flip();
+    ByteBuffer decompressed = roundtrip(compressionType, Double.BYTES, buffer);
+    for (double v : input) {
+      assertEquals(Double.doubleToRawLongBits(decompressed.getDouble()), Double.doubleToRawLongBits(v));
+    }
+  }
+
+  @Test
+  public void testCompressionRatio()
+      throws IOException {
+    long[] timestamps = timestamps();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(timestamps.length * Long.BYTES);
+    for (long timestamp : timestamps) {
+      buffer.putLong(timestamp);
+    }
+    buffer.flip();
+    ChunkCompressor compressor =
+        ChunkCompressorFactory.getNumericCompressor(ChunkCompressionType.DELTADELTA, Long.BYTES);
+    ByteBuffer compressed = ByteBuffer.allocateDirect(compressor.maxCompressedSize(buffer.limit()));
+    int compressedSize = compressor.compress(buffer, compressed);
+    // Timestamps with small jitter should be encoded with a few bits per value
+    assertTrue(compressedSize < timestamps.length, "Compressed size: " + compressedSize);
+
+    long[] values = new long[NUM_VALUES];
+    assertEquals(NumericChunkCodec.decode(ChunkCompressionType.DELTADELTA, compressed, values), NUM_VALUES);
+    for (int i = 0; i < NUM_VALUES; i++) {
+      assertEquals(values[i], timestamps[i]);
+    }
+  }
+
+  private static ByteBuffer roundtrip(ChunkCompressionType compressionType, int valueSize, ByteBuffer rawInput)
+      throws IOException {
+    ChunkCompressor compressor = ChunkCompressorFactory.getNumericCompressor(compressionType, valueSize);
+    assertEquals(compressor.compressionType(), compressionType);
+    ByteBuffer compressed = ByteBuffer.allocateDirect(compressor.maxCompressedSize(rawInput.limit()));
+    compressor.compress(rawInput, compressed);
+    ChunkDecompressor decompressor = ChunkCompressorFactory.getDecompressor(compressionType);
+    assertEquals(decompressor.decompressedLength(compressed), rawInput.limit());
+    ByteBuffer decompressed = ByteBuffer.allocateDirect(rawInput.limit());
+    assertEquals(decompressor.decompress(compressed, decompressed), rawInput.limit());
+    return decompressed;
+  }
+
+  private static long[] timestamps() {
+    long[] values = new long[NUM_VALUES];
+    long timestamp = System.currentTimeMillis();
+    for (int i = 0; i < NUM_VALUES; i++) {
+      timestamp += 1000 + RANDOM.nextInt(3);
+      values[i] = timestamp;
+    }
+    return values;
+  }
+
+  private static long[] randomLongs() {
+    long[] values = new long[NUM_VALUES];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      values[i] = RANDOM.nextLong();
+    }
+    return values;
+  }
+
+  private static long[] constantLongs(long value) {
+    long[] values = new long[NUM_VALUES];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      values[i] = value;
+    }
+    return values;
+  }
+}
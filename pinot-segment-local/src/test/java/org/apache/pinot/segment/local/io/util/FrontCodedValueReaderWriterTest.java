@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.io.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.RandomStringUtils;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Unit test for {@link FrontCodedValueReader} and {@link FrontCodedValueWriter}.
+ */
+public class FrontCodedValueReaderWriterTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "FrontCodedValueReaderWriterTest");
+  private static final String[] PREFIXES =
+      {"https://www.example.com/", "https://www.example.com/search?q=", "https://docs.example.org/", "\u00e9t\u00e9/"};
+  private static final int NUM_VALUES = 1000;
+  private static final Random RANDOM = new Random();
+
+  @BeforeClass
+  public void setUp()
+      throws IOException {
+    FileUtils.forceMkdir(TEMP_DIR);
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws IOException {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  @DataProvider
+  public static Object[][] blockSizes() {
+    return new Object[][]{{1}, {4}, {FrontCodedValueWriter.DEFAULT_BLOCK_SIZE}, {NUM_VALUES + 1}};
+  }
+
+  @Test
+  public void testEmptyDictionary()
+      throws IOException {
+    File dictionaryFile = new File(TEMP_DIR, "empty");
+    FrontCodedValueWriter writer = new FrontCodedValueWriter(dictionaryFile, 0);
+    writer.close();
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(dictionaryFile)) {
+      assertTrue(FrontCodedValueReader.isFrontCodedValueBuffer(dataBuffer));
+      assertFalse(VarLengthValueReader.isVarLengthValueBuffer(dataBuffer));
+      try (FrontCodedValueReader reader = new FrontCodedValueReader(dataBuffer)) {
+        assertEquals(reader.getNumValues(), 0);
+        assertEquals(reader.binarySearch("a".getBytes(UTF_8), true), -1);
+      }
+    }
+  }
+
+  @Test(dataProvider = "blockSizes")
+  public void testStringValues(int blockSize)
+      throws IOException {
+    TreeSet<String> valueSet = new TreeSet<>();
+    while (valueSet.size() < NUM_VALUES) {
+      valueSet.add(PREFIXES[RANDOM.nextInt(PREFIXES.length)] + RandomStringUtils.random(RANDOM.nextInt(20)));
+    }
+    String[] values = valueSet.toArray(new String[0]);
+    int maxLength = 0;
+    File dictionaryFile = new File(TEMP_DIR, "string_" + blockSize);
+    try (FrontCodedValueWriter writer = new FrontCodedValueWriter(dictionaryFile, NUM_VALUES, blockSize)) {
+      for (String value : values) {
+        byte[] valueBytes = value.getBytes(UTF_8);
+        maxLength = Math.max(maxLength, valueBytes.length);
+        writer.add(valueBytes);
+      }
+    }
+
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(dictionaryFile)) {
+      assertTrue(FrontCodedValueReader.isFrontCodedValueBuffer(dataBuffer));
+      try (FrontCodedValueReader reader = new FrontCodedValueReader(dataBuffer)) {
+        assertEquals(reader.getNumValues(), NUM_VALUES);
+        assertEquals(reader.getMaxValueLength(), maxLength);
+        byte[] buffer = new byte[maxLength];
+        for (int i = 0; i < NUM_VALUES; i++) {
+          byte[] valueBytes = values[i].getBytes(UTF_8);
+          assertEquals(reader.getUnpaddedString(i, maxLength, buffer), values[i]);
+          assertEquals(reader.getBytes(i, maxLength), valueBytes);
+          assertEquals(reader.compareUtf8Bytes(i, maxLength, valueBytes), 0);
+          assertEquals(reader.binarySearch(valueBytes, true), i);
+        }
+        for (int i = 0; i < NUM_VALUES; i++) {
+          String randomValue = PREFIXES[RANDOM.nextInt(PREFIXES.length)] + RandomStringUtils.random(RANDOM.nextInt(20));
+          assertEquals(reader.binarySearch(randomValue.getBytes(UTF_8), true),
+              Arrays.binarySearch(values, randomValue));
+        }
+      }
+    }
+  }
+
+  @Test(dataProvider = "blockSizes")
+  public void testBytesValues(int blockSize)
+      throws IOException {
+    byte[][] values = new byte[NUM_VALUES][];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      // Big-endian encoded sequential values share common prefixes and are sorted as unsigned bytes
+      values[i] = new byte[]{0, 0, (byte) (i >>> 8), (byte) i, (byte) RANDOM.nextInt()};
+      values[i] = Arrays.copyOf(values[i], 4 + (i & 1));
+    }
+    File dictionaryFile = new File(TEMP_DIR, "bytes_" + blockSize);
+    try (FrontCodedValueWriter writer = new FrontCodedValueWriter(dictionaryFile, NUM_VALUES, blockSize)) {
+      for (byte[] value : values) {
+        writer.add(value);
+      }
+    }
+
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(dictionaryFile)) {
+      try (FrontCodedValueReader reader = new FrontCodedValueReader(dataBuffer)) {
+        for (int i = 0; i < NUM_VALUES; i++) {
+          assertEquals(reader.getBytes(i, 5), values[i]);
+          assertEquals(reader.compareBytes(i, 5, values[i]), 0);
+          assertEquals(reader.binarySearch(values[i], false), i);
+          // Value with an extra trailing byte should be inserted right after the current value
+          byte[] largerValue = Arrays.copyOf(values[i], values[i].length + 1);
+          largerValue[values[i].length] = (byte) 0xFF;
+          assertEquals(reader.binarySearch(largerValue, false), -(i + 2));
+        }
+        assertEquals(reader.binarySearch(new byte[0], false), -1);
+        assertEquals(reader.binarySearch(new byte[]{1}, false), -(NUM_VALUES + 1));
+      }
+    }
+  }
+}
@@ -68,6 +68,7 @@ public class VarByteChunkSVForwardIndexWriterTest {
     int[][] entryLengths = {{1, 1}, {0, 10}, {0, 100}, {100, 100}, {900, 1000}};
     int[] versions = {2, 3};
     return Arrays.stream(ChunkCompressionType.values())
+        .filter(chunkCompressionType -> !chunkCompressionType.isNumericEncoding())
         .flatMap(chunkCompressionType -> IntStream.of(versions).boxed().flatMap(
             version -> IntStream.of(numbersOfDocs).boxed()
                 .flatMap(totalDocs -> IntStream.of(numDocsPerChunks).boxed().flatMap(
@@ -0,0 +1,268 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.realtime.impl.startree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import org.apache.pinot.segment.local.realtime.impl.dictionary.IntOnHeapMutableDictionary;
+import org.apache.pinot.segment.local.realtime.impl.dictionary.StringOnHeapMutableDictionary;
+import org.apache.pinot.segment.local.startree.v2.builder.StarTreeV2BuilderConfig;
+import org.apache.pinot.segment.spi.AggregationFunctionType;
+import org.apache.pinot.segment.spi.index.mutable.MutableDictionary;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
+import org.apache.pinot.segment.spi.index.startree.StarTreeNode;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2;
+import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
+import org.apache.pinot.spi.data.DimensionFieldSpec;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.MetricFieldSpec;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class MutableStarTreeIndexTest {
+  private static final Random RANDOM = new Random();
+  private static final String D1 = "d1";
+  private static final String D2 = "d2";
+  private static final String M = "m";
+  private static final int D1_CARDINALITY = 3;
+  private static final int D2_CARDINALITY = 4;
+  private static final String COUNT = AggregationFunctionColumnPair.COUNT_STAR.toColumnName();
+  private static final String SUM = AggregationFunctionColumnPair.toColumnName(AggregationFunctionType.SUM, M);
+
+  @Test
+  public void testMutableStarTree() {
+    Map<String, FieldSpec> fieldSpecMap = new HashMap<>();
+    fieldSpecMap.put(D1, new DimensionFieldSpec(D1, DataType.STRING, true));
+    fieldSpecMap.put(D2, new DimensionFieldSpec(D2, DataType.INT, true));
+    fieldSpecMap.put(M, new MetricFieldSpec(M, DataType.LONG));
+    Map<String, MutableDictionary> dictionaryMap = new HashMap<>();
+    MutableDictionary d1Dictionary = new StringOnHeapMutableDictionary();
+    MutableDictionary d2Dictionary = new IntOnHeapMutableDictionary();
+    dictionaryMap.put(D1, d1Dictionary);
+    dictionaryMap.put(D2, d2Dictionary);
+    // Use max leaf records of 1 to split on all the dimensions
+    StarTreeIndexConfig indexConfig =
+        new StarTreeIndexConfig(Arrays.asList(D1, D2), null, Arrays.asList(COUNT, SUM), 1);
+    // Construct the star-tree on the caller thread whenever it is stale
+    MutableStarTreeIndex starTreeIndex =
+        new MutableStarTreeIndex(StarTreeV2BuilderConfig.fromIndexConfig(indexConfig), fieldSpecMap, dictionaryMap,
+            Integer.MAX_VALUE, 1, 0L, Runnable::run);
+    assertNull(starTreeIndex.getStarTree());
+
+    long[] d1Counts = new long[D1_CARDINALITY];
+    long[] d1Sums = new long[D1_CARDINALITY];
+    long[] d2Counts = new long[D2_CARDINALITY];
+    long[] d2Sums = new long[D2_CARDINALITY];
+    String[] metricColumns = starTreeIndex.getMetricColumns();
+    int numDocs = 0;
+    for (int round = 0; round < 2; round++) {
+      for (int i = 0; i < 1000; i++) {
+        int d1 = RANDOM.nextInt(D1_CARDINALITY);
+        int d2 = RANDOM.nextInt(D2_CARDINALITY);
+        long m = RANDOM.nextInt(100);
+        int[] dictIds = new int[]{d1Dictionary.index("v" + d1), d2Dictionary.index(d2)};
+        starTreeIndex.index(dictIds, getRawMetricValues(metricColumns, m));
+        d1Counts[d1]++;
+        d1Sums[d1] += m;
+        d2Counts[d2]++;
+        d2Sums[d2] += m;
+        numDocs++;
+      }
+
+      StarTreeV2 starTree = getLatestStarTree(starTreeIndex);
+      assertNotNull(starTree);
+      assertEquals(starTree.getNumSegmentDocsCovered(), numDocs);
+      // Star-tree should be reused when no new record is indexed
+      assertSame(getLatestStarTree(starTreeIndex), starTree);
+      assertEquals(starTree.getMetadata().getDimensionsSplitOrder(), Arrays.asList(D1, D2));
+      assertEquals(starTree.getDataSource(D1).getDictionary(), d1Dictionary);
+
+      StarTreeNode root = starTree.getStarTree().getRoot();
+      assertAggregatedDoc(starTree, root, Arrays.stream(d1Counts).sum(), Arrays.stream(d1Sums).sum());
+      for (int d1 = 0; d1 < D1_CARDINALITY; d1++) {
+        StarTreeNode child = root.getChildForDimensionValue(d1Dictionary.indexOf("v" + d1));
+        assertNotNull(child);
+        assertAggregatedDoc(starTree, child, d1Counts[d1], d1Sums[d1]);
+      }
+      StarTreeNode starNode = root.getChildForDimensionValue(StarTreeNode.ALL);
+      assertNotNull(starNode);
+      for (int d2 = 0; d2 < D2_CARDINALITY; d2++) {
+        StarTreeNode child = starNode.getChildForDimensionValue(d2Dictionary.indexOf(d2));
+        assertNotNull(child);
+        assertAggregatedDoc(starTree, child, d2Counts[d2], d2Sums[d2]);
+      }
+
+      // Stale star-tree should be served until it is used by a query, which triggers the rebuild
+      starTreeIndex.index(new int[]{0, 0}, getRawMetricValues(metricColumns, 0L));
+      numDocs++;
+      assertSame(starTreeIndex.getStarTree(), starTree);
+      starTree.getStarTree();
+      StarTreeV2 rebuiltStarTree = starTreeIndex.getStarTree();
+      assertNotSame(rebuiltStarTree, starTree);
+      assertEquals(rebuiltStarTree.getNumSegmentDocsCovered(), numDocs);
+      String d1Value = (String) d1Dictionary.get(0);
+      int d2Value = (int) d2Dictionary.get(0);
+      d1Counts[Integer.parseInt(d1Value.substring(1))]++;
+      d2Counts[d2Value]++;
+    }
+  }
+
+  @Test
+  public void testRateLimitedRebuild() {
+    // Rebuild only after 10 new records
+    MutableStarTreeIndex starTreeIndex = createSingleDimensionStarTreeIndex(Integer.MAX_VALUE, 10, Runnable::run);
+    indexSingleDimensionRecords(starTreeIndex, 5);
+    assertNull(starTreeIndex.getStarTree());
+    indexSingleDimensionRecords(starTreeIndex, 5);
+    StarTreeV2 starTree = starTreeIndex.getStarTree();
+    assertNotNull(starTree);
+    assertEquals(starTree.getNumSegmentDocsCovered(), 10);
+
+    indexSingleDimensionRecords(starTreeIndex, 5);
+    starTree.getStarTree();
+    assertSame(starTreeIndex.getStarTree(), starTree);
+    indexSingleDimensionRecords(starTreeIndex, 5);
+    starTree.getStarTree();
+    StarTreeV2 rebuiltStarTree = starTreeIndex.getStarTree();
+    assertNotSame(rebuiltStarTree, starTree);
+    assertEquals(rebuiltStarTree.getNumSegmentDocsCovered(), 20);
+  }
+
+  @Test
+  public void testSingleFlightRebuild() {
+    List<Runnable> buildTasks = new ArrayList<>();
+    MutableStarTreeIndex starTreeIndex = createSingleDimensionStarTreeIndex(Integer.MAX_VALUE, 1, buildTasks::add);
+    indexSingleDimensionRecords(starTreeIndex, 10);
+
+    // Only one build should be scheduled until it finishes
+    assertNull(starTreeIndex.getStarTree());
+    assertNull(starTreeIndex.getStarTree());
+    assertEquals(buildTasks.size(), 1);
+    buildTasks.remove(0).run();
+    StarTreeV2 starTree = starTreeIndex.getStarTree();
+    assertNotNull(starTree);
+    assertEquals(starTree.getNumSegmentDocsCovered(), 10);
+
+    indexSingleDimensionRecords(starTreeIndex, 10);
+    starTree.getStarTree();
+    starTree.getStarTree();
+    assertEquals(buildTasks.size(), 1);
+    // Stale star-tree should be served while the rebuild is pending
+    assertSame(starTreeIndex.getStarTree(), starTree);
+    buildTasks.remove(0).run();
+    assertEquals(starTreeIndex.getStarTree().getNumSegmentDocsCovered(), 20);
+  }
+
+  @Test
+  public void testRecordBudget() {
+    MutableStarTreeIndex starTreeIndex = createSingleDimensionStarTreeIndex(3, 1, Runnable::run);
+    // Records with the same dimension values are merged and do not count towards the budget
+    indexSingleDimensionRecords(starTreeIndex, 3);
+    indexSingleDimensionRecords(starTreeIndex, 3);
+    assertFalse(starTreeIndex.isDisabled());
+    assertNotNull(starTreeIndex.getStarTree());
+
+    starTreeIndex.index(new int[]{3}, new Object[1]);
+    assertTrue(starTreeIndex.isDisabled());
+    assertNull(starTreeIndex.getStarTree());
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testDimensionWithoutDictionary() {
+    Map<String, FieldSpec> fieldSpecMap =
+        Collections.singletonMap(D1, new DimensionFieldSpec(D1, DataType.STRING, true));
+    StarTreeIndexConfig indexConfig =
+        new StarTreeIndexConfig(Collections.singletonList(D1), null, Collections.singletonList(COUNT), 1);
+    new MutableStarTreeIndex(StarTreeV2BuilderConfig.fromIndexConfig(indexConfig), fieldSpecMap,
+        Collections.emptyMap(), Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the latest star-tree after triggering a rebuild (on the caller thread) if it is stale.
+   */
+  private static StarTreeV2 getLatestStarTree(MutableStarTreeIndex starTreeIndex) {
+    StarTreeV2 starTree = starTreeIndex.getStarTree();
+    if (starTree != null) {
+      starTree.getStarTree();
+      starTree = starTreeIndex.getStarTree();
+    }
+    return starTree;
+  }
+
+  /**
+   * Creates a star-tree index on a single dimension with COUNT only, which never rebuilds on the time based rate
+   * limit.
+   */
+  private static MutableStarTreeIndex createSingleDimensionStarTreeIndex(int maxNumRecords, int minNewRecordsToRebuild,
+      Executor buildExecutor) {
+    Map<String, FieldSpec> fieldSpecMap =
+        Collections.singletonMap(D2, new DimensionFieldSpec(D2, DataType.INT, true));
+    Map<String, MutableDictionary> dictionaryMap = Collections.singletonMap(D2, new IntOnHeapMutableDictionary());
+    StarTreeIndexConfig indexConfig =
+        new StarTreeIndexConfig(Collections.singletonList(D2), null, Collections.singletonList(COUNT), 1);
+    return new MutableStarTreeIndex(StarTreeV2BuilderConfig.fromIndexConfig(indexConfig), fieldSpecMap,
+        dictionaryMap, maxNumRecords, minNewRecordsToRebuild, Long.MAX_VALUE, buildExecutor);
+  }
+
+  /**
+   * Indexes records with dimension dictionary ids cycling from 0 to 2.
+   */
+  private static void indexSingleDimensionRecords(MutableStarTreeIndex starTreeIndex, int numRecords) {
+    for (int i = 0; i < numRecords; i++) {
+      starTreeIndex.index(new int[]{i % 3}, new Object[1]);
+    }
+  }
+
+  private static Object[] getRawMetricValues(String[] metricColumns, long m) {
+    Object[] rawMetricValues = new Object[metricColumns.length];
+    for (int i = 0; i < metricColumns.length; i++) {
+      // Column is null for COUNT aggregation function
+      if (M.equals(metricColumns[i])) {
+        rawMetricValues[i] = m;
+      }
+    }
+    return rawMetricValues;
+  }
+
+  private static void assertAggregatedDoc(StarTreeV2 starTree, StarTreeNode node, long expectedCount,
+      long expectedSum) {
+    int docId = node.getAggregatedDocId();
+    ForwardIndexReader countReader = starTree.getDataSource(COUNT).getForwardIndex();
+    ForwardIndexReader sumReader = starTree.getDataSource(SUM).getForwardIndex();
+    assertEquals(countReader.getLong(docId, null), expectedCount);
+    assertEquals(sumReader.getDouble(docId, null), (double) expectedSum);
+  }
+}
@@ -21,7 +21,12 @@ package org.apache.pinot.segment.local.segment.index.creator;
 import java.io.File;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapSplitBlockBloomFilterCreator;
 import org.apache.pinot.segment.local.segment.index.readers.bloom.BloomFilterReaderFactory;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.GuavaBloomFilterReaderUtils;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.OffHeapSplitBlockBloomFilterReader;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.OnHeapSplitBlockBloomFilterReader;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.SplitBlockBloomFilterUtils;
 import org.apache.pinot.segment.spi.V1Constants;
 import org.apache.pinot.segment.spi.index.creator.BloomFilterCreator;
 import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
@@ -60,6 +65,10 @@ public class BloomFilterCreatorTest {
 
     // Read the bloom filter
     File bloomFilterFile = new File(TEMP_DIR, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    // Blocks should start right after the cache line aligned header
+    long blocksSize = bloomFilterFile.length() - SplitBlockBloomFilterUtils.HEADER_SIZE_IN_BYTES;
+    Assert.assertTrue(blocksSize > 0);
+    Assert.assertEquals(blocksSize % SplitBlockBloomFilterUtils.BLOCK_SIZE_IN_BYTES, 0);
     try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile);
         BloomFilterReader onHeapBloomFilter = BloomFilterReaderFactory.getBloomFilterReader(dataBuffer, true);
         BloomFilterReader offHeapBloomFilter = BloomFilterReaderFactory.getBloomFilterReader(dataBuffer, false);) {
@@ -74,6 +83,52 @@ public class BloomFilterCreatorTest {
     }
   }
 
+  @Test
+  public void testSplitBlockBloomFilterCreator()
+      throws Exception {
+    // Create the bloom filter
+    int cardinality = 10000;
+    String columnName = "splitBlockColumn";
+    BloomFilterConfig bloomFilterConfig =
+        new BloomFilterConfig(false, BloomFilterConfig.DEFAULT_FPP, 0, false, BloomFilterConfig.Format.SPLIT_BLOCK);
+    try (BloomFilterCreator bloomFilterCreator = new OnHeapSplitBlockBloomFilterCreator(TEMP_DIR, columnName,
+        cardinality, bloomFilterConfig, FieldSpec.DataType.INT)) {
+      for (int i = 0; i < cardinality; i++) {
+        bloomFilterCreator.add(Integer.toString(i));
+      }
+      bloomFilterCreator.seal();
+    }
+
+    // Read the bloom filter
+    File bloomFilterFile = new File(TEMP_DIR, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile);
+        BloomFilterReader onHeapBloomFilter = BloomFilterReaderFactory.getBloomFilterReader(dataBuffer, true);
+        BloomFilterReader offHeapBloomFilter = BloomFilterReaderFactory.getBloomFilterReader(dataBuffer, false)) {
+      Assert.assertTrue(onHeapBloomFilter instanceof OnHeapSplitBlockBloomFilterReader);
+      Assert.assertTrue(offHeapBloomFilter instanceof OffHeapSplitBlockBloomFilterReader);
+      // No false negatives
+      for (int i = 0; i < cardinality; i++) {
+        String value = Integer.toString(i);
+        Assert.assertTrue(onHeapBloomFilter.mightContain(value));
+        Assert.assertTrue(offHeapBloomFilter.mightContain(value));
+        GuavaBloomFilterReaderUtils.Hash128AsLongs hash = GuavaBloomFilterReaderUtils.hashAsLongs(value);
+        Assert.assertTrue(offHeapBloomFilter.mightContain(hash.getHash1(), hash.getHash2()));
+      }
+      // False positive rate should be close to the configured fpp
+      int numFalsePositives = 0;
+      for (int i = cardinality; i < 2 * cardinality; i++) {
+        String value = Integer.toString(i);
+        boolean mightContain = onHeapBloomFilter.mightContain(value);
+        Assert.assertEquals(offHeapBloomFilter.mightContain(value), mightContain);
+        if (mightContain) {
+          numFalsePositives++;
+        }
+      }
+      Assert.assertTrue(numFalsePositives < 2 * BloomFilterConfig.DEFAULT_FPP * cardinality,
+          "Too many false positives: " + numFalsePositives);
+    }
+  }
+
   @AfterClass
   public void tearDown()
       throws Exception {
@@ -0,0 +1,296 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.forward;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.io.writer.impl.FixedByteChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.local.segment.index.readers.forward.ChunkReaderContext;
+import org.apache.pinot.segment.local.segment.index.readers.forward.DecompressedChunkCache;
+import org.apache.pinot.segment.local.segment.index.readers.forward.FixedByteChunkSVForwardIndexReader;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.utils.CommonConstants.Server;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class DecompressedChunkCacheTest {
+  private static final String TABLE_NAME = "testTable";
+  private static final File INDEX_FILE =
+      new File(FileUtils.getTempDirectory(), DecompressedChunkCacheTest.class.getSimpleName());
+
+  @Test
+  public void testGetAndPut() {
+    DecompressedChunkCache cache = new DecompressedChunkCache(1000, 1000, Collections.emptyMap(), null);
+    DecompressedChunkCache.Handle handle = cache.newHandle(TABLE_NAME);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+    assertFalse(handle.get(0, buffer));
+
+    handle.put(0, createChunk(100, (byte) 1));
+    assertEquals(cache.getSizeBytes(), 100);
+    assertEquals(cache.getTableSizeBytes(TABLE_NAME), 100);
+    assertTrue(handle.get(0, buffer));
+    assertEquals(buffer.remaining(), 100);
+    assertEquals(buffer.get(99), 1);
+    assertEquals(cache.getTableHitRatio(TABLE_NAME), 0.5);
+
+    // Chunks are keyed by the handle
+    assertFalse(cache.newHandle(TABLE_NAME).get(0, buffer));
+
+    handle.invalidate();
+    assertEquals(cache.getSizeBytes(), 0);
+    assertEquals(cache.getTableSizeBytes(TABLE_NAME), 0);
+    assertFalse(handle.get(0, buffer));
+  }
+
+  @Test
+  public void testEviction() {
+    // 500 bytes for the cache, 300 bytes for table1 and 500 bytes for table2
+    // Use a single stripe so that the chunks are evicted in the exact LRU order
+    DecompressedChunkCache cache =
+        new DecompressedChunkCache(500, 500, Collections.singletonMap("table1", 300L), null, 1);
+    DecompressedChunkCache.Handle handle1 = cache.newHandle("table1");
+    DecompressedChunkCache.Handle handle2 = cache.newHandle("table2");
+    ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+
+    // Table quota: least recently used chunk of table1 should be evicted
+    handle2.put(0, createChunk(100, (byte) 0));
+    for (int i = 0; i < 4; i++) {
+      handle1.put(i, createChunk(100, (byte) i));
+    }
+    assertEquals(cache.getTableSizeBytes("table1"), 300);
+    assertEquals(cache.getTableSizeBytes("table2"), 100);
+    assertFalse(handle1.get(0, buffer));
+    assertTrue(handle1.get(1, buffer));
+    assertTrue(handle2.get(0, buffer));
+
+    // Cache max size: least recently used chunk of the largest table (table1) should be evicted
+    handle2.put(1, createChunk(150, (byte) 1));
+    assertEquals(cache.getSizeBytes(), 450);
+    assertEquals(cache.getTableSizeBytes("table1"), 200);
+    assertEquals(cache.getTableSizeBytes("table2"), 250);
+    assertFalse(handle1.get(2, buffer));
+    assertTrue(handle1.get(1, buffer));
+    assertTrue(handle1.get(3, buffer));
+    assertTrue(handle2.get(0, buffer));
+
+    // Chunk larger than the table quota should not be cached
+    handle1.put(4, createChunk(400, (byte) 4));
+    assertFalse(handle1.get(4, ByteBuffer.allocateDirect(400)));
+  }
+
+  @Test
+  public void testBufferReuse() {
+    // Free buffers are kept up to 1/16 of the max size, i.e. 2 chunks
+    DecompressedChunkCache cache = new DecompressedChunkCache(3200, 3200, Collections.emptyMap(), null, 1);
+    DecompressedChunkCache.Handle handle = cache.newHandle(TABLE_NAME);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+    for (int i = 0; i < 32; i++) {
+      handle.put(i, createChunk(100, (byte) i));
+    }
+    assertEquals(cache.getFreeBuffersSizeBytes(), 0);
+
+    // Evicted buffer should be kept for reuse, then reused by the next chunk of the same size
+    handle.put(32, createChunk(100, (byte) 32));
+    assertFalse(handle.get(0, buffer));
+    assertEquals(cache.getFreeBuffersSizeBytes(), 100);
+    handle.put(33, createChunk(100, (byte) 33));
+    assertEquals(cache.getFreeBuffersSizeBytes(), 100);
+    handle.put(34, createChunk(200, (byte) 34));
+    assertEquals(cache.getFreeBuffersSizeBytes(), 200);
+
+    // Reused buffer should not contain stale content
+    assertTrue(handle.get(33, buffer));
+    assertEquals(buffer.remaining(), 100);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(buffer.get(i), 33);
+    }
+
+    // Free list is bounded
+    handle.invalidate();
+    assertEquals(cache.getSizeBytes(), 0);
+    assertEquals(cache.getFreeBuffersSizeBytes(), 200);
+  }
+
+  @Test
+  public void testTableRemoval() {
+    DecompressedChunkCache cache = new DecompressedChunkCache(1000, 1000, Collections.emptyMap(), null);
+    DecompressedChunkCache.Handle handle1 = cache.newHandle(TABLE_NAME);
+    DecompressedChunkCache.Handle handle2 = cache.newHandle(TABLE_NAME);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+    handle1.put(0, createChunk(100, (byte) 0));
+    handle2.put(0, createChunk(100, (byte) 0));
+    assertTrue(handle1.get(0, buffer));
+    assertFalse(handle2.get(1, buffer));
+    assertEquals(cache.getTableHitRatio(TABLE_NAME), 0.5);
+
+    // Table should be kept until all the handles are invalidated
+    handle1.invalidate();
+    handle1.invalidate();
+    assertEquals(cache.getTableSizeBytes(TABLE_NAME), 100);
+    assertEquals(cache.getTableHitRatio(TABLE_NAME), 0.5);
+    handle2.invalidate();
+    assertEquals(cache.getSizeBytes(), 0);
+    assertEquals(cache.getTableHitRatio(TABLE_NAME), 0);
+
+    // Invalidated handle should not cache chunks
+    handle1.put(1, createChunk(100, (byte) 1));
+    assertEquals(cache.getSizeBytes(), 0);
+
+    // New handle of the table should start with new stats
+    DecompressedChunkCache.Handle handle3 = cache.newHandle(TABLE_NAME);
+    assertFalse(handle3.get(0, buffer));
+    assertEquals(cache.getTableHitRatio(TABLE_NAME), 0);
+  }
+
+  @Test
+  public void testTableMaxSizeConfig() {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(Server.CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_MAX_SIZE_BYTES, 1000L);
+    properties.put(Server.CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_TABLE_MAX_SIZE_BYTES, 500L);
+    // Applies to both OFFLINE and REALTIME table
+    properties.put(Server.CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_TABLE_MAX_SIZE_BYTES + ".table1", 300L);
+    // Table with type suffix takes precedence
+    properties.put(Server.CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_TABLE_MAX_SIZE_BYTES + ".table2", 400L);
+    properties.put(Server.CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_TABLE_MAX_SIZE_BYTES + ".table2_REALTIME", 200L);
+    // Capped by the cache max size
+    properties.put(Server.CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_TABLE_MAX_SIZE_BYTES + ".table3_OFFLINE", 2000L);
+    DecompressedChunkCache cache = DecompressedChunkCache.fromConfig(new PinotConfiguration(properties), null);
+    assertNotNull(cache);
+    assertEquals(cache.getTableMaxSizeBytes("table1_OFFLINE"), 300);
+    assertEquals(cache.getTableMaxSizeBytes("table1_REALTIME"), 300);
+    assertEquals(cache.getTableMaxSizeBytes("table2_OFFLINE"), 400);
+    assertEquals(cache.getTableMaxSizeBytes("table2_REALTIME"), 200);
+    assertEquals(cache.getTableMaxSizeBytes("table3_OFFLINE"), 1000);
+    assertEquals(cache.getTableMaxSizeBytes("table3_REALTIME"), 500);
+
+    // Quota is applied to the handles of the table with type suffix
+    DecompressedChunkCache.Handle handle = cache.newHandle("table2_REALTIME");
+    for (int i = 0; i < 3; i++) {
+      handle.put(i, createChunk(100, (byte) i));
+    }
+    assertEquals(cache.getTableSizeBytes("table2_REALTIME"), 200);
+
+    // Cache is disabled without max size
+    assertNull(DecompressedChunkCache.fromConfig(new PinotConfiguration(Collections.emptyMap()), null));
+  }
+
+  @Test
+  public void testConcurrentAccess()
+      throws Exception {
+    int numThreads = 4;
+    int numChunks = 50;
+    int chunkSize = 100;
+    // Only fits 10 chunks, so that chunks are evicted while being read by the other threads
+    DecompressedChunkCache cache = new DecompressedChunkCache(10 * chunkSize, 10 * chunkSize, Collections.emptyMap(),
+        null);
+    DecompressedChunkCache.Handle handle = cache.newHandle(TABLE_NAME);
+    ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<?>> futures = new ArrayList<>(numThreads);
+      for (int i = 0; i < numThreads; i++) {
+        futures.add(executorService.submit(() -> {
+          Random random = new Random();
+          ByteBuffer buffer = ByteBuffer.allocateDirect(chunkSize);
+          for (int j = 0; j < 10_000; j++) {
+            int chunkId = random.nextInt(numChunks);
+            if (handle.get(chunkId, buffer)) {
+              assertEquals(buffer.remaining(), chunkSize);
+              for (int k = 0; k < chunkSize; k++) {
+                assertEquals(buffer.get(k), (byte) chunkId);
+              }
+            } else {
+              handle.put(chunkId, createChunk(chunkSize, (byte) chunkId));
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executorService.shutdown();
+    }
+    assertTrue(cache.getSizeBytes() <= 10 * chunkSize);
+    assertEquals(cache.getTableSizeBytes(TABLE_NAME), cache.getSizeBytes());
+
+    handle.invalidate();
+    assertEquals(cache.getSizeBytes(), 0);
+    assertEquals(cache.getTableSizeBytes(TABLE_NAME), 0);
+  }
+
+  @Test
+  public void testForwardIndexReader()
+      throws Exception {
+    int numDocs = 10_000;
+    FileUtils.deleteQuietly(INDEX_FILE);
+    try (FixedByteChunkSVForwardIndexWriter writer = new FixedByteChunkSVForwardIndexWriter(INDEX_FILE,
+        ChunkCompressionType.LZ4, numDocs, 1000, Integer.BYTES, 3)) {
+      for (int i = 0; i < numDocs; i++) {
+        writer.putInt(i);
+      }
+    }
+
+    DecompressedChunkCache cache = new DecompressedChunkCache(1L << 20, 1L << 20, Collections.emptyMap(), null);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(INDEX_FILE);
+        FixedByteChunkSVForwardIndexReader reader = new FixedByteChunkSVForwardIndexReader(dataBuffer, DataType.INT)) {
+      reader.enableChunkCache(cache, TABLE_NAME);
+      // The second reader context should read all the chunks from the cache
+      for (int i = 0; i < 2; i++) {
+        try (ChunkReaderContext context = reader.createContext()) {
+          for (int docId = 0; docId < numDocs; docId++) {
+            assertEquals(reader.getInt(docId, context), docId);
+          }
+        }
+      }
+      assertEquals(cache.getSizeBytes(), numDocs * Integer.BYTES);
+      assertEquals(cache.getTableHitRatio(TABLE_NAME), 0.5);
+    }
+    // Closing the reader should invalidate the cached chunks
+    assertEquals(cache.getSizeBytes(), 0);
+    FileUtils.deleteQuietly(INDEX_FILE);
+  }
+
+  private static ByteBuffer createChunk(int size, byte value) {
+    ByteBuffer chunk = ByteBuffer.allocate(size);
+    for (int i = 0; i < size; i++) {
+      chunk.put(value);
+    }
+    chunk.flip();
+    return chunk;
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.pinot.segment.local.segment.index.readers.forward.ChunkReaderC
 import org.apache.pinot.segment.local.segment.index.readers.forward.FixedByteChunkSVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.FixedBytePower2ChunkSVForwardIndexReader;
 import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.index.reader.ChunkZoneMap;
 import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
 import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
 import org.apache.pinot.spi.data.FieldSpec.DataType;
@@ -253,6 +254,106 @@ public class FixedByteChunkSVForwardIndexTest {
     FileUtils.deleteQuietly(outFileEightByte);
   }
 
+  @DataProvider(name = "numericEncodings")
+  public static Object[][] numericEncodings() {
+    return Arrays.stream(ChunkCompressionType.values())
+        .filter(ChunkCompressionType::isNumericEncoding)
+        .flatMap(chunkCompressionType -> IntStream.of(2, 3, 4)
+            .mapToObj(version -> new Object[]{chunkCompressionType, version}))
+        .toArray(Object[][]::new);
+  }
+
+  @Test(dataProvider = "numericEncodings")
+  public void testReadValuesSVWithNumericEncoding(ChunkCompressionType compressionType, int version)
+      throws Exception {
+    long[] expected = new long[NUM_VALUES];
+    long timestamp = System.currentTimeMillis();
+    for (int i = 0; i < NUM_VALUES; i++) {
+      timestamp += RANDOM.nextInt(1000);
+      expected[i] = timestamp;
+    }
+
+    File outFile = new File(TEST_FILE);
+    FileUtils.deleteQuietly(outFile);
+    try (FixedByteChunkSVForwardIndexWriter writer = new FixedByteChunkSVForwardIndexWriter(outFile, compressionType,
+        NUM_VALUES, NUM_DOCS_PER_CHUNK, Long.BYTES, version)) {
+      for (long value : expected) {
+        writer.putLong(value);
+      }
+    }
+
+    try (ForwardIndexReader<ChunkReaderContext> reader = version >= 4
+        ? new FixedBytePower2ChunkSVForwardIndexReader(PinotDataBuffer.mapReadOnlyBigEndianFile(outFile), DataType.LONG)
+        : new FixedByteChunkSVForwardIndexReader(PinotDataBuffer.mapReadOnlyBigEndianFile(outFile), DataType.LONG);
+        ChunkReaderContext readerContext = reader.createContext()) {
+      // Contiguous and strided document ids across the chunks
+      for (int step : new int[]{1, 7}) {
+        int length = (NUM_VALUES + step - 1) / step;
+        int[] docIds = new int[length];
+        for (int i = 0; i < length; i++) {
+          docIds[i] = i * step;
+        }
+        long[] longValues = new long[length];
+        double[] doubleValues = new double[length];
+        reader.readValuesSV(docIds, length, longValues, readerContext);
+        reader.readValuesSV(docIds, length, doubleValues, readerContext);
+        for (int i = 0; i < length; i++) {
+          Assert.assertEquals(longValues[i], expected[docIds[i]]);
+          Assert.assertEquals(doubleValues[i], (double) expected[docIds[i]]);
+        }
+      }
+    }
+
+    FileUtils.deleteQuietly(outFile);
+  }
+
+  @Test(dataProvider = "combinations")
+  public void testZoneMap(ChunkCompressionType compressionType, int version)
+      throws Exception {
+    double[] expected = new double[NUM_VALUES];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      expected[i] = RANDOM.nextDouble();
+    }
+
+    File outFile = new File(TEST_FILE);
+    FileUtils.deleteQuietly(outFile);
+    try (FixedByteChunkSVForwardIndexWriter writer = new FixedByteChunkSVForwardIndexWriter(outFile, compressionType,
+        NUM_VALUES, NUM_DOCS_PER_CHUNK, Double.BYTES, version)) {
+      for (double value : expected) {
+        writer.putDouble(value);
+      }
+    }
+
+    try (ForwardIndexReader<ChunkReaderContext> reader = version >= 4
+        ? new FixedBytePower2ChunkSVForwardIndexReader(PinotDataBuffer.mapReadOnlyBigEndianFile(outFile),
+        DataType.DOUBLE)
+        : new FixedByteChunkSVForwardIndexReader(PinotDataBuffer.mapReadOnlyBigEndianFile(outFile), DataType.DOUBLE);
+        ChunkReaderContext readerContext = reader.createContext()) {
+      ChunkZoneMap zoneMap = reader.getChunkZoneMap();
+      Assert.assertNotNull(zoneMap);
+      int numDocsPerChunk = zoneMap.getNumDocsPerChunk();
+      Assert.assertEquals(zoneMap.getNumChunks(), (NUM_VALUES + numDocsPerChunk - 1) / numDocsPerChunk);
+      for (int chunkId = 0; chunkId < zoneMap.getNumChunks(); chunkId++) {
+        int startDocId = chunkId * numDocsPerChunk;
+        int endDocId = Math.min(startDocId + numDocsPerChunk, NUM_VALUES);
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = startDocId; i < endDocId; i++) {
+          min = Math.min(min, expected[i]);
+          max = Math.max(max, expected[i]);
+        }
+        Assert.assertEquals(zoneMap.getMinDouble(chunkId), min);
+        Assert.assertEquals(zoneMap.getMaxDouble(chunkId), max);
+      }
+      // Zone map should not affect reading the values
+      for (int i = 0; i < NUM_VALUES; i++) {
+        Assert.assertEquals(reader.getDouble(i, readerContext), expected[i]);
+      }
+    }
+
+    FileUtils.deleteQuietly(outFile);
+  }
+
   /**
    * This test ensures that the reader can read in an data file from version 1.
    */
@@ -283,6 +384,7 @@ public class FixedByteChunkSVForwardIndexTest {
     try (FixedByteChunkSVForwardIndexReader reader = new FixedByteChunkSVForwardIndexReader(
         PinotDataBuffer.mapReadOnlyBigEndianFile(file), DataType.DOUBLE);
         ChunkReaderContext readerContext = reader.createContext()) {
+      Assert.assertNull(reader.getChunkZoneMap());
       for (int i = 0; i < numDocs; i++) {
         double actual = reader.getDouble(i, readerContext);
         Assert.assertEquals(actual, i + startValue);
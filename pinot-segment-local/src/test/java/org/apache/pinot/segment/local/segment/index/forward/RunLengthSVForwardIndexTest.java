@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.forward;
+
+import java.io.File;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.io.util.PinotDataBitSet;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueRunLengthForwardIndexCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueUnsortedForwardIndexCreator;
+import org.apache.pinot.segment.local.segment.index.readers.forward.FixedBitSVForwardIndexReaderV2;
+import org.apache.pinot.segment.local.segment.index.readers.forward.RunLengthSVForwardIndexReader;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+public class RunLengthSVForwardIndexTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "RunLengthSVForwardIndexTest");
+  private static final String COLUMN_NAME = "testColumn";
+  private static final int NUM_DOCS = 10_000;
+  private static final int CARDINALITY = 50;
+  private static final Random RANDOM = new Random();
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.forceMkdir(TEMP_DIR);
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  @Test
+  public void testReadWrite()
+      throws Exception {
+    // Generate clustered values with runs of random length
+    int[] dictIds = new int[NUM_DOCS];
+    int numRuns = 0;
+    int docId = 0;
+    while (docId < NUM_DOCS) {
+      int dictId = RANDOM.nextInt(CARDINALITY);
+      int runLength = Math.min(1 + RANDOM.nextInt(200), NUM_DOCS - docId);
+      if (numRuns == 0 || dictIds[docId - 1] != dictId) {
+        numRuns++;
+      }
+      for (int i = 0; i < runLength; i++) {
+        dictIds[docId++] = dictId;
+      }
+    }
+
+    File indexFile = new File(TEMP_DIR, COLUMN_NAME + V1Constants.Indexes.UNSORTED_SV_FORWARD_INDEX_FILE_EXTENSION);
+    try (SingleValueRunLengthForwardIndexCreator creator = new SingleValueRunLengthForwardIndexCreator(TEMP_DIR,
+        COLUMN_NAME, CARDINALITY, NUM_DOCS)) {
+      for (int dictId : dictIds) {
+        creator.putDictId(dictId);
+      }
+    }
+
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.loadBigEndianFile(indexFile)) {
+      Assert.assertTrue(RunLengthSVForwardIndexReader.isRunLengthEncoded(dataBuffer, NUM_DOCS));
+      Assert.assertFalse(RunLengthSVForwardIndexReader.isRunLengthEncoded(dataBuffer, NUM_DOCS + 1));
+      try (RunLengthSVForwardIndexReader reader = new RunLengthSVForwardIndexReader(dataBuffer);
+          RunLengthSVForwardIndexReader.Context context = reader.createContext()) {
+        Assert.assertEquals(reader.getNumDocs(), NUM_DOCS);
+        Assert.assertEquals(reader.getNumRuns(), numRuns);
+
+        // Sequential reads
+        for (int i = 0; i < NUM_DOCS; i++) {
+          Assert.assertEquals(reader.getDictId(i, context), dictIds[i]);
+        }
+
+        // Batch reads with gaps
+        int[] docIds = new int[100];
+        int[] values = new int[100];
+        int startDocId = 0;
+        while (startDocId < NUM_DOCS) {
+          int length = 0;
+          for (int i = startDocId; i < NUM_DOCS && length < docIds.length; i += 1 + RANDOM.nextInt(5)) {
+            docIds[length++] = i;
+          }
+          reader.readDictIds(docIds, length, values, context);
+          for (int i = 0; i < length; i++) {
+            Assert.assertEquals(values[i], dictIds[docIds[i]]);
+          }
+          startDocId = docIds[length - 1] + 1;
+        }
+      }
+
+      // Random reads with a fresh context
+      try (RunLengthSVForwardIndexReader reader = new RunLengthSVForwardIndexReader(dataBuffer);
+          RunLengthSVForwardIndexReader.Context context = reader.createContext()) {
+        for (int i = 0; i < 1000; i++) {
+          int randomDocId = RANDOM.nextInt(NUM_DOCS);
+          Assert.assertEquals(reader.getDictId(randomDocId, context), dictIds[randomDocId]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testNotRunLengthEncoded()
+      throws Exception {
+    File indexDir = new File(TEMP_DIR, "bitPacked");
+    FileUtils.forceMkdir(indexDir);
+    try (SingleValueUnsortedForwardIndexCreator creator = new SingleValueUnsortedForwardIndexCreator(indexDir,
+        COLUMN_NAME, CARDINALITY, NUM_DOCS)) {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        creator.putDictId(RANDOM.nextInt(CARDINALITY));
+      }
+    }
+    File indexFile = new File(indexDir, COLUMN_NAME + V1Constants.Indexes.UNSORTED_SV_FORWARD_INDEX_FILE_EXTENSION);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.loadBigEndianFile(indexFile)) {
+      Assert.assertFalse(RunLengthSVForwardIndexReader.isRunLengthEncoded(dataBuffer, NUM_DOCS));
+    }
+  }
+
+  @Test
+  public void testFallBackToBitPacked()
+      throws Exception {
+    // Unclustered values where every doc starts a new run, so run-length encoding is larger than bit-packing
+    int[] dictIds = new int[NUM_DOCS];
+    for (int i = 0; i < NUM_DOCS; i++) {
+      dictIds[i] = i % CARDINALITY;
+    }
+
+    File indexDir = new File(TEMP_DIR, "fallBack");
+    FileUtils.forceMkdir(indexDir);
+    try (SingleValueRunLengthForwardIndexCreator creator = new SingleValueRunLengthForwardIndexCreator(indexDir,
+        COLUMN_NAME, CARDINALITY, NUM_DOCS)) {
+      for (int dictId : dictIds) {
+        creator.putDictId(dictId);
+      }
+    }
+
+    File indexFile = new File(indexDir, COLUMN_NAME + V1Constants.Indexes.UNSORTED_SV_FORWARD_INDEX_FILE_EXTENSION);
+    int numBitsPerValue = PinotDataBitSet.getNumBitsPerValue(CARDINALITY - 1);
+    Assert.assertEquals(indexFile.length(), ((long) NUM_DOCS * numBitsPerValue + Byte.SIZE - 1) / Byte.SIZE);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.loadBigEndianFile(indexFile)) {
+      Assert.assertFalse(RunLengthSVForwardIndexReader.isRunLengthEncoded(dataBuffer, NUM_DOCS));
+      try (FixedBitSVForwardIndexReaderV2 reader = new FixedBitSVForwardIndexReaderV2(dataBuffer, NUM_DOCS,
+          numBitsPerValue)) {
+        for (int i = 0; i < NUM_DOCS; i++) {
+          Assert.assertEquals(reader.getDictId(i, null), dictIds[i]);
+        }
+      }
+    }
+  }
+}
@@ -50,6 +50,7 @@ import static org.testng.Assert.assertEquals;
 
 public class ImmutableDictionaryTest {
   private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "ImmutableDictionaryTest");
+  private static final File FRONT_CODED_DIR = new File(TEMP_DIR, "frontCoded");
   private static final Random RANDOM = new Random();
   private static final String INT_COLUMN_NAME = "intColumn";
   private static final String LONG_COLUMN_NAME = "longColumn";
@@ -171,6 +172,17 @@ public class ImmutableDictionaryTest {
       dictionaryCreator.build(_bytesValues);
       assertEquals(dictionaryCreator.getNumBytesPerEntry(), BYTES_LENGTH);
     }
+
+    FileUtils.forceMkdir(FRONT_CODED_DIR);
+    try (SegmentDictionaryCreator dictionaryCreator = new SegmentDictionaryCreator(
+        new DimensionFieldSpec(STRING_COLUMN_NAME, DataType.STRING, true), FRONT_CODED_DIR, false, true)) {
+      dictionaryCreator.build(_stringValues);
+    }
+
+    try (SegmentDictionaryCreator dictionaryCreator = new SegmentDictionaryCreator(
+        new DimensionFieldSpec(BYTES_COLUMN_NAME, DataType.BYTES, true), FRONT_CODED_DIR, false, true)) {
+      dictionaryCreator.build(_bytesValues);
+    }
   }
 
   @Test
@@ -377,6 +389,27 @@ public class ImmutableDictionaryTest {
     }
   }
 
+  @Test
+  public void testFrontCodedStringDictionary()
+      throws Exception {
+    try (StringDictionary stringDictionary = new StringDictionary(PinotDataBuffer.mapReadOnlyBigEndianFile(
+        new File(FRONT_CODED_DIR, STRING_COLUMN_NAME + V1Constants.Dict.FILE_EXTENSION)), NUM_VALUES,
+        _numBytesPerStringValue)) {
+      testStringDictionary(stringDictionary);
+    }
+  }
+
+  @Test
+  public void testOnHeapFrontCodedStringDictionary()
+      throws Exception {
+    try (OnHeapStringDictionary onHeapStringDictionary = new OnHeapStringDictionary(
+        PinotDataBuffer.mapReadOnlyBigEndianFile(
+            new File(FRONT_CODED_DIR, STRING_COLUMN_NAME + V1Constants.Dict.FILE_EXTENSION)), NUM_VALUES,
+        _numBytesPerStringValue)) {
+      testStringDictionary(onHeapStringDictionary);
+    }
+  }
+
   private void testStringDictionary(BaseImmutableDictionary stringDictionary) {
     for (int i = 0; i < NUM_VALUES; i++) {
       assertEquals(stringDictionary.get(i), _stringValues[i]);
@@ -409,6 +442,15 @@ public class ImmutableDictionaryTest {
     }
   }
 
+  @Test
+  public void testFrontCodedBytesDictionary()
+      throws Exception {
+    try (BytesDictionary bytesDictionary = new BytesDictionary(PinotDataBuffer.mapReadOnlyBigEndianFile(
+        new File(FRONT_CODED_DIR, BYTES_COLUMN_NAME + V1Constants.Dict.FILE_EXTENSION)), NUM_VALUES, BYTES_LENGTH)) {
+      testBytesDictionary(bytesDictionary);
+    }
+  }
+
   private void testBytesDictionary(BaseImmutableDictionary bytesDictionary) {
     for (int i = 0; i < NUM_VALUES; i++) {
       assertEquals(bytesDictionary.get(i), _bytesValues[i].getBytes());
@@ -30,6 +30,7 @@ import org.apache.pinot.segment.spi.AggregationFunctionType;
 import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
 import org.apache.pinot.spi.config.table.ColumnPartitionConfig;
 import org.apache.pinot.spi.config.table.DedupConfig;
+import org.apache.pinot.spi.config.table.ExpressionIndexConfig;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.config.table.HashFunction;
 import org.apache.pinot.spi.config.table.ReplicaGroupStrategyConfig;
@@ -1320,6 +1321,46 @@ public class TableConfigUtilsTest {
     }
   }
 
+  @Test
+  public void testValidateExpressionIndexConfig() {
+    Schema schema =
+        new Schema.SchemaBuilder().setSchemaName(TABLE_NAME).addSingleValueDimension("myCol", FieldSpec.DataType.STRING)
+            .build();
+    TableConfig tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName(TABLE_NAME).build();
+
+    tableConfig.getIndexingConfig().setExpressionIndexConfigs(Arrays.asList(
+        new ExpressionIndexConfig("lowerCol", "lower(myCol)", FieldSpec.DataType.STRING, true, false),
+        new ExpressionIndexConfig("colLength", "length(myCol)", FieldSpec.DataType.INT, false, true)));
+    TableConfigUtils.validate(tableConfig, schema);
+
+    tableConfig.getIndexingConfig().setExpressionIndexConfigs(Collections.singletonList(
+        new ExpressionIndexConfig("lowerCol", "lower(myCol)", FieldSpec.DataType.INT, true, false)));
+    try {
+      TableConfigUtils.validate(tableConfig, schema);
+      Assert.fail("Should fail for EXPRESSION index data type not matching the function result type");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+
+    tableConfig.getIndexingConfig().setExpressionIndexConfigs(Collections.singletonList(
+        new ExpressionIndexConfig("col", "myCol", FieldSpec.DataType.LONG, false, false)));
+    try {
+      TableConfigUtils.validate(tableConfig, schema);
+      Assert.fail("Should fail for EXPRESSION index data type not matching the column data type");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+
+    tableConfig.getIndexingConfig().setExpressionIndexConfigs(Collections.singletonList(
+        new ExpressionIndexConfig("splitCol", "split(myCol, ',')", FieldSpec.DataType.STRING, false, false)));
+    try {
+      TableConfigUtils.validate(tableConfig, schema);
+      Assert.fail("Should fail for multi-valued EXPRESSION index");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
   @Test
   public void testValidateRetentionConfig() {
     Schema schema =
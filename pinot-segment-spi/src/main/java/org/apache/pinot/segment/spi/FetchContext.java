@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.pinot.segment.spi.index.IndexType;
 
 
@@ -33,6 +34,9 @@ public class FetchContext {
   private final UUID _fetchId;
   private final String _segmentName;
   private final Map<String, List<IndexType<?, ?, ?>>> _columnToIndexList;
+  // Prefetch stats, updated by the segment directory (possibly from the prefetch threads)
+  private final AtomicLong _numPrefetchedBytes = new AtomicLong();
+  private final AtomicLong _prefetchTimeNs = new AtomicLong();
 
   /**
    * Create a new FetchRequest for this segment, to fetch all buffers of the given columns
@@ -87,4 +91,20 @@ public class FetchContext {
   public boolean isEmpty() {
     return _columnToIndexList.isEmpty();
   }
+
+  /**
+   * Records the bytes read ahead by the segment directory for this fetch and the time spent reading them.
+   */
+  public void addPrefetchStats(long numPrefetchedBytes, long prefetchTimeNs) {
+    _numPrefetchedBytes.addAndGet(numPrefetchedBytes);
+    _prefetchTimeNs.addAndGet(prefetchTimeNs);
+  }
+
+  public long getNumPrefetchedBytes() {
+    return _numPrefetchedBytes.get();
+  }
+
+  public long getPrefetchTimeNs() {
+    return _prefetchTimeNs.get();
+  }
 }
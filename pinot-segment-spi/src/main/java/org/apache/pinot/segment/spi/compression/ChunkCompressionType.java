@@ -19,7 +19,10 @@
 package org.apache.pinot.segment.spi.compression;
 
 public enum ChunkCompressionType {
-  PASS_THROUGH(0), SNAPPY(1), ZSTANDARD(2), LZ4(3), LZ4_LENGTH_PREFIXED(4);
+  PASS_THROUGH(0), SNAPPY(1), ZSTANDARD(2), LZ4(3), LZ4_LENGTH_PREFIXED(4),
+  // Type-aware encodings for fixed width numeric values: frame-of-reference bit-packing, delta, delta-of-delta and
+  // Gorilla-style XOR
+  FOR(5), DELTA(6), DELTADELTA(7), XOR(8);
 
   private static final ChunkCompressionType[] VALUES = values();
 
@@ -33,6 +36,14 @@ public enum ChunkCompressionType {
     return _value;
   }
 
+  /**
+   * Returns {@code true} if this is a type-aware encoding which only applies to single-value fixed width numeric values
+   * (INT, LONG, FLOAT, DOUBLE), {@code false} otherwise.
+   */
+  public boolean isNumericEncoding() {
+    return this == FOR || this == DELTA || this == DELTADELTA || this == XOR;
+  }
+
   public static ChunkCompressionType valueOf(int ordinal) {
     if (ordinal < 0 || ordinal >= VALUES.length) {
       throw new IllegalArgumentException("invalid ordinal " + ordinal);
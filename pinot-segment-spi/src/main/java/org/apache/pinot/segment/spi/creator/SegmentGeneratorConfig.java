@@ -63,6 +63,7 @@ import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.data.readers.FileFormat;
 import org.apache.pinot.spi.data.readers.RecordReaderConfig;
 import org.apache.pinot.spi.ingestion.batch.BatchConfigProperties;
+import org.apache.pinot.spi.utils.ExpressionIndexUtils;
 import org.apache.pinot.spi.utils.IngestionConfigUtils;
 import org.apache.pinot.spi.utils.TimestampIndexUtils;
 import org.apache.pinot.spi.utils.builder.TableNameBuilder;
@@ -144,6 +145,7 @@ public class SegmentGeneratorConfig implements Serializable {
     Preconditions.checkNotNull(tableConfig);
     Preconditions.checkNotNull(schema);
     TimestampIndexUtils.applyTimestampIndex(tableConfig, schema);
+    ExpressionIndexUtils.applyExpressionIndex(tableConfig, schema);
     _tableConfig = tableConfig;
     _schema = schema;
     setTableName(tableConfig.getTableName());
@@ -33,17 +33,24 @@ public class DictionaryIndexConfig extends IndexConfig {
 
   private final boolean _onHeap;
   private final boolean _useVarLengthDictionary;
+  private final boolean _useFrontCodedDictionary;
 
   public DictionaryIndexConfig(Boolean onHeap, @Nullable Boolean useVarLengthDictionary) {
     this(false, onHeap, useVarLengthDictionary);
   }
 
+  public DictionaryIndexConfig(Boolean disabled, Boolean onHeap, @Nullable Boolean useVarLengthDictionary) {
+    this(disabled, onHeap, useVarLengthDictionary, null);
+  }
+
   @JsonCreator
   public DictionaryIndexConfig(@JsonProperty("disabled") Boolean disabled, @JsonProperty("onHeap") Boolean onHeap,
-      @JsonProperty("useVarLengthDictionary") @Nullable Boolean useVarLengthDictionary) {
+      @JsonProperty("useVarLengthDictionary") @Nullable Boolean useVarLengthDictionary,
+      @JsonProperty("useFrontCodedDictionary") @Nullable Boolean useFrontCodedDictionary) {
     super(disabled);
     _onHeap = onHeap != null && onHeap;
     _useVarLengthDictionary = Boolean.TRUE.equals(useVarLengthDictionary);
+    _useFrontCodedDictionary = Boolean.TRUE.equals(useFrontCodedDictionary);
   }
 
   public static DictionaryIndexConfig disabled() {
@@ -58,6 +65,14 @@ public class DictionaryIndexConfig extends IndexConfig {
     return _useVarLengthDictionary;
   }
 
+  /**
+   * Returns whether to store STRING, BYTES and BIG_DECIMAL dictionaries with blocked front coding, which shares the
+   * common prefixes between adjacent sorted values. Takes precedence over {@link #getUseVarLengthDictionary()}.
+   */
+  public boolean getUseFrontCodedDictionary() {
+    return _useFrontCodedDictionary;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -67,19 +82,20 @@ public class DictionaryIndexConfig extends IndexConfig {
       return false;
     }
     DictionaryIndexConfig that = (DictionaryIndexConfig) o;
-    return _onHeap == that._onHeap && _useVarLengthDictionary == that._useVarLengthDictionary;
+    return _onHeap == that._onHeap && _useVarLengthDictionary == that._useVarLengthDictionary
+        && _useFrontCodedDictionary == that._useFrontCodedDictionary;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(_onHeap, _useVarLengthDictionary);
+    return Objects.hash(_onHeap, _useVarLengthDictionary, _useFrontCodedDictionary);
   }
 
   @Override
   public String toString() {
     if (isEnabled()) {
       return "DictionaryIndexConfig{" + "\"onHeap\":" + _onHeap + ", \"useVarLengthDictionary\":"
-          + _useVarLengthDictionary + "}";
+          + _useVarLengthDictionary + ", \"useFrontCodedDictionary\":" + _useFrontCodedDictionary + "}";
     } else {
       return "DictionaryIndexConfig{" + "\"disabled\": true}";
     }
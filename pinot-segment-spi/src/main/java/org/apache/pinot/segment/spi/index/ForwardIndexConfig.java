@@ -33,23 +33,32 @@ import org.apache.pinot.spi.utils.JsonUtils;
 
 public class ForwardIndexConfig extends IndexConfig {
   public static final int DEFAULT_RAW_WRITER_VERSION = 2;
-  public static final ForwardIndexConfig DISABLED = new ForwardIndexConfig(true, null, null, null);
+  public static final ForwardIndexConfig DISABLED = new ForwardIndexConfig(true, null, null, null, null);
   public static final ForwardIndexConfig DEFAULT = new Builder().build();
 
   @Nullable
   private final ChunkCompressionType _chunkCompressionType;
   private final boolean _deriveNumDocsPerChunk;
   private final int _rawIndexWriterVersion;
+  // Only applies to dictionary-encoded unsorted single-value columns
+  private final boolean _runLengthEncoded;
+
+  public ForwardIndexConfig(@Nullable Boolean disabled, @Nullable ChunkCompressionType chunkCompressionType,
+      Boolean deriveNumDocsPerChunk, Integer rawIndexWriterVersion) {
+    this(disabled, chunkCompressionType, deriveNumDocsPerChunk, rawIndexWriterVersion, null);
+  }
 
   @JsonCreator
   public ForwardIndexConfig(@Nullable @JsonProperty("disabled") Boolean disabled,
       @Nullable @JsonProperty("chunkCompressionType") ChunkCompressionType chunkCompressionType,
       @JsonProperty("deriveNumDocsPerChunk") Boolean deriveNumDocsPerChunk,
-      @JsonProperty("rawIndexWriterVersion") Integer rawIndexWriterVersion) {
+      @JsonProperty("rawIndexWriterVersion") Integer rawIndexWriterVersion,
+      @JsonProperty("runLengthEncoded") Boolean runLengthEncoded) {
     super(disabled);
     _chunkCompressionType = chunkCompressionType;
     _deriveNumDocsPerChunk = deriveNumDocsPerChunk != null && deriveNumDocsPerChunk;
     _rawIndexWriterVersion = rawIndexWriterVersion == null ? DEFAULT_RAW_WRITER_VERSION : rawIndexWriterVersion;
+    _runLengthEncoded = runLengthEncoded != null && runLengthEncoded;
   }
 
   @Nullable
@@ -65,6 +74,10 @@ public class ForwardIndexConfig extends IndexConfig {
     return _rawIndexWriterVersion;
   }
 
+  public boolean isRunLengthEncoded() {
+    return _runLengthEncoded;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -78,12 +91,14 @@ public class ForwardIndexConfig extends IndexConfig {
     }
     ForwardIndexConfig that = (ForwardIndexConfig) o;
     return _deriveNumDocsPerChunk == that._deriveNumDocsPerChunk
-        && _rawIndexWriterVersion == that._rawIndexWriterVersion && _chunkCompressionType == that._chunkCompressionType;
+        && _rawIndexWriterVersion == that._rawIndexWriterVersion && _chunkCompressionType == that._chunkCompressionType
+        && _runLengthEncoded == that._runLengthEncoded;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), _chunkCompressionType, _deriveNumDocsPerChunk, _rawIndexWriterVersion);
+    return Objects.hash(super.hashCode(), _chunkCompressionType, _deriveNumDocsPerChunk, _rawIndexWriterVersion,
+        _runLengthEncoded);
   }
 
   public static class Builder {
@@ -91,6 +106,7 @@ public class ForwardIndexConfig extends IndexConfig {
     private ChunkCompressionType _chunkCompressionType;
     private boolean _deriveNumDocsPerChunk = false;
     private int _rawIndexWriterVersion = DEFAULT_RAW_WRITER_VERSION;
+    private boolean _runLengthEncoded = false;
 
     public Builder() {
     }
@@ -99,6 +115,7 @@ public class ForwardIndexConfig extends IndexConfig {
       _chunkCompressionType = other.getChunkCompressionType();
       _deriveNumDocsPerChunk = other._deriveNumDocsPerChunk;
       _rawIndexWriterVersion = other._rawIndexWriterVersion;
+      _runLengthEncoded = other._runLengthEncoded;
     }
 
     public Builder withCompressionType(ChunkCompressionType chunkCompressionType) {
@@ -116,6 +133,11 @@ public class ForwardIndexConfig extends IndexConfig {
       return this;
     }
 
+    public Builder withRunLengthEncoded(boolean runLengthEncoded) {
+      _runLengthEncoded = runLengthEncoded;
+      return this;
+    }
+
     public Builder withLegacyProperties(Map<String, Map<String, String>> propertiesByCol, String colName) {
       if (propertiesByCol != null) {
         Map<String, String> colProps = propertiesByCol.get(colName);
@@ -139,7 +161,8 @@ public class ForwardIndexConfig extends IndexConfig {
     }
 
     public ForwardIndexConfig build() {
-      return new ForwardIndexConfig(false, _chunkCompressionType, _deriveNumDocsPerChunk, _rawIndexWriterVersion);
+      return new ForwardIndexConfig(false, _chunkCompressionType, _deriveNumDocsPerChunk, _rawIndexWriterVersion,
+          _runLengthEncoded);
     }
   }
 
@@ -150,7 +173,8 @@ public class ForwardIndexConfig extends IndexConfig {
     } catch (IOException ex) {
       return "{" + "\"chunkCompressionType\":" + _chunkCompressionType
           + ", \"deriveNumDocsPerChunk\":" + _deriveNumDocsPerChunk
-          + ", \"rawIndexWriterVersion\":" + _rawIndexWriterVersion + '}';
+          + ", \"rawIndexWriterVersion\":" + _rawIndexWriterVersion
+          + ", \"runLengthEncoded\":" + _runLengthEncoded + '}';
     }
   }
 }
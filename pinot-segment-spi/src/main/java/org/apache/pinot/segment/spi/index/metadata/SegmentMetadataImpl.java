@@ -58,6 +58,7 @@ import org.apache.pinot.segment.spi.store.SegmentDirectoryPaths;
 import org.apache.pinot.segment.spi.utils.SegmentMetadataUtils;
 import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.env.CommonsConfigurationUtils;
+import org.apache.pinot.spi.utils.ExpressionIndexUtils;
 import org.apache.pinot.spi.utils.JsonUtils;
 import org.apache.pinot.spi.utils.TimeUtils;
 import org.apache.pinot.spi.utils.TimestampIndexUtils;
@@ -291,8 +292,10 @@ public class SegmentMetadataImpl implements SegmentMetadata {
     for (Object o : src) {
       String column = o.toString();
       if (!column.isEmpty() && !dest.contains(column)) {
-        // Skip virtual columns starting with '$', but keep time column with granularity as physical column
-        if (column.charAt(0) == '$' && !TimestampIndexUtils.isValidColumnWithGranularity(column)) {
+        // Skip virtual columns starting with '$', but keep time column with granularity and materialized expression
+        // column as physical column
+        if (column.charAt(0) == '$' && !TimestampIndexUtils.isValidColumnWithGranularity(column)
+            && !ExpressionIndexUtils.isMaterializedColumn(column)) {
           continue;
         }
         dest.add(column);
@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.spi.index.reader;
+
+/**
+ * Min/max values of each chunk of a chunk-based raw forward index (a.k.a. zone map), which can be used to skip the
+ * chunks that cannot match a predicate without reading them.
+ * <p>The min/max values are stored as long for INT/LONG stored types, and as double for FLOAT/DOUBLE stored types.
+ */
+public interface ChunkZoneMap {
+
+  /**
+   * Returns the number of documents per chunk. All chunks except the last one contain exactly this number of documents.
+   */
+  int getNumDocsPerChunk();
+
+  /**
+   * Returns the number of chunks.
+   */
+  int getNumChunks();
+
+  /**
+   * Returns the min value of the given chunk for INT/LONG stored types.
+   */
+  long getMinLong(int chunkId);
+
+  /**
+   * Returns the max value of the given chunk for INT/LONG stored types.
+   */
+  long getMaxLong(int chunkId);
+
+  /**
+   * Returns the min value of the given chunk for FLOAT/DOUBLE stored types.
+   */
+  double getMinDouble(int chunkId);
+
+  /**
+   * Returns the max value of the given chunk for FLOAT/DOUBLE stored types.
+   */
+  double getMaxDouble(int chunkId);
+}
@@ -68,6 +68,15 @@ public interface ForwardIndexReader<T extends ForwardIndexReaderContext> extends
     return -1;
   }
 
+  /**
+   * Returns the min/max values of each chunk if recorded in the forward index, {@code null} otherwise. Only available
+   * for single-value RAW forward index columns of fixed width numeric values.
+   */
+  @Nullable
+  default ChunkZoneMap getChunkZoneMap() {
+    return null;
+  }
+
   /**
    * Creates a new {@link ForwardIndexReaderContext} of the reader which can be used to accelerate the reads.
    * NOTE: Caller is responsible for closing the returned reader context.
@@ -43,4 +43,13 @@ public interface StarTreeV2 extends Closeable {
    * {@link AggregationFunctionColumnPair#toColumnName()}.
    */
   DataSource getDataSource(String columnName);
+
+  /**
+   * Returns the number of segment documents (starting from the first one) aggregated into the star-tree, or {@code -1}
+   * if the star-tree covers all the documents of the segment. Only the star-trees maintained on consuming segments
+   * cover part of the documents, where the documents ingested after the star-tree is constructed should be scanned.
+   */
+  default int getNumSegmentDocsCovered() {
+    return -1;
+  }
 }
@@ -84,4 +84,17 @@ public class DictionaryIndexConfigTest {
     assertTrue(config.isOnHeap(), "Unexpected onHeap");
     assertTrue(config.getUseVarLengthDictionary(), "Unexpected useVarLengthDictionary");
   }
+
+  @Test
+  public void withFrontCoding()
+      throws JsonProcessingException {
+    String confStr = "{\"useFrontCodedDictionary\": true}";
+    DictionaryIndexConfig config = JsonUtils.stringToObject(confStr, DictionaryIndexConfig.class);
+
+    assertFalse(config.isDisabled(), "Unexpected disabled");
+    assertFalse(config.getUseVarLengthDictionary(), "Unexpected useVarLengthDictionary");
+    assertTrue(config.getUseFrontCodedDictionary(), "Unexpected useFrontCodedDictionary");
+    assertEquals(JsonUtils.stringToObject(JsonUtils.objectToString(config), DictionaryIndexConfig.class), config,
+        "Unexpected round trip");
+  }
 }
@@ -95,4 +95,16 @@ public class ForwardIndexConfigTest {
     assertTrue(config.isDeriveNumDocsPerChunk(), "Unexpected deriveNumDocsPerChunk");
     assertEquals(config.getRawIndexWriterVersion(), 10, "Unexpected rawIndexWriterVersion");
   }
+
+  @Test
+  public void withRunLengthEncoded()
+      throws JsonProcessingException {
+    String confStr = "{\"runLengthEncoded\": true}";
+    ForwardIndexConfig config = JsonUtils.stringToObject(confStr, ForwardIndexConfig.class);
+
+    assertFalse(config.isDisabled(), "Unexpected disabled");
+    assertTrue(config.isRunLengthEncoded(), "Unexpected runLengthEncoded");
+    assertEquals(new ForwardIndexConfig.Builder(config).build(), config, "Unexpected copy");
+    assertFalse(ForwardIndexConfig.DEFAULT.isRunLengthEncoded(), "Unexpected default runLengthEncoded");
+  }
 }
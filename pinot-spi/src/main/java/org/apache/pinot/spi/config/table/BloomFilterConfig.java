@@ -22,6 +22,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Preconditions;
 import java.util.Objects;
+import javax.annotation.Nullable;
 
 
 public class BloomFilterConfig extends IndexConfig {
@@ -33,15 +34,20 @@ public class BloomFilterConfig extends IndexConfig {
   private final double _fpp;
   private final int _maxSizeInBytes;
   private final boolean _loadOnHeap;
+  private final Format _format;
 
   public BloomFilterConfig(double fpp, int maxSizeInBytes, boolean loadOnHeap) {
     this(false, fpp, maxSizeInBytes, loadOnHeap);
   }
 
+  public BloomFilterConfig(Boolean disabled, double fpp, int maxSizeInBytes, boolean loadOnHeap) {
+    this(disabled, fpp, maxSizeInBytes, loadOnHeap, null);
+  }
+
   @JsonCreator
   public BloomFilterConfig(@JsonProperty("disabled") Boolean disabled, @JsonProperty(value = "fpp") double fpp,
       @JsonProperty(value = "maxSizeInBytes") int maxSizeInBytes,
-      @JsonProperty(value = "loadOnHeap") boolean loadOnHeap) {
+      @JsonProperty(value = "loadOnHeap") boolean loadOnHeap, @JsonProperty(value = "format") @Nullable Format format) {
     super(disabled);
     if (fpp != 0.0) {
       Preconditions.checkArgument(fpp > 0.0 && fpp < 1.0, "Invalid fpp (false positive probability): %s", fpp);
@@ -51,6 +57,7 @@ public class BloomFilterConfig extends IndexConfig {
     }
     _maxSizeInBytes = maxSizeInBytes;
     _loadOnHeap = loadOnHeap;
+    _format = format != null ? format : Format.GUAVA;
   }
 
   public double getFpp() {
@@ -65,6 +72,10 @@ public class BloomFilterConfig extends IndexConfig {
     return _loadOnHeap;
   }
 
+  public Format getFormat() {
+    return _format;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -78,11 +89,25 @@ public class BloomFilterConfig extends IndexConfig {
     }
     BloomFilterConfig that = (BloomFilterConfig) o;
     return Double.compare(that._fpp, _fpp) == 0 && _maxSizeInBytes == that._maxSizeInBytes
-        && _loadOnHeap == that._loadOnHeap && isEnabled() == that.isEnabled();
+        && _loadOnHeap == that._loadOnHeap && _format == that._format && isEnabled() == that.isEnabled();
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), _fpp, _maxSizeInBytes, _loadOnHeap, isEnabled());
+    return Objects.hash(super.hashCode(), _fpp, _maxSizeInBytes, _loadOnHeap, _format, isEnabled());
+  }
+
+  /**
+   * The on-disk format of the bloom filter.
+   * <ul>
+   *   <li>GUAVA: Classic bloom filter aligned with the guava layout, where each hash function probes a random bit</li>
+   *   <li>
+   *     SPLIT_BLOCK: Split-block bloom filter, where all the bits of a value are set within a single 256-bit block, so
+   *     each lookup touches one cache line at the cost of a slightly higher false positive rate for the same size
+   *   </li>
+   * </ul>
+   */
+  public enum Format {
+    GUAVA, SPLIT_BLOCK
   }
 }
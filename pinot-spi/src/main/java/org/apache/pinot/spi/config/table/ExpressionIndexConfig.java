@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.spi.config.table;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.pinot.spi.config.BaseJsonConfig;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+
+
+/**
+ * Config for the EXPRESSION index, which materializes a transform expression (e.g. {@code lower(name)}) into a
+ * dictionary-encoded column at segment build time. Queries referencing the same expression are rewritten to read the
+ * materialized column on the segments that contain it.
+ */
+public class ExpressionIndexConfig extends BaseJsonConfig {
+  // Name of the index, used to derive the materialized column name
+  private final String _name;
+  // Transform expression to be materialized, e.g. jsonExtractScalar(payload, '$.type', 'STRING')
+  private final String _expression;
+  // Stored type of the materialized column
+  private final DataType _dataType;
+  private final boolean _invertedIndex;
+  private final boolean _rangeIndex;
+
+  @JsonCreator
+  public ExpressionIndexConfig(@JsonProperty(value = "name", required = true) String name,
+      @JsonProperty(value = "expression", required = true) String expression,
+      @JsonProperty(value = "dataType", required = true) DataType dataType,
+      @JsonProperty("invertedIndex") boolean invertedIndex, @JsonProperty("rangeIndex") boolean rangeIndex) {
+    Preconditions.checkArgument(StringUtils.isNotEmpty(name), "'name' must be configured");
+    Preconditions.checkArgument(name.indexOf('$') < 0, "'name' cannot contain '$'");
+    Preconditions.checkArgument(StringUtils.isNotEmpty(expression), "'expression' must be configured");
+    Preconditions.checkArgument(dataType != null, "'dataType' must be configured");
+    _name = name;
+    _expression = expression;
+    _dataType = dataType;
+    _invertedIndex = invertedIndex;
+    _rangeIndex = rangeIndex;
+  }
+
+  public String getName() {
+    return _name;
+  }
+
+  public String getExpression() {
+    return _expression;
+  }
+
+  public DataType getDataType() {
+    return _dataType;
+  }
+
+  public boolean isInvertedIndex() {
+    return _invertedIndex;
+  }
+
+  public boolean isRangeIndex() {
+    return _rangeIndex;
+  }
+}
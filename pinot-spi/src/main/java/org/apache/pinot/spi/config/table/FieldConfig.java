@@ -117,7 +117,9 @@ public class FieldConfig extends BaseJsonConfig {
   }
 
   public enum CompressionCodec {
-    PASS_THROUGH, SNAPPY, ZSTANDARD, LZ4
+    PASS_THROUGH, SNAPPY, ZSTANDARD, LZ4,
+    // Only applies to single-value raw INT, LONG, FLOAT and DOUBLE columns
+    FOR, DELTA, DELTADELTA, XOR
   }
 
   public String getName() {
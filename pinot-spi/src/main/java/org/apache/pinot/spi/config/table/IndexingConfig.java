@@ -29,6 +29,8 @@ import org.apache.pinot.spi.config.table.ingestion.IngestionConfig;
 public class IndexingConfig extends BaseJsonConfig {
   // Default ratio for overriding dictionary
   public static final double DEFAULT_NO_DICTIONARY_SIZE_RATIO_THRESHOLD = 0.85d;
+  // Default max number of pre-aggregated records of each star-tree maintained on consuming segments
+  public static final int DEFAULT_REALTIME_STAR_TREE_MAX_RECORDS = 100_000;
 
   /**
    * This should be equal to the one specified in RangeIndexType.
@@ -58,6 +60,11 @@ public class IndexingConfig extends BaseJsonConfig {
   private List<StarTreeIndexConfig> _starTreeIndexConfigs;
   // Whether to allow creating star-tree when server loads the segment
   private boolean _enableDynamicStarTreeCreation;
+  // Whether to maintain the star-trees on consuming segments, where each star-tree is disabled once its number of
+  // pre-aggregated records exceeds `realtimeStarTreeMaxRecords`
+  private boolean _enableRealtimeStarTree;
+  private int _realtimeStarTreeMaxRecords = DEFAULT_REALTIME_STAR_TREE_MAX_RECORDS;
+  private List<ExpressionIndexConfig> _expressionIndexConfigs;
   private SegmentPartitionConfig _segmentPartitionConfig;
   private boolean _aggregateMetrics;
   private boolean _nullHandlingEnabled;
@@ -275,6 +282,15 @@ public class IndexingConfig extends BaseJsonConfig {
     _starTreeIndexConfigs = starTreeIndexConfigs;
   }
 
+  @Nullable
+  public List<ExpressionIndexConfig> getExpressionIndexConfigs() {
+    return _expressionIndexConfigs;
+  }
+
+  public void setExpressionIndexConfigs(List<ExpressionIndexConfig> expressionIndexConfigs) {
+    _expressionIndexConfigs = expressionIndexConfigs;
+  }
+
   public JsonNode getTierOverwrites() {
     return _tierOverwrites;
   }
@@ -291,6 +307,22 @@ public class IndexingConfig extends BaseJsonConfig {
     _enableDynamicStarTreeCreation = enableDynamicStarTreeCreation;
   }
 
+  public boolean isEnableRealtimeStarTree() {
+    return _enableRealtimeStarTree;
+  }
+
+  public void setEnableRealtimeStarTree(boolean enableRealtimeStarTree) {
+    _enableRealtimeStarTree = enableRealtimeStarTree;
+  }
+
+  public int getRealtimeStarTreeMaxRecords() {
+    return _realtimeStarTreeMaxRecords;
+  }
+
+  public void setRealtimeStarTreeMaxRecords(int realtimeStarTreeMaxRecords) {
+    _realtimeStarTreeMaxRecords = realtimeStarTreeMaxRecords;
+  }
+
   @Nullable
   public SegmentPartitionConfig getSegmentPartitionConfig() {
     return _segmentPartitionConfig;
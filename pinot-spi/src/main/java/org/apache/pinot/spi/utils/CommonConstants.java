@@ -325,6 +325,8 @@ public class CommonConstants {
         public static final String SCAN_STAR_TREE_NODES = "scanStarTreeNodes";
         public static final String ROUTING_OPTIONS = "routingOptions";
         public static final String USE_SCAN_REORDER_OPTIMIZATION = "useScanReorderOpt";
+        // Set to false to evaluate the common transform sub-expressions separately for each reference
+        public static final String USE_SHARED_TRANSFORM = "useSharedTransform";
         public static final String MAX_EXECUTION_THREADS = "maxExecutionThreads";
         public static final String MIN_SEGMENT_GROUP_TRIM_SIZE = "minSegmentGroupTrimSize";
         public static final String MIN_SERVER_GROUP_TRIM_SIZE = "minServerGroupTrimSize";
@@ -335,6 +337,8 @@ public class CommonConstants {
         public static final String SERVER_RETURN_FINAL_RESULT = "serverReturnFinalResult";
         // Reorder scan based predicates based on cardinality and number of selected values
         public static final String AND_SCAN_REORDERING = "AndScanReordering";
+        // Reorder the child filters of AND filter with the same cost based on their estimated selectivity
+        public static final String USE_SELECTIVITY_FILTER_REORDER = "useSelectivityFilterReorder";
 
         public static final String ORDER_BY_ALGORITHM = "orderByAlgorithm";
 
@@ -342,6 +346,23 @@ public class CommonConstants {
         public static final String NUM_GROUPS_LIMIT = "numGroupsLimit";
         public static final String MAX_INITIAL_RESULT_HOLDER_CAPACITY = "maxInitialResultHolderCapacity";
         public static final String GROUP_TRIM_THRESHOLD = "groupTrimThreshold";
+        // Number of hash partitions to use when combining group-by results on the server (power of 2), where each
+        // partition is merged by a single thread. 0 (default) merges all results into one concurrent table.
+        public static final String NUM_GROUP_BY_COMBINE_PARTITIONS = "numGroupByCombinePartitions";
+        // Store multi-column group keys packed into int arrays instead of a map of key objects
+        public static final String USE_PACKED_GROUP_KEY_MAP = "usePackedGroupKeyMap";
+        // Derive the group ids from the runs of the sorted column when it is the leading group-by column
+        public static final String USE_SORTED_COLUMN_GROUP_BY = "useSortedColumnGroupBy";
+        // Evaluate the main filter once for all the filtered aggregations, and apply the index-based aggregation
+        // filters on the projected blocks instead of running one filter and projection pipeline per aggregation filter
+        public static final String USE_SHARED_FILTERED_AGGREGATION = "useSharedFilteredAggregation";
+        // Approximate the query by sampling the given fraction (0, 1] of the records, where the broker samples the
+        // segments and the servers sample the document ranges within the segments. COUNT and SUM results are scaled
+        // by the inverse of the sample rate.
+        public static final String SAMPLE_RATE = "sampleRate";
+        // Fraction of the segments sampled by the broker for the table, set by the broker so that the servers can
+        // derive the document sample rate
+        public static final String SEGMENT_SAMPLE_RATE = "segmentSampleRate";
         public static final String STAGE_PARALLELISM = "stageParallelism";
 
         // Handle IN predicate evaluation for big IN lists
@@ -527,6 +548,16 @@ public class CommonConstants {
         "pinot.server.query.executor.pruner.columnvaluesegmentpruner.inpredicate.threshold";
     public static final int DEFAULT_VALUE_PRUNER_IN_PREDICATE_THRESHOLD = 10;
 
+    // Server-wide cache of the decompressed chunks of the raw forward indexes, disabled when max size is not positive.
+    // Max size of each table defaults to the table max size, and can be overridden with
+    // "pinot.server.query.decompressed.chunk.cache.table.max.size.bytes.<tableName>", where the table name with type
+    // suffix (e.g. myTable_OFFLINE) takes precedence over the raw table name (applied to both table types).
+    public static final String CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_MAX_SIZE_BYTES =
+        "pinot.server.query.decompressed.chunk.cache.max.size.bytes";
+    public static final long DEFAULT_DECOMPRESSED_CHUNK_CACHE_MAX_SIZE_BYTES = 0L;
+    public static final String CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_TABLE_MAX_SIZE_BYTES =
+        "pinot.server.query.decompressed.chunk.cache.table.max.size.bytes";
+
     /**
      * Service token for accessing protected controller APIs.
      * E.g. null (auth disabled), "Basic abcdef..." (basic auth), "Bearer 123def..." (oauth2)
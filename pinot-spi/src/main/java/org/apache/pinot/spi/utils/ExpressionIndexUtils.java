@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.spi.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.pinot.spi.config.table.ExpressionIndexConfig;
+import org.apache.pinot.spi.config.table.IndexingConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.ingestion.IngestionConfig;
+import org.apache.pinot.spi.config.table.ingestion.TransformConfig;
+import org.apache.pinot.spi.data.DimensionFieldSpec;
+import org.apache.pinot.spi.data.Schema;
+
+
+public class ExpressionIndexUtils {
+  private ExpressionIndexUtils() {
+  }
+
+  private static final String MATERIALIZED_COLUMN_PREFIX = "$expr$";
+
+  /**
+   * Returns the name of the column materializing the given EXPRESSION index, e.g. $expr$lowerName.
+   */
+  public static String getMaterializedColumn(String indexName) {
+    return MATERIALIZED_COLUMN_PREFIX + indexName;
+  }
+
+  /**
+   * Returns whether the given column name is a column materializing an EXPRESSION index.
+   */
+  public static boolean isMaterializedColumn(String column) {
+    return column.length() > MATERIALIZED_COLUMN_PREFIX.length() && column.startsWith(MATERIALIZED_COLUMN_PREFIX);
+  }
+
+  /**
+   * Extracts the map from the materialized expression to the materialized column based on the EXPRESSION index
+   * config.
+   */
+  public static Map<String, String> extractMaterializedExpressions(TableConfig tableConfig) {
+    List<ExpressionIndexConfig> expressionIndexConfigs = tableConfig.getIndexingConfig().getExpressionIndexConfigs();
+    if (CollectionUtils.isEmpty(expressionIndexConfigs)) {
+      return Collections.emptyMap();
+    }
+    Map<String, String> materializedExpressions = new HashMap<>();
+    for (ExpressionIndexConfig expressionIndexConfig : expressionIndexConfigs) {
+      materializedExpressions.put(expressionIndexConfig.getExpression(),
+          getMaterializedColumn(expressionIndexConfig.getName()));
+    }
+    return materializedExpressions;
+  }
+
+  /**
+   * Applies the EXPRESSION index configured in the table config:
+   * - Adds the materialized columns to the schema
+   * - Adds transform for the materialized columns
+   * - Adds inverted/range index to the materialized columns if configured
+   */
+  public static void applyExpressionIndex(TableConfig tableConfig, Schema schema) {
+    IndexingConfig indexingConfig = tableConfig.getIndexingConfig();
+    List<ExpressionIndexConfig> expressionIndexConfigs = indexingConfig.getExpressionIndexConfigs();
+    if (CollectionUtils.isEmpty(expressionIndexConfigs)) {
+      return;
+    }
+
+    // Synchronize on table config object to prevent concurrent modification
+    //noinspection SynchronizationOnLocalVariableOrMethodParameter
+    synchronized (tableConfig) {
+      // Check if the updates are already applied
+      String sampleMaterializedColumn = getMaterializedColumn(expressionIndexConfigs.get(0).getName());
+      boolean schemaApplied = schema.hasColumn(sampleMaterializedColumn);
+      IngestionConfig ingestionConfig = tableConfig.getIngestionConfig();
+      boolean tableConfigApplied = false;
+      if (ingestionConfig != null && ingestionConfig.getTransformConfigs() != null) {
+        for (TransformConfig transformConfig : ingestionConfig.getTransformConfigs()) {
+          if (transformConfig.getColumnName().equals(sampleMaterializedColumn)) {
+            tableConfigApplied = true;
+            break;
+          }
+        }
+      }
+      if (schemaApplied && tableConfigApplied) {
+        return;
+      }
+
+      // Apply EXPRESSION index
+      List<TransformConfig> transformConfigs = null;
+      if (!tableConfigApplied) {
+        if (ingestionConfig == null) {
+          ingestionConfig = new IngestionConfig();
+          tableConfig.setIngestionConfig(ingestionConfig);
+        }
+        transformConfigs = ingestionConfig.getTransformConfigs();
+        if (transformConfigs == null) {
+          transformConfigs = new ArrayList<>();
+          ingestionConfig.setTransformConfigs(transformConfigs);
+        }
+      }
+      for (ExpressionIndexConfig expressionIndexConfig : expressionIndexConfigs) {
+        String materializedColumn = getMaterializedColumn(expressionIndexConfig.getName());
+        if (!schemaApplied) {
+          schema.addField(new DimensionFieldSpec(materializedColumn, expressionIndexConfig.getDataType(), true));
+        }
+        if (!tableConfigApplied) {
+          transformConfigs.add(new TransformConfig(materializedColumn, expressionIndexConfig.getExpression()));
+          if (expressionIndexConfig.isInvertedIndex()) {
+            List<String> invertedIndexColumns = indexingConfig.getInvertedIndexColumns();
+            if (invertedIndexColumns == null) {
+              invertedIndexColumns = new ArrayList<>();
+              indexingConfig.setInvertedIndexColumns(invertedIndexColumns);
+            }
+            invertedIndexColumns.add(materializedColumn);
+          }
+          if (expressionIndexConfig.isRangeIndex()) {
+            List<String> rangeIndexColumns = indexingConfig.getRangeIndexColumns();
+            if (rangeIndexColumns == null) {
+              rangeIndexColumns = new ArrayList<>();
+              indexingConfig.setRangeIndexColumns(rangeIndexColumns);
+            }
+            rangeIndexColumns.add(materializedColumn);
+          }
+        }
+      }
+    }
+  }
+}
@@ -76,5 +76,17 @@ public class BloomFilterConfigTest {
     Assert.assertEquals(config.getFpp(), 0.5d, "FPP is wrong");
     Assert.assertEquals(config.getMaxSizeInBytes(), 1024, "maxSizeInBytes is wrong");
     Assert.assertTrue(config.isLoadOnHeap(), "loadOnHeap is wrong");
+    Assert.assertEquals(config.getFormat(), BloomFilterConfig.Format.GUAVA, "format is wrong");
+  }
+
+  @Test
+  public void withSplitBlockFormat()
+      throws JsonProcessingException {
+    String confStr = "{\"format\": \"SPLIT_BLOCK\"}";
+    BloomFilterConfig config = JsonUtils.stringToObject(confStr, BloomFilterConfig.class);
+
+    Assert.assertTrue(config.isEnabled(), "Config should be enabled");
+    Assert.assertEquals(config.getFormat(), BloomFilterConfig.Format.SPLIT_BLOCK, "format is wrong");
+    Assert.assertNotEquals(config, BloomFilterConfig.DEFAULT, "Config should not equal the default");
   }
 }
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.spi.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.pinot.spi.config.table.ExpressionIndexConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.config.table.ingestion.TransformConfig;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class ExpressionIndexUtilsTest {
+
+  @Test
+  public void testMaterializedColumn() {
+    assertEquals(ExpressionIndexUtils.getMaterializedColumn("lowerName"), "$expr$lowerName");
+    assertTrue(ExpressionIndexUtils.isMaterializedColumn("$expr$lowerName"));
+    assertFalse(ExpressionIndexUtils.isMaterializedColumn("$expr$"));
+    assertFalse(ExpressionIndexUtils.isMaterializedColumn("$docId"));
+    assertFalse(ExpressionIndexUtils.isMaterializedColumn("lowerName"));
+  }
+
+  @Test
+  public void testExtractMaterializedExpressions() {
+    TableConfig tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName("testTable").build();
+    assertTrue(ExpressionIndexUtils.extractMaterializedExpressions(tableConfig).isEmpty());
+
+    tableConfig.getIndexingConfig().setExpressionIndexConfigs(getExpressionIndexConfigs());
+    Map<String, String> materializedExpressions = ExpressionIndexUtils.extractMaterializedExpressions(tableConfig);
+    assertEquals(materializedExpressions.size(), 2);
+    assertEquals(materializedExpressions.get("lower(name)"), "$expr$lowerName");
+    assertEquals(materializedExpressions.get("jsonExtractScalar(payload, '$.type', 'STRING')"), "$expr$type");
+  }
+
+  @Test
+  public void testApplyExpressionIndex() {
+    TableConfig tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName("testTable")
+        .setInvertedIndexColumns(new ArrayList<>(Collections.singletonList("name"))).build();
+    tableConfig.getIndexingConfig().setExpressionIndexConfigs(getExpressionIndexConfigs());
+    Schema schema = new Schema.SchemaBuilder().setSchemaName("testTable")
+        .addSingleValueDimension("name", DataType.STRING)
+        .addSingleValueDimension("payload", DataType.JSON).build();
+
+    // Apply EXPRESSION index multiple times should get the same result
+    for (int i = 0; i < 5; i++) {
+      ExpressionIndexUtils.applyExpressionIndex(tableConfig, schema);
+
+      // Check schema
+      assertEquals(schema.size(), 4);
+      FieldSpec lowerNameFieldSpec = schema.getFieldSpecFor("$expr$lowerName");
+      assertNotNull(lowerNameFieldSpec);
+      assertEquals(lowerNameFieldSpec.getFieldType(), FieldSpec.FieldType.DIMENSION);
+      assertEquals(lowerNameFieldSpec.getDataType(), DataType.STRING);
+      assertTrue(lowerNameFieldSpec.isSingleValueField());
+
+      // Check ingestion transform
+      assertNotNull(tableConfig.getIngestionConfig());
+      List<TransformConfig> transformConfigs = tableConfig.getIngestionConfig().getTransformConfigs();
+      assertNotNull(transformConfigs);
+      assertEquals(transformConfigs.size(), 2);
+      assertEquals(transformConfigs.get(0).getColumnName(), "$expr$lowerName");
+      assertEquals(transformConfigs.get(0).getTransformFunction(), "lower(name)");
+      assertEquals(transformConfigs.get(1).getColumnName(), "$expr$type");
+
+      // Check inverted and range index
+      assertEquals(tableConfig.getIndexingConfig().getInvertedIndexColumns(),
+          Arrays.asList("name", "$expr$lowerName", "$expr$type"));
+      assertEquals(tableConfig.getIndexingConfig().getRangeIndexColumns(),
+          Collections.singletonList("$expr$lowerName"));
+    }
+  }
+
+  private static List<ExpressionIndexConfig> getExpressionIndexConfigs() {
+    return Arrays.asList(new ExpressionIndexConfig("lowerName", "lower(name)", DataType.STRING, true, true),
+        new ExpressionIndexConfig("type", "jsonExtractScalar(payload, '$.type', 'STRING')", DataType.STRING, true,
+            false));
+  }
+}